@@ -20,20 +20,24 @@ package com.hedera.services.throttles;
  * ‍
  */
 
-import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
 
 /**
  * A throttle with milli-TPS resolution that exists in a deterministic timeline.
+ *
+ * The time of the last decision is kept as nanoseconds since the epoch, so that
+ * deciding at a given time does not allocate.
  */
 public class DeterministicThrottle {
 	private static final Instant NEVER = null;
+	private static final long NEVER_NANOS = Long.MIN_VALUE;
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
 	private static final String NO_NAME = null;
 
 	private final String name;
 	private final BucketThrottle delegate;
-	private Instant lastDecisionTime;
+	private long lastDecisionNanos;
 
 	public static DeterministicThrottle withTps(int tps) {
 		return new DeterministicThrottle(BucketThrottle.withTps(tps), NO_NAME);
@@ -86,7 +90,7 @@ public class DeterministicThrottle {
 	private DeterministicThrottle(BucketThrottle delegate, String name) {
 		this.name = name;
 		this.delegate = delegate;
-		lastDecisionTime = NEVER;
+		lastDecisionNanos = NEVER_NANOS;
 	}
 
 	public static long capacityRequiredFor(int nTransactions) {
@@ -98,20 +102,40 @@ public class DeterministicThrottle {
 	}
 
 	public boolean allow(int n, Instant now) {
+		return allow(n, epochNanosOf(now));
+	}
+
+	/**
+	 * Decides if {@code n} transactions should be allowed at the given time.
+	 *
+	 * @param n the number of transactions
+	 * @param nowNanos the time of the decision, in nanoseconds since the epoch
+	 * @return whether the transactions are allowed
+	 * @throws IllegalArgumentException if the time is before that of the last decision
+	 */
+	public boolean allow(int n, long nowNanos) {
 		long elapsedNanos = 0L;
-		if (lastDecisionTime != NEVER) {
-			elapsedNanos = Duration.between(lastDecisionTime, now).toNanos();
+		if (lastDecisionNanos != NEVER_NANOS) {
+			elapsedNanos = nowNanos - lastDecisionNanos;
 			if (elapsedNanos < 0L) {
-				throw new IllegalArgumentException(
-						"Throttle timeline must advance, but " + now + " is not after " + lastDecisionTime + "!");
+				throw new IllegalArgumentException("Throttle timeline must advance, but "
+						+ instantOf(nowNanos) + " is not after " + instantOf(lastDecisionNanos) + "!");
 			}
 		}
 
 		var decision = delegate.allow(n, elapsedNanos);
-		lastDecisionTime = now;
+		lastDecisionNanos = nowNanos;
 		return decision;
 	}
 
+	public static long epochNanosOf(Instant instant) {
+		return Math.addExact(Math.multiplyExact(instant.getEpochSecond(), NANOS_PER_SECOND), instant.getNano());
+	}
+
+	public static Instant instantOf(long epochNanos) {
+		return Instant.ofEpochSecond(0L, epochNanos);
+	}
+
 	public void reclaimLastAllowedUse() {
 		delegate.reclaimLastAllowedUse();
 	}
@@ -134,12 +158,13 @@ public class DeterministicThrottle {
 
 	public UsageSnapshot usageSnapshot() {
 		var bucket = delegate.bucket();
-		return new UsageSnapshot(bucket.capacityUsed(), lastDecisionTime);
+		return new UsageSnapshot(bucket.capacityUsed(), lastDecisionTime());
 	}
 
 	public void resetUsageTo(UsageSnapshot usageSnapshot) {
 		var bucket = delegate.bucket();
-		lastDecisionTime = usageSnapshot.lastDecisionTime();
+		var lastDecision = usageSnapshot.lastDecisionTime();
+		lastDecisionNanos = (lastDecision == NEVER) ? NEVER_NANOS : epochNanosOf(lastDecision);
 		bucket.resetUsed(usageSnapshot.used());
 	}
 
@@ -160,7 +185,7 @@ public class DeterministicThrottle {
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(delegate.bucket().totalCapacity(), delegate.mtps(), name, lastDecisionTime);
+		return Objects.hash(delegate.bucket().totalCapacity(), delegate.mtps(), name, lastDecisionNanos);
 	}
 
 	@Override
@@ -172,7 +197,7 @@ public class DeterministicThrottle {
 		return sb
 				.append("mtps=").append(delegate.mtps()).append(", ")
 				.append("capacity=").append(capacity()).append(" (used=").append(used()).append(")")
-				.append(lastDecisionTime == NEVER ? "" : (", last decision @ " + lastDecisionTime))
+				.append(lastDecisionNanos == NEVER_NANOS ? "" : (", last decision @ " + lastDecisionTime()))
 				.append("}")
 				.toString();
 	}
@@ -228,6 +253,6 @@ public class DeterministicThrottle {
 	}
 
 	Instant lastDecisionTime() {
-		return lastDecisionTime;
+		return (lastDecisionNanos == NEVER_NANOS) ? NEVER : instantOf(lastDecisionNanos);
 	}
 }
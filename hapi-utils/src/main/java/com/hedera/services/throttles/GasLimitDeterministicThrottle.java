@@ -0,0 +1,136 @@
+package com.hedera.services.throttles;
+
+/*-
+ * ‌
+ * Hedera Services API Utilities
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.time.Instant;
+
+import static com.hedera.services.throttles.DeterministicThrottle.epochNanosOf;
+import static com.hedera.services.throttles.DeterministicThrottle.instantOf;
+
+/**
+ * A throttle that limits the total gas limit of the contract transactions it allows per
+ * second, in a deterministic timeline; the bucket has a capacity of one second's worth
+ * of gas, and leaks at that rate.
+ */
+public class GasLimitDeterministicThrottle {
+	private static final Instant NEVER = null;
+	private static final long NEVER_NANOS = Long.MIN_VALUE;
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	private final DiscreteLeakyBucket delegate;
+	private long lastDecisionNanos;
+	private long lastAllowedUse;
+
+	public GasLimitDeterministicThrottle(long capacity) {
+		this.delegate = new DiscreteLeakyBucket(capacity);
+		lastDecisionNanos = NEVER_NANOS;
+	}
+
+	/**
+	 * Decides if a transaction with the given gas limit should be allowed at the given time,
+	 * using that much of the bucket capacity if so.
+	 *
+	 * @param now the time of the decision
+	 * @param gasLimit the gas limit of the transaction
+	 * @return whether the transaction is allowed
+	 * @throws IllegalArgumentException if the time is before that of the last decision
+	 */
+	public boolean allow(Instant now, long gasLimit) {
+		return allow(epochNanosOf(now), gasLimit);
+	}
+
+	/**
+	 * Decides if a transaction with the given gas limit should be allowed at the given time,
+	 * using that much of the bucket capacity if so.
+	 *
+	 * @param nowNanos the time of the decision, in nanoseconds since the epoch
+	 * @param gasLimit the gas limit of the transaction
+	 * @return whether the transaction is allowed
+	 * @throws IllegalArgumentException if the time is before that of the last decision
+	 */
+	public boolean allow(long nowNanos, long gasLimit) {
+		long elapsedNanos = 0L;
+		if (lastDecisionNanos != NEVER_NANOS) {
+			elapsedNanos = nowNanos - lastDecisionNanos;
+			if (elapsedNanos < 0L) {
+				throw new IllegalArgumentException("Throttle timeline must advance, but "
+						+ instantOf(nowNanos) + " is not after " + instantOf(lastDecisionNanos) + "!");
+			}
+		}
+		lastDecisionNanos = nowNanos;
+
+		delegate.leak(leakedIn(elapsedNanos));
+		if (gasLimit < 0 || gasLimit > delegate.capacityFree()) {
+			return false;
+		}
+		delegate.useCapacity(gasLimit);
+		lastAllowedUse = gasLimit;
+		return true;
+	}
+
+	public void reclaimLastAllowedUse() {
+		delegate.leak(lastAllowedUse);
+		lastAllowedUse = 0L;
+	}
+
+	public long used() {
+		return delegate.capacityUsed();
+	}
+
+	public long capacity() {
+		return delegate.totalCapacity();
+	}
+
+	public DeterministicThrottle.UsageSnapshot usageSnapshot() {
+		return new DeterministicThrottle.UsageSnapshot(delegate.capacityUsed(), lastDecisionTime());
+	}
+
+	public void resetUsageTo(DeterministicThrottle.UsageSnapshot usageSnapshot) {
+		delegate.resetUsed(usageSnapshot.used());
+		final var lastDecision = usageSnapshot.lastDecisionTime();
+		lastDecisionNanos = (lastDecision == NEVER) ? NEVER_NANOS : epochNanosOf(lastDecision);
+	}
+
+	/* Splits the capacity into whole and partial billions of gas, so a large capacity
+	times a sub-second interval cannot overflow. */
+	private long leakedIn(long elapsedNanos) {
+		final var capacity = delegate.totalCapacity();
+		if (elapsedNanos >= NANOS_PER_SECOND) {
+			return capacity;
+		}
+		return (capacity / NANOS_PER_SECOND) * elapsedNanos
+				+ (capacity % NANOS_PER_SECOND) * elapsedNanos / NANOS_PER_SECOND;
+	}
+
+	@Override
+	public String toString() {
+		return new StringBuilder("GasLimitDeterministicThrottle{")
+				.append("capacity=").append(capacity()).append(" (used=").append(used()).append(")")
+				.append(lastDecisionNanos == NEVER_NANOS ? "" : (", last decision @ " + lastDecisionTime()))
+				.append("}")
+				.toString();
+	}
+
+	/* --- Only used by unit tests --- */
+	Instant lastDecisionTime() {
+		return (lastDecisionNanos == NEVER_NANOS) ? NEVER : instantOf(lastDecisionNanos);
+	}
+}
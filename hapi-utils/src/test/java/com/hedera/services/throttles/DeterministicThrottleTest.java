@@ -35,7 +35,6 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
-import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
@@ -149,7 +148,7 @@ class DeterministicThrottleTest {
 
 		// then:
 		assertTrue(result);
-		assertSame(now, subject.lastDecisionTime());
+		assertEquals(now, subject.lastDecisionTime());
 		assertEquals(internalCapacity - CAPACITY_UNITS_PER_TXN, subject.delegate().bucket().capacityFree());
 	}
 
@@ -172,6 +171,59 @@ class DeterministicThrottleTest {
 		assertDoesNotThrow(() -> subject.allow(1, now));
 	}
 
+	@Test
+	void decidesTheSameWithEpochNanos() {
+		// setup:
+		Instant originalDecision = Instant.ofEpochSecond(1_234_567L, 0);
+		Instant now = Instant.ofEpochSecond(1_234_567L, 1_234);
+
+		// given:
+		var fromInstants = DeterministicThrottle.withTpsAndBurstPeriod(1, 5);
+		var fromNanos = DeterministicThrottle.withTpsAndBurstPeriod(1, 5);
+
+		// when:
+		fromInstants.allow(1, originalDecision);
+		fromInstants.allow(1, now);
+		// and:
+		fromNanos.allow(1, DeterministicThrottle.epochNanosOf(originalDecision));
+		fromNanos.allow(1, DeterministicThrottle.epochNanosOf(now));
+
+		// then:
+		assertEquals(fromInstants.usageSnapshot(), fromNanos.usageSnapshot());
+		assertEquals(now, fromNanos.lastDecisionTime());
+	}
+
+	@Test
+	void reportsRegressedTimelineAsInstants() {
+		// setup:
+		Instant now = Instant.ofEpochSecond(1_234_567L, 890);
+
+		// given:
+		var subject = DeterministicThrottle.withTpsAndBurstPeriod(1, 5);
+		subject.allow(1, now);
+
+		// when:
+		var e = assertThrows(IllegalArgumentException.class,
+				() -> subject.allow(1, DeterministicThrottle.epochNanosOf(now) - 1));
+
+		// then:
+		assertEquals("Throttle timeline must advance, but 1970-01-15T06:56:07.000000889Z " +
+				"is not after 1970-01-15T06:56:07.000000890Z!", e.getMessage());
+	}
+
+	@Test
+	void convertsBetweenInstantsAndEpochNanos() {
+		// setup:
+		Instant now = Instant.ofEpochSecond(1_234_567L, 890);
+		Instant beforeEpoch = Instant.ofEpochSecond(-2L, 1);
+
+		// expect:
+		assertEquals(1_234_567_000_000_890L, DeterministicThrottle.epochNanosOf(now));
+		assertEquals(now, DeterministicThrottle.instantOf(DeterministicThrottle.epochNanosOf(now)));
+		assertEquals(beforeEpoch, DeterministicThrottle.instantOf(DeterministicThrottle.epochNanosOf(beforeEpoch)));
+		assertThrows(ArithmeticException.class, () -> DeterministicThrottle.epochNanosOf(Instant.MAX));
+	}
+
 	@Test
 	void usesCorrectElapsedNanosOnSubsequentDecision() {
 		// setup:
@@ -192,7 +244,7 @@ class DeterministicThrottleTest {
 
 		// then:
 		assertTrue(result);
-		assertSame(now, subject.lastDecisionTime());
+		assertEquals(now, subject.lastDecisionTime());
 		assertEquals(
 				internalCapacity - 2 * CAPACITY_UNITS_PER_TXN + 1_000 * elapsedNanos,
 				subject.delegate().bucket().capacityFree());
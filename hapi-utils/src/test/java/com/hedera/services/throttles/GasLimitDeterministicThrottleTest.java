@@ -0,0 +1,175 @@
+package com.hedera.services.throttles;
+
+/*-
+ * ‌
+ * Hedera Services API Utilities
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GasLimitDeterministicThrottleTest {
+	private static final long CAPACITY = 1_000_000L;
+
+	private final Instant now = Instant.ofEpochSecond(1_234_567L, 123);
+
+	private GasLimitDeterministicThrottle subject = new GasLimitDeterministicThrottle(CAPACITY);
+
+	@Test
+	void startsEmpty() {
+		// expect:
+		assertEquals(CAPACITY, subject.capacity());
+		assertEquals(0L, subject.used());
+		assertNull(subject.lastDecisionTime());
+	}
+
+	@Test
+	void allowsUpToCapacity() {
+		// expect:
+		assertTrue(subject.allow(now, CAPACITY / 2));
+		assertTrue(subject.allow(now, CAPACITY / 2));
+		assertFalse(subject.allow(now, 1L));
+		// and:
+		assertEquals(CAPACITY, subject.used());
+		assertEquals(now, subject.lastDecisionTime());
+	}
+
+	@Test
+	void rejectsNegativeOrExcessiveGasLimits() {
+		// expect:
+		assertFalse(subject.allow(now, -1L));
+		assertFalse(subject.allow(now, CAPACITY + 1));
+		assertEquals(0L, subject.used());
+	}
+
+	@Test
+	void leaksProportionallyToElapsedTime() {
+		// given:
+		subject.allow(now, CAPACITY);
+
+		// when:
+		assertTrue(subject.allow(now.plusMillis(250), 0L));
+
+		// then:
+		assertEquals(CAPACITY * 3 / 4, subject.used());
+
+		// and when:
+		assertTrue(subject.allow(now.plusSeconds(2), 0L));
+
+		// then:
+		assertEquals(0L, subject.used());
+	}
+
+	@Test
+	void leaksWithoutOverflowForHugeCapacity() {
+		// setup:
+		final var hugeCapacity = Long.MAX_VALUE / 2;
+		subject = new GasLimitDeterministicThrottle(hugeCapacity);
+
+		// given:
+		subject.allow(now, hugeCapacity);
+
+		// when:
+		subject.allow(now.plusMillis(500), 0L);
+
+		// then:
+		assertEquals(hugeCapacity - hugeCapacity / 2, subject.used(), 1_000L);
+	}
+
+	@Test
+	void requiresMonotonicTimeline() {
+		// given:
+		subject.allow(now, 1L);
+
+		// expect:
+		assertThrows(IllegalArgumentException.class, () -> subject.allow(now.minusNanos(1), 1L));
+	}
+
+	@Test
+	void decidesTheSameWithEpochNanos() {
+		// setup:
+		final var fromNanos = new GasLimitDeterministicThrottle(CAPACITY);
+
+		// when:
+		subject.allow(now, CAPACITY);
+		subject.allow(now.plusMillis(250), 0L);
+		// and:
+		fromNanos.allow(DeterministicThrottle.epochNanosOf(now), CAPACITY);
+		fromNanos.allow(DeterministicThrottle.epochNanosOf(now.plusMillis(250)), 0L);
+
+		// then:
+		assertEquals(subject.usageSnapshot(), fromNanos.usageSnapshot());
+	}
+
+	@Test
+	void reclaimsLastAllowedUse() {
+		// given:
+		subject.allow(now, 1_000L);
+		subject.allow(now, 2_000L);
+
+		// when:
+		subject.reclaimLastAllowedUse();
+
+		// then:
+		assertEquals(1_000L, subject.used());
+	}
+
+	@Test
+	void snapshotsAndResetsUsage() {
+		// given:
+		subject.allow(now, 123_456L);
+		final var snapshot = subject.usageSnapshot();
+		// and:
+		final var other = new GasLimitDeterministicThrottle(CAPACITY);
+
+		// when:
+		other.resetUsageTo(snapshot);
+
+		// then:
+		assertEquals(new DeterministicThrottle.UsageSnapshot(123_456L, now), snapshot);
+		assertEquals(123_456L, other.used());
+		assertEquals(now, other.lastDecisionTime());
+	}
+
+	@Test
+	void refusesIncompatibleSnapshot() {
+		// expect:
+		assertThrows(IllegalArgumentException.class,
+				() -> subject.resetUsageTo(new DeterministicThrottle.UsageSnapshot(CAPACITY + 1, now)));
+	}
+
+	@Test
+	void toStringWorks() {
+		// expect:
+		assertEquals("GasLimitDeterministicThrottle{capacity=1000000 (used=0)}", subject.toString());
+
+		// and when:
+		subject.allow(now, 1L);
+
+		// then:
+		assertEquals("GasLimitDeterministicThrottle{capacity=1000000 (used=1), last decision @ "
+				+ now + "}", subject.toString());
+	}
+}
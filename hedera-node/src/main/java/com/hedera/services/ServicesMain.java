@@ -22,6 +22,7 @@ package com.hedera.services;
 
 import com.hedera.services.context.ServicesContext;
 import com.hedera.services.context.properties.Profile;
+import com.hedera.services.state.blobs.BlobBackend;
 import com.hedera.services.state.forensics.FcmDump;
 import com.hedera.services.state.forensics.IssListener;
 import com.hedera.services.utils.JvmSystemExits;
@@ -34,6 +35,7 @@ import com.swirlds.common.SwirldState;
 import com.swirlds.common.notification.NotificationEngine;
 import com.swirlds.common.notification.NotificationFactory;
 import com.swirlds.common.notification.listeners.ReconnectCompleteListener;
+import com.swirlds.common.notification.listeners.StateWriteToDiskCompleteListener;
 import com.swirlds.platform.Browser;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -163,6 +165,8 @@ public class ServicesMain implements SwirldMain {
 		log.info("Platform callbacks registered.");
 		registerReconnectCompleteListener(NotificationFactory.getEngine());
 		log.info("ReconnectCompleteListener registered.");
+		registerStateWriteToDiskCompleteListener(NotificationFactory.getEngine());
+		log.info("StateWriteToDiskCompleteListener registered.");
 		exportAccountsIfDesired();
 		log.info("Accounts exported.");
 		initializeStats();
@@ -283,4 +287,10 @@ public class ServicesMain implements SwirldMain {
 					ctx.recordStreamManager().setStartWriteAtCompleteWindow(true);
 				});
 	}
+
+	void registerStateWriteToDiskCompleteListener(final NotificationEngine notificationEngine) {
+		notificationEngine.register(StateWriteToDiskCompleteListener.class,
+				(notification) -> BlobBackend.snapshotLocalStoreIfNeeded(
+						notification.getRoundNumber(), notification.getFolder().toPath()));
+	}
 }
@@ -25,8 +25,12 @@ import com.hedera.services.context.ServicesContext;
 import com.hedera.services.context.properties.BootstrapProperties;
 import com.hedera.services.context.properties.StandardizedPropertySources;
 import com.hedera.services.exceptions.ContextNotFoundException;
+import com.hedera.services.state.blobs.BlobBackend;
+import com.hedera.services.state.initialization.ParallelViewRebuild;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleBlobMeta;
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
 import com.hedera.services.state.merkle.MerkleDiskFs;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
 import com.hedera.services.state.merkle.MerkleEntityId;
@@ -63,10 +67,13 @@ import org.apache.logging.log4j.Logger;
 import java.io.UncheckedIOException;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 
 import static com.hedera.services.context.SingletonContextsManager.CONTEXTS;
 import static com.hedera.services.sigs.HederaToPlatformSigOps.expandIn;
+import static com.hedera.services.state.initialization.ViewBuilder.rebuildContractStorageViews;
 import static com.hedera.services.state.initialization.ViewBuilder.rebuildUniqueTokenViews;
 import static com.hedera.services.state.merkle.MerkleNetworkContext.UNKNOWN_CONSENSUS_TIME;
 import static com.hedera.services.utils.EntityIdUtils.asLiteralString;
@@ -87,17 +94,21 @@ public class ServicesState extends AbstractNaryMerkleInternal implements SwirldS
 	static final int RELEASE_0140_VERSION = 8;
 	static final int RELEASE_0150_VERSION = 9;
 	static final int RELEASE_0160_VERSION = 10;
-	static final int MERKLE_VERSION = RELEASE_0160_VERSION;
+	static final int RELEASE_0170_VERSION = 11;
+	static final int MERKLE_VERSION = RELEASE_0170_VERSION;
 	static final long RUNTIME_CONSTRUCTABLE_ID = 0x8e300b0dfdafbb1aL;
 
 	static final String UNSUPPORTED_VERSION_MSG_TPL = "Argument 'version=%d' is invalid!";
 
-	static Supplier<BinaryObjectStore> blobStoreSupplier = BinaryObjectStore::getInstance;
+	static Supplier<BinaryObjectStore> blobStoreSupplier = BlobBackend::store;
+	static Runnable localBlobRecovery = BlobBackend::finishLocalRecoveryIfNeeded;
+	static IntSupplier maxViewRebuildThreads = () -> Runtime.getRuntime().availableProcessors();
 
 	NodeId nodeId = null;
 	boolean skipDiskFsHashCheck = false;
 	private FCOneToManyRelation<EntityId, MerkleUniqueTokenId> uniqueTokenAssociations;
 	private FCOneToManyRelation<EntityId, MerkleUniqueTokenId> uniqueOwnershipAssociations;
+	private FCOneToManyRelation<EntityId, MerkleContractSlotId> contractStorageAssociations;
 
 	/* Order of Merkle node children */
 	static class ChildIndices {
@@ -122,6 +133,8 @@ public class ServicesState extends AbstractNaryMerkleInternal implements SwirldS
 		static final int NUM_0150_CHILDREN = 10;
 		static final int UNIQUE_TOKENS = 10;
 		static final int NUM_0160_CHILDREN = 11;
+		static final int CONTRACT_STORAGE = 11;
+		static final int NUM_0170_CHILDREN = 12;
 	}
 
 	ServicesContext ctx;
@@ -136,6 +149,7 @@ public class ServicesState extends AbstractNaryMerkleInternal implements SwirldS
 			List<MerkleNode> children,
 			FCOneToManyRelation<EntityId, MerkleUniqueTokenId> mutableUniqueTokenAssociations,
 			FCOneToManyRelation<EntityId, MerkleUniqueTokenId> mutableUniqueOwnershipAssociations,
+			FCOneToManyRelation<EntityId, MerkleContractSlotId> mutableContractStorageAssociations,
 			ServicesState immutableState
 	) {
 		super(immutableState);
@@ -144,6 +158,7 @@ public class ServicesState extends AbstractNaryMerkleInternal implements SwirldS
 		this.nodeId = nodeId;
 		this.uniqueTokenAssociations = mutableUniqueTokenAssociations;
 		this.uniqueOwnershipAssociations = mutableUniqueOwnershipAssociations;
+		this.contractStorageAssociations = mutableContractStorageAssociations;
 		if (ctx != null) {
 			ctx.update(this);
 		}
@@ -163,6 +178,8 @@ public class ServicesState extends AbstractNaryMerkleInternal implements SwirldS
 	@Override
 	public int getMinimumChildCount(int version) {
 		switch (version) {
+			case RELEASE_0170_VERSION:
+				return ChildIndices.NUM_0170_CHILDREN;
 			case RELEASE_0160_VERSION:
 				return ChildIndices.NUM_0160_CHILDREN;
 			case RELEASE_0150_VERSION:
@@ -198,6 +215,9 @@ public class ServicesState extends AbstractNaryMerkleInternal implements SwirldS
 		if (uniqueTokens() == null) {
 			setChild(ChildIndices.UNIQUE_TOKENS, new FCMap<>());
 		}
+		if (contractStorage() == null) {
+			setChild(ChildIndices.CONTRACT_STORAGE, new FCMap<>());
+		}
 	}
 
 	/* --- SwirldState --- */
@@ -232,6 +252,7 @@ public class ServicesState extends AbstractNaryMerkleInternal implements SwirldS
 			setChild(ChildIndices.DISK_FS, new MerkleDiskFs());
 			setChild(ChildIndices.SCHEDULE_TXS, new FCMap<>());
 			setChild(ChildIndices.UNIQUE_TOKENS, new FCMap<MerkleUniqueTokenId, MerkleUniqueToken>());
+			setChild(ChildIndices.CONTRACT_STORAGE, new FCMap<MerkleContractSlotId, MerkleContractSlot>());
 
 			/* Initialize the running hash leaf at genesis to an empty hash. */
 			final var firstRunningHash = new RunningHash();
@@ -273,24 +294,43 @@ public class ServicesState extends AbstractNaryMerkleInternal implements SwirldS
 		 * they are already constructed) to rebuild their auxiliary views of the state.
 		 * All the initialization that follows will be a function of the primitive state. */
 		ctx.update(this);
-		ctx.rebuildBackingStoresIfPresent();
-		ctx.rebuildStoreViewsIfPresent();
+		/* Balance changes that led to this state were not tracked, so the next balances export must be full */
+		ctx.balanceChangeTracker().reset();
 		uniqueTokenAssociations = new FCOneToManyRelation<>();
 		uniqueOwnershipAssociations = new FCOneToManyRelation<>();
-		rebuildUniqueTokenViews(uniqueTokens(), uniqueTokenAssociations, uniqueOwnershipAssociations);
-
-		/* Use any payer records stored in state to rebuild the recent transaction
-		 * history. This history has two main uses: Purging expired records, and
-		 * classifying duplicate transactions. */
-		ctx.recordsHistorian().reviewExistingRecords();
-		/* Use any entities stored in state to rebuild queue of expired entities. */
-		ctx.expiries().reviewExistingShortLivedEntities();
+		contractStorageAssociations = new FCOneToManyRelation<>();
+		/* Each of the rebuilds below scans an independent part of the state into its own view, so
+		 * they can run concurrently. (All the context components are resolved here on the calling
+		 * thread, since the context's lazy getters are not thread-safe.) */
+		final var currentUniqueTokens = uniqueTokens();
+		final var currentContractStorage = contractStorage();
+		final var historian = ctx.recordsHistorian();
+		final var expiries = ctx.expiries();
+		final var accountExpiryIndex = ctx.accountExpiryIndex();
+		new ParallelViewRebuild(maxViewRebuildThreads.getAsInt())
+				.step("backingStores", ctx::rebuildBackingStoresIfPresent)
+				.step("storeViews", ctx::rebuildStoreViewsIfPresent)
+				.step("uniqueTokenViews", () -> rebuildUniqueTokenViews(
+						currentUniqueTokens, uniqueTokenAssociations, uniqueOwnershipAssociations))
+				.step("contractStorageViews", () -> rebuildContractStorageViews(
+						currentContractStorage, contractStorageAssociations))
+				/* Use any payer records stored in state to rebuild the recent transaction
+				 * history. This history has two main uses: Purging expired records, and
+				 * classifying duplicate transactions. */
+				.step("payerRecords", historian::reviewExistingRecords)
+				/* Use any entities stored in state to rebuild queue of expired entities; after
+				 * the payer records, since the expiry manager is not meant for concurrent use. */
+				.step("shortLivedEntities", expiries::reviewExistingShortLivedEntities, "payerRecords")
+				/* Use the accounts in state to rebuild the index of accounts due for auto-renewal. */
+				.step("accountExpiryIndex", accountExpiryIndex::rebuild)
+				.run();
 		/* Re-initialize the "observable" system files; that is, the files which have
 	 	associated callbacks managed by the SysFilesCallback object. We explicitly
 	 	re-mark the files are not loaded here, in case this is a reconnect. (During a
 	 	reconnect the blob store might still be reloading, and we will finish loading
 	 	the observable files in the ServicesMain.init method.) */
 		ctx.networkCtxManager().setObservableFilesNotLoaded();
+		localBlobRecovery.run();
 		if (!blobStoreSupplier.get().isInitializing()) {
 			ctx.networkCtxManager().loadObservableSysFilesIfNeeded();
 		}
@@ -337,10 +377,17 @@ public class ServicesState extends AbstractNaryMerkleInternal implements SwirldS
 	@Override
 	public synchronized ServicesState copy() {
 		setImmutable(true);
+		if (ctx != null) {
+			/* Balance changes tracked so far all belong to this (soon-to-be signed) state */
+			final var lastHandledTime = networkCtx().consensusTimeOfLastHandledTxn();
+			ctx.balanceChangeTracker().seal(Optional.ofNullable(lastHandledTime).orElse(Instant.EPOCH));
+		}
 		final var mutableUniqTokenAssocsIfInit =
 				(uniqueTokenAssociations == null) ? null : uniqueTokenAssociations.copy();
 		final var mutableOwnerAssocsIfInit =
 				(uniqueOwnershipAssociations == null) ? null : uniqueOwnershipAssociations.copy();
+		final var mutableStorageAssocsIfInit =
+				(contractStorageAssociations == null) ? null : contractStorageAssociations.copy();
 		return new ServicesState(ctx, nodeId, List.of(
 				addressBook().copy(),
 				networkCtx().copy(),
@@ -352,8 +399,9 @@ public class ServicesState extends AbstractNaryMerkleInternal implements SwirldS
 				diskFs().copy(),
 				scheduleTxs().copy(),
 				runningHashLeaf().copy(),
-				uniqueTokens().copy()
-		), mutableUniqTokenAssocsIfInit, mutableOwnerAssocsIfInit, this);
+				uniqueTokens().copy(),
+				contractStorage().copy()
+		), mutableUniqTokenAssocsIfInit, mutableOwnerAssocsIfInit, mutableStorageAssocsIfInit, this);
 	}
 
 	/* --------------- */
@@ -382,7 +430,8 @@ public class ServicesState extends AbstractNaryMerkleInternal implements SwirldS
 						"  AddressBook            :: %s\n" +
 						"  RecordsRunningHashLeaf :: %s\n" +
 						"    ↪ Running hash       :: %s\n" +
-						"  UniqueTokens           :: %s\n",
+						"  UniqueTokens           :: %s\n" +
+						"  ContractStorage        :: %s\n",
 				getHash(),
 				accounts().getHash(),
 				storage().getHash(),
@@ -395,7 +444,8 @@ public class ServicesState extends AbstractNaryMerkleInternal implements SwirldS
 				addressBook().getHash(),
 				runningHashLeaf().getHash(),
 				runningHashLeaf().getRunningHash().getHash(),
-				uniqueTokens().getHash()));
+				uniqueTokens().getHash(),
+				contractStorage().getHash()));
 	}
 
 	public FCMap<MerkleEntityId, MerkleAccount> accounts() {
@@ -442,6 +492,10 @@ public class ServicesState extends AbstractNaryMerkleInternal implements SwirldS
 		return getChild(ChildIndices.UNIQUE_TOKENS);
 	}
 
+	public FCMap<MerkleContractSlotId, MerkleContractSlot> contractStorage() {
+		return getChild(ChildIndices.CONTRACT_STORAGE);
+	}
+
 	public FCOneToManyRelation<EntityId, MerkleUniqueTokenId> uniqueTokenAssociations() {
 		return uniqueTokenAssociations;
 	}
@@ -450,6 +504,10 @@ public class ServicesState extends AbstractNaryMerkleInternal implements SwirldS
 		return uniqueOwnershipAssociations;
 	}
 
+	public FCOneToManyRelation<EntityId, MerkleContractSlotId> contractStorageAssociations() {
+		return contractStorageAssociations;
+	}
+
 	void setUniqueTokenAssociations(FCOneToManyRelation<EntityId, MerkleUniqueTokenId> uniqueTokenAssociations) {
 		this.uniqueTokenAssociations = uniqueTokenAssociations;
 	}
@@ -457,4 +515,10 @@ public class ServicesState extends AbstractNaryMerkleInternal implements SwirldS
 	void setUniqueOwnershipAssociations(FCOneToManyRelation<EntityId, MerkleUniqueTokenId> uniqueOwnershipAssociations) {
 		this.uniqueOwnershipAssociations = uniqueOwnershipAssociations;
 	}
+
+	void setContractStorageAssociations(
+			FCOneToManyRelation<EntityId, MerkleContractSlotId> contractStorageAssociations
+	) {
+		this.contractStorageAssociations = contractStorageAssociations;
+	}
 }
@@ -37,10 +37,13 @@ import com.hedera.services.context.properties.PropertySource;
 import com.hedera.services.context.properties.PropertySources;
 import com.hedera.services.context.properties.SemanticVersions;
 import com.hedera.services.context.properties.StandardizedPropertySources;
+import com.hedera.services.contracts.execution.BytecodeAnalysisCache;
+import com.hedera.services.contracts.execution.EvmProfiler;
 import com.hedera.services.contracts.execution.SolidityLifecycle;
 import com.hedera.services.contracts.execution.SoliditySigsVerifier;
 import com.hedera.services.contracts.execution.TxnAwareSoliditySigsVerifier;
-import com.hedera.services.contracts.persistence.BlobStoragePersistence;
+import com.hedera.services.contracts.persistence.SlotKeyedStoragePersistence;
+import com.hedera.services.contracts.persistence.WriteBackStorageCache;
 import com.hedera.services.contracts.sources.BlobStorageSource;
 import com.hedera.services.contracts.sources.LedgerAccountsSource;
 import com.hedera.services.fees.AwareHbarCentExchange;
@@ -117,7 +120,6 @@ import com.hedera.services.files.HederaFs;
 import com.hedera.services.files.MetadataMapFactory;
 import com.hedera.services.files.SysFileCallbacks;
 import com.hedera.services.files.TieredHederaFs;
-import com.hedera.services.files.interceptors.ConfigListUtils;
 import com.hedera.services.files.interceptors.FeeSchedulesManager;
 import com.hedera.services.files.interceptors.ThrottleDefsManager;
 import com.hedera.services.files.interceptors.TxnAwareRatesManager;
@@ -125,6 +127,7 @@ import com.hedera.services.files.interceptors.ValidatingCallbackInterceptor;
 import com.hedera.services.files.store.FcBlobsBytesStore;
 import com.hedera.services.files.sysfiles.ConfigCallbacks;
 import com.hedera.services.files.sysfiles.CurrencyCallbacks;
+import com.hedera.services.files.sysfiles.ParsedSysFileCache;
 import com.hedera.services.files.sysfiles.ThrottlesCallback;
 import com.hedera.services.grpc.ConfigDrivenNettyFactory;
 import com.hedera.services.grpc.GrpcServerManager;
@@ -207,6 +210,7 @@ import com.hedera.services.sigs.order.HederaSigningOrder;
 import com.hedera.services.sigs.verification.PrecheckKeyReqs;
 import com.hedera.services.sigs.verification.PrecheckVerifier;
 import com.hedera.services.sigs.verification.SyncVerifier;
+import com.hedera.services.state.expiry.AccountExpiryIndex;
 import com.hedera.services.state.expiry.EntityAutoRenewal;
 import com.hedera.services.state.expiry.ExpiringCreations;
 import com.hedera.services.state.expiry.ExpiryManager;
@@ -214,6 +218,7 @@ import com.hedera.services.state.expiry.renewal.RenewalHelper;
 import com.hedera.services.state.expiry.renewal.RenewalProcess;
 import com.hedera.services.state.expiry.renewal.RenewalRecordsHelper;
 import com.hedera.services.state.exports.AccountsExporter;
+import com.hedera.services.state.exports.BalanceChangeTracker;
 import com.hedera.services.state.exports.BalancesExporter;
 import com.hedera.services.state.exports.SignedStateBalancesExporter;
 import com.hedera.services.state.exports.ToStringAccountsExporter;
@@ -226,6 +231,8 @@ import com.hedera.services.state.logic.InvariantChecks;
 import com.hedera.services.state.logic.NetworkCtxManager;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleBlobMeta;
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
 import com.hedera.services.state.merkle.MerkleDiskFs;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
 import com.hedera.services.state.merkle.MerkleEntityId;
@@ -363,7 +370,6 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.ethereum.core.AccountState;
 import org.ethereum.datasource.Source;
-import org.ethereum.datasource.StoragePersistence;
 import org.ethereum.db.ServicesRepositoryRoot;
 
 import java.io.File;
@@ -385,7 +391,7 @@ import java.util.function.Supplier;
 import static com.hedera.services.context.ServicesNodeType.STAKED_NODE;
 import static com.hedera.services.context.ServicesNodeType.ZERO_STAKE_NODE;
 import static com.hedera.services.contracts.sources.AddressKeyedMapFactory.bytecodeMapFrom;
-import static com.hedera.services.contracts.sources.AddressKeyedMapFactory.storageMapFrom;
+import static com.hedera.services.files.interceptors.ConfigListUtils.isConfigList;
 import static com.hedera.services.files.interceptors.ConfigListUtils.uncheckedParse;
 import static com.hedera.services.files.interceptors.PureRatesValidation.isNormalIntradayChange;
 import static com.hedera.services.ledger.ids.ExceptionalEntityIdSource.NOOP_ID_SOURCE;
@@ -522,10 +528,14 @@ public class ServicesContext {
 	private FreezeController freezeGrpc;
 	private ExpandHandleSpan expandHandleSpan;
 	private BalancesExporter balancesExporter;
+	private BalanceChangeTracker balanceChangeTracker;
 	private SysFileCallbacks sysFileCallbacks;
+	private ParsedSysFileCache parsedSysFileCache;
 	private NarratedCharging narratedCharging;
 	private NetworkCtxManager networkCtxManager;
 	private SolidityLifecycle solidityLifecycle;
+	private BytecodeAnalysisCache bytecodeAnalysisCache;
+	private EvmProfiler evmProfiler;
 	private ExpiringCreations creator;
 	private NetworkController networkGrpc;
 	private GrpcServerManager grpc;
@@ -533,13 +543,15 @@ public class ServicesContext {
 	private TxnResponseHelper txnResponseHelper;
 	private BlobStorageSource bytecodeDb;
 	private HapiOpPermissions hapiOpPermissions;
+	private AccountExpiryIndex accountExpiryIndex;
 	private EntityAutoRenewal entityAutoRenewal;
 	private TransactionContext txnCtx;
 	private ContractController contractsGrpc;
 	private HederaSigningOrder keyOrder;
 	private HederaSigningOrder backedKeyOrder;
 	private HederaSigningOrder lookupRetryingKeyOrder;
-	private StoragePersistence storagePersistence;
+	private SlotKeyedStoragePersistence storagePersistence;
+	private WriteBackStorageCache storageCache;
 	private ScheduleController scheduleGrpc;
 	private NonBlockingHandoff nonBlockingHandoff;
 	private AccessorBasedUsages accessorBasedUsages;
@@ -644,6 +656,8 @@ public class ServicesContext {
 		newQueryableStateChildren.setUniqueTokens(state.uniqueTokens());
 		newQueryableStateChildren.setUniqueTokenAssociations(state.uniqueTokenAssociations());
 		newQueryableStateChildren.setUniqueOwnershipAssociations(state.uniqueOwnershipAssociations());
+		newQueryableStateChildren.setContractStorage(state.contractStorage());
+		newQueryableStateChildren.setContractStorageAssociations(state.contractStorageAssociations());
 
 		queryableState.set(newQueryableStateChildren);
 	}
@@ -667,6 +681,8 @@ public class ServicesContext {
 		workingState.setUniqueTokens(state.uniqueTokens());
 		workingState.setUniqueTokenAssociations(state.uniqueTokenAssociations());
 		workingState.setUniqueOwnershipAssociations(state.uniqueOwnershipAssociations());
+		workingState.setContractStorage(state.contractStorage());
+		workingState.setContractStorageAssociations(state.contractStorageAssociations());
 	}
 
 	public SwirldDualState getDualState() {
@@ -780,14 +796,16 @@ public class ServicesContext {
 
 	public FunctionalityThrottling hapiThrottling() {
 		if (hapiThrottling == null) {
-			hapiThrottling = new HapiThrottling(new DeterministicThrottling(() -> addressBook().getSize()));
+			hapiThrottling = new HapiThrottling(
+					new DeterministicThrottling(() -> addressBook().getSize(), globalDynamicProperties()));
 		}
 		return hapiThrottling;
 	}
 
 	public FunctionalityThrottling handleThrottling() {
 		if (handleThrottling == null) {
-			handleThrottling = new TxnAwareHandleThrottling(txnCtx(), new DeterministicThrottling(() -> 1));
+			handleThrottling = new TxnAwareHandleThrottling(
+					txnCtx(), new DeterministicThrottling(() -> 1, globalDynamicProperties(), true));
 		}
 		return handleThrottling;
 	}
@@ -907,6 +925,8 @@ public class ServicesContext {
 					() -> queryableState.get().getTokenAssociations(),
 					() -> queryableState.get().getUniqueTokenAssociations(),
 					() -> queryableState.get().getUniqueOwnershipAssociations(),
+					() -> queryableState.get().getContractStorage(),
+					() -> queryableState.get().getContractStorageAssociations(),
 					this::diskFs,
 					nodeLocalProperties());
 		}
@@ -925,6 +945,8 @@ public class ServicesContext {
 					this::tokenAssociations,
 					this::uniqueTokenAssociations,
 					this::uniqueOwnershipAssociations,
+					this::contractStorage,
+					this::contractStorageAssociations,
 					this::diskFs,
 					nodeLocalProperties());
 		}
@@ -1037,7 +1059,8 @@ public class ServicesContext {
 					this::uniqueTokenAssociations,
 					this::tokenAssociations,
 					(BackingTokenRels) backingTokenRels(),
-					backingNfts());
+					backingNfts(),
+					balanceChangeTracker());
 		}
 		return typedTokenStore;
 	}
@@ -1051,7 +1074,7 @@ public class ServicesContext {
 	 */
 	public AccountStore accountStore() {
 		if (accountStore == null) {
-			accountStore = new AccountStore(validator(), globalDynamicProperties(), this::accounts);
+			accountStore = new AccountStore(validator(), globalDynamicProperties(), this::accounts, balanceChangeTracker());
 		}
 		return accountStore;
 	}
@@ -1309,13 +1332,20 @@ public class ServicesContext {
 				properties);
 	}
 
-	public StoragePersistence storagePersistence() {
+	public SlotKeyedStoragePersistence storagePersistence() {
 		if (storagePersistence == null) {
-			storagePersistence = new BlobStoragePersistence(storageMapFrom(blobStore()));
+			storagePersistence = new SlotKeyedStoragePersistence(this::contractStorage, this::contractStorageAssociations);
 		}
 		return storagePersistence;
 	}
 
+	public WriteBackStorageCache storageCache() {
+		if (storageCache == null) {
+			storageCache = new WriteBackStorageCache(storagePersistence(), runningAvgs());
+		}
+		return storageCache;
+	}
+
 	public SyncVerifier syncVerifier() {
 		if (syncVerifier == null) {
 			syncVerifier = platform().getCryptography()::verifySync;
@@ -1341,11 +1371,20 @@ public class ServicesContext {
 			balancesExporter = new SignedStateBalancesExporter(
 					properties(),
 					platform()::sign,
-					globalDynamicProperties());
+					globalDynamicProperties(),
+					runningAvgs(),
+					balanceChangeTracker());
 		}
 		return balancesExporter;
 	}
 
+	public BalanceChangeTracker balanceChangeTracker() {
+		if (balanceChangeTracker == null) {
+			balanceChangeTracker = new BalanceChangeTracker(globalDynamicProperties());
+		}
+		return balanceChangeTracker;
+	}
+
 	public Map<EntityId, Long> entityExpiries() {
 		if (entityExpiries == null) {
 			entityExpiries = EntityExpiryMapFactory.entityExpiryMapFrom(blobStore());
@@ -1398,8 +1437,8 @@ public class ServicesContext {
 					0,
 					"files.networkProperties",
 					properties(),
-					contents -> propertiesCb.accept(uncheckedParse(contents)),
-					ConfigListUtils::isConfigList
+					contents -> propertiesCb.accept(uncheckedParse(parsedSysFileCache(), contents)),
+					contents -> isConfigList(parsedSysFileCache(), contents)
 			);
 		}
 		return applicationPropertiesReloading;
@@ -1412,8 +1451,8 @@ public class ServicesContext {
 					0,
 					"files.hapiPermissions",
 					properties(),
-					contents -> permissionsCb.accept(uncheckedParse(contents)),
-					ConfigListUtils::isConfigList
+					contents -> permissionsCb.accept(uncheckedParse(parsedSysFileCache(), contents)),
+					contents -> isConfigList(parsedSysFileCache(), contents)
 			);
 		}
 		return apiPermissionsReloading;
@@ -1650,6 +1689,7 @@ public class ServicesContext {
 							backingTokenRels(),
 							new ChangeSummaryManager<>());
 			tokenRelsLedger.setKeyToString(BackingTokenRels::readableTokenRel);
+			tokenRelsLedger.setCommitListener(balanceChangeTracker()::trackTokenRelCommit);
 			tokenStore = new HederaTokenStore(
 					ids(),
 					validator(),
@@ -1677,6 +1717,12 @@ public class ServicesContext {
 							MerkleAccount::new,
 							backingAccounts(),
 							new ChangeSummaryManager<>());
+			final var changeTracker = balanceChangeTracker();
+			final var expiryIndex = accountExpiryIndex();
+			accountsLedger.setCommitListener((id, changed) -> {
+				changeTracker.trackAccountCommit(id, changed);
+				expiryIndex.trackAccountCommit(id, changed);
+			});
 			ledger = new HederaLedger(
 					tokenStore(),
 					ids(),
@@ -1695,18 +1741,25 @@ public class ServicesContext {
 		if (entityAutoRenewal == null) {
 			final var helper = new RenewalHelper(
 					tokenStore(), hederaNums(), globalDynamicProperties(),
-					this::tokens, this::accounts, this::tokenAssociations);
+					this::tokens, this::accounts, this::tokenAssociations, balanceChangeTracker());
 			final var recordHelper = new RenewalRecordsHelper(
 					this, recordStreamManager(), globalDynamicProperties());
 			final var renewalProcess = new RenewalProcess(
 					fees(), hederaNums(), helper, recordHelper);
 			entityAutoRenewal = new EntityAutoRenewal(
-					hederaNums(), renewalProcess, this,
-					globalDynamicProperties(), networkCtxManager(), this::networkCtx);
+					renewalProcess, this, globalDynamicProperties(), networkCtxManager(),
+					accountExpiryIndex(), runningAvgs(), this::networkCtx);
 		}
 		return entityAutoRenewal;
 	}
 
+	public AccountExpiryIndex accountExpiryIndex() {
+		if (accountExpiryIndex == null) {
+			accountExpiryIndex = new AccountExpiryIndex(hederaNums(), globalDynamicProperties(), this::accounts);
+		}
+		return accountExpiryIndex;
+	}
+
 	public NarratedCharging narratedCharging() {
 		if (narratedCharging == null) {
 			narratedCharging = new NarratedLedgerCharging(
@@ -1789,7 +1842,7 @@ public class ServicesContext {
 	public ThrottleDefsManager throttleDefsManager() {
 		if (throttleDefsManager == null) {
 			throttleDefsManager = new ThrottleDefsManager(
-					fileNums(), this::addressBook, sysFileCallbacks().throttlesCb());
+					fileNums(), this::addressBook, parsedSysFileCache(), sysFileCallbacks().throttlesCb());
 		}
 		return throttleDefsManager;
 	}
@@ -1824,6 +1877,7 @@ public class ServicesContext {
 					accountNums(),
 					globalDynamicProperties(),
 					txnCtx(),
+					parsedSysFileCache(),
 					this::midnightRates,
 					exchange()::updateRates,
 					limitPercent -> (base, proposed) -> isNormalIntradayChange(base, proposed, limitPercent));
@@ -1833,7 +1887,7 @@ public class ServicesContext {
 
 	public FileUpdateInterceptor feeSchedulesManager() {
 		if (feeSchedulesManager == null) {
-			feeSchedulesManager = new FeeSchedulesManager(fileNums(), fees());
+			feeSchedulesManager = new FeeSchedulesManager(fileNums(), fees(), parsedSysFileCache());
 		}
 		return feeSchedulesManager;
 	}
@@ -1980,11 +2034,36 @@ public class ServicesContext {
 					solidityLifecycle(),
 					soliditySigsVerifier(),
 					entityExpiries(),
-					globalDynamicProperties());
+					globalDynamicProperties(),
+					bytecodeAnalysisCache(),
+					evmProfiler());
 		}
 		return contracts;
 	}
 
+	public BytecodeAnalysisCache bytecodeAnalysisCache() {
+		if (bytecodeAnalysisCache == null) {
+			bytecodeAnalysisCache = new BytecodeAnalysisCache(
+					nodeLocalProperties().bytecodeAnalysisCacheMaxEntries(),
+					runningAvgs());
+		}
+		return bytecodeAnalysisCache;
+	}
+
+	public EvmProfiler evmProfiler() {
+		if (evmProfiler == null) {
+			evmProfiler = new EvmProfiler(nodeLocalProperties(), runningAvgs());
+		}
+		return evmProfiler;
+	}
+
+	public ParsedSysFileCache parsedSysFileCache() {
+		if (parsedSysFileCache == null) {
+			parsedSysFileCache = new ParsedSysFileCache();
+		}
+		return parsedSysFileCache;
+	}
+
 	public SysFileCallbacks sysFileCallbacks() {
 		if (sysFileCallbacks == null) {
 			var configCallbacks = new ConfigCallbacks(
@@ -2000,7 +2079,7 @@ public class ServicesContext {
 
 	public SolidityLifecycle solidityLifecycle() {
 		if (solidityLifecycle == null) {
-			solidityLifecycle = new SolidityLifecycle(globalDynamicProperties());
+			solidityLifecycle = new SolidityLifecycle(globalDynamicProperties(), storageCache());
 		}
 		return solidityLifecycle;
 	}
@@ -2023,7 +2102,8 @@ public class ServicesContext {
 							b64KeyReader(),
 							properties.getStringProperty("bootstrap.genesisB64Keystore.path"),
 							properties.getStringProperty("bootstrap.genesisB64Keystore.keyName")),
-					sysFileCallbacks());
+					sysFileCallbacks(),
+					parsedSysFileCache());
 		}
 		return systemFilesManager;
 	}
@@ -2038,7 +2118,7 @@ public class ServicesContext {
 	public ServicesRepositoryRoot repository() {
 		if (repository == null) {
 			repository = new ServicesRepositoryRoot(accountSource(), bytecodeDb());
-			repository.setStoragePersistence(storagePersistence());
+			repository.setStoragePersistence(storageCache());
 		}
 		return repository;
 	}
@@ -2112,7 +2192,7 @@ public class ServicesContext {
 
 	public UsagePricesProvider usagePrices() {
 		if (usagePrices == null) {
-			usagePrices = new AwareFcfsUsagePrices(hfs(), fileNums(), txnCtx());
+			usagePrices = new AwareFcfsUsagePrices(hfs(), fileNums(), txnCtx(), parsedSysFileCache());
 		}
 		return usagePrices;
 	}
@@ -2292,6 +2372,14 @@ public class ServicesContext {
 		return state.uniqueOwnershipAssociations();
 	}
 
+	public FCMap<MerkleContractSlotId, MerkleContractSlot> contractStorage() {
+		return state.contractStorage();
+	}
+
+	public FCOneToManyRelation<EntityId, MerkleContractSlotId> contractStorageAssociations() {
+		return state.contractStorageAssociations();
+	}
+
 	/**
 	 * Get the working state of disk fs
 	 *
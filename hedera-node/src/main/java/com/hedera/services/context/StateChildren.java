@@ -22,6 +22,8 @@ package com.hedera.services.context;
 
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleBlobMeta;
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
 import com.hedera.services.state.merkle.MerkleDiskFs;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
 import com.hedera.services.state.merkle.MerkleEntityId;
@@ -64,6 +66,12 @@ public class StateChildren {
 	/** State of storage */
 	private FCMap<MerkleBlobMeta, MerkleOptionalBlob> storage;
 
+	/** State of contract storage slots */
+	private FCMap<MerkleContractSlotId, MerkleContractSlot> contractStorage;
+
+	/** State of contract storage associations */
+	private FCOneToManyRelation<EntityId, MerkleContractSlotId> contractStorageAssociations;
+
 	/** State of token associations */
 	private FCMap<MerkleEntityAssociation, MerkleTokenRelStatus> tokenAssociations;
 
@@ -196,6 +204,25 @@ public class StateChildren {
 		this.uniqueOwnershipAssociations = uniqueOwnershipAssociations;
 	}
 
-}
+	public FCMap<MerkleContractSlotId, MerkleContractSlot> getContractStorage() {
+		Objects.requireNonNull(contractStorage, "A state with null contract storage is never valid");
+		return contractStorage;
+	}
+
+	public void setContractStorage(
+			FCMap<MerkleContractSlotId, MerkleContractSlot> contractStorage) {
+		this.contractStorage = contractStorage;
+	}
 
+	public FCOneToManyRelation<EntityId, MerkleContractSlotId> getContractStorageAssociations() {
+		Objects.requireNonNull(contractStorageAssociations,
+				"A state with null contract storage associations is never valid");
+		return contractStorageAssociations;
+	}
 
+	public void setContractStorageAssociations(
+			FCOneToManyRelation<EntityId, MerkleContractSlotId> contractStorageAssociations) {
+		this.contractStorageAssociations = contractStorageAssociations;
+	}
+
+}
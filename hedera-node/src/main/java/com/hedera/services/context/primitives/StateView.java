@@ -22,6 +22,7 @@ package com.hedera.services.context.primitives;
 
 import com.google.protobuf.ByteString;
 import com.hedera.services.context.properties.NodeLocalProperties;
+import com.hedera.services.contracts.persistence.SlotKeyedStoragePersistence;
 import com.hedera.services.contracts.sources.AddressKeyedMapFactory;
 import com.hedera.services.files.DataMapFactory;
 import com.hedera.services.files.HFileMeta;
@@ -31,6 +32,8 @@ import com.hedera.services.legacy.core.jproto.JKey;
 import com.hedera.services.legacy.core.jproto.JKeyList;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleBlobMeta;
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
 import com.hedera.services.state.merkle.MerkleDiskFs;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
 import com.hedera.services.state.merkle.MerkleEntityId;
@@ -40,6 +43,7 @@ import com.hedera.services.state.merkle.MerkleTokenRelStatus;
 import com.hedera.services.state.merkle.MerkleTopic;
 import com.hedera.services.state.merkle.MerkleUniqueToken;
 import com.hedera.services.state.merkle.MerkleUniqueTokenId;
+import com.hedera.services.state.merkle.internals.IdentityCodeUtils;
 import com.hedera.services.state.submerkle.EntityId;
 import com.hedera.services.state.submerkle.RawTokenRelationship;
 import com.hedera.services.store.schedule.ScheduleStore;
@@ -69,6 +73,7 @@ import com.swirlds.fchashmap.FCOneToManyRelation;
 import com.swirlds.fcmap.FCMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import org.ethereum.datasource.StoragePersistence;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -78,9 +83,10 @@ import java.util.concurrent.TimeUnit;
 import java.util.function.BiFunction;
 import java.util.function.Supplier;
 
-import static com.hedera.services.state.merkle.MerkleEntityAssociation.fromAccountTokenRel;
+import static com.hedera.services.state.merkle.MerkleEntityAssociation.fromAccountCodeTokenRel;
 import static com.hedera.services.state.merkle.MerkleEntityId.fromAccountId;
 import static com.hedera.services.state.merkle.MerkleEntityId.fromContractId;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.codeFromIds;
 import static com.hedera.services.state.submerkle.EntityId.MISSING_ENTITY_ID;
 import static com.hedera.services.state.submerkle.EntityId.fromGrpcAccountId;
 import static com.hedera.services.state.submerkle.EntityId.fromGrpcTokenId;
@@ -139,12 +145,22 @@ public class StateView {
 	public static final Supplier<FCOneToManyRelation<EntityId, MerkleUniqueTokenId>> EMPTY_UNIQUE_TOKEN_ACCOUNT_OWNERSHIPS_SUPPLIER =
 			() -> EMPTY_UNIQUE_TOKEN_ACCOUNT_OWNERSHIPS;
 
+	public static final FCMap<MerkleContractSlotId, MerkleContractSlot> EMPTY_CONTRACT_STORAGE =
+			new FCMap<>();
+	public static final Supplier<FCMap<MerkleContractSlotId, MerkleContractSlot>> EMPTY_CONTRACT_STORAGE_SUPPLIER =
+			() -> EMPTY_CONTRACT_STORAGE;
+
+	public static final FCOneToManyRelation<EntityId, MerkleContractSlotId> EMPTY_CONTRACT_STORAGE_ASSOCS =
+			new FCOneToManyRelation<>();
+	public static final Supplier<FCOneToManyRelation<EntityId, MerkleContractSlotId>> EMPTY_CONTRACT_STORAGE_ASSOCS_SUPPLIER =
+			() -> EMPTY_CONTRACT_STORAGE_ASSOCS;
+
 	public static final StateView EMPTY_VIEW = new StateView(
 			EMPTY_TOPICS_SUPPLIER,
 			EMPTY_ACCOUNTS_SUPPLIER,
 			null, null);
 
-	Map<byte[], byte[]> contractStorage;
+	StoragePersistence contractStorage;
 	Map<byte[], byte[]> contractBytecode;
 	Map<FileID, byte[]> fileContents;
 	Map<FileID, HFileMeta> fileAttrs;
@@ -178,6 +194,8 @@ public class StateView {
 				EMPTY_TOKEN_ASSOCS_SUPPLIER,
 				EMPTY_UNIQUE_TOKEN_ASSOCS_SUPPLIER,
 				EMPTY_UNIQUE_TOKEN_ACCOUNT_OWNERSHIPS_SUPPLIER,
+				EMPTY_CONTRACT_STORAGE_SUPPLIER,
+				EMPTY_CONTRACT_STORAGE_ASSOCS_SUPPLIER,
 				diskFs,
 				properties);
 	}
@@ -200,6 +218,8 @@ public class StateView {
 				EMPTY_TOKEN_ASSOCS_SUPPLIER,
 				EMPTY_UNIQUE_TOKEN_ASSOCS_SUPPLIER,
 				EMPTY_UNIQUE_TOKEN_ACCOUNT_OWNERSHIPS_SUPPLIER,
+				EMPTY_CONTRACT_STORAGE_SUPPLIER,
+				EMPTY_CONTRACT_STORAGE_ASSOCS_SUPPLIER,
 				diskFs,
 				properties);
 	}
@@ -214,6 +234,8 @@ public class StateView {
 			Supplier<FCMap<MerkleEntityAssociation, MerkleTokenRelStatus>> tokenAssociations,
 			Supplier<FCOneToManyRelation<EntityId, MerkleUniqueTokenId>> uniqueTokenAssociations,
 			Supplier<FCOneToManyRelation<EntityId, MerkleUniqueTokenId>> uniqueTokenAccountOwnerships,
+			Supplier<FCMap<MerkleContractSlotId, MerkleContractSlot>> contractSlots,
+			Supplier<FCOneToManyRelation<EntityId, MerkleContractSlotId>> contractSlotAssociations,
 			Supplier<MerkleDiskFs> diskFs,
 			NodeLocalProperties properties
 	) {
@@ -230,7 +252,7 @@ public class StateView {
 
 		fileContents = DataMapFactory.dataMapFrom(blobStore);
 		fileAttrs = MetadataMapFactory.metaMapFrom(blobStore);
-		contractStorage = AddressKeyedMapFactory.storageMapFrom(blobStore);
+		contractStorage = new SlotKeyedStoragePersistence(contractSlots, contractSlotAssociations);
 		contractBytecode = AddressKeyedMapFactory.bytecodeMapFrom(blobStore);
 		this.properties = properties;
 		this.diskFs = diskFs;
@@ -240,10 +262,11 @@ public class StateView {
 		var account = view.accounts().get(fromAccountId(id));
 		List<TokenRelationship> relationships = new ArrayList<>();
 		var tokenIds = account.tokens().asTokenIds();
+		final var accountCode = codeFromIds(id.getShardNum(), id.getRealmNum(), id.getAccountNum());
 		for (TokenID tId : tokenIds) {
 			var optionalToken = view.tokenWith(tId);
 			var effectiveToken = optionalToken.orElse(GONE_TOKEN);
-			var relKey = fromAccountTokenRel(id, tId);
+			var relKey = fromAccountCodeTokenRel(accountCode, tId);
 			var relationship = view.tokenAssociations().get().get(relKey);
 			relationships.add(new RawTokenRelationship(
 					relationship.getBalance(),
@@ -383,8 +406,11 @@ public class StateView {
 	}
 
 	public Optional<TokenNftInfo> infoForNft(NftID target) {
+		if (!isPackable(target)) {
+			return Optional.empty();
+		}
 		final var currentNfts = uniqueTokens.get();
-		final var targetKey = new MerkleUniqueTokenId(fromGrpcTokenId(target.getTokenID()), target.getSerialNumber());
+		final var targetKey = MerkleUniqueTokenId.fromNftId(target);
 		if (!currentNfts.containsKey(targetKey)) {
 			return Optional.empty();
 		}
@@ -420,8 +446,12 @@ public class StateView {
 	}
 
 	public boolean nftExists(NftID id) {
-		return uniqueTokens.get().containsKey(
-				new MerkleUniqueTokenId(fromGrpcTokenId(id.getTokenID()), id.getSerialNumber()));
+		return isPackable(id) && uniqueTokens.get().containsKey(MerkleUniqueTokenId.fromNftId(id));
+	}
+
+	private static boolean isPackable(NftID id) {
+		final var token = id.getTokenID();
+		return IdentityCodeUtils.isPackable(token.getShardNum(), token.getRealmNum(), token.getTokenNum());
 	}
 
 	public Optional<TokenType> tokenType(TokenID tokenID) {
@@ -458,7 +488,8 @@ public class StateView {
 	}
 
 	public Optional<FileGetInfoResponse.FileInfo> infoForFile(FileID id) {
-		int attemptsLeft = 1 + properties.queryBlobLookupRetries();
+		/* A local blob store never has a referenced blob transiently missing, so there is nothing to retry */
+		int attemptsLeft = 1 + (properties.isLocalBlobStoreEnabled() ? 0 : properties.queryBlobLookupRetries());
 		while (attemptsLeft-- > 0) {
 			try {
 				return getFileInfo(id);
@@ -184,6 +184,7 @@ public class BootstrapProperties implements PropertySource {
 	);
 
 	static final Set<String> GLOBAL_DYNAMIC_PROPS = Set.of(
+			"balances.deltaExportsPerFullExport",
 			"balances.exportDir.path",
 			"balances.exportEnabled",
 			"balances.exportPeriodSecs",
@@ -194,6 +195,8 @@ public class BootstrapProperties implements PropertySource {
 			"contracts.localCall.estRetBytes",
 			"contracts.maxGas",
 			"contracts.maxStorageKb",
+			"contracts.throttle.maxGasPerSec",
+			"contracts.throttle.throttleByGas",
 			"files.maxSizeKb",
 			"fees.minCongestionPeriod",
 			"fees.percentCongestionMultipliers",
@@ -231,6 +234,13 @@ public class BootstrapProperties implements PropertySource {
 	);
 
 	static final Set<String> NODE_PROPS = Set.of(
+			"blobs.localStore.compactionIntervalSecs",
+			"blobs.localStore.isEnabled",
+			"blobs.localStore.path",
+			"contracts.bytecodeAnalysisCache.maxEntries",
+			"contracts.profiler.dumpIntervalSecs",
+			"contracts.profiler.dumpPath",
+			"contracts.profiler.isEnabled",
 			"dev.onlyDefaultNodeListens",
 			"dev.defaultListeningNodeAccount",
 			"grpc.port",
@@ -239,6 +249,7 @@ public class BootstrapProperties implements PropertySource {
 			"hedera.exportAccountsOnStartup",
 			"hedera.profiles.active",
 			"hedera.recordStream.isEnabled",
+			"hedera.recordStream.index.isEnabled",
 			"hedera.recordStream.logDir",
 			"hedera.recordStream.logPeriod",
 			"hedera.recordStream.queueCapacity",
@@ -282,9 +293,15 @@ public class BootstrapProperties implements PropertySource {
 			entry("accounts.systemUndeleteAdmin", AS_LONG),
 			entry("accounts.treasury", AS_LONG),
 			entry("balances.exportEnabled", AS_BOOLEAN),
+			entry("balances.deltaExportsPerFullExport", AS_INT),
 			entry("balances.exportPeriodSecs", AS_INT),
 			entry("balances.nodeBalanceWarningThreshold", AS_LONG),
+			entry("blobs.localStore.compactionIntervalSecs", AS_LONG),
+			entry("blobs.localStore.isEnabled", AS_BOOLEAN),
 			entry("cache.records.ttl", AS_INT),
+			entry("contracts.bytecodeAnalysisCache.maxEntries", AS_INT),
+			entry("contracts.profiler.dumpIntervalSecs", AS_LONG),
+			entry("contracts.profiler.isEnabled", AS_BOOLEAN),
 			entry("dev.onlyDefaultNodeListens", AS_BOOLEAN),
 			entry("balances.exportTokenBalances", AS_BOOLEAN),
 			entry("entities.maxLifetime", AS_LONG),
@@ -305,6 +322,7 @@ public class BootstrapProperties implements PropertySource {
 			entry("hedera.recordStream.logPeriod", AS_LONG),
 			entry("hedera.recordStream.isEnabled", AS_BOOLEAN),
 			entry("hedera.recordStream.queueCapacity", AS_INT),
+			entry("hedera.recordStream.index.isEnabled", AS_BOOLEAN),
 			entry("hedera.shard", AS_LONG),
 			entry("hedera.transaction.maxMemoUtf8Bytes", AS_INT),
 			entry("hedera.transaction.maxValidDuration", AS_LONG),
@@ -363,6 +381,8 @@ public class BootstrapProperties implements PropertySource {
 			entry("contracts.maxStorageKb", AS_INT),
 			entry("contracts.defaultLifetime", AS_LONG),
 			entry("contracts.maxGas", AS_INT),
+			entry("contracts.throttle.maxGasPerSec", AS_LONG),
+			entry("contracts.throttle.throttleByGas", AS_BOOLEAN),
 			entry("rates.intradayChangeLimitPercent", AS_INT),
 			entry("rates.midnightCheckInterval", AS_LONG),
 			entry("scheduling.whitelist", AS_FUNCTIONS),
@@ -45,6 +45,7 @@ public class GlobalDynamicProperties {
 	private int cacheRecordsTtl;
 	private int maxContractStorageKb;
 	private int balancesExportPeriodSecs;
+	private int balancesDeltaExportsPerFullExport;
 	private int ratesIntradayChangeLimitPercent;
 	private long maxAccountNum;
 	private long nodeBalanceWarningThreshold;
@@ -75,6 +76,8 @@ public class GlobalDynamicProperties {
 	private CongestionMultipliers congestionMultipliers;
 	private int feesMinCongestionPeriod;
 	private long ratesMidnightCheckInterval;
+	private boolean shouldThrottleByGas;
+	private long maxGasPerSec;
 
 	public GlobalDynamicProperties(
 			HederaNumbers hederaNums,
@@ -108,6 +111,7 @@ public class GlobalDynamicProperties {
 		ratesIntradayChangeLimitPercent = properties.getIntProperty("rates.intradayChangeLimitPercent");
 		balancesExportPeriodSecs = properties.getIntProperty("balances.exportPeriodSecs");
 		shouldExportBalances = properties.getBooleanProperty("balances.exportEnabled");
+		balancesDeltaExportsPerFullExport = properties.getIntProperty("balances.deltaExportsPerFullExport");
 		nodeBalanceWarningThreshold = properties.getLongProperty("balances.nodeBalanceWarningThreshold");
 		pathToBalancesExportDir = properties.getStringProperty("balances.exportDir.path");
 		shouldExportTokenBalances = properties.getBooleanProperty("balances.exportTokenBalances");
@@ -136,6 +140,8 @@ public class GlobalDynamicProperties {
 		feesMinCongestionPeriod = properties.getIntProperty("fees.minCongestionPeriod");
 		ratesMidnightCheckInterval = properties.getLongProperty("rates.midnightCheckInterval");
 		maxCustomFeesAllowed = properties.getIntProperty("tokens.maxCustomFeesAllowed");
+		shouldThrottleByGas = properties.getBooleanProperty("contracts.throttle.throttleByGas");
+		maxGasPerSec = properties.getLongProperty("contracts.throttle.maxGasPerSec");
 	}
 
 	public int maxTokensPerAccount() {
@@ -202,6 +208,10 @@ public class GlobalDynamicProperties {
 		return shouldExportBalances;
 	}
 
+	public int balancesDeltaExportsPerFullExport() {
+		return balancesDeltaExportsPerFullExport;
+	}
+
 	public long nodeBalanceWarningThreshold() {
 		return nodeBalanceWarningThreshold;
 	}
@@ -301,4 +311,12 @@ public class GlobalDynamicProperties {
 	public long ratesMidnightCheckInterval() {
 		return ratesMidnightCheckInterval;
 	}
+
+	public boolean shouldThrottleByGas() {
+		return shouldThrottleByGas;
+	}
+
+	public long maxGasPerSec() {
+		return maxGasPerSec;
+	}
 }
@@ -35,6 +35,7 @@ public class NodeLocalProperties {
 	private long recordLogPeriod;
 	private boolean recordStreamEnabled;
 	private int recordStreamQueueCapacity;
+	private boolean recordStreamIndexEnabled;
 	private int queryBlobLookupRetries;
 	private long nettyProdKeepAliveTime;
 	private String nettyTlsCrtPath;
@@ -53,6 +54,13 @@ public class NodeLocalProperties {
 	private int nettyStartRetries;
 	private long nettyStartRetryIntervalMs;
 	private boolean dumpFcmsOnIss;
+	private int bytecodeAnalysisCacheMaxEntries;
+	private boolean evmProfilerEnabled;
+	private String evmProfilerDumpPath;
+	private long evmProfilerDumpIntervalSecs;
+	private boolean localBlobStoreEnabled;
+	private String localBlobStorePath;
+	private long localBlobStoreCompactionIntervalSecs;
 
 	public NodeLocalProperties(PropertySource properties) {
 		this.properties = properties;
@@ -73,6 +81,11 @@ public class NodeLocalProperties {
 		recordLogPeriod = properties.getLongProperty("hedera.recordStream.logPeriod");
 		recordStreamEnabled = properties.getBooleanProperty("hedera.recordStream.isEnabled");
 		recordStreamQueueCapacity = properties.getIntProperty("hedera.recordStream.queueCapacity");
+		recordStreamIndexEnabled = properties.getBooleanProperty("hedera.recordStream.index.isEnabled");
+		bytecodeAnalysisCacheMaxEntries = properties.getIntProperty("contracts.bytecodeAnalysisCache.maxEntries");
+		evmProfilerEnabled = properties.getBooleanProperty("contracts.profiler.isEnabled");
+		evmProfilerDumpPath = properties.getStringProperty("contracts.profiler.dumpPath");
+		evmProfilerDumpIntervalSecs = properties.getLongProperty("contracts.profiler.dumpIntervalSecs");
 		queryBlobLookupRetries = properties.getIntProperty("queries.blob.lookupRetries");
 		nettyProdKeepAliveTime = properties.getLongProperty("netty.prod.keepAliveTime");
 		nettyTlsCrtPath = properties.getStringProperty("netty.tlsCrt.path");
@@ -91,6 +104,9 @@ public class NodeLocalProperties {
 		nettyStartRetries = properties.getIntProperty("netty.startRetries");
 		nettyStartRetryIntervalMs = properties.getLongProperty("netty.startRetryIntervalMs");
 		dumpFcmsOnIss = properties.getBooleanProperty("iss.dumpFcms");
+		localBlobStoreEnabled = properties.getBooleanProperty("blobs.localStore.isEnabled");
+		localBlobStorePath = properties.getStringProperty("blobs.localStore.path");
+		localBlobStoreCompactionIntervalSecs = properties.getLongProperty("blobs.localStore.compactionIntervalSecs");
 	}
 
 	public int port() {
@@ -141,6 +157,26 @@ public class NodeLocalProperties {
 		return recordStreamQueueCapacity;
 	}
 
+	public boolean isRecordStreamIndexEnabled() {
+		return recordStreamIndexEnabled;
+	}
+
+	public int bytecodeAnalysisCacheMaxEntries() {
+		return bytecodeAnalysisCacheMaxEntries;
+	}
+
+	public boolean isEvmProfilerEnabled() {
+		return evmProfilerEnabled;
+	}
+
+	public String evmProfilerDumpPath() {
+		return evmProfilerDumpPath;
+	}
+
+	public long evmProfilerDumpIntervalSecs() {
+		return evmProfilerDumpIntervalSecs;
+	}
+
 	public int queryBlobLookupRetries() {
 		return queryBlobLookupRetries;
 	}
@@ -212,4 +248,16 @@ public class NodeLocalProperties {
 	public boolean shouldDumpFcmsOnIss() {
 		return dumpFcmsOnIss;
 	}
+
+	public boolean isLocalBlobStoreEnabled() {
+		return localBlobStoreEnabled;
+	}
+
+	public String localBlobStorePath() {
+		return localBlobStorePath;
+	}
+
+	public long localBlobStoreCompactionIntervalSecs() {
+		return localBlobStoreCompactionIntervalSecs;
+	}
 }
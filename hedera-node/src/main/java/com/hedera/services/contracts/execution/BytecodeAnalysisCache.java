@@ -0,0 +1,161 @@
+package com.hedera.services.contracts.execution;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.stats.MiscRunningAvgs;
+import org.ethereum.config.CommonConfig;
+import org.ethereum.datasource.Source;
+import org.ethereum.db.ByteArrayWrapper;
+import org.ethereum.vm.program.ProgramPrecompile;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded, least-recently-used cache of the jump destination analysis of contract bytecode, shared
+ * by all the {@link org.ethereum.vm.program.Program}s run for both consensus transactions and local calls.
+ *
+ * Without this cache, every {@link org.ethereum.vm.program.Program} re-scans its bytecode for valid
+ * jump destinations the first time it executes a jump. With it, the scan is done once per contract, and
+ * its result reused until evicted. (Since the EVM decodes each opcode with a table lookup as it executes,
+ * there is nothing else worth caching.)
+ *
+ * The programs use this cache through the {@link CommonConfig#precompileSource()} extension point, keyed
+ * by the "code hash" each {@link org.ethereum.vm.program.Program} is constructed with. The repository's
+ * own code hash cannot be used as that key, since every contract committed to the ledger reports the
+ * same empty-data hash; so the {@link com.hedera.services.legacy.evm.SolidityExecutor} passes the called
+ * contract's Solidity address instead. This is safe because a contract's bytecode never changes, and
+ * addresses are never re-used. Keys that are not addresses (for example, the code hash of a nested call
+ * frame) are ignored, so those frames simply re-analyze their bytecode. A deleted contract can never be
+ * called again, so its analysis is invalidated to free the memory it uses.
+ */
+public class BytecodeAnalysisCache implements Source<byte[], ProgramPrecompile> {
+	/* The approximate heap cost of each cached entry, on top of its serialized analysis */
+	static final long ENTRY_OVERHEAD_BYTES = 128L;
+	/* The length of a Solidity address, the only kind of key this cache accepts */
+	static final int ADDRESS_BYTES = 20;
+
+	private final int maxEntries;
+	private final MiscRunningAvgs runningAvgs;
+	private final Map<ByteArrayWrapper, CachedAnalysis> analyses;
+	private final CommonConfig commonConfig = new CommonConfig() {
+		@Override
+		public Source<byte[], ProgramPrecompile> precompileSource() {
+			return BytecodeAnalysisCache.this;
+		}
+	};
+
+	private long cachedBytes = 0L;
+
+	public BytecodeAnalysisCache(int maxEntries, MiscRunningAvgs runningAvgs) {
+		this.maxEntries = maxEntries;
+		this.runningAvgs = runningAvgs;
+
+		analyses = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<ByteArrayWrapper, CachedAnalysis> eldest) {
+				if (size() > BytecodeAnalysisCache.this.maxEntries) {
+					cachedBytes -= eldest.getValue().approxBytes;
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * Returns a {@link CommonConfig} that gives this cache as the source of pre-analyzed bytecode.
+	 *
+	 * @return the config to run programs with
+	 */
+	public CommonConfig commonConfig() {
+		return commonConfig;
+	}
+
+	@Override
+	public synchronized ProgramPrecompile get(byte[] codeHash) {
+		if (!isAddress(codeHash)) {
+			return null;
+		}
+		final var cached = analyses.get(new ByteArrayWrapper(codeHash));
+		runningAvgs.recordBytecodeAnalysisLookup(cached != null);
+		return (cached == null) ? null : cached.analysis;
+	}
+
+	@Override
+	public synchronized void put(byte[] codeHash, ProgramPrecompile analysis) {
+		if (maxEntries <= 0 || !isAddress(codeHash)) {
+			return;
+		}
+		final var cached = new CachedAnalysis(analysis, ENTRY_OVERHEAD_BYTES + analysis.serialize().length);
+		final var replaced = analyses.put(new ByteArrayWrapper(codeHash.clone()), cached);
+		if (replaced != null) {
+			cachedBytes -= replaced.approxBytes;
+		}
+		cachedBytes += cached.approxBytes;
+		runningAvgs.recordBytecodeAnalysisCacheBytes(cachedBytes);
+	}
+
+	@Override
+	public void delete(byte[] codeHash) {
+		invalidate(codeHash);
+	}
+
+	@Override
+	public boolean flush() {
+		return false;
+	}
+
+	/**
+	 * Discards any cached analysis of the bytecode with the given code hash.
+	 *
+	 * @param codeHash the code hash (here, the contract's Solidity address)
+	 */
+	public synchronized void invalidate(byte[] codeHash) {
+		final var removed = analyses.remove(new ByteArrayWrapper(codeHash));
+		if (removed != null) {
+			cachedBytes -= removed.approxBytes;
+			runningAvgs.recordBytecodeAnalysisCacheBytes(cachedBytes);
+		}
+	}
+
+	private static boolean isAddress(byte[] codeHash) {
+		return codeHash != null && codeHash.length == ADDRESS_BYTES;
+	}
+
+	synchronized int size() {
+		return analyses.size();
+	}
+
+	synchronized long cachedBytes() {
+		return cachedBytes;
+	}
+
+	private static final class CachedAnalysis {
+		private final ProgramPrecompile analysis;
+		private final long approxBytes;
+
+		private CachedAnalysis(ProgramPrecompile analysis, long approxBytes) {
+			this.analysis = analysis;
+			this.approxBytes = approxBytes;
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package com.hedera.services.contracts.execution;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.ethereum.vm.OpCode;
+
+/**
+ * The per-opcode execution counts, gas, and wall-clock time of a contract, accumulated over
+ * the call frames in which the EVM ran its bytecode.
+ *
+ * The gas and time of a call-type opcode (e.g. {@code CALL} or {@code CREATE}) include those of
+ * the frame it started.
+ */
+public class ContractExecutionProfile {
+	static final int NUM_OPCODES = 256;
+
+	private long frames = 0L;
+	private long storageReads = 0L;
+	private long storageWrites = 0L;
+	private final long[] opCounts = new long[NUM_OPCODES];
+	private final long[] opGas = new long[NUM_OPCODES];
+	private final long[] opNanos = new long[NUM_OPCODES];
+
+	void recordFrame() {
+		frames++;
+	}
+
+	void recordOp(int op) {
+		opCounts[op]++;
+		if (op == (OpCode.SLOAD.val() & 0xff)) {
+			storageReads++;
+		} else if (op == (OpCode.SSTORE.val() & 0xff)) {
+			storageWrites++;
+		}
+	}
+
+	void recordGas(int op, long gas) {
+		opGas[op] += gas;
+	}
+
+	void recordNanos(int op, long nanos) {
+		opNanos[op] += nanos;
+	}
+
+	void addAll(ContractExecutionProfile that) {
+		frames += that.frames;
+		storageReads += that.storageReads;
+		storageWrites += that.storageWrites;
+		for (int op = 0; op < NUM_OPCODES; op++) {
+			opCounts[op] += that.opCounts[op];
+			opGas[op] += that.opGas[op];
+			opNanos[op] += that.opNanos[op];
+		}
+	}
+
+	public long frames() {
+		return frames;
+	}
+
+	public long storageReads() {
+		return storageReads;
+	}
+
+	public long storageWrites() {
+		return storageWrites;
+	}
+
+	public long opCount(int op) {
+		return opCounts[op];
+	}
+
+	public long opGas(int op) {
+		return opGas[op];
+	}
+
+	public long opNanos(int op) {
+		return opNanos[op];
+	}
+
+	public long totalOps() {
+		return sum(opCounts);
+	}
+
+	public long totalNanos() {
+		return sum(opNanos);
+	}
+
+	public long totalGas() {
+		return sum(opGas);
+	}
+
+	private static long sum(long[] values) {
+		long total = 0L;
+		for (var value : values) {
+			total += value;
+		}
+		return total;
+	}
+}
@@ -0,0 +1,252 @@
+package com.hedera.services.contracts.execution;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.context.properties.NodeLocalProperties;
+import com.hedera.services.state.submerkle.EntityId;
+import com.hedera.services.stats.MiscRunningAvgs;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.ethereum.vm.OpCode;
+import org.ethereum.vm.hook.VMHook;
+import org.ethereum.vm.program.Program;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+import static com.hedera.services.contracts.execution.ContractExecutionProfile.NUM_OPCODES;
+import static com.hedera.services.utils.EntityIdUtils.contractParsedFromSolidityAddress;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * An optional profiler of EVM execution, enabled by the node-local {@code contracts.profiler.isEnabled}
+ * property. When enabled, each {@link com.hedera.services.legacy.evm.SolidityExecutor} runs its programs
+ * with a {@link VMHook} that records, for each contract and opcode, the execution count, gas, and wall-clock
+ * time; along with the number of storage reads and writes.
+ *
+ * At the end of each contract call, the hook's profile is merged into this profiler, and the call's opcode
+ * count, gas, and time are recorded in the {@link MiscRunningAvgs}. Every
+ * {@code contracts.profiler.dumpIntervalSecs} seconds, the contracts that used the most gas in the
+ * interval are written to the {@code contracts.profiler.dumpPath} file, and the profiler starts over.
+ *
+ * Since this is only a diagnostic, and the profile is purely node-local, it uses the wall clock freely.
+ */
+public class EvmProfiler {
+	private static final Logger log = LogManager.getLogger(EvmProfiler.class);
+
+	static final int TOP_CONTRACTS = 20;
+	static final int TOP_OPS = 10;
+
+	private static final int NO_OP = -1;
+	private static final long NEVER = Long.MIN_VALUE;
+	private static final long NANOS_PER_SEC = 1_000_000_000L;
+	private static final double NANOS_PER_MS = 1_000_000.0;
+	private static final Comparator<Map.Entry<EntityId, ContractExecutionProfile>> BY_GAS_DESC =
+			Comparator.<Map.Entry<EntityId, ContractExecutionProfile>>comparingLong(e -> e.getValue().totalGas())
+					.reversed()
+					.thenComparingLong(e -> e.getKey().num());
+
+	private final MiscRunningAvgs runningAvgs;
+	private final NodeLocalProperties properties;
+	private final Map<EntityId, ContractExecutionProfile> profiles = new HashMap<>();
+
+	private long callsProfiled = 0L;
+	private long intervalStartNanos = NEVER;
+
+	LongSupplier nanoTime = System::nanoTime;
+
+	public EvmProfiler(NodeLocalProperties properties, MiscRunningAvgs runningAvgs) {
+		this.properties = properties;
+		this.runningAvgs = runningAvgs;
+	}
+
+	/**
+	 * Returns a hook to run a single contract call's programs with; which is a no-op unless
+	 * profiling is enabled.
+	 *
+	 * @return the hook for the next contract call
+	 */
+	public VMHook newHook() {
+		return properties.isEvmProfilerEnabled() ? new ProfilingHook() : VMHook.EMPTY;
+	}
+
+	synchronized void finishCall(Map<EntityId, ContractExecutionProfile> callProfiles, long ops, long gas, long nanos) {
+		final long now = nanoTime.getAsLong();
+		if (intervalStartNanos == NEVER) {
+			intervalStartNanos = now;
+		}
+
+		callProfiles.forEach((id, profile) ->
+				profiles.computeIfAbsent(id, ignore -> new ContractExecutionProfile()).addAll(profile));
+		callsProfiled++;
+		runningAvgs.recordEvmCall(ops, gas, nanos / NANOS_PER_MS);
+
+		if (now - intervalStartNanos >= properties.evmProfilerDumpIntervalSecs() * NANOS_PER_SEC) {
+			dumpTo(properties.evmProfilerDumpPath());
+			profiles.clear();
+			callsProfiled = 0L;
+			intervalStartNanos = now;
+		}
+	}
+
+	synchronized List<Map.Entry<EntityId, ContractExecutionProfile>> topContracts(int n) {
+		return profiles.entrySet().stream()
+				.sorted(BY_GAS_DESC)
+				.limit(n)
+				.collect(toList());
+	}
+
+	synchronized void dumpTo(String path) {
+		final List<String> lines = new ArrayList<>();
+		lines.add(String.format("# Top %d of %d contracts by gas, over %d profiled calls",
+				Math.min(TOP_CONTRACTS, profiles.size()), profiles.size(), callsProfiled));
+		for (var entry : topContracts(TOP_CONTRACTS)) {
+			final var profile = entry.getValue();
+			lines.add(String.format("%s frames=%d ops=%d gas=%d ms=%.3f sloads=%d sstores=%d",
+					entry.getKey().toAbbrevString(),
+					profile.frames(),
+					profile.totalOps(),
+					profile.totalGas(),
+					profile.totalNanos() / NANOS_PER_MS,
+					profile.storageReads(),
+					profile.storageWrites()));
+			for (int op : topOpsOf(profile)) {
+				lines.add(String.format("  %-14s count=%d gas=%d ms=%.3f",
+						OpCode.code((byte) op),
+						profile.opCount(op),
+						profile.opGas(op),
+						profile.opNanos(op) / NANOS_PER_MS));
+			}
+		}
+		try {
+			Files.write(Paths.get(path), lines);
+		} catch (IOException e) {
+			log.warn("Could not write EVM profile to '{}'!", path, e);
+		}
+	}
+
+	private static List<Integer> topOpsOf(ContractExecutionProfile profile) {
+		final List<Integer> ops = new ArrayList<>();
+		for (int op = 0; op < NUM_OPCODES; op++) {
+			if (profile.opCount(op) > 0) {
+				ops.add(op);
+			}
+		}
+		ops.sort(Comparator.comparingLong(profile::opGas).reversed().thenComparingInt(op -> op));
+		return ops.subList(0, Math.min(TOP_OPS, ops.size()));
+	}
+
+	private final class ProfilingHook implements VMHook {
+		private final Deque<Frame> frames = new ArrayDeque<>();
+		private final Map<EntityId, ContractExecutionProfile> callProfiles = new HashMap<>();
+
+		private long callOps;
+		private long callStartGas;
+		private long callStartNanos;
+
+		@Override
+		public void startPlay(Program program) {
+			final long now = nanoTime.getAsLong();
+			if (frames.isEmpty()) {
+				callOps = 0L;
+				callStartGas = program.getGasLong();
+				callStartNanos = now;
+				callProfiles.clear();
+			}
+			final var owner = EntityId.fromGrpcContractId(
+					contractParsedFromSolidityAddress(program.getOwnerAddress().getLast20Bytes()));
+			final var profile = callProfiles.computeIfAbsent(owner, ignore -> new ContractExecutionProfile());
+			profile.recordFrame();
+			frames.push(new Frame(profile, program.getGasLong(), now));
+		}
+
+		@Override
+		public void step(Program program, OpCode opCode) {
+			final int op = opCode.val() & 0xff;
+			frames.peek().advance(program.getGasLong(), nanoTime.getAsLong(), op);
+			callOps++;
+		}
+
+		@Override
+		public void stopPlay(Program program) {
+			final long now = nanoTime.getAsLong();
+			final long gasLeft = program.getGasLong();
+			frames.pop().advance(gasLeft, now, NO_OP);
+
+			final var caller = frames.peek();
+			if (caller != null) {
+				/* Whatever gas this frame did not use is refunded to its caller */
+				caller.pendingRefund += gasLeft;
+			} else {
+				finishCall(callProfiles, callOps, callStartGas - gasLeft, now - callStartNanos);
+			}
+		}
+	}
+
+	/**
+	 * The profiling state of one call frame. The hook sees each opcode after its gas is charged,
+	 * but before it executes; so the gas charged between two steps belongs to the later opcode,
+	 * less any gas refunded by a frame the earlier opcode started, which instead reduces the
+	 * earlier opcode's gas. The time between two steps belongs to the earlier opcode.
+	 */
+	private static final class Frame {
+		private final ContractExecutionProfile profile;
+
+		private int lastOp = NO_OP;
+		private long lastGas;
+		private long lastNanos;
+		private long pendingRefund = 0L;
+
+		private Frame(ContractExecutionProfile profile, long gas, long nanos) {
+			this.profile = profile;
+			this.lastGas = gas;
+			this.lastNanos = nanos;
+		}
+
+		private void advance(long gas, long nanos, int nextOp) {
+			final long charged = lastGas - gas + pendingRefund;
+			if (lastOp != NO_OP) {
+				profile.recordNanos(lastOp, nanos - lastNanos);
+				profile.recordGas(lastOp, -pendingRefund);
+			}
+			if (nextOp != NO_OP) {
+				profile.recordOp(nextOp);
+				profile.recordGas(nextOp, charged);
+			} else if (lastOp != NO_OP) {
+				/* E.g., the remaining gas burned by an exceptional halt */
+				profile.recordGas(lastOp, charged);
+			}
+			lastOp = nextOp;
+			lastGas = gas;
+			lastNanos = nanos;
+			pendingRefund = 0L;
+		}
+	}
+}
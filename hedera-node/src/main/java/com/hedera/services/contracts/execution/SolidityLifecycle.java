@@ -21,6 +21,7 @@ package com.hedera.services.contracts.execution;
  */
 
 import com.hedera.services.context.properties.GlobalDynamicProperties;
+import com.hedera.services.contracts.persistence.WriteBackStorageCache;
 import com.hedera.services.legacy.evm.SolidityExecutor;
 import com.hederahashgraph.api.proto.java.ContractFunctionResult;
 import com.hederahashgraph.api.proto.java.ResponseCodeEnum;
@@ -43,42 +44,56 @@ import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.SUCCESS;
 public class SolidityLifecycle {
 	private static final Logger log = LogManager.getLogger(SolidityLifecycle.class);
 
+	private final WriteBackStorageCache storageCache;
 	private final GlobalDynamicProperties properties;
 
 	public static final String OVERSIZE_RESULT_ERROR_MSG_TPL =
 			"Result size (%d bytes) exceeded maximum allowed size (%d bytes)";
 
-	public SolidityLifecycle(GlobalDynamicProperties properties) {
+	public SolidityLifecycle(GlobalDynamicProperties properties, WriteBackStorageCache storageCache) {
 		this.properties = properties;
+		this.storageCache = storageCache;
 	}
 
 	public Map.Entry<ContractFunctionResult, ResponseCodeEnum> run(
 			SolidityExecutor executor,
 			ServicesRepositoryRoot root
 	) {
-		cycle(executor);
+		/* Whatever happens, storage buffered in a transaction that did not commit must not leak into the next */
+		var committed = false;
+		try {
+			cycle(executor);
+
+			var status = SUCCESS;
+			var result = asHapiResult(executor.getReceipt(), executor.getCreatedContracts());
+
+			log.debug("Cycle completed with error message {}", result::getErrorMessage);
+			var succeededSoFar = StringUtils.isEmpty(result.getErrorMessage());
+			if (succeededSoFar) {
+				if (!root.flushStorageCacheIfTotalSizeLessThan(properties.maxContractStorageKb())) {
+					succeededSoFar = false;
+					status = MAX_CONTRACT_STORAGE_EXCEEDED;
+				}
+			}
+			if (!succeededSoFar) {
+				status = (status != SUCCESS)
+						? status
+						: Optional.ofNullable(executor.getErrorCode()).orElse(CONTRACT_EXECUTION_EXCEPTION);
+				root.emptyStorageCache();
+			}
 
-		var status = SUCCESS;
-		var result = asHapiResult(executor.getReceipt(), executor.getCreatedContracts());
+			root.flush();
+			if (succeededSoFar) {
+				storageCache.commit();
+				committed = true;
+			}
 
-		log.debug("Cycle completed with error message {}", result::getErrorMessage);
-		var succeededSoFar = StringUtils.isEmpty(result.getErrorMessage());
-		if (succeededSoFar) {
-			if (!root.flushStorageCacheIfTotalSizeLessThan(properties.maxContractStorageKb())) {
-				succeededSoFar = false;
-				status = MAX_CONTRACT_STORAGE_EXCEEDED;
+			return new AbstractMap.SimpleImmutableEntry<>(result, status);
+		} finally {
+			if (!committed) {
+				storageCache.rollback();
 			}
 		}
-		if (!succeededSoFar) {
-			status = (status != SUCCESS)
-					? status
-					: Optional.ofNullable(executor.getErrorCode()).orElse(CONTRACT_EXECUTION_EXCEPTION);
-			root.emptyStorageCache();
-		}
-
-		root.flush();
-
-		return new AbstractMap.SimpleImmutableEntry<>(result, status);
 	}
 
 	public Map.Entry<ContractFunctionResult, ResponseCodeEnum> runPure(long maxResultSize, SolidityExecutor executor) {
@@ -0,0 +1,222 @@
+package com.hedera.services.contracts.persistence;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
+import com.hedera.services.state.submerkle.EntityId;
+import com.swirlds.fchashmap.FCOneToManyRelation;
+import com.swirlds.fcmap.FCMap;
+import org.ethereum.datasource.StoragePersistence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static com.hedera.services.state.merkle.MerkleContractSlot.VALUE_BYTES;
+import static com.hedera.services.state.merkle.MerkleContractSlotId.KEY_BYTES;
+import static com.hedera.services.utils.EntityIdUtils.contractParsedFromSolidityAddress;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * A {@link StoragePersistence} that keeps each storage slot of a contract in its own leaf of a
+ * Merkle map, instead of one blob per contract.
+ *
+ * The EVM still reads and writes a contract's storage as a serialized sequence of
+ * {@code (32-byte key, 32-byte value)} pairs; but on {@link StoragePersistence#persist(byte[], byte[], long, long)}
+ * only the slots whose values were added, changed, or removed are written to the Merkle map, so the
+ * cost of rehashing state is proportional to the slots a transaction touched rather than to the total
+ * size of the contract's storage.
+ */
+public class SlotKeyedStoragePersistence implements StoragePersistence {
+	static final int SLOT_BYTES = KEY_BYTES + VALUE_BYTES;
+
+	static final Comparator<MerkleContractSlotId> SLOT_KEY_ORDER =
+			(a, b) -> Arrays.compareUnsigned(a.key(), b.key());
+
+	private final Supplier<FCMap<MerkleContractSlotId, MerkleContractSlot>> slots;
+	private final Supplier<FCOneToManyRelation<EntityId, MerkleContractSlotId>> slotAssociations;
+
+	public SlotKeyedStoragePersistence(
+			Supplier<FCMap<MerkleContractSlotId, MerkleContractSlot>> slots,
+			Supplier<FCOneToManyRelation<EntityId, MerkleContractSlotId>> slotAssociations
+	) {
+		this.slots = slots;
+		this.slotAssociations = slotAssociations;
+	}
+
+	@Override
+	public boolean storageExist(byte[] address) {
+		return slotAssociations.get().getCount(contractIdFrom(address)) > 0;
+	}
+
+	@Override
+	public void persist(byte[] address, byte[] cache, long ignoredExpiry, long ignoredNow) {
+		persistAll(address, cache);
+	}
+
+	/**
+	 * Persists the given storage for a contract whose storage was the given {@code before} sequence of
+	 * key/value pairs, as returned by {@link SlotKeyedStoragePersistence#get(byte[])}. When both sequences
+	 * are in key order, they are merged so that only the changed slots are even looked up in the Merkle
+	 * map; otherwise this is equivalent to {@link StoragePersistence#persist(byte[], byte[], long, long)}.
+	 *
+	 * In either case the Merkle map is changed by exactly the same sequence of operations.
+	 *
+	 * @param address the contract address
+	 * @param before the contract's storage in state, or null if unknown
+	 * @param after the contract's new storage
+	 * @return the number of slots added, changed, or removed
+	 */
+	public int persistChanges(byte[] address, byte[] before, byte[] after) {
+		if (before == null || !isKeyOrdered(before) || !isKeyOrdered(after)) {
+			return persistAll(address, after);
+		}
+		final var contractId = contractIdFrom(address);
+		final var curSlots = slots.get();
+		final var curAssociations = slotAssociations.get();
+
+		int numChanged = 0;
+		final List<MerkleContractSlotId> clearedIds = new ArrayList<>();
+		int i = 0, j = 0;
+		while (i < before.length || j < after.length) {
+			final int order;
+			if (i == before.length) {
+				order = 1;
+			} else if (j == after.length) {
+				order = -1;
+			} else {
+				order = Arrays.compareUnsigned(before, i, i + KEY_BYTES, after, j, j + KEY_BYTES);
+			}
+			if (order < 0) {
+				clearedIds.add(new MerkleContractSlotId(contractId, Arrays.copyOfRange(before, i, i + KEY_BYTES)));
+				i += SLOT_BYTES;
+				continue;
+			}
+			if (order > 0) {
+				final var id = new MerkleContractSlotId(contractId, Arrays.copyOfRange(after, j, j + KEY_BYTES));
+				curSlots.put(id, new MerkleContractSlot(Arrays.copyOfRange(after, j + KEY_BYTES, j + SLOT_BYTES)));
+				curAssociations.associate(contractId, id);
+				numChanged++;
+			} else {
+				if (!Arrays.equals(before, i + KEY_BYTES, i + SLOT_BYTES, after, j + KEY_BYTES, j + SLOT_BYTES)) {
+					final var id = new MerkleContractSlotId(contractId, Arrays.copyOfRange(after, j, j + KEY_BYTES));
+					curSlots.getForModify(id).setValue(Arrays.copyOfRange(after, j + KEY_BYTES, j + SLOT_BYTES));
+					numChanged++;
+				}
+				i += SLOT_BYTES;
+			}
+			j += SLOT_BYTES;
+		}
+		removeAll(contractId, clearedIds);
+		return numChanged + clearedIds.size();
+	}
+
+	private int persistAll(byte[] address, byte[] cache) {
+		final var contractId = contractIdFrom(address);
+		if (cache.length % SLOT_BYTES != 0) {
+			throw new IllegalArgumentException(String.format(
+					"Storage of %d bytes for contract %s is not a sequence of key/value pairs!",
+					cache.length, contractId.toAbbrevString()));
+		}
+		final var curSlots = slots.get();
+		final var curAssociations = slotAssociations.get();
+
+		int numChanged = 0;
+		final var retainedIds = new HashSet<MerkleContractSlotId>();
+		for (int i = 0; i < cache.length; i += SLOT_BYTES) {
+			final var id = new MerkleContractSlotId(contractId, Arrays.copyOfRange(cache, i, i + KEY_BYTES));
+			final var value = Arrays.copyOfRange(cache, i + KEY_BYTES, i + SLOT_BYTES);
+			retainedIds.add(id);
+
+			final var extant = curSlots.get(id);
+			if (extant == null) {
+				curSlots.put(id, new MerkleContractSlot(value));
+				curAssociations.associate(contractId, id);
+				numChanged++;
+			} else if (!Arrays.equals(extant.getValue(), value)) {
+				curSlots.getForModify(id).setValue(value);
+				numChanged++;
+			}
+		}
+
+		if (curAssociations.getCount(contractId) > retainedIds.size()) {
+			/* Remove cleared slots in key order, so every node changes the Merkle map identically */
+			final List<MerkleContractSlotId> clearedIds = curAssociations.getList(contractId)
+					.stream()
+					.filter(id -> !retainedIds.contains(id))
+					.sorted(SLOT_KEY_ORDER)
+					.collect(toList());
+			removeAll(contractId, clearedIds);
+			numChanged += clearedIds.size();
+		}
+		return numChanged;
+	}
+
+	private void removeAll(EntityId contractId, List<MerkleContractSlotId> clearedIds) {
+		final var curSlots = slots.get();
+		final var curAssociations = slotAssociations.get();
+		for (var id : clearedIds) {
+			curSlots.remove(id);
+			curAssociations.disassociate(contractId, id);
+		}
+	}
+
+	@Override
+	public byte[] get(byte[] address) {
+		final var contractId = contractIdFrom(address);
+		final var curAssociations = slotAssociations.get();
+		if (curAssociations.getCount(contractId) == 0) {
+			return null;
+		}
+
+		final var curSlots = slots.get();
+		final var ids = curAssociations.getList(contractId);
+		ids.sort(SLOT_KEY_ORDER);
+		final var storage = new byte[ids.size() * SLOT_BYTES];
+		int i = 0;
+		for (var id : ids) {
+			System.arraycopy(id.key(), 0, storage, i, KEY_BYTES);
+			System.arraycopy(curSlots.get(id).getValue(), 0, storage, i + KEY_BYTES, VALUE_BYTES);
+			i += SLOT_BYTES;
+		}
+		return storage;
+	}
+
+	static boolean isKeyOrdered(byte[] storage) {
+		if (storage.length % SLOT_BYTES != 0) {
+			return false;
+		}
+		for (int i = SLOT_BYTES; i < storage.length; i += SLOT_BYTES) {
+			if (Arrays.compareUnsigned(storage, i - SLOT_BYTES, i - VALUE_BYTES, storage, i, i + KEY_BYTES) >= 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static EntityId contractIdFrom(byte[] address) {
+		return EntityId.fromGrpcContractId(contractParsedFromSolidityAddress(address));
+	}
+}
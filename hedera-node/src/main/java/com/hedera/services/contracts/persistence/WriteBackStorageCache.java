@@ -0,0 +1,133 @@
+package com.hedera.services.contracts.persistence;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.stats.MiscRunningAvgs;
+import org.ethereum.datasource.StoragePersistence;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.hedera.services.contracts.persistence.SlotKeyedStoragePersistence.SLOT_BYTES;
+
+/**
+ * A per-transaction write-back cache in front of the {@link SlotKeyedStoragePersistence} used by
+ * the EVM when handling a transaction.
+ *
+ * Each contract's storage is loaded from the Merkle map at most once per transaction, and every
+ * {@link StoragePersistence#persist(byte[], byte[], long, long)} is only buffered; when the
+ * transaction succeeds, {@link WriteBackStorageCache#commit()} flushes the buffered storage once,
+ * in unsigned address order, writing only the slots that differ from what was loaded. If the
+ * transaction fails, {@link WriteBackStorageCache#rollback()} discards the buffered storage
+ * without touching the Merkle map.
+ *
+ * Either way, the number of slots read and written for the contract call are recorded in the
+ * {@link MiscRunningAvgs}.
+ *
+ * Since buffered storage is not visible to other readers, this cache must only be used from the
+ * thread handling transactions; queries should read through a plain {@link SlotKeyedStoragePersistence}.
+ */
+public class WriteBackStorageCache implements StoragePersistence {
+	private final MiscRunningAvgs runningAvgs;
+	private final SlotKeyedStoragePersistence delegate;
+
+	/* Storage as loaded from state in this transaction (null if the contract had none) */
+	private final Map<byte[], byte[]> loaded = new TreeMap<>(Arrays::compareUnsigned);
+	/* Storage persisted by the EVM in this transaction, not yet flushed to state */
+	private final Map<byte[], byte[]> pending = new TreeMap<>(Arrays::compareUnsigned);
+
+	private int slotsRead = 0;
+
+	public WriteBackStorageCache(SlotKeyedStoragePersistence delegate, MiscRunningAvgs runningAvgs) {
+		this.delegate = delegate;
+		this.runningAvgs = runningAvgs;
+	}
+
+	@Override
+	public boolean storageExist(byte[] address) {
+		if (pending.containsKey(address)) {
+			return true;
+		}
+		if (loaded.containsKey(address)) {
+			return loaded.get(address) != null;
+		}
+		return delegate.storageExist(address);
+	}
+
+	@Override
+	public void persist(byte[] address, byte[] cache, long expiry, long now) {
+		pending.put(address, cache);
+	}
+
+	@Override
+	public byte[] get(byte[] address) {
+		if (pending.containsKey(address)) {
+			return pending.get(address);
+		}
+		if (!loaded.containsKey(address)) {
+			final var storage = delegate.get(address);
+			if (storage != null) {
+				slotsRead += storage.length / SLOT_BYTES;
+			}
+			loaded.put(address, storage);
+		}
+		/* Give the EVM its own copy, so the loaded storage can be diffed on commit */
+		final var storage = loaded.get(address);
+		return (storage == null) ? null : storage.clone();
+	}
+
+	/**
+	 * Flushes all storage buffered in this transaction to state, and records the storage access
+	 * of the finished contract call.
+	 */
+	public void commit() {
+		int slotsWritten = 0;
+		for (var entry : pending.entrySet()) {
+			final var address = entry.getKey();
+			slotsWritten += delegate.persistChanges(address, loaded.get(address), entry.getValue());
+		}
+		finish(slotsWritten);
+	}
+
+	/**
+	 * Discards all storage buffered in this transaction, and records the storage access
+	 * of the failed contract call.
+	 */
+	public void rollback() {
+		finish(0);
+	}
+
+	private void finish(int slotsWritten) {
+		runningAvgs.recordContractStorageAccess(slotsRead, slotsWritten, (long) slotsWritten * SLOT_BYTES);
+		slotsRead = 0;
+		loaded.clear();
+		pending.clear();
+	}
+
+	int numPending() {
+		return pending.size();
+	}
+
+	int numLoaded() {
+		return loaded.size();
+	}
+}
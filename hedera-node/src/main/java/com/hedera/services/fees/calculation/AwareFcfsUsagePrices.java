@@ -24,6 +24,7 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import com.hedera.services.config.FileNumbers;
 import com.hedera.services.context.TransactionContext;
 import com.hedera.services.files.HederaFs;
+import com.hedera.services.files.sysfiles.ParsedSysFileCache;
 import com.hederahashgraph.api.proto.java.CurrentAndNextFeeSchedule;
 import com.hederahashgraph.api.proto.java.FeeComponents;
 import com.hederahashgraph.api.proto.java.FeeData;
@@ -43,6 +44,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
+import static com.hedera.services.files.sysfiles.ParsedSysFileCache.FEE_SCHEDULES_KIND;
 import static com.hedera.services.utils.EntityIdUtils.readableId;
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.TokenAccountWipe;
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.TokenBurn;
@@ -52,6 +54,12 @@ import static com.hederahashgraph.api.proto.java.HederaFunctionality.TokenMint;
  * Implements a {@link UsagePricesProvider} by loading the required
  * fee schedules from the Hedera FileSystem.
  *
+ * The fee schedules are parsed via a {@link ParsedSysFileCache}; so when
+ * the contents of the fee schedules file are unchanged since the last load
+ * (e.g., on a reconnect), the existing price tables are kept as-is. Otherwise
+ * the current and next schedules are each compiled into a {@link UsagePriceTable},
+ * which is what fee calculations look up prices in.
+ *
  * @author Michael Tinker
  */
 public class AwareFcfsUsagePrices implements UsagePricesProvider {
@@ -79,19 +87,23 @@ public class AwareFcfsUsagePrices implements UsagePricesProvider {
 	private final HederaFs hfs;
 	private final FileNumbers fileNumbers;
 	private final TransactionContext txnCtx;
+	private final ParsedSysFileCache parsedSysFiles;
 
 	CurrentAndNextFeeSchedule feeSchedules;
 
-	private Timestamp currFunctionUsagePricesExpiry;
-	private Timestamp nextFunctionUsagePricesExpiry;
-
-	private EnumMap<HederaFunctionality, Map<SubType, FeeData>> currFunctionUsagePrices;
-	private EnumMap<HederaFunctionality, Map<SubType, FeeData>> nextFunctionUsagePrices;
+	private UsagePriceTable currUsagePrices;
+	private UsagePriceTable nextUsagePrices;
 
-	public AwareFcfsUsagePrices(HederaFs hfs, FileNumbers fileNumbers, TransactionContext txnCtx) {
+	public AwareFcfsUsagePrices(
+			HederaFs hfs,
+			FileNumbers fileNumbers,
+			TransactionContext txnCtx,
+			ParsedSysFileCache parsedSysFiles
+	) {
 		this.hfs = hfs;
 		this.txnCtx = txnCtx;
 		this.fileNumbers = fileNumbers;
+		this.parsedSysFiles = parsedSysFiles;
 	}
 
 	@Override
@@ -102,7 +114,12 @@ public class AwareFcfsUsagePrices implements UsagePricesProvider {
 					String.format("No fee schedule available at %s!", readableId(this.feeSchedules)));
 		}
 		try {
-			var schedules = CurrentAndNextFeeSchedule.parseFrom(hfs.cat(feeSchedulesId));
+			var schedules = parsedSysFiles.parse(
+					FEE_SCHEDULES_KIND, hfs.cat(feeSchedulesId), CurrentAndNextFeeSchedule::parseFrom);
+			if (schedules == feeSchedules) {
+				log.info("Fee schedules unchanged since last load, keeping existing usage prices");
+				return;
+			}
 			setFeeSchedules(schedules);
 		} catch (InvalidProtocolBufferException e) {
 			log.warn("Corrupt fee schedules file at {}, may require remediation!", readableId(this.feeSchedules), e);
@@ -138,55 +155,69 @@ public class AwareFcfsUsagePrices implements UsagePricesProvider {
 	@Override
 	public Map<SubType, FeeData> pricesGiven(HederaFunctionality function, Timestamp at) {
 		try {
-			Map<HederaFunctionality, Map<SubType, FeeData>> functionUsagePrices = applicableUsagePrices(at);
-			Map<SubType, FeeData> usagePrices = functionUsagePrices.get(function);
+			Map<SubType, FeeData> usagePrices = applicableUsagePrices(at).pricesFor(function);
 			Objects.requireNonNull(usagePrices);
 			return usagePrices;
 		} catch (Exception e) {
-			log.debug(
-					"Default usage price will be used, no specific usage prices available for function {} @ {}!",
-					function, Instant.ofEpochSecond(at.getSeconds(), at.getNanos()));
+			logDefaultPricesUsed(function, at);
 		}
 		return DEFAULT_USAGE_PRICES;
 	}
 
 	@Override
 	public FeeData defaultPricesGiven(HederaFunctionality function, Timestamp at) {
-		return pricesGiven(function, at).get(SubType.DEFAULT);
+		try {
+			final var usagePrices = applicableUsagePrices(at);
+			if (usagePrices.hasPricesFor(function)) {
+				return usagePrices.pricesFor(function, SubType.DEFAULT);
+			}
+		} catch (Exception ignore) {
+			/* Fall through to the default prices */
+		}
+		logDefaultPricesUsed(function, at);
+		return DEFAULT_USAGE_PRICES.get(SubType.DEFAULT);
+	}
+
+	private void logDefaultPricesUsed(HederaFunctionality function, Timestamp at) {
+		log.debug(
+				"Default usage price will be used, no specific usage prices available for function {} @ {}!",
+				function, Instant.ofEpochSecond(at.getSeconds(), at.getNanos()));
 	}
 
 	@Override
 	public Triple<Map<SubType, FeeData>, Instant, Map<SubType, FeeData>> activePricingSequence(
 			HederaFunctionality function) {
+		final var currExpiry = currUsagePrices.getExpiry();
 		return Triple.of(
-				currFunctionUsagePrices.get(function),
-				Instant.ofEpochSecond(
-						currFunctionUsagePricesExpiry.getSeconds(),
-						currFunctionUsagePricesExpiry.getNanos()),
-				nextFunctionUsagePrices.get(function));
+				currUsagePrices.pricesFor(function),
+				Instant.ofEpochSecond(currExpiry.getSeconds(), currExpiry.getNanos()),
+				nextUsagePrices.pricesFor(function));
 	}
 
-	private Map<HederaFunctionality, Map<SubType, FeeData>> applicableUsagePrices(Timestamp at) {
+	private UsagePriceTable applicableUsagePrices(Timestamp at) {
 		if (onlyNextScheduleApplies(at)) {
-			return nextFunctionUsagePrices;
+			return nextUsagePrices;
 		} else {
-			return currFunctionUsagePrices;
+			return currUsagePrices;
 		}
 	}
 
 	private boolean onlyNextScheduleApplies(Timestamp at) {
-		return at.getSeconds() >= currFunctionUsagePricesExpiry.getSeconds() &&
-				at.getSeconds() < nextFunctionUsagePricesExpiry.getSeconds();
+		return at.getSeconds() >= currUsagePrices.getExpiry().getSeconds() &&
+				at.getSeconds() < nextUsagePrices.getExpiry().getSeconds();
 	}
 
 	public void setFeeSchedules(CurrentAndNextFeeSchedule feeSchedules) {
+		final long start = System.nanoTime();
 		this.feeSchedules = feeSchedules;
 
-		currFunctionUsagePrices = functionUsagePricesFrom(feeSchedules.getCurrentFeeSchedule());
-		currFunctionUsagePricesExpiry = asTimestamp(feeSchedules.getCurrentFeeSchedule().getExpiryTime());
+		currUsagePrices = usagePriceTableFrom(feeSchedules.getCurrentFeeSchedule());
+		nextUsagePrices = usagePriceTableFrom(feeSchedules.getNextFeeSchedule());
+		log.info("Rebuilt usage prices in {}ms", (System.nanoTime() - start) / 1_000_000.0);
+	}
 
-		nextFunctionUsagePrices = functionUsagePricesFrom(feeSchedules.getNextFeeSchedule());
-		nextFunctionUsagePricesExpiry = asTimestamp(feeSchedules.getNextFeeSchedule().getExpiryTime());
+	private UsagePriceTable usagePriceTableFrom(FeeSchedule feeSchedule) {
+		return new UsagePriceTable(functionUsagePricesFrom(feeSchedule), asTimestamp(feeSchedule.getExpiryTime()));
 	}
 
 	private Timestamp asTimestamp(TimestampSeconds ts) {
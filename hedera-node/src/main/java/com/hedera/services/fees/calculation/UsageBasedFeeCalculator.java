@@ -24,6 +24,7 @@ import com.hedera.services.context.primitives.StateView;
 import com.hedera.services.fees.FeeCalculator;
 import com.hedera.services.fees.FeeMultiplierSource;
 import com.hedera.services.fees.HbarCentExchange;
+import com.hedera.services.fees.calculation.utils.FeeObjectMemo;
 import com.hedera.services.fees.calculation.utils.PricedUsageCalculator;
 import com.hedera.services.legacy.core.jproto.JKey;
 import com.hedera.services.state.merkle.MerkleAccount;
@@ -51,6 +52,7 @@ import java.util.Optional;
 import java.util.function.Function;
 
 import static com.hedera.services.fees.calculation.AwareFcfsUsagePrices.DEFAULT_USAGE_PRICES;
+import static com.hedera.services.fees.calculation.utils.FeeObjectMemo.usageVectorOf;
 import static com.hedera.services.keys.HederaKeyTraversal.numSimpleKeys;
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.ContractCall;
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.ContractCreate;
@@ -76,6 +78,7 @@ public class UsageBasedFeeCalculator implements FeeCalculator {
 	private final List<QueryResourceUsageEstimator> queryUsageEstimators;
 	private final Function<HederaFunctionality, List<TxnResourceUsageEstimator>> txnUsageEstimators;
 	private final PricedUsageCalculator pricedUsageCalculator;
+	private final FeeObjectMemo feeMemo = new FeeObjectMemo();
 
 	public UsageBasedFeeCalculator(
 			AutoRenewCalcs autoRenewCalcs,
@@ -231,7 +234,15 @@ public class UsageBasedFeeCalculator implements FeeCalculator {
 			try {
 				final var usage = usageEstimator.usageGiven(accessor.getTxn(), sigUsage, view);
 				final var applicablePrices = prices.get(usage.getSubType());
-				return getFeeObject(applicablePrices, usage, rate, feeMultiplierSource.currentMultiplier());
+				final var multiplier = feeMultiplierSource.currentMultiplier();
+				return feeMemo.feesFor(
+						function,
+						usage.getSubType(),
+						usageVectorOf(usage),
+						applicablePrices,
+						rate,
+						multiplier,
+						() -> getFeeObject(applicablePrices, usage, rate, multiplier));
 			} catch (InvalidTxBodyException e) {
 				log.warn(
 						"Argument accessor={} malformed for implied estimator {}!",
@@ -268,4 +279,8 @@ public class UsageBasedFeeCalculator implements FeeCalculator {
 	private SigValueObj getSigUsage(TxnAccessor accessor, JKey payerKey) {
 		return new SigValueObj(accessor.numSigPairs(), numSimpleKeys(payerKey), accessor.sigMapSize());
 	}
+
+	FeeObjectMemo getFeeMemo() {
+		return feeMemo;
+	}
 }
@@ -0,0 +1,90 @@
+package com.hedera.services.fees.calculation;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.FeeData;
+import com.hederahashgraph.api.proto.java.HederaFunctionality;
+import com.hederahashgraph.api.proto.java.SubType;
+import com.hederahashgraph.api.proto.java.Timestamp;
+
+import java.util.Map;
+
+/**
+ * The usage prices of a single fee schedule, compiled into dense tables indexed by the
+ * ordinals of {@link HederaFunctionality} and {@link SubType}; so that finding the prices
+ * for a transaction is two array reads, instead of an {@link java.util.EnumMap} lookup
+ * followed by a {@link java.util.HashMap} lookup.
+ *
+ * The {@link FeeData} instances are those of the parsed schedule, so a table compiled
+ * from an unchanged schedule prices with the very same objects.
+ */
+class UsagePriceTable {
+	private static final int NUM_FUNCTIONS = HederaFunctionality.values().length;
+	private static final int NUM_SUB_TYPES = SubType.values().length;
+
+	private final Timestamp expiry;
+	private final FeeData[] typedPrices;
+	private final Map<SubType, FeeData>[] functionPrices;
+
+	@SuppressWarnings("unchecked")
+	UsagePriceTable(Map<HederaFunctionality, Map<SubType, FeeData>> functionUsagePrices, Timestamp expiry) {
+		this.expiry = expiry;
+		typedPrices = new FeeData[NUM_FUNCTIONS * NUM_SUB_TYPES];
+		functionPrices = (Map<SubType, FeeData>[]) new Map[NUM_FUNCTIONS];
+		functionUsagePrices.forEach((function, prices) -> {
+			functionPrices[function.ordinal()] = prices;
+			prices.forEach((subType, feeData) -> typedPrices[indexOf(function, subType)] = feeData);
+		});
+	}
+
+	/**
+	 * Returns the prices of each sub-type of the given function.
+	 *
+	 * @param function the function of interest
+	 * @return the prices by sub-type, or null if the schedule has none for the function
+	 */
+	Map<SubType, FeeData> pricesFor(HederaFunctionality function) {
+		return functionPrices[function.ordinal()];
+	}
+
+	/**
+	 * Returns the prices of the given sub-type of the given function.
+	 *
+	 * @param function the function of interest
+	 * @param subType the sub-type of interest
+	 * @return the prices, or null if the schedule has none for the function and sub-type
+	 */
+	FeeData pricesFor(HederaFunctionality function, SubType subType) {
+		return typedPrices[indexOf(function, subType)];
+	}
+
+	boolean hasPricesFor(HederaFunctionality function) {
+		return functionPrices[function.ordinal()] != null;
+	}
+
+	Timestamp getExpiry() {
+		return expiry;
+	}
+
+	private static int indexOf(HederaFunctionality function, SubType subType) {
+		return function.ordinal() * NUM_SUB_TYPES + subType.ordinal();
+	}
+}
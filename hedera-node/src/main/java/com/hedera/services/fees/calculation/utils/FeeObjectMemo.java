@@ -0,0 +1,237 @@
+package com.hedera.services.fees.calculation.utils;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.usage.state.UsageAccumulator;
+import com.hederahashgraph.api.proto.java.ExchangeRate;
+import com.hederahashgraph.api.proto.java.FeeComponents;
+import com.hederahashgraph.api.proto.java.FeeData;
+import com.hederahashgraph.api.proto.java.HederaFunctionality;
+import com.hederahashgraph.api.proto.java.SubType;
+import com.hederahashgraph.fee.FeeObject;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * A bounded memo of the {@link FeeObject}s computed from normalized resource usage vectors.
+ *
+ * Most transactions of a given type have the same "shape" (number of signatures, transfers,
+ * memo size, and so on), and hence the same resource usage; so once the usage of a transaction
+ * has been estimated, the final fee is very often one that was already computed for an earlier
+ * transaction with the same usage, prices, exchange rate, and congestion multiplier.
+ *
+ * The prices are compared by identity rather than by value, because the fee schedule is parsed
+ * into new {@link FeeData} instances exactly when it changes; so the identity of the prices
+ * serves as the price schedule version. An exchange rate is reduced to its hbar and cent
+ * equivalents, the only parts of it used in fee calculations.
+ *
+ * When the memo is full, it is cleared (logging the hit rate since the last clear).
+ */
+public class FeeObjectMemo {
+	private static final Logger log = LogManager.getLogger(FeeObjectMemo.class);
+
+	static final int MAX_MEMOIZED_FEES = 4_096;
+
+	private static final int LEGACY_COMPONENT_LEN = 9;
+
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final Map<Key, FeeObject> fees = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns the fees for the given inputs, from the memo if possible; and otherwise
+	 * using, and then memoizing, the result of the given computation.
+	 *
+	 * The computation must be a pure function of the other arguments.
+	 *
+	 * @param function the function being priced
+	 * @param subType the sub-type of the applicable prices
+	 * @param usage the normalized usage vector
+	 * @param prices the applicable prices
+	 * @param rate the active exchange rate
+	 * @param multiplier the congestion pricing multiplier
+	 * @param computation the uncached fee computation
+	 * @return the fees
+	 */
+	public FeeObject feesFor(
+			HederaFunctionality function,
+			SubType subType,
+			long[] usage,
+			FeeData prices,
+			ExchangeRate rate,
+			long multiplier,
+			Supplier<FeeObject> computation
+	) {
+		final var key = new Key(function, subType, usage, prices, rate, multiplier);
+		final var memoized = fees.get(key);
+		if (memoized != null) {
+			hits.increment();
+			return memoized;
+		}
+		misses.increment();
+		final var computed = computation.get();
+		if (fees.size() >= MAX_MEMOIZED_FEES) {
+			logAndResetStats();
+			fees.clear();
+		}
+		fees.put(key, computed);
+		return computed;
+	}
+
+	/**
+	 * Returns the usage vector of an accumulator, in the order of the
+	 * quantities used by {@link com.hedera.services.calc.OverflowCheckingCalc}.
+	 *
+	 * @param usage the accumulated usage
+	 * @return the usage vector
+	 */
+	public static long[] usageVectorOf(UsageAccumulator usage) {
+		return new long[] {
+				usage.getUniversalBpt(),
+				usage.getNetworkVpt(),
+				usage.getNetworkRbh(),
+				usage.getNodeBpr(),
+				usage.getNodeSbpr(),
+				usage.getNodeVpt(),
+				usage.getServiceRbh(),
+				usage.getServiceSbh()
+		};
+	}
+
+	/**
+	 * Returns the usage vector of a legacy {@link FeeData} usage estimate; that is, the nine
+	 * metered quantities of each of its network, node, and service components.
+	 *
+	 * @param usage the usage estimate
+	 * @return the usage vector
+	 */
+	public static long[] usageVectorOf(FeeData usage) {
+		final var vector = new long[3 * LEGACY_COMPONENT_LEN];
+		copyComponent(usage.getNetworkdata(), vector, 0);
+		copyComponent(usage.getNodedata(), vector, LEGACY_COMPONENT_LEN);
+		copyComponent(usage.getServicedata(), vector, 2 * LEGACY_COMPONENT_LEN);
+		return vector;
+	}
+
+	private static void copyComponent(FeeComponents component, long[] vector, int offset) {
+		vector[offset] = component.getConstant();
+		vector[offset + 1] = component.getBpt();
+		vector[offset + 2] = component.getVpt();
+		vector[offset + 3] = component.getRbh();
+		vector[offset + 4] = component.getSbh();
+		vector[offset + 5] = component.getGas();
+		vector[offset + 6] = component.getTv();
+		vector[offset + 7] = component.getBpr();
+		vector[offset + 8] = component.getSbpr();
+	}
+
+	public long hits() {
+		return hits.sum();
+	}
+
+	public long misses() {
+		return misses.sum();
+	}
+
+	public double hitRate() {
+		final long numHits = hits.sum();
+		final long total = numHits + misses.sum();
+		return (total == 0) ? 0.0 : (double) numHits / total;
+	}
+
+	private void logAndResetStats() {
+		log.info("Clearing {} memoized fees; {} hits and {} misses since last clear ({}% hit rate)",
+				fees.size(), hits(), misses(), String.format("%.2f", 100.0 * hitRate()));
+		hits.reset();
+		misses.reset();
+	}
+
+	/* --- Only used by unit tests --- */
+	int numMemoized() {
+		return fees.size();
+	}
+
+	private static final class Key {
+		private final HederaFunctionality function;
+		private final SubType subType;
+		private final long[] usage;
+		private final FeeData prices;
+		private final int hbarEquiv;
+		private final int centEquiv;
+		private final long multiplier;
+		private final int hashCode;
+
+		private Key(
+				HederaFunctionality function,
+				SubType subType,
+				long[] usage,
+				FeeData prices,
+				ExchangeRate rate,
+				long multiplier
+		) {
+			this.function = function;
+			this.subType = subType;
+			this.usage = usage;
+			this.prices = prices;
+			this.hbarEquiv = rate.getHbarEquiv();
+			this.centEquiv = rate.getCentEquiv();
+			this.multiplier = multiplier;
+
+			int result = Objects.hashCode(function);
+			result = 31 * result + Objects.hashCode(subType);
+			result = 31 * result + Arrays.hashCode(usage);
+			result = 31 * result + System.identityHashCode(prices);
+			result = 31 * result + hbarEquiv;
+			result = 31 * result + centEquiv;
+			this.hashCode = 31 * result + Long.hashCode(multiplier);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (o == null || Key.class != o.getClass()) {
+				return false;
+			}
+			final var that = (Key) o;
+			return this.prices == that.prices
+					&& this.function == that.function
+					&& this.subType == that.subType
+					&& this.hbarEquiv == that.hbarEquiv
+					&& this.centEquiv == that.centEquiv
+					&& this.multiplier == that.multiplier
+					&& Arrays.equals(this.usage, that.usage);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+}
@@ -29,12 +29,15 @@ import com.hedera.services.utils.TxnAccessor;
 import com.hederahashgraph.api.proto.java.ExchangeRate;
 import com.hederahashgraph.api.proto.java.FeeData;
 import com.hederahashgraph.api.proto.java.HederaFunctionality;
+import com.hederahashgraph.api.proto.java.SubType;
 import com.hederahashgraph.fee.FeeObject;
 
+import static com.hedera.services.fees.calculation.utils.FeeObjectMemo.usageVectorOf;
 import static com.hedera.services.keys.HederaKeyTraversal.numSimpleKeys;
 
 public class PricedUsageCalculator {
 	private final UsageAccumulator handleScopedAccumulator = new UsageAccumulator();
+	private final FeeObjectMemo feeMemo = new FeeObjectMemo();
 
 	private final AccessorBasedUsages accessorBasedUsages;
 	private final FeeMultiplierSource feeMultiplierSource;
@@ -73,10 +76,22 @@ public class PricedUsageCalculator {
 
 		accessorBasedUsages.assess(sigUsage, accessor, accumulator);
 
-		return calculator.fees(accumulator, resourcePrices, rate, feeMultiplierSource.currentMultiplier());
+		final long multiplier = feeMultiplierSource.currentMultiplier();
+		return feeMemo.feesFor(
+				accessor.getFunction(),
+				SubType.DEFAULT,
+				usageVectorOf(accumulator),
+				resourcePrices,
+				rate,
+				multiplier,
+				() -> calculator.fees(accumulator, resourcePrices, rate, multiplier));
 	}
 
 	UsageAccumulator getHandleScopedAccumulator() {
 		return handleScopedAccumulator;
 	}
+
+	FeeObjectMemo getFeeMemo() {
+		return feeMemo;
+	}
 }
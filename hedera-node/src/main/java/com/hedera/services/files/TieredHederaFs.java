@@ -21,6 +21,7 @@ package com.hedera.services.files;
  */
 
 import com.hedera.services.context.properties.GlobalDynamicProperties;
+import com.hedera.services.files.store.AppendableBytesStore;
 import com.hedera.services.ledger.ids.EntityIdSource;
 import com.hedera.services.state.merkle.MerkleDiskFs;
 import com.hedera.services.utils.EntityIdUtils;
@@ -119,7 +120,7 @@ public class TieredHederaFs implements HederaFs {
 	@Override
 	public FileID create(byte[] contents, HFileMeta attr, AccountID sponsor) {
 		assertValid(attr);
-		assertWithinSizeLimits(contents);
+		assertWithinSizeLimits(contents.length);
 
 		var fid = ids.newFileId(sponsor);
 		data.put(fid, contents);
@@ -170,7 +171,7 @@ public class TieredHederaFs implements HederaFs {
 	public UpdateResult overwrite(FileID id, byte[] newContents) {
 		assertUsable(id);
 		if (!isOnDisk(id)) {
-			assertWithinSizeLimits(newContents);
+			assertWithinSizeLimits(newContents.length);
 		}
 
 		return uncheckedUpdate(id, newContents);
@@ -180,9 +181,12 @@ public class TieredHederaFs implements HederaFs {
 	public UpdateResult append(FileID id, byte[] moreContents) {
 		assertUsable(id);
 
-		byte[] contents;
-
 		boolean isDiskBased = isOnDisk(id);
+		if (interceptorsFor(id).isEmpty() && (isDiskBased || data instanceof AppendableBytesStore)) {
+			return uncheckedAppend(id, moreContents, isDiskBased);
+		}
+
+		byte[] contents;
 		if (isDiskBased) {
 			contents = diskFs.get().contentsOf(id);
 		} else {
@@ -197,12 +201,31 @@ public class TieredHederaFs implements HederaFs {
 				newContents.length);
 
 		if (!isDiskBased) {
-			assertWithinSizeLimits(newContents);
+			assertWithinSizeLimits(newContents.length);
 		}
 
 		return uncheckedUpdate(id, newContents);
 	}
 
+	/* With no interceptors to judge or react to the new contents, there is no need to materialize them */
+	@SuppressWarnings("unchecked")
+	private UpdateResult uncheckedAppend(FileID id, byte[] moreContents, boolean isDiskBased) {
+		if (isDiskBased) {
+			diskFs.get().append(id, moreContents);
+		} else {
+			var store = (AppendableBytesStore<FileID>) data;
+			int newLength = store.lengthOf(id) + moreContents.length;
+			assertWithinSizeLimits(newLength);
+			log.debug(
+					"Appending {} bytes to {} :: new file will have {} bytes.",
+					moreContents.length,
+					EntityIdUtils.readableId(id),
+					newLength);
+			store.append(id, moreContents);
+		}
+		return new SimpleUpdateResult(false, true, SUCCESS);
+	}
+
 	@Override
 	public UpdateResult delete(FileID id) {
 		assertUsable(id);
@@ -329,8 +352,8 @@ public class TieredHederaFs implements HederaFs {
 		}
 	}
 
-	private void assertWithinSizeLimits(byte[] data) {
-		if (data.length > properties.maxFileSizeKb() * BYTES_PER_KB) {
+	private void assertWithinSizeLimits(int length) {
+		if (length > properties.maxFileSizeKb() * BYTES_PER_KB) {
 			throwIllegal(OVERSIZE_CONTENTS);
 		}
 	}
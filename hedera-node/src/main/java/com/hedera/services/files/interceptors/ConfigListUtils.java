@@ -21,10 +21,13 @@ package com.hedera.services.files.interceptors;
  */
 
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.hedera.services.files.sysfiles.ParsedSysFileCache;
 import com.hederahashgraph.api.proto.java.ServicesConfigurationList;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import static com.hedera.services.files.sysfiles.ParsedSysFileCache.CONFIG_LIST_KIND;
+
 public class ConfigListUtils {
 	private static final Logger log = LogManager.getLogger(ConfigListUtils.class);
 
@@ -42,6 +45,25 @@ public class ConfigListUtils {
 		}
 	}
 
+	public static boolean isConfigList(ParsedSysFileCache parsedSysFiles, byte[] data) {
+		try {
+			parsedSysFiles.parse(CONFIG_LIST_KIND, data, ServicesConfigurationList::parseFrom);
+			return true;
+		} catch (InvalidProtocolBufferException ignore) {
+			log.warn(ignore.getMessage());
+			return false;
+		}
+	}
+
+	public static ServicesConfigurationList uncheckedParse(ParsedSysFileCache parsedSysFiles, byte[] data) {
+		try {
+			return parsedSysFiles.parse(CONFIG_LIST_KIND, data, ServicesConfigurationList::parseFrom);
+		} catch (InvalidProtocolBufferException impossible) {
+			log.warn("Impossible to get this InvalidProtocolBufferException {}", impossible.getMessage());
+			return ServicesConfigurationList.getDefaultInstance();
+		}
+	}
+
 	public static ServicesConfigurationList uncheckedParse(byte[] data) {
 		try {
 			return ServicesConfigurationList.parseFrom(data);
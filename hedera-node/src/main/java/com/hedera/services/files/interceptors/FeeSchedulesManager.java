@@ -25,6 +25,7 @@ import com.hedera.services.config.FileNumbers;
 import com.hedera.services.fees.FeeCalculator;
 import com.hedera.services.files.FileUpdateInterceptor;
 import com.hedera.services.files.HFileMeta;
+import com.hedera.services.files.sysfiles.ParsedSysFileCache;
 import com.hederahashgraph.api.proto.java.CurrentAndNextFeeSchedule;
 import com.hederahashgraph.api.proto.java.FileID;
 import com.hederahashgraph.api.proto.java.ResponseCodeEnum;
@@ -35,6 +36,7 @@ import java.util.AbstractMap;
 import java.util.Map;
 import java.util.OptionalInt;
 
+import static com.hedera.services.files.sysfiles.ParsedSysFileCache.FEE_SCHEDULES_KIND;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.FEE_SCHEDULE_FILE_PART_UPLOADED;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.SUCCESS;
 
@@ -43,6 +45,7 @@ public class FeeSchedulesManager implements FileUpdateInterceptor {
 	private static final int APPLICABLE_PRIORITY = 0;
 
 	private final FeeCalculator fees;
+	private final ParsedSysFileCache parsedSysFiles;
 	private final long fileNum;
 
 	static final Map.Entry<ResponseCodeEnum, Boolean> YES_VERDICT =
@@ -52,9 +55,11 @@ public class FeeSchedulesManager implements FileUpdateInterceptor {
 
 	public FeeSchedulesManager(
 			FileNumbers fileNums,
-			FeeCalculator fees
+			FeeCalculator fees,
+			ParsedSysFileCache parsedSysFiles
 	) {
 		this.fees = fees;
+		this.parsedSysFiles = parsedSysFiles;
 
 		fileNum = fileNums.feeSchedules();
 	}
@@ -93,7 +98,7 @@ public class FeeSchedulesManager implements FileUpdateInterceptor {
 	private boolean areValid(byte[] contents) {
 		try {
 			log.info("Trying to parse fee schedules from {} bytes...", contents.length);
-			CurrentAndNextFeeSchedule.parseFrom(contents);
+			parsedSysFiles.parse(FEE_SCHEDULES_KIND, contents, CurrentAndNextFeeSchedule::parseFrom);
 			log.info("...successful, new schedules will be applied.");
 			return true;
 		} catch (InvalidProtocolBufferException ignore) {
@@ -24,6 +24,7 @@ import com.google.protobuf.InvalidProtocolBufferException;
 import com.hedera.services.config.FileNumbers;
 import com.hedera.services.files.FileUpdateInterceptor;
 import com.hedera.services.files.HFileMeta;
+import com.hedera.services.files.sysfiles.ParsedSysFileCache;
 import com.hedera.services.sysfiles.validation.ErrorCodeUtils;
 import com.hedera.services.sysfiles.validation.ExpectedCustomThrottles;
 import com.hederahashgraph.api.proto.java.FileID;
@@ -43,6 +44,7 @@ import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+import static com.hedera.services.files.sysfiles.ParsedSysFileCache.THROTTLE_DEFS_KIND;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.INVALID_THROTTLE_DEFINITIONS;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.SUCCESS;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.SUCCESS_BUT_MISSING_EXPECTED_OPERATION;
@@ -64,6 +66,7 @@ public class ThrottleDefsManager implements FileUpdateInterceptor {
 
 	private final FileNumbers fileNums;
 	private final Supplier<AddressBook> addressBook;
+	private final ParsedSysFileCache parsedSysFiles;
 	private final Consumer<ThrottleDefinitions> postUpdateCb;
 
 	Function<ThrottleDefinitions, com.hedera.services.sysfiles.domain.throttling.ThrottleDefinitions> toPojo =
@@ -72,10 +75,12 @@ public class ThrottleDefsManager implements FileUpdateInterceptor {
 	public ThrottleDefsManager(
 			FileNumbers fileNums,
 			Supplier<AddressBook> addressBook,
+			ParsedSysFileCache parsedSysFiles,
 			Consumer<ThrottleDefinitions> postUpdateCb
 	) {
 		this.fileNums = fileNums;
 		this.addressBook = addressBook;
+		this.parsedSysFiles = parsedSysFiles;
 		this.postUpdateCb = postUpdateCb;
 	}
 
@@ -137,7 +142,7 @@ public class ThrottleDefsManager implements FileUpdateInterceptor {
 
 	private Optional<ThrottleDefinitions> uncheckedParseFrom(byte[] data) {
 		try {
-			return Optional.of(ThrottleDefinitions.parseFrom(data));
+			return Optional.of(parsedSysFiles.parse(THROTTLE_DEFS_KIND, data, ThrottleDefinitions::parseFrom));
 		} catch (InvalidProtocolBufferException ignore) {
 			return Optional.empty();
 		}
@@ -27,6 +27,7 @@ import com.hedera.services.context.TransactionContext;
 import com.hedera.services.context.properties.GlobalDynamicProperties;
 import com.hedera.services.files.FileUpdateInterceptor;
 import com.hedera.services.files.HFileMeta;
+import com.hedera.services.files.sysfiles.ParsedSysFileCache;
 import com.hedera.services.state.submerkle.ExchangeRates;
 import com.hederahashgraph.api.proto.java.ExchangeRateSet;
 import com.hederahashgraph.api.proto.java.FileID;
@@ -43,6 +44,7 @@ import java.util.function.Consumer;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
+import static com.hedera.services.files.sysfiles.ParsedSysFileCache.EXCHANGE_RATES_KIND;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.EXCHANGE_RATE_CHANGE_LIMIT_EXCEEDED;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.INVALID_EXCHANGE_RATE_FILE;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.SUCCESS;
@@ -62,6 +64,7 @@ public class TxnAwareRatesManager implements FileUpdateInterceptor {
 	private final AccountNumbers accountNums;
 	private final TransactionContext txnCtx;
 	private final GlobalDynamicProperties properties;
+	private final ParsedSysFileCache parsedSysFiles;
 	private final Supplier<ExchangeRates> midnightRates;
 	private final Consumer<ExchangeRateSet> postUpdateCb;
 	private final IntFunction<BiPredicate<ExchangeRates, ExchangeRateSet>> intradayLimitFactory;
@@ -71,11 +74,13 @@ public class TxnAwareRatesManager implements FileUpdateInterceptor {
 			AccountNumbers accountNums,
 			GlobalDynamicProperties properties,
 			TransactionContext txnCtx,
+			ParsedSysFileCache parsedSysFiles,
 			Supplier<ExchangeRates> midnightRates,
 			Consumer<ExchangeRateSet> postUpdateCb,
 			IntFunction<BiPredicate<ExchangeRates, ExchangeRateSet>> intradayLimitFactory
 	) {
 		this.txnCtx = txnCtx;
+		this.parsedSysFiles = parsedSysFiles;
 		this.fileNums = fileNums;
 		this.properties = properties;
 		this.accountNums = accountNums;
@@ -156,7 +161,7 @@ public class TxnAwareRatesManager implements FileUpdateInterceptor {
 
 	private Optional<ExchangeRateSet> uncheckedParseFrom(byte[] data) {
 		try {
-			return Optional.of(ExchangeRateSet.parseFrom(data));
+			return Optional.of(parsedSysFiles.parse(EXCHANGE_RATES_KIND, data, ExchangeRateSet::parseFrom));
 		} catch (InvalidProtocolBufferException ignore) {
 			return Optional.empty();
 		}
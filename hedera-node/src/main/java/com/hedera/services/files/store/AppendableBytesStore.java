@@ -0,0 +1,49 @@
+package com.hedera.services.files.store;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+/**
+ * A store of byte arrays that can append to an existing value, and report the length of
+ * a value, without reading or re-writing the full value.
+ *
+ * @param <K>
+ * 		the type of key in the store
+ */
+public interface AppendableBytesStore<K> {
+	/**
+	 * Appends the given bytes to the existing value for the given key.
+	 *
+	 * @param key
+	 * 		the key of the existing value
+	 * @param moreContents
+	 * 		the bytes to append
+	 */
+	void append(K key, byte[] moreContents);
+
+	/**
+	 * Returns the length of the value for the given key.
+	 *
+	 * @param key
+	 * 		the key of the value
+	 * @return the length of the value, or -1 if there is no value for the key
+	 */
+	int lengthOf(K key);
+}
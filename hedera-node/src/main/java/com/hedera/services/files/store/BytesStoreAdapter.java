@@ -20,6 +20,8 @@ package com.hedera.services.files.store;
  * ‍
  */
 
+import org.apache.commons.lang3.ArrayUtils;
+
 import java.util.AbstractMap;
 import java.util.Map;
 import java.util.Optional;
@@ -29,7 +31,7 @@ import java.util.function.Predicate;
 
 import static java.util.stream.Collectors.toSet;
 
-public class BytesStoreAdapter<K, V> extends AbstractMap<K, V> {
+public class BytesStoreAdapter<K, V> extends AbstractMap<K, V> implements AppendableBytesStore<K> {
 	private final Class<K> kType;
 	private final Function<String, K> toK;
 	private final Function<K, String> fromK;
@@ -94,6 +96,28 @@ public class BytesStoreAdapter<K, V> extends AbstractMap<K, V> {
 		delegate.clear();
 	}
 
+	@Override
+	@SuppressWarnings("unchecked")
+	public void append(K key, byte[] moreContents) {
+		var path = fromK.apply(key);
+		if (delegate instanceof AppendableBytesStore) {
+			((AppendableBytesStore<String>) delegate).append(path, moreContents);
+		} else {
+			delegate.put(path, ArrayUtils.addAll(delegate.get(path), moreContents));
+		}
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public int lengthOf(K key) {
+		var path = fromK.apply(key);
+		if (delegate instanceof AppendableBytesStore) {
+			return ((AppendableBytesStore<String>) delegate).lengthOf(path);
+		} else {
+			return Optional.ofNullable(delegate.get(path)).map(value -> value.length).orElse(-1);
+		}
+	}
+
 	@Override
 	public Set<Entry<K, V>> entrySet() {
 		return delegate.entrySet()
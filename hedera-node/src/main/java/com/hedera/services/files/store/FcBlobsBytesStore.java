@@ -34,7 +34,7 @@ import java.util.function.Supplier;
 
 import static java.util.stream.Collectors.toSet;
 
-public class FcBlobsBytesStore extends AbstractMap<String, byte[]> {
+public class FcBlobsBytesStore extends AbstractMap<String, byte[]> implements AppendableBytesStore<String> {
 	private static final Logger log = LogManager.getLogger(FcBlobsBytesStore.class);
 
 	private final Function<byte[], MerkleOptionalBlob> blobFactory;
@@ -104,6 +104,30 @@ public class FcBlobsBytesStore extends AbstractMap<String, byte[]> {
 		return null;
 	}
 
+	/**
+	 * Appends the given bytes to the blob at the given path, storing only the new bytes.
+	 *
+	 * @param path
+	 * 		the path of the blob
+	 * @param moreContents
+	 * 		the bytes to append
+	 */
+	@Override
+	public void append(String path, byte[] moreContents) {
+		var blob = pathedBlobs.get().getForModify(at(path));
+		blob.append(moreContents);
+		if (log.isDebugEnabled()) {
+			log.debug("Appending {} new bytes (hash = {}) @ '{}'", moreContents.length, blob.getHash(), path);
+		}
+	}
+
+	@Override
+	public int lengthOf(String path) {
+		return Optional.ofNullable(pathedBlobs.get().get(at(path)))
+				.map(MerkleOptionalBlob::getLength)
+				.orElse(-1);
+	}
+
 	@Override
 	public byte[] get(Object path) {
 		return Optional.ofNullable(pathedBlobs.get().get(at(path)))
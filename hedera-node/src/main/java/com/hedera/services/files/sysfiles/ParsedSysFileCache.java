@@ -0,0 +1,105 @@
+package com.hedera.services.files.sysfiles;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static com.hedera.services.legacy.proto.utils.CommonUtils.noThrowSha384HashOf;
+import static com.swirlds.common.CommonUtils.hex;
+
+/**
+ * A small LRU cache of the objects parsed from system file contents (fee schedules, exchange rates,
+ * throttle definitions, and the properties and permissions config lists), keyed by the kind of object
+ * and the SHA-384 hash of the contents it was parsed from.
+ *
+ * The same contents are typically parsed several times in a row---once to validate a {@code FileUpdate}
+ * or {@code FileAppend}, again to apply it, and again on every restart or reconnect---so this lets
+ * every parse after the first reuse the same (immutable) object. Consumers that derive expensive
+ * structures from a parsed object can then skip re-building them when handed the same instance they
+ * built from last time.
+ *
+ * Contents that fail to parse are not cached, so each attempt fails with its own exception.
+ */
+public class ParsedSysFileCache {
+	private static final Logger log = LogManager.getLogger(ParsedSysFileCache.class);
+
+	public static final String CONFIG_LIST_KIND = "config list";
+	public static final String FEE_SCHEDULES_KIND = "fee schedules";
+	public static final String EXCHANGE_RATES_KIND = "exchange rates";
+	public static final String THROTTLE_DEFS_KIND = "throttle definitions";
+
+	static final int MAX_ENTRIES = 32;
+
+	@FunctionalInterface
+	public interface Parser<T> {
+		T parseFrom(byte[] data) throws InvalidProtocolBufferException;
+	}
+
+	private final Map<String, Object> parsed = new LinkedHashMap<>(MAX_ENTRIES, 0.75f, true) {
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<String, Object> eldest) {
+			return size() > MAX_ENTRIES;
+		}
+	};
+
+	/**
+	 * Returns the object of the given kind parsed from the given contents, only invoking the
+	 * given parser if the same contents have not been parsed as this kind of object recently.
+	 *
+	 * @param kind
+	 * 		a name for the kind of object being parsed (e.g., "fee schedules")
+	 * @param contents
+	 * 		the system file contents
+	 * @param parser
+	 * 		the parser for this kind of object
+	 * @param <T>
+	 * 		the type of object being parsed
+	 * @return the parsed object
+	 * @throws InvalidProtocolBufferException
+	 * 		if the contents are not a valid serialization of this kind of object
+	 */
+	@SuppressWarnings("unchecked")
+	public synchronized <T> T parse(String kind, byte[] contents, Parser<T> parser)
+			throws InvalidProtocolBufferException {
+		final var hash = hex(noThrowSha384HashOf(contents));
+		final var key = kind + "@" + hash;
+		var object = (T) parsed.get(key);
+		if (object != null) {
+			log.debug("Reusing {} parsed from {} bytes with hash {}", kind, contents.length, hash);
+			return object;
+		}
+		final long start = System.nanoTime();
+		object = parser.parseFrom(contents);
+		parsed.put(key, object);
+		log.info("Parsed {} from {} bytes with hash {} in {}ms",
+				kind, contents.length, hash, (System.nanoTime() - start) / 1_000_000.0);
+		return object;
+	}
+
+	int size() {
+		return parsed.size();
+	}
+}
@@ -31,6 +31,10 @@ public class ThrottlesCallback {
 	private final FunctionalityThrottling hapiThrottling;
 	private final FunctionalityThrottling handleThrottling;
 
+	/* The defs converted from the last-applied proto; reused if handed the same (cached) proto again */
+	private ThrottleDefinitions lastThrottles = null;
+	private com.hedera.services.sysfiles.domain.throttling.ThrottleDefinitions lastDefs = null;
+
 	public ThrottlesCallback(
 			FeeMultiplierSource multiplierSource,
 			FunctionalityThrottling hapiThrottling,
@@ -43,7 +47,11 @@ public class ThrottlesCallback {
 
 	public Consumer<ThrottleDefinitions> throttlesCb() {
 		return throttles -> {
-			var defs = com.hedera.services.sysfiles.domain.throttling.ThrottleDefinitions.fromProto(throttles);
+			if (throttles != lastThrottles) {
+				lastDefs = com.hedera.services.sysfiles.domain.throttling.ThrottleDefinitions.fromProto(throttles);
+				lastThrottles = throttles;
+			}
+			var defs = lastDefs;
 			hapiThrottling.rebuildFor(defs);
 			handleThrottling.rebuildFor(defs);
 			multiplierSource.resetExpectations();
@@ -26,6 +26,8 @@ import com.hedera.services.ledger.PureTransferSemanticChecks;
 import com.hedera.services.state.submerkle.FcAssessedCustomFee;
 import com.hedera.services.state.submerkle.FcCustomFee;
 import com.hedera.services.store.models.Id;
+import com.hedera.services.txns.customfees.CustomFeePlan;
+import com.hedera.services.txns.customfees.CustomFeePlans;
 import com.hedera.services.txns.customfees.CustomFeeSchedules;
 import com.hederahashgraph.api.proto.java.AccountID;
 import com.hederahashgraph.api.proto.java.CryptoTransferTransactionBody;
@@ -33,16 +35,14 @@ import org.apache.commons.lang3.tuple.Pair;
 
 import java.math.BigInteger;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
+import java.util.Objects;
 
 import static com.hedera.services.ledger.BalanceChange.changingHbar;
 import static com.hedera.services.ledger.BalanceChange.changingFtUnits;
 import static com.hedera.services.ledger.BalanceChange.changingNftOwnership;
 import static com.hedera.services.ledger.BalanceChange.hbarAdjust;
 import static com.hedera.services.ledger.BalanceChange.tokenAdjust;
-import static com.hedera.services.store.models.Id.MISSING_ID;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.OK;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.CUSTOM_FEE_OUTSIDE_NUMERIC_RANGE;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.INSUFFICIENT_PAYER_BALANCE_FOR_CUSTOM_FEE;
@@ -55,6 +55,7 @@ public class ImpliedTransfersMarshal {
 	private final GlobalDynamicProperties dynamicProperties;
 	private final PureTransferSemanticChecks transferSemanticChecks;
 	private final CustomFeeSchedules customFeeSchedules;
+	private final CustomFeePlans customFeePlans = new CustomFeePlans();
 
 	public ImpliedTransfersMarshal(
 			GlobalDynamicProperties dynamicProperties,
@@ -83,12 +84,9 @@ public class ImpliedTransfersMarshal {
 		final List<BalanceChange> changes = new ArrayList<>();
 		final List<Pair<Id, List<FcCustomFee>>> tokenFeeSchedules = new ArrayList<>();
 		final List<FcAssessedCustomFee> assessedCustomFees = new ArrayList<>();
-		final Map<Pair<Id, Id>, BalanceChange> existingBalanceChanges = new HashMap<>();
 
 		for (var aa : op.getTransfers().getAccountAmountsList()) {
-			final var change = changingHbar(aa);
-			changes.add(change);
-			existingBalanceChanges.put(Pair.of(change.getAccount(), MISSING_ID), change);
+			changes.add(changingHbar(aa));
 		}
 
 		final var payerId = Id.fromGrpcAccount(payer);
@@ -97,9 +95,7 @@ public class ImpliedTransfersMarshal {
 			final var scopingToken = Id.fromGrpcToken(grpcTokenId);
 			var amount = 0L;
 			for (var aa : scopedTransfers.getTransfersList()) {
-				final var tokenChange = changingFtUnits(scopingToken, grpcTokenId, aa);
-				changes.add(tokenChange);
-				existingBalanceChanges.put(Pair.of(tokenChange.getAccount(), tokenChange.getToken()), tokenChange);
+				changes.add(changingFtUnits(scopingToken, grpcTokenId, aa));
 				if (aa.getAmount() > 0) {
 					amount += aa.getAmount();
 					if (amount < 0) {
@@ -113,15 +109,9 @@ public class ImpliedTransfersMarshal {
 
 			final var feeSchedule = customFeeSchedules.lookupScheduleFor(scopingToken.asEntityId());
 			tokenFeeSchedules.add(Pair.of(scopingToken, feeSchedule));
+			final var feePlan = customFeePlans.planFor(scopingToken, feeSchedule);
 			try {
-				final var customFeeChanges = computeBalanceChangeForCustomFee(
-						scopingToken,
-						payerId,
-						amount,
-						feeSchedule,
-						existingBalanceChanges,
-						assessedCustomFees);
-				changes.addAll(customFeeChanges);
+				assessCustomFees(feePlan, payerId, amount, changes, assessedCustomFees);
 			} catch (ArithmeticException overflow) {
 				return ImpliedTransfers.invalid(validationProps, CUSTOM_FEE_OUTSIDE_NUMERIC_RANGE);
 			}
@@ -130,76 +120,30 @@ public class ImpliedTransfersMarshal {
 	}
 
 	/**
-	 * Compute the balance changes for custom fees to be added to all balance changes in transfer list
+	 * Assesses the custom fees in the given plan against a transfer of the given total amount of the
+	 * plan's token, adding their balance changes to (or merging them into) the given list of changes.
 	 */
-	private List<BalanceChange> computeBalanceChangeForCustomFee(
-			Id scopingToken,
+	private void assessCustomFees(
+			CustomFeePlan feePlan,
 			Id payerId,
 			long totalAmount,
-			List<FcCustomFee> feeSchedule,
-			Map<Pair<Id, Id>, BalanceChange> existingBalanceChanges,
+			List<BalanceChange> changes,
 			List<FcAssessedCustomFee> assessedCustomFees
 	) {
-		List<BalanceChange> customFeeChanges = new ArrayList<>();
-		for (FcCustomFee fees : feeSchedule) {
-			if (fees.getFeeType() == FcCustomFee.FeeType.FIXED_FEE) {
-				addFixedFeeBalanceChanges(
-						fees,
-						payerId,
-						customFeeChanges,
-						existingBalanceChanges,
-						assessedCustomFees);
-			} else if (fees.getFeeType() == FcCustomFee.FeeType.FRACTIONAL_FEE) {
-				addFractionalFeeBalanceChanges(
-						fees,
-						payerId,
-						totalAmount,
-						scopingToken,
-						customFeeChanges,
-						existingBalanceChanges,
-						assessedCustomFees);
+		for (int i = 0, n = feePlan.numFees(); i < n; i++) {
+			final var fee = feePlan.fee(i);
+			final long units;
+			if (fee.isFractional()) {
+				final var nominalFee = safeFractionMultiply(fee.numerator(), fee.denominator(), totalAmount);
+				units = Math.min(Math.max(nominalFee, fee.minUnits()), fee.maxUnits());
+			} else {
+				units = fee.units();
 			}
+			final var denomination = fee.denominationId();
+			adjustOrAddChange(changes, fee.collectorId(), denomination, units, false);
+			adjustOrAddChange(changes, payerId, denomination, -units, true);
+			assessedCustomFees.add(new FcAssessedCustomFee(fee.collector(), fee.denomination(), units));
 		}
-		return customFeeChanges;
-	}
-
-	/**
-	 * Calculate fractional fee balance changes for the custom fees
-	 */
-	private void addFractionalFeeBalanceChanges(
-			FcCustomFee fees,
-			Id payerId,
-			long totalAmount,
-			Id scopingToken,
-			List<BalanceChange> customFeeChanges,
-			Map<Pair<Id, Id>, BalanceChange> existingBalanceChanges,
-			List<FcAssessedCustomFee> assessedCustomFees
-	) {
-		final var spec = fees.getFractionalFeeSpec();
-		final var nominalFee = safeFractionMultiply(spec.getNumerator(), spec.getDenominator(), totalAmount);
-		long effectiveFee = Math.max(nominalFee, spec.getMinimumAmount());
-		if (spec.getMaximumUnitsToCollect() > 0) {
-			effectiveFee = Math.min(effectiveFee, spec.getMaximumUnitsToCollect());
-		}
-
-		modifyBalanceChange(
-				Pair.of(fees.getFeeCollectorAsId(), scopingToken),
-				existingBalanceChanges,
-				customFeeChanges,
-				effectiveFee,
-				tokenAdjust(fees.getFeeCollectorAsId(), scopingToken, effectiveFee),
-				false);
-
-		modifyBalanceChange(
-				Pair.of(payerId, scopingToken),
-				existingBalanceChanges,
-				customFeeChanges,
-				-effectiveFee,
-				tokenAdjust(payerId, scopingToken, -effectiveFee),
-				true);
-
-		assessedCustomFees.add(
-				new FcAssessedCustomFee(fees.getFeeCollectorAccountId(), scopingToken.asEntityId(), effectiveFee));
 	}
 
 	long safeFractionMultiply(long n, long d, long v) {
@@ -211,110 +155,46 @@ public class ImpliedTransfersMarshal {
 	}
 
 	/**
-	 * Calculate Fixed fee balance changes for the custom fees
+	 * If there is already a change to the given account's balance of the given denomination (ℏ if
+	 * null), adjusts its units by the given amount; otherwise adds a new change. A change that debits
+	 * the payer of a custom fee reports an insufficient balance as such.
 	 */
-	private void addFixedFeeBalanceChanges(
-			FcCustomFee fees,
-			Id payerId,
-			List<BalanceChange> customFeeChanges,
-			Map<Pair<Id, Id>, BalanceChange> existingBalanceChanges,
-			List<FcAssessedCustomFee> assessedCustomFees
+	private void adjustOrAddChange(
+			List<BalanceChange> changes,
+			Id account,
+			Id denomination,
+			long units,
+			boolean isPayer
 	) {
-		final var spec = fees.getFixedFeeSpec();
-		final var unitsToCollect = spec.getUnitsToCollect();
-		if (spec.getTokenDenomination() == null) {
-			modifyBalanceChange(
-					Pair.of(fees.getFeeCollectorAsId(), MISSING_ID),
-					existingBalanceChanges,
-					customFeeChanges,
-					unitsToCollect,
-					hbarAdjust(fees.getFeeCollectorAsId(), unitsToCollect),
-					false);
-			modifyBalanceChange(
-					Pair.of(payerId, MISSING_ID),
-					existingBalanceChanges,
-					customFeeChanges,
-					-unitsToCollect,
-					hbarAdjust(payerId, -unitsToCollect),
-					true);
-			assessedCustomFees.add(
-					new FcAssessedCustomFee(fees.getFeeCollectorAccountId(), null, unitsToCollect));
+		var change = latestFungibleChange(changes, account, denomination);
+		if (change != null) {
+			change.adjustUnits(units);
 		} else {
-			modifyBalanceChange(
-					Pair.of(fees.getFeeCollectorAsId(), spec.getTokenDenomination().asId()),
-					existingBalanceChanges,
-					customFeeChanges,
-					unitsToCollect,
-					tokenAdjust(fees.getFeeCollectorAsId(), spec.getTokenDenomination().asId(), unitsToCollect),
-					false);
-			modifyBalanceChange(
-					Pair.of(payerId, spec.getTokenDenomination().asId()),
-					existingBalanceChanges,
-					customFeeChanges,
-					-unitsToCollect,
-					tokenAdjust(payerId, spec.getTokenDenomination().asId(), -unitsToCollect),
-					true);
-			assessedCustomFees.add(
-					new FcAssessedCustomFee(fees.getFeeCollectorAccountId(), spec.getTokenDenomination(),
-							unitsToCollect));
+			change = (denomination == null)
+					? hbarAdjust(account, units)
+					: tokenAdjust(account, denomination, units);
+			changes.add(change);
 		}
-	}
-
-	/**
-	 * Modify the units if the key is already present in the existing balance changes map.
-	 * If not add a new balance change to the map.
-	 */
-	private void modifyBalanceChange(
-			Pair<Id, Id> pair,
-			Map<Pair<Id, Id>, BalanceChange> existingBalanceChanges,
-			List<BalanceChange> customFeeChanges,
-			long fees,
-			BalanceChange customFee,
-			boolean isPayer
-	) {
-		final var isPresent = adjustUnitsIfKeyPresent(pair, existingBalanceChanges, fees, isPayer);
-		addBalanceChangeIfNotPresent(isPresent, customFeeChanges, existingBalanceChanges, pair, customFee, isPayer);
-	}
-
-
-	/**
-	 * Add balance change object to the existing balance changes map only if the key is not present
-	 */
-	private void addBalanceChangeIfNotPresent(
-			boolean isPresent,
-			List<BalanceChange> customFeeChanges,
-			Map<Pair<Id, Id>, BalanceChange> existingBalanceChanges,
-			Pair<Id, Id> pair,
-			BalanceChange customFee,
-			boolean isPayer
-	) {
-		if (!isPresent) {
-			if (isPayer) {
-				customFee.setCodeForInsufficientBalance(INSUFFICIENT_PAYER_BALANCE_FOR_CUSTOM_FEE);
-			}
-			customFeeChanges.add(customFee);
-			existingBalanceChanges.put(pair, customFee);
+		if (isPayer) {
+			change.setCodeForInsufficientBalance(INSUFFICIENT_PAYER_BALANCE_FOR_CUSTOM_FEE);
 		}
 	}
 
 	/**
-	 * If the key is already present in existing balance chance changes map , modify the units of balance change
-	 * by adding the new fees
+	 * Finds the most recent ℏ or fungible token change to the given account's balance of the given
+	 * denomination. Transfer lists are short enough (they are bounded by the {@code ledger.transfers.maxLen}
+	 * and {@code ledger.tokenTransfers.maxLen} properties) that a reverse scan is cheaper than keeping
+	 * a hashed index of all the changes.
 	 */
-	private boolean adjustUnitsIfKeyPresent(
-			Pair<Id, Id> key,
-			Map<Pair<Id, Id>, BalanceChange> existingBalanceChanges,
-			long fees,
-			boolean isPayer
-	) {
-		if (existingBalanceChanges.containsKey(key)) {
-			final var balChange = existingBalanceChanges.get(key);
-			balChange.adjustUnits(fees);
-			if (isPayer) {
-				balChange.setCodeForInsufficientBalance(INSUFFICIENT_PAYER_BALANCE_FOR_CUSTOM_FEE);
+	private BalanceChange latestFungibleChange(List<BalanceChange> changes, Id account, Id denomination) {
+		for (int i = changes.size() - 1; i >= 0; i--) {
+			final var change = changes.get(i);
+			if (!change.isForNft()
+					&& Objects.equals(denomination, change.getToken())
+					&& account.equals(change.getAccount())) {
+				return change;
 			}
-			return true;
 		}
-		return false;
+		return null;
 	}
 }
@@ -30,6 +30,7 @@ import org.apache.logging.log4j.Logger;
 
 import java.util.ArrayList;
 import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -37,6 +38,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
@@ -77,6 +79,7 @@ public class TransactionalLedger<K, P extends Enum<P> & BeanProperty<A>, A> impl
 
 	private boolean isInTransaction = false;
 	private Optional<Function<K, String>> keyToString = Optional.empty();
+	private Optional<BiConsumer<K, Set<P>>> commitListener = Optional.empty();
 
 	public TransactionalLedger(
 			Class<P> propertyType,
@@ -95,6 +98,17 @@ public class TransactionalLedger<K, P extends Enum<P> & BeanProperty<A>, A> impl
 		this.keyToString = Optional.of(keyToString);
 	}
 
+	/**
+	 * Registers a listener to be given, on each commit, the id of every entity changed, created, or
+	 * destroyed by the committed transaction, along with the properties that changed. (A destroyed
+	 * entity is reported with all properties changed.)
+	 *
+	 * @param commitListener the listener to notify on commit
+	 */
+	public void setCommitListener(BiConsumer<K, Set<P>> commitListener) {
+		this.commitListener = Optional.of(commitListener);
+	}
+
 	void begin() {
 		if (isInTransaction) {
 			throw new IllegalStateException("A transaction is already active!");
@@ -122,6 +136,7 @@ public class TransactionalLedger<K, P extends Enum<P> & BeanProperty<A>, A> impl
 		}
 
 		try {
+			commitListener.ifPresent(this::notifyOfCommit);
 			flushListed(changedKeys);
 			flushListed(createdKeys);
 			changes.clear();
@@ -256,6 +271,23 @@ public class TransactionalLedger<K, P extends Enum<P> & BeanProperty<A>, A> impl
 		return changes;
 	}
 
+	private void notifyOfCommit(BiConsumer<K, Set<P>> listener) {
+		for (var key : changedKeys) {
+			if (!deadEntities.contains(key)) {
+				listener.accept(key, changes.get(key).keySet());
+			}
+		}
+		for (var key : createdKeys) {
+			if (!deadEntities.contains(key)) {
+				listener.accept(key, changes.get(key).keySet());
+			}
+		}
+		if (!perishedKeys.isEmpty()) {
+			final var allProperties = EnumSet.allOf(propertyType);
+			perishedKeys.forEach(key -> listener.accept(key, allProperties));
+		}
+	}
+
 	private void flushListed(List<K> l) {
 		if (!l.isEmpty()) {
 			for (var key : l) {
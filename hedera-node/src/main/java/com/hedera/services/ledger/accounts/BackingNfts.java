@@ -27,6 +27,7 @@ import com.swirlds.fcmap.FCMap;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -91,6 +92,10 @@ public class BackingNfts implements BackingStore<NftId, MerkleUniqueToken> {
 		existing.add(nftId);
 	}
 
+	public void addAllToExistingNfts(Collection<NftId> nftIds) {
+		existing.addAll(nftIds);
+	}
+
 	public void removeFromExistingNfts(NftId nftId) {
 		existing.remove(nftId);
 	}
@@ -22,6 +22,8 @@ package com.hedera.services.legacy.evm;
 
 import com.hedera.services.context.TransactionContext;
 import com.hedera.services.context.properties.GlobalDynamicProperties;
+import com.hedera.services.contracts.execution.BytecodeAnalysisCache;
+import com.hedera.services.contracts.execution.EvmProfiler;
 import com.hedera.services.contracts.execution.SoliditySigsVerifier;
 import com.hedera.services.state.submerkle.SequenceNumber;
 import com.hedera.services.utils.EntityIdUtils;
@@ -112,6 +114,7 @@ public class SolidityExecutor {
 	private final boolean localCall;
 	private final Transaction solidityTxn;
 	private final CommonConfig commonConfig;
+	private final VMHook vmHook;
 	private final SequenceNumber seqNo;
 	private final TransactionBody txn;
 	private final SystemProperties config;
@@ -163,7 +166,9 @@ public class SolidityExecutor {
 			TransactionContext txnCtx,
 			boolean localCall,
 			SoliditySigsVerifier sigsVerifier,
-			GlobalDynamicProperties dynamicProperties
+			GlobalDynamicProperties dynamicProperties,
+			BytecodeAnalysisCache analysisCache,
+			EvmProfiler profiler
 	) {
 		this.txn = txn;
 		this.rbh = rbh;
@@ -187,7 +192,8 @@ public class SolidityExecutor {
 				.map(CommonUtils::unhex)
 				.orElse(EMPTY_BYTE_ARRAY);
 
-		commonConfig = CommonConfig.getDefault();
+		commonConfig = analysisCache.commonConfig();
+		vmHook = profiler.newHook();
 		config = commonConfig.systemProperties();
 		blockchainConfig = config.getBlockchainConfig().getConfigForBlock(block.getNumber());
 	}
@@ -271,14 +277,15 @@ public class SolidityExecutor {
 				var programInvoke = programInvokeFactory.createProgramInvoke(
 						solidityTxn, block, trackingRepository, repository, NULL_BLOCK_STORE);
 				((ProgramInvokeImpl) programInvoke).setStaticCall(localCall);
-				this.vm = new VM(config, VMHook.EMPTY);
+				this.vm = new VM(config, vmHook);
+				/* Key the shared analysis cache by address; the repository's code hash is not unique per contract */
 				this.program = new Program(
-						repository.getCodeHash(targetAddress),
+						targetAddress,
 						code,
 						programInvoke,
 						solidityTxn,
 						config,
-						VMHook.EMPTY,
+						vmHook,
 						contractCreateAdaptor,
 						fundingAddress,
 						rbh,
@@ -334,14 +341,14 @@ public class SolidityExecutor {
 			ProgramInvoke programInvoke = programInvokeFactory.createProgramInvoke(
 					solidityTxn, block, trackingRepository, repository, NULL_BLOCK_STORE);
 			((ProgramInvokeImpl) programInvoke).setStaticCall(localCall);
-			this.vm = new VM(config, VMHook.EMPTY);
+			this.vm = new VM(config, vmHook);
 			this.program = new Program(
 					null,
 					solidityTxn.getData(),
 					programInvoke,
 					solidityTxn,
 					config,
-					VMHook.EMPTY,
+					vmHook,
 					contractCreateAdaptor,
 					fundingAddress,
 					rbh,
@@ -24,6 +24,8 @@ import com.google.protobuf.ByteString;
 import com.google.protobuf.TextFormat;
 import com.hedera.services.context.TransactionContext;
 import com.hedera.services.context.properties.GlobalDynamicProperties;
+import com.hedera.services.contracts.execution.BytecodeAnalysisCache;
+import com.hedera.services.contracts.execution.EvmProfiler;
 import com.hedera.services.contracts.execution.SolidityLifecycle;
 import com.hedera.services.contracts.execution.SoliditySigsVerifier;
 import com.hedera.services.fees.HbarCentExchange;
@@ -80,6 +82,7 @@ import java.util.function.Supplier;
 import static com.hedera.services.contracts.execution.DomainUtils.fakeBlock;
 import static com.hedera.services.legacy.core.jproto.JKey.convertKey;
 import static com.hedera.services.utils.EntityIdUtils.asAccount;
+import static com.hedera.services.utils.EntityIdUtils.asSolidityAddress;
 import static com.hedera.services.utils.EntityIdUtils.asSolidityAddressHex;
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.ContractCall;
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.ContractCreate;
@@ -118,6 +121,8 @@ public class SmartContractRequestHandler {
 	private SolidityLifecycle lifecycle;
 	private SoliditySigsVerifier sigsVerifier;
 	private GlobalDynamicProperties dynamicProperties;
+	private BytecodeAnalysisCache analysisCache;
+	private EvmProfiler profiler;
 
 	public SmartContractRequestHandler(
 			ServicesRepositoryRoot repository,
@@ -130,7 +135,9 @@ public class SmartContractRequestHandler {
 			SolidityLifecycle lifecycle,
 			SoliditySigsVerifier sigsVerifier,
 			Map<EntityId, Long> entityExpiries,
-			GlobalDynamicProperties dynamicProperties
+			GlobalDynamicProperties dynamicProperties,
+			BytecodeAnalysisCache analysisCache,
+			EvmProfiler profiler
 	) {
 		this.repository = repository;
 		this.newPureRepo = newPureRepo;
@@ -143,6 +150,8 @@ public class SmartContractRequestHandler {
 		this.sigsVerifier = sigsVerifier;
 		this.entityExpiries = entityExpiries;
 		this.dynamicProperties = dynamicProperties;
+		this.analysisCache = analysisCache;
+		this.profiler = profiler;
 	}
 
 	/**
@@ -306,7 +315,9 @@ public class SmartContractRequestHandler {
 				txnCtx,
 		true,
 				sigsVerifier,
-				dynamicProperties);
+				dynamicProperties,
+				analysisCache,
+				profiler);
 
 		var result = lifecycle.runPure(maxResultSize, executor);
 
@@ -342,7 +353,9 @@ public class SmartContractRequestHandler {
 				txnCtx,
 				false,
 				sigsVerifier,
-				dynamicProperties);
+				dynamicProperties,
+				analysisCache,
+				profiler);
 		var result = lifecycle.run(executor, repository);
 
 		var receiptBuilder = RequestBuilder.getTransactionReceipt(
@@ -604,6 +617,7 @@ public class SmartContractRequestHandler {
 				entityExpiries.put(entity, oldExpiry);
 				HederaAccountCustomizer customizer = new HederaAccountCustomizer().expiry(newExpiry);
 				ledger.customizeDeleted(id, customizer);
+				analysisCache.invalidate(asSolidityAddress(cid));
 			}
 		} catch (Exception e) {
 			log.warn("Unhandled exception in SystemDelete", e);
@@ -706,6 +720,7 @@ public class SmartContractRequestHandler {
 			if (validity == SUCCESS) {
 				AccountID id = asAccount(cid);
 				ledger.delete(id, beneficiary);
+				analysisCache.invalidate(asSolidityAddress(cid));
 			}
 			transactionReceipt = getTransactionReceipt(validity, exchange.activeRates());
 		} else {
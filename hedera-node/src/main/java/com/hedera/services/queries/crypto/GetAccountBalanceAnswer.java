@@ -40,7 +40,8 @@ import com.swirlds.fcmap.FCMap;
 
 import java.util.Optional;
 
-import static com.hedera.services.state.merkle.MerkleEntityAssociation.fromAccountTokenRel;
+import static com.hedera.services.state.merkle.MerkleEntityAssociation.fromAccountCodeTokenRel;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.codeFromIds;
 import static com.hedera.services.utils.EntityIdUtils.asAccount;
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.CryptoGetAccountBalance;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.INVALID_ACCOUNT_ID;
@@ -84,8 +85,9 @@ public class GetAccountBalanceAnswer implements AnswerService {
 			var key = MerkleEntityId.fromAccountId(id);
 			var account = accounts.get(key);
 			opAnswer.setBalance(account.getBalance());
+			final var accountCode = codeFromIds(id.getShardNum(), id.getRealmNum(), id.getAccountNum());
 			for (TokenID tId : account.tokens().asTokenIds()) {
-				var relKey = fromAccountTokenRel(id, tId);
+				var relKey = fromAccountCodeTokenRel(accountCode, tId);
 				var relationship = view.tokenAssociations().get().get(relKey);
 				var decimals = view.tokenWith(tId).map(MerkleToken::decimals).orElse(0);
 				opAnswer.addTokenBalances(TokenBalance.newBuilder()
@@ -0,0 +1,173 @@
+package com.hedera.services.state.blobs;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.context.properties.BootstrapProperties;
+import com.hedera.services.context.properties.NodeLocalProperties;
+import com.swirlds.blob.BinaryObject;
+import com.swirlds.blob.BinaryObjectStore;
+import com.swirlds.blob.internal.db.DbManager;
+import com.swirlds.common.crypto.Hash;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Chooses, once per JVM, where the contents of {@link com.hedera.services.state.merkle.MerkleOptionalBlob}s
+ * are stored: in the platform's database-backed {@link BinaryObjectStore}, or (if the node-local property
+ * {@code blobs.localStore.isEnabled} is set) in a {@link LocalBinaryObjectStore} under the directory given
+ * by {@code blobs.localStore.path}. A local store imports any blob referenced from a saved state that it
+ * does not have from the database-backed store, so it can be enabled on a node whose state was saved
+ * with the database-backed store.
+ *
+ * The choice is made from the bootstrap properties the first time a blob is created, because the
+ * blobs in a saved state are deserialized before any {@link com.hedera.services.context.ServicesContext}
+ * exists. (For the same reason, a local store is shared by all the nodes running in one JVM.)
+ */
+public final class BlobBackend {
+	private static final Logger log = LogManager.getLogger(BlobBackend.class);
+
+	static Supplier<NodeLocalProperties> propertiesSupplier =
+			() -> new NodeLocalProperties(new BootstrapProperties());
+
+	private static volatile BinaryObjectStore store = null;
+
+	private BlobBackend() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Returns the configured blob store, opening it if this is the first use.
+	 *
+	 * @return the blob store
+	 */
+	public static BinaryObjectStore store() {
+		var current = store;
+		if (current == null) {
+			synchronized (BlobBackend.class) {
+				current = store;
+				if (current == null) {
+					store = current = configuredStore(propertiesSupplier.get());
+				}
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Returns a new, empty blob for the configured store to be deserialized into.
+	 *
+	 * @return the new blob
+	 */
+	public static BinaryObject newBlob() {
+		final var current = store();
+		return (current instanceof LocalBinaryObjectStore)
+				? new LocalBinaryObject((LocalBinaryObjectStore) current)
+				: new BinaryObject();
+	}
+
+	/**
+	 * If the configured store is a {@link LocalBinaryObjectStore} that is still re-building its
+	 * reference counts from a saved state, finishes that recovery and starts its compaction. (The
+	 * platform does this itself for the database-backed store.)
+	 */
+	public static void finishLocalRecoveryIfNeeded() {
+		final var current = store();
+		if (current instanceof LocalBinaryObjectStore && current.isInitializing()) {
+			current.recover();
+			current.stopInit();
+			((LocalBinaryObjectStore) current).startCompaction(
+					propertiesSupplier.get().localBlobStoreCompactionIntervalSecs());
+		}
+	}
+
+	/**
+	 * If the configured store is a {@link LocalBinaryObjectStore}, makes sure the given blob, which is
+	 * being written to a saved state, is on disk and survives until the saved state is snapshot. (The
+	 * database-backed store is instead backed up by the platform with each saved state.)
+	 *
+	 * @param blob
+	 * 		the blob being written to a saved state
+	 */
+	public static void prepareForSave(BinaryObject blob) {
+		final var current = store();
+		if (current instanceof LocalBinaryObjectStore) {
+			((LocalBinaryObjectStore) current).prepareForSave(blob);
+		}
+	}
+
+	/**
+	 * If the configured store is a {@link LocalBinaryObjectStore}, snapshots its segments for the
+	 * saved state just written for the given round.
+	 *
+	 * @param round
+	 * 		the round of the saved state
+	 * @param savedStateDir
+	 * 		the directory the saved state was written to
+	 */
+	public static void snapshotLocalStoreIfNeeded(long round, Path savedStateDir) {
+		final var current = store();
+		if (current instanceof LocalBinaryObjectStore) {
+			((LocalBinaryObjectStore) current).snapshot(round, savedStateDir);
+		}
+	}
+
+	static BinaryObjectStore configuredStore(NodeLocalProperties properties) {
+		if (properties.isLocalBlobStoreEnabled()) {
+			final var dir = Paths.get(properties.localBlobStorePath());
+			log.info("Using local blob store in {}", dir.toAbsolutePath());
+			return LocalBinaryObjectStore.open(dir, BlobBackend::databaseContentsOf);
+		}
+		return BinaryObjectStore.getInstance();
+	}
+
+	/**
+	 * Reads the contents of the blob with the given hash from the database-backed store, without
+	 * changing its reference count there.
+	 *
+	 * @param hash
+	 * 		the hash of the blob
+	 * @return its contents, or null if the database has no blob with that hash
+	 * @throws IllegalStateException
+	 * 		if the database cannot be read
+	 */
+	static byte[] databaseContentsOf(Hash hash) {
+		try (var pipeline = DbManager.getInstance().blob()) {
+			pipeline.withTransaction();
+			final var id = new AtomicLong();
+			final var contents = pipeline.exists(hash, id) ? pipeline.get(id.get()) : null;
+			pipeline.commit();
+			return contents;
+		} catch (SQLException e) {
+			throw new IllegalStateException("Unable to read blob with hash " + hash + " from the database", e);
+		}
+	}
+
+	/* --- Only used by unit tests --- */
+	static void setStore(BinaryObjectStore store) {
+		BlobBackend.store = store;
+	}
+}
@@ -0,0 +1,111 @@
+package com.hedera.services.state.blobs;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.swirlds.blob.BinaryObject;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.io.SerializableDataInputStream;
+import com.swirlds.common.io.SerializableDataOutputStream;
+
+import java.io.IOException;
+import java.util.Objects;
+
+/**
+ * A {@link BinaryObject} whose contents live in a {@link LocalBinaryObjectStore}, rather than
+ * in the platform's database-backed store.
+ *
+ * The serialized form is the same as for a {@link BinaryObject}; so a saved state or reconnect
+ * stream written with one backend can be read with the other.
+ */
+public class LocalBinaryObject extends BinaryObject {
+	private final LocalBinaryObjectStore store;
+
+	private Hash hash;
+
+	public LocalBinaryObject(LocalBinaryObjectStore store) {
+		this.store = store;
+	}
+
+	public LocalBinaryObject(LocalBinaryObjectStore store, Hash hash) {
+		this.store = store;
+		this.hash = hash;
+	}
+
+	@Override
+	public Hash getHash() {
+		return hash;
+	}
+
+	@Override
+	public synchronized LocalBinaryObject copy() {
+		final var copy = new LocalBinaryObject(store, hash);
+		store.increaseReferenceCount(copy);
+		setImmutable(true);
+		return copy;
+	}
+
+	@Override
+	protected void onRelease() {
+		store.delete(this);
+	}
+
+	@Override
+	public void serialize(SerializableDataOutputStream out) throws IOException {
+		final var data = store.get(this);
+		out.writeInt(data.length);
+		out.write(data);
+	}
+
+	@Override
+	public void deserialize(SerializableDataInputStream in, int version) throws IOException {
+		final var data = new byte[in.readInt()];
+		in.readFully(data);
+		hash = store.put(data).getHash();
+	}
+
+	@Override
+	public void deserializeAbbreviated(SerializableDataInputStream in, Hash hash, int version) {
+		this.hash = hash;
+		store.registerForRecovery(this);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || LocalBinaryObject.class != o.getClass()) {
+			return false;
+		}
+		var that = (LocalBinaryObject) o;
+		return Objects.equals(this.hash, that.hash);
+	}
+
+	@Override
+	public int hashCode() {
+		return Objects.hashCode(hash);
+	}
+
+	@Override
+	public String toString() {
+		return String.valueOf(hash);
+	}
+}
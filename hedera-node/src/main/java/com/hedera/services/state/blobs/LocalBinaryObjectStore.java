@@ -0,0 +1,846 @@
+package com.hedera.services.state.blobs;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.swirlds.blob.BinaryObject;
+import com.swirlds.blob.BinaryObjectNotFoundException;
+import com.swirlds.blob.BinaryObjectStore;
+import com.swirlds.common.crypto.Hash;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static com.hedera.services.legacy.proto.utils.CommonUtils.noThrowSha384HashOf;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * A {@link BinaryObjectStore} that keeps blobs in append-only segment files in a local directory,
+ * instead of in PostgreSQL.
+ *
+ * Each blob is stored once per distinct contents, as a record of its SHA-384 hash, its length, and
+ * its bytes; and an in-memory index maps each hash to the location of its record. Records are only
+ * ever appended to the active segment, which is sealed once it reaches its maximum size; and blobs
+ * are read through a read-only memory mapping of their segment. The index is re-built by scanning
+ * the segments when the store is opened, so it needs no separate persistence. The scan re-hashes the
+ * contents of every record, and skips any record whose contents do not match its hash (as after a crash
+ * that left a header on disk, but not all of its data); a partially written or corrupt record at the end
+ * of a segment is truncated.
+ *
+ * Reference counts are kept in memory only, and only count the references from states in memory.
+ * After a restart they are re-built from the blobs in the saved state, which register themselves for
+ * recovery as they are deserialized; a record whose hash is not referenced once recovery is finished
+ * is garbage. (Until then, the store reports that it is still initializing.) A background thread
+ * periodically re-writes the live records of any sealed segment with less than
+ * {@link LocalBinaryObjectStore#MIN_LIVE_FRACTION} live bytes into the active segment and deletes it,
+ * and forces the active segment to disk.
+ *
+ * Since compaction can drop records that a saved state on disk still references, the store keeps
+ * (the way the platform backs up its database with each saved state) a snapshot of hard links to its
+ * segments for each saved state; see {@link LocalBinaryObjectStore#snapshot(long, Path)}. Recovery
+ * restores any referenced records that are missing from the segments from these snapshots; and then
+ * imports any still missing from the given legacy {@link BlobSource} (in production, the database-backed
+ * store that held every blob before the local store was enabled). If a blob referenced from state is still
+ * missing after that, recovery fails.
+ *
+ * Reads do not lock the store. Since blob contents are addressed by their hash, a record that becomes
+ * garbage can be revived by putting the same contents again before it is compacted away; and a record
+ * can always be read as long as its bytes are still on disk. So unlike with the database-backed store,
+ * there is no window in which a blob that is referenced from state can be transiently missing.
+ */
+public class LocalBinaryObjectStore extends BinaryObjectStore {
+	private static final Logger log = LogManager.getLogger(LocalBinaryObjectStore.class);
+
+	static final int HASH_BYTES = 48;
+	static final int HEADER_BYTES = HASH_BYTES + Integer.BYTES;
+	static final long DEFAULT_MAX_SEGMENT_BYTES = 64L * 1024 * 1024;
+	static final double MIN_LIVE_FRACTION = 0.5;
+	static final String SEGMENT_PREFIX = "blobs-";
+	static final String SEGMENT_SUFFIX = ".seg";
+	static final String SNAPSHOTS_DIR = "snapshots";
+	static final BlobSource NO_LEGACY_SOURCE = hash -> null;
+
+	private final Path dir;
+	private final long maxSegmentBytes;
+	private final BlobSource legacySource;
+
+	private final Map<Hash, Location> index = new ConcurrentHashMap<>();
+	private final Map<Hash, Long> refCounts = new HashMap<>();
+	private final TreeMap<Integer, Segment> segments = new TreeMap<>();
+	/* Segments with records being written to a saved state, which must outlive its next snapshot */
+	private final Set<Segment> pinned = new HashSet<>();
+	/* Pinned segments that were compacted, and are only deleted after the next snapshot */
+	private final List<Segment> retired = new ArrayList<>();
+
+	private Segment active;
+	private boolean initializing = true;
+	private ScheduledExecutorService compactor = null;
+
+	LocalBinaryObjectStore(Path dir, long maxSegmentBytes, BlobSource legacySource) {
+		this.dir = dir;
+		this.maxSegmentBytes = maxSegmentBytes;
+		this.legacySource = legacySource;
+	}
+
+	/**
+	 * Opens a store over the segment files in the given directory (creating it if necessary),
+	 * re-building the index of the records they contain.
+	 *
+	 * @param dir
+	 * 		the directory for the segment files
+	 * @param legacySource
+	 * 		where to import blobs from that are referenced from state, but not in the directory
+	 * @return the opened store, initializing until {@link LocalBinaryObjectStore#stopInit()} is called
+	 * @throws UncheckedIOException
+	 * 		if the directory or its segments cannot be read
+	 */
+	public static LocalBinaryObjectStore open(Path dir, BlobSource legacySource) {
+		return open(dir, DEFAULT_MAX_SEGMENT_BYTES, legacySource);
+	}
+
+	static LocalBinaryObjectStore open(Path dir, long maxSegmentBytes) {
+		return open(dir, maxSegmentBytes, NO_LEGACY_SOURCE);
+	}
+
+	static LocalBinaryObjectStore open(Path dir, long maxSegmentBytes, BlobSource legacySource) {
+		final var store = new LocalBinaryObjectStore(dir, maxSegmentBytes, legacySource);
+		store.load();
+		return store;
+	}
+
+	/**
+	 * Starts a daemon thread that compacts sealed segments with mostly garbage, and forces
+	 * the active segment to disk, at the given interval.
+	 *
+	 * @param intervalSecs
+	 * 		the seconds between compactions
+	 */
+	public synchronized void startCompaction(long intervalSecs) {
+		if (compactor != null) {
+			return;
+		}
+		compactor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			final var thread = new Thread(runnable, "blobCompactor");
+			thread.setDaemon(true);
+			return thread;
+		});
+		compactor.scheduleWithFixedDelay(this::compactAndSync, intervalSecs, intervalSecs, TimeUnit.SECONDS);
+	}
+
+	/* --- BinaryObjectStore --- */
+	@Override
+	public synchronized void registerForRecovery(BinaryObject blob) {
+		increment(blob.getHash());
+	}
+
+	@Override
+	public synchronized void startInit() {
+		refCounts.clear();
+		for (var segment : segments.values()) {
+			segment.liveBytes = 0;
+		}
+		initializing = true;
+	}
+
+	@Override
+	public synchronized void stopInit() {
+		initializing = false;
+	}
+
+	@Override
+	public synchronized boolean isInitializing() {
+		return initializing;
+	}
+
+	/**
+	 * Finishes re-building the reference counts from the blobs in a saved state, restoring any referenced
+	 * records that are missing from the segments from the snapshots, or else importing them from the legacy
+	 * source.
+	 *
+	 * @throws IllegalStateException
+	 * 		if any blob referenced from state is missing from the segments, the snapshots, and the legacy source
+	 */
+	@Override
+	public synchronized void recover() {
+		final Set<Hash> missing = new HashSet<>();
+		for (var hash : refCounts.keySet()) {
+			if (!index.containsKey(hash)) {
+				missing.add(hash);
+			}
+		}
+		final int numRestored = missing.isEmpty() ? 0 : restoreFromSnapshots(missing);
+		final int numImported = missing.isEmpty() ? 0 : importFromLegacySource(missing);
+		if (!missing.isEmpty()) {
+			for (var hash : missing) {
+				log.error("Blob with hash {} is referenced from state, but missing from {}!", hash, dir);
+			}
+			throw new IllegalStateException(
+					missing.size() + " blobs referenced from state are missing from " + dir
+							+ ", its snapshots, and the legacy blob store");
+		}
+		log.info("Recovered {} referenced blobs ({} restored from snapshots, {} imported) from {} indexed in {} segments",
+				refCounts.size(), numRestored, numImported, index.size(), segments.size());
+	}
+
+	@Override
+	public byte[] get(BinaryObject blob) {
+		final var hash = blob.getHash();
+		while (true) {
+			final var location = index.get(hash);
+			if (location == null) {
+				throw new BinaryObjectNotFoundException("No blob with hash " + hash + " in " + dir);
+			}
+			final var data = location.segment.read(location.offset, location.length);
+			if (data != null) {
+				return data;
+			}
+			/* The segment was compacted away since the lookup, after its live records were re-indexed */
+		}
+	}
+
+	@Override
+	public synchronized LocalBinaryObject put(byte[] data) {
+		final var hash = new Hash(noThrowSha384HashOf(data));
+		if (!index.containsKey(hash)) {
+			index.put(hash, appendRecord(hash, data));
+		}
+		increment(hash);
+		return new LocalBinaryObject(this, hash);
+	}
+
+	@Override
+	public synchronized LocalBinaryObject append(BinaryObject blob, byte[] moreData) {
+		final var data = get(blob);
+		final var newData = new byte[data.length + moreData.length];
+		System.arraycopy(data, 0, newData, 0, data.length);
+		System.arraycopy(moreData, 0, newData, data.length, moreData.length);
+		return update(blob, newData);
+	}
+
+	@Override
+	public synchronized LocalBinaryObject update(BinaryObject blob, byte[] newData) {
+		final var newBlob = put(newData);
+		delete(blob);
+		return newBlob;
+	}
+
+	@Override
+	public synchronized long retrieveNumberOfBinaryObjects() {
+		return refCounts.size();
+	}
+
+	@Override
+	public synchronized void increaseReferenceCount(BinaryObject blob) {
+		increment(blob.getHash());
+	}
+
+	@Override
+	public synchronized void delete(BinaryObject blob) {
+		final var hash = blob.getHash();
+		final var refCount = refCounts.get(hash);
+		if (refCount == null) {
+			log.warn("Blob with hash {} was deleted more times than it was referenced!", hash);
+			return;
+		}
+		if (refCount > 1) {
+			refCounts.put(hash, refCount - 1);
+		} else {
+			refCounts.remove(hash);
+			final var location = index.get(hash);
+			if (location != null) {
+				location.segment.liveBytes -= location.recordBytes();
+			}
+		}
+	}
+
+	/**
+	 * Forces the record of a blob that is being written to a saved state to disk, and keeps the
+	 * segment it is in from being deleted before the next {@link LocalBinaryObjectStore#snapshot(long, Path)}
+	 * (which should be of the saved state being written).
+	 *
+	 * @param blob
+	 * 		the blob being written to a saved state
+	 */
+	public synchronized void prepareForSave(BinaryObject blob) {
+		final var location = index.get(blob.getHash());
+		if (location == null) {
+			return;
+		}
+		final var segment = location.segment;
+		if (segment.syncedSize < location.offset + location.length) {
+			segment.force();
+		}
+		pinned.add(segment);
+	}
+
+	/**
+	 * Hard-links all the segments into a snapshot for the saved state of the given round, so the records
+	 * it references survive compaction for as long as it is kept. Then deletes the snapshots of any rounds
+	 * older than the oldest saved state still in the directory that contains the given saved state.
+	 *
+	 * @param round
+	 * 		the round of the saved state
+	 * @param savedStateDir
+	 * 		the directory the saved state was written to
+	 */
+	public synchronized void snapshot(long round, Path savedStateDir) {
+		final long start = System.nanoTime();
+		final var snapshotDir = snapshotsDir().resolve(Long.toString(round));
+		try {
+			sync();
+			Files.createDirectories(snapshotDir);
+			for (var segment : segments.values()) {
+				link(segment, snapshotDir);
+			}
+			for (var segment : retired) {
+				link(segment, snapshotDir);
+			}
+		} catch (IOException | UncheckedIOException e) {
+			log.error("Unable to snapshot blob segments for round {} in {}", round, snapshotDir, e);
+			return;
+		}
+		retired.forEach(Segment::delete);
+		retired.clear();
+		pinned.clear();
+		pruneSnapshotsOlderThan(oldestSavedRound(savedStateDir.getParent()));
+		log.info("Snapshot blob segments for round {} in {}ms", round, (System.nanoTime() - start) / 1_000_000L);
+	}
+
+	/* --- Internal helpers --- */
+	private void increment(Hash hash) {
+		final var refCount = refCounts.merge(hash, 1L, Long::sum);
+		if (refCount == 1L) {
+			final var location = index.get(hash);
+			if (location != null) {
+				location.segment.liveBytes += location.recordBytes();
+			}
+		}
+	}
+
+	private Location appendRecord(Hash hash, byte[] data) {
+		if (active == null || active.size >= maxSegmentBytes) {
+			rollSegment();
+		}
+		final var record = ByteBuffer.allocate(HEADER_BYTES + data.length);
+		record.put(hash.getValue()).putInt(data.length).put(data).flip();
+		final long offset = active.size;
+		try {
+			while (record.hasRemaining()) {
+				active.channel.write(record, offset + record.position());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		active.size = offset + record.capacity();
+		return new Location(active, offset + HEADER_BYTES, data.length);
+	}
+
+	private void rollSegment() {
+		if (active != null) {
+			/* Only the active segment can have records that are not yet on disk */
+			active.force();
+		}
+		final int id = segments.isEmpty() ? 0 : segments.lastKey() + 1;
+		active = new Segment(id, dir.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, id, SEGMENT_SUFFIX)));
+		segments.put(id, active);
+	}
+
+	private void load() {
+		final long start = System.nanoTime();
+		final List<Path> paths = new ArrayList<>();
+		try {
+			Files.createDirectories(dir);
+			try (var listing = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+				listing.forEach(paths::add);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		for (var path : paths) {
+			final var name = path.getFileName().toString();
+			final int id = Integer.parseInt(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+			segments.put(id, new Segment(id, path));
+		}
+		/* Scan in order, so a record re-written by a compaction shadows its original */
+		for (var segment : segments.values()) {
+			scan(segment);
+		}
+		if (!segments.isEmpty()) {
+			active = segments.lastEntry().getValue();
+		}
+		log.info("Indexed {} blobs in {} segments under {} in {}ms",
+				index.size(), segments.size(), dir, (System.nanoTime() - start) / 1_000_000L);
+	}
+
+	private void scan(Segment segment) {
+		final long end = forEachRecord(segment, (hash, location) -> index.put(hash, location));
+		if (end < segment.size) {
+			log.warn("Truncating partial or corrupt records from offset {} of {} ({} bytes)",
+					end, segment.path, segment.size);
+			segment.truncate(end);
+		}
+	}
+
+	/* Visits each complete record whose contents match its hash, skipping any that do not; and returns
+	the offset just past the last record visited */
+	private static long forEachRecord(Segment segment, RecordVisitor visitor) {
+		long offset = 0;
+		long end = 0;
+		final var digest = sha384();
+		final var hashBytes = new byte[HASH_BYTES];
+		while (offset + HEADER_BYTES <= segment.size) {
+			final var header = segment.view(offset, HEADER_BYTES);
+			header.get(hashBytes);
+			final int length = header.getInt();
+			if (length < 0 || offset + HEADER_BYTES + length > segment.size) {
+				break;
+			}
+			final var location = new Location(segment, offset + HEADER_BYTES, length);
+			offset += HEADER_BYTES + length;
+			digest.update(segment.view(location.offset, length));
+			if (!Arrays.equals(hashBytes, digest.digest())) {
+				log.warn("Skipping record at offset {} of {}, whose contents do not match its hash",
+						location.offset - HEADER_BYTES, segment.path);
+				continue;
+			}
+			visitor.visit(new Hash(hashBytes.clone()), location);
+			end = offset;
+		}
+		return end;
+	}
+
+	private static MessageDigest sha384() {
+		try {
+			return MessageDigest.getInstance("SHA-384");
+		} catch (NoSuchAlgorithmException impossible) {
+			throw new IllegalStateException("SHA-384 not supported by Java API!");
+		}
+	}
+
+	/* --- Snapshots --- */
+	private Path snapshotsDir() {
+		return dir.resolve(SNAPSHOTS_DIR);
+	}
+
+	private static void link(Segment segment, Path snapshotDir) throws IOException {
+		final var link = snapshotDir.resolve(segment.path.getFileName());
+		if (!Files.exists(link)) {
+			Files.createLink(link, segment.path);
+		}
+	}
+
+	/* Copies any of the given missing records found in a snapshot (newest first) into the active segment */
+	private int restoreFromSnapshots(Set<Hash> missing) {
+		int numRestored = 0;
+		for (var snapshotDir : snapshotDirsNewestFirst()) {
+			for (var path : segmentPathsIn(snapshotDir)) {
+				if (missing.isEmpty()) {
+					break;
+				}
+				final var snapshotSegment = new Segment(-1, path, READ);
+				final int numMissing = missing.size();
+				try {
+					forEachRecord(snapshotSegment, (hash, location) -> {
+						if (missing.remove(hash)) {
+							restore(hash, snapshotSegment.read(location.offset, location.length));
+						}
+					});
+				} finally {
+					snapshotSegment.close();
+				}
+				numRestored += numMissing - missing.size();
+			}
+		}
+		if (numRestored > 0) {
+			sync();
+		}
+		return numRestored;
+	}
+
+	/* Copies any of the given missing blobs the legacy source has, with contents matching their hash,
+	into the active segment */
+	private int importFromLegacySource(Set<Hash> missing) {
+		int numImported = 0;
+		for (var iter = missing.iterator(); iter.hasNext(); ) {
+			final var hash = iter.next();
+			final var data = legacySource.contentsOf(hash);
+			if (data == null) {
+				continue;
+			}
+			if (!hash.equals(new Hash(noThrowSha384HashOf(data)))) {
+				log.error("Legacy contents of blob with hash {} do not match its hash!", hash);
+				continue;
+			}
+			restore(hash, data);
+			iter.remove();
+			numImported++;
+		}
+		if (numImported > 0) {
+			sync();
+		}
+		return numImported;
+	}
+
+	private void restore(Hash hash, byte[] data) {
+		final var restored = appendRecord(hash, data);
+		restored.segment.liveBytes += restored.recordBytes();
+		index.put(hash, restored);
+	}
+
+	private void pruneSnapshotsOlderThan(long round) {
+		for (var snapshotDir : snapshotDirsNewestFirst()) {
+			if (Long.parseLong(snapshotDir.getFileName().toString()) >= round) {
+				continue;
+			}
+			try {
+				for (var path : segmentPathsIn(snapshotDir)) {
+					Files.deleteIfExists(path);
+				}
+				Files.deleteIfExists(snapshotDir);
+			} catch (IOException e) {
+				log.warn("Unable to delete blob snapshot {}", snapshotDir, e);
+			}
+		}
+	}
+
+	/* Returns the oldest round with a saved state in the given directory, or the minimum round if none */
+	private static long oldestSavedRound(Path savedStatesDir) {
+		if (savedStatesDir == null) {
+			return Long.MIN_VALUE;
+		}
+		try (var listing = Files.list(savedStatesDir)) {
+			return listing
+					.map(path -> path.getFileName().toString())
+					.filter(LocalBinaryObjectStore::isRound)
+					.mapToLong(Long::parseLong)
+					.min()
+					.orElse(Long.MIN_VALUE);
+		} catch (IOException e) {
+			log.warn("Unable to list saved states in {}", savedStatesDir, e);
+			return Long.MIN_VALUE;
+		}
+	}
+
+	private List<Path> snapshotDirsNewestFirst() {
+		if (!Files.isDirectory(snapshotsDir())) {
+			return List.of();
+		}
+		try (var listing = Files.list(snapshotsDir())) {
+			return listing
+					.filter(path -> isRound(path.getFileName().toString()))
+					.sorted(Comparator.comparingLong((Path path) -> Long.parseLong(path.getFileName().toString()))
+							.reversed())
+					.collect(toList());
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static List<Path> segmentPathsIn(Path dir) {
+		final List<Path> paths = new ArrayList<>();
+		try (var listing = Files.newDirectoryStream(dir, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+			listing.forEach(paths::add);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return paths;
+	}
+
+	private static boolean isRound(String name) {
+		return !name.isEmpty() && name.length() < 19 && name.chars().allMatch(Character::isDigit);
+	}
+
+	/* --- Compaction --- */
+	void compactAndSync() {
+		try {
+			while (compactOnce()) {
+				/* Keep compacting while there are segments with mostly garbage */
+			}
+			sync();
+		} catch (Exception e) {
+			log.warn("Unable to compact blobs in {}", dir, e);
+		}
+	}
+
+	/**
+	 * Re-writes the live records of the sealed segment with the fewest live bytes into the active
+	 * segment and deletes it, if that segment has less than {@link LocalBinaryObjectStore#MIN_LIVE_FRACTION}
+	 * live bytes. Only locks the store for one record at a time, so writes are not blocked for the duration
+	 * of the compaction (and reads are never blocked). A victim with records that are being written to a
+	 * saved state is only deleted after the next snapshot.
+	 *
+	 * @return whether a segment was compacted
+	 */
+	boolean compactOnce() {
+		final Segment victim;
+		final List<Hash> residents = new ArrayList<>();
+		synchronized (this) {
+			if (initializing) {
+				return false;
+			}
+			victim = mostlyGarbageSegment();
+			if (victim == null) {
+				return false;
+			}
+			index.forEach((hash, location) -> {
+				if (location.segment == victim) {
+					residents.add(hash);
+				}
+			});
+		}
+		final long start = System.nanoTime();
+		int numMoved = 0;
+		for (var hash : residents) {
+			synchronized (this) {
+				final var location = index.get(hash);
+				if (location == null || location.segment != victim) {
+					continue;
+				}
+				if (refCounts.containsKey(hash)) {
+					final var moved = appendRecord(hash, victim.read(location.offset, location.length));
+					moved.segment.liveBytes += moved.recordBytes();
+					index.put(hash, moved);
+					numMoved++;
+				} else {
+					index.remove(hash);
+				}
+			}
+		}
+		synchronized (this) {
+			/* The moved records must be on disk before the originals are gone */
+			sync();
+			segments.remove(victim.id);
+			if (pinned.contains(victim)) {
+				retired.add(victim);
+			} else {
+				victim.delete();
+			}
+		}
+		log.info("Compacted {} by moving {} of {} records in {}ms",
+				victim.path, numMoved, residents.size(), (System.nanoTime() - start) / 1_000_000L);
+		return true;
+	}
+
+	private Segment mostlyGarbageSegment() {
+		Segment candidate = null;
+		for (var segment : segments.values()) {
+			if (segment == active || segment.liveBytes >= MIN_LIVE_FRACTION * segment.size) {
+				continue;
+			}
+			if (candidate == null || segment.liveFraction() < candidate.liveFraction()) {
+				candidate = segment;
+			}
+		}
+		return candidate;
+	}
+
+	private synchronized void sync() {
+		if (active != null) {
+			active.force();
+		}
+	}
+
+	/* --- Only used by unit tests --- */
+	synchronized int numSegments() {
+		return segments.size();
+	}
+
+	synchronized long liveBytesIn(int segmentId) {
+		return segments.get(segmentId).liveBytes;
+	}
+
+	synchronized long refCountOf(Hash hash) {
+		return refCounts.getOrDefault(hash, 0L);
+	}
+
+	synchronized long unsyncedBytesInActive() {
+		return active.size - active.syncedSize;
+	}
+
+	synchronized void close() {
+		if (compactor != null) {
+			compactor.shutdownNow();
+		}
+		for (var segment : segments.values()) {
+			segment.close();
+		}
+	}
+
+	@FunctionalInterface
+	private interface RecordVisitor {
+		void visit(Hash hash, Location location);
+	}
+
+	/**
+	 * A source of blob contents outside the store, to import blobs from during recovery.
+	 */
+	@FunctionalInterface
+	public interface BlobSource {
+		/**
+		 * Returns the contents of the blob with the given hash.
+		 *
+		 * @param hash
+		 * 		the hash of the blob
+		 * @return its contents, or null if the source does not have it
+		 */
+		byte[] contentsOf(Hash hash);
+	}
+
+	private static final class Location {
+		private final Segment segment;
+		private final long offset;
+		private final int length;
+
+		private Location(Segment segment, long offset, int length) {
+			this.segment = segment;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		private long recordBytes() {
+			return HEADER_BYTES + (long) length;
+		}
+	}
+
+	private static final class Segment {
+		private final int id;
+		private final Path path;
+		private final FileChannel channel;
+		/* Only written with the store locked, but read by lock-free reads */
+		private volatile long size;
+		private volatile long syncedSize;
+		private long liveBytes = 0;
+		/* Re-mapped whenever a read goes past its end, since the active segment keeps growing */
+		private volatile MappedByteBuffer mapped = null;
+
+		private Segment(int id, Path path) {
+			this(id, path, CREATE, READ, WRITE);
+		}
+
+		private Segment(int id, Path path, OpenOption... options) {
+			this.id = id;
+			this.path = path;
+			try {
+				channel = FileChannel.open(path, options);
+				size = channel.size();
+				syncedSize = size;
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+
+		/* Returns null if the segment was deleted before the requested bytes were mapped */
+		private byte[] read(long offset, int length) {
+			final var view = view(offset, length);
+			if (view == null) {
+				return null;
+			}
+			final var data = new byte[length];
+			view.get(data);
+			return data;
+		}
+
+		private ByteBuffer view(long offset, int length) {
+			var current = mapped;
+			if (current == null || current.capacity() < offset + length) {
+				try {
+					current = channel.map(READ_ONLY, 0, size);
+				} catch (ClosedChannelException e) {
+					return null;
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+				mapped = current;
+			}
+			return current.duplicate().position((int) offset).limit((int) offset + length);
+		}
+
+		private void force() {
+			final long forcedSize = size;
+			try {
+				channel.force(false);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			syncedSize = forcedSize;
+		}
+
+		private double liveFraction() {
+			return (size == 0) ? 1.0 : (double) liveBytes / size;
+		}
+
+		private void truncate(long newSize) {
+			try {
+				channel.truncate(newSize);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			size = newSize;
+			syncedSize = newSize;
+			mapped = null;
+		}
+
+		/* Keeps any mapping, so a lock-free read that already found a record here can finish */
+		private void close() {
+			try {
+				channel.close();
+			} catch (IOException e) {
+				log.warn("Unable to close blob segment {}", path, e);
+			}
+		}
+
+		private void delete() {
+			close();
+			try {
+				Files.deleteIfExists(path);
+			} catch (IOException e) {
+				log.warn("Unable to delete compacted blob segment {}", path, e);
+			}
+		}
+	}
+}
@@ -0,0 +1,190 @@
+package com.hedera.services.state.expiry;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.config.HederaNumbers;
+import com.hedera.services.context.properties.GlobalDynamicProperties;
+import com.hedera.services.ledger.properties.AccountProperty;
+import com.hedera.services.state.merkle.MerkleAccount;
+import com.hedera.services.state.merkle.MerkleEntityId;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.swirlds.fcmap.FCMap;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
+
+import static com.hedera.services.ledger.properties.AccountProperty.BALANCE;
+import static com.hedera.services.ledger.properties.AccountProperty.EXPIRY;
+import static com.hedera.services.ledger.properties.AccountProperty.IS_DELETED;
+import static com.hedera.services.ledger.properties.AccountProperty.IS_SMART_CONTRACT;
+
+/**
+ * An index of the non-system crypto accounts by the first consensus second at which the
+ * {@link EntityAutoRenewal} process could act on them; so that each renewal cycle only classifies
+ * accounts that are actually due, instead of scanning the entity number space one number at a time.
+ *
+ * An account with a positive balance (or that is deleted) is due at its expiry; an account with
+ * zero balance is detached at its expiry, and only due for removal once the auto-renew grace period
+ * has also passed. Smart contracts are never auto-renewed, and so are not indexed.
+ *
+ * The index is a pure function of the accounts in state (and the grace period), so every node
+ * visits the same due accounts in the same order, whether it has maintained its index since genesis
+ * or just rebuilt it after a restart or reconnect. Changes are not applied eagerly; instead the
+ * ledger marks changed accounts stale as it commits, and they are re-indexed at the start of the
+ * next renewal cycle.
+ */
+public class AccountExpiryIndex {
+	private final long shard, realm;
+	private final long firstIndexedNum;
+	private final GlobalDynamicProperties dynamicProperties;
+	private final Supplier<FCMap<MerkleEntityId, MerkleAccount>> accounts;
+
+	/* Accounts not yet due, bucketed by the consensus second they become due */
+	private final TreeMap<Long, Set<Long>> pending = new TreeMap<>();
+	/* Accounts due at or before the consensus second of the last refresh */
+	private final TreeSet<Long> due = new TreeSet<>();
+	private final Map<Long, Long> dueTimes = new HashMap<>();
+	private final Set<Long> stale = new HashSet<>();
+
+	private long gracePeriodUsed;
+
+	public AccountExpiryIndex(
+			HederaNumbers hederaNumbers,
+			GlobalDynamicProperties dynamicProperties,
+			Supplier<FCMap<MerkleEntityId, MerkleAccount>> accounts
+	) {
+		this.accounts = accounts;
+		this.dynamicProperties = dynamicProperties;
+
+		this.shard = hederaNumbers.shard();
+		this.realm = hederaNumbers.realm();
+		this.firstIndexedNum = hederaNumbers.numReservedSystemEntities() + 1;
+	}
+
+	/**
+	 * Rebuilds the index from the accounts in state; called on restart and reconnect.
+	 */
+	public void rebuild() {
+		pending.clear();
+		due.clear();
+		dueTimes.clear();
+		stale.clear();
+
+		gracePeriodUsed = dynamicProperties.autoRenewGracePeriod();
+		accounts.get().forEach((id, account) -> {
+			final long num = id.getNum();
+			if (num >= firstIndexedNum) {
+				index(num, account);
+			}
+		});
+	}
+
+	public void trackAccountCommit(AccountID id, Set<AccountProperty> changed) {
+		if (changed.contains(EXPIRY)
+				|| changed.contains(BALANCE)
+				|| changed.contains(IS_DELETED)
+				|| changed.contains(IS_SMART_CONTRACT)) {
+			markStale(id.getAccountNum());
+		}
+	}
+
+	public void markStale(long num) {
+		if (num >= firstIndexedNum) {
+			stale.add(num);
+		}
+	}
+
+	/**
+	 * Re-indexes any stale accounts (or rebuilds the index, if the grace period changed), and then
+	 * moves all accounts due by the given consensus second into the due set.
+	 *
+	 * @param now the current consensus second
+	 */
+	public void refresh(long now) {
+		if (dynamicProperties.autoRenewGracePeriod() != gracePeriodUsed) {
+			rebuild();
+		} else if (!stale.isEmpty()) {
+			final var currentAccounts = accounts.get();
+			for (var num : stale) {
+				unindex(num);
+				final var account = currentAccounts.get(new MerkleEntityId(shard, realm, num));
+				if (account != null) {
+					index(num, account);
+				}
+			}
+			stale.clear();
+		}
+		while (!pending.isEmpty() && pending.firstKey() <= now) {
+			due.addAll(pending.pollFirstEntry().getValue());
+		}
+	}
+
+	public int numDue() {
+		return due.size();
+	}
+
+	/**
+	 * Returns the lowest-numbered due account after the given entity number, wrapping around to the
+	 * lowest-numbered due account if there is none.
+	 *
+	 * @param num the entity number to search after
+	 * @return the next due account number
+	 * @throws IllegalStateException if no account is due
+	 */
+	public long nextDueAfter(long num) {
+		if (due.isEmpty()) {
+			throw new IllegalStateException("No account is due!");
+		}
+		final var next = due.higher(num);
+		return (next != null) ? next : due.first();
+	}
+
+	private void index(long num, MerkleAccount account) {
+		if (account.isSmartContract()) {
+			return;
+		}
+		final long expiry = account.getExpiry();
+		final long dueTime = (account.getBalance() > 0 || account.isDeleted()) ? expiry : expiry + gracePeriodUsed;
+		dueTimes.put(num, dueTime);
+		pending.computeIfAbsent(dueTime, ignore -> new HashSet<>()).add(num);
+	}
+
+	private void unindex(long num) {
+		final var dueTime = dueTimes.remove(num);
+		if (dueTime == null || due.remove(num)) {
+			return;
+		}
+		final var bucket = pending.get(dueTime);
+		bucket.remove(num);
+		if (bucket.isEmpty()) {
+			pending.remove(dueTime);
+		}
+	}
+
+	int numPending() {
+		return dueTimes.size() - due.size();
+	}
+}
@@ -20,34 +20,44 @@ package com.hedera.services.state.expiry;
  * ‍
  */
 
-import com.hedera.services.config.HederaNumbers;
 import com.hedera.services.context.ServicesContext;
 import com.hedera.services.context.properties.GlobalDynamicProperties;
 import com.hedera.services.state.expiry.renewal.RenewalProcess;
 import com.hedera.services.state.logic.NetworkCtxManager;
 import com.hedera.services.state.merkle.MerkleNetworkContext;
+import com.hedera.services.stats.MiscRunningAvgs;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.time.Instant;
 import java.util.function.Supplier;
 
+/**
+ * Renews or removes expired accounts, a few at a time, at the start of each consensus transaction.
+ *
+ * Instead of scanning the entity number space, each renewal cycle consults an {@link AccountExpiryIndex}
+ * and classifies only the accounts that are due; it visits these in entity number order, resuming after
+ * the last entity scanned in the previous cycle, so no due account can be starved by others that are due
+ * but cannot yet be acted on (e.g., a detached treasury of an extant token).
+ */
 public class EntityAutoRenewal {
 	private static final Logger log = LogManager.getLogger(EntityAutoRenewal.class);
 
-	private final long firstEntityToScan;
 	private final RenewalProcess renewalProcess;
 	private final ServicesContext ctx;
 	private final NetworkCtxManager networkCtxManager;
 	private final GlobalDynamicProperties dynamicProps;
+	private final AccountExpiryIndex expiryIndex;
+	private final MiscRunningAvgs runningAvgs;
 	private final Supplier<MerkleNetworkContext> networkCtx;
 
 	public EntityAutoRenewal(
-			HederaNumbers hederaNumbers,
 			RenewalProcess renewalProcess,
 			ServicesContext ctx,
 			GlobalDynamicProperties dynamicProps,
 			NetworkCtxManager networkCtxManager,
+			AccountExpiryIndex expiryIndex,
+			MiscRunningAvgs runningAvgs,
 			Supplier<MerkleNetworkContext> networkCtx
 	) {
 		this.ctx = ctx;
@@ -55,55 +65,51 @@ public class EntityAutoRenewal {
 		this.networkCtxManager = networkCtxManager;
 		this.renewalProcess = renewalProcess;
 		this.dynamicProps = dynamicProps;
-
-		this.firstEntityToScan = hederaNumbers.numReservedSystemEntities() + 1;
+		this.expiryIndex = expiryIndex;
+		this.runningAvgs = runningAvgs;
 	}
 
 	public void execute(Instant instantNow) {
+		/* Always refresh, so changes committed while auto-renew is disabled don't accumulate */
+		expiryIndex.refresh(instantNow.getEpochSecond());
 		if (!dynamicProps.autoRenewEnabled()) {
 			return;
 		}
 
-		final long wrapNum = ctx.seqNo().current();
-		if (wrapNum == firstEntityToScan) {
-			/* No non-system entities in the system, can abort */
-			return;
-		}
-
 		final var curNetworkCtx = networkCtx.get();
-		final int maxEntitiesToTouch = dynamicProps.autoRenewMaxNumberOfEntitiesToRenewOrDelete();
-		final int maxEntitiesToScan = dynamicProps.autoRenewNumberOfEntitiesToScan();
 		if (networkCtxManager.currentTxnIsFirstInConsensusSecond()) {
 			curNetworkCtx.clearAutoRenewSummaryCounts();
 		}
+		final int numDue = expiryIndex.numDue();
+		if (numDue == 0) {
+			return;
+		}
+
+		final int maxEntitiesToTouch = dynamicProps.autoRenewMaxNumberOfEntitiesToRenewOrDelete();
+		final int maxEntitiesToScan = Math.min(numDue, dynamicProps.autoRenewNumberOfEntitiesToScan());
 
 		renewalProcess.beginRenewalCycle(instantNow);
 
-		int i = 1, entitiesTouched = 0;
+		int entitiesScanned = 0, entitiesTouched = 0;
 		long scanNum = ctx.lastScannedEntity();
 
-		log.debug("Auto-renew scan beginning at {}, wrapping at {}", scanNum, wrapNum);
+		log.debug("Auto-renew scan of {} due accounts beginning after {}", numDue, scanNum);
 		log.debug("BEFORE #'s are (accounts={}, tokenRels={})",
 				() -> ctx.accounts().size(), () -> ctx.tokenAssociations().size());
-		for (; i <= maxEntitiesToScan; i++) {
-			scanNum++;
-			if (scanNum >= wrapNum) {
-				scanNum = firstEntityToScan;
-			}
+		while (entitiesScanned < maxEntitiesToScan && entitiesTouched < maxEntitiesToTouch) {
+			scanNum = expiryIndex.nextDueAfter(scanNum);
+			entitiesScanned++;
 			if (renewalProcess.process(scanNum)) {
 				entitiesTouched++;
-			}
-			if (entitiesTouched >= maxEntitiesToTouch) {
-				/* Allow consistent calculation of num scanned below. */
-				i++;
-				break;
+				expiryIndex.markStale(scanNum);
 			}
 		}
 		renewalProcess.endRenewalCycle();
-		curNetworkCtx.updateAutoRenewSummaryCounts(i - 1, entitiesTouched);
+		curNetworkCtx.updateAutoRenewSummaryCounts(entitiesScanned, entitiesTouched);
+		runningAvgs.recordAutoRenewScan(numDue, entitiesScanned, entitiesTouched);
 
 		log.debug("Auto-renew scan finished at {} with {}/{} scanned/touched (Total this second: {}/{})",
-				scanNum, i - 1, entitiesTouched,
+				scanNum, entitiesScanned, entitiesTouched,
 				curNetworkCtx.getEntitiesScannedThisSecond(), curNetworkCtx.getEntitiesTouchedThisSecond());
 		log.debug("AFTER #'s are (accounts={}, tokenRels={})",
 				() -> ctx.accounts().size(), () -> ctx.tokenAssociations().size());
@@ -35,16 +35,11 @@ import com.swirlds.fcmap.FCMap;
 import com.swirlds.fcqueue.FCQueue;
 import org.apache.commons.lang3.tuple.Pair;
 
-import java.util.AbstractMap;
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
-import static java.util.Comparator.comparing;
-
 /**
  * Manager of two queues of expiration events---one for payer records, one for schedule entities.
  *
@@ -55,14 +50,6 @@ import static java.util.Comparator.comparing;
  * </ol>
  */
 public class ExpiryManager {
-	/* Since the key in Pair<Long, Consumer<EntityId>> is the schedule entity number---and
-	entity numbers are unique---the downstream comparator below will guarantee a fixed
-	ordering for ExpiryEvents with the same expiry. The reason for different scheduled entities having
-	the same expiry is that we round expiration times to a consensus second. */
-	private static final Comparator<ExpiryEvent<Pair<Long, Consumer<EntityId>>>> PQ_CMP = Comparator
-			.comparingLong(ExpiryEvent<Pair<Long, Consumer<EntityId>>>::getExpiry)
-			.thenComparingLong(ee -> ee.getId().getKey());
-
 	private final long shard, realm;
 
 	private final RecordCache recordCache;
@@ -71,10 +58,12 @@ public class ExpiryManager {
 	private final Supplier<FCMap<MerkleEntityId, MerkleAccount>> accounts;
 	private final Supplier<FCMap<MerkleEntityId, MerkleSchedule>> schedules;
 
-	private final MonotonicFullQueueExpiries<Long> payerRecordExpiries =
-			new MonotonicFullQueueExpiries<>();
-	private final PriorityQueueExpiries<Pair<Long, Consumer<EntityId>>> shortLivedEntityExpiries =
-			new PriorityQueueExpiries<>(PQ_CMP);
+	/* Since entity numbers expiring in the same consensus second are released in ascending order,
+	the purge order is fixed no matter how (or if) the wheels were rebuilt from state. The reason for
+	different entities having the same expiry is that we round expiration times to a consensus second. */
+	private final TimingWheelExpiries payerRecordExpiries = new TimingWheelExpiries();
+	private final TimingWheelExpiries shortLivedEntityExpiries = new TimingWheelExpiries();
+	private final Map<Long, Consumer<EntityId>> shortLivedEntityConsumers = new HashMap<>();
 
 	public ExpiryManager(
 			RecordCache recordCache,
@@ -111,7 +100,8 @@ public class ExpiryManager {
 	 * @param expiry the earliest consensus second at which it should fire
 	 */
 	public void trackExpirationEvent(Pair<Long, Consumer<EntityId>> event, long expiry) {
-		shortLivedEntityExpiries.track(event, expiry);
+		shortLivedEntityConsumers.put(event.getKey(), event.getValue());
+		shortLivedEntityExpiries.trackNum(event.getKey(), expiry);
 	}
 
 	/**
@@ -128,11 +118,8 @@ public class ExpiryManager {
 		txnHistories.clear();
 		payerRecordExpiries.reset();
 
-		final var _payerExpiries = new ArrayList<Map.Entry<Long, Long>>();
 		final var currentAccounts = accounts.get();
-		currentAccounts.forEach((id, account) -> stageExpiringRecords(id.getNum(), account.records(), _payerExpiries));
-		_payerExpiries.sort(comparing(Map.Entry<Long, Long>::getValue).thenComparing(Map.Entry::getKey));
-		_payerExpiries.forEach(entry -> payerRecordExpiries.track(entry.getKey(), entry.getValue()));
+		currentAccounts.forEach((id, account) -> stageExpiringRecords(id.getNum(), account.records()));
 
 		txnHistories.values().forEach(TxnIdRecentHistory::observeStaged);
 	}
@@ -147,27 +134,23 @@ public class ExpiryManager {
 	 */
 	public void reviewExistingShortLivedEntities() {
 		shortLivedEntityExpiries.reset();
+		shortLivedEntityConsumers.clear();
 
-		final var _shortLivedEntityExpiries = new ArrayList<Map.Entry<Pair<Long, Consumer<EntityId>>, Long>>();
+		final Consumer<EntityId> consumer = scheduleStore::expire;
 		schedules.get().forEach((id, schedule) -> {
-			Consumer<EntityId> consumer = scheduleStore::expire;
-			var pair = Pair.of(id.getNum(), consumer);
-			_shortLivedEntityExpiries.add(new AbstractMap.SimpleImmutableEntry<>(pair, schedule.expiry()));
+			shortLivedEntityConsumers.put(id.getNum(), consumer);
+			shortLivedEntityExpiries.trackNum(id.getNum(), schedule.expiry());
 		});
-
-		_shortLivedEntityExpiries.sort(comparing(Map.Entry<Pair<Long, Consumer<EntityId>>, Long>::getValue).
-				thenComparing(entry -> entry.getKey().getKey()));
-		_shortLivedEntityExpiries.forEach(entry -> shortLivedEntityExpiries.track(entry.getKey(), entry.getValue()));
 	}
 
 	void trackRecordInState(AccountID owner, long expiry) {
-		payerRecordExpiries.track(owner.getAccountNum(), expiry);
+		payerRecordExpiries.trackNum(owner.getAccountNum(), expiry);
 	}
 
 	private void purgeExpiredRecordsAt(long now) {
 		final var currentAccounts = accounts.get();
 		while (payerRecordExpiries.hasExpiringAt(now)) {
-			final var key = new MerkleEntityId(shard, realm, payerRecordExpiries.expireNextAt(now));
+			final var key = new MerkleEntityId(shard, realm, payerRecordExpiries.expireNextNumAt(now));
 
 			final var mutableAccount = currentAccounts.getForModify(key);
 			final var mutableRecords = mutableAccount.records();
@@ -193,22 +176,21 @@ public class ExpiryManager {
 
 	private void purgeExpiredShortLivedEntities(long now) {
 		while (shortLivedEntityExpiries.hasExpiringAt(now)) {
-			var current = shortLivedEntityExpiries.expireNextAt(now);
-			current.getValue().accept(entityWith(current.getKey()));
+			final var num = shortLivedEntityExpiries.expireNextNumAt(now);
+			final var consumer = shortLivedEntityConsumers.remove(num);
+			if (consumer != null) {
+				consumer.accept(entityWith(num));
+			}
 		}
 	}
 
-	private void stageExpiringRecords(
-			Long num,
-			FCQueue<ExpirableTxnRecord> records,
-			List<Map.Entry<Long, Long>> expiries
-	) {
+	private void stageExpiringRecords(long num, FCQueue<ExpirableTxnRecord> records) {
 		long lastAdded = -1;
 		for (ExpirableTxnRecord record : records) {
 			stage(record);
 			var expiry = record.getExpiry();
 			if (expiry != lastAdded) {
-				expiries.add(new AbstractMap.SimpleImmutableEntry<>(num, expiry));
+				payerRecordExpiries.trackNum(num, expiry);
 				lastAdded = expiry;
 			}
 		}
@@ -223,7 +205,11 @@ public class ExpiryManager {
 		return new EntityId(shard, realm, num);
 	}
 
-	PriorityQueueExpiries<Pair<Long, Consumer<EntityId>>> getShortLivedEntityExpiries() {
+	TimingWheelExpiries getShortLivedEntityExpiries() {
 		return shortLivedEntityExpiries;
 	}
+
+	TimingWheelExpiries getPayerRecordExpiries() {
+		return payerRecordExpiries;
+	}
 }
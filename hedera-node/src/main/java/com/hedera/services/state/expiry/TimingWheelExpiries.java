@@ -0,0 +1,325 @@
+package com.hedera.services.state.expiry;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.util.Arrays;
+
+/**
+ * A hierarchical timing wheel of expiring entity numbers, with amortized O(1) tracking and expiration.
+ *
+ * Level 0 has one slot per consensus second for the next 256 seconds; each higher level has 64 slots,
+ * each spanning a full rotation of the level below it; and expirations more than 2<sup>26</sup> seconds
+ * in the future wait in an overflow bucket. As the wheel advances past the start of a slot in a higher
+ * level, that slot's entries are cascaded down into the lower levels. Seconds with nothing to expire
+ * are skipped a whole rotation at a time whenever the lower levels are empty. (Since the wheel does
+ * not know the current consensus second until it is first asked what has expired, entries tracked before
+ * then---e.g., while rebuilding from state---are placed only once that first question anchors the wheel.)
+ *
+ * Entries are stored as primitive {@code (expiry, num)} pairs, and the entity numbers expiring in
+ * a consensus second are released in ascending order. So just as with a {@link PriorityQueueExpiries}
+ * ordered by expiry and then entity number, the expiration order is a pure function of the tracked
+ * entries, and does not depend on the order they were tracked in (e.g., before or after a reconnect).
+ */
+public class TimingWheelExpiries implements KeyedExpirations<Long> {
+	private static final int[] LEVEL_SHIFTS = { 0, 8, 14, 20, 26 };
+	private static final int NUM_LEVELS = LEVEL_SHIFTS.length - 1;
+	private static final int INITIAL_READY_CAPACITY = 64;
+
+	private final ExpiryBucket[][] wheel = new ExpiryBucket[NUM_LEVELS][];
+	private final int[] levelSizes = new int[NUM_LEVELS];
+	private final ExpiryBucket overflow = new ExpiryBucket();
+
+	/* Entries already released from the wheel, ordered by expiry and then entity number */
+	private long[] readyExpiries = new long[INITIAL_READY_CAPACITY];
+	private long[] readyNums = new long[INITIAL_READY_CAPACITY];
+	private int readyHead = 0;
+	private int readyTail = 0;
+
+	private long[] cascadeScratch = new long[0];
+
+	/* Every entry with an expiry before the cursor has been released from the wheel */
+	private long cursor = 0L;
+	private int numTracked = 0;
+	/* Until the wheel first advances, tracked entries wait in the overflow bucket */
+	private boolean isAnchored = false;
+
+	public TimingWheelExpiries() {
+		for (int level = 0; level < NUM_LEVELS; level++) {
+			final int numSlots = 1 << (LEVEL_SHIFTS[level + 1] - LEVEL_SHIFTS[level]);
+			wheel[level] = new ExpiryBucket[numSlots];
+			for (int i = 0; i < numSlots; i++) {
+				wheel[level][i] = new ExpiryBucket();
+			}
+		}
+	}
+
+	@Override
+	public void reset() {
+		for (int level = 0; level < NUM_LEVELS; level++) {
+			if (levelSizes[level] > 0) {
+				for (var bucket : wheel[level]) {
+					bucket.clear();
+				}
+				levelSizes[level] = 0;
+			}
+		}
+		overflow.clear();
+		readyHead = readyTail = 0;
+		cursor = 0L;
+		numTracked = 0;
+		isAnchored = false;
+	}
+
+	@Override
+	public void track(Long id, long expiry) {
+		trackNum(id, expiry);
+	}
+
+	@Override
+	public boolean hasExpiringAt(long now) {
+		advanceTo(now);
+		return readyHead < readyTail && readyExpiries[readyHead] <= now;
+	}
+
+	@Override
+	public Long expireNextAt(long now) {
+		return expireNextNumAt(now);
+	}
+
+	/**
+	 * Begins tracking the given entity number for expiration at the given consensus second.
+	 *
+	 * @param num the entity number
+	 * @param expiry the first consensus second at which it expires
+	 */
+	public void trackNum(long num, long expiry) {
+		if (!isAnchored) {
+			overflow.add(expiry, num);
+			numTracked++;
+			return;
+		}
+		if (numTracked == 0 && expiry < cursor) {
+			cursor = expiry;
+		}
+		numTracked++;
+		if (expiry < cursor) {
+			insertReady(expiry, num);
+		} else {
+			place(expiry, num);
+		}
+	}
+
+	/**
+	 * Removes and returns the next entity number expiring at or before the given consensus second.
+	 *
+	 * @param now the current consensus second
+	 * @return the next expired entity number
+	 * @throws IllegalStateException if nothing is tracked
+	 * @throws IllegalArgumentException if nothing is expired at the given second
+	 */
+	public long expireNextNumAt(long now) {
+		if (numTracked == 0) {
+			throw new IllegalStateException("No ids are queued for expiration!");
+		}
+		if (!hasExpiringAt(now)) {
+			throw new IllegalArgumentException(String.format("Argument 'now=%d' is earlier than the next expiry!",
+					now));
+		}
+		numTracked--;
+		final long num = readyNums[readyHead++];
+		if (readyHead == readyTail) {
+			readyHead = readyTail = 0;
+		}
+		return num;
+	}
+
+	public int size() {
+		return numTracked;
+	}
+
+	private void advanceTo(long now) {
+		if (!isAnchored) {
+			anchorAt(now);
+		}
+		if (numTracked == 0) {
+			/* Nothing to release, so the cursor can move freely */
+			cursor = Math.max(cursor, now + 1);
+			return;
+		}
+		while (readyHead == readyTail && numTracked > 0 && cursor <= now) {
+			int numEmptyLevels = 0;
+			while (numEmptyLevels < NUM_LEVELS && levelSizes[numEmptyLevels] == 0) {
+				numEmptyLevels++;
+			}
+			if (numEmptyLevels == 0) {
+				releaseSlotAt(cursor);
+				moveCursorTo(cursor + 1);
+			} else {
+				/* Nothing can expire before the next slot boundary of the lowest non-empty level */
+				final long span = 1L << LEVEL_SHIFTS[numEmptyLevels];
+				moveCursorTo(Math.min((cursor | (span - 1)) + 1, now + 1));
+			}
+		}
+	}
+
+	private void anchorAt(long now) {
+		long earliest = now + 1;
+		for (int i = 0, n = 2 * overflow.size; i < n; i += 2) {
+			earliest = Math.min(earliest, overflow.pairs[i]);
+		}
+		cursor = earliest;
+		isAnchored = true;
+		cascade(overflow);
+	}
+
+	private void releaseSlotAt(long second) {
+		final var bucket = wheel[0][slotIndex(0, second)];
+		final int n = bucket.size;
+		if (n == 0) {
+			return;
+		}
+		ensureReadyCapacity(n);
+		for (int i = 0; i < n; i++) {
+			readyExpiries[i] = second;
+			readyNums[i] = bucket.pairs[2 * i + 1];
+		}
+		Arrays.sort(readyNums, 0, n);
+		readyHead = 0;
+		readyTail = n;
+		levelSizes[0] -= n;
+		bucket.clear();
+	}
+
+	private void moveCursorTo(long newCursor) {
+		cursor = newCursor;
+		for (int level = 1; level < NUM_LEVELS; level++) {
+			if ((newCursor & ((1L << LEVEL_SHIFTS[level]) - 1)) != 0) {
+				return;
+			}
+			final var bucket = wheel[level][slotIndex(level, newCursor)];
+			levelSizes[level] -= bucket.size;
+			cascade(bucket);
+		}
+		if ((newCursor & ((1L << LEVEL_SHIFTS[NUM_LEVELS]) - 1)) == 0) {
+			cascade(overflow);
+		}
+	}
+
+	private void cascade(ExpiryBucket bucket) {
+		final int len = 2 * bucket.size;
+		if (len == 0) {
+			return;
+		}
+		if (cascadeScratch.length < len) {
+			cascadeScratch = new long[len];
+		}
+		System.arraycopy(bucket.pairs, 0, cascadeScratch, 0, len);
+		bucket.clear();
+		for (int i = 0; i < len; i += 2) {
+			place(cascadeScratch[i], cascadeScratch[i + 1]);
+		}
+	}
+
+	private void place(long expiry, long num) {
+		final long delta = expiry - cursor;
+		for (int level = 0; level < NUM_LEVELS; level++) {
+			if (delta < (1L << LEVEL_SHIFTS[level + 1])) {
+				wheel[level][slotIndex(level, expiry)].add(expiry, num);
+				levelSizes[level]++;
+				return;
+			}
+		}
+		overflow.add(expiry, num);
+	}
+
+	private int slotIndex(int level, long second) {
+		return (int) ((second >> LEVEL_SHIFTS[level]) & (wheel[level].length - 1));
+	}
+
+	/* Only needed when tracking an expiry the wheel has already advanced past, which is rare */
+	private void insertReady(long expiry, long num) {
+		if (readyHead == readyTail) {
+			readyHead = readyTail = 0;
+		}
+		ensureReadyCapacity(readyTail - readyHead + 1);
+		int i = readyTail;
+		while (i > readyHead && isAfter(readyExpiries[i - 1], readyNums[i - 1], expiry, num)) {
+			readyExpiries[i] = readyExpiries[i - 1];
+			readyNums[i] = readyNums[i - 1];
+			i--;
+		}
+		readyExpiries[i] = expiry;
+		readyNums[i] = num;
+		readyTail++;
+	}
+
+	private static boolean isAfter(long aExpiry, long aNum, long bExpiry, long bNum) {
+		return aExpiry > bExpiry || (aExpiry == bExpiry && aNum > bNum);
+	}
+
+	private void ensureReadyCapacity(int n) {
+		if (readyHead > 0) {
+			final int numReady = readyTail - readyHead;
+			System.arraycopy(readyExpiries, readyHead, readyExpiries, 0, numReady);
+			System.arraycopy(readyNums, readyHead, readyNums, 0, numReady);
+			readyHead = 0;
+			readyTail = numReady;
+		}
+		if (readyNums.length < n) {
+			final int newCapacity = Math.max(n, 2 * readyNums.length);
+			readyExpiries = Arrays.copyOf(readyExpiries, newCapacity);
+			readyNums = Arrays.copyOf(readyNums, newCapacity);
+		}
+	}
+
+	int getLevelSize(int level) {
+		return levelSizes[level];
+	}
+
+	int getOverflowSize() {
+		return overflow.size;
+	}
+
+	long getCursor() {
+		return cursor;
+	}
+
+	private static final class ExpiryBucket {
+		private static final int INITIAL_CAPACITY = 8;
+
+		private long[] pairs = new long[2 * INITIAL_CAPACITY];
+		private int size = 0;
+
+		private void add(long expiry, long num) {
+			final int i = 2 * size;
+			if (i == pairs.length) {
+				pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+			}
+			pairs[i] = expiry;
+			pairs[i + 1] = num;
+			size++;
+		}
+
+		private void clear() {
+			size = 0;
+		}
+	}
+}
@@ -22,6 +22,7 @@ package com.hedera.services.state.expiry.renewal;
 
 import com.hedera.services.config.HederaNumbers;
 import com.hedera.services.context.properties.GlobalDynamicProperties;
+import com.hedera.services.state.exports.BalanceChangeTracker;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
 import com.hedera.services.state.merkle.MerkleEntityId;
@@ -62,6 +63,7 @@ public class RenewalHelper {
 	private final Supplier<FCMap<MerkleEntityId, MerkleToken>> tokens;
 	private final Supplier<FCMap<MerkleEntityId, MerkleAccount>> accounts;
 	private final Supplier<FCMap<MerkleEntityAssociation, MerkleTokenRelStatus>> tokenRels;
+	private final BalanceChangeTracker balanceChangeTracker;
 
 	private MerkleAccount lastClassifiedAccount = null;
 	private MerkleEntityId lastClassifiedEntityId;
@@ -72,7 +74,8 @@ public class RenewalHelper {
 			GlobalDynamicProperties dynamicProperties,
 			Supplier<FCMap<MerkleEntityId, MerkleToken>> tokens,
 			Supplier<FCMap<MerkleEntityId, MerkleAccount>> accounts,
-			Supplier<FCMap<MerkleEntityAssociation, MerkleTokenRelStatus>> tokenRels
+			Supplier<FCMap<MerkleEntityAssociation, MerkleTokenRelStatus>> tokenRels,
+			BalanceChangeTracker balanceChangeTracker
 	) {
 		this.shard = hederaNumbers.shard();
 		this.realm = hederaNumbers.realm();
@@ -81,6 +84,7 @@ public class RenewalHelper {
 		this.accounts = accounts;
 		this.tokenRels = tokenRels;
 		this.dynamicProperties = dynamicProperties;
+		this.balanceChangeTracker = balanceChangeTracker;
 	}
 
 	public ExpiredEntityClassification classify(long candidateNum, long now) {
@@ -138,6 +142,7 @@ public class RenewalHelper {
 
 		final var currentAccounts = accounts.get();
 		currentAccounts.remove(lastClassifiedEntityId);
+		balanceChangeTracker.track(lastClassifiedEntityId.toAccountId());
 
 		log.debug("Removed {}, displacing {}", lastClassifiedEntityId, displacements);
 
@@ -160,6 +165,8 @@ public class RenewalHelper {
 		final var mutableFundingAccount = currentAccounts.getForModify(fundingId);
 		final long newFundingBalance = mutableFundingAccount.getBalance() + fee;
 		mutableFundingAccount.setBalanceUnchecked(newFundingBalance);
+		balanceChangeTracker.track(lastClassifiedEntityId.toAccountId());
+		balanceChangeTracker.track(fundingId.toAccountId());
 
 		log.debug("Renewed {} at a price of {}tb", lastClassifiedEntityId, fee);
 	}
@@ -209,6 +216,7 @@ public class RenewalHelper {
 		final var mutableTreasuryRelStatus = currentTokenRels.getForModify(treasuryRel);
 		final long newTreasuryBalance = mutableTreasuryRelStatus.getBalance() + balance;
 		mutableTreasuryRelStatus.setBalance(newTreasuryBalance);
+		balanceChangeTracker.track(treasury);
 	}
 
 	private void assertHasLastClassifiedAccount() {
@@ -0,0 +1,157 @@
+package com.hedera.services.state.exports;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.context.properties.GlobalDynamicProperties;
+import com.hedera.services.ledger.properties.AccountProperty;
+import com.hedera.services.ledger.properties.TokenRelProperty;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.TokenID;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.hedera.services.ledger.properties.AccountProperty.BALANCE;
+import static com.hedera.services.ledger.properties.AccountProperty.IS_DELETED;
+import static com.hedera.services.ledger.properties.AccountProperty.TOKENS;
+import static com.hedera.services.ledger.properties.TokenRelProperty.TOKEN_BALANCE;
+
+/**
+ * Tracks the accounts whose exported balances (hbar or token) may have changed, so that a delta balances
+ * export only needs to visit those accounts in its signed state.
+ *
+ * Accounts are tracked on the handle thread as ledger transactions commit (and as the typed stores and
+ * auto-renewal change balances directly). Each time the working state is copied, the accounts tracked so
+ * far are sealed into a segment labeled with the consensus time of the last transaction handled in the
+ * copied state; so the accounts changed since an exported signed state are exactly the union of the
+ * segments sealed after it, up to and including the next exported signed state.
+ *
+ * Tracking only happens while both balance exports and delta exports are enabled. And whenever the working
+ * state is (re-)initialized, e.g. after a reconnect, the tracker must be {@link BalanceChangeTracker#reset()},
+ * since the changes that led to the new state were never tracked here.
+ */
+public class BalanceChangeTracker {
+	private final GlobalDynamicProperties dynamicProperties;
+
+	private Set<AccountID> unsealed = new HashSet<>();
+	private final Deque<Segment> sealed = new ArrayDeque<>();
+	/* The sealed time since which every change has been tracked; or null if not tracking */
+	private Instant trackingSince = null;
+	/* Whether the next export must be a full one, because the working state was re-initialized */
+	private boolean fullExportRequired = false;
+
+	public BalanceChangeTracker(GlobalDynamicProperties dynamicProperties) {
+		this.dynamicProperties = dynamicProperties;
+	}
+
+	public void trackAccountCommit(AccountID id, Set<AccountProperty> changed) {
+		if (changed.contains(BALANCE) || changed.contains(TOKENS) || changed.contains(IS_DELETED)) {
+			track(id);
+		}
+	}
+
+	public void trackTokenRelCommit(Pair<AccountID, TokenID> rel, Set<TokenRelProperty> changed) {
+		if (changed.contains(TOKEN_BALANCE)) {
+			track(rel.getLeft());
+		}
+	}
+
+	public synchronized void track(AccountID id) {
+		if (trackingSince != null) {
+			unsealed.add(id);
+		}
+	}
+
+	/**
+	 * Seals the accounts tracked so far as those changed in the state being copied.
+	 *
+	 * @param lastHandledTime the consensus time of the last transaction handled in the state being copied
+	 */
+	public synchronized void seal(Instant lastHandledTime) {
+		if (!isEnabled()) {
+			trackingSince = null;
+			unsealed.clear();
+			sealed.clear();
+			return;
+		}
+		if (trackingSince == null) {
+			/* Any changes before this point were not reliably tracked, so we start here */
+			trackingSince = lastHandledTime;
+		} else if (!unsealed.isEmpty()) {
+			sealed.addLast(new Segment(lastHandledTime, unsealed));
+			unsealed = new HashSet<>();
+		}
+	}
+
+	/**
+	 * Forgets all tracked changes and stops tracking until the next {@link BalanceChangeTracker#seal(Instant)},
+	 * so that the next export is a full one.
+	 */
+	public synchronized void reset() {
+		trackingSince = null;
+		unsealed = new HashSet<>();
+		sealed.clear();
+		fullExportRequired = true;
+	}
+
+	/**
+	 * Removes and returns all the accounts changed in sealed states up to the given time; or, if some change
+	 * after the given base time may not have been tracked, an empty optional.
+	 *
+	 * @param baseTime the last handled time in the state of the previous export, or null if there is none
+	 * @param upToTime the last handled time in the state being exported
+	 * @return the accounts changed after the base time and up to the given time, if known
+	 */
+	public synchronized Optional<Set<AccountID>> drainChangesSince(Instant baseTime, Instant upToTime) {
+		final Set<AccountID> changed = new HashSet<>();
+		while (!sealed.isEmpty() && !sealed.peekFirst().lastHandledTime.isAfter(upToTime)) {
+			changed.addAll(sealed.removeFirst().changed);
+		}
+		if (fullExportRequired || baseTime == null || trackingSince == null || trackingSince.isAfter(baseTime)) {
+			fullExportRequired = false;
+			return Optional.empty();
+		}
+		return Optional.of(changed);
+	}
+
+	private boolean isEnabled() {
+		return dynamicProperties.shouldExportBalances() && dynamicProperties.balancesDeltaExportsPerFullExport() > 0;
+	}
+
+	int numSealedSegments() {
+		return sealed.size();
+	}
+
+	private static class Segment {
+		private final Instant lastHandledTime;
+		private final Set<AccountID> changed;
+
+		Segment(Instant lastHandledTime, Set<AccountID> changed) {
+			this.lastHandledTime = lastHandledTime;
+			this.changed = changed;
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package com.hedera.services.state.exports;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.common.base.MoreObjects;
+import com.hedera.services.stream.proto.SingleAccountBalances;
+import com.hederahashgraph.api.proto.java.AccountID;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The contents of a delta balances file, which records the accounts whose balances changed between the
+ * export of a base balances file (full or delta) and a later export.
+ *
+ * The file starts with an int version, then the base and delta consensus times (each as a long of seconds
+ * and an int of nanos). It is followed by a sequence of tagged entries in account id order: an
+ * {@link #UPSERT_TAG} followed by an int length and that many bytes of a serialized
+ * {@link SingleAccountBalances}, giving the full current balances of a changed account; or a
+ * {@link #REMOVAL_TAG} followed by the shard, realm, and number of an account that was deleted or removed.
+ * The sequence ends with an {@link #END_TAG}.
+ */
+public class BalancesDelta {
+	static final int CURRENT_VERSION = 1;
+
+	static final byte END_TAG = 0;
+	static final byte UPSERT_TAG = 1;
+	static final byte REMOVAL_TAG = 2;
+
+	private final Instant baseConsensusTime;
+	private final Instant consensusTime;
+	private final List<SingleAccountBalances> upserts;
+	private final List<AccountID> removals;
+
+	public BalancesDelta(
+			Instant baseConsensusTime,
+			Instant consensusTime,
+			List<SingleAccountBalances> upserts,
+			List<AccountID> removals
+	) {
+		this.baseConsensusTime = baseConsensusTime;
+		this.consensusTime = consensusTime;
+		this.upserts = upserts;
+		this.removals = removals;
+	}
+
+	public static BalancesDelta readFrom(File file) throws IOException {
+		try (var in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+			final int version = in.readInt();
+			if (version != CURRENT_VERSION) {
+				throw new IOException(String.format(
+						"Delta balances file '%s' has unsupported version %d!", file, version));
+			}
+			final var base = Instant.ofEpochSecond(in.readLong(), in.readInt());
+			final var at = Instant.ofEpochSecond(in.readLong(), in.readInt());
+			final List<SingleAccountBalances> upserts = new ArrayList<>();
+			final List<AccountID> removals = new ArrayList<>();
+			for (byte tag = in.readByte(); tag != END_TAG; tag = in.readByte()) {
+				if (tag == UPSERT_TAG) {
+					final var bytes = new byte[in.readInt()];
+					in.readFully(bytes);
+					upserts.add(SingleAccountBalances.parseFrom(bytes));
+				} else if (tag == REMOVAL_TAG) {
+					removals.add(AccountID.newBuilder()
+							.setShardNum(in.readLong())
+							.setRealmNum(in.readLong())
+							.setAccountNum(in.readLong())
+							.build());
+				} else {
+					throw new IOException(String.format("Delta balances file '%s' has unknown tag %d!", file, tag));
+				}
+			}
+			return new BalancesDelta(base, at, upserts, removals);
+		}
+	}
+
+	static void writeHeader(DataOutputStream out, Instant baseConsensusTime, Instant consensusTime) throws IOException {
+		out.writeInt(CURRENT_VERSION);
+		out.writeLong(baseConsensusTime.getEpochSecond());
+		out.writeInt(baseConsensusTime.getNano());
+		out.writeLong(consensusTime.getEpochSecond());
+		out.writeInt(consensusTime.getNano());
+	}
+
+	static void writeUpsert(DataOutputStream out, SingleAccountBalances balances) throws IOException {
+		final var bytes = balances.toByteArray();
+		out.writeByte(UPSERT_TAG);
+		out.writeInt(bytes.length);
+		out.write(bytes);
+	}
+
+	static void writeRemoval(DataOutputStream out, AccountID id) throws IOException {
+		out.writeByte(REMOVAL_TAG);
+		out.writeLong(id.getShardNum());
+		out.writeLong(id.getRealmNum());
+		out.writeLong(id.getAccountNum());
+	}
+
+	static void writeEnd(DataOutputStream out) throws IOException {
+		out.writeByte(END_TAG);
+	}
+
+	public Instant getBaseConsensusTime() {
+		return baseConsensusTime;
+	}
+
+	public Instant getConsensusTime() {
+		return consensusTime;
+	}
+
+	public List<SingleAccountBalances> getUpserts() {
+		return upserts;
+	}
+
+	public List<AccountID> getRemovals() {
+		return removals;
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(BalancesDelta.class)
+				.add("baseConsensusTime", baseConsensusTime)
+				.add("consensusTime", consensusTime)
+				.add("numUpserts", upserts.size())
+				.add("numRemovals", removals.size())
+				.toString();
+	}
+}
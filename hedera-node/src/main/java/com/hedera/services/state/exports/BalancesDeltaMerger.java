@@ -0,0 +1,107 @@
+package com.hedera.services.state.exports;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.stream.proto.AllAccountBalances;
+import com.hedera.services.stream.proto.SingleAccountBalances;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.Timestamp;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.hedera.services.ledger.HederaLedger.ACCOUNT_ID_COMPARATOR;
+
+/**
+ * Reconstructs a full balances snapshot from a full {@code .pb} balances file and the chain of delta
+ * balances files exported after it.
+ *
+ * Usage: {@code BalancesDeltaMerger <base.pb> <delta>... <merged.pb>}
+ */
+public class BalancesDeltaMerger {
+	public static void main(String... args) throws IOException {
+		if (args.length < 3) {
+			System.out.println("Usage: BalancesDeltaMerger <base.pb> <delta>... <merged.pb>");
+			System.exit(1);
+		}
+		final AllAccountBalances base;
+		try (var fin = new FileInputStream(args[0])) {
+			base = AllAccountBalances.parseFrom(fin);
+		}
+		final List<BalancesDelta> deltas = new ArrayList<>();
+		for (int i = 1; i < args.length - 1; i++) {
+			deltas.add(BalancesDelta.readFrom(new File(args[i])));
+		}
+		final var merged = merge(base, deltas);
+		try (var fout = new FileOutputStream(args[args.length - 1])) {
+			merged.writeTo(fout);
+		}
+		System.out.println(String.format("Merged %d deltas into %d account balances @ %s",
+				deltas.size(), merged.getAllAccountsCount(), asInstant(merged.getConsensusTimestamp())));
+	}
+
+	/**
+	 * Applies the given deltas, in order, to the given full balances snapshot.
+	 *
+	 * @param base the full snapshot
+	 * @param deltas the deltas exported after the snapshot, in consensus order
+	 * @return the full snapshot at the consensus time of the last delta
+	 * @throws IllegalArgumentException if a delta is not based on the snapshot or delta before it
+	 */
+	public static AllAccountBalances merge(AllAccountBalances base, List<BalancesDelta> deltas) {
+		final Map<AccountID, SingleAccountBalances> balances = new TreeMap<>(ACCOUNT_ID_COMPARATOR);
+		for (var single : base.getAllAccountsList()) {
+			balances.put(single.getAccountID(), single);
+		}
+		var consensusTime = asInstant(base.getConsensusTimestamp());
+		for (var delta : deltas) {
+			if (!delta.getBaseConsensusTime().equals(consensusTime)) {
+				throw new IllegalArgumentException(String.format(
+						"Delta @ %s is based on %s, not %s!",
+						delta.getConsensusTime(), delta.getBaseConsensusTime(), consensusTime));
+			}
+			for (var single : delta.getUpserts()) {
+				balances.put(single.getAccountID(), single);
+			}
+			for (var id : delta.getRemovals()) {
+				balances.remove(id);
+			}
+			consensusTime = delta.getConsensusTime();
+		}
+		return AllAccountBalances.newBuilder()
+				.setConsensusTimestamp(Timestamp.newBuilder()
+						.setSeconds(consensusTime.getEpochSecond())
+						.setNanos(consensusTime.getNano()))
+				.addAllAllAccounts(balances.values())
+				.build();
+	}
+
+	private static Instant asInstant(Timestamp timestamp) {
+		return Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos());
+	}
+}
@@ -20,6 +20,7 @@ package com.hedera.services.state.exports;
  * ‍
  */
 
+import com.google.protobuf.CodedOutputStream;
 import com.hedera.services.ServicesState;
 import com.hedera.services.context.properties.GlobalDynamicProperties;
 import com.hedera.services.context.properties.PropertySource;
@@ -28,10 +29,13 @@ import com.hedera.services.state.merkle.MerkleEntityAssociation;
 import com.hedera.services.state.merkle.MerkleEntityId;
 import com.hedera.services.state.merkle.MerkleToken;
 import com.hedera.services.state.merkle.MerkleTokenRelStatus;
+import com.hedera.services.stats.MiscRunningAvgs;
 import com.hedera.services.stream.proto.AllAccountBalances;
 import com.hedera.services.stream.proto.SingleAccountBalances;
 import com.hedera.services.stream.proto.TokenUnitBalance;
+import com.hedera.services.utils.JvmSystemExits;
 import com.hedera.services.utils.MiscUtils;
+import com.hedera.services.utils.SystemExits;
 import com.hederahashgraph.api.proto.java.AccountID;
 import com.hederahashgraph.api.proto.java.Timestamp;
 import com.hederahashgraph.api.proto.java.TokenBalance;
@@ -43,27 +47,67 @@ import org.apache.commons.lang3.time.StopWatch;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+import java.io.BufferedOutputStream;
 import java.io.BufferedWriter;
+import java.io.DataOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Writer;
-import java.math.BigInteger;
 import java.nio.file.Files;
 import java.nio.file.Paths;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
 import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.UnaryOperator;
 
 import static com.hedera.services.ledger.HederaLedger.ACCOUNT_ID_COMPARATOR;
-import static com.hedera.services.state.merkle.MerkleEntityAssociation.fromAccountTokenRel;
+import static com.hedera.services.state.merkle.MerkleEntityAssociation.fromAccountCodeTokenRel;
+import static com.hedera.services.state.merkle.MerkleEntityId.fromAccountId;
 import static com.hedera.services.state.merkle.MerkleEntityId.fromTokenId;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.codeFromIds;
 import static com.hedera.services.utils.EntityIdUtils.readableId;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.Executors.newSingleThreadExecutor;
 
+/**
+ * Exports the account balances in a signed state as a protobuf {@code .pb} file and a CSV {@code .csv}
+ * file, each with a signature file.
+ *
+ * The export runs on a background thread, so the platform's {@code newSignedState} callback returns
+ * immediately; the signed state is reserved (via its reference count) until the export finishes. Accounts
+ * are visited once, in id order, and each account's balances are streamed to both files as soon as they
+ * are computed, so heap usage does not grow with the number of accounts. Each file's SHA-384 hash is
+ * computed while it is written, instead of re-reading the file before signing it.
+ *
+ * The sorted account ids are summarized in windows of {@link #SUMMARY_WINDOW_SIZE}; each window is
+ * partitioned across a fork/join pool whose tasks sum their hbar balances in a {@code long} with an
+ * overflow check, so that summarization time scales with the number of cores.
+ *
+ * If an export is still running when the next one is due, the next one is skipped.
+ *
+ * When {@code balances.deltaExportsPerFullExport} is positive, up to that many exports after each full
+ * export are instead written as a signed {@link BalancesDelta} file, containing only the accounts that the
+ * {@link BalanceChangeTracker} saw change since the previous export. A full export is written instead
+ * whenever the previous export failed, some changes may not have been tracked, or something changed that
+ * affects the exported balances of untracked accounts (a token was deleted, or token balance export was
+ * toggled). {@link BalancesDeltaMerger} reconstructs a full snapshot from a full export and its deltas.
+ */
 public class SignedStateBalancesExporter implements BalancesExporter {
 	private static final Logger log = LogManager.getLogger(SignedStateBalancesExporter.class);
 
@@ -74,41 +118,77 @@ public class SignedStateBalancesExporter implements BalancesExporter {
 	static final String BAD_EXPORT_DIR_ERROR_MSG_TPL = "Cannot ensure existence of export dir '{}'!";
 	static final String LOW_NODE_BALANCE_WARN_MSG_TPL = "Node '{}' has unacceptably low balance {}!";
 	static final String GOOD_SIGNING_ATTEMPT_DEBUG_MSG_TPL = "Created balance signature file '{}'.";
+	static final String BAD_TOTAL_FLOAT_ERROR_MSG_TPL = "Signed state @ {} had total balance {} not {}!";
+	static final String OVERFLOWING_TOTAL_FLOAT_ERROR_MSG_TPL =
+			"Signed state @ {} had total balance overflowing a long!";
+	static final String EXPORT_IN_PROGRESS_WARN_MSG_TPL =
+			"Skipping balances export @ {}, the previous export is still in progress!";
 	static final String CURRENT_VERSION = "version:2";
 
 	private static final String PROTO_FILE_EXTENSION = ".pb";
 	private static final String CSV_FILE_EXTENSION = ".csv";
+	static final String DELTA_FILE_EXTENSION = ".delta";
 
 	private static final Instant NEVER = null;
 	private static final int ALLOWED_EXPORT_TIME_SKEW = 1;
 	private static final Base64.Encoder encoder = Base64.getEncoder();
 
+	static final int PROGRESS_LOG_INTERVAL = 1_000_000;
+	/* Accounts summarized (in parallel) before their balances are written, bounding heap usage */
+	static final int SUMMARY_WINDOW_SIZE = 65_536;
+	/* Accounts summarized sequentially by a single fork/join task */
+	static final int SEQUENTIAL_SUMMARY_THRESHOLD = 1_024;
+
 	final long expectedFloat;
 	private final UnaryOperator<byte[]> signer;
+	private final MiscRunningAvgs runningAvgs;
 	private final GlobalDynamicProperties dynamicProperties;
+	private final BalanceChangeTracker changeTracker;
+	private final AtomicBoolean exportInProgress = new AtomicBoolean(false);
 
 	/* Used to toggle output for testing. */
 	boolean exportCsv = true, exportProto = true;
 	SigFileWriter sigFileWriter = new StandardSigFileWriter();
-	FileHashReader hashReader = new Sha384HashReader();
+	SystemExits systemExits = new JvmSystemExits();
 	DirectoryAssurance directories = loc -> Files.createDirectories(Paths.get(loc));
+	ForkJoinPool summaryPool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+	Executor exportExecutor = newSingleThreadExecutor(runnable -> {
+		final var thread = new Thread(runnable, "balancesExporter");
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	private String lastUsedExportDir = UNKNOWN_EXPORT_DIR;
-	private BalancesSummary summary;
+
+	/* The last export that a delta can be based on; only changed by the export thread */
+	private volatile Instant lastBaseStateTime = null;
+	private Instant lastBaseConsensusTime = null;
+	private boolean lastBaseHadTokenBalances;
+	private long lastBaseNumDeletedTokens;
+	private int deltasSinceFullExport = 0;
 
 	Instant periodBegin = NEVER;
 
 	static final Comparator<SingleAccountBalances> SINGLE_ACCOUNT_BALANCES_COMPARATOR =
 			Comparator.comparing(SingleAccountBalances::getAccountID, ACCOUNT_ID_COMPARATOR);
+	/* Same order as ACCOUNT_ID_COMPARATOR, without creating an AccountID per comparison */
+	static final Comparator<MerkleEntityId> ACCOUNT_KEY_COMPARATOR = Comparator
+			.comparingLong(MerkleEntityId::getNum)
+			.thenComparingLong(MerkleEntityId::getShard)
+			.thenComparingLong(MerkleEntityId::getRealm);
 
 	public SignedStateBalancesExporter(
 			PropertySource properties,
 			UnaryOperator<byte[]> signer,
-			GlobalDynamicProperties dynamicProperties
+			GlobalDynamicProperties dynamicProperties,
+			MiscRunningAvgs runningAvgs,
+			BalanceChangeTracker changeTracker
 	) {
 		this.signer = signer;
 		this.expectedFloat = properties.getLongProperty("ledger.totalTinyBarFloat");
 		this.dynamicProperties = dynamicProperties;
+		this.runningAvgs = runningAvgs;
+		this.changeTracker = changeTracker;
 	}
 
 	@Override
@@ -127,173 +207,244 @@ public class SignedStateBalancesExporter implements BalancesExporter {
 		return false;
 	}
 
-
 	@Override
 	public void exportBalancesFrom(ServicesState signedState, Instant consensusTime, NodeId nodeId) {
 		if (!ensureExportDir(signedState.getAccountFromNodeId(nodeId))) {
 			return;
 		}
-		var watch = StopWatch.createStarted();
-		summary = summarized(signedState);
-		var expected = BigInteger.valueOf(expectedFloat);
-		if (!expected.equals(summary.getTotalFloat())) {
-			throw new IllegalStateException(String.format(
-					"Signed state @ %s had total balance %d not %d!",
-					consensusTime, summary.getTotalFloat(), expectedFloat));
-		}
-		log.info("Took {}ms to summarize signed state balances", watch.getTime(TimeUnit.MILLISECONDS));
-
-		// .pb account balances file is our focus, process it first to let its timestamp to stay close to
-		// epoch export period boundary
-		if (exportProto) {
-			toProtoFile(consensusTime);
-		}
-		if (exportCsv) {
-			toCsvFile(consensusTime);
+		if (!exportInProgress.compareAndSet(false, true)) {
+			log.warn(EXPORT_IN_PROGRESS_WARN_MSG_TPL, consensusTime);
+			return;
 		}
+		final var exportDir = lastUsedExportDir;
+		final var changes = changeTracker.drainChangesSince(lastBaseStateTime, lastHandledTimeIn(signedState));
+		signedState.incrementReferenceCount();
+		exportExecutor.execute(() -> {
+			try {
+				export(signedState, consensusTime, exportDir, changes);
+			} catch (Exception unexpected) {
+				log.error("Balances export @ {} failed unexpectedly", consensusTime, unexpected);
+			} finally {
+				signedState.decrementReferenceCount();
+				exportInProgress.set(false);
+			}
+		});
 	}
 
-	private void toCsvFile(Instant exportTimeStamp) {
-		var watch = StopWatch.createStarted();
-
-		var csvLoc = lastUsedExportDir
-				+ exportTimeStamp.toString().replace(":", "_") + "_Balances" + CSV_FILE_EXTENSION;
-		boolean exportSucceeded = exportBalancesFile(summary, csvLoc, exportTimeStamp);
-		if (exportSucceeded) {
-			tryToSign(csvLoc);
+	private void export(
+			ServicesState signedState,
+			Instant consensusTime,
+			String exportDir,
+			Optional<Set<AccountID>> changes
+	) {
+		final var locPrefix = exportDir + consensusTime.toString().replace(":", "_") + "_Balances";
+		final var withTokens = dynamicProperties.shouldExportTokenBalances();
+		final int deltasPerFullExport = dynamicProperties.balancesDeltaExportsPerFullExport();
+		final long numDeletedTokens = deltasPerFullExport > 0 ? numDeletedTokensIn(signedState) : 0L;
+
+		final boolean canExportDelta = changes.isPresent()
+				&& lastBaseConsensusTime != null
+				&& deltasSinceFullExport < deltasPerFullExport
+				&& lastBaseHadTokenBalances == withTokens
+				&& lastBaseNumDeletedTokens == numDeletedTokens;
+		final boolean baseWritten;
+		if (canExportDelta) {
+			baseWritten = exportDelta(signedState, consensusTime, locPrefix, changes.get());
+			deltasSinceFullExport++;
+		} else {
+			baseWritten = exportFull(signedState, consensusTime, locPrefix) && exportProto;
+			deltasSinceFullExport = 0;
 		}
 
-		log.info(" -> Took {}ms to export and sign CSV balances file at {}", watch.getTime(TimeUnit.MILLISECONDS), exportTimeStamp);
+		if (baseWritten) {
+			lastBaseConsensusTime = consensusTime;
+			lastBaseHadTokenBalances = withTokens;
+			lastBaseNumDeletedTokens = numDeletedTokens;
+			lastBaseStateTime = lastHandledTimeIn(signedState);
+		} else {
+			lastBaseConsensusTime = null;
+			lastBaseStateTime = null;
+		}
 	}
 
-	private void toProtoFile(Instant exportTimeStamp) {
-		var watch = StopWatch.createStarted();
+	private boolean exportFull(ServicesState signedState, Instant consensusTime, String locPrefix) {
+		final var watch = StopWatch.createStarted();
 
-		var builder = AllAccountBalances.newBuilder();
-		summarizeAsProto(exportTimeStamp, builder);
-		var protoLoc = lastUsedExportDir
-				+ exportTimeStamp.toString().replace(":", "_") + "_Balances" + PROTO_FILE_EXTENSION;
-		boolean exportSucceeded = exportBalancesProtoFile(builder, protoLoc);
-		if (exportSucceeded) {
-			tryToSign(protoLoc);
+		/* The .pb account balances file is our focus, so it is opened (and thus timestamped) first. */
+		final List<BalancesFile> files = new ArrayList<>();
+		if (exportProto) {
+			openAndAdd(files, () -> new ProtoBalancesFile(locPrefix + PROTO_FILE_EXTENSION));
 		}
+		if (exportCsv) {
+			final var withTokens = dynamicProperties.shouldExportTokenBalances();
+			openAndAdd(files, () -> new CsvBalancesFile(locPrefix + CSV_FILE_EXTENSION, withTokens));
+		}
+		files.forEach(file -> file.tryTo(() -> file.writeHeader(consensusTime)));
 
-		log.info(" -> Took {}ms to export and sign proto balances file at {}", watch.getTime(TimeUnit.MILLISECONDS), exportTimeStamp);
-	}
-
-	private void tryToSign(String csvLoc) {
+		long totalFloat;
 		try {
-			var hash = hashReader.readHash(csvLoc);
-			var sig = signer.apply(hash);
-			var sigFileLoc = sigFileWriter.writeSigFile(csvLoc, sig, hash);
-			if (log.isDebugEnabled()) {
-				log.debug(GOOD_SIGNING_ATTEMPT_DEBUG_MSG_TPL, sigFileLoc);
+			totalFloat = streamBalances(signedState, files);
+		} catch (ArithmeticException overflow) {
+			log.error(OVERFLOWING_TOTAL_FLOAT_ERROR_MSG_TPL, consensusTime);
+			failOn(files);
+			return false;
+		}
+		files.forEach(BalancesFile::finish);
+		if (totalFloat != expectedFloat) {
+			log.error(BAD_TOTAL_FLOAT_ERROR_MSG_TPL, consensusTime, totalFloat, expectedFloat);
+			failOn(files);
+			return false;
+		}
+
+		boolean allOk = true;
+		for (var file : files) {
+			if (file.isOk()) {
+				tryToSign(file.loc, file.digest.digest());
+			} else {
+				allOk = false;
 			}
-		} catch (Exception e) {
-			log.error(BAD_SIGNING_ATTEMPT_ERROR_MSG_TPL, csvLoc, e);
 		}
+		final long elapsedMs = watch.getTime(TimeUnit.MILLISECONDS);
+		runningAvgs.recordBalancesExportMs(elapsedMs);
+		log.info("Took {}ms to export and sign balances files @ {}", elapsedMs, consensusTime);
+		return allOk && !files.isEmpty();
 	}
 
-	private boolean exportBalancesFile(BalancesSummary summary, String csvLoc, Instant when) {
-		try (BufferedWriter fout = Files.newBufferedWriter(Paths.get(csvLoc))) {
-			if (dynamicProperties.shouldExportTokenBalances()) {
-				addRelease090Header(fout, when);
+	private boolean exportDelta(
+			ServicesState signedState,
+			Instant consensusTime,
+			String locPrefix,
+			Set<AccountID> changed
+	) {
+		final var watch = StopWatch.createStarted();
+		final var loc = locPrefix + DELTA_FILE_EXTENSION;
+		final DeltaBalancesFile file;
+		try {
+			file = new DeltaBalancesFile(loc, lastBaseConsensusTime);
+		} catch (IOException e) {
+			return false;
+		}
+		file.tryTo(() -> file.writeHeader(consensusTime));
+
+		final var inputs = new SummaryInputs(
+				signedState,
+				dynamicProperties.nodeBalanceWarningThreshold(),
+				dynamicProperties.shouldExportTokenBalances());
+		final List<AccountID> ids = new ArrayList<>(changed);
+		ids.sort(ACCOUNT_ID_COMPARATOR);
+		for (var id : ids) {
+			final var account = inputs.accounts.get(fromAccountId(id));
+			if (account == null || account.isDeleted()) {
+				file.tryTo(() -> file.writeRemoval(id));
 			} else {
-				addLegacyHeader(fout, when);
-			}
-			for (SingleAccountBalances singleAccountBalances : summary.getOrderedBalances()) {
-				fout.write(Long.toString(singleAccountBalances.getAccountID().getShardNum()));
-				fout.write(",");
-				fout.write(Long.toString(singleAccountBalances.getAccountID().getRealmNum()));
-				fout.write(",");
-				fout.write(Long.toString(singleAccountBalances.getAccountID().getAccountNum()));
-				fout.write(",");
-				fout.write(Long.toString(singleAccountBalances.getHbarBalance()));
-				if (dynamicProperties.shouldExportTokenBalances()) {
-					if (singleAccountBalances.getTokenUnitBalancesList().size() > 0) {
-						fout.write(",");
-						fout.write(b64Encode(singleAccountBalances));
-					} else {
-						fout.write(",");
-					}
-				}
-				fout.write(LINE_SEPARATOR);
+				final var balances = summaryOf(id, account, inputs);
+				file.tryTo(() -> file.writeBalances(balances));
 			}
-		} catch (IOException e) {
-			log.error(BAD_EXPORT_ATTEMPT_ERROR_MSG_TPL, csvLoc, e);
+		}
+		file.finish();
+		if (!file.isOk()) {
 			return false;
 		}
+
+		tryToSign(loc, file.digest.digest());
+		final long elapsedMs = watch.getTime(TimeUnit.MILLISECONDS);
+		runningAvgs.recordBalancesExportMs(elapsedMs);
+		log.info("Took {}ms to export and sign delta balances file with {} changed accounts @ {}",
+				elapsedMs, ids.size(), consensusTime);
 		return true;
 	}
 
-	private void summarizeAsProto(Instant exportTimeStamp, AllAccountBalances.Builder builder) {
-		builder.setConsensusTimestamp(Timestamp.newBuilder()
-				.setSeconds(exportTimeStamp.getEpochSecond())
-				.setNanos(exportTimeStamp.getNano()));
-		builder.addAllAllAccounts(summary.getOrderedBalances());
+	private long numDeletedTokensIn(ServicesState signedState) {
+		long numDeleted = 0L;
+		for (var token : signedState.tokens().values()) {
+			if (token.isDeleted()) {
+				numDeleted++;
+			}
+		}
+		return numDeleted;
 	}
 
-	private boolean exportBalancesProtoFile(AllAccountBalances.Builder allAccountsBuilder, String protoLoc) {
-		try (FileOutputStream fout = new FileOutputStream(protoLoc)) {
-			allAccountsBuilder.build().writeTo(fout);
-		} catch (IOException e) {
-			log.error(BAD_EXPORT_ATTEMPT_ERROR_MSG_TPL, protoLoc, e);
-			return false;
+	private static Instant lastHandledTimeIn(ServicesState signedState) {
+		return Optional.ofNullable(signedState.networkCtx().consensusTimeOfLastHandledTxn()).orElse(Instant.EPOCH);
+	}
+
+	private long streamBalances(ServicesState signedState, List<BalancesFile> files) {
+		final var watch = StopWatch.createStarted();
+		final var inputs = new SummaryInputs(
+				signedState,
+				dynamicProperties.nodeBalanceWarningThreshold(),
+				dynamicProperties.shouldExportTokenBalances());
+
+		final var ids = inputs.accounts.keySet().toArray(new MerkleEntityId[0]);
+		Arrays.parallelSort(ids, ACCOUNT_KEY_COMPARATOR);
+		final long sortMs = watch.getTime(TimeUnit.MILLISECONDS);
+
+		long totalFloat = 0L;
+		long summarizeNanos = 0L;
+		long writeNanos = 0L;
+		for (int from = 0; from < ids.length; from += SUMMARY_WINDOW_SIZE) {
+			final int to = Math.min(ids.length, from + SUMMARY_WINDOW_SIZE);
+
+			long start = System.nanoTime();
+			final var partial = summaryPool.invoke(new SummaryTask(inputs, ids, from, to));
+			totalFloat = Math.addExact(totalFloat, partial.totalFloat);
+			summarizeNanos += System.nanoTime() - start;
+
+			start = System.nanoTime();
+			for (var balances : partial.orderedBalances) {
+				for (var file : files) {
+					file.tryTo(() -> file.writeBalances(balances));
+				}
+			}
+			writeNanos += System.nanoTime() - start;
+
+			if (to / PROGRESS_LOG_INTERVAL > from / PROGRESS_LOG_INTERVAL) {
+				log.info(" -> Exported {} of {} accounts in {}ms",
+						to, ids.length, watch.getTime(TimeUnit.MILLISECONDS));
+			}
 		}
-		return true;
+		log.info("Took {}ms to order {} accounts, {}ms to summarize them (parallelism {}), and {}ms to write them",
+				sortMs,
+				ids.length,
+				TimeUnit.NANOSECONDS.toMillis(summarizeNanos),
+				summaryPool.getParallelism(),
+				TimeUnit.NANOSECONDS.toMillis(writeNanos));
+		return totalFloat;
 	}
 
-	private void addLegacyHeader(Writer writer, Instant at) throws IOException {
-		writer.write("TimeStamp:");
-		writer.write(at.toString());
-		writer.write(LINE_SEPARATOR);
-		writer.write("shardNum,realmNum,accountNum,balance");
-		writer.write(LINE_SEPARATOR);
+	private void failOn(List<BalancesFile> invalidFiles) {
+		invalidFiles.forEach(BalancesFile::discard);
+		systemExits.fail(1);
 	}
 
-	private void addRelease090Header(Writer writer, Instant at) throws IOException {
-		writer.write("# ");
-		writer.write(CURRENT_VERSION);
-		writer.write(LINE_SEPARATOR);
-		writer.write("# TimeStamp:");
-		writer.write(at.toString());
-		writer.write(LINE_SEPARATOR);
-		writer.write("shardNum,realmNum,accountNum,balance,tokenBalances");
-		writer.write(LINE_SEPARATOR);
+	private void openAndAdd(List<BalancesFile> files, IoSupplier<BalancesFile> opener) {
+		try {
+			files.add(opener.get());
+		} catch (IOException e) {
+			/* The file constructors log their own location on failure. */
+		}
 	}
 
-	BalancesSummary summarized(ServicesState signedState) {
-		long nodeBalanceWarnThreshold = dynamicProperties.nodeBalanceWarningThreshold();
-		BigInteger totalFloat = BigInteger.valueOf(0L);
-		List<SingleAccountBalances> accountBalances = new ArrayList<>();
-
-		var nodeIds = MiscUtils.getNodeAccounts(signedState.addressBook());
-		var tokens = signedState.tokens();
-		var accounts = signedState.accounts();
-		var tokenAssociations = signedState.tokenAssociations();
-		for (var entry : accounts.entrySet()) {
-			var id = entry.getKey();
-			var account = entry.getValue();
-			if (!account.isDeleted()) {
-				var accountId = id.toAccountId();
-				var balance = account.getBalance();
-				if (nodeIds.contains(accountId) && balance < nodeBalanceWarnThreshold) {
-					log.warn(LOW_NODE_BALANCE_WARN_MSG_TPL,
-							readableId(accountId),
-							balance);
-				}
-				totalFloat = totalFloat.add(BigInteger.valueOf(account.getBalance()));
-				SingleAccountBalances.Builder sabBuilder = SingleAccountBalances.newBuilder();
-				sabBuilder.setHbarBalance(balance)
-						.setAccountID(accountId);
-				if (dynamicProperties.shouldExportTokenBalances()) {
-					addTokenBalances(accountId, account, sabBuilder, tokens, tokenAssociations);
-				}
-				accountBalances.add(sabBuilder.build());
+	private void tryToSign(String loc, byte[] hash) {
+		try {
+			var sig = signer.apply(hash);
+			var sigFileLoc = sigFileWriter.writeSigFile(loc, sig, hash);
+			if (log.isDebugEnabled()) {
+				log.debug(GOOD_SIGNING_ATTEMPT_DEBUG_MSG_TPL, sigFileLoc);
 			}
+		} catch (Exception e) {
+			log.error(BAD_SIGNING_ATTEMPT_ERROR_MSG_TPL, loc, e);
 		}
-		accountBalances.sort(SINGLE_ACCOUNT_BALANCES_COMPARATOR);
-		return new BalancesSummary(totalFloat, accountBalances);
+	}
+
+	private SingleAccountBalances summaryOf(AccountID accountId, MerkleAccount account, SummaryInputs inputs) {
+		final var sabBuilder = SingleAccountBalances.newBuilder()
+				.setHbarBalance(account.getBalance())
+				.setAccountID(accountId);
+		if (inputs.withTokens) {
+			addTokenBalances(accountId, account, sabBuilder, inputs.tokens, inputs.tokenAssociations);
+		}
+		return sabBuilder.build();
 	}
 
 	private void addTokenBalances(
@@ -304,10 +455,11 @@ public class SignedStateBalancesExporter implements BalancesExporter {
 			FCMap<MerkleEntityAssociation, MerkleTokenRelStatus> tokenAssociations
 	) {
 		var accountTokens = account.tokens();
+		final var accountCode = codeFromIds(id.getShardNum(), id.getRealmNum(), id.getAccountNum());
 		for (TokenID tokenId : accountTokens.asTokenIds()) {
 			var token = tokens.get(fromTokenId(tokenId));
 			if (token != null && !token.isDeleted()) {
-				var relationship = tokenAssociations.get(fromAccountTokenRel(id, tokenId));
+				var relationship = tokenAssociations.get(fromAccountCodeTokenRel(accountCode, tokenId));
 				sabBuilder.addTokenUnitBalances(tb(tokenId, relationship.getBalance()));
 			}
 		}
@@ -347,25 +499,300 @@ public class SignedStateBalancesExporter implements BalancesExporter {
 		return true;
 	}
 
-	static class BalancesSummary {
-		private final BigInteger totalFloat;
+	private static class SummaryInputs {
+		private final long nodeBalanceWarnThreshold;
+		private final boolean withTokens;
+		private final Set<AccountID> nodeIds;
+		private final FCMap<MerkleEntityId, MerkleToken> tokens;
+		private final FCMap<MerkleEntityId, MerkleAccount> accounts;
+		private final FCMap<MerkleEntityAssociation, MerkleTokenRelStatus> tokenAssociations;
+
+		SummaryInputs(ServicesState signedState, long nodeBalanceWarnThreshold, boolean withTokens) {
+			this.withTokens = withTokens;
+			this.nodeBalanceWarnThreshold = nodeBalanceWarnThreshold;
+			this.nodeIds = MiscUtils.getNodeAccounts(signedState.addressBook());
+			this.tokens = signedState.tokens();
+			this.accounts = signedState.accounts();
+			this.tokenAssociations = signedState.tokenAssociations();
+		}
+	}
+
+	private static class PartialSummary {
+		private final long totalFloat;
 		private final List<SingleAccountBalances> orderedBalances;
 
-		BalancesSummary(
-				BigInteger totalFloat,
-				List<SingleAccountBalances> orderedBalances
-		) {
+		PartialSummary(long totalFloat, List<SingleAccountBalances> orderedBalances) {
 			this.totalFloat = totalFloat;
 			this.orderedBalances = orderedBalances;
 		}
+	}
 
-		public BigInteger getTotalFloat() {
-			return totalFloat;
+	/**
+	 * Summarizes the accounts with ids in a range of a sorted array, splitting the range in half until it
+	 * is small enough to summarize sequentially. Since the halves are contiguous, merging their sorted
+	 * balances is just concatenation; their floats are added with an overflow check.
+	 */
+	private class SummaryTask extends RecursiveTask<PartialSummary> {
+		private final SummaryInputs inputs;
+		private final MerkleEntityId[] ids;
+		private final int from;
+		private final int to;
+
+		SummaryTask(SummaryInputs inputs, MerkleEntityId[] ids, int from, int to) {
+			this.inputs = inputs;
+			this.ids = ids;
+			this.from = from;
+			this.to = to;
 		}
 
-		public List<SingleAccountBalances> getOrderedBalances() {
-			return orderedBalances;
+		@Override
+		protected PartialSummary compute() {
+			if (to - from <= SEQUENTIAL_SUMMARY_THRESHOLD) {
+				return summarizeSequentially();
+			}
+			final int mid = (from + to) >>> 1;
+			final var left = new SummaryTask(inputs, ids, from, mid);
+			left.fork();
+			final var rightSummary = new SummaryTask(inputs, ids, mid, to).compute();
+			final var leftSummary = left.join();
+			final List<SingleAccountBalances> merged =
+					new ArrayList<>(leftSummary.orderedBalances.size() + rightSummary.orderedBalances.size());
+			merged.addAll(leftSummary.orderedBalances);
+			merged.addAll(rightSummary.orderedBalances);
+			return new PartialSummary(Math.addExact(leftSummary.totalFloat, rightSummary.totalFloat), merged);
+		}
+
+		private PartialSummary summarizeSequentially() {
+			long partialFloat = 0L;
+			final List<SingleAccountBalances> orderedBalances = new ArrayList<>(to - from);
+			for (int i = from; i < to; i++) {
+				final var id = ids[i];
+				final var account = inputs.accounts.get(id);
+				if (account.isDeleted()) {
+					continue;
+				}
+				final var accountId = id.toAccountId();
+				final var balance = account.getBalance();
+				if (inputs.nodeIds.contains(accountId) && balance < inputs.nodeBalanceWarnThreshold) {
+					log.warn(LOW_NODE_BALANCE_WARN_MSG_TPL,
+							readableId(accountId),
+							balance);
+				}
+				partialFloat = Math.addExact(partialFloat, balance);
+				orderedBalances.add(summaryOf(accountId, account, inputs));
+			}
+			return new PartialSummary(partialFloat, orderedBalances);
 		}
 	}
-}
 
+	static MessageDigest sha384() {
+		try {
+			return MessageDigest.getInstance("SHA-384");
+		} catch (NoSuchAlgorithmException impossible) {
+			throw new IllegalStateException("SHA-384 not supported by Java API!");
+		}
+	}
+
+	@FunctionalInterface
+	private interface IoSupplier<T> {
+		T get() throws IOException;
+	}
+
+	@FunctionalInterface
+	private interface IoAction {
+		void run() throws IOException;
+	}
+
+	/**
+	 * A balances file being streamed to disk, hashed as it is written. After the first I/O error the
+	 * file is closed and all further writes are ignored, so that one bad file does not stop the export
+	 * of the other.
+	 */
+	private abstract static class BalancesFile {
+		private final String loc;
+		private final MessageDigest digest = sha384();
+		protected final OutputStream fout;
+		private boolean ok = true;
+
+		BalancesFile(String loc) throws IOException {
+			this.loc = loc;
+			try {
+				fout = new DigestOutputStream(new BufferedOutputStream(new FileOutputStream(loc)), digest);
+			} catch (IOException e) {
+				log.error(BAD_EXPORT_ATTEMPT_ERROR_MSG_TPL, loc, e);
+				throw e;
+			}
+		}
+
+		abstract void writeHeader(Instant consensusTime) throws IOException;
+
+		abstract void writeBalances(SingleAccountBalances balances) throws IOException;
+
+		abstract void close() throws IOException;
+
+		boolean isOk() {
+			return ok;
+		}
+
+		void tryTo(IoAction action) {
+			if (!ok) {
+				return;
+			}
+			try {
+				action.run();
+			} catch (IOException e) {
+				log.error(BAD_EXPORT_ATTEMPT_ERROR_MSG_TPL, loc, e);
+				ok = false;
+				closeQuietly();
+			}
+		}
+
+		void finish() {
+			if (ok) {
+				tryTo(this::close);
+			}
+		}
+
+		void discard() {
+			closeQuietly();
+			new File(loc).delete();
+			ok = false;
+		}
+
+		private void closeQuietly() {
+			try {
+				close();
+			} catch (IOException ignore) {
+				/* Already reported, or already closed. */
+			}
+		}
+	}
+
+	private static class ProtoBalancesFile extends BalancesFile {
+		private final CodedOutputStream out;
+
+		ProtoBalancesFile(String loc) throws IOException {
+			super(loc);
+			out = CodedOutputStream.newInstance(fout);
+		}
+
+		/* Same encoding as AllAccountBalances.writeTo(), one repeated field element at a time. */
+		@Override
+		void writeHeader(Instant consensusTime) throws IOException {
+			out.writeMessage(AllAccountBalances.CONSENSUSTIMESTAMP_FIELD_NUMBER, Timestamp.newBuilder()
+					.setSeconds(consensusTime.getEpochSecond())
+					.setNanos(consensusTime.getNano())
+					.build());
+		}
+
+		@Override
+		void writeBalances(SingleAccountBalances balances) throws IOException {
+			out.writeMessage(AllAccountBalances.ALLACCOUNTS_FIELD_NUMBER, balances);
+		}
+
+		@Override
+		void close() throws IOException {
+			try {
+				out.flush();
+			} finally {
+				fout.close();
+			}
+		}
+	}
+
+	private static class CsvBalancesFile extends BalancesFile {
+		private final Writer out;
+		private final boolean withTokens;
+
+		CsvBalancesFile(String loc, boolean withTokens) throws IOException {
+			super(loc);
+			this.withTokens = withTokens;
+			out = new BufferedWriter(new OutputStreamWriter(fout, UTF_8));
+		}
+
+		@Override
+		void writeHeader(Instant consensusTime) throws IOException {
+			if (withTokens) {
+				addRelease090Header(consensusTime);
+			} else {
+				addLegacyHeader(consensusTime);
+			}
+		}
+
+		@Override
+		void writeBalances(SingleAccountBalances balances) throws IOException {
+			out.write(Long.toString(balances.getAccountID().getShardNum()));
+			out.write(",");
+			out.write(Long.toString(balances.getAccountID().getRealmNum()));
+			out.write(",");
+			out.write(Long.toString(balances.getAccountID().getAccountNum()));
+			out.write(",");
+			out.write(Long.toString(balances.getHbarBalance()));
+			if (withTokens) {
+				out.write(",");
+				if (balances.getTokenUnitBalancesCount() > 0) {
+					out.write(b64Encode(balances));
+				}
+			}
+			out.write(LINE_SEPARATOR);
+		}
+
+		@Override
+		void close() throws IOException {
+			out.close();
+		}
+
+		private void addLegacyHeader(Instant at) throws IOException {
+			out.write("TimeStamp:");
+			out.write(at.toString());
+			out.write(LINE_SEPARATOR);
+			out.write("shardNum,realmNum,accountNum,balance");
+			out.write(LINE_SEPARATOR);
+		}
+
+		private void addRelease090Header(Instant at) throws IOException {
+			out.write("# ");
+			out.write(CURRENT_VERSION);
+			out.write(LINE_SEPARATOR);
+			out.write("# TimeStamp:");
+			out.write(at.toString());
+			out.write(LINE_SEPARATOR);
+			out.write("shardNum,realmNum,accountNum,balance,tokenBalances");
+			out.write(LINE_SEPARATOR);
+		}
+	}
+
+	private static class DeltaBalancesFile extends BalancesFile {
+		private final DataOutputStream out;
+		private final Instant baseConsensusTime;
+
+		DeltaBalancesFile(String loc, Instant baseConsensusTime) throws IOException {
+			super(loc);
+			this.baseConsensusTime = baseConsensusTime;
+			out = new DataOutputStream(fout);
+		}
+
+		@Override
+		void writeHeader(Instant consensusTime) throws IOException {
+			BalancesDelta.writeHeader(out, baseConsensusTime, consensusTime);
+		}
+
+		@Override
+		void writeBalances(SingleAccountBalances balances) throws IOException {
+			BalancesDelta.writeUpsert(out, balances);
+		}
+
+		void writeRemoval(AccountID id) throws IOException {
+			BalancesDelta.writeRemoval(out, id);
+		}
+
+		@Override
+		void close() throws IOException {
+			try {
+				BalancesDelta.writeEnd(out);
+			} finally {
+				out.close();
+			}
+		}
+	}
+}
@@ -27,6 +27,7 @@ import com.hedera.services.context.properties.PropertySource;
 import com.hedera.services.files.HFileMeta;
 import com.hedera.services.files.SysFileCallbacks;
 import com.hedera.services.files.TieredHederaFs;
+import com.hedera.services.files.sysfiles.ParsedSysFileCache;
 import com.hedera.services.legacy.core.jproto.JKey;
 import com.hedera.services.legacy.core.jproto.JKeyList;
 import com.hedera.services.sysfiles.serdes.ThrottlesJsonToProtoSerde;
@@ -61,6 +62,10 @@ import java.util.stream.LongStream;
 
 import static com.google.protobuf.TextFormat.escapeBytes;
 import static com.hedera.services.fees.bootstrap.JsonToProtoSerde.loadFeeScheduleFromJson;
+import static com.hedera.services.files.sysfiles.ParsedSysFileCache.CONFIG_LIST_KIND;
+import static com.hedera.services.files.sysfiles.ParsedSysFileCache.EXCHANGE_RATES_KIND;
+import static com.hedera.services.files.sysfiles.ParsedSysFileCache.FEE_SCHEDULES_KIND;
+import static com.hedera.services.files.sysfiles.ParsedSysFileCache.THROTTLE_DEFS_KIND;
 import static com.hedera.services.utils.EntityIdUtils.parseAccount;
 import static com.swirlds.common.Address.ipString;
 
@@ -83,6 +88,7 @@ public class HfsSystemFilesManager implements SystemFilesManager {
 	private final TieredHederaFs hfs;
 	private final Supplier<JKey> keySupplier;
 	private final SysFileCallbacks callbacks;
+	private final ParsedSysFileCache parsedSysFiles;
 
 	public HfsSystemFilesManager(
 			AddressBook currentBook,
@@ -90,10 +96,12 @@ public class HfsSystemFilesManager implements SystemFilesManager {
 			PropertySource properties,
 			TieredHederaFs hfs,
 			Supplier<JKey> keySupplier,
-			SysFileCallbacks callbacks
+			SysFileCallbacks callbacks,
+			ParsedSysFileCache parsedSysFiles
 	) {
 		this.hfs = hfs;
 		this.callbacks = callbacks;
+		this.parsedSysFiles = parsedSysFiles;
 		this.properties = properties;
 		this.currentBook = currentBook;
 		this.fileNumbers = fileNumbers;
@@ -135,6 +143,7 @@ public class HfsSystemFilesManager implements SystemFilesManager {
 		loadProtoWithSupplierFallback(
 				fileNumbers.exchangeRates(),
 				EXCHANGE_RATES_SYS_FILE_NAME,
+				EXCHANGE_RATES_KIND,
 				callbacks.exchangeRatesCb(),
 				ExchangeRateSet::parseFrom,
 				() -> defaultRates().toByteArray());
@@ -145,6 +154,7 @@ public class HfsSystemFilesManager implements SystemFilesManager {
 		loadProtoWithSupplierFallback(
 				fileNumbers.feeSchedules(),
 				FEE_SCHEDULES_SYS_FILE_NAME,
+				FEE_SCHEDULES_KIND,
 				callbacks.feeSchedulesCb(),
 				CurrentAndNextFeeSchedule::parseFrom,
 				() -> defaultSchedules().toByteArray());
@@ -155,6 +165,7 @@ public class HfsSystemFilesManager implements SystemFilesManager {
 		loadProtoWithSupplierFallback(
 				fileNumbers.throttleDefinitions(),
 				THROTTLE_DEFINITIONS_SYS_FILE_NAME,
+				THROTTLE_DEFS_KIND,
 				callbacks.throttlesCb(),
 				ThrottleDefinitions::parseFrom,
 				() -> defaultThrottles().toByteArray());
@@ -188,20 +199,15 @@ public class HfsSystemFilesManager implements SystemFilesManager {
 		byte[] get() throws Exception;
 	}
 
-	@FunctionalInterface
-	private interface GrpcParser<T> {
-		T parseFrom(byte[] data) throws InvalidProtocolBufferException;
-	}
-
 	@FunctionalInterface
 	private interface ThrowingStreamProvider {
 		InputStream get() throws IOException;
 	}
 
-	private <T> T loadFrom(FileID disFid, String resource, GrpcParser<T> parser) {
+	private <T> T loadFrom(FileID disFid, String resource, String kind, ParsedSysFileCache.Parser<T> parser) {
 		final byte[] contents = hfs.cat(disFid);
 		try {
-			return parser.parseFrom(hfs.cat(disFid));
+			return parsedSysFiles.parse(kind, contents, parser);
 		} catch (InvalidProtocolBufferException e) {
 			log.error("Corrupt {} in saved state ({}), unable to continue!", resource, escapeBytes(contents));
 			throw new IllegalStateException(e);
@@ -235,15 +241,16 @@ public class HfsSystemFilesManager implements SystemFilesManager {
 	private <T> void loadProtoWithSupplierFallback(
 			long disNum,
 			String resource,
+			String kind,
 			Consumer<T> onSuccess,
-			GrpcParser<T> parser,
+			ParsedSysFileCache.Parser<T> parser,
 			BootstrapLoader fallback
 	) {
 		var disFid = fileNumbers.toFid(disNum);
 		if (!hfs.exists(disFid)) {
 			bootstrapInto(disFid, resource, fallback);
 		}
-		var proto = loadFrom(disFid, resource, parser);
+		var proto = loadFrom(disFid, resource, kind, parser);
 		onSuccess.accept(proto);
 	}
 
@@ -265,7 +272,7 @@ public class HfsSystemFilesManager implements SystemFilesManager {
 							defaultResource,
 							errorLogIfAnyForFailureToLoad(sysFileName)));
 		}
-		final var config = loadFrom(sysFileFid, sysFileName, ServicesConfigurationList::parseFrom);
+		final var config = loadFrom(sysFileFid, sysFileName, CONFIG_LIST_KIND, ServicesConfigurationList::parseFrom);
 		onSuccess.accept(config);
 	}
 
@@ -0,0 +1,135 @@
+package com.hedera.services.state.initialization;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs the named steps that rebuild auxiliary views of the state on a bounded pool of threads,
+ * starting each step as soon as all the steps it depends on have finished; and logs the time
+ * taken by each step, and by the rebuild as a whole.
+ *
+ * A step can only depend on steps registered before it, so the dependency graph is acyclic
+ * by construction. If any step fails, {@link ParallelViewRebuild#run()} waits for the steps
+ * still running and then rethrows the failure; steps depending on a failed step never run.
+ */
+public class ParallelViewRebuild {
+	private static final Logger log = LogManager.getLogger(ParallelViewRebuild.class);
+
+	private final int maxThreads;
+	private final Map<String, Step> steps = new LinkedHashMap<>();
+
+	public ParallelViewRebuild(int maxThreads) {
+		if (maxThreads < 1) {
+			throw new IllegalArgumentException(String.format(
+					"Argument 'maxThreads=%d' must be positive!", maxThreads));
+		}
+		this.maxThreads = maxThreads;
+	}
+
+	/**
+	 * Registers a rebuild step.
+	 *
+	 * @param name the unique name of the step, used in logs
+	 * @param task the work of the step
+	 * @param dependencies the names of the (already registered) steps that must finish first
+	 * @return this rebuild, for chaining
+	 */
+	public ParallelViewRebuild step(String name, Runnable task, String... dependencies) {
+		if (steps.containsKey(name)) {
+			throw new IllegalArgumentException(String.format("Step '%s' is already registered!", name));
+		}
+		for (var dependency : dependencies) {
+			if (!steps.containsKey(dependency)) {
+				throw new IllegalArgumentException(String.format(
+						"Step '%s' depends on unregistered step '%s'!", name, dependency));
+			}
+		}
+		steps.put(name, new Step(task, dependencies));
+		return this;
+	}
+
+	/**
+	 * Runs all registered steps, returning only when every one has finished.
+	 */
+	public void run() {
+		final long start = System.nanoTime();
+		final int numThreads = Math.min(maxThreads, Math.max(1, steps.size()));
+		final var threadNo = new AtomicInteger();
+		final var pool = Executors.newFixedThreadPool(numThreads, runnable -> {
+			final var thread = new Thread(runnable, "viewRebuild-" + threadNo.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			final Map<String, CompletableFuture<Void>> finished = new HashMap<>();
+			steps.forEach((name, step) -> {
+				final var prerequisites = new CompletableFuture<?>[step.dependencies.length];
+				for (int i = 0; i < prerequisites.length; i++) {
+					prerequisites[i] = finished.get(step.dependencies[i]);
+				}
+				finished.put(name, CompletableFuture.allOf(prerequisites)
+						.thenRunAsync(() -> runTimed(name, step.task), pool));
+			});
+			CompletableFuture.allOf(finished.values().toArray(CompletableFuture<?>[]::new)).join();
+		} catch (CompletionException e) {
+			throw unchecked(e.getCause());
+		} finally {
+			pool.shutdown();
+		}
+		log.info("Rebuilt {} views using {} threads in {}ms",
+				steps.size(), numThreads, (System.nanoTime() - start) / 1_000_000.0);
+	}
+
+	private void runTimed(String name, Runnable task) {
+		final long start = System.nanoTime();
+		task.run();
+		log.info("  --> Rebuilt '{}' in {}ms", name, (System.nanoTime() - start) / 1_000_000.0);
+	}
+
+	private static RuntimeException unchecked(Throwable failure) {
+		if (failure instanceof RuntimeException) {
+			return (RuntimeException) failure;
+		} else if (failure instanceof Error) {
+			throw (Error) failure;
+		}
+		return new IllegalStateException("View rebuild failed unexpectedly!", failure);
+	}
+
+	private static class Step {
+		private final Runnable task;
+		private final String[] dependencies;
+
+		private Step(Runnable task, String[] dependencies) {
+			this.task = task;
+			this.dependencies = dependencies;
+		}
+	}
+}
@@ -20,6 +20,8 @@ package com.hedera.services.state.initialization;
  * ‍
  */
 
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
 import com.hedera.services.state.merkle.MerkleUniqueToken;
 import com.hedera.services.state.merkle.MerkleUniqueTokenId;
 import com.hedera.services.state.submerkle.EntityId;
@@ -37,4 +39,11 @@ public class ViewBuilder {
 			uniqueOwnershipAssociations.associate(uniq.getOwner(), id);
 		});
 	}
+
+	public static void rebuildContractStorageViews(
+			FCMap<MerkleContractSlotId, MerkleContractSlot> contractStorage,
+			FCOneToManyRelation<EntityId, MerkleContractSlotId> contractStorageAssociations
+	) {
+		contractStorage.forEach((id, ignore) -> contractStorageAssociations.associate(id.contractId(), id));
+	}
 }
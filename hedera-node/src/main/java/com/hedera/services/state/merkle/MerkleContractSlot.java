@@ -0,0 +1,117 @@
+package com.hedera.services.state.merkle;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.common.base.MoreObjects;
+import com.swirlds.common.CommonUtils;
+import com.swirlds.common.io.SerializableDataInputStream;
+import com.swirlds.common.io.SerializableDataOutputStream;
+import com.swirlds.common.merkle.utility.AbstractMerkleLeaf;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Represents the 32-byte value of a single smart contract storage slot. The value array is never
+ * mutated in place, so copies can safely share it.
+ */
+public class MerkleContractSlot extends AbstractMerkleLeaf {
+	public static final int VALUE_BYTES = 32;
+
+	static final int MERKLE_VERSION = 1;
+	static final long RUNTIME_CONSTRUCTABLE_ID = 0x8aaaadb9d07c7cecL;
+
+	private byte[] value;
+
+	public MerkleContractSlot() {
+		/* No-op. */
+	}
+
+	/**
+	 * @param value
+	 * 		The 32-byte value of the storage slot.
+	 */
+	public MerkleContractSlot(byte[] value) {
+		this.value = value;
+	}
+
+	/* --- Object --- */
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || MerkleContractSlot.class != o.getClass()) {
+			return false;
+		}
+
+		var that = (MerkleContractSlot) o;
+		return Arrays.equals(this.value, that.value);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(value);
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(MerkleContractSlot.class)
+				.add("value", CommonUtils.hex(value))
+				.toString();
+	}
+
+	/* --- MerkleLeaf --- */
+	@Override
+	public long getClassId() {
+		return RUNTIME_CONSTRUCTABLE_ID;
+	}
+
+	@Override
+	public int getVersion() {
+		return MERKLE_VERSION;
+	}
+
+	@Override
+	public void deserialize(SerializableDataInputStream in, int i) throws IOException {
+		value = in.readByteArray(VALUE_BYTES);
+	}
+
+	@Override
+	public void serialize(SerializableDataOutputStream out) throws IOException {
+		out.writeByteArray(value);
+	}
+
+	/* --- FastCopyable --- */
+	@Override
+	public MerkleContractSlot copy() {
+		return new MerkleContractSlot(value);
+	}
+
+	public byte[] getValue() {
+		return value;
+	}
+
+	public void setValue(byte[] value) {
+		this.value = value;
+	}
+}
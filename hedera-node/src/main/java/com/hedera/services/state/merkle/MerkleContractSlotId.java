@@ -0,0 +1,133 @@
+package com.hedera.services.state.merkle;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.common.base.MoreObjects;
+import com.hedera.services.state.submerkle.EntityId;
+import com.swirlds.common.CommonUtils;
+import com.swirlds.common.io.SerializableDataInputStream;
+import com.swirlds.common.io.SerializableDataOutputStream;
+import com.swirlds.common.merkle.utility.AbstractMerkleLeaf;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Objects;
+
+import static com.hedera.services.state.submerkle.EntityId.MISSING_ENTITY_ID;
+
+/**
+ * Represents the ID of a {@link MerkleContractSlot}; that is, a 32-byte storage key of a smart contract.
+ */
+public class MerkleContractSlotId extends AbstractMerkleLeaf {
+	public static final int KEY_BYTES = 32;
+
+	static final int MERKLE_VERSION = 1;
+	static final long RUNTIME_CONSTRUCTABLE_ID = 0x9d46d075b8b0bc46L;
+
+	private EntityId contractId = MISSING_ENTITY_ID;
+	private byte[] key;
+
+	public MerkleContractSlotId() {
+		/* No-op. */
+	}
+
+	/**
+	 * @param contractId
+	 * 		The contract that owns the storage slot.
+	 * @param key
+	 * 		The 32-byte key of the storage slot.
+	 */
+	public MerkleContractSlotId(
+			EntityId contractId,
+			byte[] key
+	) {
+		this.contractId = contractId;
+		this.key = key;
+	}
+
+	/* --- Object --- */
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || MerkleContractSlotId.class != o.getClass()) {
+			return false;
+		}
+
+		var that = (MerkleContractSlotId) o;
+
+		return Objects.equals(contractId, that.contractId) &&
+				Arrays.equals(this.key, that.key);
+	}
+
+	@Override
+	public int hashCode() {
+		return 31 * Objects.hashCode(contractId) + Arrays.hashCode(key);
+	}
+
+	/* --- Bean --- */
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(MerkleContractSlotId.class)
+				.add("contractId", contractId)
+				.add("key", CommonUtils.hex(key))
+				.toString();
+	}
+
+	public EntityId contractId() {
+		return contractId;
+	}
+
+	public byte[] key() {
+		return key;
+	}
+
+	/* --- MerkleLeaf --- */
+	@Override
+	public long getClassId() {
+		return RUNTIME_CONSTRUCTABLE_ID;
+	}
+
+	@Override
+	public int getVersion() {
+		return MERKLE_VERSION;
+	}
+
+	@Override
+	public void deserialize(SerializableDataInputStream in, int i) throws IOException {
+		contractId = in.readSerializable();
+		key = in.readByteArray(KEY_BYTES);
+	}
+
+	@Override
+	public void serialize(SerializableDataOutputStream out) throws IOException {
+		out.writeSerializable(contractId, true);
+		out.writeByteArray(key);
+	}
+
+	/* --- FastCopyable --- */
+	@Override
+	public MerkleContractSlotId copy() {
+		return new MerkleContractSlotId(contractId, key);
+	}
+}
@@ -35,13 +35,17 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -50,11 +54,23 @@ import static com.hedera.services.ledger.HederaLedger.FILE_ID_COMPARATOR;
 import static com.hedera.services.legacy.proto.utils.CommonUtils.noThrowSha384HashOf;
 import static com.hedera.services.utils.EntityIdUtils.asLiteralString;
 import static com.swirlds.common.CommonUtils.hex;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
 
 /**
  * Save some special system files on the local file system instead of database to improve access efficiency.
  *
- * All that is kept in memory is a map from {@code FileID} to the SHA-384 hash of the current contents.
+ * All that is kept in memory is a map from {@code FileID} to the SHA-384 hash of the current contents;
+ * plus, for files that were recently written, the running SHA-384 digest of those contents, so that
+ * appending to a file only needs to write and hash the appended bytes; and, for files of at most
+ * {@link #MAX_CACHED_BYTES} that were recently written or read, their contents, so that repeated reads
+ * need not go to disk.
+ *
+ * Reads do not lock; they are served from the cached contents when these match the current hash of the
+ * file, and otherwise read the file from disk. Contents read from disk are only cached if they match the
+ * hash; if they do not, the file is read again while holding the lock shared by all writers, so that a
+ * reader never returns a file that was only partly written. When checking the saved hashes against the
+ * files on disk, the files are hashed in parallel, via memory-mapped reads that do not copy their contents
+ * into the heap.
  *
  * <b>IMPORTANT:</b> If running multiple nodes in a process, all of their disk-based file systems will use
  * the same path for a given file! There is no simple way to "scope" the path by node id without creating
@@ -74,10 +90,18 @@ public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLe
 	static final int HASH_BYTES = 48;
 	static final int MAX_FILE_BYTES = 1_024 * 1_024 * 1_024;
 	static final int MERKLE_VERSION = 1;
-
-	private Map<FileID, byte[]> fileHashes = new HashMap<>();
+	static final long MAX_MAPPED_BYTES = 64L * 1_024 * 1_024;
+	static final int MAX_CACHED_BYTES = 1_024 * 1_024;
+
+	private Map<FileID, byte[]> fileHashes = new ConcurrentHashMap<>();
+	/* Shared by all copies, since they also share the files on disk; only used if consistent with fileHashes */
+	private Object diskLock = new Object();
+	private Map<FileID, MessageDigest> runningDigests = new ConcurrentHashMap<>();
+	private Map<FileID, CachedContents> recentContents = new ConcurrentHashMap<>();
 	private ThrowingBytesGetter bytesHelper = p -> FileUtils.readFileToByteArray(p.toFile());
 	private ThrowingBytesWriter writeHelper = (p, c) -> FileUtils.writeByteArrayToFile(p.toFile(), c);
+	private ThrowingBytesWriter appendHelper = (p, c) -> Files.write(p, c, StandardOpenOption.APPEND);
+	private ThrowingHasher hashHelper = MerkleDiskFs::mappedSha384HashOf;
 
 	public static final String DISK_FS_ROOT_DIR = "data/diskFs/";
 
@@ -87,19 +111,21 @@ public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLe
 	}
 
 	public MerkleDiskFs(Map<FileID, byte[]> fileHashes) {
-		this.fileHashes = fileHashes;
+		this.fileHashes = new ConcurrentHashMap<>(fileHashes);
 		setHashFromContents();
 	}
 
 	public MerkleDiskFs copy() {
-		Map<FileID, byte[]> fileHashesCopy = fileHashes.entrySet()
-				.stream()
-				.collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, HashMap::new));
-		return new MerkleDiskFs(fileHashesCopy);
+		var fsCopy = new MerkleDiskFs(fileHashes);
+		fsCopy.diskLock = diskLock;
+		fsCopy.runningDigests = runningDigests;
+		fsCopy.recentContents = recentContents;
+		return fsCopy;
 	}
 
 	public void checkHashesAgainstDiskContents() {
-		for (var entry : fileHashes.entrySet()) {
+		final long start = System.nanoTime();
+		fileHashes.entrySet().parallelStream().forEach(entry -> {
 			var fid = entry.getKey();
 			byte[] expectedHash = entry.getValue();
 			byte[] actualHash = diskContentHash(fid);
@@ -110,7 +136,9 @@ public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLe
 						hex(expectedHash),
 						hex(actualHash));
 			}
-		}
+		});
+		log.info("Checked {} disk-based file hashes in {}ms",
+				fileHashes.size(), (System.nanoTime() - start) / 1_000_000.0);
 	}
 
 	public void migrateLegacyDiskFsFromV13LocFor(String fsBaseDir, String fsNodeScopedDir) {
@@ -136,10 +164,38 @@ public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLe
 	}
 
 	public byte[] diskContentHash(FileID fid) {
-		return noThrowSha384HashOf(contentsOf(fid));
+		try {
+			return hashHelper.sha384HashOf(pathToContentsOf(fid));
+		} catch (IOException e) {
+			log.error("Not able to hash '{}' @ {}!", asLiteralString(fid), pathToContentsOf(fid));
+			throw new UncheckedIOException(e);
+		}
 	}
 
-	public synchronized byte[] contentsOf(FileID fid) {
+	public byte[] contentsOf(FileID fid) {
+		var hash = fileHashes.get(fid);
+		var cached = recentContents.get(fid);
+		if (cached != null && Arrays.equals(hash, cached.hash)) {
+			return cached.contents.clone();
+		}
+		var contents = diskContentsOf(fid);
+		if (hash == null) {
+			return contents;
+		}
+		if (!Arrays.equals(hash, noThrowSha384HashOf(contents))) {
+			/* Either a writer was changing the file as we read it, or this copy's hash is stale. */
+			synchronized (diskLock) {
+				contents = diskContentsOf(fid);
+				if (!Arrays.equals(hash, noThrowSha384HashOf(contents))) {
+					return contents;
+				}
+			}
+		}
+		cache(fid, hash, contents);
+		return contents;
+	}
+
+	private byte[] diskContentsOf(FileID fid) {
 		try {
 			return bytesHelper.allBytesFrom(pathToContentsOf(fid));
 		} catch (IOException e) {
@@ -149,19 +205,101 @@ public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLe
 		}
 	}
 
-	public synchronized void put(FileID fid, byte[] contents) {
+	private void cache(FileID fid, byte[] hash, byte[] contents) {
+		if (contents.length <= MAX_CACHED_BYTES) {
+			recentContents.put(fid, new CachedContents(hash, contents.clone()));
+		}
+	}
+
+	public void put(FileID fid, byte[] contents) {
+		synchronized (diskLock) {
+			try {
+				var digest = sha384();
+				digest.update(contents);
+				byte[] hash = digestSoFar(digest);
+				recentContents.remove(fid);
+				writeHelper.allBytesTo(pathToContentsOf(fid), contents);
+				log.info("Updated '{}' with {} bytes; new hash :: {}", asLiteralString(fid), contents.length, hex(hash));
+				fileHashes.put(fid, hash);
+				runningDigests.put(fid, digest);
+				cache(fid, hash, contents);
+				setHashFromContents();
+			} catch (IOException e) {
+				log.error(
+						"Error writing new contents for '{}' to disk @ {}!",
+						asLiteralString(fid),
+						pathToContentsOf(fid),
+						e);
+			}
+		}
+	}
+
+	/**
+	 * Appends the given bytes to the contents of the given file. The new hash of the file is
+	 * computed from the running digest of its existing contents, which is only re-built from
+	 * disk if this node has not itself written the current contents since it started.
+	 *
+	 * @param fid
+	 * 		the file to append to
+	 * @param moreContents
+	 * 		the bytes to append
+	 */
+	public void append(FileID fid, byte[] moreContents) {
+		synchronized (diskLock) {
+			try {
+				var digest = runningDigestOf(fid);
+				recentContents.remove(fid);
+				appendHelper.allBytesTo(pathToContentsOf(fid), moreContents);
+				digest.update(moreContents);
+				byte[] hash = digestSoFar(digest);
+				log.info("Appended {} bytes to '{}'; new hash :: {}",
+						moreContents.length, asLiteralString(fid), hex(hash));
+				fileHashes.put(fid, hash);
+				setHashFromContents();
+			} catch (IOException e) {
+				log.error(
+						"Error appending new contents for '{}' to disk @ {}!",
+						asLiteralString(fid),
+						pathToContentsOf(fid),
+						e);
+			}
+		}
+	}
+
+	private MessageDigest runningDigestOf(FileID fid) {
+		var digest = runningDigests.get(fid);
+		if (digest == null || !Arrays.equals(fileHashes.get(fid), digestSoFar(digest))) {
+			digest = sha384();
+			digest.update(contentsOf(fid));
+			runningDigests.put(fid, digest);
+		}
+		return digest;
+	}
+
+	static byte[] mappedSha384HashOf(Path loc) throws IOException {
+		var digest = sha384();
+		try (var channel = FileChannel.open(loc, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			for (long position = 0; position < size; position += MAX_MAPPED_BYTES) {
+				digest.update(channel.map(READ_ONLY, position, Math.min(MAX_MAPPED_BYTES, size - position)));
+			}
+		}
+		return digest.digest();
+	}
+
+	private static byte[] digestSoFar(MessageDigest digest) {
 		try {
-			byte[] hash = noThrowSha384HashOf(contents);
-			writeHelper.allBytesTo(pathToContentsOf(fid), contents);
-			log.info("Updated '{}' with {} bytes; new hash :: {}", asLiteralString(fid), contents.length, hex(hash));
-			fileHashes.put(fid, hash);
-			setHashFromContents();
-		} catch (IOException e) {
-			log.error(
-					"Error writing new contents for '{}' to disk @ {}!",
-					asLiteralString(fid),
-					pathToContentsOf(fid),
-					e);
+			return ((MessageDigest) digest.clone()).digest();
+		} catch (CloneNotSupportedException impossible) {
+			throw new IllegalStateException("SHA-384 digest cannot be cloned!");
+		}
+	}
+
+	private static MessageDigest sha384() {
+		try {
+			return MessageDigest.getInstance("SHA-384");
+		} catch (NoSuchAlgorithmException impossible) {
+			throw new IllegalStateException("SHA-384 not supported by Java API!");
 		}
 	}
 
@@ -343,6 +481,21 @@ public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLe
 		void allBytesTo(Path loc, byte[] contents) throws IOException;
 	}
 
+	@FunctionalInterface
+	interface ThrowingHasher {
+		byte[] sha384HashOf(Path loc) throws IOException;
+	}
+
+	private static final class CachedContents {
+		private final byte[] hash;
+		private final byte[] contents;
+
+		private CachedContents(byte[] hash, byte[] contents) {
+			this.hash = hash;
+			this.contents = contents;
+		}
+	}
+
 	void setBytesHelper(ThrowingBytesGetter bytesHelper) {
 		this.bytesHelper = bytesHelper;
 	}
@@ -358,4 +511,16 @@ public class MerkleDiskFs extends AbstractMerkleLeaf implements MerkleExternalLe
 	ThrowingBytesWriter getWriteHelper() {
 		return writeHelper;
 	}
+
+	void setAppendHelper(ThrowingBytesWriter appendHelper) {
+		this.appendHelper = appendHelper;
+	}
+
+	ThrowingBytesWriter getAppendHelper() {
+		return appendHelper;
+	}
+
+	void setHashHelper(ThrowingHasher hashHelper) {
+		this.hashHelper = hashHelper;
+	}
 }
@@ -21,37 +21,51 @@ package com.hedera.services.state.merkle;
  */
 
 import com.google.common.base.MoreObjects;
+import com.hedera.services.store.models.Id;
 import com.hederahashgraph.api.proto.java.AccountID;
 import com.hederahashgraph.api.proto.java.TokenID;
 import com.swirlds.common.io.SerializableDataInputStream;
 import com.swirlds.common.io.SerializableDataOutputStream;
 import com.swirlds.common.merkle.utility.AbstractMerkleLeaf;
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.io.IOException;
 
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.codeFromIds;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.numFromCode;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.readableCode;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.realmFromCode;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.shardFromCode;
+
+/**
+ * The key of an association between two entities (in practice, an account and a token). Since
+ * there can be tens of millions of these in state, each side of the association is stored as a
+ * single packed identity code (see {@link com.hedera.services.state.merkle.internals.IdentityCodeUtils}),
+ * and the hash code is computed once.
+ */
 public class MerkleEntityAssociation extends AbstractMerkleLeaf {
-	static final int MERKLE_VERSION = 1;
+	static final int PRE_RELEASE_0170_VERSION = 1;
+	static final int RELEASE_0170_VERSION = 2;
+	static final int MERKLE_VERSION = RELEASE_0170_VERSION;
 	static final long RUNTIME_CONSTRUCTABLE_ID = 0xce8d38caab2e51dcL;
 
-	private long fromShard, fromRealm, fromNum;
-	private long toShard, toRealm, toNum;
+	private long fromCode;
+	private long toCode;
+	private int hashCode;
 
 	public MerkleEntityAssociation() {
+		setCodes(0L, 0L);
 	}
 
 	public MerkleEntityAssociation(
 			long fromShard, long fromRealm, long fromNum,
 			long toShard, long toRealm, long toNum
 	) {
-		this.fromShard = fromShard;
-		this.fromRealm = fromRealm;
-		this.fromNum = fromNum;
-		this.toShard = toShard;
-		this.toRealm = toRealm;
-		this.toNum = toNum;
+		setCodes(codeFromIds(fromShard, fromRealm, fromNum), codeFromIds(toShard, toRealm, toNum));
+	}
+
+	MerkleEntityAssociation(long fromCode, long toCode) {
+		setCodes(fromCode, toCode);
 	}
 
 	public static MerkleEntityAssociation fromAccountTokenRel(Pair<AccountID, TokenID> rel) {
@@ -64,20 +78,49 @@ public class MerkleEntityAssociation extends AbstractMerkleLeaf {
 				token.getShardNum(), token.getRealmNum(), token.getTokenNum());
 	}
 
+	public static MerkleEntityAssociation fromAccountTokenRel(Id account, Id token) {
+		return new MerkleEntityAssociation(
+				account.getShard(), account.getRealm(), account.getNum(),
+				token.getShard(), token.getRealm(), token.getNum());
+	}
+
+	/**
+	 * Returns the key of the relationship between an account, given by its identity code,
+	 * and a token. Useful when looking up many of one account's relationships, since the
+	 * account's code need only be computed once.
+	 *
+	 * @param accountCode the identity code of the account
+	 * @param token the token
+	 * @return the relationship key
+	 */
+	public static MerkleEntityAssociation fromAccountCodeTokenRel(long accountCode, TokenID token) {
+		return new MerkleEntityAssociation(
+				accountCode,
+				codeFromIds(token.getShardNum(), token.getRealmNum(), token.getTokenNum()));
+	}
+
 	public Pair<AccountID, TokenID> asAccountTokenRel() {
 		return Pair.of(
 				AccountID.newBuilder()
-						.setShardNum(fromShard)
-						.setRealmNum(fromRealm)
-						.setAccountNum(fromNum)
+						.setShardNum(shardFromCode(fromCode))
+						.setRealmNum(realmFromCode(fromCode))
+						.setAccountNum(numFromCode(fromCode))
 						.build(),
 				TokenID.newBuilder()
-						.setShardNum(toShard)
-						.setRealmNum(toRealm)
-						.setTokenNum(toNum)
+						.setShardNum(shardFromCode(toCode))
+						.setRealmNum(realmFromCode(toCode))
+						.setTokenNum(numFromCode(toCode))
 						.build());
 	}
 
+	public long fromCode() {
+		return fromCode;
+	}
+
+	public long toCode() {
+		return toCode;
+	}
+
 	/* --- MerkleLeaf --- */
 	@Override
 	public long getClassId() {
@@ -91,22 +134,18 @@ public class MerkleEntityAssociation extends AbstractMerkleLeaf {
 
 	@Override
 	public void deserialize(SerializableDataInputStream in, int version) throws IOException {
-		fromShard = in.readLong();
-		fromRealm = in.readLong();
-		fromNum = in.readLong();
-		toShard = in.readLong();
-		toRealm = in.readLong();
-		toNum = in.readLong();
+		if (version >= RELEASE_0170_VERSION) {
+			setCodes(in.readLong(), in.readLong());
+		} else {
+			final var from = codeFromIds(in.readLong(), in.readLong(), in.readLong());
+			setCodes(from, codeFromIds(in.readLong(), in.readLong(), in.readLong()));
+		}
 	}
 
 	@Override
 	public void serialize(SerializableDataOutputStream out) throws IOException {
-		out.writeLong(fromShard);
-		out.writeLong(fromRealm);
-		out.writeLong(fromNum);
-		out.writeLong(toShard);
-		out.writeLong(toRealm);
-		out.writeLong(toNum);
+		out.writeLong(fromCode);
+		out.writeLong(toCode);
 	}
 
 	/* --- Object --- */
@@ -120,24 +159,18 @@ public class MerkleEntityAssociation extends AbstractMerkleLeaf {
 		}
 
 		var that = (MerkleEntityAssociation) o;
-		return new EqualsBuilder()
-				.append(fromShard, that.fromShard).append(fromRealm, that.fromRealm).append(fromNum, that.fromNum)
-				.append(toShard, that.toShard).append(toRealm, that.toRealm).append(toNum, that.toNum)
-				.isEquals();
+		return this.fromCode == that.fromCode && this.toCode == that.toCode;
 	}
 
 	@Override
 	public int hashCode() {
-		return new HashCodeBuilder(17, 37)
-				.append(fromShard).append(fromRealm).append(fromNum)
-				.append(toShard).append(toRealm).append(toNum)
-				.toHashCode();
+		return hashCode;
 	}
 
 	/* --- FastCopyable --- */
 	@Override
 	public MerkleEntityAssociation copy() {
-		return new MerkleEntityAssociation(fromShard, fromRealm, fromNum, toShard, toRealm, toNum);
+		return new MerkleEntityAssociation(fromCode, toCode);
 	}
 
 	/* --- Bean --- */
@@ -145,15 +178,22 @@ public class MerkleEntityAssociation extends AbstractMerkleLeaf {
 	@Override
 	public String toString() {
 		return MoreObjects.toStringHelper(this)
-				.add("fromShard", fromShard).add("fromRealm", fromRealm).add("fromNum", fromNum)
-				.add("toShard", toShard).add("toRealm", toRealm).add("toNum", toNum)
+				.add("fromShard", shardFromCode(fromCode))
+				.add("fromRealm", realmFromCode(fromCode))
+				.add("fromNum", numFromCode(fromCode))
+				.add("toShard", shardFromCode(toCode))
+				.add("toRealm", realmFromCode(toCode))
+				.add("toNum", numFromCode(toCode))
 				.toString();
 	}
 
 	public String toAbbrevString() {
-		return String.format(
-				"%d.%d.%d <-> %d.%d.%d",
-				fromShard, fromRealm, fromNum,
-				toShard, toRealm, toNum);
+		return readableCode(fromCode) + " <-> " + readableCode(toCode);
+	}
+
+	private void setCodes(long fromCode, long toCode) {
+		this.fromCode = fromCode;
+		this.toCode = toCode;
+		this.hashCode = 31 * Long.hashCode(fromCode) + Long.hashCode(toCode);
 	}
 }
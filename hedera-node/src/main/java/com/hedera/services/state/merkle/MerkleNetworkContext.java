@@ -25,6 +25,7 @@ import com.hedera.services.state.serdes.DomainSerdes;
 import com.hedera.services.state.submerkle.ExchangeRates;
 import com.hedera.services.state.submerkle.SequenceNumber;
 import com.hedera.services.throttles.DeterministicThrottle;
+import com.hedera.services.throttles.GasLimitDeterministicThrottle;
 import com.hedera.services.throttling.FunctionalityThrottling;
 import com.swirlds.common.io.SerializableDataInputStream;
 import com.swirlds.common.io.SerializableDataOutputStream;
@@ -49,10 +50,13 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 	static final int RELEASE_0130_VERSION = 2;
 	static final int RELEASE_0140_VERSION = 3;
 	static final int RELEASE_0150_VERSION = 4;
-	static final int MERKLE_VERSION = RELEASE_0150_VERSION;
+	static final int RELEASE_0160_VERSION = 5;
+	static final int MERKLE_VERSION = RELEASE_0160_VERSION;
 	static final long RUNTIME_CONSTRUCTABLE_ID = 0x8d4aa0f0a968a9f3L;
 	static final Instant[] NO_CONGESTION_STARTS = new Instant[0];
 	static final DeterministicThrottle.UsageSnapshot[] NO_SNAPSHOTS = new DeterministicThrottle.UsageSnapshot[0];
+	static final DeterministicThrottle.UsageSnapshot NO_GAS_THROTTLE_SNAPSHOT =
+			new DeterministicThrottle.UsageSnapshot(0L, null);
 
 	public static final Instant UNKNOWN_CONSENSUS_TIME = null;
 
@@ -70,6 +74,7 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 	private long entitiesScannedThisSecond = 0L;
 	private long entitiesTouchedThisSecond = 0L;
 	private DeterministicThrottle.UsageSnapshot[] usageSnapshots = NO_SNAPSHOTS;
+	private DeterministicThrottle.UsageSnapshot gasThrottleUsageSnapshot = NO_GAS_THROTTLE_SNAPSHOT;
 
 	public MerkleNetworkContext() {
 		/* No-op for RuntimeConstructable facility; will be followed by a call to deserialize. */
@@ -99,7 +104,8 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 			int stateVersion,
 			long entitiesScannedThisSecond,
 			long entitiesTouchedThisSecond,
-			Instant lastMidnightBoundaryCheck
+			Instant lastMidnightBoundaryCheck,
+			DeterministicThrottle.UsageSnapshot gasThrottleUsageSnapshot
 	) {
 		this.consensusTimeOfLastHandledTxn = consensusTimeOfLastHandledTxn;
 		this.seqNo = seqNo;
@@ -111,6 +117,7 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 		this.entitiesScannedThisSecond = entitiesScannedThisSecond;
 		this.entitiesTouchedThisSecond = entitiesTouchedThisSecond;
 		this.lastMidnightBoundaryCheck = lastMidnightBoundaryCheck;
+		this.gasThrottleUsageSnapshot = gasThrottleUsageSnapshot;
 	}
 
 	/* --- Helpers that reset the received argument based on the network context */
@@ -121,6 +128,8 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 	}
 
 	public void resetThrottlingFromSavedSnapshots(FunctionalityThrottling throttling) {
+		resetGasThrottle(throttling.gasLimitThrottle());
+
 		var activeThrottles = throttling.allActiveThrottles();
 
 		if (activeThrottles.size() != usageSnapshots.length) {
@@ -164,6 +173,10 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 				usageSnapshots[i] = activeThrottles.get(i).usageSnapshot();
 			}
 		}
+		final var gasThrottle = throttling.gasLimitThrottle();
+		if (gasThrottle != null) {
+			gasThrottleUsageSnapshot = gasThrottle.usageSnapshot();
+		}
 	}
 
 	public void updateCongestionStartsFrom(FeeMultiplierSource feeMultiplierSource) {
@@ -205,7 +218,8 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 				stateVersion,
 				entitiesScannedThisSecond,
 				entitiesTouchedThisSecond,
-				lastMidnightBoundaryCheck);
+				lastMidnightBoundaryCheck,
+				gasThrottleUsageSnapshot);
 	}
 
 	@Override
@@ -248,6 +262,12 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 			final var lastBoundaryCheck = serdes.readNullableInstant(in);
 			lastMidnightBoundaryCheck = (lastBoundaryCheck == null) ? null : lastBoundaryCheck.toJava();
 		}
+		if (version >= RELEASE_0160_VERSION) {
+			final var gasUsed = in.readLong();
+			final var lastGasDecision = serdes.readNullableInstant(in);
+			gasThrottleUsageSnapshot = new DeterministicThrottle.UsageSnapshot(
+					gasUsed, (lastGasDecision == null) ? null : lastGasDecision.toJava());
+		}
 	}
 
 	@Override
@@ -271,6 +291,8 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 		out.writeLong(entitiesTouchedThisSecond);
 		out.writeInt(stateVersion);
 		serdes.writeNullableInstant(fromJava(lastMidnightBoundaryCheck), out);
+		out.writeLong(gasThrottleUsageSnapshot.used());
+		serdes.writeNullableInstant(fromJava(gasThrottleUsageSnapshot.lastDecisionTime()), out);
 	}
 
 	@Override
@@ -308,6 +330,10 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 					.append(" used (last decision time ")
 					.append(reprOf(snapshot.lastDecisionTime())).append(")");
 		}
+		sb.append("\n  Gas throttle usage snapshot is             :: ")
+				.append(gasThrottleUsageSnapshot.used())
+				.append(" used (last decision time ")
+				.append(reprOf(gasThrottleUsageSnapshot.lastDecisionTime())).append(")");
 		sb.append("\n  Congestion level start times are           ::");
 		for (var start : congestionLevelStarts) {
 			sb.append("\n    ").append(reprOf(start));
@@ -353,6 +379,21 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 	}
 
 	/* --- Internal helpers --- */
+	private void resetGasThrottle(GasLimitDeterministicThrottle gasThrottle) {
+		if (gasThrottle == null) {
+			return;
+		}
+		final var currGasThrottleUsageSnapshot = gasThrottle.usageSnapshot();
+		try {
+			gasThrottle.resetUsageTo(gasThrottleUsageSnapshot);
+			log.info("Reset {} with saved gas throttle usage snapshot", gasThrottle);
+		} catch (Exception e) {
+			log.warn("Saved gas throttle usage snapshot was not compatible with the active gas throttle ("
+					+ e.getMessage() + "); not performing a reset!");
+			gasThrottle.resetUsageTo(currGasThrottleUsageSnapshot);
+		}
+	}
+
 	private void reset(List<DeterministicThrottle> throttles) {
 		var currUsageSnapshots = throttles.stream()
 				.map(DeterministicThrottle::usageSnapshot)
@@ -410,4 +451,12 @@ public class MerkleNetworkContext extends AbstractMerkleLeaf {
 	DeterministicThrottle.UsageSnapshot[] usageSnapshots() {
 		return usageSnapshots;
 	}
+
+	DeterministicThrottle.UsageSnapshot getGasThrottleUsageSnapshot() {
+		return gasThrottleUsageSnapshot;
+	}
+
+	void setGasThrottleUsageSnapshot(DeterministicThrottle.UsageSnapshot gasThrottleUsageSnapshot) {
+		this.gasThrottleUsageSnapshot = gasThrottleUsageSnapshot;
+	}
 }
@@ -21,6 +21,7 @@ package com.hedera.services.state.merkle;
  */
 
 import com.google.common.base.MoreObjects;
+import com.hedera.services.state.blobs.BlobBackend;
 import com.swirlds.blob.BinaryObject;
 import com.swirlds.blob.BinaryObjectStore;
 import com.swirlds.common.crypto.Hash;
@@ -30,11 +31,36 @@ import com.swirlds.common.merkle.MerkleExternalLeaf;
 import com.swirlds.common.merkle.utility.AbstractMerkleLeaf;
 
 import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 
+/**
+ * A leaf whose contents are stored in the configured {@link BinaryObjectStore} (see {@link BlobBackend}),
+ * as one or more chunks.
+ *
+ * A blob that is created or modified has a single chunk, and its hash is just the hash of that
+ * chunk. Appending to a blob stores only the new bytes as another chunk; and its hash becomes
+ * the SHA-384 hash of its full contents, computed from a running digest of the existing chunks.
+ * (So the hash of a blob never depends on how its contents were chunked.) The running digest is
+ * not part of the state, and is only re-built from the existing chunks on the first append after
+ * a restart or reconnect.
+ *
+ * Once a blob has {@link MerkleOptionalBlob#MAX_CHUNKS} chunks, the next append re-writes its
+ * full contents as a single chunk.
+ */
 public class MerkleOptionalBlob extends AbstractMerkleLeaf implements MerkleExternalLeaf {
-	static final int MERKLE_VERSION = BinaryObject.ClassVersion.ORIGINAL;
+	static final int PRE_RELEASE_0170_VERSION = 1;
+	static final int RELEASE_0170_VERSION = 2;
+	static final int MERKLE_VERSION = RELEASE_0170_VERSION;
+	static final int BLOB_VERSION = BinaryObject.ClassVersion.ORIGINAL;
+	static final int MAX_CHUNKS = 1_024;
+	static final int HASH_BYTES = 48;
 	static final long RUNTIME_CONSTRUCTABLE_ID = 0x4cefb15eb131d9e3L;
 	static final Hash MISSING_DELEGATE_HASH = new Hash(new byte[] {
 			(byte)0x00, (byte)0x01, (byte)0x02, (byte)0x03,
@@ -53,10 +79,19 @@ public class MerkleOptionalBlob extends AbstractMerkleLeaf implements MerkleExte
 	static final byte[] NO_DATA = new byte[0];
 	static final BinaryObject MISSING_DELEGATE = null;
 
-	static Supplier<BinaryObject> blobSupplier = BinaryObject::new;
-	static Supplier<BinaryObjectStore> blobStoreSupplier = BinaryObjectStore::getInstance;
+	static Supplier<BinaryObject> blobSupplier = BlobBackend::newBlob;
+	static Supplier<BinaryObjectStore> blobStoreSupplier = BlobBackend::store;
+	static Consumer<BinaryObject> savePreparer = BlobBackend::prepareForSave;
 
 	private BinaryObject delegate;
+	private List<BinaryObject> moreDelegates = Collections.emptyList();
+	private Hash contentsHash = null;
+
+	/* Node-local summary of the full contents, computed only when first needed */
+	private int length = UNKNOWN_LENGTH;
+	private MessageDigest runningDigest = null;
+
+	private static final int UNKNOWN_LENGTH = -1;
 
 	public MerkleOptionalBlob() {
 		delegate = MISSING_DELEGATE;
@@ -72,10 +107,91 @@ public class MerkleOptionalBlob extends AbstractMerkleLeaf implements MerkleExte
 
 	public void modify(byte[] newContents) {
 		var newDelegate = blobStoreSupplier.get().put(newContents);
-		if (delegate != MISSING_DELEGATE) {
-			delegate.release();
-		}
+		releaseDelegates();
 		delegate = newDelegate;
+		moreDelegates = Collections.emptyList();
+		contentsHash = null;
+		length = newContents.length;
+		runningDigest = null;
+	}
+
+	/**
+	 * Appends the given bytes to the contents of this blob, storing only the new bytes as
+	 * another chunk (unless the blob already has {@link MerkleOptionalBlob#MAX_CHUNKS} chunks).
+	 *
+	 * @param moreContents
+	 * 		the bytes to append
+	 */
+	public void append(byte[] moreContents) {
+		if (delegate == MISSING_DELEGATE) {
+			modify(moreContents);
+			return;
+		}
+		if (1 + moreDelegates.size() >= MAX_CHUNKS) {
+			var existing = getData();
+			var newContents = new byte[existing.length + moreContents.length];
+			System.arraycopy(existing, 0, newContents, 0, existing.length);
+			System.arraycopy(moreContents, 0, newContents, existing.length, moreContents.length);
+			modify(newContents);
+			return;
+		}
+
+		var digest = runningDigest();
+		var chunk = blobStoreSupplier.get().put(moreContents);
+		if (moreDelegates.isEmpty()) {
+			moreDelegates = new ArrayList<>();
+		}
+		moreDelegates.add(chunk);
+		digest.update(moreContents);
+		contentsHash = new Hash(digestSoFar(digest));
+		length += moreContents.length;
+	}
+
+	/**
+	 * Returns the length of the contents of this blob, reading them only if this node has
+	 * not already done so (or itself written them) since it started.
+	 *
+	 * @return the length of the contents
+	 */
+	public int getLength() {
+		if (length == UNKNOWN_LENGTH) {
+			summarizeContents();
+		}
+		return length;
+	}
+
+	private MessageDigest runningDigest() {
+		if (runningDigest == null) {
+			summarizeContents();
+		}
+		return runningDigest;
+	}
+
+	private void summarizeContents() {
+		var contents = getData();
+		length = contents.length;
+		runningDigest = sha384();
+		runningDigest.update(contents);
+	}
+
+	private static byte[] digestSoFar(MessageDigest digest) {
+		return copyOf(digest).digest();
+	}
+
+	private static MessageDigest copyOf(MessageDigest digest) {
+		try {
+			return (MessageDigest) digest.clone();
+		} catch (CloneNotSupportedException impossible) {
+			throw new IllegalStateException("SHA-384 digest cannot be cloned!");
+		}
+	}
+
+	private static MessageDigest sha384() {
+		try {
+			return MessageDigest.getInstance("SHA-384");
+		} catch (NoSuchAlgorithmException impossible) {
+			throw new IllegalStateException("SHA-384 not supported by Java API!");
+		}
 	}
 
 	/* --- MerkleExternalLeaf --- */
@@ -91,7 +207,10 @@ public class MerkleOptionalBlob extends AbstractMerkleLeaf implements MerkleExte
 
 	@Override
 	public Hash getHash() {
-		return (delegate == MISSING_DELEGATE) ? MISSING_DELEGATE_HASH : delegate.getHash();
+		if (delegate == MISSING_DELEGATE) {
+			return MISSING_DELEGATE_HASH;
+		}
+		return moreDelegates.isEmpty() ? delegate.getHash() : contentsHash;
 	}
 
 	@Override
@@ -115,6 +234,13 @@ public class MerkleOptionalBlob extends AbstractMerkleLeaf implements MerkleExte
 		} else {
 			out.writeBoolean(true);
 			delegate.serialize(out);
+			out.writeInt(moreDelegates.size());
+			for (var chunk : moreDelegates) {
+				chunk.serialize(out);
+			}
+			if (!moreDelegates.isEmpty()) {
+				out.writeByteArray(contentsHash.getValue());
+			}
 		}
 	}
 
@@ -123,36 +249,85 @@ public class MerkleOptionalBlob extends AbstractMerkleLeaf implements MerkleExte
 		var hasData = in.readBoolean();
 		if (hasData) {
 			delegate = blobSupplier.get();
-			delegate.deserialize(in, MerkleOptionalBlob.MERKLE_VERSION);
+			delegate.deserialize(in, BLOB_VERSION);
+			if (version >= RELEASE_0170_VERSION) {
+				int numMoreDelegates = in.readInt();
+				if (numMoreDelegates > 0) {
+					moreDelegates = new ArrayList<>();
+					for (int i = 0; i < numMoreDelegates; i++) {
+						var chunk = blobSupplier.get();
+						chunk.deserialize(in, BLOB_VERSION);
+						moreDelegates.add(chunk);
+					}
+					contentsHash = new Hash(in.readByteArray(HASH_BYTES));
+				}
+			}
 		}
 	}
 
 	@Override
-	public void serializeAbbreviated(SerializableDataOutputStream out) { 
-                /* Nothing to do here, since Platform automatically serializes the 
-                 * hash of an MerkleExternalLeaf and passes it as an argument to 
-                 * deserializeAbbreviated as below. (Our BinaryObject delegate 
-                 * doesn't need anything except this hash to deserialize itself.) */
-        }
+	public void serializeAbbreviated(SerializableDataOutputStream out) throws IOException {
+		/* Platform automatically serializes the hash of a MerkleExternalLeaf and passes it
+		 * as an argument to deserializeAbbreviated as below; and a BinaryObject delegate
+		 * doesn't need anything except its hash to deserialize itself. So we only need the
+		 * hashes of the chunks if the blob has more than one. But since this is how a saved state
+		 * is written, the chunks' contents must be durable before it is. */
+		if (delegate != MISSING_DELEGATE) {
+			savePreparer.accept(delegate);
+			moreDelegates.forEach(savePreparer);
+		}
+		out.writeInt(moreDelegates.size());
+		if (!moreDelegates.isEmpty()) {
+			out.writeByteArray(delegate.getHash().getValue());
+			for (var chunk : moreDelegates) {
+				out.writeByteArray(chunk.getHash().getValue());
+			}
+		}
+	}
 
 	@Override
 	public void deserializeAbbreviated(
 			SerializableDataInputStream in,
 			Hash hash,
 			int version
-	) {
-		if (!MISSING_DELEGATE_HASH.equals(hash)) {
-			delegate = blobSupplier.get();
-			delegate.deserializeAbbreviated(in, hash, version);
+	) throws IOException {
+		int numMoreDelegates = (version >= RELEASE_0170_VERSION) ? in.readInt() : 0;
+		if (numMoreDelegates > 0) {
+			delegate = abbreviatedChunk(in, new Hash(in.readByteArray(HASH_BYTES)));
+			moreDelegates = new ArrayList<>();
+			for (int i = 0; i < numMoreDelegates; i++) {
+				moreDelegates.add(abbreviatedChunk(in, new Hash(in.readByteArray(HASH_BYTES))));
+			}
+			contentsHash = hash;
+		} else if (!MISSING_DELEGATE_HASH.equals(hash)) {
+			delegate = abbreviatedChunk(in, hash);
 		} else {
 			delegate = MISSING_DELEGATE;
 		}
 	}
 
+	private BinaryObject abbreviatedChunk(SerializableDataInputStream in, Hash hash) {
+		var chunk = blobSupplier.get();
+		chunk.deserializeAbbreviated(in, hash, BLOB_VERSION);
+		return chunk;
+	}
+
 	/* --- FastCopyable --- */
 	@Override
 	public MerkleOptionalBlob copy() {
-		return new MerkleOptionalBlob(delegate.copy());
+		var copy = new MerkleOptionalBlob(delegate.copy());
+		if (!moreDelegates.isEmpty()) {
+			copy.moreDelegates = new ArrayList<>();
+			for (var chunk : moreDelegates) {
+				copy.moreDelegates.add(chunk.copy());
+			}
+			copy.contentsHash = contentsHash;
+		}
+		copy.length = length;
+		if (runningDigest != null) {
+			copy.runningDigest = copyOf(runningDigest);
+		}
+		return copy;
 	}
 
 	@Override
@@ -166,17 +341,39 @@ public class MerkleOptionalBlob extends AbstractMerkleLeaf implements MerkleExte
 
 		var that = (MerkleOptionalBlob)o;
 
-		return Objects.equals(this.delegate, that.delegate);
+		return Objects.equals(this.delegate, that.delegate) && Objects.equals(this.moreDelegates, that.moreDelegates);
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(Objects.hashCode(delegate));
+		return Objects.hash(Objects.hashCode(delegate), moreDelegates);
 	}
 
 	/* --- Bean --- */
 	public byte[] getData() {
-		return (delegate == MISSING_DELEGATE) ? NO_DATA : blobStoreSupplier.get().get(delegate);
+		if (delegate == MISSING_DELEGATE) {
+			return NO_DATA;
+		}
+		var store = blobStoreSupplier.get();
+		var first = store.get(delegate);
+		if (moreDelegates.isEmpty()) {
+			return first;
+		}
+		List<byte[]> chunks = new ArrayList<>();
+		chunks.add(first);
+		int n = first.length;
+		for (var chunk : moreDelegates) {
+			var bytes = store.get(chunk);
+			chunks.add(bytes);
+			n += bytes.length;
+		}
+		var data = new byte[n];
+		int offset = 0;
+		for (var bytes : chunks) {
+			System.arraycopy(bytes, 0, data, offset, bytes.length);
+			offset += bytes.length;
+		}
+		return data;
 	}
 
 	public BinaryObject getDelegate() {
@@ -185,15 +382,29 @@ public class MerkleOptionalBlob extends AbstractMerkleLeaf implements MerkleExte
 
 	@Override
 	public String toString() {
-		return MoreObjects.toStringHelper(this)
-				.add("delegate", delegate)
-				.toString();
+		var helper = MoreObjects.toStringHelper(this)
+				.add("delegate", delegate);
+		if (!moreDelegates.isEmpty()) {
+			helper.add("moreDelegates", moreDelegates);
+		}
+		return helper.toString();
 	}
 
 	@Override
 	public void onRelease() {
+		releaseDelegates();
+	}
+
+	private void releaseDelegates() {
 		if (delegate != MISSING_DELEGATE) {
 			delegate.release();
 		}
+		for (var chunk : moreDelegates) {
+			chunk.release();
+		}
+	}
+
+	int numChunks() {
+		return (delegate == MISSING_DELEGATE) ? 0 : (1 + moreDelegates.size());
 	}
 }
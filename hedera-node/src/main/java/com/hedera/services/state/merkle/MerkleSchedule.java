@@ -169,6 +169,17 @@ public class MerkleSchedule extends AbstractMerkleLeaf {
 		return Objects.hash(memo, grpcAdminKey, scheduledTxn);
 	}
 
+	/**
+	 * Returns a 64-bit hash of just the fields compared in {@link MerkleSchedule#equals(Object)}; so
+	 * equal schedules always have equal content hashes, and a store can index extant schedules by
+	 * this hash without keeping a content-addressable view of each one.
+	 *
+	 * @return the content hash
+	 */
+	public long contentHash() {
+		return ((long) Objects.hash(memo, grpcAdminKey) << 32) | (Objects.hashCode(scheduledTxn) & 0xFFFFFFFFL);
+	}
+
 	@Override
 	public String toString() {
 		var helper = MoreObjects.toStringHelper(MerkleSchedule.class)
@@ -297,7 +297,8 @@ public class MerkleToken extends AbstractMerkleLeaf {
 				treasury);
 		fc.setMemo(memo);
 		fc.setDeleted(deleted);
-		fc.setFeeSchedule(feeSchedule);
+		/* The schedule is unmodifiable, so the copy can share it (and keep its identity) */
+		fc.feeSchedule = feeSchedule;
 		fc.setAutoRenewPeriod(autoRenewPeriod);
 		fc.setAutoRenewAccount(autoRenewAccount);
 		fc.lastUsedSerialNumber = lastUsedSerialNumber;
@@ -570,7 +571,7 @@ public class MerkleToken extends AbstractMerkleLeaf {
 	}
 
 	public void setFeeScheduleFrom(List<CustomFee> grpcFeeSchedule) {
-		feeSchedule = grpcFeeSchedule.stream().map(FcCustomFee::fromGrpc).collect(toList());
+		feeSchedule = unmodifiableList(grpcFeeSchedule.stream().map(FcCustomFee::fromGrpc).collect(toList()));
 	}
 
 	public void setFeeScheduleKey(final JKey feeScheduleKey) {
@@ -23,28 +23,37 @@ package com.hedera.services.state.merkle;
 import com.google.common.base.MoreObjects;
 import com.hedera.services.state.submerkle.EntityId;
 import com.hedera.services.store.models.NftId;
+import com.hederahashgraph.api.proto.java.NftID;
+import com.hederahashgraph.api.proto.java.TokenID;
 import com.swirlds.common.io.SerializableDataInputStream;
 import com.swirlds.common.io.SerializableDataOutputStream;
 import com.swirlds.common.merkle.utility.AbstractMerkleLeaf;
 
 import java.io.IOException;
-import java.util.Objects;
 
-import static com.hedera.services.state.submerkle.EntityId.MISSING_ENTITY_ID;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.codeFromIds;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.numFromCode;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.realmFromCode;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.shardFromCode;
 
 /**
- * Represents the ID of {@link MerkleUniqueTokenId}
+ * Represents the ID of {@link MerkleUniqueToken}. The token id is stored as a single packed
+ * identity code (see {@link com.hedera.services.state.merkle.internals.IdentityCodeUtils}),
+ * and the hash code is computed once.
  */
 public class MerkleUniqueTokenId extends AbstractMerkleLeaf {
 
-	static final int MERKLE_VERSION = 1;
+	static final int PRE_RELEASE_0170_VERSION = 1;
+	static final int RELEASE_0170_VERSION = 2;
+	static final int MERKLE_VERSION = RELEASE_0170_VERSION;
 	static final long RUNTIME_CONSTRUCTABLE_ID = 0x52dd6afda193e8bcL;
 
-	private EntityId tokenId = MISSING_ENTITY_ID;
+	private long tokenCode;
 	private long serialNumber;
+	private int hashCode;
 
 	public MerkleUniqueTokenId() {
-		/* No-op. */
+		setCodes(0L, 0L);
 	}
 
 	/**
@@ -57,12 +66,25 @@ public class MerkleUniqueTokenId extends AbstractMerkleLeaf {
 			EntityId tokenId,
 			long serialNumber
 	) {
-		this.tokenId = tokenId;
-		this.serialNumber = serialNumber;
+		this(codeFromIds(tokenId.shard(), tokenId.realm(), tokenId.num()), serialNumber);
+	}
+
+	MerkleUniqueTokenId(long tokenCode, long serialNumber) {
+		setCodes(tokenCode, serialNumber);
 	}
 
 	public static MerkleUniqueTokenId fromNftId(NftId id) {
-		return new MerkleUniqueTokenId(new EntityId(id.shard(), id.realm(), id.num()), id.serialNo());
+		return new MerkleUniqueTokenId(codeFromIds(id.shard(), id.realm(), id.num()), id.serialNo());
+	}
+
+	public static MerkleUniqueTokenId fromNftId(NftID id) {
+		return fromTokenAndSerial(id.getTokenID(), id.getSerialNumber());
+	}
+
+	public static MerkleUniqueTokenId fromTokenAndSerial(TokenID token, long serialNumber) {
+		return new MerkleUniqueTokenId(
+				codeFromIds(token.getShardNum(), token.getRealmNum(), token.getTokenNum()),
+				serialNumber);
 	}
 
 	/* --- Object --- */
@@ -78,28 +100,29 @@ public class MerkleUniqueTokenId extends AbstractMerkleLeaf {
 
 		var that = (MerkleUniqueTokenId) o;
 
-		return Objects.equals(tokenId, that.tokenId) &&
-				Objects.equals(this.serialNumber, that.serialNumber);
+		return this.tokenCode == that.tokenCode && this.serialNumber == that.serialNumber;
 	}
 
 	@Override
 	public int hashCode() {
-		return Objects.hash(
-				tokenId,
-				serialNumber);
+		return hashCode;
 	}
 
 	/* --- Bean --- */
 	@Override
 	public String toString() {
 		return MoreObjects.toStringHelper(MerkleUniqueTokenId.class)
-				.add("tokenId", tokenId)
+				.add("tokenId", tokenId())
 				.add("serialNumber", serialNumber)
 				.toString();
 	}
 
 	public EntityId tokenId() {
-		return tokenId;
+		return new EntityId(shardFromCode(tokenCode), realmFromCode(tokenCode), numFromCode(tokenCode));
+	}
+
+	public long tokenCode() {
+		return tokenCode;
 	}
 
 	public long serialNumber() {
@@ -107,7 +130,7 @@ public class MerkleUniqueTokenId extends AbstractMerkleLeaf {
 	}
 
 	public NftId asNftId() {
-		return new NftId(tokenId.shard(), tokenId.realm(), tokenId.num(), serialNumber);
+		return new NftId(shardFromCode(tokenCode), realmFromCode(tokenCode), numFromCode(tokenCode), serialNumber);
 	}
 
 	/* --- MerkleLeaf --- */
@@ -122,20 +145,30 @@ public class MerkleUniqueTokenId extends AbstractMerkleLeaf {
 	}
 
 	@Override
-	public void deserialize(SerializableDataInputStream in, int i) throws IOException {
-		tokenId = in.readSerializable();
-		serialNumber = in.readInt();
+	public void deserialize(SerializableDataInputStream in, int version) throws IOException {
+		if (version >= RELEASE_0170_VERSION) {
+			setCodes(in.readLong(), in.readLong());
+		} else {
+			EntityId tokenId = in.readSerializable();
+			setCodes(codeFromIds(tokenId.shard(), tokenId.realm(), tokenId.num()), in.readLong());
+		}
 	}
 
 	@Override
 	public void serialize(SerializableDataOutputStream out) throws IOException {
-		out.writeSerializable(tokenId, true);
+		out.writeLong(tokenCode);
 		out.writeLong(serialNumber);
 	}
 
 	/* --- FastCopyable --- */
 	@Override
 	public MerkleUniqueTokenId copy() {
-		return new MerkleUniqueTokenId(tokenId, serialNumber);
+		return new MerkleUniqueTokenId(tokenCode, serialNumber);
+	}
+
+	private void setCodes(long tokenCode, long serialNumber) {
+		this.tokenCode = tokenCode;
+		this.serialNumber = serialNumber;
+		this.hashCode = 31 * Long.hashCode(tokenCode) + Long.hashCode(serialNumber);
 	}
 }
@@ -0,0 +1,110 @@
+package com.hedera.services.state.merkle.internals;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+/**
+ * Packs a {@code (shard, realm, num)} entity id into a single {@code long} "identity code",
+ * for use in the keys of very large {@link com.swirlds.fcmap.FCMap}s (e.g. token relationships
+ * and unique tokens), where three boxed or unboxed longs per id add up.
+ *
+ * The top 16 bits of a code hold the shard, the next 16 bits the realm, and the low 32 bits the
+ * number; so the shard and realm must be less than {@code 2^16}, and the number less than
+ * {@code 2^32}. Codes compare and hash exactly as their ids would, since the packing is one-to-one.
+ */
+public final class IdentityCodeUtils {
+	static final int SHARD_BITS = 16;
+	static final int REALM_BITS = 16;
+	static final int NUM_BITS = 32;
+
+	static final long MAX_SHARD = (1L << SHARD_BITS) - 1;
+	static final long MAX_REALM = (1L << REALM_BITS) - 1;
+	static final long MAX_NUM = (1L << NUM_BITS) - 1;
+
+	private static final int REALM_SHIFT = NUM_BITS;
+	private static final int SHARD_SHIFT = NUM_BITS + REALM_BITS;
+
+	private IdentityCodeUtils() {
+		throw new IllegalStateException("Utility class");
+	}
+
+	/**
+	 * Returns the identity code of the given entity id.
+	 *
+	 * @param shard the shard of the id
+	 * @param realm the realm of the id
+	 * @param num the number of the id
+	 * @return the packed code
+	 * @throws IllegalArgumentException if any part of the id is out of range
+	 */
+	public static long codeFromIds(long shard, long realm, long num) {
+		assertInRange(shard, MAX_SHARD, "shard");
+		assertInRange(realm, MAX_REALM, "realm");
+		assertInRange(num, MAX_NUM, "num");
+		return (shard << SHARD_SHIFT) | (realm << REALM_SHIFT) | num;
+	}
+
+	/**
+	 * Returns whether the given entity id can be packed into an identity code. Since nothing in state
+	 * has an id that cannot be packed, a lookup by such an id (which a user can always submit) should
+	 * find nothing instead of calling {@link IdentityCodeUtils#codeFromIds(long, long, long)}.
+	 *
+	 * @param shard the shard of the id
+	 * @param realm the realm of the id
+	 * @param num the number of the id
+	 * @return whether every part of the id is in range
+	 */
+	public static boolean isPackable(long shard, long realm, long num) {
+		return inRange(shard, MAX_SHARD) && inRange(realm, MAX_REALM) && inRange(num, MAX_NUM);
+	}
+
+	public static long shardFromCode(long code) {
+		return code >>> SHARD_SHIFT;
+	}
+
+	public static long realmFromCode(long code) {
+		return (code >>> REALM_SHIFT) & MAX_REALM;
+	}
+
+	public static long numFromCode(long code) {
+		return code & MAX_NUM;
+	}
+
+	/**
+	 * Returns a "{@code shard.realm.num}" string for the given identity code.
+	 *
+	 * @param code the packed code
+	 * @return the readable id
+	 */
+	public static String readableCode(long code) {
+		return shardFromCode(code) + "." + realmFromCode(code) + "." + numFromCode(code);
+	}
+
+	private static boolean inRange(long part, long max) {
+		return part >= 0 && part <= max;
+	}
+
+	private static void assertInRange(long part, long max, String name) {
+		if (!inRange(part, max)) {
+			throw new IllegalArgumentException(String.format(
+					"Id %s=%d is outside the packable range [0, %d]", name, part, max));
+		}
+	}
+}
@@ -21,9 +21,22 @@ package com.hedera.services.state.migration;
  */
 
 import com.hedera.services.context.ServicesContext;
+import com.hedera.services.state.submerkle.EntityId;
 import com.hedera.services.utils.Pause;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.ethereum.datasource.StoragePersistence;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Map;
+
+import static com.hedera.services.contracts.sources.AddressKeyedMapFactory.storageMapFrom;
+import static com.hedera.services.utils.EntityIdUtils.contractParsedFromSolidityAddress;
 
 public class StdStateMigrations implements StateMigrations {
+	private static final Logger log = LogManager.getLogger(StdStateMigrations.class);
+
 	private final Pause pause;
 
 	public StdStateMigrations(Pause pause) {
@@ -32,6 +45,41 @@ public class StdStateMigrations implements StateMigrations {
 
 	@Override
 	public void runAllFor(ServicesContext ctx) {
-		/* There are no applicable state migrations at this time. */
+		migrateLegacyContractStorage(storageMapFrom(ctx.blobStore()), ctx.storagePersistence());
+	}
+
+	/**
+	 * Moves each contract's storage from its legacy blob at path {@code /<realm>/d<num>} in the blob
+	 * store into the slot-keyed contract storage map, removing the blob afterwards. Contracts are
+	 * migrated in address order, so every node ends up with an identical Merkle state; and a state
+	 * that has no legacy blobs left (e.g., one received in a reconnect) is unaffected.
+	 *
+	 * A legacy blob is the storage serialized by a {@code ServicesRepositoryRoot} flush; that is, a
+	 * key-ordered sequence of 32-byte key/value pairs. If any blob is not, the migration fails, naming
+	 * the contract, rather than start from a state that has silently lost that contract's storage.
+	 *
+	 * @param legacyStorage the legacy storage blobs, keyed by contract address
+	 * @param slotStorage the slot-keyed storage to migrate into
+	 * @throws IllegalStateException if a legacy blob is not a sequence of key/value pairs
+	 */
+	static void migrateLegacyContractStorage(Map<byte[], byte[]> legacyStorage, StoragePersistence slotStorage) {
+		final var addresses = new ArrayList<>(legacyStorage.keySet());
+		if (addresses.isEmpty()) {
+			return;
+		}
+		addresses.sort(Arrays::compareUnsigned);
+
+		log.info("Migrating storage of {} contracts to slot-keyed storage", addresses.size());
+		for (var address : addresses) {
+			try {
+				slotStorage.persist(address, legacyStorage.get(address), 0L, 0L);
+			} catch (IllegalArgumentException malformed) {
+				final var contractId = EntityId.fromGrpcContractId(contractParsedFromSolidityAddress(address));
+				throw new IllegalStateException(String.format(
+						"Cannot migrate legacy storage of contract %s!", contractId.toAbbrevString()), malformed);
+			}
+			legacyStorage.remove(address);
+		}
+		log.info("  --> Contract storage migration complete");
 	}
 }
@@ -34,6 +34,22 @@ public class MiscRunningAvgs {
 	StatsRunningAverage writeQueueSizeRecordStream;
 	StatsRunningAverage hashQueueSizeRecordStream;
 
+	StatsRunningAverage balancesExportMs;
+
+	StatsRunningAverage autoRenewDueAccounts;
+	StatsRunningAverage autoRenewTouchedPerScanned;
+
+	StatsRunningAverage contractSlotsRead;
+	StatsRunningAverage contractSlotsWritten;
+	StatsRunningAverage contractStorageBytesWritten;
+
+	StatsRunningAverage bytecodeAnalysisHitRate;
+	StatsRunningAverage bytecodeAnalysisCacheBytes;
+
+	StatsRunningAverage evmOpsPerCall;
+	StatsRunningAverage evmGasPerCall;
+	StatsRunningAverage evmMsPerCall;
+
 	public MiscRunningAvgs(RunningAvgFactory runningAvg, NodeLocalProperties properties) {
 		this.runningAvg = runningAvg;
 
@@ -45,6 +61,22 @@ public class MiscRunningAvgs {
 
 		writeQueueSizeRecordStream = new StatsRunningAverage(halfLife);
 		hashQueueSizeRecordStream = new StatsRunningAverage(halfLife);
+
+		balancesExportMs = new StatsRunningAverage(halfLife);
+
+		autoRenewDueAccounts = new StatsRunningAverage(halfLife);
+		autoRenewTouchedPerScanned = new StatsRunningAverage(halfLife);
+
+		contractSlotsRead = new StatsRunningAverage(halfLife);
+		contractSlotsWritten = new StatsRunningAverage(halfLife);
+		contractStorageBytesWritten = new StatsRunningAverage(halfLife);
+
+		bytecodeAnalysisHitRate = new StatsRunningAverage(halfLife);
+		bytecodeAnalysisCacheBytes = new StatsRunningAverage(halfLife);
+
+		evmOpsPerCall = new StatsRunningAverage(halfLife);
+		evmGasPerCall = new StatsRunningAverage(halfLife);
+		evmMsPerCall = new StatsRunningAverage(halfLife);
 	}
 
 	public void registerWith(Platform platform) {
@@ -75,6 +107,61 @@ public class MiscRunningAvgs {
 						hashQueueSizeRecordStream
 				)
 		);
+		platform.addAppStatEntry(
+				runningAvg.from(
+						Names.BALANCES_EXPORT_MS,
+						Descriptions.BALANCES_EXPORT_MS,
+						balancesExportMs));
+		platform.addAppStatEntry(
+				runningAvg.from(
+						Names.AUTO_RENEW_DUE_ACCOUNTS,
+						Descriptions.AUTO_RENEW_DUE_ACCOUNTS,
+						autoRenewDueAccounts));
+		platform.addAppStatEntry(
+				runningAvg.from(
+						Names.AUTO_RENEW_TOUCHED_PER_SCANNED,
+						Descriptions.AUTO_RENEW_TOUCHED_PER_SCANNED,
+						autoRenewTouchedPerScanned));
+		platform.addAppStatEntry(
+				runningAvg.from(
+						Names.CONTRACT_SLOTS_READ,
+						Descriptions.CONTRACT_SLOTS_READ,
+						contractSlotsRead));
+		platform.addAppStatEntry(
+				runningAvg.from(
+						Names.CONTRACT_SLOTS_WRITTEN,
+						Descriptions.CONTRACT_SLOTS_WRITTEN,
+						contractSlotsWritten));
+		platform.addAppStatEntry(
+				runningAvg.from(
+						Names.CONTRACT_STORAGE_BYTES_WRITTEN,
+						Descriptions.CONTRACT_STORAGE_BYTES_WRITTEN,
+						contractStorageBytesWritten));
+		platform.addAppStatEntry(
+				runningAvg.from(
+						Names.BYTECODE_ANALYSIS_HIT_RATE,
+						Descriptions.BYTECODE_ANALYSIS_HIT_RATE,
+						bytecodeAnalysisHitRate));
+		platform.addAppStatEntry(
+				runningAvg.from(
+						Names.BYTECODE_ANALYSIS_CACHE_BYTES,
+						Descriptions.BYTECODE_ANALYSIS_CACHE_BYTES,
+						bytecodeAnalysisCacheBytes));
+		platform.addAppStatEntry(
+				runningAvg.from(
+						Names.EVM_OPS_PER_CALL,
+						Descriptions.EVM_OPS_PER_CALL,
+						evmOpsPerCall));
+		platform.addAppStatEntry(
+				runningAvg.from(
+						Names.EVM_GAS_PER_CALL,
+						Descriptions.EVM_GAS_PER_CALL,
+						evmGasPerCall));
+		platform.addAppStatEntry(
+				runningAvg.from(
+						Names.EVM_MS_PER_CALL,
+						Descriptions.EVM_MS_PER_CALL,
+						evmMsPerCall));
 	}
 
 	public void recordAccountLookupRetries(int num) {
@@ -97,6 +184,37 @@ public class MiscRunningAvgs {
 		hashQueueSizeRecordStream.recordValue(num);
 	}
 
+	public void recordBalancesExportMs(long ms) {
+		balancesExportMs.recordValue(ms);
+	}
+
+	public void recordAutoRenewScan(int numDue, int numScanned, int numTouched) {
+		autoRenewDueAccounts.recordValue(numDue);
+		if (numScanned > 0) {
+			autoRenewTouchedPerScanned.recordValue((double) numTouched / numScanned);
+		}
+	}
+
+	public void recordContractStorageAccess(int slotsRead, int slotsWritten, long bytesWritten) {
+		contractSlotsRead.recordValue(slotsRead);
+		contractSlotsWritten.recordValue(slotsWritten);
+		contractStorageBytesWritten.recordValue(bytesWritten);
+	}
+
+	public void recordBytecodeAnalysisLookup(boolean hit) {
+		bytecodeAnalysisHitRate.recordValue(hit ? 1.0 : 0.0);
+	}
+
+	public void recordBytecodeAnalysisCacheBytes(long bytes) {
+		bytecodeAnalysisCacheBytes.recordValue(bytes);
+	}
+
+	public void recordEvmCall(long ops, long gas, double ms) {
+		evmOpsPerCall.recordValue(ops);
+		evmGasPerCall.recordValue(gas);
+		evmMsPerCall.recordValue(ms);
+	}
+
 	static class Names {
 		public static final String ACCOUNT_RETRY_WAIT_MS = "avgAcctRetryWaitMs";
 		public static final String ACCOUNT_LOOKUP_RETRIES = "avgAcctLookupRetryAttempts";
@@ -104,6 +222,22 @@ public class MiscRunningAvgs {
 
 		public static final String WRITE_QUEUE_SIZE_RECORD_STREAM = "writeQueueSizeRecordStream";
 		public static final String HASH_QUEUE_SIZE_RECORD_STREAM = "hashQueueSizeRecordStream";
+
+		public static final String BALANCES_EXPORT_MS = "avgBalancesExportMs";
+
+		public static final String AUTO_RENEW_DUE_ACCOUNTS = "avgAutoRenewDueAccts";
+		public static final String AUTO_RENEW_TOUCHED_PER_SCANNED = "avgAutoRenewTouchedPerScanned";
+
+		public static final String CONTRACT_SLOTS_READ = "avgContractSlotsRead";
+		public static final String CONTRACT_SLOTS_WRITTEN = "avgContractSlotsWritten";
+		public static final String CONTRACT_STORAGE_BYTES_WRITTEN = "avgContractStorageBytesWritten";
+
+		public static final String BYTECODE_ANALYSIS_HIT_RATE = "avgBytecodeAnalysisHitRate";
+		public static final String BYTECODE_ANALYSIS_CACHE_BYTES = "avgBytecodeAnalysisCacheBytes";
+
+		public static final String EVM_OPS_PER_CALL = "avgEvmOpsPerCall";
+		public static final String EVM_GAS_PER_CALL = "avgEvmGasPerCall";
+		public static final String EVM_MS_PER_CALL = "avgEvmMsPerCall";
 	}
 
 	static class Descriptions {
@@ -117,5 +251,32 @@ public class MiscRunningAvgs {
 		public static final String WRITE_QUEUE_SIZE_RECORD_STREAM =
 				"size of the queue from which we take records and write to RecordStream file";
 		public static final String HASH_QUEUE_SIZE_RECORD_STREAM = "size of working queue for calculating hash and runningHash";
+
+		public static final String BALANCES_EXPORT_MS =
+				"average time in millis to export and sign the account balances files of a signed state";
+
+		public static final String AUTO_RENEW_DUE_ACCOUNTS =
+				"average number of accounts due for auto-renewal or removal at the start of a renewal cycle";
+		public static final String AUTO_RENEW_TOUCHED_PER_SCANNED =
+				"average fraction of the accounts scanned in a renewal cycle that were renewed or removed";
+
+		public static final String CONTRACT_SLOTS_READ =
+				"average number of contract storage slots loaded from state per contract call";
+		public static final String CONTRACT_SLOTS_WRITTEN =
+				"average number of contract storage slots added, changed, or removed per contract call";
+		public static final String CONTRACT_STORAGE_BYTES_WRITTEN =
+				"average number of contract storage bytes written to state per contract call";
+
+		public static final String BYTECODE_ANALYSIS_HIT_RATE =
+				"average fraction of contract programs whose jump destinations were already analyzed";
+		public static final String BYTECODE_ANALYSIS_CACHE_BYTES =
+				"average approximate size in bytes of the cached contract bytecode analyses";
+
+		public static final String EVM_OPS_PER_CALL =
+				"average number of EVM opcodes executed per profiled contract call";
+		public static final String EVM_GAS_PER_CALL =
+				"average gas used per profiled contract call";
+		public static final String EVM_MS_PER_CALL =
+				"average time in millis spent executing each profiled contract call";
 	}
 }
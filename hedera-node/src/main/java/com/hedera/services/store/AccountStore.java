@@ -23,6 +23,7 @@ package com.hedera.services.store;
 import com.hedera.services.context.properties.GlobalDynamicProperties;
 import com.hedera.services.exceptions.InvalidTransactionException;
 import com.hedera.services.records.TransactionRecordService;
+import com.hedera.services.state.exports.BalanceChangeTracker;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleEntityId;
 import com.hedera.services.store.models.Account;
@@ -42,15 +43,18 @@ public class AccountStore {
 	private final OptionValidator validator;
 	private final GlobalDynamicProperties dynamicProperties;
 	private final Supplier<FCMap<MerkleEntityId, MerkleAccount>> accounts;
+	private final BalanceChangeTracker balanceChangeTracker;
 
 	public AccountStore(
 			OptionValidator validator,
 			GlobalDynamicProperties dynamicProperties,
-			Supplier<FCMap<MerkleEntityId, MerkleAccount>> accounts
+			Supplier<FCMap<MerkleEntityId, MerkleAccount>> accounts,
+			BalanceChangeTracker balanceChangeTracker
 	) {
 		this.validator = validator;
 		this.dynamicProperties = dynamicProperties;
 		this.accounts = accounts;
+		this.balanceChangeTracker = balanceChangeTracker;
 	}
 
 	/**
@@ -96,6 +100,7 @@ public class AccountStore {
 		final var mutableAccount = currentAccounts.getForModify(key);
 		mutableAccount.tokens().updateAssociationsFrom(account.getAssociatedTokens());
 		mutableAccount.setNftsOwned(account.getOwnedNfts());
+		balanceChangeTracker.track(key.toAccountId());
 	}
 
 
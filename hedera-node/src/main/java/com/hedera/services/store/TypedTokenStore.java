@@ -24,6 +24,7 @@ import com.hedera.services.exceptions.InvalidTransactionException;
 import com.hedera.services.ledger.accounts.BackingNfts;
 import com.hedera.services.ledger.accounts.BackingTokenRels;
 import com.hedera.services.records.TransactionRecordService;
+import com.hedera.services.state.exports.BalanceChangeTracker;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
 import com.hedera.services.state.merkle.MerkleEntityId;
 import com.hedera.services.state.merkle.MerkleToken;
@@ -33,6 +34,7 @@ import com.hedera.services.state.merkle.MerkleUniqueTokenId;
 import com.hedera.services.state.submerkle.EntityId;
 import com.hedera.services.store.models.Account;
 import com.hedera.services.store.models.Id;
+import com.hedera.services.store.models.NftId;
 import com.hedera.services.store.models.OwnershipTracker;
 import com.hedera.services.store.models.Token;
 import com.hedera.services.store.models.TokenRelationship;
@@ -46,12 +48,14 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import javax.annotation.Nullable;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.function.Supplier;
 
 import static com.hedera.services.exceptions.ValidationUtils.validateFalse;
 import static com.hedera.services.exceptions.ValidationUtils.validateTrue;
+import static com.hedera.services.state.merkle.MerkleEntityAssociation.fromAccountTokenRel;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.INVALID_NFT_ID;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.INVALID_TOKEN_ID;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.TOKEN_NOT_ASSOCIATED_TO_ACCOUNT;
@@ -97,6 +101,8 @@ public class TypedTokenStore {
 	private final BackingNfts backingNfts;
 	private final BackingTokenRels backingTokenRels;
 
+	private final BalanceChangeTracker balanceChangeTracker;
+
 	public TypedTokenStore(
 			AccountStore accountStore,
 			TransactionRecordService transactionRecordService,
@@ -106,7 +112,8 @@ public class TypedTokenStore {
 			Supplier<FCOneToManyRelation<EntityId, MerkleUniqueTokenId>> uniqueTokenAssociations,
 			Supplier<FCMap<MerkleEntityAssociation, MerkleTokenRelStatus>> tokenRels,
 			BackingTokenRels backingTokenRels,
-			BackingNfts backingNfts
+			BackingNfts backingNfts,
+			BalanceChangeTracker balanceChangeTracker
 	) {
 		this.tokens = tokens;
 		this.uniqueTokenAssociations = uniqueTokenAssociations;
@@ -118,6 +125,7 @@ public class TypedTokenStore {
 
 		this.backingNfts = backingNfts;
 		this.backingTokenRels = backingTokenRels;
+		this.balanceChangeTracker = balanceChangeTracker;
 	}
 
 	/**
@@ -146,9 +154,7 @@ public class TypedTokenStore {
 	public TokenRelationship loadTokenRelationship(Token token, Account account) {
 		final var tokenId = token.getId();
 		final var accountId = account.getId();
-		final var key = new MerkleEntityAssociation(
-				accountId.getShard(), accountId.getRealm(), accountId.getNum(),
-				tokenId.getShard(), tokenId.getRealm(), tokenId.getNum());
+		final var key = fromAccountTokenRel(accountId, tokenId);
 		final var merkleTokenRel = tokenRels.get().get(key);
 
 		validateUsable(merkleTokenRel);
@@ -174,9 +180,7 @@ public class TypedTokenStore {
 	public void persistTokenRelationship(TokenRelationship tokenRelationship) {
 		final var tokenId = tokenRelationship.getToken().getId();
 		final var accountId = tokenRelationship.getAccount().getId();
-		final var key = new MerkleEntityAssociation(
-				accountId.getShard(), accountId.getRealm(), accountId.getNum(),
-				tokenId.getShard(), tokenId.getRealm(), tokenId.getNum());
+		final var key = fromAccountTokenRel(accountId, tokenId);
 		final var currentTokenRels = tokenRels.get();
 
 		final var isNewRel = tokenRelationship.isNotYetPersisted();
@@ -192,6 +196,7 @@ public class TypedTokenStore {
 		}
 
 		transactionRecordService.includeChangesToTokenRel(tokenRelationship);
+		balanceChangeTracker.track(accountId.asGrpcAccount());
 	}
 
 	/**
@@ -281,16 +286,7 @@ public class TypedTokenStore {
 		final var currentUniqueOwnershipAssociations = uniqueOwnershipAssociations.get();
 
 		if (token.hasMintedUniqueTokens()) {
-			for (var uniqueToken : token.mintedUniqueTokens()) {
-				final var merkleUniqueTokenId = new MerkleUniqueTokenId(
-						new EntityId(uniqueToken.getTokenId()), uniqueToken.getSerialNumber());
-				final var merkleUniqueToken = new MerkleUniqueToken(
-						new EntityId(uniqueToken.getOwner()), uniqueToken.getMetadata(), uniqueToken.getCreationTime());
-				currentUniqueTokens.put(merkleUniqueTokenId, merkleUniqueToken);
-				currentUniqueTokenAssociations.associate(new EntityId(uniqueToken.getTokenId()), merkleUniqueTokenId);
-				currentUniqueOwnershipAssociations.associate(treasury, merkleUniqueTokenId);
-				backingNfts.addToExistingNfts(merkleUniqueTokenId.asNftId());
-			}
+			persistMinted(token.mintedUniqueTokens(), treasury);
 		}
 		if (token.hasRemovedUniqueTokens()) {
 			for (var uniqueToken : token.removedUniqueTokens()) {
@@ -306,6 +302,49 @@ public class TypedTokenStore {
 		transactionRecordService.includeChangesToToken(token);
 	}
 
+	/**
+	 * Inserts a batch of newly minted NFTs into the unique token structures. Every NFT minted by
+	 * a transaction belongs to the same token and is owned by its treasury, so the whole batch
+	 * shares one token {@link EntityId} and one owner {@link EntityId} (which are immutable),
+	 * instead of allocating three more of them for each serial number; and the new ids are
+	 * added to the {@link BackingNfts} in a single call.
+	 *
+	 * @param minted
+	 * 		the newly minted NFTs
+	 * @param treasury
+	 * 		the treasury that owns them
+	 */
+	private void persistMinted(List<UniqueToken> minted, EntityId treasury) {
+		final var currentUniqueTokens = uniqueTokens.get();
+		final var currentUniqueTokenAssociations = uniqueTokenAssociations.get();
+		final var currentUniqueOwnershipAssociations = uniqueOwnershipAssociations.get();
+
+		Id batchTokenId = null;
+		Id batchOwnerId = null;
+		EntityId tokenId = null;
+		EntityId ownerId = null;
+		final List<NftId> mintedIds = new ArrayList<>(minted.size());
+		for (var uniqueToken : minted) {
+			if (!uniqueToken.getTokenId().equals(batchTokenId)) {
+				batchTokenId = uniqueToken.getTokenId();
+				tokenId = batchTokenId.asEntityId();
+			}
+			if (!uniqueToken.getOwner().equals(batchOwnerId)) {
+				batchOwnerId = uniqueToken.getOwner();
+				ownerId = batchOwnerId.asEntityId();
+			}
+			final var serialNo = uniqueToken.getSerialNumber();
+			final var merkleUniqueTokenId = new MerkleUniqueTokenId(tokenId, serialNo);
+			final var merkleUniqueToken = new MerkleUniqueToken(
+					ownerId, uniqueToken.getMetadata(), uniqueToken.getCreationTime());
+			currentUniqueTokens.put(merkleUniqueTokenId, merkleUniqueToken);
+			currentUniqueTokenAssociations.associate(tokenId, merkleUniqueTokenId);
+			currentUniqueOwnershipAssociations.associate(treasury, merkleUniqueTokenId);
+			mintedIds.add(new NftId(tokenId.shard(), tokenId.realm(), tokenId.num(), serialNo));
+		}
+		backingNfts.addAllToExistingNfts(mintedIds);
+	}
+
 	private void validateUsable(MerkleTokenRelStatus merkleTokenRelStatus) {
 		validateTrue(merkleTokenRelStatus != null, TOKEN_NOT_ASSOCIATED_TO_ACCOUNT);
 	}
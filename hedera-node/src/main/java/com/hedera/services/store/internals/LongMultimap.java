@@ -0,0 +1,233 @@
+package com.hedera.services.store.internals;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import java.util.Arrays;
+
+/**
+ * A multimap from {@code long} keys to sets of {@code long} values, meant for auxiliary
+ * indexes (such as "tokens served by each treasury") that would otherwise be a
+ * {@code HashMap} of boxed keys to {@code HashSet}s of boxed values.
+ *
+ * Keys live in an open-addressed table with linear probing and backward-shift deletion;
+ * the values for each key are a sorted {@code long[]} of exactly the needed length, since
+ * in practice most keys map to only a few values. Any {@code long} is a valid key or value.
+ *
+ * Not thread-safe.
+ */
+public class LongMultimap {
+	private static final int MIN_CAPACITY = 16;
+	private static final long[] NO_VALUES = new long[0];
+
+	/* Rough per-object costs on a 64-bit JVM with compressed oops; used only for memory stats. */
+	static final int REF_BYTES = 4;
+	static final int ARRAY_HEADER_BYTES = 16;
+
+	private long[] keys;
+	private long[][] values;
+	private int numKeys;
+	private int numValues;
+
+	public LongMultimap() {
+		this(MIN_CAPACITY / 2);
+	}
+
+	public LongMultimap(int expectedKeys) {
+		allocate(capacityFor(expectedKeys));
+	}
+
+	/**
+	 * Adds the given value to the set for the given key.
+	 *
+	 * @param key the key
+	 * @param value the value to add
+	 * @return whether the value was not already present
+	 */
+	public boolean put(long key, long value) {
+		if (2 * (numKeys + 1) > keys.length) {
+			rehash(2 * keys.length);
+		}
+		final int i = slotOf(key);
+		final var current = values[i];
+		if (current == null) {
+			keys[i] = key;
+			values[i] = new long[] { value };
+			numKeys++;
+			numValues++;
+			return true;
+		}
+		final int pos = Arrays.binarySearch(current, value);
+		if (pos >= 0) {
+			return false;
+		}
+		final int insertAt = -pos - 1;
+		final var next = new long[current.length + 1];
+		System.arraycopy(current, 0, next, 0, insertAt);
+		next[insertAt] = value;
+		System.arraycopy(current, insertAt, next, insertAt + 1, current.length - insertAt);
+		values[i] = next;
+		numValues++;
+		return true;
+	}
+
+	/**
+	 * Removes the given value from the set for the given key; and removes the key itself
+	 * if this leaves its set empty.
+	 *
+	 * @param key the key
+	 * @param value the value to remove
+	 * @return whether the value was present
+	 */
+	public boolean remove(long key, long value) {
+		final int i = slotOf(key);
+		final var current = values[i];
+		if (current == null) {
+			return false;
+		}
+		final int pos = Arrays.binarySearch(current, value);
+		if (pos < 0) {
+			return false;
+		}
+		if (current.length == 1) {
+			clearSlot(i);
+			numKeys--;
+		} else {
+			final var next = new long[current.length - 1];
+			System.arraycopy(current, 0, next, 0, pos);
+			System.arraycopy(current, pos + 1, next, pos, next.length - pos);
+			values[i] = next;
+		}
+		numValues--;
+		return true;
+	}
+
+	public boolean containsKey(long key) {
+		return values[slotOf(key)] != null;
+	}
+
+	public boolean contains(long key, long value) {
+		final var current = values[slotOf(key)];
+		return current != null && Arrays.binarySearch(current, value) >= 0;
+	}
+
+	/**
+	 * Returns a copy of the values for the given key, in ascending (signed) order.
+	 *
+	 * @param key the key
+	 * @return the values, empty if the key is not present
+	 */
+	public long[] get(long key) {
+		final var current = values[slotOf(key)];
+		return (current == null) ? NO_VALUES : current.clone();
+	}
+
+	public int numKeys() {
+		return numKeys;
+	}
+
+	public int numValues() {
+		return numValues;
+	}
+
+	public boolean isEmpty() {
+		return numKeys == 0;
+	}
+
+	public void clear() {
+		allocate(MIN_CAPACITY);
+		numKeys = 0;
+		numValues = 0;
+	}
+
+	/**
+	 * Returns an estimate of the heap used by this multimap, for logging.
+	 *
+	 * @return the approximate size in bytes
+	 */
+	public long approxBytes() {
+		return 2L * ARRAY_HEADER_BYTES
+				+ (long) keys.length * (Long.BYTES + REF_BYTES)
+				+ (long) numKeys * ARRAY_HEADER_BYTES
+				+ (long) numValues * Long.BYTES;
+	}
+
+	private int slotOf(long key) {
+		final int mask = keys.length - 1;
+		int i = spread(key) & mask;
+		while (values[i] != null && keys[i] != key) {
+			i = (i + 1) & mask;
+		}
+		return i;
+	}
+
+	/* Shifts back any later entries in the probe run that can no longer be reached past the hole. */
+	private void clearSlot(int i) {
+		final int mask = keys.length - 1;
+		int hole = i;
+		int j = i;
+		while (true) {
+			j = (j + 1) & mask;
+			if (values[j] == null) {
+				break;
+			}
+			final int home = spread(keys[j]) & mask;
+			final boolean reachable = (hole < j) ? (hole < home && home <= j) : (hole < home || home <= j);
+			if (!reachable) {
+				keys[hole] = keys[j];
+				values[hole] = values[j];
+				hole = j;
+			}
+		}
+		keys[hole] = 0;
+		values[hole] = null;
+	}
+
+	private void rehash(int capacity) {
+		final var oldKeys = keys;
+		final var oldValues = values;
+		allocate(capacity);
+		for (int i = 0; i < oldKeys.length; i++) {
+			if (oldValues[i] != null) {
+				final int j = slotOf(oldKeys[i]);
+				keys[j] = oldKeys[i];
+				values[j] = oldValues[i];
+			}
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new long[capacity][];
+	}
+
+	static int capacityFor(int expectedKeys) {
+		int capacity = MIN_CAPACITY;
+		while (capacity < 2 * expectedKeys && capacity < (1 << 30)) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	static int spread(long key) {
+		final long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
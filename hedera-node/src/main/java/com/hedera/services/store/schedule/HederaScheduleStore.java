@@ -29,18 +29,23 @@ import com.hedera.services.state.submerkle.EntityId;
 import com.hedera.services.state.submerkle.RichInstant;
 import com.hedera.services.store.CreationResult;
 import com.hedera.services.store.HederaStore;
+import com.hedera.services.store.internals.LongMultimap;
 import com.hederahashgraph.api.proto.java.ResponseCodeEnum;
 import com.hederahashgraph.api.proto.java.ScheduleID;
 import com.swirlds.fcmap.FCMap;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import static com.hedera.services.state.merkle.MerkleEntityId.fromScheduleId;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.codeFromIds;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.numFromCode;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.realmFromCode;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.shardFromCode;
 import static com.hedera.services.store.CreationResult.failure;
 import static com.hedera.services.store.CreationResult.success;
 import static com.hedera.services.utils.EntityIdUtils.readableId;
@@ -59,6 +64,8 @@ import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.SCHEDULE_IS_IM
  * @author Michael Tinker
  */
 public class HederaScheduleStore extends HederaStore implements ScheduleStore {
+	private static final Logger log = LogManager.getLogger(HederaScheduleStore.class);
+
 	static final ScheduleID NO_PENDING_ID = ScheduleID.getDefaultInstance();
 
 	private final GlobalDynamicProperties properties;
@@ -67,7 +74,8 @@ public class HederaScheduleStore extends HederaStore implements ScheduleStore {
 	ScheduleID pendingId = NO_PENDING_ID;
 	MerkleSchedule pendingCreation;
 	TransactionContext txnCtx;
-	Map<MerkleSchedule, MerkleEntityId> extantSchedules = new HashMap<>();
+	/* Maps the content hash of each extant schedule to the identity codes of the schedules with that hash. */
+	LongMultimap extantSchedules = new LongMultimap();
 
 	public HederaScheduleStore(
 			GlobalDynamicProperties properties,
@@ -154,7 +162,7 @@ public class HederaScheduleStore extends HederaStore implements ScheduleStore {
 
 		var id = fromScheduleId(pendingId);
 		schedules.get().put(id, pendingCreation);
-		extantSchedules.put(pendingCreation.toContentAddressableView(), id);
+		extantSchedules.put(pendingCreation.contentHash(), codeOf(id));
 		resetPendingCreation();
 	}
 
@@ -182,7 +190,13 @@ public class HederaScheduleStore extends HederaStore implements ScheduleStore {
 	}
 
 	private void buildContentAddressableViewOfExtantSchedules() {
-		schedules.get().forEach((key, value) -> extantSchedules.put(value.toContentAddressableView(), key));
+		final long start = System.nanoTime();
+		schedules.get().forEach((key, value) -> extantSchedules.put(value.contentHash(), codeOf(key)));
+		log.info("Rebuilt extant schedules view ({} schedules under {} content hashes, ~{} bytes) in {}ms",
+				extantSchedules.numValues(),
+				extantSchedules.numKeys(),
+				extantSchedules.approxBytes(),
+				(System.nanoTime() - start) / 1_000_000.0);
 	}
 
 	@Override
@@ -200,9 +214,13 @@ public class HederaScheduleStore extends HederaStore implements ScheduleStore {
 				return Pair.of(Optional.of(pendingId), pendingCreation);
 			}
 		}
-		if (extantSchedules.containsKey(schedule)) {
-			var extantId = extantSchedules.get(schedule);
-			return Pair.of(Optional.of(extantId.toScheduleId()), schedules.get().get(extantId));
+		/* Distinct schedules can share a content hash, so check each candidate for equality. */
+		for (var code : extantSchedules.get(schedule.contentHash())) {
+			var extantId = new MerkleEntityId(shardFromCode(code), realmFromCode(code), numFromCode(code));
+			var extant = schedules.get().get(extantId);
+			if (schedule.equals(extant)) {
+				return Pair.of(Optional.of(extantId.toScheduleId()), extant);
+			}
 		}
 
 		return Pair.of(Optional.empty(), schedule);
@@ -228,13 +246,17 @@ public class HederaScheduleStore extends HederaStore implements ScheduleStore {
 		}
 		var schedule = get(id);
 		schedules.get().remove(entityId.asMerkle());
-		extantSchedules.remove(schedule);
+		extantSchedules.remove(schedule.contentHash(), codeFromIds(entityId.shard(), entityId.realm(), entityId.num()));
 	}
 
-	public Map<MerkleSchedule, MerkleEntityId> getExtantSchedules() {
+	public LongMultimap getExtantSchedules() {
 		return extantSchedules;
 	}
 
+	private static long codeOf(MerkleEntityId id) {
+		return codeFromIds(id.getShard(), id.getRealm(), id.getNum());
+	}
+
 	private ResponseCodeEnum usabilityCheck(
 			ScheduleID id,
 			boolean requiresMutability
@@ -34,9 +34,11 @@ import com.hedera.services.state.merkle.MerkleToken;
 import com.hedera.services.state.merkle.MerkleTokenRelStatus;
 import com.hedera.services.state.merkle.MerkleUniqueToken;
 import com.hedera.services.state.merkle.MerkleUniqueTokenId;
+import com.hedera.services.state.merkle.internals.IdentityCodeUtils;
 import com.hedera.services.state.submerkle.EntityId;
 import com.hedera.services.store.CreationResult;
 import com.hedera.services.store.HederaStore;
+import com.hedera.services.store.internals.LongMultimap;
 import com.hedera.services.store.models.NftId;
 import com.hedera.services.txns.validation.OptionValidator;
 import com.hederahashgraph.api.proto.java.AccountID;
@@ -52,14 +54,14 @@ import com.hederahashgraph.api.proto.java.TokenUpdateTransactionBody;
 import com.swirlds.fchashmap.FCOneToManyRelation;
 import com.swirlds.fcmap.FCMap;
 import org.apache.commons.lang3.tuple.Pair;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
-import java.util.Set;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
@@ -75,8 +77,11 @@ import static com.hedera.services.ledger.properties.TokenRelProperty.IS_KYC_GRAN
 import static com.hedera.services.ledger.properties.TokenRelProperty.TOKEN_BALANCE;
 import static com.hedera.services.state.merkle.MerkleEntityId.fromTokenId;
 import static com.hedera.services.state.merkle.MerkleToken.UNUSED_KEY;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.codeFromIds;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.numFromCode;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.realmFromCode;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.shardFromCode;
 import static com.hedera.services.state.submerkle.EntityId.fromGrpcAccountId;
-import static com.hedera.services.state.submerkle.EntityId.fromGrpcTokenId;
 import static com.hedera.services.store.CreationResult.failure;
 import static com.hedera.services.store.CreationResult.success;
 import static com.hedera.services.utils.EntityIdUtils.readableId;
@@ -118,12 +123,13 @@ import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.TOKEN_NOT_ASSO
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.TOKEN_NOT_ASSOCIATED_TO_FEE_COLLECTOR;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.TOKEN_WAS_DELETED;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.TRANSACTION_REQUIRES_ZERO_TOKEN_BALANCES;
-import static java.util.stream.Collectors.toList;
 
 /**
  * Provides a managing store for arbitrary tokens.
  */
 public class HederaTokenStore extends HederaStore implements TokenStore {
+	private static final Logger log = LogManager.getLogger(HederaTokenStore.class);
+
 	static final TokenID NO_PENDING_ID = TokenID.getDefaultInstance();
 
 	static Predicate<Key> REMOVES_ADMIN_KEY = ImmutableKeyUtils::signalsKeyRemoval;
@@ -137,7 +143,8 @@ public class HederaTokenStore extends HederaStore implements TokenStore {
 			Pair<AccountID, TokenID>,
 			TokenRelProperty,
 			MerkleTokenRelStatus> tokenRelsLedger;
-	Map<AccountID, Set<TokenID>> knownTreasuries = new HashMap<>();
+	/* Maps the identity code of each treasury account to the identity codes of the tokens it serves. */
+	LongMultimap knownTreasuries = new LongMultimap();
 
 	TokenID pendingId = NO_PENDING_ID;
 	MerkleToken pendingCreation;
@@ -168,12 +175,21 @@ public class HederaTokenStore extends HederaStore implements TokenStore {
 	}
 
 	private void rebuildViewOfKnownTreasuries() {
+		final long start = System.nanoTime();
 		tokens.get().forEach((key, value) -> {
 			/* A deleted token's treasury is no longer bound by ACCOUNT_IS_TREASURY restrictions. */
 			if (!value.isDeleted()) {
-				addKnownTreasury(value.treasury().toGrpcAccountId(), key.toTokenId());
+				final var treasury = value.treasury();
+				knownTreasuries.put(
+						codeFromIds(treasury.shard(), treasury.realm(), treasury.num()),
+						codeFromIds(key.getShard(), key.getRealm(), key.getNum()));
 			}
 		});
+		log.info("Rebuilt known treasuries view ({} treasuries serving {} tokens, ~{} bytes) in {}ms",
+				knownTreasuries.numKeys(),
+				knownTreasuries.numValues(),
+				knownTreasuries.approxBytes(),
+				(System.nanoTime() - start) / 1_000_000.0);
 	}
 
 	@Override
@@ -181,9 +197,17 @@ public class HederaTokenStore extends HederaStore implements TokenStore {
 		if (!isKnownTreasury(treasury)) {
 			return Collections.emptyList();
 		} else {
-			return knownTreasuries.get(treasury).stream()
-					.sorted(HederaLedger.TOKEN_ID_COMPARATOR)
-					.collect(toList());
+			final var tokenCodes = knownTreasuries.get(accountCodeOf(treasury));
+			final List<TokenID> served = new ArrayList<>(tokenCodes.length);
+			for (var tokenCode : tokenCodes) {
+				served.add(TokenID.newBuilder()
+						.setShardNum(shardFromCode(tokenCode))
+						.setRealmNum(realmFromCode(tokenCode))
+						.setTokenNum(numFromCode(tokenCode))
+						.build());
+			}
+			served.sort(HederaLedger.TOKEN_ID_COMPARATOR);
+			return served;
 		}
 	}
 
@@ -386,7 +410,7 @@ public class HederaTokenStore extends HederaStore implements TokenStore {
 			tokenRelsLedger.set(fromRel, TOKEN_BALANCE, fromThisNftsOwned - 1);
 			tokenRelsLedger.set(toRel, TOKEN_BALANCE, toThisNftsOwned + 1);
 
-			var merkleUniqueTokenId = new MerkleUniqueTokenId(fromGrpcTokenId(nftId.tokenId()), nftId.serialNo());
+			var merkleUniqueTokenId = MerkleUniqueTokenId.fromNftId(nftId);
 			this.uniqueOwnershipAssociations.get().disassociate(
 					fromGrpcAccountId(from),
 					merkleUniqueTokenId);
@@ -586,19 +610,16 @@ public class HederaTokenStore extends HederaStore implements TokenStore {
 	}
 
 	public void addKnownTreasury(AccountID aId, TokenID tId) {
-		knownTreasuries.computeIfAbsent(aId, ignore -> new HashSet<>()).add(tId);
+		knownTreasuries.put(accountCodeOf(aId), tokenCodeOf(tId));
 	}
 
 	void removeKnownTreasuryForToken(AccountID aId, TokenID tId) {
 		throwIfKnownTreasuryIsMissing(aId);
-		knownTreasuries.get(aId).remove(tId);
-		if (knownTreasuries.get(aId).isEmpty()) {
-			knownTreasuries.remove(aId);
-		}
+		knownTreasuries.remove(accountCodeOf(aId), tokenCodeOf(tId));
 	}
 
 	private void throwIfKnownTreasuryIsMissing(AccountID aId) {
-		if (!knownTreasuries.containsKey(aId)) {
+		if (!isKnownTreasury(aId)) {
 			throw new IllegalArgumentException(String.format(
 					"Argument 'aId=%s' does not refer to a known treasury!",
 					readableId(aId)));
@@ -669,11 +690,7 @@ public class HederaTokenStore extends HederaStore implements TokenStore {
 		}
 
 		var treasury = tokens.get().get(fromTokenId(tId)).treasury().toGrpcAccountId();
-		var tokensServed = knownTreasuries.get(treasury);
-		tokensServed.remove(tId);
-		if (tokensServed.isEmpty()) {
-			knownTreasuries.remove(treasury);
-		}
+		knownTreasuries.remove(accountCodeOf(treasury), tokenCodeOf(tId));
 		return OK;
 	}
 
@@ -881,15 +898,12 @@ public class HederaTokenStore extends HederaStore implements TokenStore {
 	}
 
 	public boolean isKnownTreasury(AccountID aid) {
-		return knownTreasuries.containsKey(aid);
+		return isPackable(aid) && knownTreasuries.containsKey(accountCodeOf(aid));
 	}
 
 	@Override
 	public boolean isTreasuryForToken(AccountID aId, TokenID tId) {
-		if (!knownTreasuries.containsKey(aId)) {
-			return false;
-		}
-		return knownTreasuries.get(aId).contains(tId);
+		return isPackable(aId) && isPackable(tId) && knownTreasuries.contains(accountCodeOf(aId), tokenCodeOf(tId));
 	}
 
 	private ResponseCodeEnum manageFlag(
@@ -963,7 +977,23 @@ public class HederaTokenStore extends HederaStore implements TokenStore {
 		return exists(tId) ? OK : INVALID_TOKEN_ID;
 	}
 
-	Map<AccountID, Set<TokenID>> getKnownTreasuries() {
+	private static boolean isPackable(AccountID aId) {
+		return IdentityCodeUtils.isPackable(aId.getShardNum(), aId.getRealmNum(), aId.getAccountNum());
+	}
+
+	private static boolean isPackable(TokenID tId) {
+		return IdentityCodeUtils.isPackable(tId.getShardNum(), tId.getRealmNum(), tId.getTokenNum());
+	}
+
+	private static long accountCodeOf(AccountID aId) {
+		return codeFromIds(aId.getShardNum(), aId.getRealmNum(), aId.getAccountNum());
+	}
+
+	private static long tokenCodeOf(TokenID tId) {
+		return codeFromIds(tId.getShardNum(), tId.getRealmNum(), tId.getTokenNum());
+	}
+
+	LongMultimap getKnownTreasuries() {
 		return knownTreasuries;
 	}
 }
@@ -0,0 +1,214 @@
+package com.hedera.services.stream;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.common.base.MoreObjects;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.TransactionRecord;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+import static com.hedera.services.stream.RecordStreamIndexWriter.INDEX_FILE_VERSION;
+
+/**
+ * One entry in a record stream sidecar index; locates a single {@link RecordStreamObject}
+ * inside its {@code .rcd} file so a consumer can seek directly to it without
+ * deserializing every preceding object.
+ */
+public class RecordStreamIndexEntry {
+	static final int MAX_TXN_HASH_LENGTH = 64;
+
+	private final byte[] txnHash;
+	private final long consensusSecs;
+	private final int consensusNanos;
+	private final long payerShard;
+	private final long payerRealm;
+	private final long payerNum;
+	private final long offset;
+	private final int length;
+
+	public RecordStreamIndexEntry(
+			byte[] txnHash,
+			long consensusSecs,
+			int consensusNanos,
+			long payerShard,
+			long payerRealm,
+			long payerNum,
+			long offset,
+			int length
+	) {
+		this.txnHash = txnHash;
+		this.consensusSecs = consensusSecs;
+		this.consensusNanos = consensusNanos;
+		this.payerShard = payerShard;
+		this.payerRealm = payerRealm;
+		this.payerNum = payerNum;
+		this.offset = offset;
+		this.length = length;
+	}
+
+	static RecordStreamIndexEntry from(TransactionRecord record, long offset, int length) {
+		final var consensusTime = record.getConsensusTimestamp();
+		final AccountID payer = record.getTransactionID().getAccountID();
+		return new RecordStreamIndexEntry(
+				record.getTransactionHash().toByteArray(),
+				consensusTime.getSeconds(),
+				consensusTime.getNanos(),
+				payer.getShardNum(),
+				payer.getRealmNum(),
+				payer.getAccountNum(),
+				offset,
+				length);
+	}
+
+	void writeTo(DataOutputStream out) throws IOException {
+		out.writeInt(txnHash.length);
+		out.write(txnHash);
+		out.writeLong(consensusSecs);
+		out.writeInt(consensusNanos);
+		out.writeLong(payerShard);
+		out.writeLong(payerRealm);
+		out.writeLong(payerNum);
+		out.writeLong(offset);
+		out.writeInt(length);
+	}
+
+	static RecordStreamIndexEntry readFrom(DataInputStream in) throws IOException {
+		final int hashLength = in.readInt();
+		if (hashLength < 0 || hashLength > MAX_TXN_HASH_LENGTH) {
+			throw new IOException("Invalid transaction hash length " + hashLength + " in record stream index");
+		}
+		final var txnHash = new byte[hashLength];
+		in.readFully(txnHash);
+		return new RecordStreamIndexEntry(
+				txnHash,
+				in.readLong(),
+				in.readInt(),
+				in.readLong(),
+				in.readLong(),
+				in.readLong(),
+				in.readLong(),
+				in.readInt());
+	}
+
+	/**
+	 * Reads all the entries from a sidecar index file written by {@link RecordStreamIndexWriter}.
+	 *
+	 * @param indexFile
+	 * 		the {@code .rcd_idx} file to read
+	 * @return the entries in the index, in consensus order
+	 * @throws IOException
+	 * 		if the file cannot be read or has an unsupported version
+	 */
+	public static List<RecordStreamIndexEntry> readAllFrom(File indexFile) throws IOException {
+		final List<RecordStreamIndexEntry> entries = new ArrayList<>();
+		try (var in = new DataInputStream(new BufferedInputStream(new FileInputStream(indexFile)))) {
+			final int version = in.readInt();
+			if (version != INDEX_FILE_VERSION) {
+				throw new IOException("Unsupported record stream index version " + version);
+			}
+			while (true) {
+				try {
+					entries.add(readFrom(in));
+				} catch (EOFException ignore) {
+					break;
+				}
+			}
+		}
+		return entries;
+	}
+
+	public byte[] getTxnHash() {
+		return txnHash;
+	}
+
+	public Instant getConsensusTimestamp() {
+		return Instant.ofEpochSecond(consensusSecs, consensusNanos);
+	}
+
+	public AccountID getPayer() {
+		return AccountID.newBuilder()
+				.setShardNum(payerShard)
+				.setRealmNum(payerRealm)
+				.setAccountNum(payerNum)
+				.build();
+	}
+
+	/**
+	 * Returns the position in the record stream file of the first byte of the serialized
+	 * {@link RecordStreamObject}, including its class id and version prefix.
+	 *
+	 * @return the byte offset of the object in its record stream file
+	 */
+	public long getOffset() {
+		return offset;
+	}
+
+	public int getLength() {
+		return length;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o == null || RecordStreamIndexEntry.class != o.getClass()) {
+			return false;
+		}
+		var that = (RecordStreamIndexEntry) o;
+		return consensusSecs == that.consensusSecs &&
+				consensusNanos == that.consensusNanos &&
+				payerShard == that.payerShard &&
+				payerRealm == that.payerRealm &&
+				payerNum == that.payerNum &&
+				offset == that.offset &&
+				length == that.length &&
+				Arrays.equals(txnHash, that.txnHash);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = Objects.hash(consensusSecs, consensusNanos, payerShard, payerRealm, payerNum, offset, length);
+		return 31 * result + Arrays.hashCode(txnHash);
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(RecordStreamIndexEntry.class)
+				.add("consensusTimestamp", getConsensusTimestamp())
+				.add("payer", String.format("%d.%d.%d", payerShard, payerRealm, payerNum))
+				.add("offset", offset)
+				.add("length", length)
+				.toString();
+	}
+}
@@ -0,0 +1,216 @@
+package com.hedera.services.stream;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.Transaction;
+import com.hederahashgraph.api.proto.java.TransactionRecord;
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.crypto.ImmutableHash;
+import com.swirlds.common.io.SelfSerializable;
+import com.swirlds.common.io.SerializableDataOutputStream;
+import com.swirlds.common.stream.LinkedObjectStream;
+import com.swirlds.common.stream.StreamType;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.commons.io.output.NullOutputStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+
+import static com.swirlds.common.stream.LinkedObjectStreamUtilities.generateStreamFileNameFromInstant;
+import static com.swirlds.common.stream.LinkedObjectStreamUtilities.getPeriod;
+
+/**
+ * Writes a compact sidecar index for each record stream file, recording for every {@link RecordStreamObject}
+ * its transaction hash, consensus timestamp, payer, and the byte offset and length of its serialized form in
+ * the {@code .rcd} file. Entries are appended as objects stream through, so the index is complete as soon
+ * as its record stream file is closed.
+ *
+ * The index file for a record stream file {@code <name>.rcd} is {@code <name>.rcd_idx} in the same directory;
+ * it starts with an int version, followed by one entry per object in consensus order.
+ *
+ * Rolls over to a new index file using the same period logic as the
+ * {@link com.swirlds.common.stream.TimestampStreamFileWriter} that writes the record stream files, so that
+ * every index file corresponds to exactly one record stream file.
+ */
+public class RecordStreamIndexWriter implements LinkedObjectStream<RecordStreamObject> {
+	private static final Logger log = LogManager.getLogger(RecordStreamIndexWriter.class);
+
+	static final int INDEX_FILE_VERSION = 1;
+	static final String INDEX_FILE_SUFFIX = "_idx";
+
+	private final String dirPath;
+	private final long logPeriodMs;
+	private final StreamType streamType;
+
+	/* Bytes in a record stream file before its first object; i.e., the file header, the object stream version,
+	 * and the start running hash */
+	private final long firstObjectOffset;
+	/* Bytes in a serialized RecordStreamObject other than its record and transaction bytes */
+	private final int perObjectOverhead;
+
+	private boolean startWriteAtCompleteWindow;
+	private Instant lastConsensusTimestamp;
+
+	private File indexFile;
+	private DataOutputStream out;
+	private long nextOffset;
+	private int entriesInFile;
+
+	public RecordStreamIndexWriter(
+			final String dirPath,
+			final long logPeriodMs,
+			final boolean startWriteAtCompleteWindow,
+			final StreamType streamType
+	) {
+		this.dirPath = dirPath;
+		this.logPeriodMs = logPeriodMs;
+		this.streamType = streamType;
+		this.startWriteAtCompleteWindow = startWriteAtCompleteWindow;
+
+		firstObjectOffset = (long) Integer.BYTES * streamType.getFileHeader().length
+				+ Integer.BYTES
+				+ serializedLength(new ImmutableHash(new byte[DigestType.SHA_384.digestLength()]));
+		perObjectOverhead = (int) serializedLength(new RecordStreamObject(
+				TransactionRecord.getDefaultInstance(),
+				Transaction.getDefaultInstance(),
+				Instant.EPOCH));
+	}
+
+	@Override
+	public void addObject(final RecordStreamObject object) {
+		if (shouldStartNewIndex(object)) {
+			closeCurrent();
+			startNewIndex(object);
+		}
+		if (out != null) {
+			append(object);
+		}
+	}
+
+	@Override
+	public void setRunningHash(final Hash hash) {
+		/* The index only locates objects, so the running hash is irrelevant here. */
+	}
+
+	@Override
+	public void clear() {
+		closeCurrent();
+		lastConsensusTimestamp = null;
+	}
+
+	@Override
+	public void close() {
+		closeCurrent();
+		log.info("RecordStreamIndexWriter closed");
+	}
+
+	public void setStartWriteAtCompleteWindow(final boolean startWriteAtCompleteWindow) {
+		this.startWriteAtCompleteWindow = startWriteAtCompleteWindow;
+	}
+
+	public boolean getStartWriteAtCompleteWindow() {
+		return startWriteAtCompleteWindow;
+	}
+
+	/**
+	 * Mirrors {@link com.swirlds.common.stream.TimestampStreamFileWriter#checkIfShouldWriteNewFile}; after a
+	 * reconnect or state recovery no index is written until the first complete record stream window.
+	 */
+	private boolean shouldStartNewIndex(final RecordStreamObject object) {
+		final var timestamp = object.getTimestamp();
+		final boolean answer;
+		if (lastConsensusTimestamp == null) {
+			answer = !startWriteAtCompleteWindow;
+		} else {
+			answer = getPeriod(lastConsensusTimestamp, logPeriodMs) != getPeriod(timestamp, logPeriodMs);
+		}
+		lastConsensusTimestamp = timestamp;
+		return answer;
+	}
+
+	private void startNewIndex(final RecordStreamObject object) {
+		final var recordFileName = generateStreamFileNameFromInstant(object.getTimestamp(), streamType);
+		indexFile = new File(dirPath + File.separator + recordFileName + INDEX_FILE_SUFFIX);
+		try {
+			out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(indexFile, false)));
+			out.writeInt(INDEX_FILE_VERSION);
+			nextOffset = firstObjectOffset;
+			entriesInFile = 0;
+		} catch (IOException e) {
+			log.error("Could not start record stream index file {}", indexFile, e);
+			out = null;
+		}
+	}
+
+	private void append(final RecordStreamObject object) {
+		final var record = object.getTransactionRecord();
+		final int length = perObjectOverhead
+				+ record.getSerializedSize()
+				+ object.getTransaction().getSerializedSize();
+		try {
+			RecordStreamIndexEntry.from(record, nextOffset, length).writeTo(out);
+			nextOffset += length;
+			entriesInFile++;
+		} catch (IOException e) {
+			log.error("Could not append {} to record stream index file {}", object.toShortString(), indexFile, e);
+			closeCurrent();
+		}
+	}
+
+	private void closeCurrent() {
+		if (out == null) {
+			return;
+		}
+		try {
+			out.close();
+			log.debug("Wrote {} entries to record stream index file {}", entriesInFile, indexFile.getName());
+		} catch (IOException e) {
+			log.error("Could not close record stream index file {}", indexFile, e);
+		}
+		out = null;
+	}
+
+	static long serializedLength(final SelfSerializable object) {
+		final var counter = new CountingOutputStream(NullOutputStream.NULL_OUTPUT_STREAM);
+		try (var dos = new SerializableDataOutputStream(counter)) {
+			dos.writeSerializable(object, true);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return counter.getByteCount();
+	}
+
+	File getIndexFile() {
+		return indexFile;
+	}
+
+	long getFirstObjectOffset() {
+		return firstObjectOffset;
+	}
+}
@@ -27,6 +27,7 @@ import com.swirlds.common.crypto.DigestType;
 import com.swirlds.common.crypto.Hash;
 import com.swirlds.common.crypto.ImmutableHash;
 import com.swirlds.common.stream.HashCalculatorForStream;
+import com.swirlds.common.stream.LinkedObjectStream;
 import com.swirlds.common.stream.MultiStream;
 import com.swirlds.common.stream.QueueThreadObjectStream;
 import com.swirlds.common.stream.QueueThreadObjectStreamConfiguration;
@@ -39,6 +40,7 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.List;
 
 import static com.swirlds.common.Units.SECONDS_TO_MILLISECONDS;
@@ -74,6 +76,14 @@ public class RecordStreamManager {
 	 */
 	private TimestampStreamFileWriter<RecordStreamObject> streamFileWriter;
 
+	/** receives {@link RecordStreamObject}s from multiStream, then passes to indexWriter */
+	private QueueThreadObjectStream<RecordStreamObject> indexQueueThread;
+	/**
+	 * receives {@link RecordStreamObject}s from indexQueueThread, writes a sidecar index entry for each object to
+	 * the index file of the record stream file containing it
+	 */
+	private RecordStreamIndexWriter indexWriter;
+
 	/** initial running Hash of records */
 	private Hash initialHash = new ImmutableHash(new byte[DigestType.SHA_384.digestLength()]);
 
@@ -103,7 +113,8 @@ public class RecordStreamManager {
 	 * @param nodeLocalProperties
 	 * 		the node-local property source, which says four things: (1) is the record stream enabled?,
 	 * 		(2) how many seconds should elapse before creating the next record file,
-	 * 		and (3) how large a capacity the record stream blocking queue should have.
+	 * 		(3) how large a capacity the record stream blocking queue should have,
+	 * 		and (4) should a sidecar index be written for each record file?
 	 * @param nodeScopedRecordLogDir
 	 * 		the direct file folder for writing record stream files
 	 * @param initialHash
@@ -136,6 +147,20 @@ public class RecordStreamManager {
 					.setThreadName("writeQueueThread")
 					.setComponent("recordStream")
 					.build();
+			if (nodeLocalProperties.isRecordStreamIndexEnabled()) {
+				indexWriter = new RecordStreamIndexWriter(
+						nodeScopedRecordLogDir,
+						nodeLocalProperties.recordLogPeriod() * SECONDS_TO_MILLISECONDS,
+						startWriteAtCompleteWindow,
+						RecordStreamType.RECORD);
+				indexQueueThread = new QueueThreadObjectStreamConfiguration<RecordStreamObject>()
+						.setNodeId(platform.getSelfId().getId())
+						.setCapacity(nodeLocalProperties.recordStreamQueueCapacity())
+						.setForwardTo(indexWriter)
+						.setThreadName("indexQueueThread")
+						.setComponent("recordStream")
+						.build();
+			}
 		}
 
 		this.runningAvgs = runningAvgs;
@@ -153,10 +178,15 @@ public class RecordStreamManager {
 				.setComponent("recordStream")
 				.build();
 
-		multiStream = new MultiStream<>(
-				nodeLocalProperties.isRecordStreamEnabled()
-						? List.of(hashQueueThread, writeQueueThread)
-						: List.of(hashQueueThread));
+		final List<LinkedObjectStream<RecordStreamObject>> nextStreams = new ArrayList<>();
+		nextStreams.add(hashQueueThread);
+		if (writeQueueThread != null) {
+			nextStreams.add(writeQueueThread);
+		}
+		if (indexQueueThread != null) {
+			nextStreams.add(indexQueueThread);
+		}
+		multiStream = new MultiStream<>(nextStreams);
 		this.initialHash = initialHash;
 		multiStream.setRunningHash(initialHash);
 
@@ -164,10 +194,15 @@ public class RecordStreamManager {
 		if (writeQueueThread != null) {
 			writeQueueThread.start();
 		}
+		if (indexQueueThread != null) {
+			indexQueueThread.start();
+		}
 
-		log.info("Finish initializing RecordStreamManager with: enableRecordStreaming: {}, recordStreamDir: {}, " +
+		log.info("Finish initializing RecordStreamManager with: enableRecordStreaming: {}, " +
+						"enableRecordStreamIndex: {}, recordStreamDir: {}, " +
 						"recordsLogPeriod: {} secs, recordStreamQueueCapacity: {}, initialHash: {}",
 				nodeLocalProperties::isRecordStreamEnabled,
+				() -> indexWriter != null,
 				() -> nodeScopedRecordLogDir,
 				nodeLocalProperties::recordLogPeriod,
 				nodeLocalProperties::recordStreamQueueCapacity,
@@ -254,6 +289,9 @@ public class RecordStreamManager {
 			streamFileWriter.setStartWriteAtCompleteWindow(startWriteAtCompleteWindow);
 			log.info("RecordStreamManager::setStartWriteAtCompleteWindow: {}", startWriteAtCompleteWindow);
 		}
+		if (indexWriter != null) {
+			indexWriter.setStartWriteAtCompleteWindow(startWriteAtCompleteWindow);
+		}
 	}
 
 	/**
@@ -292,6 +330,15 @@ public class RecordStreamManager {
 		return streamFileWriter;
 	}
 
+	/**
+	 * for unit testing
+	 *
+	 * @return current RecordStreamIndexWriter instance
+	 */
+	RecordStreamIndexWriter getIndexWriter() {
+		return indexWriter;
+	}
+
 	/**
 	 * for unit testing
 	 *
@@ -0,0 +1,284 @@
+package com.hedera.services.stream.replay;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.ServicesState;
+import com.hedera.services.context.ServicesContext;
+import com.hedera.services.context.properties.BootstrapProperties;
+import com.hedera.services.context.properties.ChainedSources;
+import com.hedera.services.context.properties.PropertySources;
+import com.hedera.services.context.properties.StandardizedPropertySources;
+import com.hedera.services.context.properties.SupplierMapPropertySource;
+import com.hedera.services.stream.RecordStreamObject;
+import com.hedera.services.utils.SignedTxnAccessor;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.TransactionRecord;
+import com.swirlds.common.NodeId;
+import com.swirlds.common.SwirldTransaction;
+import com.swirlds.common.constructable.ConstructableRegistry;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.io.SelfSerializable;
+import com.swirlds.platform.SignedStateFileManager;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.File;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+import static com.hedera.services.context.SingletonContextsManager.CONTEXTS;
+import static com.hedera.services.stream.RecordStreamType.RECORD;
+import static com.hedera.services.utils.EntityIdUtils.readableId;
+import static com.swirlds.common.PlatformStatus.ACTIVE;
+import static com.swirlds.common.stream.LinkedObjectStreamUtilities.parseStreamFile;
+import static java.util.Comparator.comparing;
+
+/**
+ * Replays a directory of record stream files against a saved state, entirely offline, to benchmark
+ * handle throughput on real traffic.
+ *
+ * For each {@link RecordStreamObject} after the last consensus time handled in the saved state, the
+ * signed transaction is wrapped in a {@link SwirldTransaction}, its signatures are expanded and verified
+ * (as the platform would do before consensus), and it is passed to
+ * {@link com.hedera.services.txns.ProcessLogic#incorporateConsensusTxn} with its original consensus
+ * time and the member that submitted it. Scheduled transactions are not submitted, since handling
+ * their scheduling transaction triggers them just as it did on the network.
+ *
+ * At the end the tool reports handle TPS, per-function latency, how many regenerated records
+ * matched the originals, and—when the replay began at a record file boundary matching the saved
+ * state's running hash—whether the final records running hash matches the last replayed file.
+ *
+ * Since the saved state's smart contract storage and file contents live in the blob store, the
+ * replay must run with the same database configuration as the node that saved the state.
+ *
+ * Usage: {@code RecordStreamReplay <path/to/SignedState.swh> <recordStreamDir> [nodeId]}
+ */
+public class RecordStreamReplay {
+	private static final Logger log = LogManager.getLogger(RecordStreamReplay.class);
+
+	private static final int MAX_MISMATCHES_TO_LOG = 10;
+
+	private final ServicesContext ctx;
+	private final ServicesState state;
+	private final ReplayStats stats = new ReplayStats();
+	private final Map<AccountID, Long> memberIds = new HashMap<>();
+
+	private int mismatchesLogged = 0;
+	private boolean isConsistent = true;
+	private Instant lastComparedTime = Instant.EPOCH;
+
+	public static void main(String... args) throws Exception {
+		if (args.length < 2) {
+			System.out.println("Usage: RecordStreamReplay <savedStateFile> <recordStreamDir> [nodeId]");
+			System.exit(1);
+		}
+		final var savedState = new File(args[0]);
+		final var recordStreamDir = new File(args[1]);
+		final var selfId = new NodeId(false, args.length > 2 ? Long.parseLong(args[2]) : 0L);
+
+		ConstructableRegistry.registerConstructables("com.swirlds");
+		ConstructableRegistry.registerConstructables("com.hedera.services");
+
+		final var signedState = SignedStateFileManager.readSignedStateFromFile(savedState).getValue();
+		final var state = (ServicesState) signedState.getSwirldState();
+		final var addressBook = signedState.getAddressBook();
+		final var platform = new ReplayPlatform(selfId, addressBook);
+
+		final var ctx = new ServicesContext(selfId, platform, state, replayPropertySources());
+		CONTEXTS.store(ctx);
+		state.init(platform, addressBook);
+		ctx.networkCtxManager().loadObservableSysFilesIfNeeded();
+		ctx.initRecordStreamManager();
+		ctx.platformStatus().set(ACTIVE);
+
+		final var replay = new RecordStreamReplay(ctx, state);
+		final var outcome = replay.replayFrom(recordStreamDir);
+		System.out.println(outcome);
+		System.exit(replay.isConsistent() ? 0 : 2);
+	}
+
+	RecordStreamReplay(ServicesContext ctx, ServicesState state) {
+		this.ctx = ctx;
+		this.state = state;
+
+		final var book = ctx.addressBook();
+		for (long id = 0, n = book.getSize(); id < n; id++) {
+			memberIds.put(ctx.nodeInfo().accountOf(id), id);
+		}
+	}
+
+	String replayFrom(File recordStreamDir) throws InterruptedException {
+		final var lastHandled = Optional.ofNullable(state.networkCtx().consensusTimeOfLastHandledTxn())
+				.orElse(Instant.EPOCH);
+		final var initialRunningHash = state.runningHashLeaf().getRunningHash().getHash();
+
+		final var files = orderedRecordFilesIn(recordStreamDir);
+		boolean isAlignedWithState = false;
+		Hash expectedEndHash = null;
+		final List<RecordStreamObject> toReplay = new ArrayList<>();
+		for (var file : files) {
+			final var contents = contentsOf(file);
+			if (!isAlignedWithState && toReplay.isEmpty() && contents.startHash.equals(initialRunningHash)) {
+				isAlignedWithState = true;
+			}
+			for (var rso : contents.objects) {
+				if (rso.getTimestamp().isAfter(lastHandled)) {
+					toReplay.add(rso);
+				}
+			}
+			expectedEndHash = contents.endHash;
+		}
+		log.info("Replaying {} record stream objects from {} files after {} (aligned with state running hash? {})",
+				toReplay.size(), files.size(), lastHandled, isAlignedWithState);
+
+		final Map<Instant, TransactionRecord> originals = new HashMap<>();
+		toReplay.forEach(rso -> originals.put(rso.getTimestamp(), rso.getTransactionRecord()));
+
+		ctx.setDualState(ignoredFreezeTime -> { });
+		final long start = System.nanoTime();
+		for (var rso : toReplay) {
+			if (rso.getTransactionRecord().getTransactionID().getScheduled()) {
+				/* Triggered by its scheduling transaction, which we have already replayed. */
+				continue;
+			}
+			replay(rso, originals);
+		}
+		final var finalHash = state.runningHashLeaf().getRunningHash().getFutureHash().get();
+		final long wallClockNanos = System.nanoTime() - start;
+
+		final var sb = new StringBuilder(stats.summary(wallClockNanos));
+		if (isAlignedWithState) {
+			final var hashMatches = finalHash.equals(expectedEndHash);
+			isConsistent &= hashMatches;
+			sb.append(String.format("  Running hash  :: %s%n", hashMatches ? "MATCHES" : "MISMATCH"));
+		} else {
+			sb.append(String.format("  Running hash  :: not compared, no record file starts at the saved state's "
+					+ "running hash%n"));
+		}
+		if (stats.numMismatchedRecords() > 0) {
+			isConsistent = false;
+			sb.append(String.format("  !! RECORD MISMATCH in %d records%n", stats.numMismatchedRecords()));
+		}
+		return sb.toString();
+	}
+
+	boolean isConsistent() {
+		return isConsistent;
+	}
+
+	private void replay(RecordStreamObject rso, Map<Instant, TransactionRecord> originals) {
+		final var signedTxn = rso.getTransaction();
+		final var accessor = SignedTxnAccessor.uncheckedFrom(signedTxn);
+		final var platformTxn = new SwirldTransaction(signedTxn.toByteArray());
+		state.expandSignatures(platformTxn);
+		ctx.platform().getCryptography().verifySync(platformTxn.getSignatures());
+
+		final var consensusTime = platformConsensusTimeOf(rso.getTimestamp(), accessor.canTriggerTxn());
+		final var submittingMember = memberIds.getOrDefault(accessor.getTxn().getNodeAccountID(), 0L);
+
+		final long start = System.nanoTime();
+		ctx.logic().incorporateConsensusTxn(platformTxn, consensusTime, submittingMember);
+		stats.recordHandle(accessor.getFunction(), System.nanoTime() - start);
+
+		compareLastCreatedRecord(originals, () -> readableId(accessor.getTxnId()));
+	}
+
+	private void compareLastCreatedRecord(Map<Instant, TransactionRecord> originals, Supplier<String> txnId) {
+		final var lastCreated = ctx.recordsHistorian().lastCreatedRecord();
+		if (lastCreated.isEmpty()) {
+			stats.recordUncompared();
+			return;
+		}
+		final var regenerated = lastCreated.get().asGrpc();
+		final var timestamp = regenerated.getConsensusTimestamp();
+		final var regeneratedTime = Instant.ofEpochSecond(timestamp.getSeconds(), timestamp.getNanos());
+		final var original = originals.get(regeneratedTime);
+		if (original == null || !regeneratedTime.isAfter(lastComparedTime)) {
+			stats.recordUncompared();
+			return;
+		}
+		lastComparedTime = regeneratedTime;
+		if (original.equals(regenerated)) {
+			stats.recordMatch();
+		} else {
+			stats.recordMismatch();
+			if (mismatchesLogged++ < MAX_MISMATCHES_TO_LOG) {
+				log.warn("Regenerated record for {} @ {} differs!\n{}\n ---- vs original ----\n{}",
+						txnId.get(), regeneratedTime, regenerated, original);
+			}
+		}
+	}
+
+	/**
+	 * Returns the consensus time the platform originally gave a transaction with the given record
+	 * consensus time; since {@link com.hedera.services.legacy.services.state.AwareProcessLogic} moves
+	 * a transaction that can trigger a scheduled transaction back one nanosecond, we must undo that.
+	 */
+	static Instant platformConsensusTimeOf(Instant recordConsensusTime, boolean canTriggerTxn) {
+		return canTriggerTxn ? recordConsensusTime.plusNanos(1) : recordConsensusTime;
+	}
+
+	public static List<File> orderedRecordFilesIn(File dir) {
+		final var files = dir.listFiles((ignore, name) -> name.endsWith("." + RECORD.getExtension()));
+		if (files == null) {
+			throw new IllegalArgumentException("Cannot list record stream files in " + dir);
+		}
+		/* Record stream file names are ISO-8601 instants, so lexicographic order is chronological. */
+		Arrays.sort(files, comparing(File::getName));
+		return List.of(files);
+	}
+
+	static PropertySources replayPropertySources() {
+		final var standard = new StandardizedPropertySources(new BootstrapProperties());
+		final var overrides = new SupplierMapPropertySource(Map.of(
+				"hedera.recordStream.isEnabled", () -> false,
+				"hedera.recordStream.index.isEnabled", () -> false));
+		return () -> new ChainedSources(overrides, standard.asResolvingSource());
+	}
+
+	private static RecordFileContents contentsOf(File file) {
+		final var contents = new RecordFileContents();
+		final var iter = parseStreamFile(file, RECORD);
+		while (iter.hasNext()) {
+			final SelfSerializable next = (SelfSerializable) iter.next();
+			if (next instanceof RecordStreamObject) {
+				contents.objects.add((RecordStreamObject) next);
+			} else if (contents.startHash == null) {
+				contents.startHash = (Hash) next;
+			} else {
+				contents.endHash = (Hash) next;
+			}
+		}
+		return contents;
+	}
+
+	private static class RecordFileContents {
+		private Hash startHash;
+		private Hash endHash;
+		private final List<RecordStreamObject> objects = new ArrayList<>();
+	}
+}
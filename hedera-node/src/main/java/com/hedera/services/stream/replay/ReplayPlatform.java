@@ -0,0 +1,219 @@
+package com.hedera.services.stream.replay;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.swirlds.common.Address;
+import com.swirlds.common.AddressBook;
+import com.swirlds.common.AutoCloseableWrapper;
+import com.swirlds.common.Console;
+import com.swirlds.common.InvalidSignedStateListener;
+import com.swirlds.common.NodeId;
+import com.swirlds.common.Platform;
+import com.swirlds.common.StatEntry;
+import com.swirlds.common.Statistics;
+import com.swirlds.common.SwirldState;
+import com.swirlds.common.SwirldTransaction;
+import com.swirlds.common.crypto.CryptoFactory;
+import com.swirlds.common.crypto.Cryptography;
+import com.swirlds.common.events.Event;
+
+import javax.swing.JFrame;
+import java.time.Instant;
+
+/**
+ * A stand-in for the Swirlds {@link Platform} when replaying a record stream offline. There is
+ * no gossip, no event flow, and no signed state management; only the handful of capabilities that
+ * {@link com.hedera.services.context.ServicesContext} needs to handle consensus transactions are
+ * supported. Transactions submitted by the node itself (e.g., exchange rate updates) are
+ * dropped, since the record stream being replayed already contains their consensus outcomes.
+ */
+public class ReplayPlatform implements Platform {
+	private static final String UNSUPPORTED_MSG = "Not available during an offline record stream replay";
+
+	private final NodeId selfId;
+	private final AddressBook addressBook;
+
+	public ReplayPlatform(NodeId selfId, AddressBook addressBook) {
+		this.selfId = selfId;
+		this.addressBook = addressBook;
+	}
+
+	@Override
+	public NodeId getSelfId() {
+		return selfId;
+	}
+
+	@Override
+	public Cryptography getCryptography() {
+		return CryptoFactory.getInstance();
+	}
+
+	@Override
+	public byte[] sign(byte[] data) {
+		/* Record stream files are never written during a replay, so nothing is ever signed. */
+		return new byte[0];
+	}
+
+	@Override
+	public boolean createTransaction(SwirldTransaction trans) {
+		return false;
+	}
+
+	@Override
+	public void addAppStatEntry(StatEntry newEntry) {
+		/* No-op. */
+	}
+
+	@Override
+	public void appStatInit() {
+		/* No-op. */
+	}
+
+	@Override
+	public void addSignedStateListener(InvalidSignedStateListener listener) {
+		/* No-op. */
+	}
+
+	@Override
+	public long getSleepAfterSync() {
+		return 0L;
+	}
+
+	@Override
+	public void setSleepAfterSync(long delay) {
+		/* No-op. */
+	}
+
+	@Override
+	public Address getAddress() {
+		return addressBook.getAddress(selfId.getId());
+	}
+
+	@Override
+	public Address getAddress(long id) {
+		return addressBook.getAddress(id);
+	}
+
+	@Override
+	public int getNumMembers() {
+		return addressBook.getSize();
+	}
+
+	@Override
+	public boolean isMirrorNode() {
+		return false;
+	}
+
+	@Override
+	public boolean isZeroStakeNode() {
+		return false;
+	}
+
+	@Override
+	public boolean isStateRecoveryInProgress() {
+		return false;
+	}
+
+	@Override
+	public Console createConsole(boolean visible) {
+		return null;
+	}
+
+	@Override
+	public JFrame createWindow(boolean visible) {
+		return null;
+	}
+
+	@Override
+	public Instant estimateTime() {
+		throw new UnsupportedOperationException(UNSUPPORTED_MSG);
+	}
+
+	@Override
+	public String getAbout() {
+		throw new UnsupportedOperationException(UNSUPPORTED_MSG);
+	}
+
+	@Override
+	public void setAbout(String about) {
+		throw new UnsupportedOperationException(UNSUPPORTED_MSG);
+	}
+
+	@Override
+	public Event[] getAllEvents() {
+		throw new UnsupportedOperationException(UNSUPPORTED_MSG);
+	}
+
+	@Override
+	public long[] getLastSeqByCreator() {
+		throw new UnsupportedOperationException(UNSUPPORTED_MSG);
+	}
+
+	@Override
+	public long getLastSeq(long creatorId) {
+		throw new UnsupportedOperationException(UNSUPPORTED_MSG);
+	}
+
+	@Override
+	public double getLastSyncSpeed(int nodeIndex) {
+		throw new UnsupportedOperationException(UNSUPPORTED_MSG);
+	}
+
+	@Override
+	public void setLastSyncSpeed(int nodeIndex, double speed) {
+		throw new UnsupportedOperationException(UNSUPPORTED_MSG);
+	}
+
+	@Override
+	public String[] getParameters() {
+		return new String[0];
+	}
+
+	@Override
+	public <T extends SwirldState> T getState() {
+		throw new UnsupportedOperationException(UNSUPPORTED_MSG);
+	}
+
+	@Override
+	public void releaseState() {
+		throw new UnsupportedOperationException(UNSUPPORTED_MSG);
+	}
+
+	@Override
+	public <T extends SwirldState> AutoCloseableWrapper<T> getLastCompleteSwirldState() {
+		throw new UnsupportedOperationException(UNSUPPORTED_MSG);
+	}
+
+	@Override
+	public Statistics getStats() {
+		throw new UnsupportedOperationException(UNSUPPORTED_MSG);
+	}
+
+	@Override
+	public byte[] getSwirldId() {
+		throw new UnsupportedOperationException(UNSUPPORTED_MSG);
+	}
+
+	@Override
+	public Instant getLastSignedStateTimestamp() {
+		throw new UnsupportedOperationException(UNSUPPORTED_MSG);
+	}
+}
@@ -0,0 +1,111 @@
+package com.hedera.services.stream.replay;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.HederaFunctionality;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Accumulates handle latencies and record comparison outcomes during an offline record stream replay.
+ */
+public class ReplayStats {
+	private static final double NANOS_PER_SEC = 1_000_000_000.0;
+	private static final double NANOS_PER_MICRO = 1_000.0;
+
+	private final Map<HederaFunctionality, FunctionStats> byFunction = new EnumMap<>(HederaFunctionality.class);
+
+	private int numHandled = 0;
+	private int numMatchingRecords = 0;
+	private int numMismatchedRecords = 0;
+	private int numUncomparedRecords = 0;
+	private long totalHandleNanos = 0L;
+
+	public void recordHandle(HederaFunctionality function, long nanos) {
+		byFunction.computeIfAbsent(function, ignore -> new FunctionStats()).add(nanos);
+		numHandled++;
+		totalHandleNanos += nanos;
+	}
+
+	public void recordMatch() {
+		numMatchingRecords++;
+	}
+
+	public void recordMismatch() {
+		numMismatchedRecords++;
+	}
+
+	public void recordUncompared() {
+		numUncomparedRecords++;
+	}
+
+	public int numHandled() {
+		return numHandled;
+	}
+
+	public int numMismatchedRecords() {
+		return numMismatchedRecords;
+	}
+
+	/**
+	 * Returns the handle throughput, counting only the time spent inside
+	 * {@link com.hedera.services.txns.ProcessLogic#incorporateConsensusTxn}.
+	 *
+	 * @return the number of transactions handled per second of handle time
+	 */
+	public double handleTps() {
+		return totalHandleNanos == 0L ? 0.0 : numHandled * NANOS_PER_SEC / totalHandleNanos;
+	}
+
+	public String summary(long wallClockNanos) {
+		final var sb = new StringBuilder();
+		sb.append(String.format("Replayed %d transactions in %d ms of wall-clock time (%d ms handling)%n",
+				numHandled, NANOSECONDS.toMillis(wallClockNanos), NANOSECONDS.toMillis(totalHandleNanos)));
+		sb.append(String.format("  Handle TPS    :: %.1f%n", handleTps()));
+		sb.append(String.format("  Wall-clock TPS:: %.1f%n",
+				wallClockNanos == 0L ? 0.0 : numHandled * NANOS_PER_SEC / wallClockNanos));
+		sb.append(String.format("  Records       :: %d matched, %d mismatched, %d not compared%n",
+				numMatchingRecords, numMismatchedRecords, numUncomparedRecords));
+		sb.append(String.format("  %-32s %10s %12s %12s%n", "Function", "Count", "Mean (µs)", "Max (µs)"));
+		byFunction.forEach((function, stats) ->
+				sb.append(String.format("  %-32s %10d %12.1f %12.1f%n",
+						function,
+						stats.count,
+						stats.totalNanos / NANOS_PER_MICRO / stats.count,
+						stats.maxNanos / NANOS_PER_MICRO)));
+		return sb.toString();
+	}
+
+	private static class FunctionStats {
+		private int count;
+		private long totalNanos;
+		private long maxNanos;
+
+		void add(long nanos) {
+			count++;
+			totalNanos += nanos;
+			maxNanos = Math.max(maxNanos, nanos);
+		}
+	}
+}
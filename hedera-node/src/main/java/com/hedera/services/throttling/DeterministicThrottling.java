@@ -20,8 +20,11 @@ package com.hedera.services.throttling;
  * ‍
  */
 
+import com.hedera.services.context.properties.GlobalDynamicProperties;
 import com.hedera.services.sysfiles.domain.throttling.ThrottleDefinitions;
 import com.hedera.services.throttles.DeterministicThrottle;
+import com.hedera.services.throttles.GasLimitDeterministicThrottle;
+import com.hedera.services.utils.TxnAccessor;
 import com.hederahashgraph.api.proto.java.HederaFunctionality;
 import org.apache.commons.lang3.tuple.Pair;
 import org.apache.logging.log4j.LogManager;
@@ -38,13 +41,41 @@ import java.util.function.IntSupplier;
 public class DeterministicThrottling implements TimedFunctionalityThrottling {
 	private static final Logger log = LogManager.getLogger(DeterministicThrottling.class);
 
+	private static final GlobalDynamicProperties NO_GAS_THROTTLING = null;
+
+	private final boolean consensusThrottled;
 	private final IntSupplier capacitySplitSource;
+	private final GlobalDynamicProperties dynamicProperties;
 
 	private List<DeterministicThrottle> activeThrottles = Collections.emptyList();
 	private EnumMap<HederaFunctionality, ThrottleReqsManager> functionReqs = new EnumMap<>(HederaFunctionality.class);
+	private GasLimitDeterministicThrottle gasThrottle;
 
 	public DeterministicThrottling(IntSupplier capacitySplitSource) {
+		this(capacitySplitSource, NO_GAS_THROTTLING);
+	}
+
+	public DeterministicThrottling(IntSupplier capacitySplitSource, GlobalDynamicProperties dynamicProperties) {
+		this(capacitySplitSource, dynamicProperties, false);
+	}
+
+	/**
+	 * Creates throttling over the given capacity split and gas properties. If {@code consensusThrottled},
+	 * the throttled transactions are handled whatever the decision, so a transaction rejected for its gas
+	 * limit is still charged to its functional throttles; otherwise (at ingress) it is not.
+	 *
+	 * @param capacitySplitSource the number of ways to split each bucket's capacity
+	 * @param dynamicProperties the source of the gas throttling properties
+	 * @param consensusThrottled whether the decisions are made for transactions reaching consensus
+	 */
+	public DeterministicThrottling(
+			IntSupplier capacitySplitSource,
+			GlobalDynamicProperties dynamicProperties,
+			boolean consensusThrottled
+	) {
 		this.capacitySplitSource = capacitySplitSource;
+		this.dynamicProperties = dynamicProperties;
+		this.consensusThrottled = consensusThrottled;
 	}
 
 	@Override
@@ -61,6 +92,61 @@ public class DeterministicThrottling implements TimedFunctionalityThrottling {
 		return !manager.allReqsMetAt(now);
 	}
 
+	@Override
+	public boolean shouldThrottleTxn(TxnAccessor accessor, Instant now) {
+		ThrottleReqsManager manager;
+		if ((manager = functionReqs.get(accessor.getFunction())) == null) {
+			return true;
+		}
+		final var gasLimit = gasLimitOf(accessor);
+		if (gasLimit > 0 && dynamicProperties != NO_GAS_THROTTLING && dynamicProperties.shouldThrottleByGas()) {
+			final var throttle = gasLimitThrottle();
+			if (!throttle.allow(now, gasLimit)) {
+				if (consensusThrottled) {
+					manager.allReqsMetAt(now);
+				}
+				return true;
+			}
+			if (!manager.allReqsMetAt(now)) {
+				throttle.reclaimLastAllowedUse();
+				return true;
+			}
+			return false;
+		}
+		return !manager.allReqsMetAt(now);
+	}
+
+	/**
+	 * Returns the gas throttle with this node's share of the configured gas per second, re-creating
+	 * it (with no usage) if that share has changed since it was last created.
+	 *
+	 * @return the gas throttle, or null if gas throttling is not configured
+	 */
+	@Override
+	public GasLimitDeterministicThrottle gasLimitThrottle() {
+		if (dynamicProperties == NO_GAS_THROTTLING) {
+			return null;
+		}
+		final var capacity = Math.max(1L, dynamicProperties.maxGasPerSec() / capacitySplitSource.getAsInt());
+		if (gasThrottle == null || gasThrottle.capacity() != capacity) {
+			gasThrottle = new GasLimitDeterministicThrottle(capacity);
+			log.info("Resolved gas throttle (after splitting capacity {} ways) - {} gas/sec",
+					capacitySplitSource.getAsInt(), capacity);
+		}
+		return gasThrottle;
+	}
+
+	static long gasLimitOf(TxnAccessor accessor) {
+		switch (accessor.getFunction()) {
+			case ContractCall:
+				return accessor.getTxn().getContractCall().getGas();
+			case ContractCreate:
+				return accessor.getTxn().getContractCreateInstance().getGas();
+			default:
+				return 0L;
+		}
+	}
+
 	@Override
 	public List<DeterministicThrottle> allActiveThrottles() {
 		return activeThrottles;
@@ -22,14 +22,18 @@ package com.hedera.services.throttling;
 
 import com.hedera.services.sysfiles.domain.throttling.ThrottleDefinitions;
 import com.hedera.services.throttles.DeterministicThrottle;
+import com.hedera.services.throttles.GasLimitDeterministicThrottle;
+import com.hedera.services.utils.TxnAccessor;
 import com.hederahashgraph.api.proto.java.HederaFunctionality;
 
 import java.util.List;
 
 public interface FunctionalityThrottling {
 	boolean shouldThrottle(HederaFunctionality function);
+	boolean shouldThrottleTxn(TxnAccessor accessor);
 
 	void rebuildFor(ThrottleDefinitions defs);
 	List<DeterministicThrottle> activeThrottlesFor(HederaFunctionality function);
 	List<DeterministicThrottle> allActiveThrottles();
+	GasLimitDeterministicThrottle gasLimitThrottle();
 }
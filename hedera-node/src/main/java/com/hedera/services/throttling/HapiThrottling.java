@@ -22,6 +22,8 @@ package com.hedera.services.throttling;
 
 import com.hedera.services.sysfiles.domain.throttling.ThrottleDefinitions;
 import com.hedera.services.throttles.DeterministicThrottle;
+import com.hedera.services.throttles.GasLimitDeterministicThrottle;
+import com.hedera.services.utils.TxnAccessor;
 import com.hederahashgraph.api.proto.java.HederaFunctionality;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -43,6 +45,11 @@ public class HapiThrottling implements FunctionalityThrottling {
 		return delegate.shouldThrottle(function, Instant.now());
 	}
 
+	@Override
+	public synchronized boolean shouldThrottleTxn(TxnAccessor accessor) {
+		return delegate.shouldThrottleTxn(accessor, Instant.now());
+	}
+
 	@Override
 	public List<DeterministicThrottle> allActiveThrottles() {
 		throw new UnsupportedOperationException("HAPI throttling should not be treated as a stable source of throttles!");
@@ -53,6 +60,11 @@ public class HapiThrottling implements FunctionalityThrottling {
 		throw new UnsupportedOperationException("HAPI throttling should not be treated as a stable source of throttles!");
 	}
 
+	@Override
+	public GasLimitDeterministicThrottle gasLimitThrottle() {
+		throw new UnsupportedOperationException("HAPI throttling should not be treated as a stable source of throttles!");
+	}
+
 	@Override
 	public void rebuildFor(ThrottleDefinitions defs) {
 		delegate.rebuildFor(defs);
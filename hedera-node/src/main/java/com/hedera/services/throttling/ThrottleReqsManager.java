@@ -27,28 +27,48 @@ import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static com.hedera.services.throttles.DeterministicThrottle.epochNanosOf;
+
+/**
+ * Manages the requirements a function places on its throttles; that is, for each throttle, the
+ * number of logical transactions it must allow for the function to be allowed.
+ *
+ * The requirements are kept in parallel arrays, so that checking them does not allocate.
+ */
 public class ThrottleReqsManager {
+	private final int[] opsReqs;
 	private final boolean[] passedReq;
-	private final List<Pair<DeterministicThrottle, Integer>> allReqs;
+	private final DeterministicThrottle[] throttles;
 
 	public ThrottleReqsManager(List<Pair<DeterministicThrottle, Integer>> allReqs) {
-		this.allReqs = allReqs;
-		passedReq = new boolean[allReqs.size()];
+		final int n = allReqs.size();
+		opsReqs = new int[n];
+		passedReq = new boolean[n];
+		throttles = new DeterministicThrottle[n];
+		for (int i = 0; i < n; i++) {
+			final var req = allReqs.get(i);
+			throttles[i] = req.getLeft();
+			opsReqs[i] = req.getRight();
+		}
 	}
 
 	public boolean allReqsMetAt(Instant now) {
+		return allReqsMetAt(epochNanosOf(now));
+	}
+
+	public boolean allReqsMetAt(long nowNanos) {
 		var allPassed = true;
 		for (int i = 0; i < passedReq.length; i++) {
-			var req = allReqs.get(i);
-			passedReq[i] = req.getLeft().allow(req.getRight(), now);
+			passedReq[i] = throttles[i].allow(opsReqs[i], nowNanos);
 			allPassed &= passedReq[i];
 		}
 
 		if (!allPassed) {
 			for (int i = 0; i < passedReq.length; i++) {
 				if (passedReq[i]) {
-					allReqs.get(i).getLeft().reclaimLastAllowedUse();
+					throttles[i].reclaimLastAllowedUse();
 				}
 			}
 		}
@@ -58,23 +78,25 @@ public class ThrottleReqsManager {
 
 	public List<DeterministicThrottle.UsageSnapshot> currentUsage() {
 		List<DeterministicThrottle.UsageSnapshot> usages = new ArrayList<>();
-		for (var req : allReqs) {
-			usages.add(req.getLeft().usageSnapshot());
+		for (var throttle : throttles) {
+			usages.add(throttle.usageSnapshot());
 		}
 		return usages;
 	}
 
 	List<DeterministicThrottle> managedThrottles() {
-		return allReqs.stream().map(Pair::getLeft).collect(Collectors.toList());
+		return List.of(throttles);
 	}
 
 	String asReadableRequirements() {
-		return "min{" + allReqs.stream().map(this::readable).collect(Collectors.joining(", ")) + "}";
+		return "min{" + IntStream.range(0, throttles.length)
+				.mapToObj(this::readable)
+				.collect(Collectors.joining(", ")) + "}";
 	}
 
-	private String readable(Pair<DeterministicThrottle, Integer> req) {
-		var throttle = req.getLeft();
-		return approximateTps(req.getRight(), throttle.mtps()) + " tps (" + throttle.name() + ")";
+	private String readable(int i) {
+		var throttle = throttles[i];
+		return approximateTps(opsReqs[i], throttle.mtps()) + " tps (" + throttle.name() + ")";
 	}
 
 	private String approximateTps(int logicalTpsReq, long bucketMtps) {
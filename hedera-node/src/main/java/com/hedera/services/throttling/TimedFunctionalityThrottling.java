@@ -20,6 +20,7 @@ package com.hedera.services.throttling;
  * ‍
  */
 
+import com.hedera.services.utils.TxnAccessor;
 import com.hederahashgraph.api.proto.java.HederaFunctionality;
 
 import java.time.Instant;
@@ -30,4 +31,10 @@ public interface TimedFunctionalityThrottling extends FunctionalityThrottling {
 	}
 
 	boolean shouldThrottle(HederaFunctionality function, Instant now);
+
+	default boolean shouldThrottleTxn(TxnAccessor accessor) {
+		return shouldThrottleTxn(accessor, Instant.now());
+	}
+
+	boolean shouldThrottleTxn(TxnAccessor accessor, Instant now);
 }
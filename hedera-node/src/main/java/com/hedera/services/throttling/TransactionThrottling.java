@@ -21,12 +21,14 @@ package com.hedera.services.throttling;
  */
 
 import com.hedera.services.exceptions.UnknownHederaFunctionality;
+import com.hedera.services.utils.TxnAccessor;
 import com.hederahashgraph.api.proto.java.HederaFunctionality;
 import com.hederahashgraph.api.proto.java.TransactionBody;
 
 import java.util.Optional;
 
 import static com.hedera.services.utils.MiscUtils.functionOf;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.NONE;
 
 public class TransactionThrottling {
 	private final FunctionalityThrottling throttles;
@@ -41,6 +43,13 @@ public class TransactionThrottling {
 		return function.map(throttles::shouldThrottle).orElse(true);
 	}
 
+	public boolean shouldThrottle(TxnAccessor accessor) {
+		if (accessor.getFunction() == NONE) {
+			return true;
+		}
+		return throttles.shouldThrottleTxn(accessor);
+	}
+
 	private Optional<HederaFunctionality> functionToThrottle(TransactionBody txn) {
 		try {
 			return Optional.of(functionOf(txn));
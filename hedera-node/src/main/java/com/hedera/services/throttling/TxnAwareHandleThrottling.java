@@ -23,6 +23,8 @@ package com.hedera.services.throttling;
 import com.hedera.services.context.TransactionContext;
 import com.hedera.services.sysfiles.domain.throttling.ThrottleDefinitions;
 import com.hedera.services.throttles.DeterministicThrottle;
+import com.hedera.services.throttles.GasLimitDeterministicThrottle;
+import com.hedera.services.utils.TxnAccessor;
 import com.hederahashgraph.api.proto.java.HederaFunctionality;
 
 import java.util.List;
@@ -41,6 +43,11 @@ public class TxnAwareHandleThrottling implements FunctionalityThrottling {
 		return delegate.shouldThrottle(function, txnCtx.consensusTime());
 	}
 
+	@Override
+	public boolean shouldThrottleTxn(TxnAccessor accessor) {
+		return delegate.shouldThrottleTxn(accessor, txnCtx.consensusTime());
+	}
+
 	@Override
 	public List<DeterministicThrottle> activeThrottlesFor(HederaFunctionality function) {
 		return delegate.activeThrottlesFor(function);
@@ -51,6 +58,11 @@ public class TxnAwareHandleThrottling implements FunctionalityThrottling {
 		return delegate.allActiveThrottles();
 	}
 
+	@Override
+	public GasLimitDeterministicThrottle gasLimitThrottle() {
+		return delegate.gasLimitThrottle();
+	}
+
 	@Override
 	public void rebuildFor(ThrottleDefinitions defs) {
 		delegate.rebuildFor(defs);
@@ -0,0 +1,151 @@
+package com.hedera.services.throttling.simulation;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.HederaFunctionality;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A synthetic workload for a {@link ThrottleSimulator}, made of consecutive phases that each
+ * submit a fixed number of transactions per second of some functions for some seconds.
+ *
+ * A workload is described as phases separated by semicolons, each phase being its length in
+ * seconds followed by a colon and a comma-separated list of {@code <function>=<tps>} rates;
+ * for example, {@code 60s:CryptoTransfer=5000;120s:CryptoTransfer=12000,ConsensusSubmitMessage=3000;30s:}
+ * (where the last phase is idle).
+ *
+ * Within each second, the transactions of a phase are spread evenly, and the functions are
+ * interleaved in proportion to their rates; so a replay is fully deterministic.
+ */
+public class SyntheticWorkload {
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	private final List<Phase> phases;
+
+	private SyntheticWorkload(List<Phase> phases) {
+		this.phases = phases;
+	}
+
+	/**
+	 * Parses a workload description.
+	 *
+	 * @param description the description
+	 * @return the workload
+	 * @throws IllegalArgumentException if the description is malformed
+	 */
+	public static SyntheticWorkload from(String description) {
+		final List<Phase> phases = new ArrayList<>();
+		for (var phaseDesc : description.split(";")) {
+			final var parts = phaseDesc.trim().split(":", -1);
+			if (parts.length != 2 || !parts[0].endsWith("s")) {
+				throw new IllegalArgumentException(String.format(
+						"Phase '%s' is not '<seconds>s:<rates>'!", phaseDesc));
+			}
+			final int seconds = nonNegativeInt(parts[0].substring(0, parts[0].length() - 1), phaseDesc);
+			final List<HederaFunctionality> functions = new ArrayList<>();
+			final List<Integer> rates = new ArrayList<>();
+			for (var rateDesc : parts[1].split(",")) {
+				if (rateDesc.isBlank()) {
+					continue;
+				}
+				final var rate = rateDesc.trim().split("=");
+				if (rate.length != 2) {
+					throw new IllegalArgumentException(String.format(
+							"Rate '%s' in phase '%s' is not '<function>=<tps>'!", rateDesc, phaseDesc));
+				}
+				functions.add(HederaFunctionality.valueOf(rate[0].trim()));
+				rates.add(nonNegativeInt(rate[1], phaseDesc));
+			}
+			phases.add(new Phase(seconds, functions, rates.stream().mapToInt(Integer::intValue).toArray()));
+		}
+		return new SyntheticWorkload(phases);
+	}
+
+	/**
+	 * Submits every transaction of this workload to the given simulator, starting at the given
+	 * consensus time.
+	 *
+	 * @param simulator the simulator to submit to
+	 * @param start the consensus time of the first second of the workload
+	 * @return the consensus time just after the workload ends
+	 */
+	public Instant replayInto(ThrottleSimulator simulator, Instant start) {
+		var secondStart = start;
+		for (var phase : phases) {
+			for (int s = 0; s < phase.seconds; s++) {
+				phase.replaySecondInto(simulator, secondStart);
+				secondStart = secondStart.plusSeconds(1);
+			}
+		}
+		return secondStart;
+	}
+
+	private static int nonNegativeInt(String s, String phaseDesc) {
+		final int value;
+		try {
+			value = Integer.parseInt(s.trim());
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(String.format("Bad number '%s' in phase '%s'!", s, phaseDesc));
+		}
+		if (value < 0) {
+			throw new IllegalArgumentException(String.format("Negative number '%s' in phase '%s'!", s, phaseDesc));
+		}
+		return value;
+	}
+
+	private static class Phase {
+		private final int seconds;
+		private final int totalTps;
+		private final int[] tps;
+		private final List<HederaFunctionality> functions;
+
+		private Phase(int seconds, List<HederaFunctionality> functions, int[] tps) {
+			this.seconds = seconds;
+			this.functions = functions;
+			this.tps = tps;
+			int total = 0;
+			for (var rate : tps) {
+				total += rate;
+			}
+			this.totalTps = total;
+		}
+
+		/* Interleaves the functions with smooth weighted round-robin, so that each gets its share of
+		every stretch of the second rather than arriving in one burst. */
+		private void replaySecondInto(ThrottleSimulator simulator, Instant secondStart) {
+			final long[] credits = new long[tps.length];
+			for (int i = 0; i < totalTps; i++) {
+				int next = 0;
+				for (int j = 0; j < tps.length; j++) {
+					credits[j] += tps[j];
+					if (credits[j] > credits[next]) {
+						next = j;
+					}
+				}
+				credits[next] -= totalTps;
+				simulator.submit(functions.get(next), secondStart.plusNanos(i * NANOS_PER_SECOND / totalTps));
+			}
+		}
+	}
+}
@@ -0,0 +1,289 @@
+package com.hedera.services.throttling.simulation;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.config.HederaNumbers;
+import com.hedera.services.context.properties.BootstrapProperties;
+import com.hedera.services.context.properties.ChainedSources;
+import com.hedera.services.context.properties.GlobalDynamicProperties;
+import com.hedera.services.context.properties.StandardizedPropertySources;
+import com.hedera.services.context.properties.SupplierMapPropertySource;
+import com.hedera.services.fees.FeeMultiplierSource;
+import com.hedera.services.fees.TxnRateFeeMultiplierSource;
+import com.hedera.services.fees.calculation.CongestionMultipliers;
+import com.hedera.services.stream.RecordStreamObject;
+import com.hedera.services.stream.replay.RecordStreamReplay;
+import com.hedera.services.sysfiles.domain.throttling.ThrottleDefinitions;
+import com.hedera.services.sysfiles.serdes.ThrottlesJsonToProtoSerde;
+import com.hedera.services.throttles.DeterministicThrottle;
+import com.hedera.services.throttling.DeterministicThrottling;
+import com.hedera.services.utils.SignedTxnAccessor;
+import com.hederahashgraph.api.proto.java.HederaFunctionality;
+import com.swirlds.common.constructable.ConstructableRegistry;
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static com.hedera.services.stream.RecordStreamType.RECORD;
+import static com.swirlds.common.stream.LinkedObjectStreamUtilities.parseStreamFile;
+import static java.util.stream.Collectors.toList;
+
+/**
+ * Replays a consensus-ordered sequence of transactions through a {@link DeterministicThrottling}
+ * built from a {@code throttles.json}, and a {@link TxnRateFeeMultiplierSource} driven by its
+ * {@code CryptoTransfer} buckets, entirely offline; to see how a candidate throttle and
+ * congestion pricing configuration would have behaved under some workload.
+ *
+ * Each transaction is handled just as in {@code NetworkCtxManager#prepareForIncorporating}; that is,
+ * the throttles are asked if it should be throttled at its consensus time, and then the multiplier is
+ * updated. The tool reports, per function, how many transactions were submitted and throttled; per
+ * bucket, the peak percentage of its capacity in use, and the average of that peak over each second
+ * with traffic; and how long the congestion pricing multiplier stayed at each level.
+ *
+ * The workload is either a {@link SyntheticWorkload} description, or a directory of record stream
+ * files whose transactions are replayed at their original consensus times. A capacity split of 1
+ * gives the network-wide view used at consensus; a split of {@code n} gives the view of one of
+ * {@code n} nodes throttling its own ingest.
+ *
+ * Usage: {@code ThrottleSimulator <throttles.json> <capacitySplit> (--synthetic <workload> | --records <dir>)
+ * [<congestionMultipliers> [<minCongestionPeriodSecs>]]}
+ */
+public class ThrottleSimulator {
+	static final Instant SYNTHETIC_START = Instant.ofEpochSecond(1_600_000_000L);
+
+	private static final long DEFAULT_MULTIPLIER = 1L;
+
+	private final DeterministicThrottling throttling;
+	private final FeeMultiplierSource multiplierSource;
+	private final List<BucketStats> bucketStats;
+	private final Map<HederaFunctionality, long[]> functionCounts = new EnumMap<>(HederaFunctionality.class);
+	private final List<Pair<Instant, Long>> multiplierChanges = new ArrayList<>();
+
+	private Instant firstConsensusTime = null;
+	private Instant lastConsensusTime = null;
+	private long lastMultiplier = DEFAULT_MULTIPLIER;
+
+	public static void main(String... args) throws Exception {
+		if (args.length < 4) {
+			System.out.println("Usage: ThrottleSimulator <throttles.json> <capacitySplit> "
+					+ "(--synthetic <workload> | --records <recordStreamDir>) "
+					+ "[<congestionMultipliers> [<minCongestionPeriodSecs>]]");
+			System.exit(1);
+		}
+		final ThrottleDefinitions defs;
+		try (var in = new FileInputStream(args[0])) {
+			defs = ThrottlesJsonToProtoSerde.loadPojoDefs(in);
+		}
+		final int capacitySplit = Integer.parseInt(args[1]);
+		final var properties = simulationProperties(
+				args.length > 4 ? args[4] : null,
+				args.length > 5 ? args[5] : null);
+		final var simulator = new ThrottleSimulator(defs, capacitySplit, properties);
+
+		if ("--synthetic".equals(args[2])) {
+			SyntheticWorkload.from(args[3]).replayInto(simulator, SYNTHETIC_START);
+		} else if ("--records".equals(args[2])) {
+			ConstructableRegistry.registerConstructables("com.swirlds");
+			ConstructableRegistry.registerConstructables("com.hedera.services");
+			replayRecordStreams(new File(args[3]), simulator);
+		} else {
+			throw new IllegalArgumentException(String.format("Unknown workload type '%s'!", args[2]));
+		}
+		System.out.println(simulator.report());
+	}
+
+	public ThrottleSimulator(ThrottleDefinitions defs, int capacitySplit, GlobalDynamicProperties properties) {
+		if (capacitySplit < 1) {
+			throw new IllegalArgumentException(String.format(
+					"Argument 'capacitySplit=%d' must be positive!", capacitySplit));
+		}
+		throttling = new DeterministicThrottling(() -> capacitySplit);
+		throttling.rebuildFor(defs);
+		multiplierSource = new TxnRateFeeMultiplierSource(properties, throttling);
+		multiplierSource.resetExpectations();
+		bucketStats = throttling.allActiveThrottles().stream().map(BucketStats::new).collect(toList());
+	}
+
+	/**
+	 * Handles a transaction of the given function at the given consensus time, which must not be
+	 * before that of any earlier transaction.
+	 *
+	 * @param function the function of the transaction
+	 * @param consensusTime its consensus time
+	 */
+	public void submit(HederaFunctionality function, Instant consensusTime) {
+		if (firstConsensusTime == null) {
+			firstConsensusTime = consensusTime;
+		} else if (consensusTime.getEpochSecond() != lastConsensusTime.getEpochSecond()) {
+			bucketStats.forEach(BucketStats::endSecond);
+		}
+		lastConsensusTime = consensusTime;
+
+		final var counts = functionCounts.computeIfAbsent(function, ignore -> new long[2]);
+		counts[0]++;
+		if (throttling.shouldThrottle(function, consensusTime)) {
+			counts[1]++;
+		}
+		multiplierSource.updateMultiplier(consensusTime);
+
+		bucketStats.forEach(BucketStats::sample);
+		final long multiplier = multiplierSource.currentMultiplier();
+		if (multiplier != lastMultiplier) {
+			multiplierChanges.add(Pair.of(consensusTime, multiplier));
+			lastMultiplier = multiplier;
+		}
+	}
+
+	/**
+	 * Summarizes everything submitted so far.
+	 *
+	 * @return the readable report
+	 */
+	public String report() {
+		final var sb = new StringBuilder();
+		if (firstConsensusTime == null) {
+			return sb.append("No transactions submitted").toString();
+		}
+		bucketStats.forEach(BucketStats::endSecond);
+
+		long submitted = 0;
+		long throttled = 0;
+		for (var counts : functionCounts.values()) {
+			submitted += counts[0];
+			throttled += counts[1];
+		}
+		sb.append(String.format("Simulated %d transactions (%d throttled) from %s to %s%n",
+				submitted, throttled, firstConsensusTime, lastConsensusTime));
+
+		sb.append(String.format("  %-32s %12s %12s %8s%n", "Function", "Submitted", "Throttled", "%"));
+		functionCounts.forEach((function, counts) -> sb.append(String.format(
+				"  %-32s %12d %12d %8.2f%n",
+				function, counts[0], counts[1], 100.0 * counts[1] / counts[0])));
+
+		sb.append(String.format("  %-32s %12s %12s %8s%n", "Bucket", "Ops/sec", "Peak %", "Avg %"));
+		for (var stats : bucketStats) {
+			sb.append(String.format(
+					"  %-32s %12.3f %12.2f %8.2f%n",
+					stats.throttle.name(), stats.throttle.mtps() / 1000.0, stats.peakPercent, stats.avgPercent()));
+		}
+
+		sb.append(String.format("  Congestion pricing multiplier:%n"));
+		var levelStart = firstConsensusTime;
+		var level = DEFAULT_MULTIPLIER;
+		for (var change : multiplierChanges) {
+			appendLevel(sb, levelStart, change.getLeft(), level);
+			levelStart = change.getLeft();
+			level = change.getRight();
+		}
+		appendLevel(sb, levelStart, lastConsensusTime, level);
+		return sb.toString();
+	}
+
+	private void appendLevel(StringBuilder sb, Instant from, Instant to, long multiplier) {
+		sb.append(String.format("    %s for %.3fs from %s%n",
+				multiplier + "x", Duration.between(from, to).toMillis() / 1000.0, from));
+	}
+
+	static void replayRecordStreams(File recordStreamDir, ThrottleSimulator simulator) {
+		for (var file : RecordStreamReplay.orderedRecordFilesIn(recordStreamDir)) {
+			final var iter = parseStreamFile(file, RECORD);
+			while (iter.hasNext()) {
+				final var next = iter.next();
+				if (next instanceof RecordStreamObject) {
+					final var rso = (RecordStreamObject) next;
+					final var accessor = SignedTxnAccessor.uncheckedFrom(rso.getTransaction());
+					simulator.submit(accessor.getFunction(), rso.getTimestamp());
+				}
+			}
+		}
+	}
+
+	static GlobalDynamicProperties simulationProperties(String congestionMultipliers, String minCongestionPeriod) {
+		final var standard = new StandardizedPropertySources(new BootstrapProperties()).asResolvingSource();
+		final Map<String, Supplier<Object>> overrides = new HashMap<>();
+		if (congestionMultipliers != null) {
+			final var multipliers = CongestionMultipliers.from(congestionMultipliers);
+			overrides.put("fees.percentCongestionMultipliers", () -> multipliers);
+		}
+		if (minCongestionPeriod != null) {
+			final var period = Integer.valueOf(minCongestionPeriod);
+			overrides.put("fees.minCongestionPeriod", () -> period);
+		}
+		final var properties = new ChainedSources(new SupplierMapPropertySource(overrides), standard);
+		return new GlobalDynamicProperties(new HederaNumbers(properties), properties);
+	}
+
+	/* --- Only used by unit tests --- */
+	long submittedOf(HederaFunctionality function) {
+		return functionCounts.getOrDefault(function, new long[2])[0];
+	}
+
+	long throttledOf(HederaFunctionality function) {
+		return functionCounts.getOrDefault(function, new long[2])[1];
+	}
+
+	List<Pair<Instant, Long>> getMultiplierChanges() {
+		return multiplierChanges;
+	}
+
+	private static class BucketStats {
+		private final DeterministicThrottle throttle;
+
+		private double peakPercent = 0.0;
+		private double secondPeakPercent = 0.0;
+		private double sumOfSecondPeakPercents = 0.0;
+		private int numSeconds = 0;
+		private boolean sampledThisSecond = false;
+
+		private BucketStats(DeterministicThrottle throttle) {
+			this.throttle = throttle;
+		}
+
+		private void sample() {
+			final double percent = 100.0 * throttle.used() / throttle.capacity();
+			secondPeakPercent = Math.max(secondPeakPercent, percent);
+			peakPercent = Math.max(peakPercent, percent);
+			sampledThisSecond = true;
+		}
+
+		private void endSecond() {
+			if (sampledThisSecond) {
+				sumOfSecondPeakPercents += secondPeakPercent;
+				numSeconds++;
+				secondPeakPercent = 0.0;
+				sampledThisSecond = false;
+			}
+		}
+
+		private double avgPercent() {
+			return (numSeconds == 0) ? 0.0 : sumOfSecondPeakPercents / numSeconds;
+		}
+	}
+}
@@ -0,0 +1,234 @@
+package com.hedera.services.txns.customfees;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.common.base.MoreObjects;
+import com.hedera.services.state.submerkle.EntityId;
+import com.hedera.services.state.submerkle.FcCustomFee;
+import com.hedera.services.store.models.Id;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.hedera.services.state.submerkle.FcCustomFee.FeeType.FIXED_FEE;
+import static com.hedera.services.state.submerkle.FcCustomFee.FeeType.FRACTIONAL_FEE;
+
+/**
+ * A token's custom fee schedule "compiled" into the form used to assess it against a CryptoTransfer;
+ * that is, with every fee collector and denomination already converted to both an {@link Id} and an
+ * {@link EntityId}, and every fractional fee's maximum already resolved.
+ *
+ * A plan is immutable, and remembers the schedule it was compiled from; so it can be cached and
+ * re-used for as long as the token's schedule is unchanged.
+ */
+public final class CustomFeePlan {
+	public static final CustomFeePlan NO_FEES = new CustomFeePlan(Collections.emptyList(), new PlannedFee[0]);
+
+	private final List<FcCustomFee> schedule;
+	private final PlannedFee[] fees;
+
+	private CustomFeePlan(List<FcCustomFee> schedule, PlannedFee[] fees) {
+		this.schedule = schedule;
+		this.fees = fees;
+	}
+
+	/**
+	 * Compiles the given custom fee schedule of the given token.
+	 *
+	 * @param token the token with the schedule
+	 * @param schedule the schedule
+	 * @return the compiled plan
+	 */
+	public static CustomFeePlan compile(Id token, List<FcCustomFee> schedule) {
+		final var tokenEntityId = token.asEntityId();
+		final var compiled = new PlannedFee[schedule.size()];
+		int n = 0;
+		for (var fee : schedule) {
+			final var collector = fee.getFeeCollectorAccountId();
+			if (fee.getFeeType() == FIXED_FEE) {
+				final var spec = fee.getFixedFeeSpec();
+				final var denom = spec.getTokenDenomination();
+				compiled[n++] = PlannedFee.fixed(
+						collector, denom, (denom == null) ? null : denom.asId(), spec.getUnitsToCollect());
+			} else if (fee.getFeeType() == FRACTIONAL_FEE) {
+				final var spec = fee.getFractionalFeeSpec();
+				final var max = spec.getMaximumUnitsToCollect();
+				compiled[n++] = PlannedFee.fractional(
+						collector,
+						tokenEntityId,
+						token,
+						spec.getNumerator(),
+						spec.getDenominator(),
+						spec.getMinimumAmount(),
+						(max > 0) ? max : Long.MAX_VALUE);
+			}
+		}
+		return new CustomFeePlan(schedule, (n == compiled.length) ? compiled : Arrays.copyOf(compiled, n));
+	}
+
+	/**
+	 * Indicates if this plan can be used in place of compiling the given schedule.
+	 *
+	 * @param schedule a token's current custom fee schedule
+	 * @return whether this plan was compiled from the same (or an equal) schedule
+	 */
+	public boolean isCompiledFrom(List<FcCustomFee> schedule) {
+		return this.schedule == schedule || this.schedule.equals(schedule);
+	}
+
+	public List<FcCustomFee> schedule() {
+		return schedule;
+	}
+
+	public int numFees() {
+		return fees.length;
+	}
+
+	public PlannedFee fee(int i) {
+		return fees[i];
+	}
+
+	@Override
+	public String toString() {
+		return MoreObjects.toStringHelper(CustomFeePlan.class)
+				.add("fees", Arrays.toString(fees))
+				.toString();
+	}
+
+	/**
+	 * One custom fee of a {@link CustomFeePlan}. A fractional fee is always denominated in the token
+	 * whose schedule contains it; a fixed fee is denominated in ℏ if its {@link PlannedFee#denomination()}
+	 * is null.
+	 */
+	public static final class PlannedFee {
+		private final boolean fractional;
+		private final EntityId collector;
+		private final Id collectorId;
+		private final EntityId denomination;
+		private final Id denominationId;
+		private final long units;
+		private final long numerator;
+		private final long denominator;
+		private final long minUnits;
+		private final long maxUnits;
+
+		private PlannedFee(
+				boolean fractional,
+				EntityId collector,
+				EntityId denomination,
+				Id denominationId,
+				long units,
+				long numerator,
+				long denominator,
+				long minUnits,
+				long maxUnits
+		) {
+			this.fractional = fractional;
+			this.collector = collector;
+			this.collectorId = collector.asId();
+			this.denomination = denomination;
+			this.denominationId = denominationId;
+			this.units = units;
+			this.numerator = numerator;
+			this.denominator = denominator;
+			this.minUnits = minUnits;
+			this.maxUnits = maxUnits;
+		}
+
+		static PlannedFee fixed(EntityId collector, EntityId denomination, Id denominationId, long units) {
+			return new PlannedFee(false, collector, denomination, denominationId, units, 0, 1, 0, 0);
+		}
+
+		static PlannedFee fractional(
+				EntityId collector,
+				EntityId denomination,
+				Id denominationId,
+				long numerator,
+				long denominator,
+				long minUnits,
+				long maxUnits
+		) {
+			return new PlannedFee(
+					true, collector, denomination, denominationId, 0, numerator, denominator, minUnits, maxUnits);
+		}
+
+		public boolean isFractional() {
+			return fractional;
+		}
+
+		public boolean isForHbar() {
+			return denominationId == null;
+		}
+
+		public EntityId collector() {
+			return collector;
+		}
+
+		public Id collectorId() {
+			return collectorId;
+		}
+
+		public EntityId denomination() {
+			return denomination;
+		}
+
+		public Id denominationId() {
+			return denominationId;
+		}
+
+		public long units() {
+			return units;
+		}
+
+		public long numerator() {
+			return numerator;
+		}
+
+		public long denominator() {
+			return denominator;
+		}
+
+		public long minUnits() {
+			return minUnits;
+		}
+
+		public long maxUnits() {
+			return maxUnits;
+		}
+
+		@Override
+		public String toString() {
+			final var helper = MoreObjects.toStringHelper(PlannedFee.class)
+					.add("collector", collector)
+					.add("denomination", denomination);
+			if (fractional) {
+				helper.add("numerator", numerator)
+						.add("denominator", denominator)
+						.add("minUnits", minUnits)
+						.add("maxUnits", maxUnits);
+			} else {
+				helper.add("units", units);
+			}
+			return helper.toString();
+		}
+	}
+}
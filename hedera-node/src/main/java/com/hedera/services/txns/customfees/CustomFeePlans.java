@@ -0,0 +1,73 @@
+package com.hedera.services.txns.customfees;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.state.submerkle.FcCustomFee;
+import com.hedera.services.store.models.Id;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Caches a {@link CustomFeePlan} for each token with a non-empty custom fee schedule.
+ *
+ * There is no explicit invalidation; a cached plan is only used if it was compiled from
+ * the token's current schedule (checked first by identity, since token copies share their
+ * schedule, and then by equality). So a {@code TokenFeeScheduleUpdate}, or a reconnect, just
+ * causes the affected plans to be re-compiled on their next use.
+ *
+ * Plans may be requested from any thread that expands a CryptoTransfer's span.
+ */
+public class CustomFeePlans {
+	static final int MAX_CACHED_PLANS = 10_000;
+
+	private final Map<Id, CustomFeePlan> plans = new ConcurrentHashMap<>();
+
+	/**
+	 * Returns a plan for the given schedule of the given token, compiling it only if
+	 * there is no cached plan for the same schedule.
+	 *
+	 * @param token the token whose schedule is to be assessed
+	 * @param schedule the token's current custom fee schedule
+	 * @return a plan for the schedule
+	 */
+	public CustomFeePlan planFor(Id token, List<FcCustomFee> schedule) {
+		if (schedule.isEmpty()) {
+			return CustomFeePlan.NO_FEES;
+		}
+		final var cached = plans.get(token);
+		if (cached != null && cached.isCompiledFrom(schedule)) {
+			return cached;
+		}
+		final var plan = CustomFeePlan.compile(token, schedule);
+		if (plans.size() >= MAX_CACHED_PLANS) {
+			plans.clear();
+		}
+		plans.put(token, plan);
+		return plan;
+	}
+
+	/* --- Only used by unit tests --- */
+	int numCached() {
+		return plans.size();
+	}
+}
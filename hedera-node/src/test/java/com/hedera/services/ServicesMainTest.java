@@ -60,6 +60,7 @@ import com.swirlds.common.notification.NotificationEngine;
 import com.swirlds.common.notification.NotificationFactory;
 import com.swirlds.common.notification.listeners.ReconnectCompleteListener;
 import com.swirlds.common.notification.listeners.ReconnectCompleteNotification;
+import com.swirlds.common.notification.listeners.StateWriteToDiskCompleteListener;
 import com.swirlds.fcmap.FCMap;
 import org.apache.commons.lang3.RandomUtils;
 import org.junit.jupiter.api.BeforeEach;
@@ -606,6 +607,13 @@ public class ServicesMainTest {
 		verify(engineMock).register(eq(ReconnectCompleteListener.class), any());
 	}
 
+	@Test
+	void registerStateWriteToDiskCompleteListenerTest() {
+		NotificationEngine engineMock = mock(NotificationEngine.class);
+		subject.registerStateWriteToDiskCompleteListener(engineMock);
+		verify(engineMock).register(eq(StateWriteToDiskCompleteListener.class), any());
+	}
+
 	@Test
 	void reconnectCompleteListenerTest() {
 		// setup
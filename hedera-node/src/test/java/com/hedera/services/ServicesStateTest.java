@@ -22,6 +22,7 @@ package com.hedera.services;
 
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
+import com.hedera.services.config.MockGlobalDynamicProps;
 import com.hedera.services.context.NodeInfo;
 import com.hedera.services.context.ServicesContext;
 import com.hedera.services.context.properties.PropertySources;
@@ -32,11 +33,16 @@ import com.hedera.services.records.AccountRecordsHistorian;
 import com.hedera.services.records.TxnIdRecentHistory;
 import com.hedera.services.sigs.order.HederaSigningOrder;
 import com.hedera.services.sigs.order.SigningOrderResult;
+import com.hedera.services.state.blobs.BlobBackend;
+import com.hedera.services.state.expiry.AccountExpiryIndex;
 import com.hedera.services.state.expiry.ExpiryManager;
+import com.hedera.services.state.exports.BalanceChangeTracker;
 import com.hedera.services.state.initialization.ViewBuilderTest;
 import com.hedera.services.state.logic.NetworkCtxManager;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleBlobMeta;
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
 import com.hedera.services.state.merkle.MerkleDiskFs;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
 import com.hedera.services.state.merkle.MerkleEntityId;
@@ -95,6 +101,8 @@ import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -106,6 +114,7 @@ import static com.hedera.services.ServicesState.RELEASE_0130_VERSION;
 import static com.hedera.services.ServicesState.RELEASE_0140_VERSION;
 import static com.hedera.services.ServicesState.RELEASE_0150_VERSION;
 import static com.hedera.services.ServicesState.RELEASE_0160_VERSION;
+import static com.hedera.services.ServicesState.RELEASE_0170_VERSION;
 import static com.hedera.services.ServicesState.RELEASE_070_VERSION;
 import static com.hedera.services.ServicesState.RELEASE_080_VERSION;
 import static com.hedera.services.ServicesState.RELEASE_090_VERSION;
@@ -139,6 +148,7 @@ class ServicesStateTest {
 	private Consumer<MerkleNode> mockDigest;
 	private Supplier<BinaryObjectStore> mockBlobStoreSupplier;
 	private BinaryObjectStore blobStore;
+	private Runnable localBlobRecovery;
 	private Instant now = Instant.now();
 	private SwirldTransaction platformTxn;
 	private Address address;
@@ -151,6 +161,7 @@ class ServicesStateTest {
 	private ExpandHandleSpan expandHandleSpan;
 	private AccountRecordsHistorian historian;
 	private ExpiryManager expiryManager;
+	private AccountExpiryIndex accountExpiryIndex;
 	private FCMap<MerkleEntityId, MerkleTopic> topics;
 	private FCMap<MerkleEntityId, MerkleAccount> accounts;
 	private FCMap<MerkleBlobMeta, MerkleOptionalBlob> storage;
@@ -169,6 +180,10 @@ class ServicesStateTest {
 	private FCOneToManyRelation<EntityId, MerkleUniqueTokenId> uniqueTokenAssociationsCopy;
 	private FCOneToManyRelation<EntityId, MerkleUniqueTokenId> uniqueOwnershipAssociations;
 	private FCOneToManyRelation<EntityId, MerkleUniqueTokenId> uniqueOwnershipAssociationsCopy;
+	private FCMap<MerkleContractSlotId, MerkleContractSlot> contractStorage;
+	private FCMap<MerkleContractSlotId, MerkleContractSlot> contractStorageCopy;
+	private FCOneToManyRelation<EntityId, MerkleContractSlotId> contractStorageAssociations;
+	private FCOneToManyRelation<EntityId, MerkleContractSlotId> contractStorageAssociationsCopy;
 	private MerkleDiskFs diskFs;
 	private MerkleDiskFs diskFsCopy;
 	private RecordsRunningHashLeaf runningHashLeaf;
@@ -178,6 +193,7 @@ class ServicesStateTest {
 	private ExchangeRates midnightRates;
 	private SequenceNumber seqNo;
 	private MerkleNetworkContext networkCtx;
+	private BalanceChangeTracker balanceChangeTracker;
 	private MerkleNetworkContext networkCtxCopy;
 	private NodeId self = new NodeId(false, 0);
 	private RecordStreamManager recordStreamManager;
@@ -202,6 +218,8 @@ class ServicesStateTest {
 		given(mockBlobStoreSupplier.get()).willReturn(blobStore);
 		ServicesState.blobStoreSupplier = mockBlobStoreSupplier;
 		given(blobStore.isInitializing()).willReturn(false);
+		localBlobRecovery = mock(Runnable.class);
+		ServicesState.localBlobRecovery = localBlobRecovery;
 
 		platformTxn = mock(SwirldTransaction.class);
 
@@ -221,6 +239,7 @@ class ServicesStateTest {
 		historian = mock(AccountRecordsHistorian.class);
 		txnHistories = mock(Map.class);
 		expiryManager = mock(ExpiryManager.class);
+		accountExpiryIndex = mock(AccountExpiryIndex.class);
 		recordStreamManager = mock(RecordStreamManager.class);
 		networkCtxManager = mock(NetworkCtxManager.class);
 
@@ -250,6 +269,10 @@ class ServicesStateTest {
 		uniqueTokenAssociationsCopy = mock(FCOneToManyRelation.class);
 		uniqueOwnershipAssociations = mock(FCOneToManyRelation.class);
 		uniqueOwnershipAssociationsCopy = mock(FCOneToManyRelation.class);
+		contractStorage = mock(FCMap.class);
+		contractStorageCopy = mock(FCMap.class);
+		contractStorageAssociations = mock(FCOneToManyRelation.class);
+		contractStorageAssociationsCopy = mock(FCOneToManyRelation.class);
 
 		given(topics.copy()).willReturn(topicsCopy);
 		given(storage.copy()).willReturn(storageCopy);
@@ -261,6 +284,8 @@ class ServicesStateTest {
 		given(runningHashLeaf.copy()).willReturn(runningHashLeafCopy);
 		given(uniqueTokenAssociations.copy()).willReturn(uniqueTokenAssociationsCopy);
 		given(uniqueOwnershipAssociations.copy()).willReturn(uniqueOwnershipAssociationsCopy);
+		given(contractStorage.copy()).willReturn(contractStorageCopy);
+		given(contractStorageAssociations.copy()).willReturn(contractStorageAssociationsCopy);
 
 		seqNo = mock(SequenceNumber.class);
 		midnightRates = mock(ExchangeRates.class);
@@ -284,9 +309,12 @@ class ServicesStateTest {
 		given(ctx.recordsHistorian()).willReturn(historian);
 		given(ctx.txnHistories()).willReturn(txnHistories);
 		given(ctx.expiries()).willReturn(expiryManager);
+		given(ctx.accountExpiryIndex()).willReturn(accountExpiryIndex);
 		given(ctx.propertySources()).willReturn(propertySources);
 		given(ctx.networkCtxManager()).willReturn(networkCtxManager);
 		given(ctx.recordStreamManager()).willReturn(recordStreamManager);
+		balanceChangeTracker = mock(BalanceChangeTracker.class);
+		given(ctx.balanceChangeTracker()).willReturn(balanceChangeTracker);
 
 		subject = new ServicesState();
 	}
@@ -309,6 +337,7 @@ class ServicesStateTest {
 		assertEquals(ServicesState.ChildIndices.NUM_0140_CHILDREN, subject.getMinimumChildCount(RELEASE_0140_VERSION));
 		assertEquals(ServicesState.ChildIndices.NUM_0150_CHILDREN, subject.getMinimumChildCount(RELEASE_0150_VERSION));
 		assertEquals(ServicesState.ChildIndices.NUM_0160_CHILDREN, subject.getMinimumChildCount(RELEASE_0160_VERSION));
+		assertEquals(ServicesState.ChildIndices.NUM_0170_CHILDREN, subject.getMinimumChildCount(RELEASE_0170_VERSION));
 
 		Throwable throwable = assertThrows(IllegalArgumentException.class,
 				() -> subject.getMinimumChildCount(invalidVersion));
@@ -326,6 +355,7 @@ class ServicesStateTest {
 				Collections.emptyList(),
 				uniqueTokenAssociations,
 				uniqueOwnershipAssociations,
+				contractStorageAssociations,
 				new ServicesState());
 
 		// then:
@@ -350,7 +380,9 @@ class ServicesStateTest {
 		var throttling = mock(FunctionalityThrottling.class);
 		var nodeInfo = mock(NodeInfo.class);
 
-		InOrder inOrder = inOrder(ctx, txnHistories, historian, networkCtxManager, expiryManager, networkCtx);
+		InOrder inOrder = inOrder(
+				ctx, txnHistories, historian, networkCtxManager, expiryManager, accountExpiryIndex, networkCtx,
+				localBlobRecovery);
 
 		given(ctx.handleThrottling()).willReturn(throttling);
 		given(ctx.nodeInfo()).willReturn(nodeInfo);
@@ -364,14 +396,85 @@ class ServicesStateTest {
 		// then:
 		inOrder.verify(ctx).setRecordsInitialHash(EMPTY_HASH);
 		inOrder.verify(ctx).update(subject);
+		inOrder.verify(networkCtxManager).setObservableFilesNotLoaded();
+		inOrder.verify(localBlobRecovery).run();
+		inOrder.verify(networkCtxManager).loadObservableSysFilesIfNeeded();
+		// and:
+		verify(ctx).rebuildBackingStoresIfPresent();
+		verify(ctx).rebuildStoreViewsIfPresent();
+		verify(accountExpiryIndex).rebuild();
+		verify(balanceChangeTracker).reset();
+		// and:
+		InOrder expiriesInOrder = inOrder(historian, expiryManager);
+		expiriesInOrder.verify(historian).reviewExistingRecords();
+		expiriesInOrder.verify(expiryManager).reviewExistingShortLivedEntities();
+		// and:
+		assertEquals(MERKLE_VERSION, subject.networkCtx().getStateVersion());
+	}
+
+	@Test
+	void reinitializationAfterReconnectForcesFullBalancesExport() {
+		// setup:
+		var nodeInfo = mock(NodeInfo.class);
+		var beforeReconnect = Instant.ofEpochSecond(1_234_567L);
+		var reconnectedTo = beforeReconnect.plusSeconds(60);
+		var tracker = new BalanceChangeTracker(new MockGlobalDynamicProps() {
+			@Override
+			public int balancesDeltaExportsPerFullExport() {
+				return 2;
+			}
+		});
+
+		given(ctx.handleThrottling()).willReturn(mock(FunctionalityThrottling.class));
+		given(ctx.nodeInfo()).willReturn(nodeInfo);
+		given(nodeInfo.selfAccount()).willReturn(AccountID.getDefaultInstance());
+		given(ctx.balanceChangeTracker()).willReturn(tracker);
+		// and:
+		CONTEXTS.store(ctx);
+		// and the node was tracking changes since its last export, before falling behind:
+		tracker.seal(beforeReconnect);
+		tracker.track(IdUtils.asAccount("0.0.1001"));
+		tracker.seal(beforeReconnect.plusSeconds(1));
+
+		// when the platform initializes the state received in the reconnect:
+		subject.init(platform, book);
+		// and:
+		tracker.seal(reconnectedTo);
+
+		// then:
+		assertTrue(tracker.drainChangesSince(beforeReconnect, reconnectedTo).isEmpty());
+		// and:
+		tracker.track(IdUtils.asAccount("0.0.1002"));
+		tracker.seal(reconnectedTo.plusSeconds(1));
+		assertEquals(
+				Optional.of(Set.of(IdUtils.asAccount("0.0.1002"))),
+				tracker.drainChangesSince(reconnectedTo, reconnectedTo.plusSeconds(1)));
+	}
+
+	@Test
+	void rebuildsViewsSeriallyWithOneThread() {
+		// setup:
+		InOrder inOrder = inOrder(ctx, historian, expiryManager, accountExpiryIndex, networkCtxManager);
+		var nodeInfo = mock(NodeInfo.class);
+		ServicesState.maxViewRebuildThreads = () -> 1;
+
+		given(ctx.handleThrottling()).willReturn(mock(FunctionalityThrottling.class));
+		given(ctx.nodeInfo()).willReturn(nodeInfo);
+		given(nodeInfo.selfAccount()).willReturn(AccountID.getDefaultInstance());
+		// and:
+		CONTEXTS.store(ctx);
+
+		// when:
+		subject.init(platform, book);
+
+		// then:
+		inOrder.verify(ctx).update(subject);
 		inOrder.verify(ctx).rebuildBackingStoresIfPresent();
 		inOrder.verify(ctx).rebuildStoreViewsIfPresent();
 		inOrder.verify(historian).reviewExistingRecords();
 		inOrder.verify(expiryManager).reviewExistingShortLivedEntities();
+		inOrder.verify(accountExpiryIndex).rebuild();
 		inOrder.verify(networkCtxManager).setObservableFilesNotLoaded();
-		inOrder.verify(networkCtxManager).loadObservableSysFilesIfNeeded();
-		// and:
-		assertEquals(MERKLE_VERSION, subject.networkCtx().getStateVersion());
 	}
 
 	@Test
@@ -387,9 +490,11 @@ class ServicesStateTest {
 
 		// then:
 		inOrder.verify(ctx).update(subject);
-		inOrder.verify(ctx).rebuildBackingStoresIfPresent();
-		inOrder.verify(historian).reviewExistingRecords();
+		inOrder.verify(networkCtxManager).setObservableFilesNotLoaded();
 		inOrder.verify(networkCtxManager, never()).loadObservableSysFilesIfNeeded();
+		// and:
+		verify(ctx).rebuildBackingStoresIfPresent();
+		verify(historian).reviewExistingRecords();
 	}
 
 	@Test
@@ -439,6 +544,7 @@ class ServicesStateTest {
 		subject.setChild(ServicesState.ChildIndices.SCHEDULE_TXS, scheduledTxs);
 		subject.setChild(ServicesState.ChildIndices.RECORD_STREAM_RUNNING_HASH, runningHashLeaf);
 		subject.setChild(ServicesState.ChildIndices.UNIQUE_TOKENS, uniqueTokens);
+		subject.setChild(ServicesState.ChildIndices.CONTRACT_STORAGE, contractStorage);
 
 		// when:
 		subject.init(platform, book);
@@ -476,6 +582,29 @@ class ServicesStateTest {
 		assertNotNull(subject.uniqueTokens());
 	}
 
+	@Test
+	void createsContractStorageIfMigratingFromRelease0160() {
+		// given:
+		subject.setChild(ServicesState.ChildIndices.TOPICS, topics);
+		subject.setChild(ServicesState.ChildIndices.STORAGE, storage);
+		subject.setChild(ServicesState.ChildIndices.ACCOUNTS, accounts);
+		subject.setChild(ServicesState.ChildIndices.ADDRESS_BOOK, book);
+		subject.setChild(ServicesState.ChildIndices.NETWORK_CTX, networkCtx);
+		subject.setChild(ServicesState.ChildIndices.TOKENS, tokens);
+		subject.setChild(ServicesState.ChildIndices.TOKEN_ASSOCIATIONS, tokenAssociations);
+		subject.setChild(ServicesState.ChildIndices.DISK_FS, diskFs);
+		subject.setChild(ServicesState.ChildIndices.SCHEDULE_TXS, scheduledTxs);
+		subject.setChild(ServicesState.ChildIndices.RECORD_STREAM_RUNNING_HASH, runningHashLeaf);
+		subject.setChild(ServicesState.ChildIndices.UNIQUE_TOKENS, uniqueTokens);
+
+		// when:
+		subject.initialize();
+
+		// then:
+		assertSame(uniqueTokens, subject.uniqueTokens());
+		assertNotNull(subject.contractStorage());
+	}
+
 	@Test
 	void justWarnOnFailedDiskFsMigration() {
 		// setup:
@@ -499,6 +628,7 @@ class ServicesStateTest {
 		subject.setChild(ServicesState.ChildIndices.SCHEDULE_TXS, scheduledTxs);
 		subject.setChild(ServicesState.ChildIndices.RECORD_STREAM_RUNNING_HASH, runningHashLeaf);
 		subject.setChild(ServicesState.ChildIndices.UNIQUE_TOKENS, uniqueTokens);
+		subject.setChild(ServicesState.ChildIndices.CONTRACT_STORAGE, contractStorage);
 
 		// when:
 		subject.init(platform, book);
@@ -531,12 +661,14 @@ class ServicesStateTest {
 		subject.setChild(ServicesState.ChildIndices.SCHEDULE_TXS, scheduledTxs);
 		subject.setChild(ServicesState.ChildIndices.RECORD_STREAM_RUNNING_HASH, runningHashLeaf);
 		subject.setChild(ServicesState.ChildIndices.UNIQUE_TOKENS, ViewBuilderTest.someUniqueTokens());
+		subject.setChild(ServicesState.ChildIndices.CONTRACT_STORAGE, ViewBuilderTest.someContractStorage());
 		// when:
 		subject.init(platform, book);
 
 		// then:
 		ViewBuilderTest.assertIsTheExpectedUta(subject.uniqueTokenAssociations());
 		ViewBuilderTest.assertIsTheExpectedUtao(subject.uniqueOwnershipAssociations());
+		ViewBuilderTest.assertIsTheExpectedCsa(subject.contractStorageAssociations());
 	}
 
 	@Test
@@ -559,13 +691,14 @@ class ServicesStateTest {
 		subject.setChild(ServicesState.ChildIndices.SCHEDULE_TXS, scheduledTxs);
 		subject.setChild(ServicesState.ChildIndices.RECORD_STREAM_RUNNING_HASH, runningHashLeaf);
 		subject.setChild(ServicesState.ChildIndices.UNIQUE_TOKENS, uniqueTokens);
+		subject.setChild(ServicesState.ChildIndices.CONTRACT_STORAGE, contractStorage);
 		// when:
 		subject.init(platform, book);
 
 		// then:
 		InOrder inOrder = inOrder(
 				scheduledTxs, runningHashLeaf, diskFs, ctx, mockDigest,
-				accounts, storage, topics, tokens, tokenAssociations, networkCtx, book, uniqueTokens);
+				accounts, storage, topics, tokens, tokenAssociations, networkCtx, book, uniqueTokens, contractStorage);
 		inOrder.verify(diskFs).checkHashesAgainstDiskContents();
 		inOrder.verify(ctx).setRecordsInitialHash(recordsHash);
 		inOrder.verify(accounts).getHash();
@@ -579,6 +712,7 @@ class ServicesStateTest {
 		inOrder.verify(book).getHash();
 		inOrder.verify(runningHashLeaf).getHash();
 		inOrder.verify(uniqueTokens).getHash();
+		inOrder.verify(contractStorage).getHash();
 		inOrder.verify(ctx).update(subject);
 		// and:
 		assertThat(
@@ -609,6 +743,7 @@ class ServicesStateTest {
 		// and:
 		Hash overallHash = new Hash("a!dfa!dfa!dfa!dfa!dfa!dfa!dfa!dfa!dfa!dfa!dfa!df".getBytes());
 		Hash uniqueTokensRootHash = new Hash("asdhasdhasdhasdhasdhasdhasdhasdhasdhasdhasdhasdh".getBytes());
+		Hash contractStorageRootHash = new Hash("csrhcsrhcsrhcsrhcsrhcsrhcsrhcsrhcsrhcsrhcsrhcsrh".getBytes());
 
 		// and:
 		subject.setChild(ServicesState.ChildIndices.TOPICS, topics);
@@ -622,6 +757,7 @@ class ServicesStateTest {
 		subject.setChild(ServicesState.ChildIndices.SCHEDULE_TXS, scheduledTxs);
 		subject.setChild(ServicesState.ChildIndices.RECORD_STREAM_RUNNING_HASH, runningHashLeaf);
 		subject.setChild(ServicesState.ChildIndices.UNIQUE_TOKENS, uniqueTokens);
+		subject.setChild(ServicesState.ChildIndices.CONTRACT_STORAGE, contractStorage);
 		// and:
 		var expected = String.format("[SwirldState Hashes]\n" +
 						"  Overall                :: %s\n" +
@@ -636,7 +772,8 @@ class ServicesStateTest {
 						"  AddressBook            :: %s\n" +
 						"  RecordsRunningHashLeaf :: %s\n" +
 						"    ↪ Running hash       :: %s\n" +
-						"  UniqueTokens           :: %s",
+						"  UniqueTokens           :: %s\n" +
+						"  ContractStorage        :: %s",
 
 				overallHash,
 				accountsRootHash,
@@ -650,7 +787,8 @@ class ServicesStateTest {
 				bookHash,
 				runningHashLeafHash,
 				hashInRunningHash,
-				uniqueTokensRootHash);
+				uniqueTokensRootHash,
+				contractStorageRootHash);
 		subject.setHash(overallHash);
 
 		given(topics.getHash()).willReturn(topicRootHash);
@@ -658,6 +796,7 @@ class ServicesStateTest {
 		given(storage.getHash()).willReturn(storageRootHash);
 		given(tokens.getHash()).willReturn(tokensRootHash);
 		given(uniqueTokens.getHash()).willReturn(uniqueTokensRootHash);
+		given(contractStorage.getHash()).willReturn(contractStorageRootHash);
 		given(tokenAssociations.getHash()).willReturn(tokenRelsRootHash);
 		given(networkCtx.getHash()).willReturn(ctxHash);
 		given(networkCtx.toString()).willReturn("Not really a network context representation!");
@@ -691,6 +830,7 @@ class ServicesStateTest {
 		subject.setChild(ServicesState.ChildIndices.SCHEDULE_TXS, scheduledTxs);
 		subject.setChild(ServicesState.ChildIndices.RECORD_STREAM_RUNNING_HASH, runningHashLeaf);
 		subject.setChild(ServicesState.ChildIndices.UNIQUE_TOKENS, uniqueTokens);
+		subject.setChild(ServicesState.ChildIndices.CONTRACT_STORAGE, contractStorage);
 		subject.nodeId = self;
 		subject.ctx = ctx;
 
@@ -714,6 +854,10 @@ class ServicesStateTest {
 		assertSame(uniqueTokensCopy, copy.uniqueTokens());
 		assertNull(copy.uniqueTokenAssociations());
 		assertNull(copy.uniqueOwnershipAssociations());
+		assertSame(contractStorageCopy, copy.contractStorage());
+		assertNull(copy.contractStorageAssociations());
+		// and:
+		verify(balanceChangeTracker).seal(Instant.EPOCH);
 	}
 
 	@Test
@@ -730,8 +874,10 @@ class ServicesStateTest {
 		subject.setChild(ServicesState.ChildIndices.SCHEDULE_TXS, scheduledTxs);
 		subject.setChild(ServicesState.ChildIndices.RECORD_STREAM_RUNNING_HASH, runningHashLeaf);
 		subject.setChild(ServicesState.ChildIndices.UNIQUE_TOKENS, uniqueTokens);
+		subject.setChild(ServicesState.ChildIndices.CONTRACT_STORAGE, contractStorage);
 		subject.setUniqueTokenAssociations(uniqueTokenAssociations);
 		subject.setUniqueOwnershipAssociations(uniqueOwnershipAssociations);
+		subject.setContractStorageAssociations(contractStorageAssociations);
 		subject.nodeId = self;
 		subject.ctx = ctx;
 
@@ -755,6 +901,8 @@ class ServicesStateTest {
 		assertSame(uniqueTokensCopy, copy.uniqueTokens());
 		assertSame(uniqueTokenAssociationsCopy, copy.uniqueTokenAssociations());
 		assertSame(uniqueOwnershipAssociationsCopy, copy.uniqueOwnershipAssociations());
+		assertSame(contractStorageCopy, copy.contractStorage());
+		assertSame(contractStorageAssociationsCopy, copy.contractStorageAssociations());
 	}
 
 	@Test
@@ -908,6 +1056,8 @@ class ServicesStateTest {
 	@AfterEach
 	void cleanup() {
 		CONTEXTS.clear();
-		ServicesState.blobStoreSupplier = BinaryObjectStore::getInstance;
+		ServicesState.blobStoreSupplier = BlobBackend::store;
+		ServicesState.localBlobRecovery = BlobBackend::finishLocalRecoveryIfNeeded;
+		ServicesState.maxViewRebuildThreads = () -> Runtime.getRuntime().availableProcessors();
 	}
 }
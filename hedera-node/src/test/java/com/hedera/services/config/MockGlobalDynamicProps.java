@@ -230,4 +230,14 @@ public class MockGlobalDynamicProps extends GlobalDynamicProperties {
 	public long ratesMidnightCheckInterval() {
 		return 1L;
 	}
+
+	@Override
+	public boolean shouldThrottleByGas() {
+		return true;
+	}
+
+	@Override
+	public long maxGasPerSec() {
+		return 15_000_000L;
+	}
 }
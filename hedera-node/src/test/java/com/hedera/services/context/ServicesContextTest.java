@@ -33,9 +33,12 @@ import com.hedera.services.context.properties.NodeLocalProperties;
 import com.hedera.services.context.properties.PropertySource;
 import com.hedera.services.context.properties.SemanticVersions;
 import com.hedera.services.context.properties.StandardizedPropertySources;
+import com.hedera.services.contracts.execution.BytecodeAnalysisCache;
+import com.hedera.services.contracts.execution.EvmProfiler;
 import com.hedera.services.contracts.execution.SolidityLifecycle;
 import com.hedera.services.contracts.execution.TxnAwareSoliditySigsVerifier;
-import com.hedera.services.contracts.persistence.BlobStoragePersistence;
+import com.hedera.services.contracts.persistence.SlotKeyedStoragePersistence;
+import com.hedera.services.contracts.persistence.WriteBackStorageCache;
 import com.hedera.services.contracts.sources.BlobStorageSource;
 import com.hedera.services.contracts.sources.LedgerAccountsSource;
 import com.hedera.services.fees.AwareHbarCentExchange;
@@ -56,6 +59,7 @@ import com.hedera.services.files.interceptors.ThrottleDefsManager;
 import com.hedera.services.files.interceptors.TxnAwareRatesManager;
 import com.hedera.services.files.interceptors.ValidatingCallbackInterceptor;
 import com.hedera.services.files.store.FcBlobsBytesStore;
+import com.hedera.services.files.sysfiles.ParsedSysFileCache;
 import com.hedera.services.grpc.NettyGrpcServerManager;
 import com.hedera.services.grpc.controllers.ConsensusController;
 import com.hedera.services.grpc.controllers.ContractController;
@@ -96,9 +100,11 @@ import com.hedera.services.security.ops.SystemOpPolicies;
 import com.hedera.services.sigs.order.HederaSigningOrder;
 import com.hedera.services.sigs.verification.PrecheckVerifier;
 import com.hedera.services.sigs.verification.SyncVerifier;
+import com.hedera.services.state.expiry.AccountExpiryIndex;
 import com.hedera.services.state.expiry.EntityAutoRenewal;
 import com.hedera.services.state.expiry.ExpiringCreations;
 import com.hedera.services.state.expiry.ExpiryManager;
+import com.hedera.services.state.exports.BalanceChangeTracker;
 import com.hedera.services.state.exports.SignedStateBalancesExporter;
 import com.hedera.services.state.exports.ToStringAccountsExporter;
 import com.hedera.services.state.initialization.BackedSystemAccountsCreator;
@@ -108,6 +114,8 @@ import com.hedera.services.state.logic.InvariantChecks;
 import com.hedera.services.state.logic.NetworkCtxManager;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleBlobMeta;
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
 import com.hedera.services.state.merkle.MerkleDiskFs;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
 import com.hedera.services.state.merkle.MerkleEntityId;
@@ -214,6 +222,8 @@ class ServicesContextTest {
 	private FCMap<MerkleEntityAssociation, MerkleTokenRelStatus> tokenAssociations;
 	private FCOneToManyRelation<EntityId, MerkleUniqueTokenId> uniqueTokenAssociations;
 	private FCOneToManyRelation<EntityId, MerkleUniqueTokenId> uniqueOwnershipAssociations;
+	private FCMap<MerkleContractSlotId, MerkleContractSlot> contractStorage;
+	private FCOneToManyRelation<EntityId, MerkleContractSlotId> contractStorageAssociations;
 	private AddressBook addresses;
 	private MerkleDiskFs diskFs;
 
@@ -222,6 +232,8 @@ class ServicesContextTest {
 		uniqueTokens = mock(FCMap.class);
 		uniqueTokenAssociations = mock(FCOneToManyRelation.class);
 		uniqueOwnershipAssociations = mock(FCOneToManyRelation.class);
+		contractStorage = mock(FCMap.class);
+		contractStorageAssociations = mock(FCOneToManyRelation.class);
 		topics = mock(FCMap.class);
 		tokens = mock(FCMap.class);
 		tokenAssociations = mock(FCMap.class);
@@ -257,6 +269,8 @@ class ServicesContextTest {
 		given(state.uniqueTokens()).willReturn(uniqueTokens);
 		given(state.uniqueTokenAssociations()).willReturn(uniqueTokenAssociations);
 		given(state.uniqueOwnershipAssociations()).willReturn(uniqueOwnershipAssociations);
+		given(state.contractStorage()).willReturn(contractStorage);
+		given(state.contractStorageAssociations()).willReturn(contractStorageAssociations);
 
 		crypto = mock(Cryptography.class);
 		platform = mock(Platform.class);
@@ -280,6 +294,8 @@ class ServicesContextTest {
 		var newUniqueTokens = mock(FCMap.class);
 		var newUniqueTokenAssociations = mock(FCOneToManyRelation.class);
 		var newUniqueOwnershipAssociations = mock(FCOneToManyRelation.class);
+		var newContractStorage = mock(FCMap.class);
+		var newContractStorageAssociations = mock(FCOneToManyRelation.class);
 
 		given(newState.accounts()).willReturn(newAccounts);
 		given(newState.topics()).willReturn(newTopics);
@@ -290,6 +306,8 @@ class ServicesContextTest {
 		given(newState.uniqueTokens()).willReturn(newUniqueTokens);
 		given(newState.uniqueTokenAssociations()).willReturn(newUniqueTokenAssociations);
 		given(newState.uniqueOwnershipAssociations()).willReturn(newUniqueOwnershipAssociations);
+		given(newState.contractStorage()).willReturn(newContractStorage);
+		given(newState.contractStorageAssociations()).willReturn(newContractStorageAssociations);
 		// given:
 		var subject = new ServicesContext(nodeId, platform, state, propertySources);
 
@@ -306,6 +324,8 @@ class ServicesContextTest {
 		assertSame(state.uniqueTokens(), queryableState.get().getUniqueTokens());
 		assertSame(state.uniqueTokenAssociations(), queryableState.get().getUniqueTokenAssociations());
 		assertSame(state.uniqueOwnershipAssociations(), queryableState.get().getUniqueOwnershipAssociations());
+		assertSame(state.contractStorage(), queryableState.get().getContractStorage());
+		assertSame(state.contractStorageAssociations(), queryableState.get().getContractStorageAssociations());
 
 		// when:
 		subject.update(newState);
@@ -321,6 +341,11 @@ class ServicesContextTest {
 		assertSame(newState.uniqueTokens(), queryableState.get().getUniqueTokens());
 		assertSame(newState.uniqueTokenAssociations(), queryableState.get().getUniqueTokenAssociations());
 		assertSame(newState.uniqueOwnershipAssociations(), queryableState.get().getUniqueOwnershipAssociations());
+		assertSame(newState.contractStorage(), queryableState.get().getContractStorage());
+		assertSame(newState.contractStorageAssociations(), queryableState.get().getContractStorageAssociations());
+		// and:
+		assertSame(newState.contractStorage(), subject.contractStorage());
+		assertSame(newState.contractStorageAssociations(), subject.contractStorageAssociations());
 	}
 
 	@Test
@@ -548,7 +573,8 @@ class ServicesContextTest {
 		assertThat(ctx.tokenAnswers(), instanceOf(TokenAnswers.class));
 		assertThat(ctx.scheduleAnswers(), instanceOf(ScheduleAnswers.class));
 		assertThat(ctx.consensusGrpc(), instanceOf(ConsensusController.class));
-		assertThat(ctx.storagePersistence(), instanceOf(BlobStoragePersistence.class));
+		assertThat(ctx.storagePersistence(), instanceOf(SlotKeyedStoragePersistence.class));
+		assertThat(ctx.storageCache(), instanceOf(WriteBackStorageCache.class));
 		assertThat(ctx.filesGrpc(), instanceOf(FileController.class));
 		assertThat(ctx.networkGrpc(), instanceOf(NetworkController.class));
 		assertThat(ctx.entityNums(), instanceOf(EntityNumbers.class));
@@ -577,6 +603,8 @@ class ServicesContextTest {
 		assertThat(ctx.systemFilesManager(), instanceOf(HfsSystemFilesManager.class));
 		assertThat(ctx.queryResponseHelper(), instanceOf(QueryResponseHelper.class));
 		assertThat(ctx.solidityLifecycle(), instanceOf(SolidityLifecycle.class));
+		assertThat(ctx.bytecodeAnalysisCache(), instanceOf(BytecodeAnalysisCache.class));
+		assertThat(ctx.evmProfiler(), instanceOf(EvmProfiler.class));
 		assertThat(ctx.repository(), instanceOf(ServicesRepositoryRoot.class));
 		assertThat(ctx.newPureRepo(), instanceOf(Supplier.class));
 		assertThat(ctx.exchangeRatesManager(), instanceOf(TxnAwareRatesManager.class));
@@ -601,6 +629,7 @@ class ServicesContextTest {
 		assertThat(ctx.scheduleGrpc(), instanceOf(ScheduleController.class));
 		assertThat(ctx.nodeLocalProperties(), instanceOf(NodeLocalProperties.class));
 		assertThat(ctx.balancesExporter(), instanceOf(SignedStateBalancesExporter.class));
+		assertThat(ctx.balanceChangeTracker(), instanceOf(BalanceChangeTracker.class));
 		assertThat(ctx.exchange(), instanceOf(AwareHbarCentExchange.class));
 		assertThat(ctx.stateMigrations(), instanceOf(StdStateMigrations.class));
 		assertThat(ctx.opCounters(), instanceOf(HapiOpCounters.class));
@@ -618,6 +647,7 @@ class ServicesContextTest {
 		assertThat(ctx.handleThrottling(), instanceOf(TxnAwareHandleThrottling.class));
 		assertThat(ctx.throttleDefsManager(), instanceOf(ThrottleDefsManager.class));
 		assertThat(ctx.sysFileCallbacks(), instanceOf(SysFileCallbacks.class));
+		assertThat(ctx.parsedSysFileCache(), instanceOf(ParsedSysFileCache.class));
 		assertThat(ctx.networkCtxManager(), instanceOf(NetworkCtxManager.class));
 		assertThat(ctx.hapiOpPermissions(), instanceOf(HapiOpPermissions.class));
 		assertThat(ctx.accountsExporter(), instanceOf(ToStringAccountsExporter.class));
@@ -625,6 +655,7 @@ class ServicesContextTest {
 		assertThat(ctx.transactionPrecheck(), instanceOf(TransactionPrecheck.class));
 		assertThat(ctx.queryHeaderValidity(), instanceOf(QueryHeaderValidity.class));
 		assertThat(ctx.entityAutoRenewal(), instanceOf(EntityAutoRenewal.class));
+		assertThat(ctx.accountExpiryIndex(), instanceOf(AccountExpiryIndex.class));
 		assertThat(ctx.typedTokenStore(), instanceOf(TypedTokenStore.class));
 		assertThat(ctx.transitionRunner(), instanceOf(TransitionRunner.class));
 		assertThat(ctx.nodeInfo(), instanceOf(NodeInfo.class));
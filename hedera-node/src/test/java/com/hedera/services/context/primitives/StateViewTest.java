@@ -70,6 +70,7 @@ import com.hederahashgraph.api.proto.java.TokenRelationship;
 import com.hederahashgraph.api.proto.java.TransactionBody;
 import com.swirlds.fchashmap.FCOneToManyRelation;
 import com.swirlds.fcmap.FCMap;
+import org.ethereum.datasource.StoragePersistence;
 import org.hamcrest.Matchers;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -117,6 +118,8 @@ import static org.mockito.BDDMockito.any;
 import static org.mockito.BDDMockito.argThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.verify;
 
 @ExtendWith(LogCaptureExtension.class)
 class StateViewTest {
@@ -150,7 +153,7 @@ class StateViewTest {
 	private FileGetInfoResponse.FileInfo expected;
 	private FileGetInfoResponse.FileInfo expectedImmutable;
 
-	private Map<byte[], byte[]> storage;
+	private StoragePersistence storage;
 	private Map<byte[], byte[]> bytecode;
 	private Map<FileID, byte[]> contents;
 	private Map<FileID, HFileMeta> attrs;
@@ -280,7 +283,7 @@ class StateViewTest {
 
 		contents = mock(Map.class);
 		attrs = mock(Map.class);
-		storage = mock(Map.class);
+		storage = mock(StoragePersistence.class);
 		bytecode = mock(Map.class);
 		given(storage.get(argThat((byte[] bytes) -> Arrays.equals(cidAddress, bytes)))).willReturn(expectedStorage);
 		given(bytecode.get(argThat((byte[] bytes) -> Arrays.equals(cidAddress, bytes)))).willReturn(expectedBytecode);
@@ -313,6 +316,8 @@ class StateViewTest {
 				() -> tokenRels,
 				() -> uniqueTokenAssociations,
 				() -> uniqueTokenAccountOwnerships,
+				StateView.EMPTY_CONTRACT_STORAGE_SUPPLIER,
+				StateView.EMPTY_CONTRACT_STORAGE_ASSOCS_SUPPLIER,
 				() -> diskFs,
 				nodeProps);
 		subject.fileAttrs = attrs;
@@ -804,6 +809,22 @@ class StateViewTest {
 		assertTrue(info.isEmpty());
 	}
 
+	@Test
+	void doesNotRetryFileInfoWithLocalBlobStore() {
+		// setup:
+		given(attrs.get(target))
+				.willThrow(new com.swirlds.blob.BinaryObjectNotFoundException())
+				.willReturn(metadata);
+		given(nodeProps.isLocalBlobStoreEnabled()).willReturn(true);
+
+		// when:
+		var info = subject.infoForFile(target);
+
+		// then:
+		assertTrue(info.isEmpty());
+		verify(nodeProps, never()).queryBlobLookupRetries();
+	}
+
 	@Test
 	void accountNftsCountWorks() {
 		assertEquals(1, subject.accountNftsCount(nftOwnerId));
@@ -933,6 +954,19 @@ class StateViewTest {
 		assertTrue(Arrays.equals(data, stuff.get()));
 	}
 
+	@Test
+	void treatsUnpackableNftIdsAsMissing() {
+		// given:
+		final var unpackableNftId = NftID.newBuilder()
+				.setTokenID(TokenID.newBuilder().setRealmNum(-1).setTokenNum(3))
+				.setSerialNumber(4L)
+				.build();
+
+		// expect:
+		assertFalse(subject.nftExists(unpackableNftId));
+		assertTrue(subject.infoForNft(unpackableNftId).isEmpty());
+	}
+
 	@Test
 	void rejectsMissingNft() {
 		// when:
@@ -68,11 +68,15 @@ class BootstrapPropertiesTest {
 			entry("bootstrap.system.entityExpiry", 4102444800L),
 			entry("bootstrap.throttleDefsJson.resource", "throttles.json"),
 			entry("accounts.addressBookAdmin", 55L),
+			entry("balances.deltaExportsPerFullExport", 0),
 			entry("balances.exportDir.path", "/opt/hgcapp/accountBalances/"),
 			entry("balances.exportEnabled", true),
 			entry("balances.exportPeriodSecs", 600),
 			entry("balances.exportTokenBalances", true),
 			entry("balances.nodeBalanceWarningThreshold", 0L),
+			entry("blobs.localStore.compactionIntervalSecs", 60L),
+			entry("blobs.localStore.isEnabled", false),
+			entry("blobs.localStore.path", "data/saved/blobs"),
 			entry("accounts.exchangeRatesAdmin", 57L),
 			entry("accounts.feeSchedulesAdmin", 56L),
 			entry("accounts.freezeAdmin", 58L),
@@ -84,6 +88,12 @@ class BootstrapPropertiesTest {
 			entry("contracts.localCall.estRetBytes", 32),
 			entry("contracts.maxGas", 300000),
 			entry("contracts.maxStorageKb", 1024),
+			entry("contracts.throttle.maxGasPerSec", 15000000L),
+			entry("contracts.throttle.throttleByGas", true),
+			entry("contracts.bytecodeAnalysisCache.maxEntries", 1000),
+			entry("contracts.profiler.dumpIntervalSecs", 60L),
+			entry("contracts.profiler.dumpPath", "data/evmProfile.txt"),
+			entry("contracts.profiler.isEnabled", false),
 			entry("dev.onlyDefaultNodeListens", true),
 			entry("dev.defaultListeningNodeAccount", "0.0.3"),
 			entry("entities.maxLifetime", 3153600000L),
@@ -107,6 +117,7 @@ class BootstrapPropertiesTest {
 			entry("hedera.recordStream.logDir", "/opt/hgcapp/recordStreams"),
 			entry("hedera.recordStream.logPeriod", 2L),
 			entry("hedera.recordStream.isEnabled", true),
+			entry("hedera.recordStream.index.isEnabled", true),
 			entry("hedera.recordStream.queueCapacity", 5000),
 			entry("hedera.shard", 0L),
 			entry("hedera.transaction.maxMemoUtf8Bytes", 100),
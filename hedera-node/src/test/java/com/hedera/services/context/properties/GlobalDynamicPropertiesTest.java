@@ -68,6 +68,7 @@ class GlobalDynamicPropertiesTest {
 		assertTrue(subject.shouldExportBalances());
 		assertTrue(subject.shouldExportTokenBalances());
 		assertTrue(subject.autoRenewEnabled());
+		assertTrue(subject.shouldThrottleByGas());
 	}
 
 	@Test
@@ -82,6 +83,7 @@ class GlobalDynamicPropertiesTest {
 		assertEquals(40, subject.maxNftQueryRange());
 		assertEquals(41, subject.maxNftMetadataBytes());
 		assertEquals(42, subject.maxTokenNameUtf8Bytes());
+		assertEquals(43, subject.balancesDeltaExportsPerFullExport());
 	}
 
 	@Test
@@ -131,6 +133,7 @@ class GlobalDynamicPropertiesTest {
 		assertEquals(22L, subject.defaultContractLifetime());
 		assertEquals(33L, subject.autoRenewGracePeriod());
 		assertEquals(34L, subject.ratesMidnightCheckInterval());
+		assertEquals(44L, subject.maxGasPerSec());
 	}
 
 	@Test
@@ -159,6 +162,7 @@ class GlobalDynamicPropertiesTest {
 		assertFalse(subject.shouldExportBalances());
 		assertFalse(subject.shouldExportTokenBalances());
 		assertFalse(subject.autoRenewEnabled());
+		assertFalse(subject.shouldThrottleByGas());
 	}
 
 	@Test
@@ -208,6 +212,7 @@ class GlobalDynamicPropertiesTest {
 		assertEquals(23L, subject.defaultContractLifetime());
 		assertEquals(34L, subject.autoRenewGracePeriod());
 		assertEquals(35L, subject.ratesMidnightCheckInterval());
+		assertEquals(45L, subject.maxGasPerSec());
 	}
 
 	@Test
@@ -273,6 +278,9 @@ class GlobalDynamicPropertiesTest {
 		given(properties.getLongProperty("tokens.nfts.maxQueryRange")).willReturn(i + 39L);
 		given(properties.getIntProperty("tokens.nfts.maxMetadataBytes")).willReturn(i + 40);
 		given(properties.getIntProperty("tokens.maxTokenNameUtf8Bytes")).willReturn(i + 41);
+		given(properties.getIntProperty("balances.deltaExportsPerFullExport")).willReturn(i + 42);
+		given(properties.getBooleanProperty("contracts.throttle.throttleByGas")).willReturn((i + 43) % 2 == 0);
+		given(properties.getLongProperty("contracts.throttle.maxGasPerSec")).willReturn(i + 43L);
 	}
 
 	private AccountID accountWith(long shard, long realm, long num) {
@@ -82,6 +82,14 @@ class NodeLocalPropertiesTest {
 		assertEquals(23, subject.nettyStartRetries());
 		assertEquals(24L, subject.nettyStartRetryIntervalMs());
 		assertTrue(subject.shouldDumpFcmsOnIss());
+		assertTrue(subject.isRecordStreamIndexEnabled());
+		assertEquals(25, subject.bytecodeAnalysisCacheMaxEntries());
+		assertTrue(subject.isEvmProfilerEnabled());
+		assertEquals("profile1.txt", subject.evmProfilerDumpPath());
+		assertEquals(26L, subject.evmProfilerDumpIntervalSecs());
+		assertTrue(subject.isLocalBlobStoreEnabled());
+		assertEquals("blobs1", subject.localBlobStorePath());
+		assertEquals(27L, subject.localBlobStoreCompactionIntervalSecs());
 	}
 
 	@Test
@@ -122,6 +130,14 @@ class NodeLocalPropertiesTest {
 		assertEquals(24, subject.nettyStartRetries());
 		assertEquals(25L, subject.nettyStartRetryIntervalMs());
 		assertFalse(subject.shouldDumpFcmsOnIss());
+		assertFalse(subject.isRecordStreamIndexEnabled());
+		assertEquals(26, subject.bytecodeAnalysisCacheMaxEntries());
+		assertFalse(subject.isEvmProfilerEnabled());
+		assertEquals("profile2.txt", subject.evmProfilerDumpPath());
+		assertEquals(27L, subject.evmProfilerDumpIntervalSecs());
+		assertFalse(subject.isLocalBlobStoreEnabled());
+		assertEquals("blobs2", subject.localBlobStorePath());
+		assertEquals(28L, subject.localBlobStoreCompactionIntervalSecs());
 	}
 
 	private void givenPropsWithSeed(int i) {
@@ -156,6 +172,14 @@ class NodeLocalPropertiesTest {
 		given(properties.getIntProperty("netty.startRetries")).willReturn(i + 22);
 		given(properties.getLongProperty("netty.startRetryIntervalMs")).willReturn(i + 23L);
 		given(properties.getBooleanProperty("iss.dumpFcms")).willReturn(i % 2 == 1);
+		given(properties.getBooleanProperty("hedera.recordStream.index.isEnabled")).willReturn(i % 2 == 1);
+		given(properties.getIntProperty("contracts.bytecodeAnalysisCache.maxEntries")).willReturn(i + 24);
+		given(properties.getBooleanProperty("contracts.profiler.isEnabled")).willReturn(i % 2 == 1);
+		given(properties.getStringProperty("contracts.profiler.dumpPath")).willReturn("profile" + i + ".txt");
+		given(properties.getLongProperty("contracts.profiler.dumpIntervalSecs")).willReturn(i + 25L);
+		given(properties.getBooleanProperty("blobs.localStore.isEnabled")).willReturn(i % 2 == 1);
+		given(properties.getStringProperty("blobs.localStore.path")).willReturn("blobs" + i);
+		given(properties.getLongProperty("blobs.localStore.compactionIntervalSecs")).willReturn(i + 26L);
 	}
 
 	static String logDir(int num) {
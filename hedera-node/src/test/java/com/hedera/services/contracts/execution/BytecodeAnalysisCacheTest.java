@@ -0,0 +1,146 @@
+package com.hedera.services.contracts.execution;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.stats.MiscRunningAvgs;
+import com.hedera.services.utils.EntityIdUtils;
+import org.ethereum.vm.program.ProgramPrecompile;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.hedera.services.contracts.execution.BytecodeAnalysisCache.ENTRY_OVERHEAD_BYTES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.times;
+import static org.mockito.BDDMockito.verify;
+
+class BytecodeAnalysisCacheTest {
+	/* PUSH1 0x04 JUMP JUMPDEST STOP JUMPDEST */
+	private final byte[] code = { 0x60, 0x04, 0x56, 0x5b, 0x00, 0x5b };
+	private final ProgramPrecompile analysis = ProgramPrecompile.compile(code);
+	private final byte[] aAddress = EntityIdUtils.asSolidityAddress(0, 0, 1_001);
+	private final byte[] bAddress = EntityIdUtils.asSolidityAddress(0, 0, 1_002);
+	private final byte[] cAddress = EntityIdUtils.asSolidityAddress(0, 0, 1_003);
+
+	private MiscRunningAvgs runningAvgs;
+
+	private BytecodeAnalysisCache subject;
+
+	@BeforeEach
+	void setup() {
+		runningAvgs = mock(MiscRunningAvgs.class);
+
+		subject = new BytecodeAnalysisCache(2, runningAvgs);
+	}
+
+	@Test
+	void recordsHitsAndMisses() {
+		// when:
+		assertNull(subject.get(aAddress));
+		subject.put(aAddress, analysis);
+		// and:
+		final var cached = subject.get(aAddress.clone());
+
+		// then:
+		assertSame(analysis, cached);
+		assertTrue(cached.hasJumpDest(3));
+		assertFalse(cached.hasJumpDest(4));
+		verify(runningAvgs).recordBytecodeAnalysisLookup(false);
+		verify(runningAvgs).recordBytecodeAnalysisLookup(true);
+	}
+
+	@Test
+	void evictsLeastRecentlyUsed() {
+		// given:
+		subject.put(aAddress, analysis);
+		subject.put(bAddress, analysis);
+		subject.get(aAddress);
+
+		// when:
+		subject.put(cAddress, analysis);
+
+		// then:
+		assertEquals(2, subject.size());
+		assertSame(analysis, subject.get(aAddress));
+		assertNull(subject.get(bAddress));
+		assertEquals(2 * approxBytes(), subject.cachedBytes());
+	}
+
+	@Test
+	void tracksApproxBytesThroughReplacementAndInvalidation() {
+		// given:
+		subject.put(aAddress, analysis);
+		subject.put(aAddress, analysis);
+		// and:
+		verify(runningAvgs, times(2)).recordBytecodeAnalysisCacheBytes(approxBytes());
+
+		// when:
+		subject.invalidate(aAddress);
+		subject.delete(bAddress);
+
+		// then:
+		assertEquals(0, subject.size());
+		assertEquals(0L, subject.cachedBytes());
+		verify(runningAvgs).recordBytecodeAnalysisCacheBytes(0L);
+	}
+
+	@Test
+	void cachesNothingIfDisabled() {
+		// given:
+		subject = new BytecodeAnalysisCache(0, runningAvgs);
+
+		// when:
+		subject.put(aAddress, analysis);
+
+		// then:
+		assertNull(subject.get(aAddress));
+		assertFalse(subject.flush());
+	}
+
+	@Test
+	void ignoresKeysThatAreNotAddresses() {
+		// given:
+		final var codeHash = new byte[32];
+
+		// when:
+		subject.put(codeHash, analysis);
+
+		// then:
+		assertNull(subject.get(codeHash));
+		assertEquals(0, subject.size());
+		verify(runningAvgs, never()).recordBytecodeAnalysisLookup(false);
+	}
+
+	@Test
+	void commonConfigUsesCacheAsPrecompileSource() {
+		// expect:
+		assertSame(subject, subject.commonConfig().precompileSource());
+	}
+
+	private long approxBytes() {
+		return ENTRY_OVERHEAD_BYTES + analysis.serialize().length;
+	}
+}
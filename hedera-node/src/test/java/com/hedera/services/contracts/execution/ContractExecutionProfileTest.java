@@ -0,0 +1,83 @@
+package com.hedera.services.contracts.execution;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.ethereum.vm.OpCode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ContractExecutionProfileTest {
+	private final int sload = OpCode.SLOAD.val() & 0xff;
+	private final int sstore = OpCode.SSTORE.val() & 0xff;
+	private final int add = OpCode.ADD.val() & 0xff;
+
+	@Test
+	void countsStorageAccessesAndTotals() {
+		// given:
+		final var subject = new ContractExecutionProfile();
+
+		// when:
+		subject.recordFrame();
+		subject.recordOp(sload);
+		subject.recordOp(sstore);
+		subject.recordOp(add);
+		subject.recordGas(sstore, 20_000L);
+		subject.recordGas(add, 3L);
+		subject.recordNanos(sstore, 500L);
+
+		// then:
+		assertEquals(1L, subject.frames());
+		assertEquals(1L, subject.storageReads());
+		assertEquals(1L, subject.storageWrites());
+		assertEquals(3L, subject.totalOps());
+		assertEquals(20_003L, subject.totalGas());
+		assertEquals(500L, subject.totalNanos());
+	}
+
+	@Test
+	void addsAllOfAnotherProfile() {
+		// setup:
+		final var subject = new ContractExecutionProfile();
+		final var that = new ContractExecutionProfile();
+
+		// given:
+		subject.recordFrame();
+		subject.recordOp(add);
+		subject.recordGas(add, 3L);
+		// and:
+		that.recordFrame();
+		that.recordOp(add);
+		that.recordOp(sload);
+		that.recordGas(add, 3L);
+		that.recordNanos(add, 10L);
+
+		// when:
+		subject.addAll(that);
+
+		// then:
+		assertEquals(2L, subject.frames());
+		assertEquals(1L, subject.storageReads());
+		assertEquals(2L, subject.opCount(add));
+		assertEquals(6L, subject.opGas(add));
+		assertEquals(10L, subject.opNanos(add));
+	}
+}
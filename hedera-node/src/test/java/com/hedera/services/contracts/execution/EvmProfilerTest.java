@@ -0,0 +1,205 @@
+package com.hedera.services.contracts.execution;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.context.properties.NodeLocalProperties;
+import com.hedera.services.state.submerkle.EntityId;
+import com.hedera.services.stats.MiscRunningAvgs;
+import org.ethereum.vm.DataWord;
+import org.ethereum.vm.OpCode;
+import org.ethereum.vm.hook.VMHook;
+import org.ethereum.vm.program.Program;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.hedera.services.utils.EntityIdUtils.asSolidityAddress;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.anyDouble;
+import static org.mockito.BDDMockito.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.verify;
+
+class EvmProfilerTest {
+	private final EntityId aContract = new EntityId(0, 0, 1_001);
+	private final EntityId bContract = new EntityId(0, 0, 1_002);
+
+	@TempDir
+	Path tempDir;
+
+	private long nanos;
+	private Program aProgram, bProgram;
+	private NodeLocalProperties properties;
+	private MiscRunningAvgs runningAvgs;
+
+	private EvmProfiler subject;
+
+	@BeforeEach
+	void setup() {
+		aProgram = programFor(aContract);
+		bProgram = programFor(bContract);
+		properties = mock(NodeLocalProperties.class);
+		runningAvgs = mock(MiscRunningAvgs.class);
+		given(properties.isEvmProfilerEnabled()).willReturn(true);
+		given(properties.evmProfilerDumpIntervalSecs()).willReturn(60L);
+		given(properties.evmProfilerDumpPath()).willReturn(tempDir.resolve("evmProfile.txt").toString());
+
+		subject = new EvmProfiler(properties, runningAvgs);
+		subject.nanoTime = () -> nanos += 10L;
+	}
+
+	@Test
+	void usesEmptyHookIfDisabled() {
+		given(properties.isEvmProfilerEnabled()).willReturn(false);
+
+		// expect:
+		assertSame(VMHook.EMPTY, subject.newHook());
+	}
+
+	@Test
+	void usesNewHookPerCallIfEnabled() {
+		// expect:
+		assertNotSame(VMHook.EMPTY, subject.newHook());
+		assertNotSame(subject.newHook(), subject.newHook());
+	}
+
+	@Test
+	void attributesGasAndTimeAcrossNestedFrames() {
+		// when:
+		runCallFromAToB(subject.newHook());
+
+		// then:
+		final var top = subject.topContracts(EvmProfiler.TOP_CONTRACTS);
+		assertEquals(2, top.size());
+		// and:
+		final var aProfile = top.get(0).getValue();
+		assertEquals(aContract, top.get(0).getKey());
+		assertEquals(1L, aProfile.frames());
+		assertEquals(3L, aProfile.opGas(op(OpCode.PUSH1)));
+		assertEquals(297L, aProfile.opGas(op(OpCode.CALL)));
+		assertEquals(300L, aProfile.totalGas());
+		assertEquals(10L, aProfile.opNanos(op(OpCode.PUSH1)));
+		assertEquals(40L, aProfile.opNanos(op(OpCode.CALL)));
+		// and:
+		final var bProfile = top.get(1).getValue();
+		assertEquals(bContract, top.get(1).getKey());
+		assertEquals(200L, bProfile.opGas(op(OpCode.SLOAD)));
+		assertEquals(1L, bProfile.storageReads());
+		assertEquals(0L, bProfile.storageWrites());
+		// and:
+		verify(runningAvgs).recordEvmCall(3L, 300L, 60L / 1_000_000.0);
+	}
+
+	@Test
+	void chargesBurnedGasToLastOp() {
+		// setup:
+		final var hook = subject.newHook();
+
+		// given:
+		given(aProgram.getGasLong()).willReturn(1_000L);
+		hook.startPlay(aProgram);
+		given(aProgram.getGasLong()).willReturn(980L);
+		hook.step(aProgram, OpCode.SSTORE);
+
+		// when:
+		given(aProgram.getGasLong()).willReturn(0L);
+		hook.stopPlay(aProgram);
+
+		// then:
+		final var profile = subject.topContracts(1).get(0).getValue();
+		assertEquals(1_000L, profile.opGas(op(OpCode.SSTORE)));
+		assertEquals(1L, profile.storageWrites());
+	}
+
+	@Test
+	void dumpsAndResetsOnceIntervalPasses() throws IOException {
+		// setup:
+		final var dump = tempDir.resolve("evmProfile.txt");
+
+		// given:
+		runCallFromAToB(subject.newHook());
+		// and:
+		assertFalse(Files.exists(dump));
+
+		// when:
+		nanos += 60_000_000_000L;
+		runCallFromAToB(subject.newHook());
+
+		// then:
+		final var lines = Files.readAllLines(dump);
+		assertEquals("# Top 2 of 2 contracts by gas, over 2 profiled calls", lines.get(0));
+		assertTrue(lines.get(1).startsWith("0.0.1001 frames=2 ops=4 gas=600 "));
+		assertTrue(lines.get(2).trim().startsWith("CALL"));
+		assertTrue(lines.get(3).trim().startsWith("PUSH1"));
+		assertTrue(lines.get(4).startsWith("0.0.1002 frames=2 ops=2 gas=400 "));
+		// and:
+		assertTrue(subject.topContracts(EvmProfiler.TOP_CONTRACTS).isEmpty());
+	}
+
+	@Test
+	void survivesUnwritableDumpPath() {
+		given(properties.evmProfilerDumpPath()).willReturn(tempDir.resolve("missing/evmProfile.txt").toString());
+		given(properties.evmProfilerDumpIntervalSecs()).willReturn(0L);
+
+		// expect:
+		assertDoesNotThrow(() -> runCallFromAToB(subject.newHook()));
+		verify(runningAvgs).recordEvmCall(anyLong(), anyLong(), anyDouble());
+	}
+
+	/* A calls B with 600 gas after a PUSH1; B does one SLOAD and returns 400 gas */
+	private void runCallFromAToB(VMHook hook) {
+		given(aProgram.getGasLong()).willReturn(1_000L);
+		hook.startPlay(aProgram);
+		given(aProgram.getGasLong()).willReturn(997L);
+		hook.step(aProgram, OpCode.PUSH1);
+		given(aProgram.getGasLong()).willReturn(300L);
+		hook.step(aProgram, OpCode.CALL);
+
+		given(bProgram.getGasLong()).willReturn(600L);
+		hook.startPlay(bProgram);
+		given(bProgram.getGasLong()).willReturn(400L);
+		hook.step(bProgram, OpCode.SLOAD);
+		hook.stopPlay(bProgram);
+
+		given(aProgram.getGasLong()).willReturn(700L);
+		hook.stopPlay(aProgram);
+	}
+
+	private Program programFor(EntityId contract) {
+		final var program = mock(Program.class);
+		given(program.getOwnerAddress()).willReturn(DataWord.of(asSolidityAddress(0, 0, contract.num())));
+		return program;
+	}
+
+	private static int op(OpCode opCode) {
+		return opCode.val() & 0xff;
+	}
+}
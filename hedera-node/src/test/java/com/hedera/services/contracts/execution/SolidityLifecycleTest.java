@@ -21,7 +21,10 @@ package com.hedera.services.contracts.execution;
  */
 
 import com.hedera.services.context.properties.GlobalDynamicProperties;
+import com.hedera.services.contracts.persistence.SlotKeyedStoragePersistence;
+import com.hedera.services.contracts.persistence.WriteBackStorageCache;
 import com.hedera.services.legacy.evm.SolidityExecutor;
+import com.hedera.services.stats.MiscRunningAvgs;
 import com.hedera.test.utils.IdUtils;
 import com.hederahashgraph.api.proto.java.ContractFunctionResult;
 import com.hederahashgraph.api.proto.java.ContractID;
@@ -42,12 +45,16 @@ import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.CONTRACT_EXECU
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.CONTRACT_REVERT_EXECUTED;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.MAX_CONTRACT_STORAGE_EXCEEDED;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.RESULT_SIZE_LIMIT_EXCEEDED;
+import static org.mockito.BDDMockito.any;
 import static org.mockito.BDDMockito.anyInt;
+import static org.mockito.BDDMockito.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.inOrder;
 import static org.mockito.BDDMockito.mock;
 import static org.mockito.BDDMockito.never;
 import static org.mockito.BDDMockito.verify;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
 
 class SolidityLifecycleTest {
 	int maxStorageKb = 4321;
@@ -62,6 +69,7 @@ class SolidityLifecycleTest {
 	GlobalDynamicProperties properties;
 	SolidityExecutor executor;
 	ServicesRepositoryRoot root;
+	WriteBackStorageCache storageCache;
 
 	SolidityLifecycle subject;
 
@@ -82,7 +90,9 @@ class SolidityLifecycleTest {
 		root = mock(ServicesRepositoryRoot.class);
 		given(root.flushStorageCacheIfTotalSizeLessThan(maxStorageKb)).willReturn(true);
 
-		subject = new SolidityLifecycle(properties);
+		storageCache = mock(WriteBackStorageCache.class);
+
+		subject = new SolidityLifecycle(properties, storageCache);
 	}
 
 	@Test
@@ -152,7 +162,7 @@ class SolidityLifecycleTest {
 	@Test
 	public void happyPathRuns() {
 		// setup:
-		InOrder inOrder = inOrder(root, executor);
+		InOrder inOrder = inOrder(root, executor, storageCache);
 
 		givenNoCreation();
 
@@ -167,6 +177,7 @@ class SolidityLifecycleTest {
 		// and:
 		inOrder.verify(root).flushStorageCacheIfTotalSizeLessThan(maxStorageKb);
 		inOrder.verify(root).flush();
+		inOrder.verify(storageCache).commit();
 		// and:
 		Assertions.assertEquals(expected, result.getKey());
 		Assertions.assertEquals(ResponseCodeEnum.SUCCESS, result.getValue());
@@ -182,6 +193,8 @@ class SolidityLifecycleTest {
 
 		// then:
 		verify(root).emptyStorageCache();
+		verify(storageCache).rollback();
+		verify(storageCache, never()).commit();
 		// and:
 		Assertions.assertEquals(expected, result.getKey());
 		Assertions.assertEquals(MAX_CONTRACT_STORAGE_EXCEEDED, result.getValue());
@@ -211,11 +224,54 @@ class SolidityLifecycleTest {
 		// then:
 		verify(root, never()).flushStorageCacheIfTotalSizeLessThan(anyInt());
 		verify(root).emptyStorageCache();
+		verify(storageCache).rollback();
 		// and:
 		Assertions.assertEquals(expected, result.getKey());
 		Assertions.assertEquals(CONTRACT_EXECUTION_EXCEPTION, result.getValue());
 	}
 
+	@Test
+	public void rollsBackIfCycleThrows() {
+		willThrow(IllegalStateException.class).given(executor).go();
+
+		// expect:
+		Assertions.assertThrows(IllegalStateException.class, () -> subject.run(executor, root));
+		// and:
+		verify(storageCache).rollback();
+		verify(storageCache, never()).commit();
+	}
+
+	@Test
+	public void failedCycleDoesNotLeakStorageIntoNextCommit() {
+		// setup:
+		var failedAddress = "failed".getBytes();
+		var failedStorage = new byte[] { 1 };
+		var address = "address".getBytes();
+		var storage = new byte[] { 2 };
+		var delegate = mock(SlotKeyedStoragePersistence.class);
+		var realCache = new WriteBackStorageCache(delegate, mock(MiscRunningAvgs.class));
+		subject = new SolidityLifecycle(properties, realCache);
+
+		willAnswer(invocation -> {
+			realCache.persist(failedAddress, failedStorage, 0, 0);
+			throw new IllegalStateException("EVM failure");
+		}).willAnswer(invocation -> {
+			realCache.persist(address, storage, 0, 0);
+			return null;
+		}).given(executor).go();
+		givenNoCreation();
+
+		// when:
+		Assertions.assertThrows(IllegalStateException.class, () -> subject.run(executor, root));
+		// and:
+		var result = subject.run(executor, root);
+
+		// then:
+		Assertions.assertEquals(ResponseCodeEnum.SUCCESS, result.getValue());
+		verify(delegate).persistChanges(address, null, storage);
+		verify(delegate, never()).persistChanges(eq(failedAddress), any(), any());
+	}
+
 	private void givenNoCreation() {
 		expected = DomainUtils.asHapiResult(receipt, allCreations);
 	}
@@ -0,0 +1,221 @@
+package com.hedera.services.contracts.persistence;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
+import com.hedera.services.state.submerkle.EntityId;
+import com.hedera.services.utils.EntityIdUtils;
+import com.swirlds.common.constructable.ClassConstructorPair;
+import com.swirlds.common.constructable.ConstructableRegistry;
+import com.swirlds.common.constructable.ConstructableRegistryException;
+import com.swirlds.fchashmap.FCOneToManyRelation;
+import com.swirlds.fcmap.FCMap;
+import com.swirlds.fcmap.internal.FCMLeaf;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.verify;
+
+class SlotKeyedStoragePersistenceTest {
+	private final EntityId contractId = new EntityId(0, 0, 13257);
+	private final byte[] address = EntityIdUtils.asSolidityAddress(0, 0, 13257);
+	private final byte[] otherAddress = EntityIdUtils.asSolidityAddress(0, 0, 13258);
+
+	private FCMap<MerkleContractSlotId, MerkleContractSlot> slots;
+	private FCOneToManyRelation<EntityId, MerkleContractSlotId> slotAssociations;
+
+	private SlotKeyedStoragePersistence subject;
+
+	@BeforeEach
+	void setup() throws ConstructableRegistryException {
+		ConstructableRegistry.registerConstructable(
+				new ClassConstructorPair(FCMLeaf.class, FCMLeaf::new));
+
+		slots = new FCMap<>();
+		slotAssociations = new FCOneToManyRelation<>();
+
+		subject = new SlotKeyedStoragePersistence(() -> slots, () -> slotAssociations);
+	}
+
+	@Test
+	void nothingExistsInitially() {
+		// expect:
+		assertFalse(subject.storageExist(address));
+		assertNull(subject.get(address));
+	}
+
+	@Test
+	void persistsEachSlotSeparately() {
+		// when:
+		subject.persist(address, storageOf(2, 20, 1, 10), 0, 0);
+
+		// then:
+		assertTrue(subject.storageExist(address));
+		assertFalse(subject.storageExist(otherAddress));
+		assertEquals(2, slots.size());
+		assertEquals(2, slotAssociations.getCount(contractId));
+		assertArrayEquals(word(10), slots.get(new MerkleContractSlotId(contractId, word(1))).getValue());
+		// and:
+		assertArrayEquals(storageOf(1, 10, 2, 20), subject.get(address));
+	}
+
+	@Test
+	void onlyWritesChangedSlots() {
+		// setup:
+		final FCMap<MerkleContractSlotId, MerkleContractSlot> slotsMock = mock(FCMap.class);
+		final var unchangedId = new MerkleContractSlotId(contractId, word(1));
+		final var changedId = new MerkleContractSlotId(contractId, word(2));
+		// and:
+		slots.put(unchangedId, new MerkleContractSlot(word(10)));
+		slots.put(changedId, new MerkleContractSlot(word(20)));
+		slotAssociations.associate(contractId, unchangedId);
+		slotAssociations.associate(contractId, changedId);
+		// and:
+		subject = new SlotKeyedStoragePersistence(() -> slotsMock, () -> slotAssociations);
+		given(slotsMock.get(unchangedId)).willReturn(slots.get(unchangedId));
+		given(slotsMock.get(changedId)).willReturn(slots.get(changedId));
+		given(slotsMock.getForModify(changedId)).willReturn(slots.getForModify(changedId));
+
+		// when:
+		subject.persist(address, storageOf(1, 10, 2, 21), 0, 0);
+
+		// then:
+		verify(slotsMock, never()).getForModify(unchangedId);
+		verify(slotsMock).getForModify(changedId);
+		verify(slotsMock, never()).put(any(), any());
+		assertArrayEquals(word(21), slots.get(changedId).getValue());
+	}
+
+	@Test
+	void removesClearedSlots() {
+		// given:
+		subject.persist(address, storageOf(1, 10, 2, 20, 3, 30), 0, 0);
+		subject.persist(otherAddress, storageOf(1, 10), 0, 0);
+
+		// when:
+		subject.persist(address, storageOf(2, 22), 0, 0);
+
+		// then:
+		assertEquals(2, slots.size());
+		assertEquals(1, slotAssociations.getCount(contractId));
+		assertArrayEquals(storageOf(2, 22), subject.get(address));
+		assertArrayEquals(storageOf(1, 10), subject.get(otherAddress));
+
+		// and when:
+		subject.persist(address, new byte[0], 0, 0);
+
+		// then:
+		assertFalse(subject.storageExist(address));
+		assertEquals(1, slots.size());
+	}
+
+	@Test
+	void mergesChangesWithLoadedStorage() {
+		// given:
+		subject.persist(address, storageOf(1, 10, 2, 20, 4, 40), 0, 0);
+		final var before = subject.get(address);
+
+		// when:
+		final var numChanged = subject.persistChanges(address, before, storageOf(2, 21, 3, 30, 4, 40));
+
+		// then:
+		assertEquals(3, numChanged);
+		assertEquals(3, slots.size());
+		assertEquals(3, slotAssociations.getCount(contractId));
+		assertArrayEquals(storageOf(2, 21, 3, 30, 4, 40), subject.get(address));
+	}
+
+	@Test
+	void mergeNeverLooksUpUnchangedSlots() {
+		// setup:
+		final FCMap<MerkleContractSlotId, MerkleContractSlot> slotsMock = mock(FCMap.class);
+		final var unchangedId = new MerkleContractSlotId(contractId, word(1));
+		final var changedId = new MerkleContractSlotId(contractId, word(2));
+		// and:
+		slots.put(changedId, new MerkleContractSlot(word(20)));
+		// and:
+		subject = new SlotKeyedStoragePersistence(() -> slotsMock, () -> slotAssociations);
+		given(slotsMock.getForModify(changedId)).willReturn(slots.getForModify(changedId));
+
+		// when:
+		final var numChanged = subject.persistChanges(address, storageOf(1, 10, 2, 20), storageOf(1, 10, 2, 21));
+
+		// then:
+		assertEquals(1, numChanged);
+		verify(slotsMock, never()).get(any());
+		verify(slotsMock, never()).getForModify(unchangedId);
+		assertArrayEquals(word(21), slots.get(changedId).getValue());
+	}
+
+	@Test
+	void mergeFallsBackToFullPersistIfNotInKeyOrder() {
+		// given:
+		subject.persist(address, storageOf(1, 10, 2, 20), 0, 0);
+
+		// when:
+		final var numChanged = subject.persistChanges(address, storageOf(1, 99), storageOf(3, 30, 1, 10));
+
+		// then:
+		assertEquals(2, numChanged);
+		assertArrayEquals(storageOf(1, 10, 3, 30), subject.get(address));
+	}
+
+	@Test
+	void checksKeyOrder() {
+		// expect:
+		assertTrue(SlotKeyedStoragePersistence.isKeyOrdered(new byte[0]));
+		assertTrue(SlotKeyedStoragePersistence.isKeyOrdered(storageOf(1, 10, 2, 20)));
+		assertFalse(SlotKeyedStoragePersistence.isKeyOrdered(storageOf(2, 20, 1, 10)));
+		assertFalse(SlotKeyedStoragePersistence.isKeyOrdered(storageOf(1, 10, 1, 20)));
+		assertFalse(SlotKeyedStoragePersistence.isKeyOrdered(new byte[63]));
+	}
+
+	@Test
+	void rejectsMalformedStorage() {
+		// expect:
+		assertThrows(IllegalArgumentException.class, () -> subject.persist(address, new byte[63], 0, 0));
+	}
+
+	private static byte[] storageOf(int... keyValues) {
+		final var storage = new byte[keyValues.length * 32];
+		for (int i = 0; i < keyValues.length; i++) {
+			System.arraycopy(word(keyValues[i]), 0, storage, i * 32, 32);
+		}
+		return storage;
+	}
+
+	private static byte[] word(int v) {
+		final var word = new byte[32];
+		word[31] = (byte) v;
+		return word;
+	}
+}
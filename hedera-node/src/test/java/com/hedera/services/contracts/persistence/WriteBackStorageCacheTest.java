@@ -0,0 +1,155 @@
+package com.hedera.services.contracts.persistence;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.stats.MiscRunningAvgs;
+import com.hedera.services.utils.EntityIdUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.any;
+import static org.mockito.BDDMockito.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.inOrder;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.times;
+import static org.mockito.BDDMockito.verify;
+
+class WriteBackStorageCacheTest {
+	private final byte[] address = EntityIdUtils.asSolidityAddress(0, 0, 13257);
+	private final byte[] otherAddress = EntityIdUtils.asSolidityAddress(0, 0, 13258);
+	private final byte[] loadedStorage = new byte[3 * 64];
+	private final byte[] newStorage = new byte[2 * 64];
+	private final byte[] otherStorage = new byte[64];
+
+	private MiscRunningAvgs runningAvgs;
+	private SlotKeyedStoragePersistence delegate;
+
+	private WriteBackStorageCache subject;
+
+	@BeforeEach
+	void setup() {
+		runningAvgs = mock(MiscRunningAvgs.class);
+		delegate = mock(SlotKeyedStoragePersistence.class);
+
+		subject = new WriteBackStorageCache(delegate, runningAvgs);
+	}
+
+	@Test
+	void loadsEachContractOncePerTransaction() {
+		given(delegate.get(address)).willReturn(loadedStorage);
+
+		// when:
+		final var first = subject.get(address);
+		final var second = subject.get(address);
+
+		// then:
+		verify(delegate, times(1)).get(address);
+		assertArrayEquals(loadedStorage, first);
+		assertArrayEquals(loadedStorage, second);
+		assertNotSame(loadedStorage, first);
+		// and:
+		assertTrue(subject.storageExist(address));
+		verify(delegate, never()).storageExist(address);
+	}
+
+	@Test
+	void remembersMissingStorage() {
+		// when:
+		assertNull(subject.get(address));
+
+		// then:
+		assertFalse(subject.storageExist(address));
+		verify(delegate, never()).storageExist(address);
+		assertEquals(1, subject.numLoaded());
+	}
+
+	@Test
+	void delegatesExistenceOfUnloadedStorage() {
+		given(delegate.storageExist(address)).willReturn(true);
+
+		// expect:
+		assertTrue(subject.storageExist(address));
+	}
+
+	@Test
+	void buffersWritesUntilCommit() {
+		// when:
+		subject.persist(address, newStorage, 0, 0);
+
+		// then:
+		verify(delegate, never()).persist(any(), any(), anyLong(), anyLong());
+		verify(delegate, never()).persistChanges(any(), any(), any());
+		assertTrue(subject.storageExist(address));
+		assertArrayEquals(newStorage, subject.get(address));
+		assertEquals(1, subject.numPending());
+	}
+
+	@Test
+	void commitFlushesInAddressOrderAndRecordsAccess() {
+		// setup:
+		InOrder inOrder = inOrder(delegate, runningAvgs);
+
+		given(delegate.get(address)).willReturn(loadedStorage);
+		given(delegate.persistChanges(otherAddress, null, otherStorage)).willReturn(1);
+		given(delegate.persistChanges(address, loadedStorage, newStorage)).willReturn(2);
+		// and:
+		subject.get(address);
+		subject.persist(otherAddress, otherStorage, 0, 0);
+		subject.persist(address, newStorage, 0, 0);
+
+		// when:
+		subject.commit();
+
+		// then:
+		inOrder.verify(delegate).persistChanges(address, loadedStorage, newStorage);
+		inOrder.verify(delegate).persistChanges(otherAddress, null, otherStorage);
+		inOrder.verify(runningAvgs).recordContractStorageAccess(3, 3, 3 * 64L);
+		// and:
+		assertEquals(0, subject.numPending());
+		assertEquals(0, subject.numLoaded());
+	}
+
+	@Test
+	void rollbackDiscardsBufferedWrites() {
+		given(delegate.get(address)).willReturn(loadedStorage);
+		// and:
+		subject.get(address);
+		subject.persist(address, newStorage, 0, 0);
+
+		// when:
+		subject.rollback();
+
+		// then:
+		verify(delegate, never()).persistChanges(any(), any(), any());
+		verify(runningAvgs).recordContractStorageAccess(3, 0, 0L);
+		assertEquals(0, subject.numPending());
+		assertEquals(0, subject.numLoaded());
+	}
+}
@@ -25,6 +25,7 @@ import com.hedera.services.context.TransactionContext;
 import com.hedera.services.fees.bootstrap.JsonToProtoSerdeTest;
 import com.hedera.services.files.HederaFs;
 import com.hedera.services.files.interceptors.MockFileNumbers;
+import com.hedera.services.files.sysfiles.ParsedSysFileCache;
 import com.hedera.services.utils.PlatformTxnAccessor;
 import com.hedera.test.mocks.MockAppender;
 import com.hedera.test.utils.IdUtils;
@@ -59,6 +60,8 @@ import static com.hederahashgraph.api.proto.java.HederaFunctionality.TokenBurn;
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.TokenMint;
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.UNRECOGNIZED;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.BDDMockito.any;
 import static org.mockito.BDDMockito.given;
@@ -150,7 +153,7 @@ class AwareFcfsUsagePricesTest {
 		txnCtx = mock(TransactionContext.class);
 		given(txnCtx.accessor()).willReturn(accessor);
 
-		subject = new AwareFcfsUsagePrices(hfs, new MockFileNumbers(), txnCtx);
+		subject = new AwareFcfsUsagePrices(hfs, new MockFileNumbers(), txnCtx, new ParsedSysFileCache());
 	}
 
 	@Test
@@ -228,6 +231,7 @@ class AwareFcfsUsagePricesTest {
 	@Test
 	void returnsDefaultUsagePricesForUnsupported() throws Exception {
 		// setup:
+		subject.loadPriceSchedules();
 		MockAppender mockAppender = new MockAppender();
 		var log = (org.apache.logging.log4j.core.Logger) LogManager.getLogger(AwareFcfsUsagePrices.class);
 		log.addAppender(mockAppender);
@@ -235,7 +239,6 @@ class AwareFcfsUsagePricesTest {
 		log.setLevel(Level.DEBUG);
 
 		// given:
-		subject.loadPriceSchedules();
 		Timestamp at = Timestamp.newBuilder()
 				.setSeconds(currentExpiry - 1)
 				.build();
@@ -257,6 +260,40 @@ class AwareFcfsUsagePricesTest {
 		mockAppender.clear();
 	}
 
+	@Test
+	void getsDefaultTransferUsagePricesAtCurrent() {
+		// given:
+		subject.loadPriceSchedules();
+		Timestamp at = Timestamp.newBuilder()
+				.setSeconds(currentExpiry - 1)
+				.build();
+
+		// when:
+		FeeData actual = subject.defaultPricesGiven(CryptoTransfer, at);
+
+		// then:
+		assertEquals(currUsagePrices, actual);
+		assertSame(subject.pricesGiven(CryptoTransfer, at).get(SubType.DEFAULT), actual);
+	}
+
+	@Test
+	void getsDefaultUsagePricesForUnsupportedOrUnloaded() {
+		// setup:
+		Timestamp at = Timestamp.newBuilder()
+				.setSeconds(currentExpiry - 1)
+				.build();
+		final var defaultPrices = DEFAULT_USAGE_PRICES.get(SubType.DEFAULT);
+
+		// expect:
+		assertSame(defaultPrices, subject.defaultPricesGiven(CryptoTransfer, at));
+
+		// and when:
+		subject.loadPriceSchedules();
+
+		// then:
+		assertSame(defaultPrices, subject.defaultPricesGiven(UNRECOGNIZED, at));
+	}
+
 	@Test
 	void getsTransferUsagePricesPastCurrentBeforeNextExpiry() throws Exception {
 		// given:
@@ -288,6 +325,40 @@ class AwareFcfsUsagePricesTest {
 		assertEquals(expectedFeeSchedules, subject.feeSchedules);
 	}
 
+	@Test
+	void keepsExistingPricesIfSchedulesUnchanged() {
+		// given:
+		subject.loadPriceSchedules();
+		var pricesBefore = subject.activePricingSequence(CryptoTransfer);
+
+		// when:
+		subject.loadPriceSchedules();
+
+		// then:
+		var pricesAfter = subject.activePricingSequence(CryptoTransfer);
+		assertSame(pricesBefore.getLeft(), pricesAfter.getLeft());
+		assertSame(pricesBefore.getRight(), pricesAfter.getRight());
+	}
+
+	@Test
+	void rebuildsPricesIfSchedulesChange() throws Exception {
+		// setup:
+		byte[] bytes = Files.toByteArray(new File(JsonToProtoSerdeTest.R4_FEE_SCHEDULE_REPR_PATH));
+
+		// given:
+		subject.loadPriceSchedules();
+		var schedulesBefore = subject.feeSchedules;
+		// and:
+		given(hfs.cat(schedules)).willReturn(bytes);
+
+		// when:
+		subject.loadPriceSchedules();
+
+		// then:
+		assertNotSame(schedulesBefore, subject.feeSchedules);
+		assertEquals(CurrentAndNextFeeSchedule.parseFrom(bytes), subject.feeSchedules);
+	}
+
 	@Test
 	void throwsNfseOnMissingScheduleInFcfs() {
 		given(hfs.exists(schedules)).willReturn(false);
@@ -0,0 +1,96 @@
+package com.hedera.services.fees.calculation;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hederahashgraph.api.proto.java.FeeComponents;
+import com.hederahashgraph.api.proto.java.FeeData;
+import com.hederahashgraph.api.proto.java.HederaFunctionality;
+import com.hederahashgraph.api.proto.java.SubType;
+import com.hederahashgraph.api.proto.java.Timestamp;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.CryptoTransfer;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.TokenMint;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.UNRECOGNIZED;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UsagePriceTableTest {
+	private final Timestamp expiry = Timestamp.newBuilder().setSeconds(1_234_567L).build();
+	private final FeeData xferPrices = pricesWithConstant(1L);
+	private final FeeData fungibleMintPrices = pricesWithConstant(2L);
+	private final FeeData uniqueMintPrices = pricesWithConstant(3L);
+	private final Map<SubType, FeeData> xferPricesMap = Map.of(SubType.DEFAULT, xferPrices);
+	private final Map<SubType, FeeData> mintPricesMap = Map.of(
+			SubType.TOKEN_FUNGIBLE_COMMON, fungibleMintPrices,
+			SubType.TOKEN_NON_FUNGIBLE_UNIQUE, uniqueMintPrices);
+
+	private UsagePriceTable subject;
+
+	@BeforeEach
+	void setUp() {
+		final Map<HederaFunctionality, Map<SubType, FeeData>> functionUsagePrices =
+				new EnumMap<>(HederaFunctionality.class);
+		functionUsagePrices.put(CryptoTransfer, xferPricesMap);
+		functionUsagePrices.put(TokenMint, mintPricesMap);
+
+		subject = new UsagePriceTable(functionUsagePrices, expiry);
+	}
+
+	@Test
+	void looksUpSameInstancesAsCompiledFrom() {
+		// expect:
+		assertSame(expiry, subject.getExpiry());
+		assertSame(xferPricesMap, subject.pricesFor(CryptoTransfer));
+		assertSame(mintPricesMap, subject.pricesFor(TokenMint));
+		// and:
+		assertSame(xferPrices, subject.pricesFor(CryptoTransfer, SubType.DEFAULT));
+		assertSame(fungibleMintPrices, subject.pricesFor(TokenMint, SubType.TOKEN_FUNGIBLE_COMMON));
+		assertSame(uniqueMintPrices, subject.pricesFor(TokenMint, SubType.TOKEN_NON_FUNGIBLE_UNIQUE));
+	}
+
+	@Test
+	void returnsNullForMissingPrices() {
+		// expect:
+		assertTrue(subject.hasPricesFor(TokenMint));
+		assertFalse(subject.hasPricesFor(UNRECOGNIZED));
+		// and:
+		assertNull(subject.pricesFor(UNRECOGNIZED));
+		assertNull(subject.pricesFor(UNRECOGNIZED, SubType.DEFAULT));
+		assertNull(subject.pricesFor(TokenMint, SubType.DEFAULT));
+		assertNull(subject.pricesFor(CryptoTransfer, SubType.UNRECOGNIZED));
+	}
+
+	private static FeeData pricesWithConstant(long constant) {
+		final var components = FeeComponents.newBuilder().setConstant(constant).build();
+		return FeeData.newBuilder()
+				.setNetworkdata(components)
+				.setNodedata(components)
+				.setServicedata(components)
+				.build();
+	}
+}
@@ -0,0 +1,227 @@
+package com.hedera.services.fees.calculation.utils;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.calc.OverflowCheckingCalc;
+import com.hedera.services.usage.BaseTransactionMeta;
+import com.hedera.services.usage.SigUsage;
+import com.hedera.services.usage.state.UsageAccumulator;
+import com.hederahashgraph.api.proto.java.ExchangeRate;
+import com.hederahashgraph.api.proto.java.FeeComponents;
+import com.hederahashgraph.api.proto.java.FeeData;
+import com.hederahashgraph.api.proto.java.HederaFunctionality;
+import com.hederahashgraph.api.proto.java.SubType;
+import com.hederahashgraph.fee.FeeBuilder;
+import com.hederahashgraph.fee.FeeObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.ConsensusSubmitMessage;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.CryptoTransfer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FeeObjectMemoTest {
+	private static final FeeComponents PRICE_COMPONENTS = FeeComponents.newBuilder()
+			.setMin(1_000L).setMax(1_000_000_000_000L)
+			.setConstant(7_000_000L).setBpt(2_000L).setVpt(5_000_000L).setRbh(3L).setSbh(4L)
+			.setGas(852L).setTv(10L).setBpr(2_000L).setSbpr(50L)
+			.build();
+	private static final FeeData PRICES = FeeData.newBuilder()
+			.setNetworkdata(PRICE_COMPONENTS)
+			.setNodedata(PRICE_COMPONENTS)
+			.setServicedata(PRICE_COMPONENTS)
+			.build();
+	private static final ExchangeRate RATE = ExchangeRate.newBuilder().setHbarEquiv(1).setCentEquiv(12).build();
+
+	private final OverflowCheckingCalc calc = new OverflowCheckingCalc();
+
+	private FeeObjectMemo subject;
+
+	@BeforeEach
+	void setUp() {
+		subject = new FeeObjectMemo();
+	}
+
+	@Test
+	void accumulatorFeesMatchUncachedPath() {
+		// setup:
+		final var random = new SplittableRandom(1_234);
+
+		for (int i = 0; i < 1_000; i++) {
+			// given:
+			final var usage = new UsageAccumulator();
+			usage.resetForTransaction(
+					new BaseTransactionMeta(random.nextInt(4) * 10, random.nextInt(3)),
+					new SigUsage(1 + random.nextInt(3), 64, 1));
+			usage.addBpt(random.nextInt(2) * 32);
+			final long multiplier = 1 + random.nextInt(2);
+
+			// when:
+			final var actual = subject.feesFor(
+					CryptoTransfer, SubType.DEFAULT, FeeObjectMemo.usageVectorOf(usage), PRICES, RATE, multiplier,
+					() -> calc.fees(usage, PRICES, RATE, multiplier));
+
+			// then:
+			assertSameFees(calc.fees(usage, PRICES, RATE, multiplier), actual);
+		}
+		// and:
+		assertEquals(1_000, subject.hits() + subject.misses());
+		assertEquals(subject.numMemoized(), subject.misses());
+		assertTrue(subject.misses() <= 4 * 3 * 3 * 2 * 2);
+	}
+
+	@Test
+	void legacyFeesMatchUncachedPath() {
+		// setup:
+		final var random = new SplittableRandom(5_678);
+
+		for (int i = 0; i < 1_000; i++) {
+			// given:
+			final var usage = FeeData.newBuilder()
+					.setNodedata(FeeComponents.newBuilder()
+							.setConstant(1).setBpt(100 + random.nextInt(3)).setVpt(1 + random.nextInt(2)).setBpr(4))
+					.setNetworkdata(FeeComponents.newBuilder()
+							.setConstant(1).setBpt(100).setVpt(1).setRbh(random.nextInt(2)))
+					.setServicedata(FeeComponents.newBuilder()
+							.setConstant(1).setRbh(6).setTv(random.nextInt(2) * 1_000))
+					.build();
+
+			// when:
+			final var actual = subject.feesFor(
+					ConsensusSubmitMessage, SubType.DEFAULT, FeeObjectMemo.usageVectorOf(usage), PRICES, RATE, 1L,
+					() -> FeeBuilder.getFeeObject(PRICES, usage, RATE, 1L));
+
+			// then:
+			assertSameFees(FeeBuilder.getFeeObject(PRICES, usage, RATE, 1L), actual);
+		}
+		// and:
+		assertEquals(3 * 2 * 2 * 2, subject.misses());
+		assertEquals(1_000 - subject.misses(), subject.hits());
+	}
+
+	@Test
+	void distinguishesEveryKeyPart() {
+		// setup:
+		final var computations = new AtomicInteger();
+		final long[] usage = { 1L, 2L, 3L };
+		final var samePricesCopy = PRICES.toBuilder().build();
+		final var otherRate = RATE.toBuilder().setCentEquiv(13).build();
+		final var sameRateLaterExpiry = RATE.toBuilder().setExpirationTime(
+				RATE.getExpirationTime().toBuilder().setSeconds(1_234_567L)).build();
+
+		// when:
+		final var fees = feesFor(computations, CryptoTransfer, SubType.DEFAULT, usage, PRICES, RATE, 1L);
+
+		// then:
+		assertSame(fees, feesFor(computations, CryptoTransfer, SubType.DEFAULT, usage.clone(), PRICES, RATE, 1L));
+		assertSame(fees, feesFor(computations, CryptoTransfer, SubType.DEFAULT, usage, PRICES, sameRateLaterExpiry, 1L));
+		assertEquals(1, computations.get());
+		// and:
+		feesFor(computations, ConsensusSubmitMessage, SubType.DEFAULT, usage, PRICES, RATE, 1L);
+		feesFor(computations, CryptoTransfer, SubType.TOKEN_FUNGIBLE_COMMON, usage, PRICES, RATE, 1L);
+		feesFor(computations, CryptoTransfer, SubType.DEFAULT, new long[] { 1L, 2L, 4L }, PRICES, RATE, 1L);
+		feesFor(computations, CryptoTransfer, SubType.DEFAULT, usage, samePricesCopy, RATE, 1L);
+		feesFor(computations, CryptoTransfer, SubType.DEFAULT, usage, PRICES, otherRate, 1L);
+		feesFor(computations, CryptoTransfer, SubType.DEFAULT, usage, PRICES, RATE, 2L);
+		assertEquals(7, computations.get());
+		assertEquals(2, subject.hits());
+	}
+
+	@Test
+	void doesNotMemoizeFailedComputations() {
+		// setup:
+		final long[] usage = { 1L };
+
+		// expect:
+		assertThrows(IllegalArgumentException.class, () -> subject.feesFor(
+				CryptoTransfer, SubType.DEFAULT, usage, PRICES, RATE, 1L,
+				() -> {
+					throw new IllegalArgumentException("Overflow!");
+				}));
+		assertEquals(0, subject.numMemoized());
+	}
+
+	@Test
+	void clearsWhenFull() {
+		// given:
+		for (int i = 0; i < FeeObjectMemo.MAX_MEMOIZED_FEES; i++) {
+			subject.feesFor(CryptoTransfer, SubType.DEFAULT, new long[] { i }, PRICES, RATE, 1L,
+					() -> new FeeObject(1L, 2L, 3L));
+		}
+		assertEquals(FeeObjectMemo.MAX_MEMOIZED_FEES, subject.numMemoized());
+
+		// when:
+		subject.feesFor(CryptoTransfer, SubType.DEFAULT, new long[] { -1L }, PRICES, RATE, 1L,
+				() -> new FeeObject(1L, 2L, 3L));
+
+		// then:
+		assertEquals(1, subject.numMemoized());
+		assertEquals(0, subject.hits());
+		assertEquals(1, subject.misses());
+	}
+
+	@Test
+	void computesHitRate() {
+		// setup:
+		final long[] usage = { 1L };
+
+		// expect:
+		assertEquals(0.0, subject.hitRate());
+
+		// when:
+		for (int i = 0; i < 4; i++) {
+			subject.feesFor(CryptoTransfer, SubType.DEFAULT, usage, PRICES, RATE, 1L,
+					() -> new FeeObject(1L, 2L, 3L));
+		}
+
+		// then:
+		assertEquals(0.75, subject.hitRate());
+	}
+
+	private FeeObject feesFor(
+			AtomicInteger computations,
+			HederaFunctionality function,
+			SubType subType,
+			long[] usage,
+			FeeData prices,
+			ExchangeRate rate,
+			long multiplier
+	) {
+		return subject.feesFor(function, subType, usage, prices, rate, multiplier, () -> {
+			computations.incrementAndGet();
+			return new FeeObject(1L, 2L, 3L);
+		});
+	}
+
+	private static void assertSameFees(FeeObject expected, FeeObject actual) {
+		assertNotSame(expected, actual);
+		assertEquals(expected.getNodeFee(), actual.getNodeFee());
+		assertEquals(expected.getNetworkFee(), actual.getNetworkFee());
+		assertEquals(expected.getServiceFee(), actual.getServiceFee());
+	}
+}
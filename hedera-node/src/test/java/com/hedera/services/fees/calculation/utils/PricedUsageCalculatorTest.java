@@ -47,6 +47,7 @@ import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.longThat;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -135,4 +136,26 @@ class PricedUsageCalculatorTest {
 		assertSame(feesCaptor.getValue(), assessCaptor.getValue());
 		assertNotSame(inHandleAccum, feesCaptor.getValue());
 	}
+
+	@Test
+	void reusesMemoizedFeesForSameUsage() {
+		// setup:
+		final var inHandleAccum = subject.getHandleScopedAccumulator();
+
+		given(accessor.sigMapSize()).willReturn(sigMapSize);
+		given(accessor.numSigPairs()).willReturn(numSigPairs);
+		given(accessor.getFunction()).willReturn(HederaFunctionality.CryptoTransfer);
+		given(feeMultiplierSource.currentMultiplier()).willReturn(multiplier);
+		given(calculator.fees(inHandleAccum, mockPrices, mockRate, multiplier)).willReturn(mockFees);
+
+		// when:
+		final var first = subject.inHandleFees(accessor, mockPrices, mockRate, payerKey);
+		final var second = subject.inHandleFees(accessor, mockPrices, mockRate, payerKey);
+
+		// then:
+		assertSame(first, second);
+		verify(calculator, times(1)).fees(inHandleAccum, mockPrices, mockRate, multiplier);
+		assertEquals(1, subject.getFeeMemo().hits());
+		assertEquals(1, subject.getFeeMemo().misses());
+	}
 }
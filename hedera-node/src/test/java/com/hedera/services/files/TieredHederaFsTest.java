@@ -22,6 +22,7 @@ package com.hedera.services.files;
 
 import com.hedera.services.context.properties.GlobalDynamicProperties;
 import com.hedera.services.files.TieredHederaFs.IllegalArgumentType;
+import com.hedera.services.files.store.BytesStoreAdapter;
 import com.hedera.services.ledger.ids.EntityIdSource;
 import com.hedera.services.legacy.core.jproto.JKey;
 import com.hedera.services.state.merkle.MerkleDiskFs;
@@ -36,6 +37,7 @@ import org.mockito.InOrder;
 
 import java.time.Instant;
 import java.util.AbstractMap;
+import java.util.Arrays;
 import java.util.Map;
 import java.util.OptionalInt;
 import java.util.function.Supplier;
@@ -45,6 +47,7 @@ import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.AUTHORIZATION_
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.SUCCESS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.any;
 import static org.mockito.BDDMockito.argThat;
@@ -281,11 +284,69 @@ class TieredHederaFsTest {
 		assertEquals(SUCCESS, result.outcome());
 		assertTrue(result.fileReplaced());
 		// and:
-		verify(diskFs).put(
-				argThat(fid::equals),
-				argThat(bytes -> new String(bytes).equals(
-						new String(stretchContents) + new String(burstContents)
-				)));
+		verify(diskFs).append(fid, burstContents);
+		verify(diskFs, never()).contentsOf(fid);
+	}
+
+	@Test
+	public void appendsWithoutReadingIfStoreIsAppendable() {
+		// setup:
+		BytesStoreAdapter<FileID, byte[]> appendableData = mock(BytesStoreAdapter.class);
+		subject = new TieredHederaFs(ids, properties, clock, appendableData, metadata, () -> diskFs);
+
+		given(metadata.containsKey(fid)).willReturn(true);
+		given(metadata.get(fid)).willReturn(livingAttr);
+		given(appendableData.lengthOf(fid)).willReturn(origContents.length);
+
+		// when:
+		var result = subject.append(fid, moreContents);
+
+		// then:
+		assertEquals(SUCCESS, result.outcome());
+		assertTrue(result.fileReplaced());
+		// and:
+		verify(appendableData).append(fid, moreContents);
+		verify(appendableData, never()).get(fid);
+	}
+
+	@Test
+	public void appendToAppendableStoreRejectsOversizeContents() {
+		// setup:
+		BytesStoreAdapter<FileID, byte[]> appendableData = mock(BytesStoreAdapter.class);
+		subject = new TieredHederaFs(ids, properties, clock, appendableData, metadata, () -> diskFs);
+
+		given(metadata.containsKey(fid)).willReturn(true);
+		given(metadata.get(fid)).willReturn(livingAttr);
+		given(appendableData.lengthOf(fid)).willReturn(BYTES_PER_KB - 1);
+
+		// when:
+		var iae = assertThrows(IllegalArgumentException.class, () -> subject.append(fid, new byte[2]));
+
+		// then:
+		assertEquals(IllegalArgumentType.OVERSIZE_CONTENTS, IllegalArgumentType.valueOf(iae.getMessage()));
+		verify(appendableData, never()).append(any(), any());
+	}
+
+	@Test
+	public void appendStillMaterializesContentsForInterceptors() {
+		// setup:
+		BytesStoreAdapter<FileID, byte[]> appendableData = mock(BytesStoreAdapter.class);
+		subject = new TieredHederaFs(ids, properties, clock, appendableData, metadata, () -> diskFs);
+		subject.register(lowInterceptor);
+		var expected = (new String(origContents) + new String(moreContents)).getBytes();
+
+		given(metadata.containsKey(fid)).willReturn(true);
+		given(metadata.get(fid)).willReturn(livingAttr);
+		given(appendableData.get(fid)).willReturn(origContents);
+		given(lowInterceptor.preUpdate(argThat(fid::equals), any()))
+				.willReturn(new AbstractMap.SimpleEntry<>(SUCCESS, true));
+
+		// when:
+		subject.append(fid, moreContents);
+
+		// then:
+		verify(appendableData).put(argThat(fid::equals), argThat(bytes -> Arrays.equals(expected, bytes)));
+		verify(appendableData, never()).append(any(), any());
 	}
 
 	@Test
@@ -22,6 +22,7 @@ package com.hedera.services.files.interceptors;
 
 import com.hedera.services.fees.FeeCalculator;
 import com.hedera.services.files.HFileMeta;
+import com.hedera.services.files.sysfiles.ParsedSysFileCache;
 import com.hedera.services.legacy.core.jproto.JContractIDKey;
 import com.hederahashgraph.api.proto.java.FileID;
 import org.junit.jupiter.api.BeforeAll;
@@ -36,8 +37,10 @@ import java.util.Arrays;
 
 import static com.hedera.services.files.interceptors.FeeSchedulesManager.OK_FOR_NOW_VERDICT;
 import static com.hedera.services.files.interceptors.FeeSchedulesManager.YES_VERDICT;
+import static com.hedera.services.files.sysfiles.ParsedSysFileCache.FEE_SCHEDULES_KIND;
 import static com.hedera.test.utils.IdUtils.asFile;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.mock;
 import static org.mockito.BDDMockito.never;
@@ -54,6 +57,7 @@ class FeeSchedulesManagerTest {
 	FileID otherFile = asFile("0.0.911");
 
 	FeeCalculator fees;
+	ParsedSysFileCache parsedSysFiles;
 
 	FeeSchedulesManager subject;
 
@@ -72,7 +76,9 @@ class FeeSchedulesManagerTest {
 
 		fees = mock(FeeCalculator.class);
 
-		subject = new FeeSchedulesManager(new MockFileNumbers(), fees);
+		parsedSysFiles = new ParsedSysFileCache();
+
+		subject = new FeeSchedulesManager(new MockFileNumbers(), fees, parsedSysFiles);
 	}
 
 	@Test
@@ -108,6 +114,21 @@ class FeeSchedulesManagerTest {
 		verify(fees).init();
 	}
 
+	@Test
+	void cachesSchedulesParsedInPreUpdate() throws Exception {
+		// given:
+		subject.preUpdate(feeSchedule, validBytes);
+
+		// when:
+		subject.postUpdate(feeSchedule, validBytes);
+
+		// then:
+		verify(fees).init();
+		assertNotNull(parsedSysFiles.parse(FEE_SCHEDULES_KIND, validBytes, ignore -> {
+			throw new AssertionError("Should already be cached");
+		}));
+	}
+
 	@Test
 	public void doesntReloadOnInvalidUpdate() {
 		// when:
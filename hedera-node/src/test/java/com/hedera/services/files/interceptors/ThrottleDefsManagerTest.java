@@ -21,6 +21,7 @@ package com.hedera.services.files.interceptors;
  */
 
 import com.hedera.services.config.FileNumbers;
+import com.hedera.services.files.sysfiles.ParsedSysFileCache;
 import com.hedera.services.sysfiles.domain.throttling.ThrottleBucket;
 import com.hedera.services.sysfiles.validation.ErrorCodeUtils;
 import com.hedera.test.utils.SerdeUtils;
@@ -83,7 +84,7 @@ class ThrottleDefsManagerTest {
 
 	@BeforeEach
 	void setUp() {
-		subject = new ThrottleDefsManager(fileNums, () -> book, postUpdateCb);
+		subject = new ThrottleDefsManager(fileNums, () -> book, new ParsedSysFileCache(), postUpdateCb);
 		subject.expectedOps = pretendExpectedOps;
 	}
 
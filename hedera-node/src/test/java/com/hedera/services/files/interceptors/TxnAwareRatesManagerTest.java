@@ -25,6 +25,7 @@ import com.hedera.services.config.MockAccountNumbers;
 import com.hedera.services.context.TransactionContext;
 import com.hedera.services.context.properties.GlobalDynamicProperties;
 import com.hedera.services.files.HFileMeta;
+import com.hedera.services.files.sysfiles.ParsedSysFileCache;
 import com.hedera.services.legacy.core.jproto.JContractIDKey;
 import com.hedera.services.state.submerkle.ExchangeRates;
 import com.hedera.services.utils.PlatformTxnAccessor;
@@ -112,6 +113,7 @@ class TxnAwareRatesManagerTest {
 				new MockAccountNumbers(),
 				properties,
 				txnCtx,
+				new ParsedSysFileCache(),
 				() -> midnightRates,
 				postUpdateCb,
 				intradayLimitFactory);
@@ -35,6 +35,11 @@ import java.util.stream.Collectors;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.verify;
 
 class BytesStoreAdapterTest {
 	private final Pattern DIGITS_PATTERN = Pattern.compile("\\d+");
@@ -110,6 +115,38 @@ class BytesStoreAdapterTest {
 						.collect(Collectors.joining(", ")));
 	}
 
+	@Test
+	public void appendsViaGetAndPutIfDelegateIsNotAppendable() {
+		// when:
+		subject.append(0, bytes(" AND MORE"));
+
+		// then:
+		assertEquals("ALREADY HERE AND MORE", subject.get(0).toString());
+		assertEquals(21, subject.lengthOf(0));
+		assertEquals(-1, subject.lengthOf(1));
+	}
+
+	@Test
+	public void appendsViaAppendableDelegate() {
+		// setup:
+		FcBlobsBytesStore appendableDelegate = mock(FcBlobsBytesStore.class);
+		subject = new BytesStoreAdapter<>(
+				Integer.class,
+				toSb, fromSb,
+				toInteger, fromInteger,
+				appendableDelegate);
+
+		given(appendableDelegate.lengthOf(fromInteger.apply(1))).willReturn(42);
+
+		// when:
+		subject.append(1, bytes("MORE"));
+
+		// then:
+		verify(appendableDelegate).append(fromInteger.apply(1), bytes("MORE"));
+		verify(appendableDelegate, never()).get(any());
+		assertEquals(42, subject.lengthOf(1));
+	}
+
 	private byte[] bytes(String s) {
 		return s.getBytes();
 	}
@@ -151,6 +151,30 @@ class FcBlobsBytesStoreTest {
 		assertNull(blob);
 	}
 
+	@Test
+	public void delegatesAppendUsingGetForModify() {
+		// setup:
+		var moreData = "More".getBytes();
+
+		given(pathedBlobs.getForModify(pathA)).willReturn(blobA);
+
+		// when:
+		subject.append(pathA.getPath(), moreData);
+
+		// then:
+		verify(blobA).append(moreData);
+	}
+
+	@Test
+	public void delegatesLengthOf() {
+		given(pathedBlobs.get(pathA)).willReturn(blobA);
+		given(blobA.getLength()).willReturn(aData.length);
+
+		// expect:
+		assertEquals(aData.length, subject.lengthOf(pathA.getPath()));
+		assertEquals(-1, subject.lengthOf(pathB.getPath()));
+	}
+
 	@Test
 	public void delegatesGet() {
 		given(pathedBlobs.get(argThat(sk -> ((MerkleBlobMeta)sk).getPath().equals(pathA.getPath())))).willReturn(blobA);
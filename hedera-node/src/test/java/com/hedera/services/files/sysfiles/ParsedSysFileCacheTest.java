@@ -0,0 +1,125 @@
+package com.hedera.services.files.sysfiles;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.hederahashgraph.api.proto.java.ExchangeRateSet;
+import com.hederahashgraph.api.proto.java.ServicesConfigurationList;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.hedera.services.files.sysfiles.ParsedSysFileCache.CONFIG_LIST_KIND;
+import static com.hedera.services.files.sysfiles.ParsedSysFileCache.EXCHANGE_RATES_KIND;
+import static com.hedera.services.files.sysfiles.ParsedSysFileCache.MAX_ENTRIES;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ParsedSysFileCacheTest {
+	private final byte[] contents = "NONSENSE".getBytes();
+	private final byte[] otherContents = "MORE NONSENSE".getBytes();
+
+	private AtomicInteger numParses;
+	private ParsedSysFileCache.Parser<String> parser;
+
+	private ParsedSysFileCache subject;
+
+	@BeforeEach
+	void setUp() {
+		numParses = new AtomicInteger();
+		parser = data -> new String(data) + numParses.incrementAndGet();
+
+		subject = new ParsedSysFileCache();
+	}
+
+	@Test
+	void parsesSameContentsOnlyOnce() throws InvalidProtocolBufferException {
+		// when:
+		var first = subject.parse(CONFIG_LIST_KIND, contents, parser);
+		var second = subject.parse(CONFIG_LIST_KIND, contents.clone(), parser);
+
+		// then:
+		assertSame(first, second);
+		assertEquals(1, numParses.get());
+	}
+
+	@Test
+	void parsesDifferentContentsOrKindsSeparately() throws InvalidProtocolBufferException {
+		// when:
+		var first = subject.parse(CONFIG_LIST_KIND, contents, parser);
+		var second = subject.parse(CONFIG_LIST_KIND, otherContents, parser);
+		var third = subject.parse(EXCHANGE_RATES_KIND, contents, parser);
+
+		// then:
+		assertEquals("NONSENSE1", first);
+		assertEquals("MORE NONSENSE2", second);
+		assertEquals("NONSENSE3", third);
+		assertEquals(3, subject.size());
+	}
+
+	@Test
+	void doesNotCacheFailures() {
+		// given:
+		ParsedSysFileCache.Parser<ExchangeRateSet> failingParser = data -> {
+			numParses.incrementAndGet();
+			return ExchangeRateSet.parseFrom(data);
+		};
+
+		// expect:
+		assertThrows(InvalidProtocolBufferException.class,
+				() -> subject.parse(EXCHANGE_RATES_KIND, contents, failingParser));
+		assertThrows(InvalidProtocolBufferException.class,
+				() -> subject.parse(EXCHANGE_RATES_KIND, contents, failingParser));
+		// and:
+		assertEquals(2, numParses.get());
+		assertEquals(0, subject.size());
+	}
+
+	@Test
+	void evictsLeastRecentlyUsed() throws InvalidProtocolBufferException {
+		// given:
+		subject.parse(CONFIG_LIST_KIND, contents, parser);
+		for (int i = 0; i < MAX_ENTRIES; i++) {
+			subject.parse(CONFIG_LIST_KIND, new byte[] { (byte) i }, parser);
+		}
+
+		// when:
+		subject.parse(CONFIG_LIST_KIND, contents, parser);
+
+		// then:
+		assertEquals(MAX_ENTRIES, subject.size());
+		assertEquals(MAX_ENTRIES + 2, numParses.get());
+	}
+
+	@Test
+	void worksWithRealProtos() throws InvalidProtocolBufferException {
+		// given:
+		var config = ServicesConfigurationList.getDefaultInstance().toByteArray();
+
+		// when:
+		var parsed = subject.parse(CONFIG_LIST_KIND, config, ServicesConfigurationList::parseFrom);
+
+		// then:
+		assertSame(parsed, subject.parse(CONFIG_LIST_KIND, config, ServicesConfigurationList::parseFrom));
+	}
+}
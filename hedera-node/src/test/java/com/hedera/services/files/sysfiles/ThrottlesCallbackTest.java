@@ -21,17 +21,21 @@ package com.hedera.services.files.sysfiles;
  */
 
 import com.hedera.services.fees.FeeMultiplierSource;
+import com.hedera.services.sysfiles.domain.throttling.ThrottleDefinitions;
 import com.hedera.services.throttling.FunctionalityThrottling;
 import com.hedera.test.utils.SerdeUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
 
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.mockito.BDDMockito.argThat;
+import static org.mockito.BDDMockito.times;
 import static org.mockito.BDDMockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -62,4 +66,20 @@ class ThrottlesCallbackTest {
 		verify(handleThrottling).rebuildFor(argThat(pojo -> pojo.toProto().equals(throttles)));
 		verify(multiplierSource).resetExpectations();
 	}
+
+	@Test
+	void reusesConvertedDefsForSameProto() throws IOException {
+		// setup:
+		var throttles = SerdeUtils.protoDefs("bootstrap/throttles.json");
+		ArgumentCaptor<ThrottleDefinitions> captor = ArgumentCaptor.forClass(ThrottleDefinitions.class);
+
+		// when:
+		subject.throttlesCb().accept(throttles);
+		subject.throttlesCb().accept(throttles);
+
+		// then:
+		verify(handleThrottling, times(2)).rebuildFor(captor.capture());
+		assertSame(captor.getAllValues().get(0), captor.getAllValues().get(1));
+		verify(multiplierSource, times(2)).resetExpectations();
+	}
 }
@@ -507,6 +507,48 @@ class ImpliedTransfersMarshalTest {
 		assertEquals(expectedAssessedCustomFees, result.getAssessedCustomFees());
 	}
 
+	@Test
+	void mergesFeesOwedToSameCollector() {
+		op = CryptoTransferTransactionBody.newBuilder()
+				.addTokenTransfers(TokenTransferList.newBuilder()
+						.setToken(anotherId)
+						.addAllTransfers(List.of(
+								adjustFrom(a, cHbarChange)
+						))).build();
+		// and:
+		final var cCollector = EntityId.fromGrpcAccountId(cModel);
+		final var customFee = List.of(
+				FcCustomFee.fixedFee(20L, null, cCollector),
+				FcCustomFee.fixedFee(30L, null, cCollector));
+		final var expectedChanges = List.of(new BalanceChange[] {
+				tokenChange(anotherToken, aModel, cHbarChange),
+				hbarChange(cModel, 50L),
+				updateCodeForInsufficientBalance(hbarChange(payer, -50L)) });
+		final var expectedAssessedCustomFees = List.of(
+				new FcAssessedCustomFee(cCollector, 20L),
+				new FcAssessedCustomFee(cCollector, 30L));
+
+		given(dynamicProperties.maxTransferListSize()).willReturn(maxExplicitHbarAdjusts);
+		given(dynamicProperties.maxTokenTransferListSize()).willReturn(maxExplicitTokenAdjusts);
+		given(dynamicProperties.maxNftTransfersLen()).willReturn(maxExplicitOwnershipChanges);
+		given(transferSemanticChecks.fullPureValidation(
+				op.getTransfers(),
+				op.getTokenTransfersList(),
+				validationProps)).willReturn(OK);
+		given(customFeeSchedules.lookupScheduleFor(anotherToken.asEntityId())).willReturn(customFee);
+
+		// when:
+		final var result = subject.unmarshalFromGrpc(op, payer);
+		// and:
+		final var repeatResult = subject.unmarshalFromGrpc(op, payer);
+
+		// then:
+		assertEquals(expectedChanges, result.getAllBalanceChanges());
+		assertEquals(expectedAssessedCustomFees, result.getAssessedCustomFees());
+		// and:
+		assertEquals(result, repeatResult);
+	}
+
 	private void setupFixtureOp() {
 		var hbarAdjusts = TransferList.newBuilder()
 				.addAccountAmounts(adjustFrom(a, -100))
@@ -30,7 +30,10 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import java.util.stream.LongStream;
 
@@ -129,6 +132,47 @@ class TransactionalLedgerTest {
 		});
 	}
 
+	@Test
+	void notifiesCommitListenerOfChangedCreatedAndDestroyedIds() {
+		// setup:
+		BiConsumer<Long, Set<TestAccountProperty>> listener = mock(BiConsumer.class);
+		given(backingAccounts.contains(3L)).willReturn(true);
+		subject.setCommitListener(listener);
+
+		// given:
+		subject.begin();
+		subject.set(1L, FLAG, !account1.flag);
+		subject.create(2L);
+		subject.set(2L, LONG, 123L);
+		subject.destroy(3L);
+
+		// when:
+		subject.commit();
+
+		// then:
+		verify(listener).accept(1L, EnumSet.of(FLAG));
+		verify(listener).accept(2L, EnumSet.of(LONG));
+		verify(listener).accept(3L, EnumSet.allOf(TestAccountProperty.class));
+		verifyNoMoreInteractions(listener);
+	}
+
+	@Test
+	void doesNotNotifyCommitListenerOnRollback() {
+		// setup:
+		BiConsumer<Long, Set<TestAccountProperty>> listener = mock(BiConsumer.class);
+		subject.setCommitListener(listener);
+
+		// given:
+		subject.begin();
+		subject.set(1L, FLAG, !account1.flag);
+
+		// when:
+		subject.rollback();
+
+		// then:
+		verify(listener, never()).accept(any(), any());
+	}
+
 	@Test
 	void destroysInOrder() {
 		// setup:
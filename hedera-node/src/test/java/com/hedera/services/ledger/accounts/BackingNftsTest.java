@@ -32,6 +32,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -140,6 +141,12 @@ class BackingNftsTest {
 
 		// then:
 		assertEquals(Set.of(bNftId, cNftId), subject.idSet());
+
+		// and when:
+		subject.addAllToExistingNfts(List.of(aNftId, cNftId));
+
+		// then:
+		assertEquals(Set.of(aNftId, bNftId, cNftId), subject.idSet());
 		// and:
 		verify(delegate, never()).put(any(), any());
 		verify(delegate, never()).remove(any());
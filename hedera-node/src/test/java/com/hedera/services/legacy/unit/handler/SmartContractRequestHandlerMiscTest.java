@@ -23,6 +23,9 @@ package com.hedera.services.legacy.unit.handler;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.hedera.services.config.MockGlobalDynamicProps;
+import com.hedera.services.context.properties.NodeLocalProperties;
+import com.hedera.services.contracts.execution.BytecodeAnalysisCache;
+import com.hedera.services.contracts.execution.EvmProfiler;
 import com.hedera.services.contracts.sources.LedgerAccountsSource;
 import com.hedera.services.exceptions.NegativeAccountBalanceException;
 import com.hedera.services.fees.HbarCentExchange;
@@ -46,6 +49,7 @@ import com.hedera.services.state.merkle.MerkleEntityId;
 import com.hedera.services.state.merkle.MerkleOptionalBlob;
 import com.hedera.services.state.submerkle.ExchangeRates;
 import com.hedera.services.state.submerkle.SequenceNumber;
+import com.hedera.services.stats.MiscRunningAvgs;
 import com.hedera.services.store.tokens.TokenStore;
 import com.hedera.services.utils.EntityIdUtils;
 import com.hedera.test.mocks.SolidityLifecycleFactory;
@@ -83,6 +87,7 @@ import org.ethereum.crypto.HashUtil;
 import org.ethereum.datasource.DbSource;
 import org.ethereum.datasource.Source;
 import org.ethereum.db.ServicesRepositoryRoot;
+import org.ethereum.vm.program.ProgramPrecompile;
 import org.junit.Assert;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -103,6 +108,8 @@ import static com.hedera.test.mocks.TestUsagePricesProvider.TEST_USAGE_PRICES;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 /**
  * @author oc/peter
@@ -133,6 +140,8 @@ public class SmartContractRequestHandlerMiscTest {
   ServicesRepositoryRoot repository;
   LedgerAccountsSource ledgerSource;
   HederaLedger ledger;
+  MiscRunningAvgs runningAvgs;
+  BytecodeAnalysisCache analysisCache;
 
   MerkleEntityId payerMerkleEntityId; // fcMap key for payer account
   byte[] payerKeyBytes = null; // Repository key for payer account
@@ -213,6 +222,8 @@ public class SmartContractRequestHandlerMiscTest {
                     expiryTime);
     given(exchange.activeRates()).willReturn(rates);
     given(exchange.rate(any())).willReturn(rates.getCurrentRate());
+    runningAvgs = mock(MiscRunningAvgs.class);
+    analysisCache = new BytecodeAnalysisCache(100, runningAvgs);
     smartHandler = new SmartContractRequestHandler(
             repository,
             ledger,
@@ -224,7 +235,9 @@ public class SmartContractRequestHandlerMiscTest {
             SolidityLifecycleFactory.newTestInstance(),
             ignore -> true,
             null,
-            new MockGlobalDynamicProps());
+            new MockGlobalDynamicProps(),
+            analysisCache,
+            new EvmProfiler(mock(NodeLocalProperties.class), mock(MiscRunningAvgs.class)));
     storageWrapper = new FCStorageWrapper(storageMap);
     FeeScheduleInterceptor feeScheduleInterceptor = mock(FeeScheduleInterceptor.class);
     fsHandler = new FileServiceHandler(storageWrapper, feeScheduleInterceptor, new ExchangeRates());
@@ -414,6 +427,46 @@ public class SmartContractRequestHandlerMiscTest {
         .assertEquals(contractSequenceNumber, record.getReceipt().getContractID().getContractNum());
   }
 
+  @Test
+  @DisplayName("ad MapContractCallsReuseAnalysis: Success")
+  void ad_mapContractCallsReuseAnalysis() {
+    // Create two contracts with the same bytecode
+    byte[] contractBytes = createFile(MAPPING_STORAGE_BIN, contractFileId);
+    Instant consensusTime = new Date().toInstant();
+    SequenceNumber seqNumber = new SequenceNumber(contractSequenceNumber);
+    ledger.begin();
+    TransactionRecord record = smartHandler.createContract(
+        getCreateTransactionBody(), consensusTime, contractBytes, seqNumber);
+    ledger.commit();
+    ContractID firstContractId = record.getReceipt().getContractID();
+    seqNumber = new SequenceNumber(secondContractSequenceNumber);
+    ledger.begin();
+    record = smartHandler.createContract(getCreateTransactionBody(), consensusTime, contractBytes, seqNumber);
+    ledger.commit();
+    ContractID secondContractId = record.getReceipt().getContractID();
+
+    // Call the first contract twice, and the second once
+    ContractID[] calledIds = { firstContractId, firstContractId, secondContractId };
+    for (int i = 0; i < calledIds.length; i++) {
+      ByteString dataToSet = ByteString.copyFrom(SCEncoding.encodeMapPut(i + 1, 100));
+      TransactionBody body = getCallTransactionBody(calledIds[i], dataToSet, 250000L, 0L);
+      seqNumber.getAndIncrement();
+      ledger.begin();
+      record = smartHandler.contractCall(body, new Date().toInstant(), seqNumber);
+      ledger.commit();
+      Assert.assertEquals(ResponseCodeEnum.SUCCESS, record.getReceipt().getStatus());
+    }
+
+    // The second call to the first contract hit the cache, and each contract has its own entry
+    verify(runningAvgs, times(2)).recordBytecodeAnalysisLookup(false);
+    verify(runningAvgs, times(1)).recordBytecodeAnalysisLookup(true);
+    ProgramPrecompile firstAnalysis = analysisCache.get(EntityIdUtils.asSolidityAddress(firstContractId));
+    ProgramPrecompile secondAnalysis = analysisCache.get(EntityIdUtils.asSolidityAddress(secondContractId));
+    Assert.assertNotNull(firstAnalysis);
+    Assert.assertNotNull(secondAnalysis);
+    Assert.assertNotSame(firstAnalysis, secondAnalysis);
+  }
+
   private Query getCallLocalQuery(ContractID newContractId,
       ByteString functionData, long gas, long maxResultSize) {
 
@@ -23,6 +23,9 @@ package com.hedera.services.legacy.unit.handler;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.hedera.services.config.MockGlobalDynamicProps;
+import com.hedera.services.context.properties.NodeLocalProperties;
+import com.hedera.services.contracts.execution.BytecodeAnalysisCache;
+import com.hedera.services.contracts.execution.EvmProfiler;
 import com.hedera.services.contracts.sources.LedgerAccountsSource;
 import com.hedera.services.exceptions.NegativeAccountBalanceException;
 import com.hedera.services.fees.HbarCentExchange;
@@ -44,6 +47,7 @@ import com.hedera.services.state.merkle.MerkleEntityId;
 import com.hedera.services.state.merkle.MerkleOptionalBlob;
 import com.hedera.services.state.submerkle.ExchangeRates;
 import com.hedera.services.state.submerkle.SequenceNumber;
+import com.hedera.services.stats.MiscRunningAvgs;
 import com.hedera.services.store.tokens.TokenStore;
 import com.hedera.services.utils.EntityIdUtils;
 import com.hedera.test.mocks.SolidityLifecycleFactory;
@@ -203,7 +207,9 @@ public class SmartContractRequestHandlerPayableTest {
             SolidityLifecycleFactory.newTestInstance(),
             ignore -> true,
             null,
-            new MockGlobalDynamicProps());
+            new MockGlobalDynamicProps(),
+            new BytecodeAnalysisCache(100, mock(MiscRunningAvgs.class)),
+            new EvmProfiler(mock(NodeLocalProperties.class), mock(MiscRunningAvgs.class)));
     storageWrapper = new FCStorageWrapper(storageMap);
     FeeScheduleInterceptor feeScheduleInterceptor = mock(FeeScheduleInterceptor.class);
     fsHandler = new FileServiceHandler(
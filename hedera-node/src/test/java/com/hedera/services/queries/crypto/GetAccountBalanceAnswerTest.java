@@ -153,6 +153,8 @@ public class GetAccountBalanceAnswerTest {
 				() -> tokenRels,
 				StateView.EMPTY_UNIQUE_TOKEN_ASSOCS_SUPPLIER,
 				StateView.EMPTY_UNIQUE_TOKEN_ACCOUNT_OWNERSHIPS_SUPPLIER,
+				StateView.EMPTY_CONTRACT_STORAGE_SUPPLIER,
+				StateView.EMPTY_CONTRACT_STORAGE_ASSOCS_SUPPLIER,
 				null,
 				nodeProps);
 
@@ -190,6 +190,8 @@ class GetAccountInfoAnswerTest {
 				() -> tokenRels,
 				StateView.EMPTY_UNIQUE_TOKEN_ASSOCS_SUPPLIER,
 				StateView.EMPTY_UNIQUE_TOKEN_ACCOUNT_OWNERSHIPS_SUPPLIER,
+				StateView.EMPTY_CONTRACT_STORAGE_SUPPLIER,
+				StateView.EMPTY_CONTRACT_STORAGE_ASSOCS_SUPPLIER,
 				null,
 				nodeProps);
 		optionValidator = mock(OptionValidator.class);
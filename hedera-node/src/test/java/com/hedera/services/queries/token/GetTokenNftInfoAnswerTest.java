@@ -34,6 +34,7 @@ import com.hederahashgraph.api.proto.java.ResponseType;
 import com.hederahashgraph.api.proto.java.Timestamp;
 import com.hederahashgraph.api.proto.java.TokenGetNftInfoQuery;
 import com.hederahashgraph.api.proto.java.TokenGetNftInfoResponse;
+import com.hederahashgraph.api.proto.java.TokenID;
 import com.hederahashgraph.api.proto.java.TokenNftInfo;
 import com.hederahashgraph.api.proto.java.Transaction;
 import org.junit.jupiter.api.BeforeEach;
@@ -130,6 +131,28 @@ class GetTokenNftInfoAnswerTest {
 		assertEquals(INVALID_NFT_ID, validity);
 	}
 
+	@Test
+	void treatsUnpackableNftIdAsInvalid() throws Throwable {
+		// setup:
+		nftId = NftID.newBuilder()
+				.setTokenID(TokenID.newBuilder().setShardNum(1L << 16).setTokenNum(1L << 32))
+				.setSerialNumber(2)
+				.build();
+		Query costQuery = validQuery(COST_ANSWER, fee, nftId);
+		Query answerQuery = validQuery(ANSWER_ONLY, fee, nftId);
+
+		given(view.nftExists(nftId)).willCallRealMethod();
+		given(view.infoForNft(nftId)).willCallRealMethod();
+
+		// when:
+		ResponseCodeEnum validity = subject.checkValidity(costQuery, view);
+		Response response = subject.responseGiven(answerQuery, view, OK, fee);
+
+		// then:
+		assertEquals(INVALID_NFT_ID, validity);
+		assertEquals(INVALID_NFT_ID, response.getTokenGetNftInfo().getHeader().getNodeTransactionPrecheckCode());
+	}
+
 	@Test
 	void validatesInexistingTokenId() throws Throwable {
 		// setup:
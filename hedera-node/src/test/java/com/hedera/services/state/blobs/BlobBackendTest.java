@@ -0,0 +1,201 @@
+package com.hedera.services.state.blobs;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.context.properties.BootstrapProperties;
+import com.hedera.services.context.properties.NodeLocalProperties;
+import com.swirlds.blob.BinaryObject;
+import com.swirlds.blob.BinaryObjectStore;
+import com.swirlds.common.crypto.Hash;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+
+import static com.hedera.services.legacy.proto.utils.CommonUtils.noThrowSha384HashOf;
+import static com.hedera.services.state.blobs.LocalBinaryObjectStore.NO_LEGACY_SOURCE;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.verify;
+
+class BlobBackendTest {
+	@TempDir
+	Path dir;
+
+	@AfterEach
+	void cleanup() {
+		BlobBackend.setStore(null);
+		BlobBackend.propertiesSupplier = () -> new NodeLocalProperties(new BootstrapProperties());
+	}
+
+	@Test
+	void usesPlatformStoreByDefault() {
+		// given:
+		var properties = mock(NodeLocalProperties.class);
+
+		// expect:
+		assertSame(BinaryObjectStore.getInstance(), BlobBackend.configuredStore(properties));
+	}
+
+	@Test
+	void opensLocalStoreIfEnabled() {
+		// given:
+		var properties = mock(NodeLocalProperties.class);
+		given(properties.isLocalBlobStoreEnabled()).willReturn(true);
+		given(properties.localBlobStorePath()).willReturn(dir.toString());
+
+		// when:
+		var store = BlobBackend.configuredStore(properties);
+
+		// then:
+		assertTrue(store instanceof LocalBinaryObjectStore);
+		((LocalBinaryObjectStore) store).close();
+	}
+
+	@Test
+	void resolvesStoreOnlyOnce() {
+		// given:
+		var properties = mock(NodeLocalProperties.class);
+		BlobBackend.propertiesSupplier = () -> properties;
+
+		// when:
+		var store = BlobBackend.store();
+
+		// then:
+		assertSame(store, BlobBackend.store());
+		verify(properties).isLocalBlobStoreEnabled();
+	}
+
+	@Test
+	void createsBlobsForConfiguredStore() {
+		// given:
+		var local = LocalBinaryObjectStore.open(dir, NO_LEGACY_SOURCE);
+
+		// when:
+		BlobBackend.setStore(local);
+
+		// then:
+		assertEquals(LocalBinaryObject.class, BlobBackend.newBlob().getClass());
+
+		// and when:
+		BlobBackend.setStore(mock(BinaryObjectStore.class));
+
+		// then:
+		assertEquals(BinaryObject.class, BlobBackend.newBlob().getClass());
+		local.close();
+	}
+
+	@Test
+	void finishesLocalRecoveryOnlyOnce() {
+		// setup:
+		var properties = mock(NodeLocalProperties.class);
+		given(properties.localBlobStoreCompactionIntervalSecs()).willReturn(60L);
+		BlobBackend.propertiesSupplier = () -> properties;
+		var local = LocalBinaryObjectStore.open(dir, NO_LEGACY_SOURCE);
+		BlobBackend.setStore(local);
+
+		// when:
+		BlobBackend.finishLocalRecoveryIfNeeded();
+
+		// then:
+		assertFalse(local.isInitializing());
+		verify(properties).localBlobStoreCompactionIntervalSecs();
+
+		// and when:
+		BlobBackend.finishLocalRecoveryIfNeeded();
+
+		// then:
+		verify(properties).localBlobStoreCompactionIntervalSecs();
+		local.close();
+	}
+
+	@Test
+	void failsLocalRecoveryIfReferencedBlobIsMissingEverywhere() {
+		// setup:
+		var properties = mock(NodeLocalProperties.class);
+		BlobBackend.propertiesSupplier = () -> properties;
+		var local = LocalBinaryObjectStore.open(dir, NO_LEGACY_SOURCE);
+		BlobBackend.setStore(local);
+
+		// given:
+		new LocalBinaryObject(local).deserializeAbbreviated(null, new Hash(noThrowSha384HashOf("A".getBytes())), 1);
+
+		// expect:
+		assertThrows(IllegalStateException.class, BlobBackend::finishLocalRecoveryIfNeeded);
+		// and:
+		assertTrue(local.isInitializing());
+		verify(properties, never()).localBlobStoreCompactionIntervalSecs();
+		local.close();
+	}
+
+	@Test
+	void leavesPlatformStoreRecoveryToPlatform() {
+		// given:
+		var platformStore = mock(BinaryObjectStore.class);
+		given(platformStore.isInitializing()).willReturn(true);
+		BlobBackend.setStore(platformStore);
+
+		// when:
+		BlobBackend.finishLocalRecoveryIfNeeded();
+
+		// then:
+		verify(platformStore, never()).recover();
+		verify(platformStore, never()).stopInit();
+	}
+
+	@Test
+	void delegatesSaveHooksToLocalStore() {
+		// setup:
+		var blob = mock(BinaryObject.class);
+		var savedStateDir = dir.resolve("10");
+
+		// given:
+		var local = mock(LocalBinaryObjectStore.class);
+		BlobBackend.setStore(local);
+
+		// when:
+		BlobBackend.prepareForSave(blob);
+		BlobBackend.snapshotLocalStoreIfNeeded(10, savedStateDir);
+
+		// then:
+		verify(local).prepareForSave(blob);
+		verify(local).snapshot(10, savedStateDir);
+	}
+
+	@Test
+	void leavesPlatformStoreBackupsToPlatform() {
+		// given:
+		var platformStore = mock(BinaryObjectStore.class);
+		BlobBackend.setStore(platformStore);
+
+		// expect:
+		assertDoesNotThrow(() -> BlobBackend.prepareForSave(mock(BinaryObject.class)));
+		assertDoesNotThrow(() -> BlobBackend.snapshotLocalStoreIfNeeded(10, dir));
+	}
+}
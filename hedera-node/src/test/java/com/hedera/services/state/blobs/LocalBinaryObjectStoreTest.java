@@ -0,0 +1,529 @@
+package com.hedera.services.state.blobs;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.swirlds.blob.BinaryObjectNotFoundException;
+import com.swirlds.common.crypto.Hash;
+import com.swirlds.common.io.SerializableDataInputStream;
+import com.swirlds.common.io.SerializableDataOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.hedera.services.legacy.proto.utils.CommonUtils.noThrowSha384HashOf;
+import static com.hedera.services.state.blobs.LocalBinaryObjectStore.HEADER_BYTES;
+import static com.hedera.services.state.blobs.LocalBinaryObjectStore.SNAPSHOTS_DIR;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalBinaryObjectStoreTest {
+	private static final long SMALL_SEGMENT_BYTES = 256;
+
+	private final byte[] aData = "A".repeat(150).getBytes();
+	private final byte[] bData = "B".repeat(50).getBytes();
+	private final byte[] cData = "C".repeat(100).getBytes();
+
+	@TempDir
+	Path dir;
+
+	private LocalBinaryObjectStore subject;
+
+	@BeforeEach
+	void setUp() {
+		subject = LocalBinaryObjectStore.open(dir, SMALL_SEGMENT_BYTES);
+		subject.stopInit();
+	}
+
+	@AfterEach
+	void tearDown() {
+		subject.close();
+	}
+
+	@Test
+	void putsAndGetsByHash() {
+		// when:
+		var a = subject.put(aData);
+
+		// then:
+		assertEquals(new Hash(noThrowSha384HashOf(aData)), a.getHash());
+		assertArrayEquals(aData, subject.get(a));
+		assertArrayEquals(aData, subject.get(new LocalBinaryObject(subject, a.getHash())));
+		assertEquals(1, subject.retrieveNumberOfBinaryObjects());
+	}
+
+	@Test
+	void storesSameContentsOnlyOnce() throws IOException {
+		// when:
+		var a = subject.put(aData);
+		var sameA = subject.put(aData.clone());
+
+		// then:
+		assertEquals(a, sameA);
+		assertEquals(2L, subject.refCountOf(a.getHash()));
+		assertEquals(HEADER_BYTES + aData.length, Files.size(segment(0)));
+	}
+
+	@Test
+	void throwsOnUnknownHash() {
+		// given:
+		var unknown = new LocalBinaryObject(subject, new Hash(noThrowSha384HashOf(bData)));
+
+		// expect:
+		assertThrows(BinaryObjectNotFoundException.class, () -> subject.get(unknown));
+	}
+
+	@Test
+	void copiesAndReleasesAreRefCounted() {
+		// given:
+		var a = subject.put(aData);
+
+		// when:
+		var aCopy = a.copy();
+
+		// then:
+		assertTrue(a.isImmutable());
+		assertEquals(2L, subject.refCountOf(a.getHash()));
+
+		// and when:
+		a.release();
+		aCopy.release();
+
+		// then:
+		assertEquals(0L, subject.refCountOf(a.getHash()));
+		assertEquals(0, subject.retrieveNumberOfBinaryObjects());
+		assertEquals(0L, subject.liveBytesIn(0));
+	}
+
+	@Test
+	void deletedContentsCanBeRevived() {
+		// given:
+		var a = subject.put(aData);
+		subject.delete(a);
+
+		// when:
+		var revived = subject.put(aData);
+
+		// then:
+		assertEquals(1L, subject.refCountOf(revived.getHash()));
+		assertEquals(HEADER_BYTES + aData.length, subject.liveBytesIn(0));
+		assertArrayEquals(aData, subject.get(revived));
+	}
+
+	@Test
+	void ignoresExtraDeletes() {
+		// given:
+		var a = subject.put(aData);
+		subject.delete(a);
+
+		// expect:
+		subject.delete(a);
+		assertEquals(0L, subject.refCountOf(a.getHash()));
+	}
+
+	@Test
+	void rollsSegmentsAtMaxSize() {
+		// when:
+		subject.put(aData);
+		subject.put(bData);
+		subject.put(cData);
+
+		// then:
+		assertEquals(2, subject.numSegments());
+		assertTrue(Files.exists(segment(1)));
+	}
+
+	@Test
+	void appendAndUpdateReplaceTheBlob() {
+		// given:
+		var a = subject.put(aData);
+
+		// when:
+		var ab = subject.append(a, bData);
+
+		// then:
+		assertEquals(0L, subject.refCountOf(a.getHash()));
+		assertArrayEquals((new String(aData) + new String(bData)).getBytes(), subject.get(ab));
+
+		// and when:
+		var c = subject.update(ab, cData);
+
+		// then:
+		assertEquals(0L, subject.refCountOf(ab.getHash()));
+		assertArrayEquals(cData, subject.get(c));
+	}
+
+	@Test
+	void compactsSegmentsWithMostlyGarbage() {
+		// given:
+		var a = subject.put(aData);
+		var b = subject.put(bData);
+		var c = subject.put(cData);
+		// and:
+		subject.delete(a);
+
+		// when:
+		assertTrue(subject.compactOnce());
+
+		// then:
+		assertFalse(Files.exists(segment(0)));
+		assertEquals(1, subject.numSegments());
+		assertArrayEquals(bData, subject.get(b));
+		assertArrayEquals(cData, subject.get(c));
+		assertThrows(BinaryObjectNotFoundException.class, () -> subject.get(a));
+		// and:
+		assertFalse(subject.compactOnce());
+	}
+
+	@Test
+	void doesNotCompactWhileInitializing() {
+		// given:
+		var a = subject.put(aData);
+		subject.put(bData);
+		subject.put(cData);
+		subject.delete(a);
+		// and:
+		subject.startInit();
+
+		// expect:
+		assertFalse(subject.compactOnce());
+	}
+
+	@Test
+	void rebuildsIndexOnReopenAndRecoversRefCounts() {
+		// given:
+		var a = subject.put(aData);
+		var b = subject.put(bData);
+		var c = subject.put(cData);
+		subject.close();
+
+		// when:
+		subject = LocalBinaryObjectStore.open(dir, SMALL_SEGMENT_BYTES);
+		// and:
+		assertTrue(subject.isInitializing());
+		new LocalBinaryObject(subject).deserializeAbbreviated(null, b.getHash(), 1);
+		new LocalBinaryObject(subject).deserializeAbbreviated(null, c.getHash(), 1);
+		subject.recover();
+		subject.stopInit();
+
+		// then:
+		assertFalse(subject.isInitializing());
+		assertArrayEquals(aData, subject.get(a));
+		assertArrayEquals(bData, subject.get(b));
+		assertEquals(0L, subject.refCountOf(a.getHash()));
+		assertEquals(1L, subject.refCountOf(b.getHash()));
+		assertEquals(2, subject.retrieveNumberOfBinaryObjects());
+		// and:
+		assertTrue(subject.compactOnce());
+		assertThrows(BinaryObjectNotFoundException.class, () -> subject.get(a));
+		assertArrayEquals(cData, subject.get(c));
+	}
+
+	@Test
+	void truncatesPartialRecordOnReopen() throws IOException {
+		// given:
+		var a = subject.put(aData);
+		subject.close();
+		// and:
+		try (var channel = FileChannel.open(segment(0), WRITE)) {
+			channel.truncate(HEADER_BYTES + aData.length - 1);
+		}
+
+		// when:
+		subject = LocalBinaryObjectStore.open(dir, SMALL_SEGMENT_BYTES);
+		subject.stopInit();
+
+		// then:
+		assertEquals(0L, Files.size(segment(0)));
+		assertThrows(BinaryObjectNotFoundException.class, () -> subject.get(a));
+		// and:
+		var revived = subject.put(aData);
+		assertArrayEquals(aData, subject.get(revived));
+	}
+
+	@Test
+	void skipsRecordWithCorruptContentsButIntactHeaderOnReopen() throws IOException {
+		// given:
+		var a = subject.put(aData);
+		var b = subject.put(bData);
+		subject.close();
+		// and:
+		try (var channel = FileChannel.open(segment(0), WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[10]), HEADER_BYTES);
+		}
+
+		// when:
+		subject = LocalBinaryObjectStore.open(dir, SMALL_SEGMENT_BYTES);
+		subject.stopInit();
+
+		// then:
+		assertThrows(BinaryObjectNotFoundException.class, () -> subject.get(a));
+		assertArrayEquals(bData, subject.get(b));
+		assertEquals(2L * HEADER_BYTES + aData.length + bData.length, Files.size(segment(0)));
+		// and:
+		var revived = subject.put(aData);
+		assertArrayEquals(aData, subject.get(revived));
+	}
+
+	@Test
+	void truncatesTrailingRecordWithCorruptContentsOnReopen() throws IOException {
+		// given:
+		var a = subject.put(aData);
+		var b = subject.put(bData);
+		subject.close();
+		// and:
+		try (var channel = FileChannel.open(segment(0), WRITE)) {
+			channel.write(ByteBuffer.wrap(new byte[bData.length]), 2L * HEADER_BYTES + aData.length);
+		}
+
+		// when:
+		subject = LocalBinaryObjectStore.open(dir, SMALL_SEGMENT_BYTES);
+		subject.stopInit();
+
+		// then:
+		assertArrayEquals(aData, subject.get(a));
+		assertThrows(BinaryObjectNotFoundException.class, () -> subject.get(b));
+		assertEquals(HEADER_BYTES + aData.length, Files.size(segment(0)));
+		// and:
+		var revived = subject.put(bData);
+		assertArrayEquals(bData, subject.get(revived));
+	}
+
+	@Test
+	void blobsSerializeLikeBinaryObjects() throws IOException {
+		// setup:
+		var baos = new ByteArrayOutputStream();
+		var out = new SerializableDataOutputStream(baos);
+
+		// given:
+		var a = subject.put(aData);
+
+		// when:
+		a.serialize(out);
+		out.flush();
+		// and:
+		var in = new SerializableDataInputStream(new ByteArrayInputStream(baos.toByteArray()));
+		var readA = new LocalBinaryObject(subject);
+		readA.deserialize(in, 1);
+
+		// then:
+		assertEquals(4 + aData.length, baos.size());
+		assertEquals(a, readA);
+		assertNotSame(a, readA);
+		assertEquals(a.hashCode(), readA.hashCode());
+		assertEquals(a.getHash().toString(), readA.toString());
+		assertEquals(2L, subject.refCountOf(a.getHash()));
+	}
+
+	@Test
+	void compactionSyncsMovedRecordsBeforeDeletingVictim() {
+		// given:
+		var a = subject.put(aData);
+		subject.put(bData);
+		subject.put(cData);
+		subject.delete(a);
+
+		// when:
+		subject.compactOnce();
+
+		// then:
+		assertEquals(0L, subject.unsyncedBytesInActive());
+	}
+
+	@Test
+	void preparingForSaveSyncsRecordAndRetainsCompactedSegmentUntilSnapshot() throws IOException {
+		// setup:
+		var savedStateDir = Files.createDirectories(dir.resolve("saved").resolve("10"));
+
+		// given:
+		var a = subject.put(aData);
+		subject.put(bData);
+		subject.put(cData);
+		// and:
+		subject.prepareForSave(a);
+		subject.delete(a);
+
+		// when:
+		assertTrue(subject.compactOnce());
+
+		// then:
+		assertTrue(Files.exists(segment(0)));
+		assertThrows(BinaryObjectNotFoundException.class, () -> subject.get(a));
+
+		// and when:
+		subject.snapshot(10, savedStateDir);
+
+		// then:
+		assertFalse(Files.exists(segment(0)));
+		assertTrue(Files.exists(snapshot(10, 0)));
+		assertTrue(Files.exists(snapshot(10, 1)));
+	}
+
+	@Test
+	void preparingForSaveForcesUnsyncedRecord() {
+		// given:
+		var c = subject.put(cData);
+
+		// when:
+		subject.prepareForSave(c);
+
+		// then:
+		assertEquals(0L, subject.unsyncedBytesInActive());
+		// and:
+		assertDoesNotThrow(() -> subject.prepareForSave(new LocalBinaryObject(subject, new Hash(noThrowSha384HashOf(bData)))));
+	}
+
+	@Test
+	void recoversRecordsReferencedBySavedStateFromSnapshot() throws IOException {
+		// setup:
+		var savedStateDir = Files.createDirectories(dir.resolve("saved").resolve("10"));
+
+		// given:
+		var a = subject.put(aData);
+		var b = subject.put(bData);
+		subject.put(cData);
+		subject.snapshot(10, savedStateDir);
+		// and:
+		subject.delete(a);
+		assertTrue(subject.compactOnce());
+		subject.close();
+
+		// when:
+		subject = LocalBinaryObjectStore.open(dir, SMALL_SEGMENT_BYTES);
+		new LocalBinaryObject(subject).deserializeAbbreviated(null, a.getHash(), 1);
+		new LocalBinaryObject(subject).deserializeAbbreviated(null, b.getHash(), 1);
+		subject.recover();
+		subject.stopInit();
+
+		// then:
+		assertArrayEquals(aData, subject.get(a));
+		assertArrayEquals(bData, subject.get(b));
+		assertEquals(2 * HEADER_BYTES + aData.length + bData.length, subject.liveBytesIn(1));
+	}
+
+	@Test
+	void importsReferencedRecordsMissingFromSnapshotsFromLegacySource() {
+		// given:
+		var a = subject.put(aData);
+		var bHash = new Hash(noThrowSha384HashOf(bData));
+		subject.close();
+
+		// when:
+		subject = LocalBinaryObjectStore.open(dir, SMALL_SEGMENT_BYTES, hash -> hash.equals(bHash) ? bData : null);
+		new LocalBinaryObject(subject).deserializeAbbreviated(null, a.getHash(), 1);
+		new LocalBinaryObject(subject).deserializeAbbreviated(null, bHash, 1);
+		subject.recover();
+		subject.stopInit();
+
+		// then:
+		assertArrayEquals(aData, subject.get(a));
+		assertArrayEquals(bData, subject.get(new LocalBinaryObject(subject, bHash)));
+		assertEquals(1L, subject.refCountOf(bHash));
+
+		// and when:
+		subject.close();
+		subject = LocalBinaryObjectStore.open(dir, SMALL_SEGMENT_BYTES);
+		subject.stopInit();
+
+		// then:
+		assertArrayEquals(bData, subject.get(new LocalBinaryObject(subject, bHash)));
+	}
+
+	@Test
+	void failsRecoveryIfReferencedRecordIsMissingEverywhere() {
+		// setup:
+		var bHash = new Hash(noThrowSha384HashOf(bData));
+		var cHash = new Hash(noThrowSha384HashOf(cData));
+		subject.close();
+
+		// given:
+		subject = LocalBinaryObjectStore.open(dir, SMALL_SEGMENT_BYTES, hash -> hash.equals(bHash) ? cData : null);
+		new LocalBinaryObject(subject).deserializeAbbreviated(null, bHash, 1);
+		new LocalBinaryObject(subject).deserializeAbbreviated(null, cHash, 1);
+
+		// expect:
+		assertThrows(IllegalStateException.class, () -> subject.recover());
+		assertTrue(subject.isInitializing());
+		assertThrows(BinaryObjectNotFoundException.class, () -> subject.get(new LocalBinaryObject(subject, bHash)));
+	}
+
+	@Test
+	void prunesSnapshotsOfSavedStatesNoLongerKept() throws IOException {
+		// setup:
+		var savedStatesDir = dir.resolve("saved");
+		var tenDir = Files.createDirectories(savedStatesDir.resolve("10"));
+		var twelveDir = Files.createDirectories(savedStatesDir.resolve("12"));
+
+		// given:
+		subject.put(aData);
+		subject.snapshot(10, tenDir);
+		// and:
+		Files.delete(tenDir);
+
+		// when:
+		subject.snapshot(12, twelveDir);
+
+		// then:
+		assertFalse(Files.exists(dir.resolve(SNAPSHOTS_DIR).resolve("10")));
+		assertTrue(Files.exists(snapshot(12, 0)));
+	}
+
+	@Test
+	void readsDoNotLockTheStore() throws Exception {
+		// given:
+		var a = subject.put(aData);
+		var reader = Executors.newSingleThreadExecutor();
+
+		// when:
+		byte[] read;
+		synchronized (subject) {
+			read = reader.submit(() -> subject.get(a)).get(1, TimeUnit.SECONDS);
+		}
+
+		// then:
+		assertArrayEquals(aData, read);
+		reader.shutdown();
+	}
+
+	private Path snapshot(long round, int id) {
+		return dir.resolve(SNAPSHOTS_DIR).resolve(Long.toString(round)).resolve(String.format("blobs-%08d.seg", id));
+	}
+
+	private Path segment(int id) {
+		return dir.resolve(String.format("blobs-%08d.seg", id));
+	}
+}
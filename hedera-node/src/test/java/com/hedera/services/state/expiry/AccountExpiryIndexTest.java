@@ -0,0 +1,160 @@
+package com.hedera.services.state.expiry;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.config.MockGlobalDynamicProps;
+import com.hedera.services.config.MockHederaNumbers;
+import com.hedera.services.state.merkle.MerkleAccount;
+import com.hedera.services.state.merkle.MerkleEntityId;
+import com.hedera.test.factories.accounts.MerkleAccountFactory;
+import com.swirlds.common.constructable.ClassConstructorPair;
+import com.swirlds.common.constructable.ConstructableRegistry;
+import com.swirlds.common.constructable.ConstructableRegistryException;
+import com.swirlds.fcmap.FCMap;
+import com.swirlds.fcmap.internal.FCMLeaf;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static com.hedera.services.ledger.properties.AccountProperty.EXPIRY;
+import static com.hedera.services.ledger.properties.AccountProperty.MEMO;
+import static com.hedera.test.utils.IdUtils.asAccount;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AccountExpiryIndexTest {
+	private final long now = 1_234_567L;
+	private final long systemNum = 98L;
+	private final long fundedNum = 1_001L, detachedNum = 1_002L, deletedNum = 1_003L;
+	private final long contractNum = 1_004L, laterNum = 1_005L;
+
+	private long gracePeriod = 3_600L;
+	private final MockGlobalDynamicProps dynamicProperties = new MockGlobalDynamicProps() {
+		@Override
+		public long autoRenewGracePeriod() {
+			return gracePeriod;
+		}
+	};
+
+	private FCMap<MerkleEntityId, MerkleAccount> accounts = new FCMap<>();
+
+	private AccountExpiryIndex subject;
+
+	@BeforeEach
+	void setUp() throws ConstructableRegistryException {
+		ConstructableRegistry.registerConstructable(
+				new ClassConstructorPair(FCMLeaf.class, FCMLeaf::new));
+		ConstructableRegistry.registerConstructable(
+				new ClassConstructorPair(MerkleAccount.class, MerkleAccount::new));
+
+		put(systemNum, MerkleAccountFactory.newAccount().balance(1L).expirationTime(now - 1).get());
+		put(fundedNum, MerkleAccountFactory.newAccount().balance(1L).expirationTime(now).get());
+		put(detachedNum, MerkleAccountFactory.newAccount().balance(0L).expirationTime(now - 1).get());
+		put(deletedNum, MerkleAccountFactory.newAccount().deleted(true).expirationTime(now - 1).get());
+		put(contractNum, MerkleAccountFactory.newAccount().isSmartContract(true).expirationTime(now - 1).get());
+		put(laterNum, MerkleAccountFactory.newAccount().balance(1L).expirationTime(now + 1).get());
+
+		subject = new AccountExpiryIndex(new MockHederaNumbers(), dynamicProperties, () -> accounts);
+		subject.rebuild();
+	}
+
+	@Test
+	void onlyDueNonSystemAccountsArePromoted() {
+		// when:
+		subject.refresh(now);
+
+		// then:
+		assertEquals(2, subject.numDue());
+		assertEquals(fundedNum, subject.nextDueAfter(0L));
+		assertEquals(deletedNum, subject.nextDueAfter(fundedNum));
+		assertEquals(fundedNum, subject.nextDueAfter(deletedNum));
+		// and:
+		assertEquals(2, subject.numPending());
+	}
+
+	@Test
+	void detachedAccountsAreDueAfterGracePeriod() {
+		// when:
+		subject.refresh(now - 1 + gracePeriod);
+
+		// then:
+		assertEquals(4, subject.numDue());
+		assertEquals(detachedNum, subject.nextDueAfter(fundedNum));
+	}
+
+	@Test
+	void reindexesStaleAccountsOnRefresh() {
+		// setup:
+		subject.refresh(now);
+
+		// given:
+		accounts.getForModify(new MerkleEntityId(0, 0, fundedNum)).setExpiry(now + 7_776_000L);
+		accounts.remove(new MerkleEntityId(0, 0, deletedNum));
+		// and:
+		subject.trackAccountCommit(asAccount("0.0." + fundedNum), EnumSet.of(EXPIRY));
+		subject.trackAccountCommit(asAccount("0.0." + laterNum), EnumSet.of(MEMO));
+		subject.markStale(deletedNum);
+
+		// when:
+		subject.refresh(now + 1);
+
+		// then:
+		assertEquals(1, subject.numDue());
+		assertEquals(laterNum, subject.nextDueAfter(0L));
+		assertEquals(2, subject.numPending());
+	}
+
+	@Test
+	void rebuildsIfGracePeriodChanges() {
+		// given:
+		gracePeriod = 0L;
+
+		// when:
+		subject.refresh(now);
+
+		// then:
+		assertEquals(3, subject.numDue());
+		assertEquals(detachedNum, subject.nextDueAfter(fundedNum));
+	}
+
+	@Test
+	void ignoresStaleSystemAccounts() {
+		// given:
+		subject.markStale(systemNum);
+
+		// when:
+		subject.refresh(now);
+
+		// then:
+		assertEquals(2, subject.numDue());
+	}
+
+	@Test
+	void throwsIfNothingDue() {
+		// expect:
+		assertThrows(IllegalStateException.class, () -> subject.nextDueAfter(0L));
+	}
+
+	private void put(long num, MerkleAccount account) {
+		accounts.put(new MerkleEntityId(0, 0, num), account);
+	}
+}
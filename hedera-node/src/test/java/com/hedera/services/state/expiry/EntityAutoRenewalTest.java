@@ -20,23 +20,25 @@ package com.hedera.services.state.expiry;
  * ‍
  */
 
-import com.hedera.services.config.HederaNumbers;
 import com.hedera.services.config.MockGlobalDynamicProps;
-import com.hedera.services.config.MockHederaNumbers;
 import com.hedera.services.context.ServicesContext;
 import com.hedera.services.state.expiry.renewal.RenewalProcess;
 import com.hedera.services.state.logic.NetworkCtxManager;
 import com.hedera.services.state.merkle.MerkleNetworkContext;
-import com.hedera.services.state.submerkle.SequenceNumber;
+import com.hedera.services.stats.MiscRunningAvgs;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
+import java.util.TreeSet;
 
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
@@ -44,13 +46,10 @@ import static org.mockito.Mockito.verifyNoInteractions;
 @ExtendWith(MockitoExtension.class)
 class EntityAutoRenewalTest {
 	private final Instant instantNow = Instant.ofEpochSecond(1_234_567L);
-	private final HederaNumbers mockHederaNums = new MockHederaNumbers();
 	private final MockGlobalDynamicProps properties = new MockGlobalDynamicProps();
 
-	private final long aNum = 1002L, bNum = 1003L, cNum = 1004L;
+	private final long aNum = 1002L, bNum = 1003L, cNum = 1004L, dNum = 1010L;
 
-	@Mock
-	private SequenceNumber seqNo;
 	@Mock
 	private ServicesContext ctx;
 	@Mock
@@ -59,17 +58,21 @@ class EntityAutoRenewalTest {
 	private NetworkCtxManager networkCtxManager;
 	@Mock
 	private MerkleNetworkContext networkCtx;
+	@Mock
+	private AccountExpiryIndex expiryIndex;
+	@Mock
+	private MiscRunningAvgs runningAvgs;
 
 	private EntityAutoRenewal subject;
 
 	@BeforeEach
 	void setUp() {
 		subject = new EntityAutoRenewal(
-				mockHederaNums, renewalProcess, ctx, properties, networkCtxManager, () -> networkCtx);
+				renewalProcess, ctx, properties, networkCtxManager, expiryIndex, runningAvgs, () -> networkCtx);
 	}
 
 	@Test
-	void abortsIfNotAutoRenewing() {
+	void onlyRefreshesIndexIfNotAutoRenewing() {
 		// setup:
 		properties.disableAutoRenew();
 
@@ -77,6 +80,7 @@ class EntityAutoRenewalTest {
 		subject.execute(instantNow);
 
 		// then:
+		verify(expiryIndex).refresh(instantNow.getEpochSecond());
 		verifyNoInteractions(renewalProcess);
 
 		// cleanup:
@@ -84,22 +88,18 @@ class EntityAutoRenewalTest {
 	}
 
 	@Test
-	void abortsIfNoNonSystemEntities() {
-		// setup:
-		givenWrapNum(mockHederaNums.numReservedSystemEntities() + 1);
-
+	void abortsIfNothingDue() {
 		// when:
 		subject.execute(instantNow);
 
 		// then:
+		verify(expiryIndex).refresh(instantNow.getEpochSecond());
 		verifyNoInteractions(renewalProcess);
 	}
 
 	@Test
 	void resetsSummaryCountsIfNewConsensusSecond() {
 		given(networkCtxManager.currentTxnIsFirstInConsensusSecond()).willReturn(true);
-		givenWrapNum(aNum + 123);
-		givenLastScanned(aNum - 1);
 
 		// when:
 		subject.execute(instantNow);
@@ -109,32 +109,34 @@ class EntityAutoRenewalTest {
 	}
 
 	@Test
-	void scansToExpectedNumWithNothingToTouch() {
+	void scansOnlyDueAccountsWithNothingToTouch() {
 		// setup:
-		long numToScan = properties.autoRenewNumberOfEntitiesToScan();
+		InOrder inOrder = inOrder(expiryIndex, renewalProcess);
 
-		givenWrapNum(aNum + numToScan);
+		givenDue(aNum, cNum, dNum);
 		givenLastScanned(aNum - 1);
 
 		// when:
 		subject.execute(instantNow);
 
 		// then:
-		verify(renewalProcess).beginRenewalCycle(instantNow);
-		for (long i = aNum; i < aNum + numToScan; i++) {
-			verify(renewalProcess).process(i);
-		}
+		inOrder.verify(expiryIndex).refresh(instantNow.getEpochSecond());
+		inOrder.verify(renewalProcess).beginRenewalCycle(instantNow);
+		inOrder.verify(renewalProcess).process(aNum);
+		inOrder.verify(renewalProcess).process(cNum);
+		inOrder.verify(renewalProcess).process(dNum);
+		inOrder.verify(renewalProcess).endRenewalCycle();
 		// and:
-		verify(renewalProcess).endRenewalCycle();
-		verify(ctx).updateLastScannedEntity(aNum + numToScan - 1);
+		verify(ctx).updateLastScannedEntity(dNum);
+		verify(networkCtx).updateAutoRenewSummaryCounts(3, 0);
+		verify(runningAvgs).recordAutoRenewScan(3, 3, 0);
+		verify(expiryIndex, never()).markStale(aNum);
 	}
 
 	@Test
 	void stopsEarlyWhenLotsToTouch() {
 		// setup:
-		long numToScan = properties.autoRenewNumberOfEntitiesToScan();
-
-		givenWrapNum(aNum + numToScan);
+		givenDue(aNum, bNum, cNum);
 		givenLastScanned(aNum - 1);
 		given(renewalProcess.process(aNum)).willReturn(true);
 		given(renewalProcess.process(bNum)).willReturn(true);
@@ -144,24 +146,23 @@ class EntityAutoRenewalTest {
 
 		// then:
 		verify(renewalProcess).beginRenewalCycle(instantNow);
-		for (long i = aNum; i < cNum; i++) {
-			verify(renewalProcess).process(i);
-		}
-		// and:
+		verify(renewalProcess).process(aNum);
+		verify(renewalProcess).process(bNum);
 		verify(renewalProcess, never()).process(cNum);
 		verify(renewalProcess).endRenewalCycle();
+		// and:
+		verify(expiryIndex).markStale(aNum);
+		verify(expiryIndex).markStale(bNum);
 		verify(ctx).updateLastScannedEntity(bNum);
+		verify(networkCtx).updateAutoRenewSummaryCounts(2, 2);
 	}
 
 	@Test
-	void understandsHowToWrap() {
+	void resumesAfterLastScannedAndWraps() {
 		// setup:
-		long numToScan = properties.autoRenewNumberOfEntitiesToScan();
-
-		givenWrapNum(aNum + numToScan);
-		givenLastScanned(aNum + numToScan - 2);
-		given(renewalProcess.process(aNum + numToScan - 1)).willReturn(false);
-		given(renewalProcess.process(aNum - 1)).willReturn(false);
+		givenDue(aNum, bNum, dNum);
+		givenLastScanned(cNum);
+		given(renewalProcess.process(dNum)).willReturn(false);
 		given(renewalProcess.process(aNum)).willReturn(true);
 		given(renewalProcess.process(bNum)).willReturn(true);
 
@@ -169,23 +170,45 @@ class EntityAutoRenewalTest {
 		subject.execute(instantNow);
 
 		// then:
-		verify(renewalProcess).beginRenewalCycle(instantNow);
-		verify(renewalProcess).process(aNum + numToScan - 1);
-		for (long i = aNum; i < cNum; i++) {
-			verify(renewalProcess).process(i);
-		}
+		verify(renewalProcess).process(dNum);
+		verify(renewalProcess).process(aNum);
+		verify(renewalProcess).process(bNum);
 		// and:
-		verify(renewalProcess, never()).process(cNum);
-		verify(renewalProcess).endRenewalCycle();
 		verify(ctx).updateLastScannedEntity(bNum);
-		// and:
-		verify(networkCtx).updateAutoRenewSummaryCounts(4, 2);
+		verify(networkCtx).updateAutoRenewSummaryCounts(3, 2);
 	}
 
+	@Test
+	void scansAtMostConfiguredNumber() {
+		// setup:
+		final int numToScan = properties.autoRenewNumberOfEntitiesToScan();
+		final long[] due = new long[numToScan + 1];
+		for (int i = 0; i < due.length; i++) {
+			due[i] = aNum + i;
+		}
+		givenDue(due);
+		givenLastScanned(aNum - 1);
 
-	private void givenWrapNum(long num) {
-		given(ctx.seqNo()).willReturn(seqNo);
-		given(seqNo.current()).willReturn(num);
+		// when:
+		subject.execute(instantNow);
+
+		// then:
+		verify(renewalProcess).process(aNum + numToScan - 1);
+		verify(renewalProcess, never()).process(aNum + numToScan);
+		verify(ctx).updateLastScannedEntity(aNum + numToScan - 1);
+		verify(runningAvgs).recordAutoRenewScan(numToScan + 1, numToScan, 0);
+	}
+
+	private void givenDue(long... nums) {
+		final TreeSet<Long> due = new TreeSet<>();
+		for (var num : nums) {
+			due.add(num);
+		}
+		given(expiryIndex.numDue()).willReturn(nums.length);
+		given(expiryIndex.nextDueAfter(anyLong())).willAnswer(invocation -> {
+			final Long next = due.higher(invocation.getArgument(0));
+			return (next != null) ? next : due.first();
+		});
 	}
 
 	private void givenLastScanned(long num) {
@@ -52,6 +52,7 @@ import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.OK;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.SUCCESS;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -101,11 +102,11 @@ class ExpiryManagerTest {
 		subject.reviewExistingShortLivedEntities();
 		// and:
 		final var resultingExpiries = subject.getShortLivedEntityExpiries();
-		final var firstExpiry = resultingExpiries.expireNextAt(now);
+		final var firstExpiry = resultingExpiries.expireNextNumAt(now);
 
 		// then:
-		assertEquals(aKey.getNum(), firstExpiry.getLeft());
-		assertEquals(1, resultingExpiries.getAllExpiries().size());
+		assertEquals(aKey.getNum(), firstExpiry);
+		assertEquals(1, resultingExpiries.size());
 	}
 
 	@Test
@@ -122,7 +123,26 @@ class ExpiryManagerTest {
 
 		// then:
 		verify(mockScheduleStore).expire(new EntityId(0, 0, aKey.getNum()));
-		assertEquals(1, subject.getShortLivedEntityExpiries().getAllExpiries().size());
+		assertEquals(1, subject.getShortLivedEntityExpiries().size());
+	}
+
+	@Test
+	void expiresSchedulesWithSameExpiryInEntityNumOrder() {
+		subject = new ExpiryManager(
+				mockRecordCache, mockScheduleStore, nums, mockTxnHistories, () -> mockAccounts, () -> mockSchedules);
+
+		// given:
+		subject.trackExpirationEvent(Pair.of(bKey.getNum(), entityId -> mockScheduleStore.expire(entityId)), now);
+		subject.trackExpirationEvent(Pair.of(aKey.getNum(), entityId -> mockScheduleStore.expire(entityId)), now);
+
+		// when:
+		subject.purge(now);
+
+		// then:
+		final var inOrder = inOrder(mockScheduleStore);
+		inOrder.verify(mockScheduleStore).expire(new EntityId(0, 0, aKey.getNum()));
+		inOrder.verify(mockScheduleStore).expire(new EntityId(0, 0, bKey.getNum()));
+		assertEquals(0, subject.getShortLivedEntityExpiries().size());
 	}
 
 	@Test
@@ -147,6 +167,8 @@ class ExpiryManagerTest {
 		assertFalse(liveTxnHistories.containsKey(leftoverTxnId));
 		assertEquals(firstThen, liveTxnHistories.get(newTxnId).priorityRecord().getExpiry());
 		assertEquals(secondThen, liveTxnHistories.get(newTxnId).duplicateRecords().get(0).getExpiry());
+		// and:
+		assertEquals(2, subject.getPayerRecordExpiries().size());
 	}
 
 	@Test
@@ -0,0 +1,235 @@
+package com.hedera.services.state.expiry;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimingWheelExpiriesTest {
+	private final long now = 1_234_567L;
+	private final long aNum = 1_001L, bNum = 1_002L, cNum = 1_003L;
+
+	private TimingWheelExpiries subject;
+
+	@BeforeEach
+	void setUp() {
+		subject = new TimingWheelExpiries();
+	}
+
+	@Test
+	void noExpiringIfEmpty() {
+		// expect:
+		assertFalse(subject.hasExpiringAt(now));
+		assertThrows(IllegalStateException.class, () -> subject.expireNextNumAt(now));
+	}
+
+	@Test
+	void throwsIfNothingExpiredYet() {
+		// given:
+		subject.trackNum(aNum, now);
+
+		// expect:
+		assertFalse(subject.hasExpiringAt(now - 1));
+		assertThrows(IllegalArgumentException.class, () -> subject.expireNextNumAt(now - 1));
+	}
+
+	@Test
+	void releasesSameSecondInEntityNumOrder() {
+		// given:
+		subject.track(cNum, now);
+		subject.track(aNum, now);
+		subject.track(bNum, now + 1);
+		subject.track(bNum, now);
+
+		// expect:
+		assertEquals(aNum, (long) subject.expireNextAt(now));
+		assertEquals(bNum, (long) subject.expireNextAt(now));
+		assertEquals(cNum, (long) subject.expireNextAt(now));
+		assertFalse(subject.hasExpiringAt(now));
+		// and:
+		assertEquals(bNum, (long) subject.expireNextAt(now + 1));
+		assertEquals(0, subject.size());
+	}
+
+	@Test
+	void cascadesFromEveryLevel() {
+		// setup:
+		final long[] offsets = { 1L, 300L, 20_000L, 2_000_000L, 100_000_000L };
+
+		// given:
+		for (int i = 0; i < offsets.length; i++) {
+			subject.trackNum(i, now + offsets[i]);
+		}
+		subject.trackNum(99L, now);
+		// and:
+		assertEquals(6, subject.getOverflowSize());
+
+		// when:
+		assertFalse(subject.hasExpiringAt(now - 1));
+
+		// then:
+		assertEquals(now, subject.getCursor());
+		assertEquals(2, subject.getLevelSize(0));
+		assertEquals(1, subject.getLevelSize(1));
+		assertEquals(1, subject.getLevelSize(2));
+		assertEquals(1, subject.getLevelSize(3));
+		assertEquals(1, subject.getOverflowSize());
+		// and:
+		assertEquals(99L, subject.expireNextNumAt(now));
+		for (int i = 0; i < offsets.length; i++) {
+			assertFalse(subject.hasExpiringAt(now + offsets[i] - 1));
+			assertEquals(i, subject.expireNextNumAt(now + offsets[i]));
+		}
+		assertEquals(0, subject.size());
+	}
+
+	@Test
+	void skipsAheadWithoutPassingNow() {
+		// given:
+		subject.trackNum(aNum, now);
+		subject.trackNum(bNum, now + 10_000_000L);
+
+		// when:
+		subject.expireNextNumAt(now);
+		// and:
+		assertFalse(subject.hasExpiringAt(now + 5_000_000L));
+
+		// then:
+		assertEquals(now + 5_000_001L, subject.getCursor());
+		// and when:
+		subject.trackNum(cNum, now + 5_000_002L);
+
+		// then:
+		assertEquals(cNum, subject.expireNextNumAt(now + 10_000_000L));
+		assertEquals(bNum, subject.expireNextNumAt(now + 10_000_000L));
+	}
+
+	@Test
+	void ordersLateTrackingWithReadyExpiries() {
+		// given:
+		subject.trackNum(cNum, now);
+		subject.trackNum(bNum, now);
+		subject.trackNum(aNum, now + 1);
+		// and:
+		assertTrue(subject.hasExpiringAt(now));
+
+		// when:
+		subject.trackNum(aNum, now);
+		subject.trackNum(cNum, now - 1);
+
+		// then:
+		assertEquals(cNum, subject.expireNextNumAt(now));
+		assertEquals(aNum, subject.expireNextNumAt(now));
+		assertEquals(bNum, subject.expireNextNumAt(now));
+		assertEquals(cNum, subject.expireNextNumAt(now));
+		assertFalse(subject.hasExpiringAt(now));
+		assertEquals(aNum, subject.expireNextNumAt(now + 1));
+	}
+
+	@Test
+	void cursorFollowsNowWhileEmpty() {
+		// given:
+		subject.trackNum(aNum, now);
+		subject.expireNextNumAt(now);
+
+		// when:
+		assertFalse(subject.hasExpiringAt(now + 1_000));
+		// and:
+		subject.trackNum(bNum, now + 1_200);
+
+		// then:
+		assertEquals(now + 1_001, subject.getCursor());
+		assertEquals(1, subject.getLevelSize(0));
+	}
+
+	@Test
+	void restartsFromAnyExpiryOnceEmpty() {
+		// given:
+		subject.trackNum(aNum, now);
+		subject.expireNextNumAt(now);
+
+		// when:
+		subject.trackNum(bNum, now - 100);
+
+		// then:
+		assertEquals(now - 100, subject.getCursor());
+		assertEquals(bNum, subject.expireNextNumAt(now));
+	}
+
+	@Test
+	void resetWorks() {
+		// given:
+		subject.trackNum(aNum, now);
+		subject.trackNum(bNum, now + 1_000);
+		subject.trackNum(cNum, now + 100_000_000L);
+
+		// when:
+		subject.reset();
+
+		// then:
+		assertEquals(0, subject.size());
+		assertEquals(0, subject.getLevelSize(0));
+		assertEquals(0, subject.getLevelSize(1));
+		assertEquals(0, subject.getOverflowSize());
+		assertFalse(subject.hasExpiringAt(Long.MAX_VALUE - 1));
+	}
+
+	@Test
+	void expiresInSameOrderAsPriorityQueue() {
+		// setup:
+		final var random = new Random(1_234L);
+		final PriorityQueueExpiries<Long> pq = new PriorityQueueExpiries<>(
+				Comparator.comparingLong(ExpiryEvent<Long>::getExpiry).thenComparingLong(ExpiryEvent::getId));
+
+		// given:
+		long t = now;
+		for (int second = 0; second < 5_000; second++, t++) {
+			final int numNew = random.nextInt(8);
+			for (int i = 0; i < numNew; i++) {
+				final long num = random.nextInt(1_000);
+				final long expiry = t + (random.nextInt(10) == 0 ? -random.nextInt(3) : random.nextInt(40_000));
+				pq.track(num, expiry);
+				subject.trackNum(num, expiry);
+			}
+
+			// expect:
+			while (pq.hasExpiringAt(t)) {
+				assertTrue(subject.hasExpiringAt(t));
+				assertEquals((long) pq.expireNextAt(t), subject.expireNextNumAt(t));
+			}
+			assertFalse(subject.hasExpiringAt(t));
+		}
+		// and:
+		t += 40_000;
+		while (pq.hasExpiringAt(t)) {
+			assertEquals((long) pq.expireNextAt(t), subject.expireNextNumAt(t));
+		}
+		assertEquals(0, subject.size());
+	}
+}
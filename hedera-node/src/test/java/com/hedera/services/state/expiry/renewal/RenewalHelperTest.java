@@ -23,6 +23,7 @@ package com.hedera.services.state.expiry.renewal;
 import com.hedera.services.config.HederaNumbers;
 import com.hedera.services.config.MockGlobalDynamicProps;
 import com.hedera.services.config.MockHederaNumbers;
+import com.hedera.services.state.exports.BalanceChangeTracker;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleAccountTokens;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
@@ -124,12 +125,15 @@ class RenewalHelperTest {
 	private FCMap<MerkleEntityAssociation, MerkleTokenRelStatus> tokenRels;
 	@Mock
 	private TokenStore tokenStore;
+	@Mock
+	private BalanceChangeTracker balanceChangeTracker;
 
 	private RenewalHelper subject;
 
 	@BeforeEach
 	void setUp() {
-		subject = new RenewalHelper(tokenStore, nums, dynamicProps, () -> tokens, () -> accounts, () -> tokenRels);
+		subject = new RenewalHelper(
+				tokenStore, nums, dynamicProps, () -> tokens, () -> accounts, () -> tokenRels, balanceChangeTracker);
 	}
 
 	@Test
@@ -271,6 +275,8 @@ class RenewalHelperTest {
 		verify(tokenRels).remove(fromAccountTokenRel(grpcIdWith(brokeExpiredAccountNum), deletedTokenGrpcId));
 		verify(tokenRels).remove(fromAccountTokenRel(grpcIdWith(brokeExpiredAccountNum), survivedTokenGrpcId));
 		verify(tokenRels).remove(fromAccountTokenRel(grpcIdWith(brokeExpiredAccountNum), survivedTokenGrpcId));
+		verify(balanceChangeTracker).track(grpcIdWith(brokeExpiredAccountNum));
+		verify(balanceChangeTracker).track(treasuryGrpcId);
 		// and:
 		final var ttls = List.of(
 				ttlOf(survivedTokenGrpcId, grpcIdWith(brokeExpiredAccountNum), treasuryGrpcId, tokenBalance));
@@ -295,6 +301,8 @@ class RenewalHelperTest {
 		// then:
 		verify(accounts).getForModify(key);
 		verify(accounts).getForModify(fundingKey);
+		verify(balanceChangeTracker).track(key.toAccountId());
+		verify(balanceChangeTracker).track(fundingKey.toAccountId());
 	}
 
 	@Test
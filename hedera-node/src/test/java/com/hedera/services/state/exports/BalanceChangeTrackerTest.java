@@ -0,0 +1,169 @@
+package com.hedera.services.state.exports;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.config.MockGlobalDynamicProps;
+import com.hedera.services.context.properties.GlobalDynamicProperties;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.TokenID;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.hedera.services.ledger.properties.AccountProperty.BALANCE;
+import static com.hedera.services.ledger.properties.AccountProperty.MEMO;
+import static com.hedera.services.ledger.properties.TokenRelProperty.IS_FROZEN;
+import static com.hedera.services.ledger.properties.TokenRelProperty.TOKEN_BALANCE;
+import static com.hedera.test.utils.IdUtils.asAccount;
+import static com.hedera.test.utils.IdUtils.asToken;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BalanceChangeTrackerTest {
+	private final Instant first = Instant.ofEpochSecond(1_234_567L, 890);
+	private final Instant second = first.plusSeconds(1);
+	private final Instant third = second.plusSeconds(1);
+	private final AccountID a = asAccount("0.0.1001");
+	private final AccountID b = asAccount("0.0.1002");
+	private final AccountID c = asAccount("0.0.1003");
+	private final TokenID t = asToken("0.0.1004");
+
+	private int deltasPerFull = 2;
+	private GlobalDynamicProperties dynamicProperties = new MockGlobalDynamicProps() {
+		@Override
+		public int balancesDeltaExportsPerFullExport() {
+			return deltasPerFull;
+		}
+	};
+
+	private BalanceChangeTracker subject;
+
+	@BeforeEach
+	void setUp() {
+		subject = new BalanceChangeTracker(dynamicProperties);
+	}
+
+	@Test
+	void ignoresChangesBeforeFirstSeal() {
+		// given:
+		subject.track(a);
+		subject.seal(first);
+
+		// when:
+		subject.seal(second);
+
+		// then:
+		assertEquals(Optional.of(Set.of()), subject.drainChangesSince(first, second));
+	}
+
+	@Test
+	void onlyTracksBalanceRelevantCommits() {
+		// given:
+		subject.seal(first);
+
+		// when:
+		subject.trackAccountCommit(a, EnumSet.of(MEMO));
+		subject.trackAccountCommit(b, EnumSet.of(MEMO, BALANCE));
+		subject.trackTokenRelCommit(Pair.of(c, t), EnumSet.of(IS_FROZEN));
+		subject.trackTokenRelCommit(Pair.of(a, t), EnumSet.of(TOKEN_BALANCE));
+		// and:
+		subject.seal(second);
+
+		// then:
+		assertEquals(Optional.of(Set.of(a, b)), subject.drainChangesSince(first, second));
+	}
+
+	@Test
+	void drainsOnlySegmentsUpToExportedState() {
+		// given:
+		subject.seal(first);
+		subject.track(a);
+		subject.seal(second);
+		subject.track(b);
+		subject.seal(third);
+
+		// expect:
+		assertEquals(Optional.of(Set.of(a)), subject.drainChangesSince(first, second));
+		assertEquals(1, subject.numSealedSegments());
+		assertEquals(Optional.of(Set.of(b)), subject.drainChangesSince(second, third));
+		assertEquals(0, subject.numSealedSegments());
+	}
+
+	@Test
+	void cannotAnswerForBaseBeforeTrackingBegan() {
+		// given:
+		subject.seal(second);
+		subject.track(a);
+		subject.seal(third);
+
+		// expect:
+		assertTrue(subject.drainChangesSince(first, third).isEmpty());
+		assertTrue(subject.drainChangesSince(null, third).isEmpty());
+		// and:
+		assertEquals(0, subject.numSealedSegments());
+	}
+
+	@Test
+	void resetForcesFullExportAndRestartsTracking() {
+		// given:
+		subject.seal(first);
+		subject.track(a);
+		subject.seal(second);
+		subject.track(b);
+
+		// when:
+		subject.reset();
+
+		// then:
+		assertEquals(0, subject.numSealedSegments());
+		assertTrue(subject.drainChangesSince(first, second).isEmpty());
+
+		// and when:
+		subject.seal(second);
+		subject.track(c);
+		subject.seal(third);
+
+		// then:
+		assertEquals(Optional.of(Set.of(c)), subject.drainChangesSince(second, third));
+	}
+
+	@Test
+	void stopsTrackingWhenDeltasDisabled() {
+		// given:
+		subject.seal(first);
+		subject.track(a);
+		subject.seal(second);
+
+		// when:
+		deltasPerFull = 0;
+		subject.seal(third);
+		subject.track(b);
+
+		// then:
+		assertEquals(0, subject.numSealedSegments());
+		assertTrue(subject.drainChangesSince(first, third).isEmpty());
+	}
+}
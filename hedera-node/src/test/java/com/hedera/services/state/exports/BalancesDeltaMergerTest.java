@@ -0,0 +1,151 @@
+package com.hedera.services.state.exports;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.stream.proto.AllAccountBalances;
+import com.hedera.services.stream.proto.SingleAccountBalances;
+import com.hedera.services.stream.proto.TokenUnitBalance;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.Timestamp;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static com.hedera.test.utils.IdUtils.asAccount;
+import static com.hedera.test.utils.IdUtils.asToken;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BalancesDeltaMergerTest {
+	private final Instant baseTime = Instant.ofEpochSecond(1_234_567L, 890);
+	private final Instant firstDeltaTime = baseTime.plusSeconds(900);
+	private final Instant secondDeltaTime = firstDeltaTime.plusSeconds(900);
+	private final AccountID a = asAccount("0.0.3");
+	private final AccountID b = asAccount("0.0.1001");
+	private final AccountID c = asAccount("0.0.1002");
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void deltaRoundTripsThroughFile() throws IOException {
+		// given:
+		final var file = writeDelta("first.delta", baseTime, firstDeltaTime, List.of(balances(b, 2L)), List.of(c));
+
+		// when:
+		final var delta = BalancesDelta.readFrom(file);
+
+		// then:
+		assertEquals(baseTime, delta.getBaseConsensusTime());
+		assertEquals(firstDeltaTime, delta.getConsensusTime());
+		assertEquals(List.of(balances(b, 2L)), delta.getUpserts());
+		assertEquals(List.of(c), delta.getRemovals());
+	}
+
+	@Test
+	void mergesChainOfDeltasInOrder() throws IOException {
+		// given:
+		final var base = snapshotAt(baseTime, balances(a, 1L), balances(b, 1L), balances(c, 1L));
+		final var first = BalancesDelta.readFrom(
+				writeDelta("first.delta", baseTime, firstDeltaTime, List.of(balances(b, 2L)), List.of(c)));
+		final var second = BalancesDelta.readFrom(
+				writeDelta("second.delta", firstDeltaTime, secondDeltaTime, List.of(balances(c, 3L)), List.of()));
+
+		// when:
+		final var merged = BalancesDeltaMerger.merge(base, List.of(first, second));
+
+		// then:
+		assertEquals(
+				snapshotAt(secondDeltaTime, balances(a, 1L), balances(b, 2L), balances(c, 3L)),
+				merged);
+	}
+
+	@Test
+	void rejectsDeltaNotBasedOnPrevious() throws IOException {
+		// given:
+		final var base = snapshotAt(baseTime, balances(a, 1L));
+		final var second = BalancesDelta.readFrom(
+				writeDelta("second.delta", firstDeltaTime, secondDeltaTime, List.of(), List.of(a)));
+
+		// expect:
+		assertThrows(IllegalArgumentException.class, () -> BalancesDeltaMerger.merge(base, List.of(second)));
+	}
+
+	@Test
+	void rejectsTruncatedDelta() throws IOException {
+		// given:
+		final var file = dir.resolve("truncated.delta").toFile();
+		try (var out = new DataOutputStream(new FileOutputStream(file))) {
+			BalancesDelta.writeHeader(out, baseTime, firstDeltaTime);
+			BalancesDelta.writeUpsert(out, balances(a, 1L));
+		}
+
+		// expect:
+		assertThrows(IOException.class, () -> BalancesDelta.readFrom(file));
+	}
+
+	private File writeDelta(
+			String name,
+			Instant base,
+			Instant at,
+			List<SingleAccountBalances> upserts,
+			List<AccountID> removals
+	) throws IOException {
+		final var file = dir.resolve(name).toFile();
+		try (var out = new DataOutputStream(new FileOutputStream(file))) {
+			BalancesDelta.writeHeader(out, base, at);
+			for (var single : upserts) {
+				BalancesDelta.writeUpsert(out, single);
+			}
+			for (var id : removals) {
+				BalancesDelta.writeRemoval(out, id);
+			}
+			BalancesDelta.writeEnd(out);
+		}
+		return file;
+	}
+
+	private static SingleAccountBalances balances(AccountID id, long hbars) {
+		return SingleAccountBalances.newBuilder()
+				.setAccountID(id)
+				.setHbarBalance(hbars)
+				.addTokenUnitBalances(TokenUnitBalance.newBuilder()
+						.setTokenId(asToken("0.0.1004"))
+						.setBalance(hbars * 10))
+				.build();
+	}
+
+	private static AllAccountBalances snapshotAt(Instant time, SingleAccountBalances... all) {
+		return AllAccountBalances.newBuilder()
+				.setConsensusTimestamp(Timestamp.newBuilder()
+						.setSeconds(time.getEpochSecond())
+						.setNanos(time.getNano()))
+				.addAllAllAccounts(List.of(all))
+				.build();
+	}
+}
@@ -28,16 +28,20 @@ import com.hedera.services.exceptions.NegativeAccountBalanceException;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
 import com.hedera.services.state.merkle.MerkleEntityId;
+import com.hedera.services.state.merkle.MerkleNetworkContext;
 import com.hedera.services.state.merkle.MerkleToken;
 import com.hedera.services.state.merkle.MerkleTokenRelStatus;
+import com.hedera.services.stats.MiscRunningAvgs;
 import com.hedera.services.stream.proto.AllAccountBalances;
 import com.hedera.services.stream.proto.SingleAccountBalances;
 import com.hedera.services.stream.proto.TokenUnitBalance;
+import com.hedera.services.utils.SystemExits;
 import com.hedera.test.extensions.LogCaptor;
 import com.hedera.test.extensions.LogCaptureExtension;
 import com.hedera.test.extensions.LoggingSubject;
 import com.hedera.test.factories.accounts.MerkleAccountFactory;
 import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.Timestamp;
 import com.hederahashgraph.api.proto.java.TokenID;
 import com.swirlds.common.Address;
 import com.swirlds.common.AddressBook;
@@ -66,6 +70,7 @@ import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.Executor;
 import java.util.function.UnaryOperator;
 
 import static com.hedera.services.state.exports.SignedStateBalancesExporter.SINGLE_ACCOUNT_BALANCES_COMPARATOR;
@@ -77,15 +82,19 @@ import static com.hedera.test.utils.IdUtils.asAccount;
 import static com.hedera.test.utils.IdUtils.asToken;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(LogCaptureExtension.class)
@@ -116,7 +125,6 @@ class SignedStateBalancesExporterTest {
 	private long secondNonNodeDeletedTokenBalance = 100;
 
 	private byte[] sig = "not-really-a-sig".getBytes();
-	private byte[] fileHash = "not-really-a-hash".getBytes();
 
 	private MerkleAccount thisNodeAccount, anotherNodeAccount, firstNonNodeAccount, secondNonNodeAccount, deletedAccount;
 
@@ -127,10 +135,13 @@ class SignedStateBalancesExporterTest {
 	private Instant anEternityLater = now.plusSeconds(dynamicProperties.balancesExportPeriodSecs() * 2);
 
 	private ServicesState state;
+	private MerkleNetworkContext networkCtx;
+	private BalanceChangeTracker changeTracker;
 	private PropertySource properties;
 	private UnaryOperator<byte[]> signer;
 	private SigFileWriter sigFileWriter;
-	private FileHashReader hashReader;
+	private SystemExits systemExits;
+	private MiscRunningAvgs runningAvgs;
 	private DirectoryAssurance assurance;
 
 	@Inject
@@ -191,7 +202,9 @@ class SignedStateBalancesExporterTest {
 		given(book.getAddress(0)).willReturn(firstNodeAddress);
 		given(book.getAddress(1)).willReturn(secondNodeAddress);
 
+		networkCtx = mock(MerkleNetworkContext.class);
 		state = mock(ServicesState.class);
+		given(state.networkCtx()).willReturn(networkCtx);
 		given(state.getAccountFromNodeId(nodeId)).willReturn(thisNode);
 		given(state.tokens()).willReturn(tokens);
 		given(state.accounts()).willReturn(accounts);
@@ -199,13 +212,22 @@ class SignedStateBalancesExporterTest {
 		given(state.addressBook()).willReturn(book);
 
 		signer = mock(UnaryOperator.class);
-		given(signer.apply(fileHash)).willReturn(sig);
-		subject = new SignedStateBalancesExporter(properties, signer, dynamicProperties);
-
+		given(signer.apply(any())).willReturn(sig);
 		sigFileWriter = mock(SigFileWriter.class);
-		hashReader = mock(FileHashReader.class);
-		subject.sigFileWriter = sigFileWriter;
-		subject.hashReader = hashReader;
+		systemExits = mock(SystemExits.class);
+		runningAvgs = mock(MiscRunningAvgs.class);
+
+		subject = newSubject(dynamicProperties);
+	}
+
+	private SignedStateBalancesExporter newSubject(GlobalDynamicProperties dynamicProperties) {
+		changeTracker = new BalanceChangeTracker(dynamicProperties);
+		var exporter = new SignedStateBalancesExporter(
+				properties, signer, dynamicProperties, runningAvgs, changeTracker);
+		exporter.sigFileWriter = sigFileWriter;
+		exporter.systemExits = systemExits;
+		exporter.exportExecutor = Runnable::run;
+		return exporter;
 	}
 
 	@Test
@@ -217,7 +239,7 @@ class SignedStateBalancesExporterTest {
 				return "not/a/real/location";
 			}
 		};
-		subject = new SignedStateBalancesExporter(properties, signer, otherDynamicProperties);
+		subject = newSubject(otherDynamicProperties);
 
 		// given:
 		subject.directories = assurance;
@@ -235,7 +257,7 @@ class SignedStateBalancesExporterTest {
 		// setup:
 		var loc = expectedExportLoc();
 
-		given(hashReader.readHash(loc)).willThrow(IllegalStateException.class);
+		given(signer.apply(any())).willThrow(IllegalStateException.class);
 
 		// when:
 		subject.exportProto = false;
@@ -288,15 +310,11 @@ class SignedStateBalancesExporterTest {
 		tokens.put(new MerkleEntityId(0, 0, 1001), token);
 		tokens.put(new MerkleEntityId(0, 0, 1002), token);
 
-		given(hashReader.readHash(loc)).willReturn(fileHash);
 		given(sigFileWriter.writeSigFile(captor.capture(), any(), any())).willReturn(loc + "_sig");
 		given(properties.getLongProperty("ledger.totalTinyBarFloat"))
 				.willReturn(5000000000000000000L);
-		given(signer.apply(fileHash)).willReturn(sig);
 		// and:
-		subject = new SignedStateBalancesExporter(properties, signer, dynamicProperties);
-		subject.sigFileWriter = sigFileWriter;
-		subject.hashReader = hashReader;
+		subject = newSubject(dynamicProperties);
 
 		// when:
 		subject.exportProto = false;
@@ -312,7 +330,7 @@ class SignedStateBalancesExporterTest {
 		assertEquals("0,0,2,4999999999999999920,CggKAxjpBxCaBQoICgMY6gcQvAM=", lines.get(4));
 		assertEquals("0,0,3,80,CggKAxjqBxDNAg==", lines.get(5));
 		// and:
-		verify(sigFileWriter).writeSigFile(loc, sig, fileHash);
+		verify(sigFileWriter).writeSigFile(loc, sig, hashOf(loc));
 		// and:
 		assertThat(logCaptor.debugLogs(), contains(desiredDebugMsg));
 
@@ -328,7 +346,6 @@ class SignedStateBalancesExporterTest {
 		var loc = expectedExportLoc();
 		var desiredDebugMsg = "Created balance signature file " + "'" + loc + "_sig'.";
 
-		given(hashReader.readHash(loc)).willReturn(fileHash);
 		given(sigFileWriter.writeSigFile(captor.capture(), any(), any())).willReturn(loc + "_sig");
 
 		// when:
@@ -353,7 +370,7 @@ class SignedStateBalancesExporterTest {
 					entry.getTokenUnitBalancesList().size() > 0 ? b64Encode(entry) : ""), lines.get(i + 3));
 		}
 		// and:
-		verify(sigFileWriter).writeSigFile(loc, sig, fileHash);
+		verify(sigFileWriter).writeSigFile(loc, sig, hashOf(loc));
 		// and:
 		assertThat(logCaptor.debugLogs(), contains(desiredDebugMsg));
 
@@ -370,9 +387,7 @@ class SignedStateBalancesExporterTest {
 				return false;
 			}
 		};
-		subject = new SignedStateBalancesExporter(properties, signer, otherDynamicProperties);
-		subject.sigFileWriter = sigFileWriter;
-		subject.hashReader = hashReader;
+		subject = newSubject(otherDynamicProperties);
 
 		// when:
 		subject.exportProto = false;
@@ -406,7 +421,6 @@ class SignedStateBalancesExporterTest {
 		var loc = expectedExportLoc(true);
 		var desiredDebugMsg = "Created balance signature file " + "'" + loc + "_sig'.";
 
-		given(hashReader.readHash(loc)).willReturn(fileHash);
 		given(sigFileWriter.writeSigFile(captor.capture(), any(), any())).willReturn(loc + "_sig");
 
 		// when:
@@ -434,7 +448,7 @@ class SignedStateBalancesExporterTest {
 		}
 
 		// and:
-		verify(sigFileWriter).writeSigFile(loc, sig, fileHash);
+		verify(sigFileWriter).writeSigFile(loc, sig, hashOf(loc));
 		// and:
 		assertThat(logCaptor.debugLogs(), contains(desiredDebugMsg));
 
@@ -451,7 +465,7 @@ class SignedStateBalancesExporterTest {
 				return "not/a/real/location";
 			}
 		};
-		subject = new SignedStateBalancesExporter(properties, signer, otherDynamicProperties);
+		subject = newSubject(otherDynamicProperties);
 
 		// given:
 		subject.directories = assurance;
@@ -470,7 +484,6 @@ class SignedStateBalancesExporterTest {
 		// setup:
 		var loc = expectedExportLoc(true);
 
-		given(hashReader.readHash(loc)).willReturn(fileHash);
 
 		// when: Pretend the .csv file is a corrupted .pb file
 		subject.exportProto = false;
@@ -551,19 +564,94 @@ class SignedStateBalancesExporterTest {
 	}
 
 	@Test
-	void summarizesAsExpected() {
-		// given:
-		List<SingleAccountBalances> expectedBalances = theExpectedBalances();
+	void streamsOrderedBalancesAndWarnsOnLowNodeBalance() {
+		// setup:
+		var loc = expectedExportLoc(true);
 		// and:
 		var desiredWarning = "Node '0.0.4' has unacceptably low balance " + anotherNodeBalance + "!";
 
 		// when:
-		var summary = subject.summarized(state);
+		subject.exportCsv = false;
+		subject.exportBalancesFrom(state, now, nodeId);
+
+		// then:
+		var exported = importBalanceProtoFile(loc).get();
+		assertEquals(theExpectedBalances(), exported.getAllAccountsList());
+		// and:
+		assertThat(logCaptor.warnLogs(), contains(desiredWarning));
+		// and:
+		verify(runningAvgs).recordBalancesExportMs(anyLong());
+
+		// cleanup:
+		new File(loc).delete();
+	}
+
+	@Test
+	void streamedProtoMatchesInMemoryEncoding() throws IOException {
+		// setup:
+		var loc = expectedExportLoc(true);
+		var expected = AllAccountBalances.newBuilder()
+				.setConsensusTimestamp(Timestamp.newBuilder()
+						.setSeconds(now.getEpochSecond())
+						.setNanos(now.getNano()))
+				.addAllAllAccounts(theExpectedBalances())
+				.build();
+
+		// when:
+		subject.exportCsv = false;
+		subject.exportBalancesFrom(state, now, nodeId);
+
+		// then:
+		assertArrayEquals(expected.toByteArray(), Files.readAllBytes(Paths.get(loc)));
+
+		// cleanup:
+		new File(loc).delete();
+	}
+
+	@Test
+	void reservesSignedStateUntilBackgroundExportFinishes() {
+		// setup:
+		var loc = expectedExportLoc(true);
+		ArgumentCaptor<Runnable> export = ArgumentCaptor.forClass(Runnable.class);
+		Executor executor = mock(Executor.class);
+		subject.exportExecutor = executor;
+
+		// when:
+		subject.exportCsv = false;
+		subject.exportBalancesFrom(state, now, nodeId);
+
+		// then:
+		verify(state).incrementReferenceCount();
+		verify(state, never()).decrementReferenceCount();
+		verify(executor).execute(export.capture());
+
+		// and when:
+		export.getValue().run();
 
 		// then:
-		assertEquals(ledgerFloat, summary.getTotalFloat().longValue());
-		assertEquals(expectedBalances, summary.getOrderedBalances());
+		verify(state).decrementReferenceCount();
+		assertTrue(new File(loc).exists());
+
+		// cleanup:
+		new File(loc).delete();
+	}
+
+	@Test
+	void skipsExportWhilePreviousIsInProgress() {
+		// setup:
+		Executor executor = mock(Executor.class);
+		subject.exportExecutor = executor;
 		// and:
+		var desiredWarning = "Skipping balances export @ " + anEternityLater
+				+ ", the previous export is still in progress!";
+
+		// when:
+		subject.exportBalancesFrom(state, now, nodeId);
+		subject.exportBalancesFrom(state, anEternityLater, nodeId);
+
+		// then:
+		verify(executor).execute(any());
+		verify(state).incrementReferenceCount();
 		assertThat(logCaptor.warnLogs(), contains(desiredWarning));
 	}
 
@@ -594,6 +682,97 @@ class SignedStateBalancesExporterTest {
 	}
 
 
+	@Test
+	void exportsDeltaOfTrackedChangesBetweenFullExports() throws Exception {
+		// setup:
+		var deltaProperties = new MockGlobalDynamicProps() {
+			@Override
+			public int balancesDeltaExportsPerFullExport() {
+				return 1;
+			}
+		};
+		subject = newSubject(deltaProperties);
+		subject.exportCsv = false;
+		var baseLoc = expectedExportLoc(true);
+		var deltaLoc = baseLoc.replace(now.toString().replace(":", "_"), shortlyAfter.toString().replace(":", "_"))
+				.replace(".pb", SignedStateBalancesExporter.DELTA_FILE_EXTENSION);
+		var fullLoc = baseLoc.replace(now.toString().replace(":", "_"), anEternityLater.toString().replace(":", "_"));
+		// and:
+		var firstHandled = now.minusSeconds(1);
+		var secondHandled = shortlyAfter.minusSeconds(1);
+
+		// given:
+		changeTracker.seal(firstHandled.minusSeconds(1));
+		given(networkCtx.consensusTimeOfLastHandledTxn()).willReturn(firstHandled);
+		changeTracker.seal(firstHandled);
+		// and:
+		subject.exportBalancesFrom(state, now, nodeId);
+		// and:
+		firstNonNodeAccount.setBalance(firstNonNodeAccountBalance - 1);
+		changeTracker.track(firstNonNode);
+		changeTracker.track(deleted);
+		given(networkCtx.consensusTimeOfLastHandledTxn()).willReturn(secondHandled);
+		changeTracker.seal(secondHandled);
+
+		// when:
+		subject.exportBalancesFrom(state, shortlyAfter, nodeId);
+
+		// then:
+		var delta = BalancesDelta.readFrom(new File(deltaLoc));
+		assertEquals(now, delta.getBaseConsensusTime());
+		assertEquals(shortlyAfter, delta.getConsensusTime());
+		assertEquals(List.of(deleted), delta.getRemovals());
+		assertEquals(1, delta.getUpserts().size());
+		assertEquals(firstNonNode, delta.getUpserts().get(0).getAccountID());
+		assertEquals(firstNonNodeAccountBalance - 1, delta.getUpserts().get(0).getHbarBalance());
+		// and:
+		var merged = BalancesDeltaMerger.merge(importBalanceProtoFile(baseLoc).get(), List.of(delta));
+		assertEquals(4, merged.getAllAccountsCount());
+		assertEquals(firstNonNodeAccountBalance - 1, merged.getAllAccounts(2).getHbarBalance());
+		verify(sigFileWriter).writeSigFile(argThat(deltaLoc::equals), any(), any());
+
+		// and when:
+		firstNonNodeAccount.setBalance(firstNonNodeAccountBalance);
+		subject.exportBalancesFrom(state, anEternityLater, nodeId);
+
+		// then:
+		assertTrue(new File(fullLoc).exists());
+
+		// cleanup:
+		new File(baseLoc).delete();
+		new File(deltaLoc).delete();
+		new File(fullLoc).delete();
+	}
+
+	@Test
+	void exportsFullBalancesUntilTrackingCoversTheBase() {
+		// setup:
+		var deltaProperties = new MockGlobalDynamicProps() {
+			@Override
+			public int balancesDeltaExportsPerFullExport() {
+				return 1;
+			}
+		};
+		subject = newSubject(deltaProperties);
+		subject.exportCsv = false;
+		var baseLoc = expectedExportLoc(true);
+		var fullLoc = baseLoc.replace(now.toString().replace(":", "_"), shortlyAfter.toString().replace(":", "_"));
+
+		// given:
+		given(networkCtx.consensusTimeOfLastHandledTxn()).willReturn(now.minusSeconds(1));
+		subject.exportBalancesFrom(state, now, nodeId);
+
+		// when:
+		subject.exportBalancesFrom(state, shortlyAfter, nodeId);
+
+		// then:
+		assertTrue(new File(fullLoc).exists());
+
+		// cleanup:
+		new File(baseLoc).delete();
+		new File(fullLoc).delete();
+	}
+
 	@Test
 	void assuresExpectedDir() throws IOException {
 		// given:
@@ -608,16 +787,81 @@ class SignedStateBalancesExporterTest {
 	}
 
 	@Test
-	void throwsOnUnexpectedTotalFloat() throws NegativeAccountBalanceException {
+	void failsOnOverflowingTotalFloat() {
+		// setup:
+		var desiredError = "Signed state @ " + now + " had total balance overflowing a long!";
+
+		// given:
+		accounts.put(
+				new MerkleEntityId(0, 0, 2001),
+				MerkleAccountFactory.newAccount().balance(Long.MAX_VALUE / 2 + 1).get());
+		accounts.put(
+				new MerkleEntityId(0, 0, 2002),
+				MerkleAccountFactory.newAccount().balance(Long.MAX_VALUE / 2 + 1).get());
+
+		// when:
+		subject.exportBalancesFrom(state, now, nodeId);
+
+		// then:
+		verify(systemExits).fail(1);
+		verify(sigFileWriter, never()).writeSigFile(any(), any(), any());
+		assertFalse(new File(expectedExportLoc(true)).exists());
+		// and:
+		assertThat(logCaptor.errorLogs(), contains(desiredError));
+	}
+
+	@Test
+	void summarizesManyAccountsInParallelInIdOrder() {
+		// setup:
+		int n = 3 * SignedStateBalancesExporter.SEQUENTIAL_SUMMARY_THRESHOLD + 7;
+		var loc = expectedExportLoc(true);
+
+		// given:
+		accounts.clear();
+		for (int num = n; num > 0; num--) {
+			accounts.put(new MerkleEntityId(0, 0, num), MerkleAccountFactory.newAccount().balance(num).get());
+		}
+		given(properties.getLongProperty("ledger.totalTinyBarFloat")).willReturn((long) n * (n + 1) / 2);
+		subject = newSubject(dynamicProperties);
+
+		// when:
+		subject.exportCsv = false;
+		subject.exportBalancesFrom(state, now, nodeId);
+
+		// then:
+		var exported = importBalanceProtoFile(loc).get().getAllAccountsList();
+		assertEquals(n, exported.size());
+		for (int i = 0; i < n; i++) {
+			assertEquals(i + 1, exported.get(i).getAccountID().getAccountNum());
+			assertEquals(i + 1, exported.get(i).getHbarBalance());
+		}
+		// and:
+		verify(systemExits, never()).fail(1);
+		verify(sigFileWriter).writeSigFile(loc, sig, hashOf(loc));
+
+		// cleanup:
+		new File(loc).delete();
+	}
+
+	@Test
+	void failsAndDiscardsFilesOnUnexpectedTotalFloat() throws NegativeAccountBalanceException {
 		// setup:
 		var mutableAnotherNodeAccount = accounts.getForModify(fromAccountId(anotherNode));
+		var desiredError = "Signed state @ " + now + " had total balance " + (ledgerFloat + 1) + " not " + ledgerFloat + "!";
 
 		// given:
 		mutableAnotherNodeAccount.setBalance(anotherNodeBalance + 1);
 
+		// when:
+		subject.exportBalancesFrom(state, now, nodeId);
+
 		// then:
-		assertThrows(IllegalStateException.class,
-				() -> subject.exportBalancesFrom(state, now, nodeId));
+		verify(systemExits).fail(1);
+		verify(sigFileWriter, never()).writeSigFile(any(), any(), any());
+		assertFalse(new File(expectedExportLoc()).exists());
+		assertFalse(new File(expectedExportLoc(true)).exists());
+		// and:
+		assertThat(logCaptor.errorLogs(), contains(desiredError));
 	}
 
 	@Test
@@ -650,13 +894,13 @@ class SignedStateBalancesExporterTest {
 	void exportsWhenPeriodSecsHaveElapsed() {
 		Instant startTime = Instant.parse("2021-03-11T10:59:59.0Z");
 
-		subject = new SignedStateBalancesExporter(properties, signer, dynamicProperties);
+		subject = newSubject(dynamicProperties);
 		assertFalse(subject.isTimeToExport(startTime));
 		assertEquals(startTime, subject.periodBegin);
 		assertTrue(subject.isTimeToExport(startTime.plusSeconds(1)));
 		assertEquals(startTime.plusSeconds(1), subject.periodBegin);
 
-		subject = new SignedStateBalancesExporter(properties, signer, dynamicProperties);
+		subject = newSubject(dynamicProperties);
 		assertFalse(subject.isTimeToExport(startTime));
 		assertTrue(subject.isTimeToExport(startTime.plusSeconds(2)));
 		assertEquals(startTime.plusSeconds(2), subject.periodBegin);
@@ -675,7 +919,7 @@ class SignedStateBalancesExporterTest {
 		assertTrue(subject.isTimeToExport(anEternityLater));
 		assertEquals(anEternityLater, subject.periodBegin);
 
-		subject = new SignedStateBalancesExporter(properties, signer, dynamicProperties);
+		subject = newSubject(dynamicProperties);
 		startTime = Instant.parse("2021-03-11T10:59:59.0Z");
 		assertFalse(subject.isTimeToExport(startTime));
 	}
@@ -688,6 +932,10 @@ class SignedStateBalancesExporterTest {
 				.forEach(File::delete);
 	}
 
+	private static byte[] hashOf(String loc) {
+		return new Sha384HashReader().readHash(loc);
+	}
+
 	static Optional<AllAccountBalances> importBalanceProtoFile(String protoLoc) {
 		try {
 			FileInputStream fin = new FileInputStream(protoLoc);
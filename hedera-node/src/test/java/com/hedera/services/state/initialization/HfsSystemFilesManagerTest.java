@@ -26,6 +26,7 @@ import com.hedera.services.files.HFileMeta;
 import com.hedera.services.files.SysFileCallbacks;
 import com.hedera.services.files.TieredHederaFs;
 import com.hedera.services.files.interceptors.MockFileNumbers;
+import com.hedera.services.files.sysfiles.ParsedSysFileCache;
 import com.hedera.services.legacy.core.jproto.JKey;
 import com.hedera.services.state.merkle.MerkleDiskFs;
 import com.hedera.services.utils.EntityIdUtils;
@@ -53,6 +54,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 
 import javax.inject.Inject;
 import java.io.IOException;
@@ -67,6 +69,7 @@ import java.util.function.Consumer;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.any;
@@ -74,6 +77,7 @@ import static org.mockito.BDDMockito.argThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.mock;
 import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.times;
 import static org.mockito.BDDMockito.verify;
 import static org.mockito.BDDMockito.willCallRealMethod;
 
@@ -206,7 +210,8 @@ class HfsSystemFilesManagerTest {
 
 		callbacks = mock(SysFileCallbacks.class);
 
-		subject = new HfsSystemFilesManager(currentBook, fileNumbers, properties, hfs, () -> masterKey, callbacks);
+		subject = new HfsSystemFilesManager(
+				currentBook, fileNumbers, properties, hfs, () -> masterKey, callbacks, new ParsedSysFileCache());
 	}
 
 	@Test
@@ -421,6 +426,26 @@ class HfsSystemFilesManagerTest {
 		verify(throttlesCb).accept(proto);
 	}
 
+	@Test
+	void reusesParsedThrottlesIfContentsUnchanged() throws IOException {
+		// setup:
+		var proto = SerdeUtils.protoDefs("bootstrap/throttles.json");
+		byte[] throttleBytes = proto.toByteArray();
+		ArgumentCaptor<ThrottleDefinitions> captor = ArgumentCaptor.forClass(ThrottleDefinitions.class);
+
+		given(callbacks.throttlesCb()).willReturn(throttlesCb);
+		given(hfs.exists(throttlesId)).willReturn(true);
+		given(hfs.cat(throttlesId)).willReturn(throttleBytes);
+
+		// when:
+		subject.loadThrottleDefinitions();
+		subject.loadThrottleDefinitions();
+
+		// then:
+		verify(throttlesCb, times(2)).accept(captor.capture());
+		assertSame(captor.getAllValues().get(0), captor.getAllValues().get(1));
+	}
+
 	@Test
 	void createsThrottlesFromResourceIfMissing() throws IOException {
 		// setup:
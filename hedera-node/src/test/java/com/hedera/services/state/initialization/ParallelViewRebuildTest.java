@@ -0,0 +1,132 @@
+package com.hedera.services.state.initialization;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ParallelViewRebuildTest {
+	@Test
+	void runsDependentStepsOnlyAfterTheirDependencies() {
+		// setup:
+		final List<String> finished = Collections.synchronizedList(new ArrayList<>());
+
+		// given:
+		final var subject = new ParallelViewRebuild(4)
+				.step("a", () -> {
+					sleepMs(50);
+					finished.add("a");
+				})
+				.step("b", () -> finished.add("b"))
+				.step("c", () -> finished.add("c"), "a", "b");
+
+		// when:
+		subject.run();
+
+		// then:
+		assertEquals(3, finished.size());
+		assertEquals("c", finished.get(2));
+	}
+
+	@Test
+	void runsIndependentStepsConcurrently() {
+		// setup:
+		final var barrier = new CyclicBarrier(2);
+		final Runnable awaitOther = () -> {
+			try {
+				barrier.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+				throw new IllegalStateException(e);
+			}
+		};
+
+		// given:
+		final var subject = new ParallelViewRebuild(2)
+				.step("a", awaitOther)
+				.step("b", awaitOther);
+
+		// expect:
+		subject.run();
+	}
+
+	@Test
+	void propagatesFailureAndSkipsDependents() {
+		// setup:
+		final var failure = new IllegalArgumentException("Bad state!");
+		final var dependentRan = new AtomicBoolean();
+		final var independentRan = new AtomicBoolean();
+
+		// given:
+		final var subject = new ParallelViewRebuild(2)
+				.step("a", () -> {
+					throw failure;
+				})
+				.step("b", () -> dependentRan.set(true), "a")
+				.step("c", () -> independentRan.set(true));
+
+		// when:
+		final var thrown = assertThrows(IllegalArgumentException.class, subject::run);
+
+		// then:
+		assertSame(failure, thrown);
+		assertFalse(dependentRan.get());
+		assertTrue(independentRan.get());
+	}
+
+	@Test
+	void runsNoStepsFine() {
+		// expect:
+		new ParallelViewRebuild(1).run();
+	}
+
+	@Test
+	void rejectsInvalidSteps() {
+		// given:
+		final var subject = new ParallelViewRebuild(1).step("a", () -> { });
+
+		// expect:
+		assertThrows(IllegalArgumentException.class, () -> subject.step("a", () -> { }));
+		assertThrows(IllegalArgumentException.class, () -> subject.step("b", () -> { }, "c"));
+		assertThrows(IllegalArgumentException.class, () -> new ParallelViewRebuild(0));
+	}
+
+	private static void sleepMs(long ms) {
+		try {
+			Thread.sleep(ms);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
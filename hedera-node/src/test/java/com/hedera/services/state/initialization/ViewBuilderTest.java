@@ -20,6 +20,8 @@ package com.hedera.services.state.initialization;
  * ‍
  */
 
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
 import com.hedera.services.state.merkle.MerkleUniqueToken;
 import com.hedera.services.state.merkle.MerkleUniqueTokenId;
 import com.hedera.services.state.submerkle.EntityId;
@@ -29,12 +31,15 @@ import com.swirlds.fcmap.FCMap;
 import org.junit.jupiter.api.Test;
 
 import java.time.Instant;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
 public class ViewBuilderTest {
 	private static final EntityId tokenId = new EntityId(0, 0, 54321);
 	private static final EntityId ownerId = new EntityId(0, 0, 12345);
+	private static final EntityId contractId = new EntityId(0, 0, 13579);
+	private static final byte[] slotKey = new byte[32];
 
 	public static FCMap<MerkleUniqueTokenId, MerkleUniqueToken> someUniqueTokens() {
 		final var uniqId = new MerkleUniqueTokenId(tokenId, 2);
@@ -47,6 +52,17 @@ public class ViewBuilderTest {
 		return ans;
 	}
 
+	public static FCMap<MerkleContractSlotId, MerkleContractSlot> someContractStorage() {
+		final var ans = new FCMap<MerkleContractSlotId, MerkleContractSlot>();
+		ans.put(new MerkleContractSlotId(contractId, slotKey), new MerkleContractSlot(new byte[32]));
+		return ans;
+	}
+
+	public static void assertIsTheExpectedCsa(FCOneToManyRelation<EntityId, MerkleContractSlotId> actual) {
+		assertEquals(1, actual.getKeyCount());
+		assertEquals(List.of(new MerkleContractSlotId(contractId, slotKey)), actual.getList(contractId));
+	}
+
 	public static void assertIsTheExpectedUta(FCOneToManyRelation<EntityId, MerkleUniqueTokenId> actual) {
 		final var uniqId = new MerkleUniqueTokenId(tokenId, 2);
 		final var expected = new FCOneToManyRelation<EntityId, MerkleUniqueTokenId>();
@@ -77,4 +93,16 @@ public class ViewBuilderTest {
 		assertIsTheExpectedUtao(actualUtao);
 	}
 
+	@Test
+	void rebuildContractStorageAssociationsWorks() {
+		// given:
+		final var actualCsa = new FCOneToManyRelation<EntityId, MerkleContractSlotId>();
+
+		// when:
+		ViewBuilder.rebuildContractStorageViews(someContractStorage(), actualCsa);
+
+		// then:
+		assertIsTheExpectedCsa(actualCsa);
+	}
+
 }
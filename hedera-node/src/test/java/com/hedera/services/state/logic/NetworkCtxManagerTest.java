@@ -32,6 +32,7 @@ import com.hedera.services.state.merkle.MerkleNetworkContext;
 import com.hedera.services.state.submerkle.ExchangeRates;
 import com.hedera.services.stats.HapiOpCounters;
 import com.hedera.services.throttling.FunctionalityThrottling;
+import com.hedera.services.utils.TxnAccessor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -42,7 +43,6 @@ import java.time.Instant;
 import java.util.Optional;
 import java.util.function.BiPredicate;
 
-import static com.hederahashgraph.api.proto.java.HederaFunctionality.TokenMint;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -77,6 +77,8 @@ class NetworkCtxManagerTest {
 	private FunctionalityThrottling handleThrottling;
 	@Mock
 	private BiPredicate<Instant, Instant> shouldUpdateMidnightRates;
+	@Mock
+	private TxnAccessor accessor;
 
 	private NetworkCtxManager subject;
 
@@ -140,10 +142,10 @@ class NetworkCtxManagerTest {
 		given(networkCtx.consensusTimeOfLastHandledTxn()).willReturn(sometime);
 
 		// when:
-		subject.prepareForIncorporating(TokenMint);
+		subject.prepareForIncorporating(accessor);
 
 		// then:
-		verify(handleThrottling).shouldThrottle(TokenMint);
+		verify(handleThrottling).shouldThrottleTxn(accessor);
 		verify(feeMultiplierSource).updateMultiplier(sometime);
 	}
 
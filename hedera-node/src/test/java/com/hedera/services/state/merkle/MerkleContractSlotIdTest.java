@@ -0,0 +1,141 @@
+package com.hedera.services.state.merkle;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.state.submerkle.EntityId;
+import com.swirlds.common.io.SerializableDataInputStream;
+import com.swirlds.common.io.SerializableDataOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+
+class MerkleContractSlotIdTest {
+	private final EntityId contractId = new EntityId(1, 2, 3);
+	private final EntityId otherContractId = new EntityId(1, 2, 4);
+	private final byte[] key = "abcdefghijklmnopqrstuvwxyz012345".getBytes();
+	private final byte[] otherKey = "bcdefghijklmnopqrstuvwxyz0123456".getBytes();
+
+	private MerkleContractSlotId subject;
+
+	@BeforeEach
+	void setup() {
+		subject = new MerkleContractSlotId(contractId, key);
+	}
+
+	@Test
+	void equalsContractWorks() {
+		// given
+		var other = new MerkleContractSlotId(otherContractId, key);
+		var other2 = new MerkleContractSlotId(contractId, otherKey);
+		var identical = new MerkleContractSlotId(contractId, key.clone());
+
+		// expect
+		assertNotEquals(subject, other);
+		assertNotEquals(subject, other2);
+		assertNotEquals(subject, new Object());
+		assertEquals(subject, identical);
+		assertEquals(subject, subject);
+	}
+
+	@Test
+	void hashCodeWorks() {
+		// given:
+		var identical = new MerkleContractSlotId(contractId, key.clone());
+		var other = new MerkleContractSlotId(otherContractId, otherKey);
+
+		// expect:
+		assertNotEquals(subject.hashCode(), other.hashCode());
+		assertEquals(subject.hashCode(), identical.hashCode());
+	}
+
+	@Test
+	void toStringWorks() {
+		// given:
+		assertEquals("MerkleContractSlotId{" +
+						"contractId=" + contractId + ", " +
+						"key=6162636465666768696a6b6c6d6e6f707172737475767778797a303132333435}",
+				subject.toString());
+	}
+
+	@Test
+	void copyWorks() {
+		// when:
+		var copy = subject.copy();
+
+		// then:
+		assertNotSame(copy, subject);
+		assertEquals(subject, copy);
+		assertSame(contractId, copy.contractId());
+		assertSame(key, copy.key());
+	}
+
+	@Test
+	void serializeWorks() throws IOException {
+		// setup:
+		var out = mock(SerializableDataOutputStream.class);
+		// and:
+		InOrder inOrder = inOrder(out);
+
+		// when:
+		subject.serialize(out);
+
+		// then:
+		inOrder.verify(out).writeSerializable(contractId, true);
+		inOrder.verify(out).writeByteArray(key);
+	}
+
+	@Test
+	void deserializeWorks() throws IOException {
+		// setup:
+		SerializableDataInputStream in = mock(SerializableDataInputStream.class);
+
+		given(in.readSerializable()).willReturn(contractId);
+		given(in.readByteArray(MerkleContractSlotId.KEY_BYTES)).willReturn(key);
+
+		// and:
+		var read = new MerkleContractSlotId();
+
+		// when:
+		read.deserialize(in, MerkleContractSlotId.MERKLE_VERSION);
+
+		// then:
+		assertEquals(subject, read);
+	}
+
+	@Test
+	void merkleMethodsWork() {
+		// expect;
+		assertEquals(MerkleContractSlotId.MERKLE_VERSION, subject.getVersion());
+		assertEquals(MerkleContractSlotId.RUNTIME_CONSTRUCTABLE_ID, subject.getClassId());
+		assertTrue(subject.isLeaf());
+	}
+}
@@ -0,0 +1,122 @@
+package com.hedera.services.state.merkle;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.swirlds.common.io.SerializableDataInputStream;
+import com.swirlds.common.io.SerializableDataOutputStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.verify;
+import static org.mockito.Mockito.mock;
+
+class MerkleContractSlotTest {
+	private final byte[] value = "abcdefghijklmnopqrstuvwxyz012345".getBytes();
+	private final byte[] otherValue = "bcdefghijklmnopqrstuvwxyz0123456".getBytes();
+
+	private MerkleContractSlot subject;
+
+	@BeforeEach
+	void setup() {
+		subject = new MerkleContractSlot(value);
+	}
+
+	@Test
+	void equalsContractWorks() {
+		// expect:
+		assertNotEquals(subject, new MerkleContractSlot(otherValue));
+		assertNotEquals(subject, new Object());
+		assertEquals(subject, new MerkleContractSlot(value.clone()));
+		assertEquals(subject, subject);
+		// and:
+		assertEquals(subject.hashCode(), new MerkleContractSlot(value.clone()).hashCode());
+	}
+
+	@Test
+	void toStringWorks() {
+		// expect:
+		assertEquals(
+				"MerkleContractSlot{value=6162636465666768696a6b6c6d6e6f707172737475767778797a303132333435}",
+				subject.toString());
+	}
+
+	@Test
+	void copySharesValue() {
+		// when:
+		var copy = subject.copy();
+
+		// then:
+		assertNotSame(subject, copy);
+		assertSame(value, copy.getValue());
+	}
+
+	@Test
+	void setterWorks() {
+		// when:
+		subject.setValue(otherValue);
+
+		// then:
+		assertSame(otherValue, subject.getValue());
+	}
+
+	@Test
+	void serializeWorks() throws IOException {
+		// setup:
+		var out = mock(SerializableDataOutputStream.class);
+
+		// when:
+		subject.serialize(out);
+
+		// then:
+		verify(out).writeByteArray(value);
+	}
+
+	@Test
+	void deserializeWorks() throws IOException {
+		// setup:
+		var in = mock(SerializableDataInputStream.class);
+		given(in.readByteArray(MerkleContractSlot.VALUE_BYTES)).willReturn(value);
+		// and:
+		var read = new MerkleContractSlot();
+
+		// when:
+		read.deserialize(in, MerkleContractSlot.MERKLE_VERSION);
+
+		// then:
+		assertEquals(subject, read);
+	}
+
+	@Test
+	void merkleMethodsWork() {
+		// expect:
+		assertEquals(MerkleContractSlot.MERKLE_VERSION, subject.getVersion());
+		assertEquals(MerkleContractSlot.RUNTIME_CONSTRUCTABLE_ID, subject.getClassId());
+		assertTrue(subject.isLeaf());
+	}
+}
@@ -47,6 +47,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.security.MessageDigest;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -61,7 +62,9 @@ import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -95,6 +98,7 @@ class MerkleDiskFsTest {
 
 		getter = mock(MerkleDiskFs.ThrowingBytesGetter.class);
 		subject.setBytesHelper(getter);
+		subject.setHashHelper(loc -> noThrowSha384HashOf(getter.allBytesFrom(loc)));
 		writer = mock(MerkleDiskFs.ThrowingBytesWriter.class);
 		subject.setWriteHelper(writer);
 
@@ -124,6 +128,26 @@ class MerkleDiskFsTest {
 		}
 	}
 
+	@Test
+	void mappedHashMatchesHashOfContents() throws Exception {
+		// setup:
+		Path tmpLoc = Paths.get(MOCK_DISKFS_DIR + File.separator + "mapped.txt");
+		Path emptyLoc = Paths.get(MOCK_DISKFS_DIR + File.separator + "empty.txt");
+		var subject = new MerkleDiskFs();
+		subject.getWriteHelper().allBytesTo(tmpLoc, origContents);
+		subject.getWriteHelper().allBytesTo(emptyLoc, new byte[0]);
+
+		// expect:
+		assertArrayEquals(origFileHash, MerkleDiskFs.mappedSha384HashOf(tmpLoc));
+		assertArrayEquals(
+				MessageDigest.getInstance("SHA-384").digest(new byte[0]),
+				MerkleDiskFs.mappedSha384HashOf(emptyLoc));
+
+		// cleanup:
+		tmpLoc.toFile().delete();
+		emptyLoc.toFile().delete();
+	}
+
 	@Test
 	void migratesPre0130DiskFs() throws IOException {
 		// setup:
@@ -239,6 +263,168 @@ class MerkleDiskFsTest {
 		verify(writer).allBytesTo(subject.pathToContentsOf(file150), newContents);
 	}
 
+	@Test
+	void appendHashesOnlyNewBytesAfterPut() throws IOException {
+		// setup:
+		var appender = mock(MerkleDiskFs.ThrowingBytesWriter.class);
+		subject.setAppendHelper(appender);
+		var allContents = (new String(newContents) + new String(origContents)).getBytes();
+		var allFileHash = MessageDigest.getInstance("SHA-384").digest(allContents);
+
+		// given:
+		subject.put(file150, newContents);
+
+		// when:
+		subject.append(file150, origContents);
+
+		// then:
+		assertArrayEquals(hashWithFileHash(allFileHash), subject.getHash().getValue());
+		verify(appender).allBytesTo(subject.pathToContentsOf(file150), origContents);
+		verify(getter, never()).allBytesFrom(any());
+	}
+
+	@Test
+	void appendRebuildsRunningDigestFromDiskIfNeeded() throws IOException {
+		// setup:
+		var appender = mock(MerkleDiskFs.ThrowingBytesWriter.class);
+		var allContents = (new String(origContents) + new String(newContents)).getBytes();
+		var allFileHash = MessageDigest.getInstance("SHA-384").digest(allContents);
+
+		// given:
+		var copy = subject.copy();
+		copy.setBytesHelper(getter);
+		copy.setAppendHelper(appender);
+
+		// when:
+		copy.append(file150, newContents);
+
+		// then:
+		assertArrayEquals(hashWithFileHash(allFileHash), copy.getHash().getValue());
+		verify(getter).allBytesFrom(subject.pathToContentsOf(file150));
+	}
+
+	@Test
+	void repeatedReadsAreServedFromCache() throws IOException {
+		// when:
+		var firstRead = subject.contentsOf(file150);
+		var secondRead = subject.contentsOf(file150);
+
+		// then:
+		assertArrayEquals(origContents, firstRead);
+		assertArrayEquals(origContents, secondRead);
+		assertNotSame(firstRead, secondRead);
+		verify(getter, times(1)).allBytesFrom(subject.pathToContentsOf(file150));
+	}
+
+	@Test
+	void putContentsAreServedFromCache() throws IOException {
+		// given:
+		subject.put(file150, newContents);
+
+		// expect:
+		assertArrayEquals(newContents, subject.contentsOf(file150));
+		verify(getter, never()).allBytesFrom(any());
+	}
+
+	@Test
+	void cachedContentsAreOnlyUsedIfHashMatches() throws IOException {
+		// setup:
+		var copy = subject.copy();
+		copy.setBytesHelper(getter);
+
+		// given:
+		copy.put(file150, newContents);
+
+		// when:
+		var contents = subject.contentsOf(file150);
+
+		// then:
+		assertArrayEquals(origContents, contents);
+		verify(getter).allBytesFrom(subject.pathToContentsOf(file150));
+	}
+
+	@Test
+	void tornReadIsReReadAndOnlyCachedOnceItMatchesTheHash() throws IOException {
+		// setup:
+		var torn = Arrays.copyOf(origContents, origContents.length / 2);
+
+		given(getter.allBytesFrom(subject.pathToContentsOf(file150))).willReturn(torn, origContents);
+
+		// when:
+		var firstRead = subject.contentsOf(file150);
+		var secondRead = subject.contentsOf(file150);
+
+		// then:
+		assertArrayEquals(origContents, firstRead);
+		assertArrayEquals(origContents, secondRead);
+		verify(getter, times(2)).allBytesFrom(subject.pathToContentsOf(file150));
+	}
+
+	@Test
+	void contentsNotMatchingTheHashAreNeverCached() throws IOException {
+		given(getter.allBytesFrom(subject.pathToContentsOf(file150))).willReturn(newContents);
+
+		// when:
+		var firstRead = subject.contentsOf(file150);
+		var secondRead = subject.contentsOf(file150);
+
+		// then:
+		assertArrayEquals(newContents, firstRead);
+		assertArrayEquals(newContents, secondRead);
+		verify(getter, times(4)).allBytesFrom(subject.pathToContentsOf(file150));
+	}
+
+	@Test
+	void largeContentsAreNotCached() throws IOException {
+		// setup:
+		var largeContents = new byte[MerkleDiskFs.MAX_CACHED_BYTES + 1];
+
+		// given:
+		subject.put(file150, largeContents);
+		given(getter.allBytesFrom(subject.pathToContentsOf(file150))).willReturn(largeContents);
+
+		// when:
+		subject.contentsOf(file150);
+		subject.contentsOf(file150);
+
+		// then:
+		verify(getter, times(2)).allBytesFrom(subject.pathToContentsOf(file150));
+	}
+
+	@Test
+	void hashFailureIsUnchecked() throws IOException {
+		// setup:
+		var hasher = mock(MerkleDiskFs.ThrowingHasher.class);
+		subject.setHashHelper(hasher);
+
+		given(hasher.sha384HashOf(any())).willThrow(IOException.class);
+
+		// expect:
+		assertThrows(UncheckedIOException.class, () -> subject.diskContentHash(file150));
+		assertThat(
+				logCaptor.errorLogs(),
+				contains(Matchers.startsWith("Not able to hash '0.0.150' @")));
+	}
+
+	@Test
+	void appendLogsErrorOnFailure() throws IOException {
+		// setup:
+		var appender = mock(MerkleDiskFs.ThrowingBytesWriter.class);
+		subject.setAppendHelper(appender);
+		var origHash = subject.getHash();
+
+		willThrow(IOException.class).given(appender).allBytesTo(any(), any());
+
+		// when:
+		subject.append(file150, newContents);
+
+		// then:
+		assertEquals(origHash, subject.getHash());
+		assertThat(
+				logCaptor.errorLogs(),
+				contains(Matchers.startsWith("Error appending new contents for '0.0.150' to disk @")));
+	}
+
 	@Test
 	public void fileNotExistNoDebug() throws IOException {
 		// setup:
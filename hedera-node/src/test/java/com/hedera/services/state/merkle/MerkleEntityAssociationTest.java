@@ -20,6 +20,7 @@ package com.hedera.services.state.merkle;
  * ‍
  */
 
+import com.hedera.services.store.models.Id;
 import com.swirlds.common.io.SerializableDataInputStream;
 import com.swirlds.common.io.SerializableDataOutputStream;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,12 +29,14 @@ import org.mockito.InOrder;
 
 import java.io.IOException;
 
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.codeFromIds;
 import static com.hedera.test.utils.IdUtils.asAccount;
 import static com.hedera.test.utils.IdUtils.asToken;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.inOrder;
@@ -85,6 +88,26 @@ class MerkleEntityAssociationTest {
 		assertEquals(
 				subject,
 				MerkleEntityAssociation.fromAccountTokenRel(asAccount("13.25.7"), asToken("31.52.0")));
+		assertEquals(
+				subject,
+				MerkleEntityAssociation.fromAccountTokenRel(new Id(13, 25, 7), new Id(31, 52, 0)));
+		assertEquals(
+				subject,
+				MerkleEntityAssociation.fromAccountCodeTokenRel(codeFromIds(13, 25, 7), asToken("31.52.0")));
+	}
+
+	@Test
+	public void relAndCodesRoundTrip() {
+		// when:
+		var rel = subject.asAccountTokenRel();
+
+		// then:
+		assertEquals(asAccount("13.25.7"), rel.getLeft());
+		assertEquals(asToken("31.52.0"), rel.getRight());
+		assertEquals(subject, MerkleEntityAssociation.fromAccountTokenRel(rel));
+		// and:
+		assertEquals(codeFromIds(fromShard, fromRealm, fromNum), subject.fromCode());
+		assertEquals(codeFromIds(toShard, toRealm, toNum), subject.toCode());
 	}
 
 	@Test
@@ -106,12 +129,8 @@ class MerkleEntityAssociationTest {
 		subject.serialize(out);
 
 		// then:
-		inOrder.verify(out).writeLong(fromShard);
-		inOrder.verify(out).writeLong(fromRealm);
-		inOrder.verify(out).writeLong(fromNum);
-		inOrder.verify(out).writeLong(toShard);
-		inOrder.verify(out).writeLong(toRealm);
-		inOrder.verify(out).writeLong(toNum);
+		inOrder.verify(out).writeLong(codeFromIds(fromShard, fromRealm, fromNum));
+		inOrder.verify(out).writeLong(codeFromIds(toShard, toRealm, toNum));
 	}
 
 	@Test
@@ -121,15 +140,43 @@ class MerkleEntityAssociationTest {
 		// and:
 		var defaultSubject = new MerkleEntityAssociation();
 
+		given(in.readLong())
+				.willReturn(codeFromIds(fromShard, fromRealm, fromNum))
+				.willReturn(codeFromIds(toShard, toRealm, toNum));
+
+		// when:
+		defaultSubject.deserialize(in, MerkleEntityAssociation.MERKLE_VERSION);
+
+		// then:
+		assertEquals(subject, defaultSubject);
+		assertEquals(subject.hashCode(), defaultSubject.hashCode());
+	}
+
+	@Test
+	public void deserializesPre0170Layout() throws IOException {
+		// setup:
+		var in = mock(SerializableDataInputStream.class);
+		// and:
+		var defaultSubject = new MerkleEntityAssociation();
+
 		given(in.readLong())
 				.willReturn(fromShard).willReturn(fromRealm).willReturn(fromNum)
 				.willReturn(toShard).willReturn(toRealm).willReturn(toNum);
 
 		// when:
-		defaultSubject.deserialize(in, MerkleEntityAssociation.MERKLE_VERSION);
+		defaultSubject.deserialize(in, MerkleEntityAssociation.PRE_RELEASE_0170_VERSION);
 
 		// then:
 		assertEquals(subject, defaultSubject);
+		assertEquals(subject.hashCode(), defaultSubject.hashCode());
+	}
+
+	@Test
+	public void rejectsUnpackableIds() {
+		// expect:
+		assertThrows(IllegalArgumentException.class, () -> new MerkleEntityAssociation(
+				fromShard, fromRealm, 1L << 32,
+				toShard, toRealm, toNum));
 	}
 
 	@Test
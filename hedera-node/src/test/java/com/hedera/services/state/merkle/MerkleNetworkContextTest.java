@@ -25,6 +25,7 @@ import com.hedera.services.state.serdes.DomainSerdes;
 import com.hedera.services.state.submerkle.ExchangeRates;
 import com.hedera.services.state.submerkle.SequenceNumber;
 import com.hedera.services.throttles.DeterministicThrottle;
+import com.hedera.services.throttles.GasLimitDeterministicThrottle;
 import com.hedera.services.throttling.FunctionalityThrottling;
 import com.hedera.test.extensions.LogCaptor;
 import com.hedera.test.extensions.LogCaptureExtension;
@@ -81,6 +82,7 @@ class MerkleNetworkContextTest {
 	private ExchangeRates midnightRateSetCopy;
 	private Instant[] congestionStarts;
 	private DeterministicThrottle.UsageSnapshot[] usageSnapshots;
+	private DeterministicThrottle.UsageSnapshot gasLimitUsageSnapshot;
 
 	private DomainSerdes serdes;
 	private FunctionalityThrottling throttling;
@@ -116,6 +118,8 @@ class MerkleNetworkContextTest {
 				new DeterministicThrottle.UsageSnapshot(
 						456L, consensusTimeOfLastHandledTxn.plusSeconds(1L))
 		};
+		gasLimitUsageSnapshot = new DeterministicThrottle.UsageSnapshot(
+				1234L, consensusTimeOfLastHandledTxn);
 
 		serdes = mock(DomainSerdes.class, RETURNS_DEEP_STUBS);
 		MerkleNetworkContext.serdes = serdes;
@@ -130,7 +134,8 @@ class MerkleNetworkContextTest {
 				stateVersion,
 				entitiesScannedThisSecond,
 				entitiesTouchedThisSecond,
-				lastMidnightBoundaryCheck);
+				lastMidnightBoundaryCheck,
+				gasLimitUsageSnapshot);
 	}
 
 	@AfterEach
@@ -150,6 +155,7 @@ class MerkleNetworkContextTest {
 		assertEquals(subjectCopy.lastScannedEntity(), subject.lastScannedEntity());
 		assertEquals(midnightRateSetCopy, subjectCopy.getMidnightRates());
 		assertSame(subjectCopy.getUsageSnapshots(), subject.getUsageSnapshots());
+		assertSame(subjectCopy.getGasThrottleUsageSnapshot(), subject.getGasThrottleUsageSnapshot());
 		assertSame(subjectCopy.getCongestionLevelStarts(), subject.getCongestionLevelStarts());
 		assertEquals(subjectCopy.getStateVersion(), stateVersion);
 		assertEquals(subjectCopy.getEntitiesScannedThisSecond(), entitiesScannedThisSecond);
@@ -207,6 +213,8 @@ class MerkleNetworkContextTest {
 				"    100 used (last decision time 1970-01-01T00:00:01.000000100Z)\n" +
 				"    200 used (last decision time 1970-01-01T00:00:02.000000200Z)\n" +
 				"    300 used (last decision time 1970-01-01T00:00:03.000000300Z)\n" +
+				"  Gas throttle usage snapshot is             :: 1234 used (last decision time " +
+				"1970-01-15T06:56:07.000054321Z)\n" +
 				"  Congestion level start times are           ::\n" +
 				"    1970-01-15T06:56:07.000054321Z\n" +
 				"    1970-01-15T06:59:49.000012345Z";
@@ -222,6 +230,8 @@ class MerkleNetworkContextTest {
 				"    100 used (last decision time 1970-01-01T00:00:01.000000100Z)\n" +
 				"    200 used (last decision time 1970-01-01T00:00:02.000000200Z)\n" +
 				"    300 used (last decision time 1970-01-01T00:00:03.000000300Z)\n" +
+				"  Gas throttle usage snapshot is             :: 1234 used (last decision time " +
+				"1970-01-15T06:56:07.000054321Z)\n" +
 				"  Congestion level start times are           ::\n" +
 				"    1970-01-15T06:56:07.000054321Z\n" +
 				"    1970-01-15T06:59:49.000012345Z";
@@ -238,6 +248,8 @@ class MerkleNetworkContextTest {
 				"    100 used (last decision time 1970-01-01T00:00:01.000000100Z)\n" +
 				"    200 used (last decision time 1970-01-01T00:00:02.000000200Z)\n" +
 				"    300 used (last decision time 1970-01-01T00:00:03.000000300Z)\n" +
+				"  Gas throttle usage snapshot is             :: 1234 used (last decision time " +
+				"1970-01-15T06:56:07.000054321Z)\n" +
 				"  Congestion level start times are           ::\n" +
 				"    1970-01-15T06:56:07.000054321Z\n" +
 				"    1970-01-15T06:59:49.000012345Z";
@@ -344,6 +356,68 @@ class MerkleNetworkContextTest {
 		assertArrayEquals(expectedSnapshots, subject.usageSnapshots());
 	}
 
+	@Test
+	void updatesGasThrottleSnapshotAsExpected() {
+		// setup:
+		var gasThrottle = new GasLimitDeterministicThrottle(1_000_000L);
+		gasThrottle.allow(consensusTimeOfLastHandledTxn, 5_000L);
+
+		throttling = mock(FunctionalityThrottling.class);
+
+		given(throttling.allActiveThrottles()).willReturn(Collections.emptyList());
+		given(throttling.gasLimitThrottle()).willReturn(gasThrottle);
+
+		// when:
+		subject.updateSnapshotsFrom(throttling);
+
+		// then:
+		assertEquals(gasThrottle.usageSnapshot(), subject.getGasThrottleUsageSnapshot());
+	}
+
+	@Test
+	void resetsGasThrottleFromSavedSnapshot() {
+		// setup:
+		var gasThrottle = new GasLimitDeterministicThrottle(1_000_000L);
+
+		throttling = mock(FunctionalityThrottling.class);
+
+		given(throttling.allActiveThrottles()).willReturn(Collections.emptyList());
+		given(throttling.gasLimitThrottle()).willReturn(gasThrottle);
+		// and:
+		subject.setUsageSnapshots(NO_SNAPSHOTS);
+
+		// when:
+		subject.resetThrottlingFromSavedSnapshots(throttling);
+
+		// then:
+		assertEquals(gasLimitUsageSnapshot, gasThrottle.usageSnapshot());
+	}
+
+	@Test
+	void warnsIfSavedGasSnapshotNotCompatibleWithActiveGasThrottle() {
+		// setup:
+		var gasThrottle = new GasLimitDeterministicThrottle(1_000L);
+		gasThrottle.allow(consensusTimeOfLastHandledTxn, 500L);
+		var compatibleSnapshot = gasThrottle.usageSnapshot();
+
+		throttling = mock(FunctionalityThrottling.class);
+
+		given(throttling.allActiveThrottles()).willReturn(Collections.emptyList());
+		given(throttling.gasLimitThrottle()).willReturn(gasThrottle);
+		// and:
+		subject.setUsageSnapshots(NO_SNAPSHOTS);
+		// and:
+		var desired = "Saved gas throttle usage snapshot was not compatible with the active gas throttle " +
+				"(Cannot use 1234 units in a bucket of capacity 1000!); not performing a reset!";
+
+		// when:
+		subject.resetThrottlingFromSavedSnapshots(throttling);
+
+		// then:
+		assertThat(logCaptor.warnLogs(), contains(desired));
+		assertEquals(compatibleSnapshot, gasThrottle.usageSnapshot());
+	}
+
 	@Test
 	void updatesCongestionStartsAsExpected() {
 		// setup:
@@ -607,6 +681,7 @@ class MerkleNetworkContextTest {
 		subject.deserialize(in, MerkleNetworkContext.RELEASE_0150_VERSION);
 
 		// then:
+		assertSame(MerkleNetworkContext.NO_GAS_THROTTLE_SNAPSHOT, subject.getGasThrottleUsageSnapshot());
 		assertEquals(lastMidnightBoundaryCheck, subject.lastMidnightBoundaryCheck());
 		assertEquals(consensusTimeOfLastHandledTxn, subject.getConsensusTimeOfLastHandledTxn());
 		assertEquals(entitiesScannedThisSecond, subject.getEntitiesScannedThisSecond());
@@ -621,6 +696,46 @@ class MerkleNetworkContextTest {
 		assertEquals(stateVersion, subject.getStateVersion());
 	}
 
+	@Test
+	void deserializeWorksFor0160() throws IOException {
+		// setup:
+		var in = mock(SerializableDataInputStream.class);
+		MerkleNetworkContext.ratesSupplier = () -> midnightRateSet;
+		MerkleNetworkContext.seqNoSupplier = () -> seqNo;
+
+		subject = new MerkleNetworkContext();
+
+		given(in.readInt())
+				.willReturn(usageSnapshots.length)
+				.willReturn(congestionStarts.length)
+				.willReturn(stateVersion);
+		given(in.readLong())
+				.willReturn(usageSnapshots[0].used())
+				.willReturn(usageSnapshots[1].used())
+				.willReturn(lastScannedEntity)
+				.willReturn(entitiesScannedThisSecond)
+				.willReturn(entitiesTouchedThisSecond)
+				.willReturn(gasLimitUsageSnapshot.used());
+		given(serdes.readNullableInstant(in))
+				.willReturn(fromJava(consensusTimeOfLastHandledTxn))
+				.willReturn(fromJava(usageSnapshots[0].lastDecisionTime()))
+				.willReturn(fromJava(usageSnapshots[1].lastDecisionTime()))
+				.willReturn(fromJava(congestionStarts[0]))
+				.willReturn(fromJava(congestionStarts[1]))
+				.willReturn(fromJava(lastMidnightBoundaryCheck))
+				.willReturn(fromJava(gasLimitUsageSnapshot.lastDecisionTime()));
+
+		// when:
+		subject.deserialize(in, MerkleNetworkContext.RELEASE_0160_VERSION);
+
+		// then:
+		assertEquals(gasLimitUsageSnapshot, subject.getGasThrottleUsageSnapshot());
+		assertEquals(lastMidnightBoundaryCheck, subject.lastMidnightBoundaryCheck());
+		assertArrayEquals(usageSnapshots, subject.usageSnapshots());
+		assertArrayEquals(congestionStarts(), subject.getCongestionLevelStarts());
+		assertEquals(stateVersion, subject.getStateVersion());
+	}
+
 	@Test
 	void deserializeWorksForNullInstants() throws IOException {
 		// setup:
@@ -700,6 +815,8 @@ class MerkleNetworkContextTest {
 		inOrder.verify(out).writeLong(entitiesTouchedThisSecond);
 		inOrder.verify(out).writeInt(stateVersion);
 		inOrder.verify(serdes).writeNullableInstant(fromJava(lastMidnightBoundaryCheck), out);
+		inOrder.verify(out).writeLong(gasLimitUsageSnapshot.used());
+		inOrder.verify(serdes).writeNullableInstant(fromJava(gasLimitUsageSnapshot.lastDecisionTime()), out);
 	}
 
 	@Test
@@ -20,6 +20,7 @@ package com.hedera.services.state.merkle;
  * ‍
  */
 
+import com.hedera.services.state.blobs.BlobBackend;
 import com.swirlds.blob.BinaryObject;
 import com.swirlds.blob.BinaryObjectStore;
 import com.swirlds.common.crypto.Hash;
@@ -31,7 +32,9 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
 
 import java.io.IOException;
+import java.security.MessageDigest;
 import java.util.Arrays;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
@@ -39,11 +42,13 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.any;
 import static org.mockito.BDDMockito.argThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.inOrder;
 import static org.mockito.BDDMockito.mock;
 import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.times;
 import static org.mockito.BDDMockito.verify;
 
 class MerkleOptionalBlobTest {
@@ -70,6 +75,7 @@ class MerkleOptionalBlobTest {
 	BinaryObject newDelegate;
 	BinaryObject stuffDelegate;
 	BinaryObject newStuffDelegate;
+	Consumer<BinaryObject> savePreparer;
 
 	MerkleOptionalBlob subject;
 
@@ -78,23 +84,27 @@ class MerkleOptionalBlobTest {
 		newDelegate = mock(BinaryObject.class);
 		stuffDelegate = mock(BinaryObject.class);
 		newStuffDelegate = mock(BinaryObject.class);
+		savePreparer = mock(Consumer.class);
 		given(stuffDelegate.toString()).willReturn(readableStuffDelegate);
 		given(stuffDelegate.getHash()).willReturn(stuffDelegateHash);
 		blobStore = mock(BinaryObjectStore.class);
 		given(blobStore.put(argThat((byte[] bytes) -> Arrays.equals(bytes, stuff)))).willReturn(stuffDelegate);
 		given(blobStore.put(argThat((byte[] bytes) -> Arrays.equals(bytes, newStuff)))).willReturn(newStuffDelegate);
 		given(blobStore.get(stuffDelegate)).willReturn(stuff);
+		given(blobStore.get(newStuffDelegate)).willReturn(newStuff);
 
 		MerkleOptionalBlob.blobSupplier = () -> newDelegate;
 		MerkleOptionalBlob.blobStoreSupplier = () -> blobStore;
+		MerkleOptionalBlob.savePreparer = savePreparer;
 
 		subject = new MerkleOptionalBlob(stuff);
 	}
 
 	@AfterEach
 	public void cleanup() {
-		MerkleOptionalBlob.blobSupplier = BinaryObject::new;
-		MerkleOptionalBlob.blobStoreSupplier = BinaryObjectStore::getInstance;
+		MerkleOptionalBlob.blobSupplier = BlobBackend::newBlob;
+		MerkleOptionalBlob.blobStoreSupplier = BlobBackend::store;
+		MerkleOptionalBlob.savePreparer = BlobBackend::prepareForSave;
 	}
 
 	@Test
@@ -154,7 +164,7 @@ class MerkleOptionalBlobTest {
 		assertEquals(MerkleOptionalBlob.RUNTIME_CONSTRUCTABLE_ID, subject.getClassId());
 		assertTrue(subject.isLeaf());
 		assertThrows(UnsupportedOperationException.class, () -> subject.setHash(null));
-		assertDoesNotThrow(() -> subject.serializeAbbreviated(null));
+		assertDoesNotThrow(() -> subject.serializeAbbreviated(mock(SerializableDataOutputStream.class)));
 	}
 
 	@Test
@@ -170,7 +180,7 @@ class MerkleOptionalBlobTest {
 		defaultSubject.deserialize(in, MerkleOptionalBlob.MERKLE_VERSION);
 
 		// then:
-		verify(newDelegate, never()).deserialize(in, MerkleOptionalBlob.MERKLE_VERSION);
+		verify(newDelegate, never()).deserialize(in, MerkleOptionalBlob.BLOB_VERSION);
 	}
 
 	@Test
@@ -211,7 +221,7 @@ class MerkleOptionalBlobTest {
 		subject.deserializeAbbreviated(in, stuffDelegateHash, MerkleOptionalBlob.MERKLE_VERSION);
 
 		// then:
-		verify(newDelegate).deserializeAbbreviated(in, stuffDelegateHash, MerkleOptionalBlob.MERKLE_VERSION);
+		verify(newDelegate).deserializeAbbreviated(in, stuffDelegateHash, MerkleOptionalBlob.BLOB_VERSION);
 	}
 
 	@Test
@@ -240,7 +250,192 @@ class MerkleOptionalBlobTest {
 		defaultSubject.deserialize(in, MerkleOptionalBlob.MERKLE_VERSION);
 
 		// then:
-		verify(newDelegate).deserialize(in, MerkleOptionalBlob.MERKLE_VERSION);
+		verify(newDelegate).deserialize(in, MerkleOptionalBlob.BLOB_VERSION);
+	}
+
+	@Test
+	void appendStoresOnlyNewBytesAndHashesFullContents() throws Exception {
+		// setup:
+		var allStuff = (new String(stuff) + new String(newStuff)).getBytes();
+		var allStuffHash = new Hash(MessageDigest.getInstance("SHA-384").digest(allStuff));
+
+		// when:
+		subject.append(newStuff);
+
+		// then:
+		assertEquals(2, subject.numChunks());
+		assertEquals(allStuffHash, subject.getHash());
+		assertEquals(allStuff.length, subject.getLength());
+		assertArrayEquals(allStuff, subject.getData());
+		// and:
+		verify(blobStore).put(argThat((byte[] bytes) -> Arrays.equals(bytes, newStuff)));
+		verify(blobStore, never()).put(argThat((byte[] bytes) -> Arrays.equals(bytes, allStuff)));
+	}
+
+	@Test
+	void appendToEmptyIsJustModify() {
+		// given:
+		subject = new MerkleOptionalBlob();
+
+		// when:
+		subject.append(newStuff);
+
+		// then:
+		assertEquals(1, subject.numChunks());
+		assertEquals(newStuffDelegate, subject.getDelegate());
+		assertEquals(newStuff.length, subject.getLength());
+	}
+
+	@Test
+	void appendRewritesAsSingleChunkAtMaxChunks() {
+		// given:
+		for (int i = 1; i < MerkleOptionalBlob.MAX_CHUNKS; i++) {
+			subject.append(newStuff);
+		}
+		// and:
+		assertEquals(MerkleOptionalBlob.MAX_CHUNKS, subject.numChunks());
+		given(blobStore.put(argThat((byte[] bytes) -> bytes.length > newStuff.length))).willReturn(newDelegate);
+
+		// when:
+		subject.append(newStuff);
+
+		// then:
+		assertEquals(1, subject.numChunks());
+		assertEquals(newDelegate, subject.getDelegate());
+		assertEquals(stuff.length + MerkleOptionalBlob.MAX_CHUNKS * newStuff.length, subject.getLength());
+		verify(stuffDelegate).release();
+		verify(newStuffDelegate, times(MerkleOptionalBlob.MAX_CHUNKS - 1)).release();
+	}
+
+	@Test
+	void serializeWorksWithChunks() throws IOException {
+		// setup:
+		var out = mock(SerializableDataOutputStream.class);
+		InOrder inOrder = inOrder(out, stuffDelegate, newStuffDelegate);
+
+		// given:
+		subject.append(newStuff);
+
+		// when:
+		subject.serialize(out);
+
+		// then:
+		inOrder.verify(out).writeBoolean(true);
+		inOrder.verify(stuffDelegate).serialize(out);
+		inOrder.verify(out).writeInt(1);
+		inOrder.verify(newStuffDelegate).serialize(out);
+		inOrder.verify(out).writeByteArray(subject.getHash().getValue());
+	}
+
+	@Test
+	void deserializeWorksWithChunks() throws IOException {
+		// setup:
+		var in = mock(SerializableDataInputStream.class);
+		var defaultSubject = new MerkleOptionalBlob();
+
+		given(in.readBoolean()).willReturn(true);
+		given(in.readInt()).willReturn(1);
+		given(in.readByteArray(MerkleOptionalBlob.HASH_BYTES)).willReturn(stuffDelegateHash.getValue());
+
+		// when:
+		defaultSubject.deserialize(in, MerkleOptionalBlob.MERKLE_VERSION);
+
+		// then:
+		verify(newDelegate, times(2)).deserialize(in, MerkleOptionalBlob.BLOB_VERSION);
+		assertEquals(2, defaultSubject.numChunks());
+		assertEquals(stuffDelegateHash, defaultSubject.getHash());
+	}
+
+	@Test
+	void deserializeOfPre0170VersionHasOneChunk() throws IOException {
+		// setup:
+		var in = mock(SerializableDataInputStream.class);
+		var defaultSubject = new MerkleOptionalBlob();
+
+		given(in.readBoolean()).willReturn(true);
+
+		// when:
+		defaultSubject.deserialize(in, MerkleOptionalBlob.PRE_RELEASE_0170_VERSION);
+		// and:
+		defaultSubject.deserializeAbbreviated(in, stuffDelegateHash, MerkleOptionalBlob.PRE_RELEASE_0170_VERSION);
+
+		// then:
+		verify(in, never()).readInt();
+		assertEquals(1, defaultSubject.numChunks());
+	}
+
+	@Test
+	void abbreviatedSerdesWorkWithChunks() throws IOException {
+		// setup:
+		var out = mock(SerializableDataOutputStream.class);
+		var in = mock(SerializableDataInputStream.class);
+		var otherHash = new Hash(new byte[MerkleOptionalBlob.HASH_BYTES]);
+		given(newStuffDelegate.getHash()).willReturn(otherHash);
+
+		// given:
+		subject.append(newStuff);
+		var hash = subject.getHash();
+		// and:
+		given(in.readInt()).willReturn(1);
+		given(in.readByteArray(MerkleOptionalBlob.HASH_BYTES))
+				.willReturn(stuffDelegateHash.getValue())
+				.willReturn(otherHash.getValue());
+
+		// when:
+		subject.serializeAbbreviated(out);
+		// and:
+		var defaultSubject = new MerkleOptionalBlob();
+		defaultSubject.deserializeAbbreviated(in, hash, MerkleOptionalBlob.MERKLE_VERSION);
+
+		// then:
+		verify(out).writeInt(1);
+		verify(out).writeByteArray(stuffDelegateHash.getValue());
+		verify(out).writeByteArray(otherHash.getValue());
+		// and:
+		verify(newDelegate).deserializeAbbreviated(in, stuffDelegateHash, MerkleOptionalBlob.BLOB_VERSION);
+		verify(newDelegate).deserializeAbbreviated(in, otherHash, MerkleOptionalBlob.BLOB_VERSION);
+		assertEquals(2, defaultSubject.numChunks());
+		assertEquals(hash, defaultSubject.getHash());
+	}
+
+	@Test
+	void abbreviatedSerializationPreparesEveryChunkForSave() throws IOException {
+		// given:
+		subject.append(newStuff);
+
+		// when:
+		subject.serializeAbbreviated(mock(SerializableDataOutputStream.class));
+
+		// then:
+		verify(savePreparer).accept(stuffDelegate);
+		verify(savePreparer).accept(newStuffDelegate);
+	}
+
+	@Test
+	void abbreviatedSerializationOfMissingBlobPreparesNothing() throws IOException {
+		// when:
+		new MerkleOptionalBlob().serializeAbbreviated(mock(SerializableDataOutputStream.class));
+
+		// then:
+		verify(savePreparer, never()).accept(any());
+	}
+
+	@Test
+	void copyWorksWithChunks() {
+		given(stuffDelegate.copy()).willReturn(stuffDelegate);
+		given(newStuffDelegate.copy()).willReturn(newStuffDelegate);
+
+		// given:
+		subject.append(newStuff);
+
+		// when:
+		var subjectCopy = subject.copy();
+		subjectCopy.append(stuff);
+
+		// then:
+		assertEquals(2, subject.numChunks());
+		assertEquals(3, subjectCopy.numChunks());
+		assertEquals(2 * stuff.length + newStuff.length, subjectCopy.getLength());
 	}
 
 	@Test
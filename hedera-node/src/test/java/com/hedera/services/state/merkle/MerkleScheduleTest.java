@@ -296,6 +296,7 @@ public class MerkleScheduleTest {
 		assertEquals(subject, other);
 		// and:
 		assertEquals(subject.hashCode(), other.hashCode());
+		assertEquals(subject.contentHash(), other.contentHash());
 	}
 
 	@Test
@@ -313,6 +314,7 @@ public class MerkleScheduleTest {
 		assertNotEquals(subject, other);
 		// and:
 		assertNotEquals(subject.hashCode(), other.hashCode());
+		assertNotEquals(subject.contentHash(), other.contentHash());
 	}
 
 	@Test
@@ -330,6 +332,7 @@ public class MerkleScheduleTest {
 		assertNotEquals(subject, other);
 		// and:
 		assertNotEquals(subject.hashCode(), other.hashCode());
+		assertNotEquals(subject.contentHash(), other.contentHash());
 	}
 
 	@Test
@@ -347,6 +350,7 @@ public class MerkleScheduleTest {
 		assertNotEquals(subject, other);
 		// and:
 		assertNotEquals(subject.hashCode(), other.hashCode());
+		assertNotEquals(subject.contentHash(), other.contentHash());
 	}
 
 	@Test
@@ -56,6 +56,7 @@ import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -215,6 +216,7 @@ class MerkleTokenTest {
 		// expect:
 		assertNotSame(copySubject, subject);
 		assertEquals(subject, copySubject);
+		assertSame(subject.customFeeSchedule(), copySubject.customFeeSchedule());
 	}
 
 	@Test
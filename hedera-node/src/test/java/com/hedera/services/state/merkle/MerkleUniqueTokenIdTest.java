@@ -22,6 +22,8 @@ package com.hedera.services.state.merkle;
 
 import com.hedera.services.state.submerkle.EntityId;
 import com.hedera.services.store.models.NftId;
+import com.hederahashgraph.api.proto.java.NftID;
+import com.hederahashgraph.api.proto.java.TokenID;
 import com.swirlds.common.io.SerializableDataInputStream;
 import com.swirlds.common.io.SerializableDataOutputStream;
 import org.junit.jupiter.api.AfterEach;
@@ -31,6 +33,7 @@ import org.mockito.InOrder;
 
 import java.io.IOException;
 
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.codeFromIds;
 import static com.hedera.services.state.submerkle.EntityId.MISSING_ENTITY_ID;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
@@ -39,6 +42,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 class MerkleUniqueTokenIdTest {
 	private MerkleUniqueTokenId subject;
@@ -120,7 +125,7 @@ class MerkleUniqueTokenIdTest {
 		subject.serialize(out);
 
 		// then:
-		inOrder.verify(out).writeSerializable(tokenId, true);
+		inOrder.verify(out).writeLong(codeFromIds(1, 2, 3));
 		inOrder.verify(out).writeLong(serialNumber);
 	}
 
@@ -129,8 +134,7 @@ class MerkleUniqueTokenIdTest {
 		// setup:
 		SerializableDataInputStream in = mock(SerializableDataInputStream.class);
 
-		given(in.readSerializable()).willReturn(tokenId);
-		given(in.readInt()).willReturn(serialNumber);
+		given(in.readLong()).willReturn(codeFromIds(1, 2, 3)).willReturn((long) serialNumber);
 
 		// and:
 		var read = new MerkleUniqueTokenId();
@@ -140,6 +144,35 @@ class MerkleUniqueTokenIdTest {
 
 		// then:
 		assertEquals(subject, read);
+		assertEquals(subject.hashCode(), read.hashCode());
+	}
+
+	@Test
+	void deserializesPre0170Layout() throws IOException {
+		// setup:
+		SerializableDataInputStream in = mock(SerializableDataInputStream.class);
+
+		given(in.readSerializable()).willReturn(tokenId);
+		given(in.readLong()).willReturn((long) serialNumber);
+
+		// and:
+		var read = new MerkleUniqueTokenId();
+
+		// when:
+		read.deserialize(in, MerkleUniqueTokenId.PRE_RELEASE_0170_VERSION);
+
+		// then:
+		assertEquals(subject, read);
+		verify(in, never()).readInt();
+	}
+
+	@Test
+	void gettersWork() {
+		// expect:
+		assertEquals(tokenId, subject.tokenId());
+		assertEquals(codeFromIds(1, 2, 3), subject.tokenCode());
+		assertEquals(serialNumber, subject.serialNumber());
+		assertEquals(new NftId(1, 2, 3, serialNumber), subject.asNftId());
 	}
 
 	@Test
@@ -160,5 +193,11 @@ class MerkleUniqueTokenIdTest {
 
 		// expect:
 		assertEquals(expected, MerkleUniqueTokenId.fromNftId(new NftId(0, 0, 1, 1)));
+		assertEquals(expected, MerkleUniqueTokenId.fromNftId(NftID.newBuilder()
+				.setTokenID(TokenID.newBuilder().setTokenNum(1))
+				.setSerialNumber(1)
+				.build()));
+		assertEquals(expected, MerkleUniqueTokenId.fromTokenAndSerial(
+				TokenID.newBuilder().setTokenNum(1).build(), 1));
 	}
 }
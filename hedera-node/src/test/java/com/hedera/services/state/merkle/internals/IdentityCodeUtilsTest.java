@@ -0,0 +1,91 @@
+package com.hedera.services.state.merkle.internals;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.junit.jupiter.api.Test;
+
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.MAX_NUM;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.MAX_REALM;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.MAX_SHARD;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.codeFromIds;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.isPackable;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.numFromCode;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.readableCode;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.realmFromCode;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.shardFromCode;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdentityCodeUtilsTest {
+	@Test
+	void codesRoundTrip() {
+		// given:
+		final var code = codeFromIds(1, 2, 3);
+
+		// expect:
+		assertEquals(1, shardFromCode(code));
+		assertEquals(2, realmFromCode(code));
+		assertEquals(3, numFromCode(code));
+		assertEquals("1.2.3", readableCode(code));
+	}
+
+	@Test
+	void extremesRoundTrip() {
+		// given:
+		final var code = codeFromIds(MAX_SHARD, MAX_REALM, MAX_NUM);
+
+		// expect:
+		assertEquals(MAX_SHARD, shardFromCode(code));
+		assertEquals(MAX_REALM, realmFromCode(code));
+		assertEquals(MAX_NUM, numFromCode(code));
+		assertEquals(-1L, code);
+	}
+
+	@Test
+	void distinctIdsHaveDistinctCodes() {
+		// expect:
+		assertNotEquals(codeFromIds(0, 1, 0), codeFromIds(0, 0, MAX_NUM));
+		assertNotEquals(codeFromIds(1, 0, 0), codeFromIds(0, 1, 0));
+	}
+
+	@Test
+	void rejectsUnpackableIds() {
+		// expect:
+		assertThrows(IllegalArgumentException.class, () -> codeFromIds(MAX_SHARD + 1, 0, 0));
+		assertThrows(IllegalArgumentException.class, () -> codeFromIds(0, MAX_REALM + 1, 0));
+		assertThrows(IllegalArgumentException.class, () -> codeFromIds(0, 0, MAX_NUM + 1));
+		assertThrows(IllegalArgumentException.class, () -> codeFromIds(0, 0, -1));
+	}
+
+	@Test
+	void recognizesPackableIds() {
+		// expect:
+		assertTrue(isPackable(0, 0, 0));
+		assertTrue(isPackable(MAX_SHARD, MAX_REALM, MAX_NUM));
+		assertFalse(isPackable(MAX_SHARD + 1, 0, 0));
+		assertFalse(isPackable(0, MAX_REALM + 1, 0));
+		assertFalse(isPackable(0, 0, MAX_NUM + 1));
+		assertFalse(isPackable(-1, 0, 0));
+	}
+}
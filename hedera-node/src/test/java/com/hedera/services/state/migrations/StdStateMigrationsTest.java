@@ -21,29 +21,161 @@ package com.hedera.services.state.migrations;
  */
 
 import com.hedera.services.context.ServicesContext;
+import com.hedera.services.contracts.persistence.BlobStoragePersistence;
+import com.hedera.services.contracts.persistence.SlotKeyedStoragePersistence;
+import com.hedera.services.state.merkle.MerkleContractSlot;
+import com.hedera.services.state.merkle.MerkleContractSlotId;
 import com.hedera.services.state.migration.StdStateMigrations;
+import com.hedera.services.state.submerkle.EntityId;
+import com.hedera.services.utils.EntityIdUtils;
 import com.hedera.services.utils.Pause;
+import com.swirlds.common.constructable.ClassConstructorPair;
+import com.swirlds.common.constructable.ConstructableRegistry;
+import com.swirlds.common.constructable.ConstructableRegistryException;
+import com.swirlds.fchashmap.FCOneToManyRelation;
+import com.swirlds.fcmap.FCMap;
+import com.swirlds.fcmap.internal.FCMLeaf;
+import org.ethereum.core.AccountState;
+import org.ethereum.datasource.StoragePersistence;
+import org.ethereum.datasource.inmem.HashMapDB;
+import org.ethereum.db.ServicesRepositoryRoot;
+import org.ethereum.vm.DataWord;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 
-import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static com.hedera.services.contracts.sources.AddressKeyedMapFactory.storageMapFrom;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.anyLong;
+import static org.mockito.BDDMockito.argThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.inOrder;
 import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.verifyNoInteractions;
 
 public class StdStateMigrationsTest {
+	private final byte[] aStorage = "A".getBytes();
+	private final byte[] bStorage = "B".getBytes();
+	private final byte[] aAddress = EntityIdUtils.asSolidityAddress(0, 0, 1001);
+
 	Pause pause;
 	ServicesContext ctx;
+	StoragePersistence storagePersistence;
+	Map<String, byte[]> blobStore;
 	StdStateMigrations subject;
 
 	@BeforeEach
 	private void setup() {
 		ctx = mock(ServicesContext.class);
 		pause = mock(Pause.class);
+		storagePersistence = mock(StoragePersistence.class);
+		blobStore = new HashMap<>();
+		given(ctx.blobStore()).willReturn(blobStore);
+		given(ctx.storagePersistence()).willReturn(storagePersistence);
+
 		subject = new StdStateMigrations(pause);
 	}
 
 	@Test
-	public void isNoop() {
-		// expect:
-		assertDoesNotThrow(() -> subject.runAllFor(ctx));
+	public void doesNothingWithoutLegacyStorage() {
+		// given:
+		blobStore.put("/0/s1001", "BYTECODE".getBytes());
+
+		// when:
+		subject.runAllFor(ctx);
+
+		// then:
+		verifyNoInteractions(storagePersistence);
+		assertTrue(blobStore.containsKey("/0/s1001"));
+	}
+
+	@Test
+	public void migratesLegacyStorageInAddressOrder() {
+		// setup:
+		InOrder inOrder = inOrder(storagePersistence);
+
+		// given:
+		blobStore.put("/0/d1002", bStorage);
+		blobStore.put("/0/d1001", aStorage);
+		blobStore.put("/0/s1001", "BYTECODE".getBytes());
+
+		// when:
+		subject.runAllFor(ctx);
+
+		// then:
+		inOrder.verify(storagePersistence).persist(
+				argThat((byte[] address) -> Arrays.equals(EntityIdUtils.asSolidityAddress(0, 0, 1001), address)),
+				argThat((byte[] storage) -> Arrays.equals(aStorage, storage)),
+				anyLong(),
+				anyLong());
+		inOrder.verify(storagePersistence).persist(
+				argThat((byte[] address) -> Arrays.equals(EntityIdUtils.asSolidityAddress(0, 0, 1002), address)),
+				argThat((byte[] storage) -> Arrays.equals(bStorage, storage)),
+				anyLong(),
+				anyLong());
+		// and:
+		assertEquals(Set.of("/0/s1001"), blobStore.keySet());
+	}
+
+	@Test
+	public void migratesStorageFlushedByRepository() throws ConstructableRegistryException {
+		// setup:
+		final var accounts = new HashMapDB<AccountState>();
+		final var slotStorage = slotKeyedStorage();
+		given(ctx.storagePersistence()).willReturn(slotStorage);
+
+		// given:
+		final var legacyRepository = repositoryWith(accounts, new BlobStoragePersistence(storageMapFrom(blobStore)));
+		legacyRepository.createAccount(aAddress);
+		legacyRepository.addStorageRow(aAddress, DataWord.of(2), DataWord.of(20));
+		legacyRepository.addStorageRow(aAddress, DataWord.of(1), DataWord.of(10));
+		assertTrue(legacyRepository.flushStorageCacheIfTotalSizeLessThan(1));
+		legacyRepository.flush();
+
+		// when:
+		subject.runAllFor(ctx);
+
+		// then:
+		assertFalse(blobStore.containsKey("/0/d1001"));
+		// and:
+		final var migratedRepository = repositoryWith(accounts, slotStorage);
+		assertEquals(DataWord.of(10), migratedRepository.getStorageValue(aAddress, DataWord.of(1)));
+		assertEquals(DataWord.of(20), migratedRepository.getStorageValue(aAddress, DataWord.of(2)));
+	}
+
+	@Test
+	public void failsNamingContractWithMalformedLegacyStorage() throws ConstructableRegistryException {
+		given(ctx.storagePersistence()).willReturn(slotKeyedStorage());
+		// and:
+		blobStore.put("/0/d1001", aStorage);
+
+		// when:
+		final var e = assertThrows(IllegalStateException.class, () -> subject.runAllFor(ctx));
+
+		// then:
+		assertTrue(e.getMessage().contains("0.0.1001"));
+		assertTrue(blobStore.containsKey("/0/d1001"));
+	}
+
+	private SlotKeyedStoragePersistence slotKeyedStorage() throws ConstructableRegistryException {
+		ConstructableRegistry.registerConstructable(
+				new ClassConstructorPair(FCMLeaf.class, FCMLeaf::new));
+		final FCMap<MerkleContractSlotId, MerkleContractSlot> slots = new FCMap<>();
+		final FCOneToManyRelation<EntityId, MerkleContractSlotId> slotAssociations = new FCOneToManyRelation<>();
+		return new SlotKeyedStoragePersistence(() -> slots, () -> slotAssociations);
+	}
+
+	private ServicesRepositoryRoot repositoryWith(HashMapDB<AccountState> accounts, StoragePersistence storage) {
+		final var repository = new ServicesRepositoryRoot(accounts, new HashMapDB<>());
+		repository.setStoragePersistence(storage);
+		return repository;
 	}
 }
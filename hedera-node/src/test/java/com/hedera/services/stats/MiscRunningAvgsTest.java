@@ -31,6 +31,7 @@ import static org.mockito.BDDMockito.argThat;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.mock;
 import static org.mockito.BDDMockito.verify;
+import static org.mockito.BDDMockito.verifyNoMoreInteractions;
 
 class MiscRunningAvgsTest {
 	double halfLife = 10.0;
@@ -59,6 +60,17 @@ class MiscRunningAvgsTest {
 		StatEntry waitMs = mock(StatEntry.class);
 		StatEntry queueSizes = mock(StatEntry.class);
 		StatEntry submitSizes = mock(StatEntry.class);
+		StatEntry exportMs = mock(StatEntry.class);
+		StatEntry dueAccounts = mock(StatEntry.class);
+		StatEntry touchedPerScanned = mock(StatEntry.class);
+		StatEntry slotsRead = mock(StatEntry.class);
+		StatEntry slotsWritten = mock(StatEntry.class);
+		StatEntry bytesWritten = mock(StatEntry.class);
+		StatEntry analysisHitRate = mock(StatEntry.class);
+		StatEntry analysisCacheBytes = mock(StatEntry.class);
+		StatEntry opsPerCall = mock(StatEntry.class);
+		StatEntry gasPerCall = mock(StatEntry.class);
+		StatEntry msPerCall = mock(StatEntry.class);
 
 		given(factory.from(
 				argThat(MiscRunningAvgs.Names.ACCOUNT_LOOKUP_RETRIES::equals),
@@ -76,6 +88,50 @@ class MiscRunningAvgsTest {
 				argThat(MiscRunningAvgs.Names.HANDLED_SUBMIT_MESSAGE_SIZE::equals),
 				argThat(MiscRunningAvgs.Descriptions.HANDLED_SUBMIT_MESSAGE_SIZE::equals),
 				argThat(subject.handledSubmitMessageSize::equals))).willReturn(submitSizes);
+		given(factory.from(
+				argThat(MiscRunningAvgs.Names.BALANCES_EXPORT_MS::equals),
+				argThat(MiscRunningAvgs.Descriptions.BALANCES_EXPORT_MS::equals),
+				argThat(subject.balancesExportMs::equals))).willReturn(exportMs);
+		given(factory.from(
+				argThat(MiscRunningAvgs.Names.AUTO_RENEW_DUE_ACCOUNTS::equals),
+				argThat(MiscRunningAvgs.Descriptions.AUTO_RENEW_DUE_ACCOUNTS::equals),
+				argThat(subject.autoRenewDueAccounts::equals))).willReturn(dueAccounts);
+		given(factory.from(
+				argThat(MiscRunningAvgs.Names.AUTO_RENEW_TOUCHED_PER_SCANNED::equals),
+				argThat(MiscRunningAvgs.Descriptions.AUTO_RENEW_TOUCHED_PER_SCANNED::equals),
+				argThat(subject.autoRenewTouchedPerScanned::equals))).willReturn(touchedPerScanned);
+		given(factory.from(
+				argThat(MiscRunningAvgs.Names.CONTRACT_SLOTS_READ::equals),
+				argThat(MiscRunningAvgs.Descriptions.CONTRACT_SLOTS_READ::equals),
+				argThat(subject.contractSlotsRead::equals))).willReturn(slotsRead);
+		given(factory.from(
+				argThat(MiscRunningAvgs.Names.CONTRACT_SLOTS_WRITTEN::equals),
+				argThat(MiscRunningAvgs.Descriptions.CONTRACT_SLOTS_WRITTEN::equals),
+				argThat(subject.contractSlotsWritten::equals))).willReturn(slotsWritten);
+		given(factory.from(
+				argThat(MiscRunningAvgs.Names.CONTRACT_STORAGE_BYTES_WRITTEN::equals),
+				argThat(MiscRunningAvgs.Descriptions.CONTRACT_STORAGE_BYTES_WRITTEN::equals),
+				argThat(subject.contractStorageBytesWritten::equals))).willReturn(bytesWritten);
+		given(factory.from(
+				argThat(MiscRunningAvgs.Names.BYTECODE_ANALYSIS_HIT_RATE::equals),
+				argThat(MiscRunningAvgs.Descriptions.BYTECODE_ANALYSIS_HIT_RATE::equals),
+				argThat(subject.bytecodeAnalysisHitRate::equals))).willReturn(analysisHitRate);
+		given(factory.from(
+				argThat(MiscRunningAvgs.Names.BYTECODE_ANALYSIS_CACHE_BYTES::equals),
+				argThat(MiscRunningAvgs.Descriptions.BYTECODE_ANALYSIS_CACHE_BYTES::equals),
+				argThat(subject.bytecodeAnalysisCacheBytes::equals))).willReturn(analysisCacheBytes);
+		given(factory.from(
+				argThat(MiscRunningAvgs.Names.EVM_OPS_PER_CALL::equals),
+				argThat(MiscRunningAvgs.Descriptions.EVM_OPS_PER_CALL::equals),
+				argThat(subject.evmOpsPerCall::equals))).willReturn(opsPerCall);
+		given(factory.from(
+				argThat(MiscRunningAvgs.Names.EVM_GAS_PER_CALL::equals),
+				argThat(MiscRunningAvgs.Descriptions.EVM_GAS_PER_CALL::equals),
+				argThat(subject.evmGasPerCall::equals))).willReturn(gasPerCall);
+		given(factory.from(
+				argThat(MiscRunningAvgs.Names.EVM_MS_PER_CALL::equals),
+				argThat(MiscRunningAvgs.Descriptions.EVM_MS_PER_CALL::equals),
+				argThat(subject.evmMsPerCall::equals))).willReturn(msPerCall);
 
 		// when:
 		subject.registerWith(platform);
@@ -85,6 +141,17 @@ class MiscRunningAvgsTest {
 		verify(platform).addAppStatEntry(waitMs);
 		verify(platform).addAppStatEntry(queueSizes);
 		verify(platform).addAppStatEntry(submitSizes);
+		verify(platform).addAppStatEntry(exportMs);
+		verify(platform).addAppStatEntry(dueAccounts);
+		verify(platform).addAppStatEntry(touchedPerScanned);
+		verify(platform).addAppStatEntry(slotsRead);
+		verify(platform).addAppStatEntry(slotsWritten);
+		verify(platform).addAppStatEntry(bytesWritten);
+		verify(platform).addAppStatEntry(analysisHitRate);
+		verify(platform).addAppStatEntry(analysisCacheBytes);
+		verify(platform).addAppStatEntry(opsPerCall);
+		verify(platform).addAppStatEntry(gasPerCall);
+		verify(platform).addAppStatEntry(msPerCall);
 	}
 
 	@Test
@@ -95,12 +162,34 @@ class MiscRunningAvgsTest {
 		StatsRunningAverage queueSize = mock(StatsRunningAverage.class);
 		StatsRunningAverage submitSizes = mock(StatsRunningAverage.class);
 		StatsRunningAverage hashS = mock(StatsRunningAverage.class);
+		StatsRunningAverage exportMs = mock(StatsRunningAverage.class);
+		StatsRunningAverage dueAccounts = mock(StatsRunningAverage.class);
+		StatsRunningAverage touchedPerScanned = mock(StatsRunningAverage.class);
+		StatsRunningAverage slotsRead = mock(StatsRunningAverage.class);
+		StatsRunningAverage slotsWritten = mock(StatsRunningAverage.class);
+		StatsRunningAverage bytesWritten = mock(StatsRunningAverage.class);
+		StatsRunningAverage analysisHitRate = mock(StatsRunningAverage.class);
+		StatsRunningAverage analysisCacheBytes = mock(StatsRunningAverage.class);
+		StatsRunningAverage opsPerCall = mock(StatsRunningAverage.class);
+		StatsRunningAverage gasPerCall = mock(StatsRunningAverage.class);
+		StatsRunningAverage msPerCall = mock(StatsRunningAverage.class);
 		// and:
 		subject.accountLookupRetries = retries;
 		subject.accountRetryWaitMs = waitMs;
 		subject.handledSubmitMessageSize = submitSizes;
 		subject.writeQueueSizeRecordStream = queueSize;
 		subject.hashQueueSizeRecordStream = hashS;
+		subject.balancesExportMs = exportMs;
+		subject.autoRenewDueAccounts = dueAccounts;
+		subject.autoRenewTouchedPerScanned = touchedPerScanned;
+		subject.contractSlotsRead = slotsRead;
+		subject.contractSlotsWritten = slotsWritten;
+		subject.contractStorageBytesWritten = bytesWritten;
+		subject.bytecodeAnalysisHitRate = analysisHitRate;
+		subject.bytecodeAnalysisCacheBytes = analysisCacheBytes;
+		subject.evmOpsPerCall = opsPerCall;
+		subject.evmGasPerCall = gasPerCall;
+		subject.evmMsPerCall = msPerCall;
 
 		// when:
 		subject.recordAccountLookupRetries(1);
@@ -108,6 +197,14 @@ class MiscRunningAvgsTest {
 		subject.recordHandledSubmitMessageSize(3);
 		subject.writeQueueSizeRecordStream(4);
 		subject.hashQueueSizeRecordStream(5);
+		subject.recordBalancesExportMs(6L);
+		subject.recordAutoRenewScan(8, 4, 1);
+		subject.recordAutoRenewScan(0, 0, 0);
+		subject.recordContractStorageAccess(9, 2, 128L);
+		subject.recordBytecodeAnalysisLookup(true);
+		subject.recordBytecodeAnalysisLookup(false);
+		subject.recordBytecodeAnalysisCacheBytes(1_024L);
+		subject.recordEvmCall(100L, 21_000L, 1.5);
 
 		// then:
 		verify(retries).recordValue(1.0);
@@ -115,5 +212,19 @@ class MiscRunningAvgsTest {
 		verify(submitSizes).recordValue(3.0);
 		verify(queueSize).recordValue(4.0);
 		verify(hashS).recordValue(5);
+		verify(exportMs).recordValue(6.0);
+		verify(dueAccounts).recordValue(8.0);
+		verify(dueAccounts).recordValue(0.0);
+		verify(touchedPerScanned).recordValue(0.25);
+		verifyNoMoreInteractions(touchedPerScanned);
+		verify(slotsRead).recordValue(9.0);
+		verify(slotsWritten).recordValue(2.0);
+		verify(bytesWritten).recordValue(128.0);
+		verify(analysisHitRate).recordValue(1.0);
+		verify(analysisHitRate).recordValue(0.0);
+		verify(analysisCacheBytes).recordValue(1_024.0);
+		verify(opsPerCall).recordValue(100.0);
+		verify(gasPerCall).recordValue(21_000.0);
+		verify(msPerCall).recordValue(1.5);
 	}
 }
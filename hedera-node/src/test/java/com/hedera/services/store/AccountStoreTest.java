@@ -23,6 +23,7 @@ package com.hedera.services.store;
 import com.hedera.services.context.properties.GlobalDynamicProperties;
 import com.hedera.services.exceptions.InvalidTransactionException;
 import com.hedera.services.exceptions.NegativeAccountBalanceException;
+import com.hedera.services.state.exports.BalanceChangeTracker;
 import com.hedera.services.state.merkle.MerkleAccount;
 import com.hedera.services.state.merkle.MerkleEntityId;
 import com.hedera.services.store.models.Account;
@@ -57,6 +58,8 @@ class AccountStoreTest {
 	@Mock
 	private GlobalDynamicProperties dynamicProperties;
 	@Mock
+	private BalanceChangeTracker balanceChangeTracker;
+	@Mock
 	private FCMap<MerkleEntityId, MerkleAccount> accounts;
 
 	private AccountStore subject;
@@ -65,7 +68,7 @@ class AccountStoreTest {
 	void setUp() {
 		setupAccounts();
 
-		subject = new AccountStore(validator, dynamicProperties, () -> accounts);
+		subject = new AccountStore(validator, dynamicProperties, () -> accounts, balanceChangeTracker);
 	}
 
 	/* --- Account loading --- */
@@ -128,6 +131,7 @@ class AccountStoreTest {
 		// then:
 		assertEquals(expectedReplacement, miscMerkleAccount);
 		verify(accounts, never()).replace(miscMerkleId, expectedReplacement);
+		verify(balanceChangeTracker).track(miscId.asGrpcAccount());
 		// and:
 		assertNotSame(miscMerkleAccount.tokens().getIds(), model.getAssociatedTokens());
 	}
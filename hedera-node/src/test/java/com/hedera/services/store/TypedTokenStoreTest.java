@@ -25,6 +25,7 @@ import com.hedera.services.ledger.accounts.BackingNfts;
 import com.hedera.services.ledger.accounts.BackingTokenRels;
 import com.hedera.services.legacy.core.jproto.JKey;
 import com.hedera.services.records.TransactionRecordService;
+import com.hedera.services.state.exports.BalanceChangeTracker;
 import com.hedera.services.state.merkle.MerkleEntityAssociation;
 import com.hedera.services.state.merkle.MerkleEntityId;
 import com.hedera.services.state.merkle.MerkleToken;
@@ -47,6 +48,7 @@ import com.swirlds.fcmap.FCMap;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -57,11 +59,13 @@ import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.INVALID_TOKEN_
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.TOKEN_NOT_ASSOCIATED_TO_ACCOUNT;
 import static com.hederahashgraph.api.proto.java.ResponseCodeEnum.TOKEN_WAS_DELETED;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -84,6 +88,8 @@ class TypedTokenStoreTest {
 	private BackingTokenRels backingTokenRels;
 	@Mock
 	private BackingNfts backingNfts;
+	@Mock
+	private BalanceChangeTracker balanceChangeTracker;
 
 	private TypedTokenStore subject;
 
@@ -101,7 +107,8 @@ class TypedTokenStoreTest {
 				() -> uniqueTokenAssociations,
 				() -> tokenRels,
 				backingTokenRels,
-				backingNfts);
+				backingNfts,
+				balanceChangeTracker);
 	}
 
 	/* --- Token relationship loading --- */
@@ -144,6 +151,7 @@ class TypedTokenStoreTest {
 		verify(tokenRels, never()).replace(miscTokenRelId, expectedReplacementTokenRel);
 		// and:
 		verify(transactionRecordService).includeChangesToTokenRel(modelTokenRel);
+		verify(balanceChangeTracker).track(miscId.asGrpcAccount());
 	}
 
 	@Test
@@ -171,6 +179,7 @@ class TypedTokenStoreTest {
 		verify(tokenRels).put(miscTokenRelId, expectedNewTokenRel);
 		// and:
 		verify(transactionRecordService).includeChangesToTokenRel(newTokenRel);
+		verify(balanceChangeTracker).track(miscId.asGrpcAccount());
 	}
 
 	/* --- Token loading --- */
@@ -282,10 +291,50 @@ class TypedTokenStoreTest {
 		verify(uniqueTokenAssociations).disassociate(new EntityId(modelToken.getId()), expectedPastUniqTokenId);
 		verify(uniqueTokenOwnerships).associate(treasuryId, expectedNewUniqTokenId);
 		verify(uniqueTokenOwnerships).disassociate(treasuryId, expectedPastUniqTokenId);
-		verify(backingNfts).addToExistingNfts(new NftId(0, 0, tokenNum, mintedSerialNo));
+		verify(backingNfts).addAllToExistingNfts(List.of(new NftId(0, 0, tokenNum, mintedSerialNo)));
 		verify(backingNfts).removeFromExistingNfts(new NftId(0, 0, tokenNum, burnedSerialNo));
 	}
 
+	@Test
+	void persistsMintedBatchWithSharedEntityIds() {
+		// setup:
+		final var nftMeta = "abcdefgh".getBytes();
+		final var creationTime = new RichInstant(1_234_567L, 8);
+		final var modelTreasuryId = new Id(0, 0, treasuryAccountNum);
+		final var tokenEntityId = new EntityId(0, 0, tokenNum);
+		final var uniqIdCaptor = ArgumentCaptor.forClass(MerkleUniqueTokenId.class);
+		final var uniqTokenCaptor = ArgumentCaptor.forClass(MerkleUniqueToken.class);
+
+		givenToken(merkleTokenId, merkleToken);
+		givenModifiableToken(merkleTokenId, merkleToken);
+
+		// given:
+		final var modelToken = subject.loadToken(tokenId);
+		modelToken.setTreasury(treasuryAccount);
+		for (long serialNo = 1; serialNo <= 3; serialNo++) {
+			modelToken.mintedUniqueTokens().add(
+					new UniqueToken(tokenId, serialNo, creationTime, modelTreasuryId, nftMeta));
+		}
+
+		// when:
+		subject.persistToken(modelToken);
+
+		// then:
+		verify(uniqueTokens, times(3)).put(uniqIdCaptor.capture(), uniqTokenCaptor.capture());
+		final var ids = uniqIdCaptor.getAllValues();
+		final var nfts = uniqTokenCaptor.getAllValues();
+		for (int i = 0; i < 3; i++) {
+			assertEquals(new MerkleUniqueTokenId(tokenEntityId, i + 1L), ids.get(i));
+			assertSame(nfts.get(0).getOwner(), nfts.get(i).getOwner());
+			verify(uniqueTokenAssociations).associate(tokenEntityId, ids.get(i));
+		}
+		assertEquals(new EntityId(0, 0, treasuryAccountNum), nfts.get(0).getOwner());
+		verify(backingNfts).addAllToExistingNfts(List.of(
+				new NftId(0, 0, tokenNum, 1L),
+				new NftId(0, 0, tokenNum, 2L),
+				new NftId(0, 0, tokenNum, 3L)));
+	}
+
 	private void givenRelationship(MerkleEntityAssociation anAssoc, MerkleTokenRelStatus aRelationship) {
 		given(tokenRels.get(anAssoc)).willReturn(aRelationship);
 	}
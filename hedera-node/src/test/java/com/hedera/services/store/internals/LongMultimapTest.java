@@ -0,0 +1,170 @@
+package com.hedera.services.store.internals;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LongMultimapTest {
+	private LongMultimap subject;
+
+	@BeforeEach
+	void setUp() {
+		subject = new LongMultimap();
+	}
+
+	@Test
+	void putsAndGetsSortedValues() {
+		// when:
+		assertTrue(subject.put(1L, 3L));
+		assertTrue(subject.put(1L, -1L));
+		assertTrue(subject.put(1L, 2L));
+		assertFalse(subject.put(1L, 2L));
+		// and:
+		assertTrue(subject.put(Long.MIN_VALUE, 0L));
+
+		// then:
+		assertArrayEquals(new long[] { -1L, 2L, 3L }, subject.get(1L));
+		assertArrayEquals(new long[] { 0L }, subject.get(Long.MIN_VALUE));
+		assertArrayEquals(new long[0], subject.get(2L));
+		// and:
+		assertEquals(2, subject.numKeys());
+		assertEquals(4, subject.numValues());
+		assertTrue(subject.contains(1L, 2L));
+		assertFalse(subject.contains(1L, 4L));
+		assertFalse(subject.contains(2L, 2L));
+	}
+
+	@Test
+	void getReturnsCopy() {
+		// given:
+		subject.put(1L, 2L);
+
+		// when:
+		subject.get(1L)[0] = 3L;
+
+		// then:
+		assertTrue(subject.contains(1L, 2L));
+	}
+
+	@Test
+	void removesValuesAndThenKey() {
+		// given:
+		subject.put(1L, 2L);
+		subject.put(1L, 3L);
+
+		// expect:
+		assertFalse(subject.remove(1L, 4L));
+		assertFalse(subject.remove(2L, 2L));
+		// and:
+		assertTrue(subject.remove(1L, 2L));
+		assertTrue(subject.containsKey(1L));
+		assertArrayEquals(new long[] { 3L }, subject.get(1L));
+		// and:
+		assertTrue(subject.remove(1L, 3L));
+		assertFalse(subject.containsKey(1L));
+		assertTrue(subject.isEmpty());
+		assertEquals(0, subject.numValues());
+	}
+
+	@Test
+	void clearEmptiesAndShrinks() {
+		// given:
+		for (long i = 0; i < 1_000; i++) {
+			subject.put(i, i);
+		}
+		final var grownBytes = subject.approxBytes();
+
+		// when:
+		subject.clear();
+
+		// then:
+		assertTrue(subject.isEmpty());
+		assertEquals(0, subject.numValues());
+		assertFalse(subject.containsKey(1L));
+		assertTrue(subject.approxBytes() < grownBytes);
+	}
+
+	@Test
+	void agreesWithBoxedMultimapUnderRandomOps() {
+		// setup:
+		final var random = new SplittableRandom(42);
+		final Map<Long, TreeSet<Long>> expected = new HashMap<>();
+
+		for (int i = 0; i < 100_000; i++) {
+			/* Few distinct keys with colliding low bits, to exercise probing and backward shifts. */
+			final long key = random.nextInt(512) * (1L << 32);
+			final long value = random.nextInt(8);
+			if (random.nextInt(3) < 2) {
+				assertEquals(expected.computeIfAbsent(key, ignore -> new TreeSet<>()).add(value), subject.put(key, value));
+			} else {
+				final var values = expected.get(key);
+				final var wasPresent = values != null && values.remove(value);
+				if (values != null && values.isEmpty()) {
+					expected.remove(key);
+				}
+				assertEquals(wasPresent, subject.remove(key, value));
+			}
+		}
+
+		// then:
+		assertEquals(expected.size(), subject.numKeys());
+		expected.forEach((key, values) ->
+				assertArrayEquals(values.stream().mapToLong(Long::longValue).toArray(), subject.get(key)));
+	}
+
+	@Test
+	void estimatesBytes() {
+		// given:
+		subject = new LongMultimap(100);
+
+		// when:
+		subject.put(1L, 2L);
+		subject.put(1L, 3L);
+
+		// then:
+		assertEquals(
+				2L * LongMultimap.ARRAY_HEADER_BYTES
+						+ 256L * (Long.BYTES + LongMultimap.REF_BYTES)
+						+ LongMultimap.ARRAY_HEADER_BYTES
+						+ 2L * Long.BYTES,
+				subject.approxBytes());
+	}
+
+	@Test
+	void sizesTableForExpectedKeys() {
+		// expect:
+		assertEquals(16, LongMultimap.capacityFor(0));
+		assertEquals(16, LongMultimap.capacityFor(8));
+		assertEquals(32, LongMultimap.capacityFor(9));
+		assertEquals(256, LongMultimap.capacityFor(100));
+	}
+}
@@ -53,6 +53,7 @@ import java.util.function.Consumer;
 
 import static com.hedera.services.ledger.properties.AccountProperty.IS_DELETED;
 import static com.hedera.services.state.merkle.MerkleEntityId.fromScheduleId;
+import static com.hedera.services.state.merkle.internals.IdentityCodeUtils.codeFromIds;
 import static com.hedera.services.state.submerkle.EntityId.fromGrpcAccountId;
 import static com.hedera.services.utils.MiscUtils.asKeyUnchecked;
 import static com.hedera.test.factories.scenarios.TxnHandlingScenario.SCHEDULE_ADMIN_KT;
@@ -108,6 +109,7 @@ public class HederaScheduleStoreTest {
 	EntityId entitySchedulingAccount = fromGrpcAccountId(schedulingAccount);
 
 	long expectedExpiry = 1_234_567L;
+	long contentHash = 1_234_567_890_123L;
 
 	HederaScheduleStore subject;
 
@@ -167,8 +169,6 @@ public class HederaScheduleStoreTest {
 				schedulingTXValidStart.toGrpc());
 		var expected = MerkleSchedule.from(parentTxn.toByteArray(), 0L);
 		ArgumentCaptor<BiConsumer<MerkleEntityId, MerkleSchedule>> captor = forClass(BiConsumer.class);
-		// and:
-		var expectedKey = expected.toContentAddressableView();
 
 		// when:
 		subject.rebuildViews();
@@ -183,10 +183,9 @@ public class HederaScheduleStoreTest {
 
 		// then:
 		var extant = subject.getExtantSchedules();
-		assertEquals(1, extant.size());
+		assertEquals(1, extant.numKeys());
 		// and:
-		assertTrue(extant.containsKey(expectedKey));
-		assertEquals(created, extant.get(expectedKey).toScheduleId());
+		assertTrue(extant.contains(expected.contentHash(), createdCode()));
 	}
 
 	@Test
@@ -202,15 +201,15 @@ public class HederaScheduleStoreTest {
 		subject.pendingId = created;
 		subject.pendingCreation = schedule;
 
-		given(schedule.toContentAddressableView()).willReturn(schedule);
+		given(schedule.contentHash()).willReturn(contentHash);
 
 		// when:
 		subject.commitCreation();
 
 		// then:
-		verify(schedule).toContentAddressableView();
+		verify(schedule).contentHash();
 		verify(schedules).put(fromScheduleId(created), schedule);
-		assertTrue(subject.getExtantSchedules().containsKey(schedule));
+		assertTrue(subject.getExtantSchedules().contains(contentHash, createdCode()));
 		// and:
 		assertSame(subject.pendingId, HederaScheduleStore.NO_PENDING_ID);
 		assertNull(subject.pendingCreation);
@@ -462,15 +461,37 @@ public class HederaScheduleStoreTest {
 				entitySchedulingAccount.toGrpcAccountId(),
 				schedulingTXValidStart.toGrpc());
 		var candSchedule = MerkleSchedule.from(parentTxn.toByteArray(), expectedExpiry);
-		var cav = candSchedule.toContentAddressableView();
+		var extant = MerkleSchedule.from(parentTxn.toByteArray(), expectedExpiry);
+		given(schedules.get(fromScheduleId(created))).willReturn(extant);
+
+		// given:
+		subject.getExtantSchedules().put(candSchedule.contentHash(), createdCode());
+
+		// when:
+		var scheduleIdPair = subject.lookupSchedule(parentTxn.toByteArray());
+
+		assertEquals(Pair.of(Optional.of(created), extant), scheduleIdPair);
+	}
+
+	@Test
+	public void ignoresContentHashCollisionWithUnequalSchedule() {
+		// setup:
+		var parentTxn = MerkleScheduleTest.scheduleCreateTxnWith(
+				asKeyUnchecked(adminJKey),
+				entityMemo,
+				entityPayer.toGrpcAccountId(),
+				entitySchedulingAccount.toGrpcAccountId(),
+				schedulingTXValidStart.toGrpc());
+		var candSchedule = MerkleSchedule.from(parentTxn.toByteArray(), 0L);
 
 		// given:
-		subject.getExtantSchedules().put(cav, fromScheduleId(created));
+		subject.getExtantSchedules().put(candSchedule.contentHash(), createdCode());
 
 		// when:
 		var scheduleIdPair = subject.lookupSchedule(parentTxn.toByteArray());
 
-		assertEquals(Pair.of(Optional.of(created), schedule), scheduleIdPair);
+		// then:
+		assertEquals(Pair.of(Optional.empty(), candSchedule), scheduleIdPair);
 	}
 
 	@Test
@@ -626,7 +647,8 @@ public class HederaScheduleStoreTest {
 	@Test
 	void expiresAsExpected() {
 		// setup:
-		subject.getExtantSchedules().put(schedule, fromScheduleId(created));
+		given(schedule.contentHash()).willReturn(contentHash);
+		subject.getExtantSchedules().put(contentHash, createdCode());
 
 		// when:
 		subject.expire(EntityId.fromGrpcScheduleId(created));
@@ -634,7 +656,7 @@ public class HederaScheduleStoreTest {
 		// then:
 		verify(schedules).remove(fromScheduleId(created));
 		// and:
-		assertFalse(subject.getExtantSchedules().containsKey(schedule));
+		assertFalse(subject.getExtantSchedules().containsKey(contentHash));
 	}
 
 	@Test
@@ -663,4 +685,8 @@ public class HederaScheduleStoreTest {
 		assertThrows(IllegalArgumentException.class,
 				() -> subject.expire(EntityId.fromGrpcScheduleId(subject.pendingId)));
 	}
+
+	private long createdCode() {
+		return codeFromIds(created.getShardNum(), created.getRealmNum(), created.getScheduleNum());
+	}
 }
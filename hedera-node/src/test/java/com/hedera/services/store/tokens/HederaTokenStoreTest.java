@@ -65,10 +65,8 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InOrder;
 import org.mockito.Mockito;
 
-import java.util.Arrays;
 import java.util.Collections;
 import java.util.EnumSet;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -416,9 +414,7 @@ class HederaTokenStoreTest {
 				nftsLedger);
 		subject.setAccountsLedger(accountsLedger);
 		subject.setHederaLedger(hederaLedger);
-		subject.knownTreasuries.put(treasury, new HashSet<>() {{
-			add(misc);
-		}});
+		subject.addKnownTreasury(treasury, misc);
 	}
 
 	@Test
@@ -426,7 +422,7 @@ class HederaTokenStoreTest {
 		// setup:
 		ArgumentCaptor<BiConsumer<MerkleEntityId, MerkleToken>> captor = forClass(BiConsumer.class);
 		// and:
-		subject.getKnownTreasuries().put(treasury, Set.of(anotherMisc));
+		subject.addKnownTreasury(treasury, anotherMisc);
 		// and:
 		final var deletedToken = new MerkleToken();
 		deletedToken.setDeleted(true);
@@ -446,10 +442,10 @@ class HederaTokenStoreTest {
 
 		// then:
 		final var extant = subject.getKnownTreasuries();
-		assertEquals(1, extant.size());
+		assertEquals(1, extant.numKeys());
 		// and:
-		assertTrue(extant.containsKey(treasury));
-		assertEquals(extant.get(treasury), Set.of(misc));
+		assertTrue(subject.isKnownTreasury(treasury));
+		assertEquals(List.of(misc), subject.listOfTokensServed(treasury));
 	}
 
 	@Test
@@ -1283,13 +1279,13 @@ class HederaTokenStoreTest {
 
 	@Test
 	void treasuryRemovalForTokenRemovesKeyWhenEmpty() {
-		Set<TokenID> tokenSet = new HashSet<>(Arrays.asList(misc));
-		subject.knownTreasuries.put(treasury, tokenSet);
+		subject.knownTreasuries.clear();
+		subject.addKnownTreasury(treasury, misc);
 
 		subject.removeKnownTreasuryForToken(treasury, misc);
 
 		// expect:
-		assertFalse(subject.knownTreasuries.containsKey(treasury));
+		assertFalse(subject.isKnownTreasury(treasury));
 		assertTrue(subject.knownTreasuries.isEmpty());
 	}
 
@@ -1298,27 +1294,24 @@ class HederaTokenStoreTest {
 		subject.addKnownTreasury(treasury, misc);
 
 		// expect:
-		assertTrue(subject.knownTreasuries.containsKey(treasury));
+		assertTrue(subject.isKnownTreasury(treasury));
 	}
 
 	@Test
 	void removeKnownTreasuryWorks() {
-		Set<TokenID> tokenSet = new HashSet<>(Arrays.asList(misc, anotherMisc));
-		subject.knownTreasuries.put(treasury, tokenSet);
+		subject.addKnownTreasury(treasury, anotherMisc);
 
 		subject.removeKnownTreasuryForToken(treasury, misc);
 
 		// expect:
-		assertTrue(subject.knownTreasuries.containsKey(treasury));
-		assertEquals(1, subject.knownTreasuries.size());
-		assertTrue(subject.knownTreasuries.get(treasury).contains(anotherMisc));
+		assertTrue(subject.isKnownTreasury(treasury));
+		assertEquals(1, subject.knownTreasuries.numKeys());
+		assertEquals(List.of(anotherMisc), subject.listOfTokensServed(treasury));
 	}
 
 	@Test
 	void isKnownTreasuryWorks() {
-		Set<TokenID> tokenSet = new HashSet<>(Arrays.asList(misc));
-
-		subject.knownTreasuries.put(treasury, tokenSet);
+		subject.addKnownTreasury(treasury, misc);
 
 		// expect:
 		assertTrue(subject.isKnownTreasury(treasury));
@@ -1326,15 +1319,13 @@ class HederaTokenStoreTest {
 
 	@Test
 	void treasuriesServeWorks() {
-		Set<TokenID> tokenSet = new HashSet<>(List.of(anotherMisc, misc));
-
-		subject.knownTreasuries.put(treasury, tokenSet);
+		subject.addKnownTreasury(treasury, anotherMisc);
 
 		// expect:
 		assertEquals(List.of(misc, anotherMisc), subject.listOfTokensServed(treasury));
 
 		// and when:
-		subject.knownTreasuries.remove(treasury);
+		subject.knownTreasuries.clear();
 
 		// then:
 		assertSame(Collections.emptyList(), subject.listOfTokensServed(treasury));
@@ -1342,14 +1333,28 @@ class HederaTokenStoreTest {
 
 	@Test
 	void isTreasuryForTokenWorks() {
-		Set<TokenID> tokenSet = new HashSet<>(Arrays.asList(misc));
-
-		subject.knownTreasuries.put(treasury, tokenSet);
+		subject.addKnownTreasury(treasury, misc);
 
 		// expect:
 		assertTrue(subject.isTreasuryForToken(treasury, misc));
 	}
 
+	@Test
+	void treasuryLookupsTreatUnpackableIdsAsUnknown() {
+		// setup:
+		final var unpackableAccount = AccountID.newBuilder().setAccountNum(-1).build();
+		final var unpackableToken = TokenID.newBuilder().setShardNum(1L << 16).build();
+
+		// given:
+		subject.addKnownTreasury(treasury, misc);
+
+		// expect:
+		assertFalse(subject.isKnownTreasury(unpackableAccount));
+		assertFalse(subject.isTreasuryForToken(unpackableAccount, misc));
+		assertFalse(subject.isTreasuryForToken(treasury, unpackableToken));
+		assertSame(Collections.emptyList(), subject.listOfTokensServed(unpackableAccount));
+	}
+
 	@Test
 	void isTreasuryForTokenReturnsFalse() {
 		// setup:
@@ -1379,8 +1384,6 @@ class HederaTokenStoreTest {
 	void updateHappyPathIgnoresZeroExpiry() {
 		// setup:
 		subject.addKnownTreasury(treasury, misc);
-		Set<TokenID> tokenSet = new HashSet<>();
-		tokenSet.add(misc);
 
 		givenUpdateTarget(ALL_KEYS);
 		// and:
@@ -1394,8 +1397,8 @@ class HederaTokenStoreTest {
 		assertEquals(OK, outcome);
 		verify(token, never()).setExpiry(anyLong());
 		// and:
-		assertFalse(subject.knownTreasuries.containsKey(treasury));
-		assertEquals(subject.knownTreasuries.get(newTreasury), tokenSet);
+		assertFalse(subject.isKnownTreasury(treasury));
+		assertEquals(List.of(misc), subject.listOfTokensServed(newTreasury));
 	}
 
 	@Test
@@ -1403,8 +1406,6 @@ class HederaTokenStoreTest {
 		// setup:
 		subject.addKnownTreasury(treasury, misc);
 
-		Set<TokenID> tokenSet = new HashSet<>();
-		tokenSet.add(misc);
 
 		givenUpdateTarget(EnumSet.noneOf(KeyType.class));
 		// and:
@@ -1422,8 +1423,6 @@ class HederaTokenStoreTest {
 		// setup:
 		subject.addKnownTreasury(treasury, misc);
 
-		Set<TokenID> tokenSet = new HashSet<>();
-		tokenSet.add(misc);
 
 		givenUpdateTarget(ALL_KEYS);
 		// and:
@@ -1448,8 +1447,8 @@ class HederaTokenStoreTest {
 		verify(token).setWipeKey(argThat((JKey k) -> JKey.equalUpToDecodability(k, newFcKey)));
 		verify(token).setFeeScheduleKey(argThat((JKey k) -> JKey.equalUpToDecodability(k, newFcKey)));
 		// and:
-		assertFalse(subject.knownTreasuries.containsKey(treasury));
-		assertEquals(subject.knownTreasuries.get(newTreasury), tokenSet);
+		assertFalse(subject.isKnownTreasury(treasury));
+		assertEquals(List.of(misc), subject.listOfTokensServed(newTreasury));
 	}
 
 	@Test
@@ -1784,7 +1783,8 @@ class HederaTokenStoreTest {
 		assertNull(subject.pendingCreation);
 		// and:
 		assertTrue(subject.isKnownTreasury(treasury));
-		assertEquals(Set.of(created, misc), subject.knownTreasuries.get(treasury));
+		assertTrue(subject.isTreasuryForToken(treasury, created));
+		assertTrue(subject.isTreasuryForToken(treasury, misc));
 	}
 
 	@Test
@@ -0,0 +1,204 @@
+package com.hedera.services.stream;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.google.protobuf.ByteString;
+import com.hederahashgraph.api.proto.java.AccountID;
+import com.hederahashgraph.api.proto.java.SignedTransaction;
+import com.hederahashgraph.api.proto.java.Timestamp;
+import com.hederahashgraph.api.proto.java.Transaction;
+import com.hederahashgraph.api.proto.java.TransactionID;
+import com.hederahashgraph.api.proto.java.TransactionRecord;
+import com.swirlds.common.crypto.DigestType;
+import com.swirlds.common.crypto.ImmutableHash;
+import com.swirlds.common.io.SelfSerializable;
+import com.swirlds.common.io.SerializableDataOutputStream;
+import com.swirlds.common.stream.TimestampStreamFileWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.hedera.services.stream.RecordStreamType.RECORD;
+import static com.swirlds.common.stream.LinkedObjectStreamUtilities.generateStreamFileNameFromInstant;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecordStreamIndexWriterTest {
+	private static final int SIGNATURE_BYTES = 384;
+	private static final long logPeriodMs = 2_000L;
+	private static final Instant firstWindow = Instant.ofEpochSecond(1_234_568L, 1);
+	private static final Instant secondWindow = Instant.ofEpochSecond(1_234_570L, 1);
+
+	@TempDir
+	Path dir;
+
+	private RecordStreamIndexWriter subject;
+
+	@BeforeEach
+	void setUp() {
+		subject = new RecordStreamIndexWriter(dir.toString(), logPeriodMs, false, RECORD);
+	}
+
+	@Test
+	void offsetsAndLengthsLocateObjectsInRecordStreamFile() throws Exception {
+		// setup:
+		final var objects = List.of(
+				objectAt(firstWindow, 2, "A"),
+				objectAt(firstWindow.plusNanos(1), 3, "BB"),
+				objectAt(firstWindow.plusNanos(2), 4, "CCCCCCCCCCCCCCCC"));
+		final var endRunningHash = new ImmutableHash(new byte[DigestType.SHA_384.digestLength()]);
+		final var recordFileWriter = new TimestampStreamFileWriter<RecordStreamObject>(
+				dir.toString(), logPeriodMs, data -> new byte[SIGNATURE_BYTES], false, RECORD);
+		recordFileWriter.setRunningHash(new ImmutableHash(new byte[DigestType.SHA_384.digestLength()]));
+
+		// when:
+		for (var object : objects) {
+			object.getRunningHash().setHash(endRunningHash);
+			recordFileWriter.addObject(object);
+			subject.addObject(object);
+		}
+		recordFileWriter.close();
+		subject.close();
+		// and:
+		final var recordFileBytes = Files.readAllBytes(
+				dir.resolve(generateStreamFileNameFromInstant(firstWindow, RECORD)));
+		final var entries = RecordStreamIndexEntry.readAllFrom(indexFileFor(firstWindow));
+
+		// then:
+		assertEquals(objects.size(), entries.size());
+		assertEquals(subject.getFirstObjectOffset(), entries.get(0).getOffset());
+		for (int i = 0; i < objects.size(); i++) {
+			final var record = objects.get(i).getTransactionRecord();
+			final var entry = entries.get(i);
+			final var from = (int) entry.getOffset();
+			assertArrayEquals(
+					serialized(objects.get(i)),
+					Arrays.copyOfRange(recordFileBytes, from, from + entry.getLength()));
+			assertEquals(objects.get(i).getTimestamp(), entry.getConsensusTimestamp());
+			assertEquals(record.getTransactionID().getAccountID(), entry.getPayer());
+			assertArrayEquals(record.getTransactionHash().toByteArray(), entry.getTxnHash());
+		}
+		// and:
+		final var last = entries.get(objects.size() - 1);
+		assertEquals(
+				recordFileBytes.length - serialized(endRunningHash).length,
+				last.getOffset() + last.getLength());
+	}
+
+	@Test
+	void startsNewIndexForEachRecordFileWindow() throws IOException {
+		// when:
+		subject.addObject(objectAt(firstWindow, 2, "A"));
+		subject.addObject(objectAt(secondWindow, 3, "B"));
+		subject.addObject(objectAt(secondWindow.plusNanos(1), 4, "C"));
+		subject.close();
+
+		// then:
+		final var firstEntries = RecordStreamIndexEntry.readAllFrom(indexFileFor(firstWindow));
+		final var secondEntries = RecordStreamIndexEntry.readAllFrom(indexFileFor(secondWindow));
+		assertEquals(1, firstEntries.size());
+		assertEquals(2, secondEntries.size());
+		assertEquals(subject.getFirstObjectOffset(), firstEntries.get(0).getOffset());
+		assertEquals(subject.getFirstObjectOffset(), secondEntries.get(0).getOffset());
+	}
+
+	@Test
+	void waitsForCompleteWindowIfRequested() throws IOException {
+		// given:
+		subject.setStartWriteAtCompleteWindow(true);
+
+		// when:
+		subject.addObject(objectAt(firstWindow, 2, "A"));
+		// then:
+		assertNull(subject.getIndexFile());
+
+		// and when:
+		subject.addObject(objectAt(secondWindow, 3, "B"));
+		subject.close();
+
+		// then:
+		assertTrue(subject.getStartWriteAtCompleteWindow());
+		assertFalse(indexFileFor(firstWindow).exists());
+		assertEquals(1, RecordStreamIndexEntry.readAllFrom(indexFileFor(secondWindow)).size());
+	}
+
+	@Test
+	void clearClosesCurrentIndexAndResetsWindow() throws IOException {
+		// given:
+		subject.addObject(objectAt(firstWindow, 2, "A"));
+
+		// when:
+		subject.clear();
+		subject.addObject(objectAt(firstWindow.plusNanos(1), 3, "B"));
+		subject.close();
+
+		// then:
+		final var entries = RecordStreamIndexEntry.readAllFrom(indexFileFor(firstWindow.plusNanos(1)));
+		assertEquals(1, entries.size());
+		assertEquals(subject.getFirstObjectOffset(), entries.get(0).getOffset());
+	}
+
+	private static byte[] serialized(SelfSerializable object) throws IOException {
+		final var baos = new ByteArrayOutputStream();
+		final var out = new SerializableDataOutputStream(baos);
+		out.writeSerializable(object, true);
+		out.flush();
+		return baos.toByteArray();
+	}
+
+	private File indexFileFor(Instant firstConsensusTime) {
+		return dir.resolve(generateStreamFileNameFromInstant(firstConsensusTime, RECORD)
+				+ RecordStreamIndexWriter.INDEX_FILE_SUFFIX).toFile();
+	}
+
+	private static RecordStreamObject objectAt(Instant consensusTime, long payerNum, String memo) {
+		final var txnId = TransactionID.newBuilder()
+				.setAccountID(AccountID.newBuilder().setAccountNum(payerNum))
+				.setTransactionValidStart(Timestamp.newBuilder().setSeconds(consensusTime.getEpochSecond() - 1));
+		final var record = TransactionRecord.newBuilder()
+				.setTransactionID(txnId)
+				.setTransactionHash(ByteString.copyFromUtf8(memo + "-hash"))
+				.setMemo(memo)
+				.setConsensusTimestamp(Timestamp.newBuilder()
+						.setSeconds(consensusTime.getEpochSecond())
+						.setNanos(consensusTime.getNano()))
+				.build();
+		final var txn = Transaction.newBuilder()
+				.setSignedTransactionBytes(SignedTransaction.newBuilder()
+						.setBodyBytes(ByteString.copyFromUtf8(memo))
+						.build()
+						.toByteString())
+				.build();
+		return new RecordStreamObject(record, txn, consensusTime);
+	}
+}
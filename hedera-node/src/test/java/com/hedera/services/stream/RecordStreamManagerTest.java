@@ -97,6 +97,7 @@ public class RecordStreamManagerTest {
 		given(disabledProps.isRecordStreamEnabled()).willReturn(false);
 		enabledProps = mock(NodeLocalProperties.class);
 		given(enabledProps.isRecordStreamEnabled()).willReturn(true);
+		given(enabledProps.isRecordStreamIndexEnabled()).willReturn(true);
 		configProps(disabledProps);
 		configProps(enabledProps);
 
@@ -129,8 +130,13 @@ public class RecordStreamManagerTest {
 		assertEquals(0, disableStreamingInstance.getHashQueueSize(), INITIALIZE_QUEUE_EMPTY);
 		assertEquals(0, disableStreamingInstance.getWriteQueueSize(), INITIALIZE_QUEUE_EMPTY);
 
+		assertNull(disableStreamingInstance.getIndexWriter(),
+				"When recordStreaming is disabled, indexWriter instance should be null");
+
 		assertNotNull(enableStreamingInstance.getStreamFileWriter(),
 				"When recordStreaming is enabled, streamFileWriter instance should not be null");
+		assertNotNull(enableStreamingInstance.getIndexWriter(),
+				"When recordStreaming and its index are enabled, indexWriter instance should not be null");
 		assertNotNull(enableStreamingInstance.getMultiStream(), INITIALIZE_NOT_NULL);
 		assertNotNull(enableStreamingInstance.getHashCalculator(), INITIALIZE_NOT_NULL);
 		assertEquals(0, enableStreamingInstance.getHashQueueSize(), INITIALIZE_QUEUE_EMPTY);
@@ -207,6 +213,8 @@ public class RecordStreamManagerTest {
 		enableStreamingInstance.setStartWriteAtCompleteWindow(startWriteAtCompleteWindow);
 		assertEquals(startWriteAtCompleteWindow,
 				enableStreamingInstance.getStreamFileWriter().getStartWriteAtCompleteWindow(), UNEXPECTED_VALUE);
+		assertEquals(startWriteAtCompleteWindow,
+				enableStreamingInstance.getIndexWriter().getStartWriteAtCompleteWindow(), UNEXPECTED_VALUE);
 	}
 
 	@Test
@@ -0,0 +1,91 @@
+package com.hedera.services.stream.replay;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import static java.util.stream.Collectors.toList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RecordStreamReplayTest {
+	@TempDir
+	Path dir;
+
+	@Test
+	void undoesScheduleTriggerTimeShift() {
+		// given:
+		final var recordTime = Instant.ofEpochSecond(1_234_567L, 890);
+
+		// expect:
+		assertEquals(recordTime.plusNanos(1), RecordStreamReplay.platformConsensusTimeOf(recordTime, true));
+		assertEquals(recordTime, RecordStreamReplay.platformConsensusTimeOf(recordTime, false));
+	}
+
+	@Test
+	void ordersOnlyRecordFilesChronologically() throws IOException {
+		// given:
+		for (var name : List.of(
+				"2021-01-12T19_44_32.000000000Z.rcd",
+				"2021-01-12T19_44_30.442332000Z.rcd",
+				"2021-01-12T19_44_30.442332000Z.rcd_sig",
+				"2021-01-12T19_44_30.442332000Z.rcd_idx")) {
+			Files.createFile(dir.resolve(name));
+		}
+
+		// when:
+		final var names = RecordStreamReplay.orderedRecordFilesIn(dir.toFile()).stream()
+				.map(File::getName)
+				.collect(toList());
+
+		// then:
+		assertEquals(List.of(
+				"2021-01-12T19_44_30.442332000Z.rcd",
+				"2021-01-12T19_44_32.000000000Z.rcd"), names);
+	}
+
+	@Test
+	void rejectsMissingDir() {
+		// expect:
+		assertThrows(IllegalArgumentException.class,
+				() -> RecordStreamReplay.orderedRecordFilesIn(dir.resolve("nowhere").toFile()));
+	}
+
+	@Test
+	void disablesRecordStreamWritingDuringReplay() {
+		// when:
+		final var props = RecordStreamReplay.replayPropertySources().asResolvingSource();
+
+		// then:
+		assertFalse(props.getBooleanProperty("hedera.recordStream.isEnabled"));
+		assertFalse(props.getBooleanProperty("hedera.recordStream.index.isEnabled"));
+		assertEquals(5000, props.getIntProperty("hedera.recordStream.queueCapacity"));
+	}
+}
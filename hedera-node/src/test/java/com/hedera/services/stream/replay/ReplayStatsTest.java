@@ -0,0 +1,75 @@
+package com.hedera.services.stream.replay;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.ConsensusSubmitMessage;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.CryptoTransfer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayStatsTest {
+	private ReplayStats subject;
+
+	@BeforeEach
+	void setUp() {
+		subject = new ReplayStats();
+	}
+
+	@Test
+	void computesTpsFromHandleTimeOnly() {
+		// given:
+		subject.recordHandle(CryptoTransfer, 250_000_000L);
+		subject.recordHandle(CryptoTransfer, 250_000_000L);
+		subject.recordHandle(ConsensusSubmitMessage, 500_000_000L);
+
+		// expect:
+		assertEquals(3, subject.numHandled());
+		assertEquals(3.0, subject.handleTps());
+	}
+
+	@Test
+	void hasZeroTpsWithNothingHandled() {
+		// expect:
+		assertEquals(0.0, subject.handleTps());
+	}
+
+	@Test
+	void summarizesPerFunctionAndRecordOutcomes() {
+		// given:
+		subject.recordHandle(CryptoTransfer, 1_000L);
+		subject.recordHandle(CryptoTransfer, 3_000L);
+		subject.recordMatch();
+		subject.recordMismatch();
+		subject.recordUncompared();
+
+		// when:
+		final var summary = subject.summary(1_000_000L);
+
+		// then:
+		assertEquals(1, subject.numMismatchedRecords());
+		assertTrue(summary.contains("Replayed 2 transactions"));
+		assertTrue(summary.contains("1 matched, 1 mismatched, 1 not compared"));
+		assertTrue(summary.matches("(?s).*CryptoTransfer\\s+2\\s+2\\.0\\s+3\\.0.*"));
+	}
+}
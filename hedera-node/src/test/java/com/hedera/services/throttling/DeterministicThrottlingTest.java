@@ -20,13 +20,22 @@ package com.hedera.services.throttling;
  * ‍
  */
 
+import com.hedera.services.config.MockGlobalDynamicProps;
+import com.hedera.services.context.properties.GlobalDynamicProperties;
 import com.hedera.services.throttles.BucketThrottle;
 import com.hedera.services.throttles.DeterministicThrottle;
+import com.hedera.services.utils.SignedTxnAccessor;
+import com.hedera.services.utils.TxnAccessor;
 import com.hedera.test.extensions.LogCaptor;
 import com.hedera.test.extensions.LogCaptureExtension;
 import com.hedera.test.extensions.LoggingSubject;
 import com.hedera.test.utils.SerdeUtils;
+import com.hederahashgraph.api.proto.java.ContractCallTransactionBody;
+import com.hederahashgraph.api.proto.java.ContractCreateTransactionBody;
+import com.hederahashgraph.api.proto.java.CryptoTransferTransactionBody;
 import com.hederahashgraph.api.proto.java.HederaFunctionality;
+import com.hederahashgraph.api.proto.java.Transaction;
+import com.hederahashgraph.api.proto.java.TransactionBody;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -49,9 +58,14 @@ import static org.hamcrest.collection.IsIterableContainingInOrder.contains;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.never;
+import static org.mockito.BDDMockito.verify;
 
 @ExtendWith({MockitoExtension.class, LogCaptureExtension.class})
 class DeterministicThrottlingTest {
@@ -65,6 +79,8 @@ class DeterministicThrottlingTest {
 
 	@Mock
 	ThrottleReqsManager manager;
+	@Mock
+	GlobalDynamicProperties dynamicProperties;
 
 	@BeforeEach
 	void setUp() {
@@ -175,6 +191,164 @@ class DeterministicThrottlingTest {
 		assertThrows(UnsupportedOperationException.class, () -> subject.shouldThrottle(CryptoTransfer));
 	}
 
+	@Test
+	void rejectsContractCallsBeyondGasCapacity() throws IOException {
+		// setup:
+		subject = new DeterministicThrottling(() -> n, new MockGlobalDynamicProps());
+		subject.rebuildFor(SerdeUtils.pojoDefs("bootstrap/throttles.json"));
+
+		// expect:
+		assertFalse(subject.shouldThrottleTxn(contractCallWithGas(7_000_000L), consensusNow));
+		assertTrue(subject.shouldThrottleTxn(contractCallWithGas(1_000_000L), consensusNow));
+		// and:
+		assertEquals(7_500_000L, subject.gasLimitThrottle().capacity());
+		assertEquals(7_000_000L, subject.gasLimitThrottle().used());
+		assertEquals(BucketThrottle.capacityUnitsPerTxn(), subject.activeThrottlesFor(ContractCall).get(1).used());
+	}
+
+	@Test
+	void chargesFunctionReqsOfGasRejectedTxnsAtConsensus() throws IOException {
+		// setup:
+		subject = new DeterministicThrottling(() -> n, new MockGlobalDynamicProps(), true);
+		subject.rebuildFor(SerdeUtils.pojoDefs("bootstrap/throttles.json"));
+		// and:
+		var sharedWithCryptoTransfer = subject.activeThrottlesFor(CryptoTransfer).get(0);
+
+		// when:
+		var ans = subject.shouldThrottleTxn(contractCallWithGas(8_000_000L), consensusNow);
+
+		// then:
+		assertTrue(ans);
+		assertEquals(0L, subject.gasLimitThrottle().used());
+		// and:
+		assertSame(sharedWithCryptoTransfer, subject.activeThrottlesFor(ContractCall).get(0));
+		assertEquals(2500 * BucketThrottle.capacityUnitsPerTxn(), sharedWithCryptoTransfer.used());
+		assertEquals(BucketThrottle.capacityUnitsPerTxn(), subject.activeThrottlesFor(ContractCall).get(1).used());
+	}
+
+	@Test
+	void doesNotChargeFunctionReqsOfGasRejectedTxnsAtIngress() throws IOException {
+		// setup:
+		subject = new DeterministicThrottling(() -> n, new MockGlobalDynamicProps());
+		subject.rebuildFor(SerdeUtils.pojoDefs("bootstrap/throttles.json"));
+
+		// when:
+		var ans = subject.shouldThrottleTxn(contractCallWithGas(8_000_000L), consensusNow);
+
+		// then:
+		assertTrue(ans);
+		assertEquals(0L, subject.activeThrottlesFor(CryptoTransfer).get(0).used());
+		assertEquals(0L, subject.activeThrottlesFor(ContractCall).get(1).used());
+	}
+
+	@Test
+	void reclaimsGasIfFunctionIsThrottled() {
+		// setup:
+		subject = new DeterministicThrottling(() -> n, new MockGlobalDynamicProps());
+		subject.setFunctionReqs(reqsManagerFor(ContractCall));
+
+		given(manager.allReqsMetAt(consensusNow)).willReturn(false);
+
+		// when:
+		var ans = subject.shouldThrottleTxn(contractCallWithGas(1_000_000L), consensusNow);
+
+		// then:
+		assertTrue(ans);
+		assertEquals(0L, subject.gasLimitThrottle().used());
+	}
+
+	@Test
+	void ignoresGasIfThrottlingByGasIsDisabled() {
+		// setup:
+		subject = new DeterministicThrottling(() -> n, dynamicProperties);
+		subject.setFunctionReqs(reqsManagerFor(ContractCall));
+
+		given(dynamicProperties.shouldThrottleByGas()).willReturn(false);
+		given(manager.allReqsMetAt(consensusNow)).willReturn(true);
+
+		// expect:
+		assertFalse(subject.shouldThrottleTxn(contractCallWithGas(Long.MAX_VALUE), consensusNow));
+		verify(dynamicProperties, never()).maxGasPerSec();
+	}
+
+	@Test
+	void onlyConsultsFunctionReqsForGaslessTxns() {
+		// setup:
+		subject = new DeterministicThrottling(() -> n, dynamicProperties);
+		subject.setFunctionReqs(reqsManager());
+
+		given(manager.allReqsMetAt(consensusNow)).willReturn(true);
+
+		// expect:
+		assertFalse(subject.shouldThrottleTxn(cryptoTransfer(), consensusNow));
+		assertTrue(subject.shouldThrottleTxn(contractCallWithGas(1L), consensusNow));
+		verify(dynamicProperties, never()).shouldThrottleByGas();
+	}
+
+	@Test
+	void rebuildsGasThrottleOnlyIfCapacityChanges() {
+		// setup:
+		subject = new DeterministicThrottling(() -> n, new MockGlobalDynamicProps());
+
+		// given:
+		var first = subject.gasLimitThrottle();
+
+		// expect:
+		assertSame(first, subject.gasLimitThrottle());
+
+		// and when:
+		n = 3;
+		var second = subject.gasLimitThrottle();
+
+		// then:
+		assertNotSame(first, second);
+		assertEquals(5_000_000L, second.capacity());
+		assertThat(logCaptor.infoLogs(), contains(
+				"Resolved gas throttle (after splitting capacity 2 ways) - 7500000 gas/sec",
+				"Resolved gas throttle (after splitting capacity 3 ways) - 5000000 gas/sec"));
+	}
+
+	@Test
+	void hasNoGasThrottleWithoutProperties() {
+		// expect:
+		assertNull(subject.gasLimitThrottle());
+	}
+
+	@Test
+	void extractsGasLimitsOnlyForContractTxns() {
+		// expect:
+		assertEquals(123L, DeterministicThrottling.gasLimitOf(contractCallWithGas(123L)));
+		assertEquals(456L, DeterministicThrottling.gasLimitOf(contractCreateWithGas(456L)));
+		assertEquals(0L, DeterministicThrottling.gasLimitOf(cryptoTransfer()));
+	}
+
+	private TxnAccessor contractCallWithGas(long gas) {
+		return accessorOf(TransactionBody.newBuilder()
+				.setContractCall(ContractCallTransactionBody.newBuilder().setGas(gas)));
+	}
+
+	private TxnAccessor contractCreateWithGas(long gas) {
+		return accessorOf(TransactionBody.newBuilder()
+				.setContractCreateInstance(ContractCreateTransactionBody.newBuilder().setGas(gas)));
+	}
+
+	private TxnAccessor cryptoTransfer() {
+		return accessorOf(TransactionBody.newBuilder()
+				.setCryptoTransfer(CryptoTransferTransactionBody.getDefaultInstance()));
+	}
+
+	private TxnAccessor accessorOf(TransactionBody.Builder body) {
+		return SignedTxnAccessor.uncheckedFrom(Transaction.newBuilder()
+				.setBodyBytes(body.build().toByteString())
+				.build());
+	}
+
+	private EnumMap<HederaFunctionality, ThrottleReqsManager> reqsManagerFor(HederaFunctionality function) {
+		EnumMap<HederaFunctionality, ThrottleReqsManager> opsManagers = new EnumMap<>(HederaFunctionality.class);
+		opsManagers.put(function, manager);
+		return opsManagers;
+	}
+
 	private EnumMap<HederaFunctionality, ThrottleReqsManager> reqsManager() {
 		EnumMap<HederaFunctionality, ThrottleReqsManager> opsManagers = new EnumMap<>(HederaFunctionality.class);
 		opsManagers.put(CryptoTransfer, manager);
@@ -21,6 +21,7 @@ package com.hedera.services.throttling;
  */
 
 import com.hedera.services.sysfiles.domain.throttling.ThrottleDefinitions;
+import com.hedera.services.utils.TxnAccessor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -39,6 +40,8 @@ import static org.mockito.Mockito.verify;
 class HapiThrottlingTest {
 	@Mock
 	TimedFunctionalityThrottling delegate;
+	@Mock
+	TxnAccessor accessor;
 
 	HapiThrottling subject;
 
@@ -59,11 +62,24 @@ class HapiThrottlingTest {
 		verify(delegate).shouldThrottle(eq(CryptoTransfer), any());
 	}
 
+	@Test
+	void delegatesTxnWithSomeInstant() {
+		given(delegate.shouldThrottleTxn(any(), any())).willReturn(true);
+
+		// when:
+		var ans = subject.shouldThrottleTxn(accessor);
+
+		// then:
+		assertTrue(ans);
+		verify(delegate).shouldThrottleTxn(eq(accessor), any());
+	}
+
 	@Test
 	void unsupportedMethodsThrow() {
 		// expect:
 		assertThrows(UnsupportedOperationException.class, () -> subject.activeThrottlesFor(null));
 		assertThrows(UnsupportedOperationException.class, () -> subject.allActiveThrottles());
+		assertThrows(UnsupportedOperationException.class, () -> subject.gasLimitThrottle());
 	}
 
 	@Test
@@ -22,16 +22,20 @@ package com.hedera.services.throttling;
 
 import com.hedera.services.throttles.BucketThrottle;
 import com.hedera.services.throttles.DeterministicThrottle;
+import com.sun.management.ThreadMXBean;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.lang.management.ManagementFactory;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 class ThrottleReqsManagerTest {
 	int aReq = 1, bReq = 51;
@@ -83,6 +87,28 @@ class ThrottleReqsManagerTest {
 				b.usageSnapshot().used());
 	}
 
+	@Test
+	void decidesTheSameAtEpochNanos() {
+		// given:
+		a.allow(aReq, lastDecision);
+		b.allow(bReq, lastDecision);
+
+		// when:
+		var result = subject.allReqsMetAt(DeterministicThrottle.epochNanosOf(now));
+
+		// then:
+		assertFalse(result);
+		assertEquals(now, a.usageSnapshot().lastDecisionTime());
+		assertEquals(now, b.usageSnapshot().lastDecisionTime());
+	}
+
+	@Test
+	void managesThrottlesInRequirementOrder() {
+		// expect:
+		assertEquals(List.of(a, b), subject.managedThrottles());
+		assertEquals("min{2.00 tps (null), 1.96 tps (null)}", subject.asReadableRequirements());
+	}
+
 	@Test
 	void getsExpectedUsage() {
 		// setup:
@@ -102,4 +128,43 @@ class ThrottleReqsManagerTest {
 		assertEquals(aReq * BucketThrottle.capacityUnitsPerTxn(), aUsage.used());
 		assertEquals(bReq * BucketThrottle.capacityUnitsPerTxn(), bUsage.used());
 	}
+
+	@Test
+	void decidesAtEpochNanosWithoutAllocating() {
+		// setup:
+		var mxBean = ManagementFactory.getThreadMXBean();
+		assumeTrue(mxBean instanceof ThreadMXBean);
+		var threadMxBean = (ThreadMXBean) mxBean;
+		assumeTrue(threadMxBean.isThreadAllocatedMemorySupported());
+		threadMxBean.setThreadAllocatedMemoryEnabled(true);
+		var threadId = Thread.currentThread().getId();
+		// and:
+		int numThrottles = 8, numDecisions = 100_000;
+		List<Pair<DeterministicThrottle, Integer>> reqs = new ArrayList<>();
+		for (int i = 0; i < numThrottles; i++) {
+			reqs.add(Pair.of(DeterministicThrottle.withTpsAndBurstPeriod(10_000 * (i + 1), 1), i + 1));
+		}
+		var manyReqsSubject = new ThrottleReqsManager(reqs);
+		var nowNanos = DeterministicThrottle.epochNanosOf(now);
+
+		// given:
+		for (int i = 0; i < numDecisions; i++) {
+			manyReqsSubject.allReqsMetAt(nowNanos + i * 1_000L);
+		}
+		nowNanos += numDecisions * 1_000L;
+		// and:
+		var overhead = threadMxBean.getThreadAllocatedBytes(threadId);
+		overhead = threadMxBean.getThreadAllocatedBytes(threadId) - overhead;
+
+		// when:
+		var before = threadMxBean.getThreadAllocatedBytes(threadId);
+		for (int i = 0; i < numDecisions; i++) {
+			manyReqsSubject.allReqsMetAt(nowNanos + i * 1_000L);
+		}
+		var allocated = threadMxBean.getThreadAllocatedBytes(threadId) - before - overhead;
+
+		// then:
+		assertTrue(allocated < numDecisions,
+				"Expected no per-decision allocation, but " + numDecisions + " decisions allocated " + allocated + " bytes");
+	}
 }
@@ -20,6 +20,7 @@ package com.hedera.services.throttling;
  * ‍
  */
 
+import com.hedera.services.utils.TxnAccessor;
 import com.hederahashgraph.api.proto.java.ConsensusCreateTopicTransactionBody;
 import com.hederahashgraph.api.proto.java.ConsensusDeleteTopicTransactionBody;
 import com.hederahashgraph.api.proto.java.ConsensusSubmitMessageTransactionBody;
@@ -34,9 +35,12 @@ import static com.hederahashgraph.api.proto.java.HederaFunctionality.ConsensusCr
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.ConsensusDeleteTopic;
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.ConsensusSubmitMessage;
 import static com.hederahashgraph.api.proto.java.HederaFunctionality.ConsensusUpdateTopic;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.NONE;
+import static junit.framework.TestCase.assertFalse;
 import static junit.framework.TestCase.assertTrue;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.never;
 import static org.mockito.BDDMockito.verify;
 
 class TransactionThrottlingTest {
@@ -60,6 +64,37 @@ class TransactionThrottlingTest {
 		assertTrue(should);
 	}
 
+	@Test
+	public void throttlesAccessorOfUnknownFunction() {
+		// setup:
+		TxnAccessor accessor = mock(TxnAccessor.class);
+
+		given(accessor.getFunction()).willReturn(NONE);
+
+		// when:
+		boolean should = subject.shouldThrottle(accessor);
+
+		// then:
+		assertTrue(should);
+		verify(functionalThrottling, never()).shouldThrottleTxn(accessor);
+	}
+
+	@Test
+	public void delegatesAccessorToFunctionalThrottling() {
+		// setup:
+		TxnAccessor accessor = mock(TxnAccessor.class);
+
+		given(accessor.getFunction()).willReturn(ConsensusSubmitMessage);
+		given(functionalThrottling.shouldThrottleTxn(accessor)).willReturn(false);
+
+		// when:
+		boolean should = subject.shouldThrottle(accessor);
+
+		// then:
+		assertFalse(should);
+		verify(functionalThrottling).shouldThrottleTxn(accessor);
+	}
+
 	@Test
 	public void delegatesTopicCreateToFunctionalThrottling() {
 		// setup:
@@ -23,6 +23,8 @@ package com.hedera.services.throttling;
 import com.hedera.services.context.TransactionContext;
 import com.hedera.services.sysfiles.domain.throttling.ThrottleDefinitions;
 import com.hedera.services.throttles.DeterministicThrottle;
+import com.hedera.services.throttles.GasLimitDeterministicThrottle;
+import com.hedera.services.utils.TxnAccessor;
 import com.hederahashgraph.api.proto.java.HederaFunctionality;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -46,6 +48,8 @@ class TxnAwareHandleThrottlingTest {
 	TimedFunctionalityThrottling delegate;
 	@Mock
 	TransactionContext txnCtx;
+	@Mock
+	TxnAccessor accessor;
 
 	TxnAwareHandleThrottling subject;
 
@@ -65,14 +69,27 @@ class TxnAwareHandleThrottlingTest {
 		verify(delegate).shouldThrottle(HederaFunctionality.CryptoTransfer, consensusTime);
 	}
 
+	@Test
+	void delegatesTxnThrottlingDecisionsWithConsensusTime() {
+		given(txnCtx.consensusTime()).willReturn(consensusTime);
+		given(delegate.shouldThrottleTxn(accessor, consensusTime)).willReturn(true);
+
+		// expect:
+		assertTrue(subject.shouldThrottleTxn(accessor));
+		// and:
+		verify(delegate).shouldThrottleTxn(accessor, consensusTime);
+	}
+
 	@Test
 	void otherMethodsPassThrough() {
 		// setup:
 		ThrottleDefinitions defs = new ThrottleDefinitions();
 		List<DeterministicThrottle> whatever = List.of(DeterministicThrottle.withTps(1));
+		GasLimitDeterministicThrottle gasThrottle = new GasLimitDeterministicThrottle(1_234L);
 
 		given(delegate.allActiveThrottles()).willReturn(whatever);
 		given(delegate.activeThrottlesFor(HederaFunctionality.CryptoTransfer)).willReturn(whatever);
+		given(delegate.gasLimitThrottle()).willReturn(gasThrottle);
 
 		// when:
 		var all = subject.allActiveThrottles();
@@ -83,5 +100,6 @@ class TxnAwareHandleThrottlingTest {
 		verify(delegate).rebuildFor(defs);
 		assertSame(whatever, all);
 		assertSame(whatever, onlyXfer);
+		assertSame(gasThrottle, subject.gasLimitThrottle());
 	}
 }
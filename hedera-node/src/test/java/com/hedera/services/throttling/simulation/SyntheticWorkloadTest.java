@@ -0,0 +1,90 @@
+package com.hedera.services.throttling.simulation;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.ConsensusSubmitMessage;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.CryptoTransfer;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.any;
+import static org.mockito.BDDMockito.inOrder;
+import static org.mockito.BDDMockito.mock;
+import static org.mockito.BDDMockito.times;
+import static org.mockito.BDDMockito.verify;
+
+class SyntheticWorkloadTest {
+	private final Instant start = Instant.ofEpochSecond(1_234_567L);
+
+	private final ThrottleSimulator simulator = mock(ThrottleSimulator.class);
+
+	@Test
+	void interleavesFunctionsEvenlyInEachSecond() {
+		// setup:
+		final var inOrder = inOrder(simulator);
+
+		// given:
+		final var subject = SyntheticWorkload.from("2s:CryptoTransfer=3,ConsensusSubmitMessage=1");
+
+		// when:
+		final var end = subject.replayInto(simulator, start);
+
+		// then:
+		assertEquals(start.plusSeconds(2), end);
+		for (int s = 0; s < 2; s++) {
+			final var secondStart = start.plusSeconds(s);
+			inOrder.verify(simulator).submit(CryptoTransfer, secondStart);
+			inOrder.verify(simulator).submit(CryptoTransfer, secondStart.plusMillis(250));
+			inOrder.verify(simulator).submit(ConsensusSubmitMessage, secondStart.plusMillis(500));
+			inOrder.verify(simulator).submit(CryptoTransfer, secondStart.plusMillis(750));
+		}
+	}
+
+	@Test
+	void runsPhasesConsecutively() {
+		// given:
+		final var subject = SyntheticWorkload.from("1s:CryptoTransfer=2; 3s: ;1s:ConsensusSubmitMessage=1");
+
+		// when:
+		final var end = subject.replayInto(simulator, start);
+
+		// then:
+		assertEquals(start.plusSeconds(5), end);
+		verify(simulator, times(3)).submit(any(), any());
+		verify(simulator).submit(CryptoTransfer, start);
+		verify(simulator).submit(CryptoTransfer, start.plusMillis(500));
+		verify(simulator).submit(ConsensusSubmitMessage, start.plusSeconds(4));
+	}
+
+	@Test
+	void rejectsMalformedDescriptions() {
+		// expect:
+		assertThrows(IllegalArgumentException.class, () -> SyntheticWorkload.from("2:CryptoTransfer=1"));
+		assertThrows(IllegalArgumentException.class, () -> SyntheticWorkload.from("2s"));
+		assertThrows(IllegalArgumentException.class, () -> SyntheticWorkload.from("xs:CryptoTransfer=1"));
+		assertThrows(IllegalArgumentException.class, () -> SyntheticWorkload.from("2s:CryptoTransfer"));
+		assertThrows(IllegalArgumentException.class, () -> SyntheticWorkload.from("2s:CryptoTransfer=-1"));
+		assertThrows(IllegalArgumentException.class, () -> SyntheticWorkload.from("2s:NotAFunction=1"));
+	}
+}
@@ -0,0 +1,99 @@
+package com.hedera.services.throttling.simulation;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.config.MockGlobalDynamicProps;
+import com.hedera.test.utils.SerdeUtils;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static com.hedera.services.throttling.simulation.ThrottleSimulator.SYNTHETIC_START;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.CryptoTransfer;
+import static com.hederahashgraph.api.proto.java.HederaFunctionality.FileAppend;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ThrottleSimulatorTest {
+	private ThrottleSimulator subject;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		subject = new ThrottleSimulator(
+				SerdeUtils.pojoDefs("bootstrap/throttles.json"), 1, new MockGlobalDynamicProps());
+	}
+
+	@Test
+	void throttlesNothingWithinCapacity() {
+		// when:
+		SyntheticWorkload.from("5s:CryptoTransfer=5000").replayInto(subject, SYNTHETIC_START);
+
+		// then:
+		assertEquals(25_000, subject.submittedOf(CryptoTransfer));
+		assertEquals(0, subject.throttledOf(CryptoTransfer));
+		assertTrue(subject.getMultiplierChanges().isEmpty());
+	}
+
+	@Test
+	void throttlesUnknownFunctions() {
+		// when:
+		subject.submit(FileAppend, SYNTHETIC_START);
+
+		// then:
+		assertEquals(1, subject.submittedOf(FileAppend));
+		assertEquals(1, subject.throttledOf(FileAppend));
+	}
+
+	@Test
+	void tracksThrottlingAndMultiplierThroughCongestion() {
+		// when:
+		SyntheticWorkload.from("5s:CryptoTransfer=30000;5s:CryptoTransfer=100").replayInto(subject, SYNTHETIC_START);
+
+		// then:
+		assertEquals(150_500, subject.submittedOf(CryptoTransfer));
+		assertTrue(subject.throttledOf(CryptoTransfer) > 0);
+		// and:
+		final var changes = subject.getMultiplierChanges();
+		assertTrue(changes.size() >= 2);
+		assertEquals(100L, changes.stream().mapToLong(Pair::getRight).max().getAsLong());
+		assertEquals(1L, changes.get(changes.size() - 1).getRight());
+		// and:
+		final var report = subject.report();
+		assertTrue(report.contains("Simulated 150500 transactions"));
+		assertTrue(report.contains("100x for "));
+	}
+
+	@Test
+	void reportsEmptySimulation() {
+		// expect:
+		assertEquals("No transactions submitted", subject.report());
+	}
+
+	@Test
+	void rejectsNonPositiveCapacitySplit() {
+		// expect:
+		assertThrows(IllegalArgumentException.class, () -> new ThrottleSimulator(
+				SerdeUtils.pojoDefs("bootstrap/throttles.json"), 0, new MockGlobalDynamicProps()));
+	}
+}
@@ -0,0 +1,109 @@
+package com.hedera.services.txns.customfees;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.state.submerkle.EntityId;
+import com.hedera.services.state.submerkle.FcCustomFee;
+import com.hedera.services.store.models.Id;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CustomFeePlanTest {
+	private final Id token = new Id(0, 0, 1001);
+	private final EntityId denom = new EntityId(0, 0, 1002);
+	private final EntityId collector = new EntityId(0, 0, 1003);
+	private final List<FcCustomFee> schedule = List.of(
+			FcCustomFee.fixedFee(10L, null, collector),
+			FcCustomFee.fixedFee(20L, denom, collector),
+			FcCustomFee.fractionalFee(1L, 10L, 0L, 0L, collector),
+			FcCustomFee.fractionalFee(1L, 10L, 2L, 5L, collector));
+
+	@Test
+	void compilesEveryKindOfFee() {
+		// when:
+		final var subject = CustomFeePlan.compile(token, schedule);
+
+		// then:
+		assertEquals(4, subject.numFees());
+		assertSame(schedule, subject.schedule());
+		// and:
+		final var hbarFee = subject.fee(0);
+		assertFalse(hbarFee.isFractional());
+		assertTrue(hbarFee.isForHbar());
+		assertSame(collector, hbarFee.collector());
+		assertEquals(collector.asId(), hbarFee.collectorId());
+		assertNull(hbarFee.denomination());
+		assertEquals(10L, hbarFee.units());
+		// and:
+		final var htsFee = subject.fee(1);
+		assertFalse(htsFee.isForHbar());
+		assertSame(denom, htsFee.denomination());
+		assertEquals(denom.asId(), htsFee.denominationId());
+		assertEquals(20L, htsFee.units());
+		// and:
+		final var unboundedFee = subject.fee(2);
+		assertTrue(unboundedFee.isFractional());
+		assertEquals(token.asEntityId(), unboundedFee.denomination());
+		assertSame(token, unboundedFee.denominationId());
+		assertEquals(1L, unboundedFee.numerator());
+		assertEquals(10L, unboundedFee.denominator());
+		assertEquals(0L, unboundedFee.minUnits());
+		assertEquals(Long.MAX_VALUE, unboundedFee.maxUnits());
+		// and:
+		assertEquals(2L, subject.fee(3).minUnits());
+		assertEquals(5L, subject.fee(3).maxUnits());
+	}
+
+	@Test
+	void recognizesSameOrEqualSchedule() {
+		// given:
+		final var subject = CustomFeePlan.compile(token, schedule);
+
+		// expect:
+		assertTrue(subject.isCompiledFrom(schedule));
+		assertTrue(subject.isCompiledFrom(new ArrayList<>(schedule)));
+		assertFalse(subject.isCompiledFrom(schedule.subList(1, 4)));
+		assertFalse(subject.isCompiledFrom(Collections.emptyList()));
+	}
+
+	@Test
+	void toStringWorks() {
+		// given:
+		final var subject = CustomFeePlan.compile(token, schedule.subList(1, 3));
+		// and:
+		final var desired = "CustomFeePlan{fees=[" +
+				"PlannedFee{collector=" + collector + ", denomination=" + denom + ", units=20}, " +
+				"PlannedFee{collector=" + collector + ", denomination=" + token.asEntityId() +
+				", numerator=1, denominator=10, minUnits=0, maxUnits=" + Long.MAX_VALUE + "}]}";
+
+		// expect:
+		assertEquals(desired, subject.toString());
+	}
+}
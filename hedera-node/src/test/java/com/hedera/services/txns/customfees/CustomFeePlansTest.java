@@ -0,0 +1,97 @@
+package com.hedera.services.txns.customfees;
+
+/*-
+ * ‌
+ * Hedera Services Node
+ * ​
+ * Copyright (C) 2018 - 2021 Hedera Hashgraph, LLC
+ * ​
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ‍
+ */
+
+import com.hedera.services.state.submerkle.EntityId;
+import com.hedera.services.state.submerkle.FcCustomFee;
+import com.hedera.services.store.models.Id;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static com.hedera.services.txns.customfees.CustomFeePlans.MAX_CACHED_PLANS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class CustomFeePlansTest {
+	private final Id token = new Id(0, 0, 1001);
+	private final EntityId collector = new EntityId(0, 0, 1003);
+	private final List<FcCustomFee> schedule = List.of(FcCustomFee.fixedFee(10L, null, collector));
+
+	private CustomFeePlans subject;
+
+	@BeforeEach
+	void setUp() {
+		subject = new CustomFeePlans();
+	}
+
+	@Test
+	void doesNotCacheEmptySchedules() {
+		// expect:
+		assertSame(CustomFeePlan.NO_FEES, subject.planFor(token, Collections.emptyList()));
+		assertEquals(0, subject.numCached());
+	}
+
+	@Test
+	void reusesPlanForSameOrEqualSchedule() {
+		// given:
+		final var plan = subject.planFor(token, schedule);
+
+		// expect:
+		assertSame(plan, subject.planFor(token, schedule));
+		assertSame(plan, subject.planFor(token, new ArrayList<>(schedule)));
+		assertEquals(1, subject.numCached());
+	}
+
+	@Test
+	void recompilesPlanForChangedSchedule() {
+		// given:
+		final var plan = subject.planFor(token, schedule);
+		final var updatedSchedule = List.of(FcCustomFee.fixedFee(20L, null, collector));
+
+		// when:
+		final var updatedPlan = subject.planFor(token, updatedSchedule);
+
+		// then:
+		assertNotSame(plan, updatedPlan);
+		assertSame(updatedSchedule, updatedPlan.schedule());
+		assertSame(updatedPlan, subject.planFor(token, updatedSchedule));
+		assertEquals(1, subject.numCached());
+	}
+
+	@Test
+	void clearsCacheWhenFull() {
+		// given:
+		for (int i = 0; i < MAX_CACHED_PLANS; i++) {
+			subject.planFor(new Id(0, 0, i), schedule);
+		}
+
+		// when:
+		subject.planFor(token, schedule);
+
+		// then:
+		assertEquals(1, subject.numCached());
+	}
+}
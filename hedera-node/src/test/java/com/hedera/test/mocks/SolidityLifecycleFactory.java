@@ -22,9 +22,12 @@ package com.hedera.test.mocks;
 
 import com.hedera.services.config.MockGlobalDynamicProps;
 import com.hedera.services.contracts.execution.SolidityLifecycle;
+import com.hedera.services.contracts.persistence.WriteBackStorageCache;
+
+import static org.mockito.BDDMockito.mock;
 
 public class SolidityLifecycleFactory {
 	public static SolidityLifecycle newTestInstance() {
-		return new SolidityLifecycle(new MockGlobalDynamicProps());
+		return new SolidityLifecycle(new MockGlobalDynamicProps(), mock(WriteBackStorageCache.class));
 	}
 }
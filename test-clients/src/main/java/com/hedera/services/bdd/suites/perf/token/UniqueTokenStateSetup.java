@@ -41,12 +41,15 @@ import java.util.function.IntFunction;
 import java.util.stream.IntStream;
 
 import static com.hedera.services.bdd.spec.HapiApiSpec.defaultHapiSpec;
+import static com.hedera.services.bdd.spec.queries.QueryVerbs.getTokenInfo;
 import static com.hedera.services.bdd.spec.transactions.TxnVerbs.cryptoCreate;
 import static com.hedera.services.bdd.spec.transactions.TxnVerbs.mintToken;
 import static com.hedera.services.bdd.spec.transactions.TxnVerbs.tokenCreate;
+import static com.hedera.services.bdd.spec.utilops.CustomSpecAssert.allRunFor;
 import static com.hedera.services.bdd.spec.utilops.UtilVerbs.inParallel;
 import static com.hedera.services.bdd.spec.utilops.UtilVerbs.runWithProvider;
 import static com.hedera.services.bdd.spec.utilops.UtilVerbs.sleepFor;
+import static com.hedera.services.bdd.spec.utilops.UtilVerbs.withOpContext;
 import static com.hederahashgraph.api.proto.java.TokenSupplyType.INFINITE;
 import static com.hederahashgraph.api.proto.java.TokenType.NON_FUNGIBLE_UNIQUE;
 import static java.util.concurrent.TimeUnit.SECONDS;
@@ -60,6 +63,13 @@ import static java.util.concurrent.TimeUnit.SECONDS;
  * The exact number of entities to create can be configured using the
  * constants at the top of the class definition.
  *
+ * If {@code MEASURE_MINT_TPS} is set, the client instead mints NFTs for a
+ * single token in batches of {@code MAX_BATCH_SIZE_MINT} (which should
+ * match the network's {@code tokens.nfts.maxBatchSizeMint}) for
+ * {@code MINT_TPS_SECS_TO_RUN} seconds, and then reports the submitted and
+ * confirmed mint throughput; so the same run against two builds compares
+ * how fast each persists collection-sized mints.
+ *
  * <b>IMPORTANT:</b> Please note the following two items:
  * <ol>
  *   <li>
@@ -91,6 +101,14 @@ public class UniqueTokenStateSetup extends HapiApiSuite {
 	private static final int UNIQ_TOKENS_PER_TREASURY = 500;
 	private static final int METADATA_SIZE = 100;
 
+	private static final boolean MEASURE_MINT_TPS = false;
+	private static final long MINT_TPS_SECS_TO_RUN = 300;
+	private static final int MINT_TPS_MAX_OPS_PER_SEC = 500;
+	private static final int MAX_BATCH_SIZE_MINT = 10;
+	private static final long MINT_TPS_DRAIN_MS = 10_000L;
+	private static final String MINT_TPS_TREASURY = "mintTpsTreasury";
+	private static final String MINT_TPS_TOKEN = "mintTpsToken";
+
 	final IntFunction<String> treasuryNameFn = i -> "treasury" + i;
 	final IntFunction<String> uniqueTokenNameFn = i -> "uniqueToken" + i;
 	private AtomicLong duration = new AtomicLong(SECS_TO_RUN);
@@ -109,11 +127,71 @@ public class UniqueTokenStateSetup extends HapiApiSuite {
 	@Override
 	protected List<HapiApiSpec> getSpecsInSuite() {
 		return List.of(new HapiApiSpec[] {
-						createNfts(),
+						MEASURE_MINT_TPS ? measureMintTps() : createNfts(),
 				}
 		);
 	}
 
+	private HapiApiSpec measureMintTps() {
+		final AtomicLong mintsSubmitted = new AtomicLong(0);
+		final AtomicLong startNanos = new AtomicLong(0);
+
+		return defaultHapiSpec("MeasureMintTps")
+				.given(
+						cryptoCreate(MINT_TPS_TREASURY)
+								.payingWith(GENESIS)
+								.balance(0L)
+								.key(GENESIS),
+						tokenCreate(MINT_TPS_TOKEN)
+								.payingWith(GENESIS)
+								.tokenType(NON_FUNGIBLE_UNIQUE)
+								.supplyType(INFINITE)
+								.initialSupply(0)
+								.supplyKey(GENESIS)
+								.treasury(MINT_TPS_TREASURY),
+						withOpContext((spec, opLog) -> startNanos.set(System.nanoTime()))
+				).when(
+						runWithProvider(batchMintFactory(mintsSubmitted))
+								.lasting(() -> MINT_TPS_SECS_TO_RUN, () -> SECONDS)
+								.maxOpsPerSec(() -> MINT_TPS_MAX_OPS_PER_SEC)
+				).then(
+						sleepFor(MINT_TPS_DRAIN_MS),
+						withOpContext((spec, opLog) -> {
+							final var secs = (System.nanoTime() - startNanos.get()) / 1_000_000_000.0;
+							final var info = getTokenInfo(MINT_TPS_TOKEN).noLogging();
+							allRunFor(spec, info);
+							final var minted = info.getResponse().getTokenGetInfo().getTokenInfo().getTotalSupply();
+							final var submitted = mintsSubmitted.get();
+							log.info(String.format(
+									"Submitted %d mints of %d NFTs (%.1f mints/sec); " +
+											"%d NFTs minted in %.1fs (%.1f NFTs/sec, %.1f mints/sec)",
+									submitted, MAX_BATCH_SIZE_MINT, submitted / secs,
+									minted, secs, minted / secs, minted / secs / MAX_BATCH_SIZE_MINT));
+						})
+				);
+	}
+
+	private Function<HapiApiSpec, OpProvider> batchMintFactory(AtomicLong mintsSubmitted) {
+		final AtomicInteger nftsSubmitted = new AtomicInteger(0);
+
+		return spec -> new OpProvider() {
+			@Override
+			public Optional<HapiSpecOperation> get() {
+				final List<ByteString> allMeta = new ArrayList<>();
+				for (int i = 0; i < MAX_BATCH_SIZE_MINT; i++) {
+					allMeta.add(metadataFor(MINT_TPS_TOKEN, nftsSubmitted.incrementAndGet()));
+				}
+				final var op = mintToken(MINT_TPS_TOKEN, allMeta)
+						.payingWith(GENESIS)
+						.deferStatusResolution()
+						.fee(ONE_HBAR)
+						.noLogging();
+				mintsSubmitted.incrementAndGet();
+				return Optional.of(op);
+			}
+		};
+	}
+
 	private HapiApiSpec createNfts() {
 		return defaultHapiSpec("CreateNfts")
 				.given().when().then(